@@ -0,0 +1,86 @@
+package com.cryptosim.trading212.config;
+
+import com.cryptosim.trading212.daos.ReplicaRouter;
+import com.cryptosim.trading212.services.contracts.AccountVersionService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes across nodes: a response to a request that changed an account carries a short-lived cookie with
+ * the time of the change, and {@link WebConfig} hands the cookie of every later request to the
+ * {@link AccountVersionService}, so whichever node serves the client's next read skips the replicas that have not
+ * applied the change yet (see {@link ReplicaRouter}).
+ * <p>
+ * Clients that do not keep cookies only see their own changes on replicas while their requests stay on the node
+ * that made them, so such clients need sticky load balancing when replicas are configured.
+ */
+@ControllerAdvice
+public class ReadYourWritesAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String COOKIE_NAME = "last_write";
+    // Once it expires, every usable replica has the change anyway
+    private static final Duration COOKIE_MAX_AGE = Duration.ofMillis(ReplicaRouter.STICKY_WINDOW_MILLIS + ReplicaRouter.MAX_CLOCK_SKEW_MILLIS).plusSeconds(1);
+
+    private final AccountVersionService accountVersionService;
+
+    @Autowired
+    public ReadYourWritesAdvice(AccountVersionService accountVersionService) {
+        this.accountVersionService = accountVersionService;
+    }
+
+    /**
+     * @return The change time carried by the request's cookie, or 0 if it has none or it is malformed.
+     */
+    static long readChangedAt(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    // Runs before the body commits the response, unlike HandlerInterceptor.postHandle
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        long changedAt = accountVersionService.getClientChangedAt();
+        if (changedAt > 0 && request instanceof ServletServerHttpRequest servletRequest
+                && changedAt > readChangedAt(servletRequest.getServletRequest())) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(changedAt))
+                    .path("/api")
+                    .httpOnly(true)
+                    .maxAge(COOKIE_MAX_AGE)
+                    .build();
+            response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,97 @@
+package com.cryptosim.trading212.config;
+
+import com.cryptosim.trading212.daos.ReplicaRouter;
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sets up one connection pool per database shard and per read replica, and the routing DataSource used by the DAOs.
+ * <p>
+ * The shards are listed in {@code persistence.shards.urls}; without it the application runs on the single
+ * {@code spring.datasource.url}. Credentials and driver are shared. With several shards every pool sets the
+ * auto-increment step to {@link ShardRouter#MAX_SHARDS} and the offset to its shard number, so generated IDs are
+ * unique across all shards.
+ * <p>
+ * Read replicas are listed in {@code persistence.shards.replica-urls}: one group per shard, in shard order, separated
+ * by ';', each a comma-separated list of replica URLs (an empty group for a shard without replicas).
+ */
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(DataSourceProperties dataSourceProperties,
+                                   @Value("${persistence.shards.urls:}") String shardUrls) {
+        List<String> urls = new ArrayList<>();
+        for (String url : shardUrls.split(",")) {
+            if (!url.isBlank()) {
+                urls.add(url.trim());
+            }
+        }
+        if (urls.isEmpty()) {
+            urls.add(dataSourceProperties.getUrl());
+        }
+
+        List<DataSource> shardDataSources = new ArrayList<>(urls.size());
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource dataSource = pool(dataSourceProperties, urls.get(shard), "shard-" + shard);
+            if (urls.size() > 1) {
+                dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + ShardRouter.MAX_SHARDS
+                        + ", auto_increment_offset = " + (shard + 1));
+            }
+            shardDataSources.add(dataSource);
+        }
+        return new ShardRouter(shardDataSources);
+    }
+
+    @Bean
+    public ReplicaRouter replicaRouter(ShardRouter shardRouter, DataSourceProperties dataSourceProperties,
+                                       @Value("${persistence.shards.replica-urls:}") String replicaUrls) {
+        List<List<DataSource>> replicaDataSources = new ArrayList<>();
+        String[] groups = replicaUrls.split(";");
+        for (int shard = 0; shard < groups.length; shard++) {
+            List<DataSource> shardReplicas = new ArrayList<>();
+            for (String url : groups[shard].split(",")) {
+                if (!url.isBlank()) {
+                    HikariDataSource dataSource = pool(dataSourceProperties, url.trim(), "shard-" + shard + "-replica-" + shardReplicas.size());
+                    dataSource.setReadOnly(true);
+                    shardReplicas.add(dataSource);
+                }
+            }
+            replicaDataSources.add(shardReplicas);
+        }
+        return new ReplicaRouter(shardRouter, replicaDataSources);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties dataSourceProperties, String url, String name) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+
+    /**
+     * The lazy proxy only takes a physical connection when the first statement runs, so a transaction begun by
+     * the transaction manager connects to the shard the DAOs route to, not to the shard current at its start.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRouter shardRouter) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(shardRouter.getRoutingDataSource());
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        return dataSource;
+    }
+}
@@ -1,11 +1,27 @@
 package com.cryptosim.trading212.config;
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.services.contracts.AccountVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ShardRouter shardRouter;
+    private final AccountVersionService accountVersionService;
+
+    @Autowired
+    public WebConfig(ShardRouter shardRouter, AccountVersionService accountVersionService) {
+        this.shardRouter = shardRouter;
+        this.accountVersionService = accountVersionService;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -20,4 +36,23 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true); // for cookies
     }
+
+    // Request threads are pooled, so a request must not inherit the shard route or client change time of the previous one
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                accountVersionService.clearClientChangedAt();
+                accountVersionService.setClientChangedAt(ReadYourWritesAdvice.readChangedAt(request));
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                shardRouter.clearRoute();
+                accountVersionService.clearClientChangedAt();
+            }
+        });
+    }
 }
\ No newline at end of file
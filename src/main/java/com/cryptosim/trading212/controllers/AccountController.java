@@ -1,19 +1,28 @@
 package com.cryptosim.trading212.controllers;
 
+import com.cryptosim.trading212.dtos.AccountDashboard;
+import com.cryptosim.trading212.dtos.AccountSyncResponse;
+import com.cryptosim.trading212.dtos.TransactionPage;
 import com.cryptosim.trading212.models.Account;
 import com.cryptosim.trading212.models.PortfolioAsset;
 import com.cryptosim.trading212.models.Transaction;
-import com.cryptosim.trading212.services.KrakenDataServiceImpl;
+import com.cryptosim.trading212.services.AccountSyncServiceImpl;
+import com.cryptosim.trading212.services.AccountVersionServiceImpl;
+import com.cryptosim.trading212.services.DashboardServiceImpl;
 import com.cryptosim.trading212.services.TradingServiceImpl;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,23 +40,66 @@ public class AccountController {
     private static final Logger logger = LoggerFactory.getLogger(AccountController.class);
 
     private final TradingServiceImpl tradingServiceImpl;
-    private final KrakenDataServiceImpl krakenDataServiceImpl; // For enriching portfolio with current prices
+    private final KrakenDataService krakenDataService; // For enriching portfolio with current prices
+    private final DashboardServiceImpl dashboardServiceImpl;
+    private final AccountVersionServiceImpl accountVersionServiceImpl; // For ETags on account state
+    private final AccountSyncServiceImpl accountSyncServiceImpl;
 
     @Autowired
-    public AccountController(TradingServiceImpl tradingServiceImpl, KrakenDataServiceImpl krakenDataServiceImpl) {
+    public AccountController(TradingServiceImpl tradingServiceImpl, KrakenDataService krakenDataService,
+                             DashboardServiceImpl dashboardServiceImpl, AccountVersionServiceImpl accountVersionServiceImpl,
+                             AccountSyncServiceImpl accountSyncServiceImpl) {
         this.tradingServiceImpl = tradingServiceImpl;
-        this.krakenDataServiceImpl = krakenDataServiceImpl;
+        this.krakenDataService = krakenDataService;
+        this.dashboardServiceImpl = dashboardServiceImpl;
+        this.accountVersionServiceImpl = accountVersionServiceImpl;
+        this.accountSyncServiceImpl = accountSyncServiceImpl;
+    }
+
+    /**
+     * Retrieves everything the dashboard page shows in one response: account details, current prices,
+     * the portfolio valued against those prices, and the most recent transactions.
+     * @param userIdentifier The unique identifier for the user.
+     * @param transactionLimit The maximum number of recent transactions to include.
+     * @param currency The currency to value the portfolio in (default USD), e.g. EUR or BTC.
+     * @return ResponseEntity with the AccountDashboard or an error status.
+     */
+    @GetMapping("/{userIdentifier}/dashboard")
+    public ResponseEntity<?> getDashboard(@PathVariable String userIdentifier,
+                                          @RequestParam(defaultValue = "50") int transactionLimit,
+                                          @RequestParam(defaultValue = "USD") String currency) {
+        try {
+            AccountDashboard dashboard = dashboardServiceImpl.getDashboard(userIdentifier, transactionLimit, currency);
+            return ResponseEntity.ok(dashboard);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Dashboard request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Dashboard request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching dashboard for {}: ", userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
     }
 
     /**
      * Retrieves account details for a given user identifier.
+     * Answers 304 Not Modified after a single-row lookup when If-None-Match carries the current account version.
      * @param userIdentifier The unique identifier for the user.
+     * @param webRequest The current request, used for the conditional check.
      * @return ResponseEntity with Account details or an error status.
      */
     @GetMapping("/{userIdentifier}")
-    public ResponseEntity<?> getAccountDetails(@PathVariable String userIdentifier) {
+    public ResponseEntity<?> getAccountDetails(@PathVariable String userIdentifier, WebRequest webRequest) {
         try {
-            Account account = tradingServiceImpl.getAccountDetails(userIdentifier);
+            // The tag must be taken before the query and from the same database so it never names a newer version than the data
+            Account account = tradingServiceImpl.readAccountState(userIdentifier, () ->
+                    webRequest.checkNotModified(accountVersionServiceImpl.getETag(userIdentifier))
+                            ? null : tradingServiceImpl.getAccountDetails(userIdentifier));
+            if (account == null) {
+                return null;
+            }
             return ResponseEntity.ok(account);
         } catch (NoSuchElementException e) {
             logger.warn("Account details request failed for {}: {}", userIdentifier, e.getMessage());
@@ -60,17 +112,25 @@ public class AccountController {
 
     /**
      * Retrieves the portfolio for a given user, enriched with current market values.
+     * The ETag is weak: it tracks the holdings only, so a 304 means the holdings are unchanged
+     * while the market values may have moved with the prices.
      * @param userIdentifier The unique identifier for the user.
+     * @param webRequest The current request, used for the conditional check.
      * @return ResponseEntity with a list of portfolio assets (enriched) or an error status.
      */
     @GetMapping("/{userIdentifier}/portfolio")
-    public ResponseEntity<?> getPortfolio(@PathVariable String userIdentifier) {
+    public ResponseEntity<?> getPortfolio(@PathVariable String userIdentifier, WebRequest webRequest) {
         try {
-            List<PortfolioAsset> portfolio = tradingServiceImpl.getPortfolio(userIdentifier);
+            List<PortfolioAsset> portfolio = tradingServiceImpl.readAccountState(userIdentifier, () ->
+                    webRequest.checkNotModified("W/" + accountVersionServiceImpl.getETag(userIdentifier))
+                            ? null : tradingServiceImpl.getPortfolio(userIdentifier));
+            if (portfolio == null) {
+                return null;
+            }
             // Enrich with current market value
             List<Map<String, Object>> enrichedPortfolio = portfolio.stream().map(asset -> {
                 Map<String, Object> assetMap = new HashMap<>(); // Use HashMap for explicit typing
-                BigDecimal currentPrice = krakenDataServiceImpl.getPriceForSymbol(asset.getAssetSymbol());
+                BigDecimal currentPrice = krakenDataService.getPriceForSymbol(asset.getAssetSymbol());
                 BigDecimal currentValue = BigDecimal.ZERO;
 
                 if (currentPrice != null && asset.getQuantity() != null) {
@@ -101,13 +161,20 @@ public class AccountController {
 
     /**
      * Retrieves the transaction history for a given user.
+     * Answers 304 Not Modified after a single-row lookup when If-None-Match carries the current account version.
      * @param userIdentifier The unique identifier for the user.
+     * @param webRequest The current request, used for the conditional check.
      * @return ResponseEntity with a list of transactions or an error status.
      */
     @GetMapping("/{userIdentifier}/transactions")
-    public ResponseEntity<?> getTransactionHistory(@PathVariable String userIdentifier) {
+    public ResponseEntity<?> getTransactionHistory(@PathVariable String userIdentifier, WebRequest webRequest) {
         try {
-            List<Transaction> transactions = tradingServiceImpl.getTransactionHistory(userIdentifier);
+            List<Transaction> transactions = tradingServiceImpl.readAccountState(userIdentifier, () ->
+                    webRequest.checkNotModified(accountVersionServiceImpl.getETag(userIdentifier))
+                            ? null : tradingServiceImpl.getTransactionHistory(userIdentifier));
+            if (transactions == null) {
+                return null;
+            }
             return ResponseEntity.ok(transactions);
         } catch (NoSuchElementException e) {
             logger.warn("Transaction history request failed for {}: {}", userIdentifier, e.getMessage());
@@ -118,6 +185,60 @@ public class AccountController {
         }
     }
 
+    /**
+     * Retrieves one page of the transaction history for a given user, newest first, including archived months.
+     * The first page is requested without a cursor; later pages pass the nextBeforeTimestamp and nextBeforeId
+     * of the previous page.
+     * @param userIdentifier The unique identifier for the user.
+     * @param limit The maximum number of transactions on the page (at most 500).
+     * @param beforeTimestamp The timestamp of the cursor, e.g. 2026-03-01T12:00:00.
+     * @param beforeId The transaction ID of the cursor.
+     * @return ResponseEntity with the TransactionPage or an error status.
+     */
+    @GetMapping("/{userIdentifier}/transactions/page")
+    public ResponseEntity<?> getTransactionHistoryPage(@PathVariable String userIdentifier,
+                                                       @RequestParam(defaultValue = "50") int limit,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTimestamp,
+                                                       @RequestParam(required = false) Integer beforeId) {
+        try {
+            TransactionPage page = tradingServiceImpl.getTransactionHistoryPage(userIdentifier, beforeTimestamp, beforeId, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Transaction page request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Transaction page request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching transaction page for {}: ", userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Returns the changes to the user's balance, positions and transaction history since the given version.
+     * Clients keep the returned version and pass it as 'since' on the next call; omitting it returns a full snapshot.
+     * @param userIdentifier The unique identifier for the user.
+     * @param since The last version the client has applied.
+     * @return ResponseEntity with the AccountSyncResponse or an error status.
+     */
+    @GetMapping("/{userIdentifier}/sync")
+    public ResponseEntity<?> sync(@PathVariable String userIdentifier, @RequestParam(defaultValue = "0") long since) {
+        try {
+            AccountSyncResponse syncResponse = accountSyncServiceImpl.sync(userIdentifier, since);
+            return ResponseEntity.ok(syncResponse);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Sync request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Sync request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error syncing account for {}: ", userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
     /**
      * Resets the account for the given user identifier to its initial state.
      * @param userIdentifier The unique identifier for the user.
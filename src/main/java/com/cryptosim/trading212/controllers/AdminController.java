@@ -0,0 +1,394 @@
+package com.cryptosim.trading212.controllers;
+
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.dtos.BulkAccountRequest;
+import com.cryptosim.trading212.dtos.ReplicaStats;
+import com.cryptosim.trading212.dtos.ShardStats;
+import com.cryptosim.trading212.models.LedgerDiscrepancy;
+import com.cryptosim.trading212.models.SeasonStanding;
+import com.cryptosim.trading212.models.TransactionExportFormat;
+import com.cryptosim.trading212.services.AccountBatchServiceImpl;
+import com.cryptosim.trading212.services.LedgerReconciliationServiceImpl;
+import com.cryptosim.trading212.services.PnlServiceImpl;
+import com.cryptosim.trading212.services.ShardAdminServiceImpl;
+import com.cryptosim.trading212.services.TransactionArchiveServiceImpl;
+import com.cryptosim.trading212.services.TransactionExportServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * REST Controller for maintenance jobs.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    private final PnlServiceImpl pnlServiceImpl;
+    private final ShardAdminServiceImpl shardAdminServiceImpl;
+    private final TransactionArchiveServiceImpl transactionArchiveServiceImpl;
+    private final AccountBatchServiceImpl accountBatchServiceImpl;
+    private final TransactionExportServiceImpl transactionExportServiceImpl;
+    private final LedgerReconciliationServiceImpl ledgerReconciliationServiceImpl;
+
+    @Autowired
+    public AdminController(PnlServiceImpl pnlServiceImpl, ShardAdminServiceImpl shardAdminServiceImpl,
+                           TransactionArchiveServiceImpl transactionArchiveServiceImpl, AccountBatchServiceImpl accountBatchServiceImpl,
+                           TransactionExportServiceImpl transactionExportServiceImpl,
+                           LedgerReconciliationServiceImpl ledgerReconciliationServiceImpl) {
+        this.pnlServiceImpl = pnlServiceImpl;
+        this.shardAdminServiceImpl = shardAdminServiceImpl;
+        this.transactionArchiveServiceImpl = transactionArchiveServiceImpl;
+        this.accountBatchServiceImpl = accountBatchServiceImpl;
+        this.transactionExportServiceImpl = transactionExportServiceImpl;
+        this.ledgerReconciliationServiceImpl = ledgerReconciliationServiceImpl;
+    }
+
+    /**
+     * Starts rebuilding the P&L rollups from the full transaction history in the background.
+     * @return ResponseEntity with the job progress (202), or 409 if a backfill is already running.
+     */
+    @PostMapping("/pnl/backfill")
+    public ResponseEntity<?> startPnlBackfill() {
+        try {
+            BackfillProgress progress = pnlServiceImpl.startBackfill();
+            return ResponseEntity.accepted().body(progress);
+        } catch (IllegalStateException e) {
+            logger.warn("P&L backfill not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error starting P&L backfill: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while starting the backfill.");
+        }
+    }
+
+    /**
+     * Reports the progress of the current or last P&L backfill.
+     * @return ResponseEntity with the job progress, or 404 if no backfill ran since startup.
+     */
+    @GetMapping("/pnl/backfill")
+    public ResponseEntity<?> getPnlBackfillProgress() {
+        BackfillProgress progress = pnlServiceImpl.getBackfillProgress();
+        if (progress == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No P&L backfill has run since startup.");
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    /**
+     * Reports the size of every database shard.
+     * @return ResponseEntity with one entry per shard.
+     */
+    @GetMapping("/shards")
+    public ResponseEntity<?> getShardStats() {
+        try {
+            List<ShardStats> stats = shardAdminServiceImpl.getShardStats();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error collecting shard statistics: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while collecting shard statistics.");
+        }
+    }
+
+    /**
+     * Reports the measured lag of every read replica and how many reads it served.
+     * @return ResponseEntity with one entry per replica; empty if no replicas are configured.
+     */
+    @GetMapping("/replicas")
+    public ResponseEntity<?> getReplicaStats() {
+        List<ReplicaStats> stats = shardAdminServiceImpl.getReplicaStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Starts moving the accounts that are not on the shard they are placed on, e.g. after adding a shard.
+     * Meant for a maintenance window; other nodes must be restarted afterwards.
+     * @return ResponseEntity with the job progress (202), or 409 if a rebalance is already running.
+     */
+    @PostMapping("/shards/rebalance")
+    public ResponseEntity<?> startShardRebalance() {
+        try {
+            BackfillProgress progress = shardAdminServiceImpl.startRebalance();
+            return ResponseEntity.accepted().body(progress);
+        } catch (IllegalStateException e) {
+            logger.warn("Shard rebalance not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error starting shard rebalance: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while starting the rebalance.");
+        }
+    }
+
+    /**
+     * Reports the progress of the current or last shard rebalance.
+     * @return ResponseEntity with the job progress, or 404 if no rebalance ran since startup.
+     */
+    @GetMapping("/shards/rebalance")
+    public ResponseEntity<?> getShardRebalanceProgress() {
+        BackfillProgress progress = shardAdminServiceImpl.getRebalanceProgress();
+        if (progress == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No shard rebalance has run since startup.");
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    /**
+     * Starts the transaction partition maintenance now instead of at its next scheduled run: upcoming months are
+     * partitioned and old months moved to the archive.
+     * @return ResponseEntity with the job progress (202), or 409 if a run is already in progress on any node.
+     */
+    @PostMapping("/transactions/archive")
+    public ResponseEntity<?> startTransactionArchive() {
+        try {
+            BackfillProgress progress = transactionArchiveServiceImpl.startMaintenance();
+            return ResponseEntity.accepted().body(progress);
+        } catch (IllegalStateException e) {
+            logger.warn("Transaction archiving not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error starting transaction archiving: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while starting the archive run.");
+        }
+    }
+
+    /**
+     * Reports the progress of the current or last transaction archive run of this node.
+     * @return ResponseEntity with the job progress, or 404 if no run started on this node since startup.
+     */
+    @GetMapping("/transactions/archive")
+    public ResponseEntity<?> getTransactionArchiveProgress() {
+        BackfillProgress progress = transactionArchiveServiceImpl.getMaintenanceProgress();
+        if (progress == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No transaction archive run has started since startup.");
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    /**
+     * Starts exporting the transactions of all accounts, including archived months, into gzip-compressed files in the
+     * export directory of this node, one file per shard and account ID range.
+     * @param format CSV or NDJSON.
+     * @param from The earliest transaction timestamp, inclusive, e.g. 2026-01-01T00:00:00; all history if omitted.
+     * @param to The end of the period, exclusive; up to now if omitted.
+     * @return ResponseEntity with the job progress (202), 400 for an empty period, or 409 if an export is already running.
+     */
+    @PostMapping("/transactions/export")
+    public ResponseEntity<?> startTransactionExport(@RequestParam(defaultValue = "CSV") TransactionExportFormat format,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            BackfillProgress progress = transactionExportServiceImpl.startExport(format, from, to);
+            return ResponseEntity.accepted().body(progress);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Transaction export rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            logger.warn("Transaction export not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error starting transaction export: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while starting the export.");
+        }
+    }
+
+    /**
+     * Reports the progress of the current or last transaction file export of this node.
+     * @return ResponseEntity with the job progress, or 404 if no export started on this node since startup.
+     */
+    @GetMapping("/transactions/export")
+    public ResponseEntity<?> getTransactionExportProgress() {
+        BackfillProgress progress = transactionExportServiceImpl.getExportProgress();
+        if (progress == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No transaction export has started since startup.");
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    /**
+     * Streams the transactions of all accounts, including archived months, as one gzip-compressed document.
+     * Failures after the first bytes were sent abort the response, so clients must check that the gzip stream is complete.
+     * @param format CSV or NDJSON.
+     * @param from The earliest transaction timestamp, inclusive; all history if omitted.
+     * @param to The end of the period, exclusive; up to now if omitted.
+     * @return ResponseEntity streaming the export, or 400 for an empty period.
+     */
+    @GetMapping("/transactions/export/download")
+    public ResponseEntity<?> downloadTransactionExport(@RequestParam(defaultValue = "CSV") TransactionExportFormat format,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            transactionExportServiceImpl.validateExport(format, from, to);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Transaction export download rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        StreamingResponseBody body = out -> transactionExportServiceImpl.exportTo(out, format, from, to);
+        String fileName = "transactions." + (format == TransactionExportFormat.CSV ? "csv" : "ndjson") + ".gz";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(body);
+    }
+
+    /**
+     * Starts creating accounts for a group of users in the background, e.g. when onboarding a class.
+     * Users that already have an account keep it, so the same request can be repeated after a failure.
+     * @param request The user identifiers and the initial balance of their accounts.
+     * @return ResponseEntity with the job progress (202), 400 for an invalid request, or 409 if another account batch job is running.
+     */
+    @PostMapping("/accounts/bulk")
+    public ResponseEntity<?> startBulkProvisioning(@RequestBody BulkAccountRequest request) {
+        try {
+            BackfillProgress progress = accountBatchServiceImpl.startProvisioning(request.getUserIdentifiers(), request.getInitialBalance());
+            return ResponseEntity.accepted().body(progress);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Bulk provisioning rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            logger.warn("Bulk provisioning not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error starting bulk provisioning: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while starting the provisioning.");
+        }
+    }
+
+    /**
+     * Starts closing a competition season: records the final standings at the current prices and resets every
+     * account to its initial balance without positions. Trading should be paused while it runs.
+     * Calling it again for the same season resumes it, rolling over only the accounts without standings.
+     * @param seasonName The name of the closed season, e.g. 2026-q3.
+     * @return ResponseEntity with the job progress (202), 400 for an invalid name, or 409 if another account batch
+     * job is running.
+     */
+    @PostMapping("/seasons/{seasonName}/rollover")
+    public ResponseEntity<?> startSeasonRollover(@PathVariable String seasonName) {
+        try {
+            BackfillProgress progress = accountBatchServiceImpl.startSeasonRollover(seasonName);
+            return ResponseEntity.accepted().body(progress);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Season rollover rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            logger.warn("Season rollover not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error starting rollover of season {}: ", seasonName, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while starting the rollover.");
+        }
+    }
+
+    /**
+     * Reports the progress of the current or last bulk provisioning or season rollover.
+     * @return ResponseEntity with the job progress, or 404 if no such job ran since startup.
+     */
+    @GetMapping("/accounts/batch-job")
+    public ResponseEntity<?> getAccountBatchProgress() {
+        BackfillProgress progress = accountBatchServiceImpl.getJobProgress();
+        if (progress == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No account batch job has run since startup.");
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    /**
+     * Retrieves the best final standings of a season.
+     * @param seasonName The name of the season.
+     * @param limit The maximum number of standings (at most 1000).
+     * @return ResponseEntity with the standings, best first, or an error status.
+     */
+    @GetMapping("/seasons/{seasonName}/standings")
+    public ResponseEntity<?> getSeasonStandings(@PathVariable String seasonName, @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<SeasonStanding> standings = accountBatchServiceImpl.getStandings(seasonName, limit);
+            return ResponseEntity.ok(standings);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Standings request for season {} failed: {}", seasonName, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Standings request for season {} failed: {}", seasonName, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching standings of season {}: ", seasonName, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Starts checking the balances and positions of all accounts against their initial balance and transaction log.
+     * Best run in a maintenance window; accounts that trade meanwhile are skipped. A failed run is resumed by passing
+     * its run ID, the suffix of its job name.
+     * @param repair Whether to overwrite differing balances and positions with the ones rebuilt from the log.
+     * @param resumeRunId The run to resume; a new run if omitted.
+     * @return ResponseEntity with the job progress (202), 400 for a malformed run ID, or 409 if a reconciliation is already running.
+     */
+    @PostMapping("/ledger/reconciliation")
+    public ResponseEntity<?> startLedgerReconciliation(@RequestParam(defaultValue = "false") boolean repair,
+                                                       @RequestParam(required = false) String resumeRunId) {
+        try {
+            BackfillProgress progress = ledgerReconciliationServiceImpl.startReconciliation(repair, resumeRunId);
+            return ResponseEntity.accepted().body(progress);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ledger reconciliation rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            logger.warn("Ledger reconciliation not started: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error starting ledger reconciliation: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while starting the reconciliation.");
+        }
+    }
+
+    /**
+     * Reports the progress of the current or last ledger reconciliation of this node.
+     * @return ResponseEntity with the job progress, or 404 if no reconciliation started on this node since startup.
+     */
+    @GetMapping("/ledger/reconciliation")
+    public ResponseEntity<?> getLedgerReconciliationProgress() {
+        BackfillProgress progress = ledgerReconciliationServiceImpl.getReconciliationProgress();
+        if (progress == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No ledger reconciliation has started since startup.");
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    /**
+     * Retrieves the discrepancies a ledger reconciliation run found.
+     * @param runId The ID of the run.
+     * @param limit The maximum number of discrepancies (at most 1000).
+     * @return ResponseEntity with the discrepancies ordered by account ID, or an error status.
+     */
+    @GetMapping("/ledger/reconciliation/{runId}/discrepancies")
+    public ResponseEntity<?> getLedgerDiscrepancies(@PathVariable String runId, @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<LedgerDiscrepancy> discrepancies = ledgerReconciliationServiceImpl.getDiscrepancies(runId, limit);
+            return ResponseEntity.ok(discrepancies);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Discrepancy request for run {} failed: {}", runId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching discrepancies of run {}: ", runId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.cryptosim.trading212.controllers;
+
+import com.cryptosim.trading212.dtos.BacktestRequest;
+import com.cryptosim.trading212.dtos.BacktestResponse;
+import com.cryptosim.trading212.services.BacktestServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for backtesting strategies against recorded price history.
+ */
+@RestController
+@RequestMapping("/api/backtests")
+public class BacktestController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacktestController.class);
+
+    private final BacktestServiceImpl backtestServiceImpl;
+
+    @Autowired
+    public BacktestController(BacktestServiceImpl backtestServiceImpl) {
+        this.backtestServiceImpl = backtestServiceImpl;
+    }
+
+    /**
+     * Runs a set of strategies over the recorded ticks of a date range and returns their equity curves and stats.
+     * Expects a JSON body with from, to, strategies and optionally resolutionSeconds, initialBalance and equityIntervalMinutes.
+     * @param backtestRequest The backtest request details.
+     * @return ResponseEntity with the BacktestResponse or an error status.
+     */
+    @PostMapping
+    public ResponseEntity<?> runBacktest(@RequestBody BacktestRequest backtestRequest) {
+        try {
+            logger.info("Received backtest request: {}", backtestRequest);
+            BacktestResponse response = backtestServiceImpl.runBacktest(backtestRequest);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Backtest request failed due to invalid argument: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Unexpected error while running backtest {}: ", backtestRequest, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while running the backtest.");
+        }
+    }
+}
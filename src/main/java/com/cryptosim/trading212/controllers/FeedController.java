@@ -0,0 +1,81 @@
+package com.cryptosim.trading212.controllers;
+
+import com.cryptosim.trading212.dtos.FeedStats;
+import com.cryptosim.trading212.dtos.TickListenerStats;
+import com.cryptosim.trading212.dtos.VenueStats;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing the health of the market data feed.
+ */
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedController.class);
+
+    private final KrakenDataService krakenDataService;
+
+    @Autowired
+    public FeedController(KrakenDataService krakenDataService) {
+        this.krakenDataService = krakenDataService;
+    }
+
+    /**
+     * Reports the ingest counters of every feed connection: queue depth, dropped frames,
+     * applied and conflated ticks and reconnects.
+     * @return ResponseEntity with one FeedStats entry per connection.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getFeedStats() {
+        try {
+            List<FeedStats> stats = krakenDataService.getFeedStats();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error fetching feed stats: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Reports the delivery counters of every tick listener: delivered and dropped ticks,
+     * queue depth of isolated listeners and publish-to-delivery latency.
+     * @return ResponseEntity with one TickListenerStats entry per listener.
+     */
+    @GetMapping("/listeners")
+    public ResponseEntity<?> getTickListenerStats() {
+        try {
+            List<TickListenerStats> stats = krakenDataService.getTickListenerStats();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error fetching tick listener stats: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Reports every price venue: whether it is connected or stale, how long ago it last sent
+     * anything and how many symbols it quotes.
+     * @return ResponseEntity with one VenueStats entry per venue.
+     */
+    @GetMapping("/venues")
+    public ResponseEntity<?> getVenueStats() {
+        try {
+            List<VenueStats> stats = krakenDataService.getVenueStats();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error fetching venue stats: ", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+}
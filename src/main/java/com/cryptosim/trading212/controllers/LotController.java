@@ -0,0 +1,101 @@
+package com.cryptosim.trading212.controllers;
+
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.CostBasisMethod;
+import com.cryptosim.trading212.models.LotMatch;
+import com.cryptosim.trading212.models.PositionLot;
+import com.cryptosim.trading212.services.LotAccountingServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * REST Controller for tax lots and the cost-basis method used for realized P&L.
+ */
+@RestController
+@RequestMapping("/api/lots")
+public class LotController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LotController.class);
+
+    private final LotAccountingServiceImpl lotAccountingServiceImpl;
+
+    @Autowired
+    public LotController(LotAccountingServiceImpl lotAccountingServiceImpl) {
+        this.lotAccountingServiceImpl = lotAccountingServiceImpl;
+    }
+
+    /**
+     * Retrieves the open lots of a user, oldest first.
+     * @param userIdentifier The unique identifier for the user.
+     * @param symbol Optional symbol to restrict the result to one position.
+     * @return ResponseEntity with a list of open lots or an error status.
+     */
+    @GetMapping("/account/{userIdentifier}")
+    public ResponseEntity<?> getOpenLots(@PathVariable String userIdentifier, @RequestParam(required = false) String symbol) {
+        try {
+            List<PositionLot> lots = lotAccountingServiceImpl.getOpenLots(userIdentifier, symbol);
+            return ResponseEntity.ok(lots);
+        } catch (NoSuchElementException e) {
+            logger.warn("Lot request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching lots for {}: ", userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Retrieves the lots a sell transaction was matched against, with the P&L realized on each.
+     * @param userIdentifier The unique identifier for the user.
+     * @param transactionId The ID of the SELL transaction.
+     * @return ResponseEntity with a list of lot matches or an error status.
+     */
+    @GetMapping("/account/{userIdentifier}/transactions/{transactionId}")
+    public ResponseEntity<?> getLotMatches(@PathVariable String userIdentifier, @PathVariable int transactionId) {
+        try {
+            List<LotMatch> matches = lotAccountingServiceImpl.getLotMatches(userIdentifier, transactionId);
+            return ResponseEntity.ok(matches);
+        } catch (NoSuchElementException e) {
+            logger.warn("Lot match request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching lot matches of transaction {} for {}: ", transactionId, userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Selects how realized P&L is computed for the user's future sells.
+     * @param userIdentifier The unique identifier for the user.
+     * @param method AVERAGE, FIFO or LIFO.
+     * @return ResponseEntity with the updated Account or an error status.
+     */
+    @PutMapping("/account/{userIdentifier}/cost-basis-method")
+    public ResponseEntity<?> setCostBasisMethod(@PathVariable String userIdentifier, @RequestParam CostBasisMethod method) {
+        try {
+            Account account = lotAccountingServiceImpl.setCostBasisMethod(userIdentifier, method);
+            return ResponseEntity.ok(account);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cost-basis method change failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Cost-basis method change failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error changing cost-basis method for {}: ", userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.cryptosim.trading212.controllers;
+
+import com.cryptosim.trading212.dtos.OrderRequest;
+import com.cryptosim.trading212.models.Order;
+import com.cryptosim.trading212.services.OrderServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * REST Controller for resting limit and stop orders.
+ */
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+
+    private final OrderServiceImpl orderServiceImpl;
+
+    @Autowired
+    public OrderController(OrderServiceImpl orderServiceImpl) {
+        this.orderServiceImpl = orderServiceImpl;
+    }
+
+    /**
+     * Endpoint to place a resting limit or stop order.
+     * Expects a JSON body with userIdentifier, assetSymbol, side, orderType, quantity and triggerPrice.
+     * @param orderRequest The order request details.
+     * @return ResponseEntity with the created Order or an error status.
+     */
+    @PostMapping
+    public ResponseEntity<?> placeOrder(@RequestBody OrderRequest orderRequest) {
+        try {
+            logger.info("Received order request: {}", orderRequest);
+            if (orderRequest.getUserIdentifier() == null || orderRequest.getAssetSymbol() == null || orderRequest.getQuantity() == null
+                    || orderRequest.getSide() == null || orderRequest.getOrderType() == null || orderRequest.getTriggerPrice() == null) {
+                return ResponseEntity.badRequest().body("Missing required fields in order request (userIdentifier, assetSymbol, side, orderType, quantity, triggerPrice).");
+            }
+            Order order = orderServiceImpl.placeOrder(
+                    orderRequest.getUserIdentifier(),
+                    orderRequest.getAssetSymbol(),
+                    orderRequest.getSide(),
+                    orderRequest.getOrderType(),
+                    orderRequest.getQuantity(),
+                    orderRequest.getTriggerPrice()
+            );
+            return ResponseEntity.ok(order);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Order request failed due to invalid argument: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Order request failed because an entity was not found: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Unexpected error while placing order {}: ", orderRequest, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while placing the order.");
+        }
+    }
+
+    /**
+     * Retrieves all orders (open and historical) for a given user.
+     * @param userIdentifier The unique identifier for the user.
+     * @return ResponseEntity with a list of orders or an error status.
+     */
+    @GetMapping("/account/{userIdentifier}")
+    public ResponseEntity<?> getOrders(@PathVariable String userIdentifier) {
+        try {
+            List<Order> orders = orderServiceImpl.getOrders(userIdentifier);
+            return ResponseEntity.ok(orders);
+        } catch (NoSuchElementException e) {
+            logger.warn("Order list request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching orders for {}: ", userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Cancels an open order.
+     * @param orderId The ID of the order to cancel.
+     * @param userIdentifier The unique identifier of the user owning the order.
+     * @return ResponseEntity with the cancelled Order or an error status.
+     */
+    @DeleteMapping("/{orderId}")
+    public ResponseEntity<?> cancelOrder(@PathVariable int orderId, @RequestParam String userIdentifier) {
+        try {
+            Order order = orderServiceImpl.cancelOrder(userIdentifier, orderId);
+            return ResponseEntity.ok(order);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cancel request for order {} failed: {}", orderId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Cancel request for order {} failed: {}", orderId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error cancelling order {}: ", orderId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while cancelling the order.");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.cryptosim.trading212.controllers;
+
+import com.cryptosim.trading212.models.PnlGrouping;
+import com.cryptosim.trading212.models.PnlSummary;
+import com.cryptosim.trading212.services.PnlServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * REST Controller for realized P&L, volume and trade-count reports.
+ */
+@RestController
+@RequestMapping("/api/pnl")
+public class PnlController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PnlController.class);
+
+    private final PnlServiceImpl pnlServiceImpl;
+
+    @Autowired
+    public PnlController(PnlServiceImpl pnlServiceImpl) {
+        this.pnlServiceImpl = pnlServiceImpl;
+    }
+
+    /**
+     * Summarizes a user's trading results over an inclusive date range, e.g.
+     * /api/pnl/account/default_user?from=2025-01-01&to=2025-01-31&groupBy=SYMBOL
+     * @param userIdentifier The unique identifier for the user.
+     * @param from First day of the range (ISO date).
+     * @param to Last day of the range (ISO date).
+     * @param groupBy TOTAL (default), SYMBOL or DAY.
+     * @return ResponseEntity with a list of P&L summaries or an error status.
+     */
+    @GetMapping("/account/{userIdentifier}")
+    public ResponseEntity<?> getSummary(@PathVariable String userIdentifier,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                        @RequestParam(defaultValue = "TOTAL") PnlGrouping groupBy) {
+        try {
+            List<PnlSummary> summaries = pnlServiceImpl.getSummary(userIdentifier, from, to, groupBy);
+            return ResponseEntity.ok(summaries);
+        } catch (IllegalArgumentException e) {
+            logger.warn("P&L request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("P&L request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching P&L for {}: ", userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+}
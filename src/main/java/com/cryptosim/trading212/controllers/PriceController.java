@@ -1,16 +1,25 @@
 package com.cryptosim.trading212.controllers;
 
-import com.cryptosim.trading212.services.KrakenDataServiceImpl;
+import com.cryptosim.trading212.dtos.PriceAge;
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import com.cryptosim.trading212.services.CrossRateServiceImpl;
+import com.cryptosim.trading212.services.PriceStreamServiceImpl;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.utils.QuoteFreshness;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,28 +30,51 @@ import java.util.Map;
 public class PriceController {
 
     private static final Logger logger = LoggerFactory.getLogger(PriceController.class);
-    private final KrakenDataServiceImpl krakenDataServiceImpl;
+    private final KrakenDataService krakenDataService;
+    private final CrossRateServiceImpl crossRateServiceImpl;
+    private final PriceStreamServiceImpl priceStreamServiceImpl;
 
     @Autowired
-    public PriceController(KrakenDataServiceImpl krakenDataServiceImpl) {
-        this.krakenDataServiceImpl = krakenDataServiceImpl;
+    public PriceController(KrakenDataService krakenDataService, CrossRateServiceImpl crossRateServiceImpl,
+                           PriceStreamServiceImpl priceStreamServiceImpl) {
+        this.krakenDataService = krakenDataService;
+        this.crossRateServiceImpl = crossRateServiceImpl;
+        this.priceStreamServiceImpl = priceStreamServiceImpl;
     }
 
     /**
      * Endpoint to get the latest prices for all subscribed cryptocurrencies.
+     * With {@code withAge=true}, every price is reported with its age (time since the feed last confirmed it),
+     * its quote sequence number and whether it is too old to trade at.
      *
-     * @return A map of asset symbols to their latest prices.
+     * @param withAge Whether to report the age of each price instead of the bare price.
+     * @return A map of asset symbols to their latest prices (or PriceAge entries).
      */
     @GetMapping
-    public ResponseEntity<Map<String, BigDecimal>> getAllPrices() {
+    public ResponseEntity<?> getAllPrices(@RequestParam(defaultValue = "false") boolean withAge) {
         try {
-            Map<String, BigDecimal> prices = krakenDataServiceImpl.getLatestPrices();
+            Map<String, BigDecimal> prices = krakenDataService.getLatestPrices();
             if (prices.isEmpty()) {
                 logger.warn("Price map is empty. KrakenDataService might not have data yet or no symbols are subscribed.");
                 // Depending on requirements, could return 204 No Content or an empty map with 200 OK.
                 // Returning 200 with an empty map is often more client-friendly.
             }
-            return ResponseEntity.ok(prices);
+            if (!withAge) {
+                return ResponseEntity.ok(prices);
+            }
+            Map<String, PriceAge> pricesWithAge = new HashMap<>();
+            for (Map.Entry<String, BigDecimal> price : prices.entrySet()) {
+                String symbol = price.getKey();
+                long ageMillis = krakenDataService.getPriceAgeMillis(symbol);
+                ConsolidatedQuote quote = krakenDataService.getQuote(symbol);
+                PriceAge entry = new PriceAge();
+                entry.setPrice(price.getValue());
+                entry.setAgeMillis(ageMillis);
+                entry.setSequence(quote != null ? quote.getSequence() : 0);
+                entry.setStale(QuoteFreshness.isStale(symbol, ageMillis));
+                pricesWithAge.put(symbol, entry);
+            }
+            return ResponseEntity.ok(pricesWithAge);
         } catch (Exception e) {
             logger.error("Error retrieving all prices", e);
             // Consider a more specific error response DTO if needed
@@ -50,8 +82,69 @@ public class PriceController {
         }
     }
 
+    /**
+     * Endpoint to list every symbol that can be traded or streamed, whether or not the feed currently ingests it.
+     *
+     * @return The symbols offered by the feed.
+     */
+    @GetMapping("/symbols")
+    public ResponseEntity<List<String>> getAvailableSymbols() {
+        return ResponseEntity.ok(krakenDataService.getAvailableSymbols());
+    }
+
+    /**
+     * Endpoint to stream live prices as server-sent events ("prices" events carrying the changed prices).
+     * The feed subscribes to the requested symbols for as long as the stream is open.
+     *
+     * @param symbols The symbols to stream, e.g. ?symbols=BTC/USD,ETH/USD
+     * @return The event stream, or 400 if the symbols are invalid.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<SseEmitter> streamPrices(@RequestParam List<String> symbols) {
+        try {
+            return ResponseEntity.ok(priceStreamServiceImpl.openStream(symbols));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Price stream request failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error opening price stream for {}", symbols, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Endpoint to list the currencies that can be combined freely in /api/prices/{base}/{quote}.
+     *
+     * @return The base and quote currencies known to the cross-rate matrix.
+     */
+    @GetMapping("/currencies")
+    public ResponseEntity<List<String>> getCurrencies() {
+        return ResponseEntity.ok(crossRateServiceImpl.getCurrencies());
+    }
+
+    /**
+     * Endpoint to get the best bid and offer of a symbol across all price venues.
+     * @return The consolidated quote, or 404 if no venue quotes the symbol.
+     */
+    @GetMapping("/quote/{symbol1}/{symbol2}") // e.g., /api/prices/quote/BTC/USD
+    public ResponseEntity<ConsolidatedQuote> getQuote(@PathVariable String symbol1, @PathVariable String symbol2) {
+        String fullSymbol = symbol1 + "/" + symbol2;
+        try {
+            ConsolidatedQuote quote = krakenDataService.getQuote(fullSymbol);
+            if (quote == null) {
+                logger.warn("Quote not found for symbol: {}", fullSymbol);
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(quote);
+        } catch (Exception e) {
+            logger.error("Error retrieving quote for symbol: {}", fullSymbol, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Endpoint to get the latest price for a specific cryptocurrency symbol.
+     * Pairs that are not subscribed (e.g., ETH/BTC or BTC/EUR) are answered from the cross-rate matrix.
      * The asset symbol (e.g., "XBT/USD"). Note: URL encoding might be needed for '/' if passed as path variable directly.
      * A better approach for symbols with '/' is to use request parameters or encode the symbol.
      * For simplicity, we'll assume the client handles encoding or the symbol doesn't contain problematic chars.
@@ -62,7 +155,10 @@ public class PriceController {
     public ResponseEntity<BigDecimal> getPriceForSymbol(@PathVariable String symbol1, @PathVariable String symbol2) {
         String fullSymbol = symbol1 + "/" + symbol2;
         try {
-            BigDecimal price = krakenDataServiceImpl.getPriceForSymbol(fullSymbol);
+            BigDecimal price = krakenDataService.getPriceForSymbol(fullSymbol);
+            if (price == null) {
+                price = crossRateServiceImpl.getPriceForSymbol(fullSymbol);
+            }
             if (price != null) {
                 return ResponseEntity.ok(price);
             } else {
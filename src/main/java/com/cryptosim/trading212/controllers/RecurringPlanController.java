@@ -0,0 +1,114 @@
+package com.cryptosim.trading212.controllers;
+
+import com.cryptosim.trading212.dtos.RecurringPlanRequest;
+import com.cryptosim.trading212.models.RecurringPlan;
+import com.cryptosim.trading212.services.RecurringPlanServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * REST Controller for recurring (DCA) purchase plans.
+ */
+@RestController
+@RequestMapping("/api/recurring-plans")
+public class RecurringPlanController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringPlanController.class);
+
+    private final RecurringPlanServiceImpl recurringPlanServiceImpl;
+
+    @Autowired
+    public RecurringPlanController(RecurringPlanServiceImpl recurringPlanServiceImpl) {
+        this.recurringPlanServiceImpl = recurringPlanServiceImpl;
+    }
+
+    /**
+     * Endpoint to create a recurring purchase plan.
+     * Expects a JSON body with userIdentifier, assetSymbol, fiatAmount, intervalSeconds and optionally firstRunAt.
+     * @param planRequest The plan request details.
+     * @return ResponseEntity with the created RecurringPlan or an error status.
+     */
+    @PostMapping
+    public ResponseEntity<?> createPlan(@RequestBody RecurringPlanRequest planRequest) {
+        try {
+            logger.info("Received recurring plan request: {}", planRequest);
+            if (planRequest.getUserIdentifier() == null || planRequest.getAssetSymbol() == null
+                    || planRequest.getFiatAmount() == null || planRequest.getIntervalSeconds() == null) {
+                return ResponseEntity.badRequest().body("Missing required fields in plan request (userIdentifier, assetSymbol, fiatAmount, intervalSeconds).");
+            }
+            RecurringPlan plan = recurringPlanServiceImpl.createPlan(
+                    planRequest.getUserIdentifier(),
+                    planRequest.getAssetSymbol(),
+                    planRequest.getFiatAmount(),
+                    planRequest.getIntervalSeconds(),
+                    planRequest.getFirstRunAt()
+            );
+            return ResponseEntity.ok(plan);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Recurring plan request failed due to invalid argument: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Recurring plan request failed because an entity was not found: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Unexpected error while creating recurring plan {}: ", planRequest, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while creating the plan.");
+        }
+    }
+
+    /**
+     * Retrieves all recurring plans (active and cancelled) for a given user.
+     * @param userIdentifier The unique identifier for the user.
+     * @return ResponseEntity with a list of plans or an error status.
+     */
+    @GetMapping("/account/{userIdentifier}")
+    public ResponseEntity<?> getPlans(@PathVariable String userIdentifier) {
+        try {
+            List<RecurringPlan> plans = recurringPlanServiceImpl.getPlans(userIdentifier);
+            return ResponseEntity.ok(plans);
+        } catch (NoSuchElementException e) {
+            logger.warn("Recurring plan list request failed for {}: {}", userIdentifier, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching recurring plans for {}: ", userIdentifier, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Cancels an active recurring plan.
+     * @param planId The ID of the plan to cancel.
+     * @param userIdentifier The unique identifier of the user owning the plan.
+     * @return ResponseEntity with the cancelled RecurringPlan or an error status.
+     */
+    @DeleteMapping("/{planId}")
+    public ResponseEntity<?> cancelPlan(@PathVariable int planId, @RequestParam String userIdentifier) {
+        try {
+            RecurringPlan plan = recurringPlanServiceImpl.cancelPlan(userIdentifier, planId);
+            return ResponseEntity.ok(plan);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cancel request for recurring plan {} failed: {}", planId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            logger.warn("Cancel request for recurring plan {} failed: {}", planId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error cancelling recurring plan {}: ", planId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred while cancelling the plan.");
+        }
+    }
+}
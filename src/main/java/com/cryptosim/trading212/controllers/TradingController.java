@@ -56,6 +56,9 @@ public class TradingController {
         } catch (NoSuchElementException e) {
             logger.warn("Buy request failed because an entity was not found: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            logger.warn("Buy request refused because the price is stale: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Unexpected error during buy operation for request {}: ", tradeRequest, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred during the buy operation.");
@@ -87,6 +90,9 @@ public class TradingController {
         } catch (NoSuchElementException e) {
             logger.warn("Sell request failed because an entity was not found: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            logger.warn("Sell request refused because the price is stale: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Unexpected error during sell operation for request {}: ", tradeRequest, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred during the sell operation.");
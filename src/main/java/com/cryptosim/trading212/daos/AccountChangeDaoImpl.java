@@ -0,0 +1,203 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
+import com.cryptosim.trading212.models.AccountChange;
+import com.cryptosim.trading212.models.AccountChangeType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO for managing the account change log.
+ * Handles database operations for the 'account_changes' table and the 'change_version' column of 'accounts'.
+ */
+@Repository
+public class AccountChangeDaoImpl implements AccountChangeDao {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public AccountChangeDaoImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    private static class AccountChangeRowMapper implements RowMapper<AccountChange> {
+        @Override
+        public AccountChange mapRow(ResultSet rs, int rowNum) throws SQLException {
+            AccountChange change = new AccountChange();
+            change.setAccountId(rs.getInt("account_id"));
+            change.setVersion(rs.getLong("version"));
+            change.setChangeType(AccountChangeType.valueOf(rs.getString("change_type").toUpperCase()));
+            String assetSymbol = rs.getString("asset_symbol");
+            change.setAssetSymbol(assetSymbol.isEmpty() ? null : assetSymbol);
+            int transactionId = rs.getInt("transaction_id");
+            change.setTransactionId(rs.wasNull() ? null : transactionId);
+            Timestamp createdAtTimestamp = rs.getTimestamp("created_at");
+            if (createdAtTimestamp != null) {
+                change.setCreatedAt(createdAtTimestamp.toLocalDateTime());
+            }
+            return change;
+        }
+    }
+
+    /**
+     * Allocates the next account version and logs the changes under it.
+     * LAST_INSERT_ID(expr) returns the incremented value on the same connection without a second read.
+     *
+     * @return The version the changes were logged under.
+     */
+    @Override
+    public long recordChanges(int accountId, List<AccountChange> changes) {
+        shardRouter.routeToAccount(accountId);
+        Long version = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE accounts SET change_version = LAST_INSERT_ID(change_version + 1) WHERE account_id = ?")) {
+                update.setInt(1, accountId);
+                if (update.executeUpdate() == 0) {
+                    throw new IllegalStateException("Account " + accountId + " does not exist.");
+                }
+            }
+            try (PreparedStatement select = connection.prepareStatement("SELECT LAST_INSERT_ID()");
+                 ResultSet rs = select.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+        if (version == null) {
+            throw new RuntimeException("Failed to allocate a change version for account " + accountId);
+        }
+        if (changes.isEmpty()) {
+            return version;
+        }
+
+        String sql = "INSERT INTO account_changes (account_id, version, change_type, asset_symbol, transaction_id) VALUES (?, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, changes, changes.size(), (ps, change) -> {
+            change.setAccountId(accountId);
+            change.setVersion(version);
+            ps.setInt(1, accountId);
+            ps.setLong(2, version);
+            ps.setString(3, change.getChangeType().name());
+            ps.setString(4, change.getAssetSymbol() != null ? change.getAssetSymbol() : "");
+            if (change.getTransactionId() != null) {
+                ps.setInt(5, change.getTransactionId());
+            } else {
+                ps.setNull(5, Types.INTEGER);
+            }
+        });
+        return version;
+    }
+
+    /**
+     * Bumps the versions of an account range and logs the resets under the new versions with two set-based
+     * statements; the update locks the account rows, so the insert reads the versions it just allocated.
+     *
+     * @return The number of accounts logged.
+     */
+    @Override
+    public int recordResets(int fromAccountId, int toAccountId) {
+        jdbcTemplate.update("UPDATE accounts SET change_version = change_version + 1 WHERE account_id BETWEEN ? AND ?",
+                fromAccountId, toAccountId);
+        String sql = "INSERT INTO account_changes (account_id, version, change_type, asset_symbol, transaction_id) " +
+                "SELECT account_id, change_version, 'PORTFOLIO_RESET', '', NULL FROM accounts WHERE account_id BETWEEN ? AND ?";
+        return jdbcTemplate.update(sql, fromAccountId, toAccountId);
+    }
+
+    /**
+     * Returns the latest version of the account, or 0 if the account does not exist.
+     */
+    @Override
+    public long getCurrentVersion(int accountId) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "SELECT change_version FROM accounts WHERE account_id = ?";
+        List<Long> versions = jdbcTemplate.query(sql, new Object[]{accountId}, (rs, rowNum) -> rs.getLong("change_version"));
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    /**
+     * Returns the latest version of the user's account through the unique user_identifier index, or 0 if the account
+     * does not exist.
+     */
+    @Override
+    public long getCurrentVersionByUserIdentifier(String userIdentifier) {
+        shardRouter.routeToUser(userIdentifier);
+        String sql = "SELECT change_version FROM accounts WHERE user_identifier = ?";
+        List<Long> versions = jdbcTemplate.query(sql, new Object[]{userIdentifier}, (rs, rowNum) -> rs.getLong("change_version"));
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    /**
+     * Reads the versions of an account range on the routed shard with one primary key range scan.
+     *
+     * @return A map of account ID to current version.
+     */
+    @Override
+    public Map<Integer, Long> findCurrentVersions(int fromAccountId, int toAccountId) {
+        String sql = "SELECT account_id, change_version FROM accounts WHERE account_id BETWEEN ? AND ?";
+        Map<Integer, Long> versions = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            versions.put(rs.getInt("account_id"), rs.getLong("change_version"));
+        }, fromAccountId, toAccountId);
+        return versions;
+    }
+
+    /**
+     * Reads the version with a locking read of the account row, the lock recordChanges would take anyway.
+     *
+     * @return The current version.
+     */
+    @Override
+    public long lockCurrentVersion(int accountId) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "SELECT change_version FROM accounts WHERE account_id = ? FOR UPDATE";
+        List<Long> versions = jdbcTemplate.query(sql, new Object[]{accountId}, (rs, rowNum) -> rs.getLong("change_version"));
+        if (versions.isEmpty()) {
+            throw new IllegalStateException("Account " + accountId + " does not exist.");
+        }
+        return versions.get(0);
+    }
+
+    /**
+     * Finds the last reset of every account of the range and the lowest transaction logged under a later version.
+     * Both steps read the change log by its primary key, which starts with the account ID.
+     *
+     * @return A map of account ID to the first transaction ID after the last reset.
+     */
+    @Override
+    public Map<Integer, Integer> findFirstTransactionsAfterLastReset(int fromAccountId, int toAccountId) {
+        String sql = "SELECT r.account_id, MIN(c.transaction_id) AS first_transaction_id " +
+                "FROM (SELECT account_id, MAX(version) AS version FROM account_changes " +
+                "      WHERE account_id BETWEEN ? AND ? AND change_type = 'PORTFOLIO_RESET' GROUP BY account_id) r " +
+                "LEFT JOIN account_changes c ON c.account_id = r.account_id AND c.version > r.version AND c.change_type = 'TRANSACTION' " +
+                "GROUP BY r.account_id";
+        Map<Integer, Integer> firstTransactions = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            int transactionId = rs.getInt("first_transaction_id");
+            firstTransactions.put(rs.getInt("account_id"), rs.wasNull() ? Integer.MAX_VALUE : transactionId);
+        }, fromAccountId, toAccountId);
+        return firstTransactions;
+    }
+
+    /**
+     * Finds the changes of an account in (afterVersion, upToVersion], oldest first.
+     * Served by the primary key, so only the returned rows are read.
+     */
+    @Override
+    public List<AccountChange> findChanges(int accountId, long afterVersion, long upToVersion) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "SELECT * FROM account_changes WHERE account_id = ? AND version > ? AND version <= ? ORDER BY version";
+        return jdbcTemplate.query(sql, new Object[]{accountId, afterVersion, upToVersion}, new AccountChangeRowMapper());
+    }
+}
@@ -2,20 +2,21 @@ package com.cryptosim.trading212.daos;
 
 import com.cryptosim.trading212.daos.contracts.AccountDao;
 import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.CostBasisMethod;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -26,10 +27,12 @@ import java.util.Optional;
 public class AccountDaoImpl implements AccountDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
 
     @Autowired
-    public AccountDaoImpl(JdbcTemplate jdbcTemplate) {
+    public AccountDaoImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
         this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
     }
 
     private static class AccountRowMapper implements RowMapper<Account> {
@@ -40,6 +43,7 @@ public class AccountDaoImpl implements AccountDao {
             account.setUserIdentifier(rs.getString("user_identifier"));
             account.setBalance(rs.getBigDecimal("balance"));
             account.setInitialBalance(rs.getBigDecimal("initial_balance"));
+            account.setCostBasisMethod(CostBasisMethod.valueOf(rs.getString("cost_basis_method").toUpperCase()));
             Timestamp createdAtTimestamp = rs.getTimestamp("created_at");
             if (createdAtTimestamp != null) {
                 account.setCreatedAt(createdAtTimestamp.toLocalDateTime());
@@ -60,6 +64,7 @@ public class AccountDaoImpl implements AccountDao {
      */
     @Override
     public Optional<Account> findByUserIdentifier(String userIdentifier) {
+        shardRouter.routeToUser(userIdentifier);
         String sql = "SELECT * FROM accounts WHERE user_identifier = ?";
         try {
             Account account = jdbcTemplate.queryForObject(sql, new Object[]{userIdentifier}, new AccountRowMapper());
@@ -78,6 +83,7 @@ public class AccountDaoImpl implements AccountDao {
      */
     @Override
     public boolean updateBalance(int accountId, BigDecimal newBalance) {
+        shardRouter.routeToAccount(accountId);
         String sql = "UPDATE accounts SET balance = ?, updated_at = CURRENT_TIMESTAMP WHERE account_id = ?";
         int rowsAffected = jdbcTemplate.update(sql, newBalance, accountId);
         return rowsAffected > 0;
@@ -91,6 +97,7 @@ public class AccountDaoImpl implements AccountDao {
      */
     @Override
     public Optional<BigDecimal> getInitialBalance(int accountId) {
+        shardRouter.routeToAccount(accountId);
         String sql = "SELECT initial_balance FROM accounts WHERE account_id = ?";
         try {
             BigDecimal initialBalance = jdbcTemplate.queryForObject(sql, new Object[]{accountId}, BigDecimal.class);
@@ -102,29 +109,20 @@ public class AccountDaoImpl implements AccountDao {
 
     /**
      * Creates a new account.
+     * The account ID and shard are allocated by the shard directory; the row is written on that shard.
      *
      * @param userIdentifier The unique identifier for the user.
      * @param initialBalance The initial balance for the account.
-     * @return The created Account object with its generated ID.
+     * @return The created Account object with its allocated ID.
      */
     //TODO: If you have time make a login
     @Override
     public Account createAccount(String userIdentifier, BigDecimal initialBalance) {
-        String sql = "INSERT INTO accounts (user_identifier, balance, initial_balance, created_at, updated_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-
-        jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, userIdentifier);
-            ps.setBigDecimal(2, initialBalance);
-            ps.setBigDecimal(3, initialBalance); // Balance is initially the same as initialBalance
-            return ps;
-        }, keyHolder);
-
-        int newAccountId = keyHolder.getKey() != null ? keyHolder.getKey().intValue() : -1;
-        if (newAccountId == -1) {
-            throw new RuntimeException("Failed to create account, no ID obtained.");
-        }
+        int newAccountId = shardRouter.registerAccount(userIdentifier);
+        String sql = "INSERT INTO accounts (account_id, user_identifier, balance, initial_balance, created_at, updated_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+        // Balance is initially the same as initialBalance
+        jdbcTemplate.update(sql, newAccountId, userIdentifier, initialBalance, initialBalance);
+
         Account newAccount = new Account();
         newAccount.setAccountId(newAccountId);
         newAccount.setUserIdentifier(userIdentifier);
@@ -133,6 +131,39 @@ public class AccountDaoImpl implements AccountDao {
         return newAccount;
     }
 
+    /**
+     * Creates many accounts on the routed shard with one batch; existing accounts are skipped.
+     *
+     * @param accountIds     The account ID of every user.
+     * @param initialBalance The initial and current balance of every account.
+     * @return The number of accounts created.
+     */
+    @Override
+    public int createAccounts(Map<String, Integer> accountIds, BigDecimal initialBalance) {
+        String sql = "INSERT IGNORE INTO accounts (account_id, user_identifier, balance, initial_balance, created_at, updated_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+        List<Object[]> rows = new ArrayList<>(accountIds.size());
+        accountIds.forEach((userIdentifier, accountId) -> rows.add(new Object[]{accountId, userIdentifier, initialBalance, initialBalance}));
+        int created = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, rows)) {
+            // Rewritten batches report SUCCESS_NO_INFO instead of per-row counts
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                created += count > 0 ? count : 1;
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Sets the balance of every account in an ID range on the routed shard back to its initial balance.
+     *
+     * @return The number of accounts reset.
+     */
+    @Override
+    public int resetBalances(int fromAccountId, int toAccountId) {
+        String sql = "UPDATE accounts SET balance = initial_balance, updated_at = CURRENT_TIMESTAMP WHERE account_id BETWEEN ? AND ?";
+        return jdbcTemplate.update(sql, fromAccountId, toAccountId);
+    }
+
     /**
      * Retrieves an account by its ID.
      *
@@ -141,6 +172,7 @@ public class AccountDaoImpl implements AccountDao {
      */
     @Override
     public Optional<Account> findById(int accountId) {
+        shardRouter.routeToAccount(accountId);
         String sql = "SELECT * FROM accounts WHERE account_id = ?";
         try {
             Account account = jdbcTemplate.queryForObject(sql, new Object[]{accountId}, new AccountRowMapper());
@@ -149,4 +181,42 @@ public class AccountDaoImpl implements AccountDao {
             return Optional.empty();
         }
     }
+
+    /**
+     * Returns the highest account ID in use on the shard the current thread is routed to.
+     *
+     * @return The highest account ID, or 0 if there are no accounts.
+     */
+    @Override
+    public int findMaxAccountId() {
+        String sql = "SELECT COALESCE(MAX(account_id), 0) FROM accounts";
+        Integer maxAccountId = jdbcTemplate.queryForObject(sql, Integer.class);
+        return maxAccountId != null ? maxAccountId : 0;
+    }
+
+    /**
+     * Retrieves the accounts of an ID range on the routed shard with one primary key range scan.
+     *
+     * @return The accounts, ordered by account ID.
+     */
+    @Override
+    public List<Account> findByAccountRange(int fromAccountId, int toAccountId) {
+        String sql = "SELECT * FROM accounts WHERE account_id BETWEEN ? AND ? ORDER BY account_id";
+        return jdbcTemplate.query(sql, new Object[]{fromAccountId, toAccountId}, new AccountRowMapper());
+    }
+
+    /**
+     * Updates the cost-basis method used for realized P&L of future sells.
+     *
+     * @param accountId       The ID of the account.
+     * @param costBasisMethod The new method.
+     * @return true if the update was successful, false otherwise.
+     */
+    @Override
+    public boolean updateCostBasisMethod(int accountId, CostBasisMethod costBasisMethod) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "UPDATE accounts SET cost_basis_method = ?, updated_at = CURRENT_TIMESTAMP WHERE account_id = ?";
+        int rowsAffected = jdbcTemplate.update(sql, costBasisMethod.name(), accountId);
+        return rowsAffected > 0;
+    }
 }
@@ -0,0 +1,457 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionType;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compressed columnar file of archived transactions.
+ * <p>
+ * Rows are appended ordered by account and cut into row groups of {@link #ROW_GROUP_SIZE} rows. A group stores its
+ * columns one after the other, delta- or dictionary-encoded, and deflates them as one block, so the repetitive
+ * columns (account, symbol, type, scales) shrink to almost nothing and a group can be decoded without the rest of
+ * the file. The footer lists the account range, time range and position of every group; it is read once per file
+ * and lets a lookup of one account decode only the groups that can contain it.
+ * <p>
+ * Layout: magic, group blocks, footer block, footer length (int), magic.
+ */
+final class ColumnarTransactionFile {
+
+    static final int ROW_GROUP_SIZE = 4096;
+    private static final int MAGIC = 0x43545831; // "CTX1"
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private ColumnarTransactionFile() {
+    }
+
+    /**
+     * Position and bounds of one row group.
+     */
+    static final class RowGroup {
+        final long offset;
+        final int length;
+        final int rows;
+        final int minAccountId;
+        final int maxAccountId;
+
+        RowGroup(long offset, int length, int rows, int minAccountId, int maxAccountId) {
+            this.offset = offset;
+            this.length = length;
+            this.rows = rows;
+            this.minAccountId = minAccountId;
+            this.maxAccountId = maxAccountId;
+        }
+
+        boolean mayContain(int accountId) {
+            return accountId >= minAccountId && accountId <= maxAccountId;
+        }
+    }
+
+    /**
+     * The index of a file: its row groups in account order and the time range of all rows.
+     */
+    static final class Footer {
+        final List<RowGroup> groups;
+        final long rows;
+        final long minTimestampMillis;
+        final long maxTimestampMillis;
+
+        Footer(List<RowGroup> groups, long rows, long minTimestampMillis, long maxTimestampMillis) {
+            this.groups = groups;
+            this.rows = rows;
+            this.minTimestampMillis = minTimestampMillis;
+            this.maxTimestampMillis = maxTimestampMillis;
+        }
+
+        boolean mayContain(int accountId) {
+            int first = firstCandidate(accountId);
+            return first < groups.size() && groups.get(first).mayContain(accountId);
+        }
+
+        // Groups are in account order, so a binary search finds the first one that can hold the account
+        int firstCandidate(int accountId) {
+            int low = 0;
+            int high = groups.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (groups.get(mid).maxAccountId < accountId) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Writes a file. Rows must be appended ordered by account ID; {@link #finish()} makes the file complete.
+     */
+    static final class Writer implements Closeable {
+        private final FileOutputStream file;
+        private final DataOutputStream out;
+        private final List<Transaction> group = new ArrayList<>(ROW_GROUP_SIZE);
+        private final List<RowGroup> groups = new ArrayList<>();
+        private long position;
+        private long rows;
+        private long minTimestampMillis = Long.MAX_VALUE;
+        private long maxTimestampMillis = Long.MIN_VALUE;
+        private int lastAccountId = Integer.MIN_VALUE;
+
+        Writer(Path path) throws IOException {
+            this.file = new FileOutputStream(path.toFile());
+            this.out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+            out.writeInt(MAGIC);
+            position = Integer.BYTES;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the row's account comes before the previous row's.
+         */
+        void append(Transaction transaction) throws IOException {
+            if (transaction.getAccountId() < lastAccountId) {
+                throw new IllegalArgumentException("Archive rows must be appended ordered by account ID.");
+            }
+            lastAccountId = transaction.getAccountId();
+            long timestamp = toMillis(transaction);
+            minTimestampMillis = Math.min(minTimestampMillis, timestamp);
+            maxTimestampMillis = Math.max(maxTimestampMillis, timestamp);
+            group.add(transaction);
+            rows++;
+            if (group.size() == ROW_GROUP_SIZE) {
+                flushGroup();
+            }
+        }
+
+        long getRows() {
+            return rows;
+        }
+
+        /**
+         * Writes the last group and the footer and forces the file to disk.
+         */
+        void finish() throws IOException {
+            flushGroup();
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            writeVarLong(footer, groups.size());
+            writeVarLong(footer, rows);
+            footer.writeLong(rows > 0 ? minTimestampMillis : 0);
+            footer.writeLong(rows > 0 ? maxTimestampMillis : 0);
+            for (RowGroup rowGroup : groups) {
+                writeVarLong(footer, rowGroup.offset);
+                writeVarLong(footer, rowGroup.length);
+                writeVarLong(footer, rowGroup.rows);
+                footer.writeInt(rowGroup.minAccountId);
+                footer.writeInt(rowGroup.maxAccountId);
+            }
+            footer.flush();
+            out.write(footerBytes.toByteArray());
+            out.writeInt(footerBytes.size());
+            out.writeInt(MAGIC);
+            out.flush();
+            file.getFD().sync();
+        }
+
+        private void flushGroup() throws IOException {
+            if (group.isEmpty()) {
+                return;
+            }
+            byte[] block = encodeGroup(group);
+            out.write(block);
+            groups.add(new RowGroup(position, block.length, group.size(),
+                    group.get(0).getAccountId(), group.get(group.size() - 1).getAccountId()));
+            position += block.length;
+            group.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the footer of a file.
+     *
+     * @throws IOException if the file cannot be read or is not a complete archive file.
+     */
+    static Footer readFooter(Path path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            long length = file.length();
+            if (length < 3L * Integer.BYTES) {
+                throw new IOException("Truncated archive file " + path);
+            }
+            file.seek(length - 2L * Integer.BYTES);
+            int footerLength = file.readInt();
+            if (file.readInt() != MAGIC || footerLength < 0 || footerLength > length - 3L * Integer.BYTES) {
+                throw new IOException("Not a complete archive file: " + path);
+            }
+            byte[] bytes = new byte[footerLength];
+            file.seek(length - 2L * Integer.BYTES - footerLength);
+            file.readFully(bytes);
+            DataInputStream footer = new DataInputStream(new ByteArrayInputStream(bytes));
+            int groupCount = (int) readVarLong(footer);
+            long rows = readVarLong(footer);
+            long minTimestamp = footer.readLong();
+            long maxTimestamp = footer.readLong();
+            List<RowGroup> groups = new ArrayList<>(groupCount);
+            for (int i = 0; i < groupCount; i++) {
+                groups.add(new RowGroup(readVarLong(footer), (int) readVarLong(footer), (int) readVarLong(footer),
+                        footer.readInt(), footer.readInt()));
+            }
+            return new Footer(Collections.unmodifiableList(groups), rows, minTimestamp, maxTimestamp);
+        }
+    }
+
+    /**
+     * Reads the rows of one account, decoding only the groups whose account range covers it.
+     *
+     * @return The account's rows in file order.
+     */
+    static List<Transaction> readAccount(Path path, Footer footer, int accountId) throws IOException {
+        List<Transaction> rows = new ArrayList<>();
+        if (!footer.mayContain(accountId)) {
+            return rows;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            for (int i = footer.firstCandidate(accountId); i < footer.groups.size(); i++) {
+                RowGroup rowGroup = footer.groups.get(i);
+                if (rowGroup.minAccountId > accountId) {
+                    break;
+                }
+                byte[] block = new byte[rowGroup.length];
+                file.seek(rowGroup.offset);
+                file.readFully(block);
+                for (Transaction transaction : decodeGroup(block)) {
+                    if (transaction.getAccountId() == accountId) {
+                        rows.add(transaction);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Streams the rows of an account ID range group by group, so memory stays bounded by one decoded group.
+     *
+     * @return The number of rows passed to the consumer.
+     */
+    static long readRange(Path path, Footer footer, int fromAccountId, int toAccountId,
+                          Consumer<Transaction> consumer) throws IOException {
+        long rows = 0;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            for (int i = footer.firstCandidate(fromAccountId); i < footer.groups.size(); i++) {
+                RowGroup rowGroup = footer.groups.get(i);
+                if (rowGroup.minAccountId > toAccountId) {
+                    break;
+                }
+                byte[] block = new byte[rowGroup.length];
+                file.seek(rowGroup.offset);
+                file.readFully(block);
+                for (Transaction transaction : decodeGroup(block)) {
+                    if (transaction.getAccountId() >= fromAccountId && transaction.getAccountId() <= toAccountId) {
+                        consumer.accept(transaction);
+                        rows++;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static byte[] encodeGroup(List<Transaction> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater, 1 << 14))) {
+            writeVarLong(out, rows.size());
+            long previous = 0;
+            for (Transaction row : rows) { // Ascending, so the deltas are small and never negative
+                writeVarLong(out, row.getAccountId() - previous);
+                previous = row.getAccountId();
+            }
+            previous = 0;
+            for (Transaction row : rows) {
+                long timestamp = toMillis(row);
+                writeVarLong(out, zigZag(timestamp - previous));
+                previous = timestamp;
+            }
+            previous = 0;
+            for (Transaction row : rows) {
+                writeVarLong(out, zigZag(row.getTransactionId() - previous));
+                previous = row.getTransactionId();
+            }
+            Map<String, Integer> dictionary = new HashMap<>();
+            List<String> symbols = new ArrayList<>();
+            for (Transaction row : rows) {
+                if (dictionary.putIfAbsent(row.getAssetSymbol(), symbols.size()) == null) {
+                    symbols.add(row.getAssetSymbol());
+                }
+            }
+            writeVarLong(out, symbols.size());
+            for (String symbol : symbols) {
+                out.writeUTF(symbol);
+            }
+            for (Transaction row : rows) {
+                writeVarLong(out, dictionary.get(row.getAssetSymbol()));
+            }
+            for (Transaction row : rows) {
+                out.writeByte(row.getTransactionType().ordinal());
+            }
+            for (Transaction row : rows) {
+                writeDecimal(out, row.getQuantity());
+            }
+            for (Transaction row : rows) {
+                writeDecimal(out, row.getPricePerUnit());
+            }
+            for (Transaction row : rows) {
+                writeDecimal(out, row.getTotalTransactionValue());
+            }
+            for (Transaction row : rows) {
+                out.writeBoolean(row.getRealizedProfitLoss() != null);
+            }
+            for (Transaction row : rows) {
+                if (row.getRealizedProfitLoss() != null) {
+                    writeDecimal(out, row.getRealizedProfitLoss());
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Transaction> decodeGroup(byte[] block) throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block)))) {
+            int count = (int) readVarLong(in);
+            List<Transaction> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(new Transaction());
+            }
+            long previous = 0;
+            for (Transaction row : rows) {
+                previous += readVarLong(in);
+                row.setAccountId((int) previous);
+            }
+            previous = 0;
+            for (Transaction row : rows) {
+                previous += unZigZag(readVarLong(in));
+                row.setTransactionTimestamp(new Timestamp(previous).toLocalDateTime());
+            }
+            previous = 0;
+            for (Transaction row : rows) {
+                previous += unZigZag(readVarLong(in));
+                row.setTransactionId((int) previous);
+            }
+            String[] symbols = new String[(int) readVarLong(in)];
+            for (int i = 0; i < symbols.length; i++) {
+                symbols[i] = in.readUTF();
+            }
+            for (Transaction row : rows) {
+                row.setAssetSymbol(symbols[(int) readVarLong(in)]);
+            }
+            for (Transaction row : rows) {
+                row.setTransactionType(TYPES[in.readUnsignedByte()]);
+            }
+            for (Transaction row : rows) {
+                row.setQuantity(readDecimal(in));
+            }
+            for (Transaction row : rows) {
+                row.setPricePerUnit(readDecimal(in));
+            }
+            for (Transaction row : rows) {
+                row.setTotalTransactionValue(readDecimal(in));
+            }
+            boolean[] hasRealized = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                hasRealized[i] = in.readBoolean();
+            }
+            for (int i = 0; i < count; i++) {
+                if (hasRealized[i]) {
+                    rows.get(i).setRealizedProfitLoss(readDecimal(in));
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static long toMillis(Transaction transaction) {
+        return Timestamp.valueOf(transaction.getTransactionTimestamp()).getTime();
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        writeVarLong(out, zigZag(value.scale()));
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE - 2) { // Leaves room for the sign and the format bit
+            writeVarLong(out, zigZag(unscaled.longValue()) << 1);
+        } else {
+            byte[] bytes = unscaled.toByteArray(); // DECIMAL(38, 10) values can exceed a long
+            writeVarLong(out, ((long) bytes.length << 1) | 1);
+            out.write(bytes);
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int scale = (int) unZigZag(readVarLong(in));
+        long header = readVarLong(in);
+        if ((header & 1) == 0) {
+            return BigDecimal.valueOf(unZigZag(header >>> 1), scale);
+        }
+        byte[] bytes = new byte[(int) (header >>> 1)];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length number in archive file");
+    }
+}
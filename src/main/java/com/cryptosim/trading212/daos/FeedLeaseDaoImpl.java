@@ -0,0 +1,90 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.FeedLeaseDao;
+import com.cryptosim.trading212.models.FeedLease;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * DAO for managing FeedLease entities.
+ * Handles database operations for the 'feed_leases' table, which lives on the home shard.
+ */
+@Repository
+public class FeedLeaseDaoImpl implements FeedLeaseDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FeedLeaseDaoImpl(ShardRouter shardRouter) {
+        this.jdbcTemplate = new JdbcTemplate(shardRouter.getShardDataSource(ShardRouter.HOME_SHARD));
+    }
+
+    private static class FeedLeaseRowMapper implements RowMapper<FeedLease> {
+        @Override
+        public FeedLease mapRow(ResultSet rs, int rowNum) throws SQLException {
+            FeedLease lease = new FeedLease();
+            lease.setLeaseName(rs.getString("lease_name"));
+            lease.setHolder(rs.getString("holder"));
+            lease.setEndpoint(rs.getString("endpoint"));
+            lease.setEpoch(rs.getLong("epoch"));
+            Timestamp expiresAtTimestamp = rs.getTimestamp("expires_at");
+            if (expiresAtTimestamp != null) {
+                lease.setExpiresAt(expiresAtTimestamp.toLocalDateTime());
+            }
+            lease.setExpired(rs.getBoolean("expired"));
+            return lease;
+        }
+    }
+
+    /**
+     * Inserts the lease on first use, otherwise takes it over with a conditional update. Two nodes racing
+     * for an expired lease both update the same row; InnoDB re-evaluates the condition for the second one
+     * after the first commits, so only one of them gets a row.
+     */
+    @Override
+    public Optional<FeedLease> tryAcquire(String leaseName, String holder, String endpoint, long ttlMillis) {
+        String insertSql = "INSERT IGNORE INTO feed_leases (lease_name, holder, endpoint, epoch, expires_at) " +
+                "VALUES (?, ?, ?, 1, TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)))";
+        int rowsAffected = jdbcTemplate.update(insertSql, leaseName, holder, endpoint, ttlMillis * 1000);
+        if (rowsAffected == 0) {
+            String updateSql = "UPDATE feed_leases SET holder = ?, endpoint = ?, epoch = epoch + 1, " +
+                    "expires_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)) " +
+                    "WHERE lease_name = ? AND (expires_at <= CURRENT_TIMESTAMP(3) OR holder = ?)";
+            rowsAffected = jdbcTemplate.update(updateSql, holder, endpoint, ttlMillis * 1000, leaseName, holder);
+        }
+        return rowsAffected > 0 ? findLease(leaseName) : Optional.empty();
+    }
+
+    @Override
+    public boolean renew(String leaseName, String holder, long epoch, long ttlMillis) {
+        String sql = "UPDATE feed_leases SET expires_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3)) " +
+                "WHERE lease_name = ? AND holder = ? AND epoch = ?";
+        int rowsAffected = jdbcTemplate.update(sql, ttlMillis * 1000, leaseName, holder, epoch);
+        return rowsAffected > 0;
+    }
+
+    @Override
+    public void release(String leaseName, String holder, long epoch) {
+        String sql = "UPDATE feed_leases SET expires_at = CURRENT_TIMESTAMP(3) WHERE lease_name = ? AND holder = ? AND epoch = ?";
+        jdbcTemplate.update(sql, leaseName, holder, epoch);
+    }
+
+    @Override
+    public Optional<FeedLease> findLease(String leaseName) {
+        String sql = "SELECT *, expires_at <= CURRENT_TIMESTAMP(3) AS expired FROM feed_leases WHERE lease_name = ?";
+        try {
+            FeedLease lease = jdbcTemplate.queryForObject(sql, new Object[]{leaseName}, new FeedLeaseRowMapper());
+            return Optional.ofNullable(lease);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.LedgerReconciliationDao;
+import com.cryptosim.trading212.models.LedgerDiscrepancy;
+import com.cryptosim.trading212.models.LedgerDiscrepancyType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DAO for the ledger reconciliation.
+ * Handles database operations for the 'ledger_checkpoints' and 'ledger_discrepancies' tables.
+ */
+@Repository
+public class LedgerReconciliationDaoImpl implements LedgerReconciliationDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public LedgerReconciliationDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private static class LedgerDiscrepancyRowMapper implements RowMapper<LedgerDiscrepancy> {
+        @Override
+        public LedgerDiscrepancy mapRow(ResultSet rs, int rowNum) throws SQLException {
+            LedgerDiscrepancy discrepancy = new LedgerDiscrepancy();
+            discrepancy.setRunId(rs.getString("run_id"));
+            discrepancy.setAccountId(rs.getInt("account_id"));
+            String assetSymbol = rs.getString("asset_symbol");
+            discrepancy.setAssetSymbol(assetSymbol.isEmpty() ? null : assetSymbol);
+            discrepancy.setDiscrepancyType(LedgerDiscrepancyType.valueOf(rs.getString("discrepancy_type").toUpperCase()));
+            discrepancy.setExpectedValue(rs.getBigDecimal("expected_value"));
+            discrepancy.setActualValue(rs.getBigDecimal("actual_value"));
+            discrepancy.setRepaired(rs.getBoolean("repaired"));
+            Timestamp recordedAtTimestamp = rs.getTimestamp("recorded_at");
+            if (recordedAtTimestamp != null) {
+                discrepancy.setRecordedAt(recordedAtTimestamp.toLocalDateTime());
+            }
+            return discrepancy;
+        }
+    }
+
+    @Override
+    public Set<Integer> findCheckpoints(String runId) {
+        String sql = "SELECT from_account_id FROM ledger_checkpoints WHERE run_id = ?";
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Integer.class, runId));
+    }
+
+    @Override
+    public void recordCheckpoint(String runId, int fromAccountId, int toAccountId, int accounts, long transactions,
+                                 int discrepancies, int changedAccounts) {
+        String sql = "INSERT INTO ledger_checkpoints (run_id, from_account_id, to_account_id, account_count, transaction_count, " +
+                "discrepancy_count, changed_account_count) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE to_account_id = VALUES(to_account_id), account_count = VALUES(account_count), " +
+                "transaction_count = VALUES(transaction_count), discrepancy_count = VALUES(discrepancy_count), " +
+                "changed_account_count = VALUES(changed_account_count), completed_at = CURRENT_TIMESTAMP";
+        jdbcTemplate.update(sql, runId, fromAccountId, toAccountId, accounts, transactions, discrepancies, changedAccounts);
+    }
+
+    /**
+     * Writes the discrepancies with one JDBC batch.
+     */
+    @Override
+    public void recordDiscrepancies(List<LedgerDiscrepancy> discrepancies) {
+        if (discrepancies.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO ledger_discrepancies (run_id, account_id, asset_symbol, discrepancy_type, expected_value, " +
+                "actual_value, repaired) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE expected_value = VALUES(expected_value), actual_value = VALUES(actual_value), " +
+                "repaired = VALUES(repaired), recorded_at = CURRENT_TIMESTAMP";
+        jdbcTemplate.batchUpdate(sql, discrepancies, discrepancies.size(), (ps, discrepancy) -> {
+            ps.setString(1, discrepancy.getRunId());
+            ps.setInt(2, discrepancy.getAccountId());
+            ps.setString(3, discrepancy.getAssetSymbol() != null ? discrepancy.getAssetSymbol() : "");
+            ps.setString(4, discrepancy.getDiscrepancyType().name());
+            ps.setBigDecimal(5, discrepancy.getExpectedValue());
+            ps.setBigDecimal(6, discrepancy.getActualValue());
+            ps.setBoolean(7, discrepancy.isRepaired());
+        });
+    }
+
+    @Override
+    public List<LedgerDiscrepancy> findDiscrepancies(String runId, int limit) {
+        String sql = "SELECT * FROM ledger_discrepancies WHERE run_id = ? ORDER BY account_id, asset_symbol, discrepancy_type LIMIT ?";
+        return jdbcTemplate.query(sql, new Object[]{runId, limit}, new LedgerDiscrepancyRowMapper());
+    }
+}
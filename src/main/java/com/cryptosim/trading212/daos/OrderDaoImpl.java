@@ -0,0 +1,214 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.OrderDao;
+import com.cryptosim.trading212.models.Order;
+import com.cryptosim.trading212.models.OrderStatus;
+import com.cryptosim.trading212.models.OrderType;
+import com.cryptosim.trading212.models.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * DAO for managing Order entities.
+ * Handles database operations for the 'orders' table.
+ */
+@Repository
+public class OrderDaoImpl implements OrderDao {
+
+    // Rows fetched per round trip while streaming open orders on startup
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public OrderDaoImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    private static class OrderRowMapper implements RowMapper<Order> {
+        @Override
+        public Order mapRow(ResultSet rs, int rowNum) throws SQLException {
+            Order order = new Order();
+            order.setOrderId(rs.getInt("order_id"));
+            order.setAccountId(rs.getInt("account_id"));
+            order.setAssetSymbol(rs.getString("asset_symbol"));
+            order.setSide(TransactionType.valueOf(rs.getString("side").toUpperCase()));
+            order.setOrderType(OrderType.valueOf(rs.getString("order_type").toUpperCase()));
+            order.setQuantity(rs.getBigDecimal("quantity"));
+            order.setTriggerPrice(rs.getBigDecimal("trigger_price"));
+            order.setStatus(OrderStatus.valueOf(rs.getString("status").toUpperCase()));
+            int transactionId = rs.getInt("transaction_id");
+            order.setTransactionId(rs.wasNull() ? null : transactionId);
+            order.setStatusReason(rs.getString("status_reason"));
+            Timestamp createdAtTimestamp = rs.getTimestamp("created_at");
+            if (createdAtTimestamp != null) {
+                order.setCreatedAt(createdAtTimestamp.toLocalDateTime());
+            }
+            Timestamp updatedAtTimestamp = rs.getTimestamp("updated_at");
+            if (updatedAtTimestamp != null) {
+                order.setUpdatedAt(updatedAtTimestamp.toLocalDateTime());
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Persists a new resting order with status OPEN.
+     *
+     * @param order The Order object to create.
+     * @return The created Order object with its generated ID.
+     */
+    @Override
+    public Order createOrder(Order order) {
+        shardRouter.routeToAccount(order.getAccountId());
+        String sql = "INSERT INTO orders (account_id, asset_symbol, side, order_type, quantity, trigger_price, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            ps.setInt(1, order.getAccountId());
+            ps.setString(2, order.getAssetSymbol());
+            ps.setString(3, order.getSide().name());
+            ps.setString(4, order.getOrderType().name());
+            ps.setBigDecimal(5, order.getQuantity());
+            ps.setBigDecimal(6, order.getTriggerPrice());
+            ps.setString(7, OrderStatus.OPEN.name());
+            return ps;
+        }, keyHolder);
+
+        int newOrderId = keyHolder.getKey() != null ? keyHolder.getKey().intValue() : -1;
+        if (newOrderId == -1) {
+            throw new RuntimeException("Failed to create order, no ID obtained for asset: " + order.getAssetSymbol());
+        }
+        order.setOrderId(newOrderId);
+        order.setStatus(OrderStatus.OPEN);
+        return order;
+    }
+
+    /**
+     * Finds an order by its ID, joined with the owning account's user identifier.
+     *
+     * @param orderId The ID of the order.
+     * @return An Optional containing the Order if found, otherwise empty.
+     */
+    @Override
+    public Optional<Order> findById(int orderId) {
+        String sql = "SELECT o.*, a.user_identifier FROM orders o JOIN accounts a ON a.account_id = o.account_id WHERE o.order_id = ?";
+        try {
+            Order order = jdbcTemplate.queryForObject(sql, new Object[]{orderId}, (rs, rowNum) -> {
+                Order mapped = new OrderRowMapper().mapRow(rs, rowNum);
+                mapped.setUserIdentifier(rs.getString("user_identifier"));
+                return mapped;
+            });
+            return Optional.ofNullable(order);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Finds all orders for a given account ID, newest first.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of Order objects.
+     */
+    @Override
+    public List<Order> findByAccountId(int accountId) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "SELECT * FROM orders WHERE account_id = ? ORDER BY created_at DESC, order_id DESC";
+        return jdbcTemplate.query(sql, new Object[]{accountId}, new OrderRowMapper());
+    }
+
+    /**
+     * Streams every OPEN order through a row callback so that millions of orders can be
+     * loaded without holding the whole result set as a list.
+     *
+     * @param consumer Callback invoked once per open order.
+     */
+    @Override
+    public void streamOpenOrders(Consumer<Order> consumer) {
+        String sql = "SELECT * FROM orders WHERE status = 'OPEN'";
+        OrderRowMapper rowMapper = new OrderRowMapper();
+        shardRouter.forEachShard(shard -> jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, rs.getRow()));
+        }));
+    }
+
+    /**
+     * Finds the TRIGGERED orders of all shards; answered from the (status, asset_symbol) index.
+     *
+     * @return The orders, on any shard.
+     */
+    @Override
+    public List<Order> findTriggeredOrders() {
+        String sql = "SELECT * FROM orders WHERE status = 'TRIGGERED'";
+        List<Order> orders = new ArrayList<>();
+        for (List<Order> shardOrders : shardRouter.fanOut(shard -> jdbcTemplate.query(sql, new OrderRowMapper()))) {
+            orders.addAll(shardOrders);
+        }
+        return orders;
+    }
+
+    /**
+     * Atomically moves an order from the expected status to a new one.
+     *
+     * @return true if exactly this caller performed the transition, false otherwise.
+     */
+    @Override
+    public boolean updateStatus(int orderId, OrderStatus expected, OrderStatus newStatus, String statusReason) {
+        String sql = "UPDATE orders SET status = ?, status_reason = ?, updated_at = CURRENT_TIMESTAMP WHERE order_id = ? AND status = ?";
+        int rowsAffected = jdbcTemplate.update(sql, newStatus.name(), statusReason, orderId, expected.name());
+        return rowsAffected > 0;
+    }
+
+    /**
+     * Marks a triggered order as filled and links it to the resulting transaction.
+     *
+     * @return true if the update was successful, false otherwise.
+     */
+    @Override
+    public boolean markFilled(int orderId, int transactionId) {
+        String sql = "UPDATE orders SET status = 'FILLED', transaction_id = ?, updated_at = CURRENT_TIMESTAMP WHERE order_id = ? AND status = 'TRIGGERED'";
+        int rowsAffected = jdbcTemplate.update(sql, transactionId, orderId);
+        return rowsAffected > 0;
+    }
+
+    /**
+     * Counts the OPEN orders per asset symbol; answered from the (status, asset_symbol) index.
+     */
+    @Override
+    public Map<String, Integer> countOpenBySymbol() {
+        String sql = "SELECT asset_symbol, COUNT(*) AS open_orders FROM orders WHERE status = 'OPEN' GROUP BY asset_symbol";
+        return ShardRouter.mergeCounts(shardRouter.fanOut(shard -> {
+            Map<String, Integer> openOrders = new HashMap<>();
+            jdbcTemplate.query(sql, rs -> {
+                openOrders.put(rs.getString("asset_symbol"), rs.getInt("open_orders"));
+            });
+            return openOrders;
+        }));
+    }
+}
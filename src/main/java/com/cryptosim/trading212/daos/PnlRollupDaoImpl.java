@@ -0,0 +1,157 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.PnlRollupDao;
+import com.cryptosim.trading212.daos.contracts.TransactionPartitionDao;
+import com.cryptosim.trading212.models.PnlGrouping;
+import com.cryptosim.trading212.models.PnlSummary;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DAO for the realized P&L rollups.
+ * Handles database operations for the 'pnl_daily_symbol' and 'pnl_daily' tables.
+ */
+@Repository
+public class PnlRollupDaoImpl implements PnlRollupDao {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final TransactionPartitionDao transactionPartitionDao;
+
+    @Autowired
+    public PnlRollupDaoImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, TransactionPartitionDao transactionPartitionDao) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.transactionPartitionDao = transactionPartitionDao;
+    }
+
+    private static class PnlSummaryRowMapper implements RowMapper<PnlSummary> {
+        private final PnlGrouping grouping;
+
+        private PnlSummaryRowMapper(PnlGrouping grouping) {
+            this.grouping = grouping;
+        }
+
+        @Override
+        public PnlSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+            PnlSummary summary = new PnlSummary();
+            if (grouping == PnlGrouping.SYMBOL) {
+                summary.setAssetSymbol(rs.getString("asset_symbol"));
+            } else if (grouping == PnlGrouping.DAY) {
+                summary.setBucketDate(rs.getDate("bucket_date").toLocalDate());
+            }
+            summary.setRealizedProfitLoss(rs.getBigDecimal("realized_pnl"));
+            summary.setBuyVolume(rs.getBigDecimal("buy_volume"));
+            summary.setSellVolume(rs.getBigDecimal("sell_volume"));
+            summary.setBuyCount(rs.getLong("buy_count"));
+            summary.setSellCount(rs.getLong("sell_count"));
+            return summary;
+        }
+    }
+
+    /**
+     * Adds a trade to both rollup levels with one upsert each.
+     * The increments are passed twice: once for a new row, once for the ON DUPLICATE KEY branch.
+     */
+    @Override
+    public void applyTrade(Transaction transaction) {
+        shardRouter.routeToAccount(transaction.getAccountId());
+        boolean isBuy = transaction.getTransactionType() == TransactionType.BUY;
+        BigDecimal realizedPnl = transaction.getRealizedProfitLoss() != null ? transaction.getRealizedProfitLoss() : BigDecimal.ZERO;
+        BigDecimal buyVolume = isBuy ? transaction.getTotalTransactionValue() : BigDecimal.ZERO;
+        BigDecimal sellVolume = isBuy ? BigDecimal.ZERO : transaction.getTotalTransactionValue();
+        int buyCount = isBuy ? 1 : 0;
+        int sellCount = isBuy ? 0 : 1;
+        LocalDateTime timestamp = transaction.getTransactionTimestamp() != null ? transaction.getTransactionTimestamp() : LocalDateTime.now();
+        Date bucketDate = Date.valueOf(timestamp.toLocalDate());
+
+        String symbolSql = "INSERT INTO pnl_daily_symbol (account_id, asset_symbol, bucket_date, realized_pnl, buy_volume, sell_volume, buy_count, sell_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                "realized_pnl = realized_pnl + ?, buy_volume = buy_volume + ?, sell_volume = sell_volume + ?, " +
+                "buy_count = buy_count + ?, sell_count = sell_count + ?";
+        jdbcTemplate.update(symbolSql, transaction.getAccountId(), transaction.getAssetSymbol(), bucketDate,
+                realizedPnl, buyVolume, sellVolume, buyCount, sellCount,
+                realizedPnl, buyVolume, sellVolume, buyCount, sellCount);
+
+        String accountSql = "INSERT INTO pnl_daily (account_id, bucket_date, realized_pnl, buy_volume, sell_volume, buy_count, sell_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                "realized_pnl = realized_pnl + ?, buy_volume = buy_volume + ?, sell_volume = sell_volume + ?, " +
+                "buy_count = buy_count + ?, sell_count = sell_count + ?";
+        jdbcTemplate.update(accountSql, transaction.getAccountId(), bucketDate,
+                realizedPnl, buyVolume, sellVolume, buyCount, sellCount,
+                realizedPnl, buyVolume, sellVolume, buyCount, sellCount);
+    }
+
+    /**
+     * Sums rollup rows; TOTAL and DAY read the account level, SYMBOL the symbol level.
+     * Each query reads at most one row per day (and symbol) of the range via the primary key.
+     */
+    @Override
+    public List<PnlSummary> summarize(int accountId, LocalDate from, LocalDate to, PnlGrouping grouping) {
+        String measures = "COALESCE(SUM(realized_pnl), 0) AS realized_pnl, COALESCE(SUM(buy_volume), 0) AS buy_volume, " +
+                "COALESCE(SUM(sell_volume), 0) AS sell_volume, COALESCE(SUM(buy_count), 0) AS buy_count, " +
+                "COALESCE(SUM(sell_count), 0) AS sell_count";
+        String sql;
+        switch (grouping) {
+            case SYMBOL:
+                sql = "SELECT asset_symbol, " + measures + " FROM pnl_daily_symbol " +
+                        "WHERE account_id = ? AND bucket_date BETWEEN ? AND ? GROUP BY asset_symbol ORDER BY asset_symbol";
+                break;
+            case DAY:
+                sql = "SELECT bucket_date, " + measures + " FROM pnl_daily " +
+                        "WHERE account_id = ? AND bucket_date BETWEEN ? AND ? GROUP BY bucket_date ORDER BY bucket_date";
+                break;
+            default:
+                sql = "SELECT " + measures + " FROM pnl_daily WHERE account_id = ? AND bucket_date BETWEEN ? AND ?";
+                break;
+        }
+        shardRouter.routeToAccount(accountId);
+        return jdbcTemplate.query(sql, new Object[]{accountId, Date.valueOf(from), Date.valueOf(to)}, new PnlSummaryRowMapper(grouping));
+    }
+
+    /**
+     * Replaces the rollups of an account range with aggregates computed from 'transactions'.
+     * Should run in one transaction so readers never see a half-rebuilt range. Days before the archive cutoff keep
+     * their rollups, as their transactions are no longer in the table; archive cutoffs fall on midnight.
+     */
+    @Override
+    public int rebuildAccountRange(int fromAccountId, int toAccountId) {
+        LocalDateTime archiveCutoff = transactionPartitionDao.findArchiveCutoff();
+        LocalDate firstDay = archiveCutoff != null ? archiveCutoff.toLocalDate() : LocalDate.of(1970, 1, 1);
+        Timestamp from = Timestamp.valueOf(firstDay.atStartOfDay());
+        jdbcTemplate.update("DELETE FROM pnl_daily_symbol WHERE account_id BETWEEN ? AND ? AND bucket_date >= ?",
+                fromAccountId, toAccountId, Date.valueOf(firstDay));
+        jdbcTemplate.update("DELETE FROM pnl_daily WHERE account_id BETWEEN ? AND ? AND bucket_date >= ?",
+                fromAccountId, toAccountId, Date.valueOf(firstDay));
+
+        String symbolSql = "INSERT INTO pnl_daily_symbol (account_id, asset_symbol, bucket_date, realized_pnl, buy_volume, sell_volume, buy_count, sell_count) " +
+                "SELECT account_id, asset_symbol, DATE(transaction_timestamp), " +
+                "COALESCE(SUM(realized_profit_loss), 0), " +
+                "SUM(CASE WHEN transaction_type = 'BUY' THEN total_transaction_value ELSE 0 END), " +
+                "SUM(CASE WHEN transaction_type = 'SELL' THEN total_transaction_value ELSE 0 END), " +
+                "SUM(transaction_type = 'BUY'), SUM(transaction_type = 'SELL') " +
+                "FROM transactions WHERE account_id BETWEEN ? AND ? AND transaction_timestamp >= ? " +
+                "GROUP BY account_id, asset_symbol, DATE(transaction_timestamp)";
+        int rows = jdbcTemplate.update(symbolSql, fromAccountId, toAccountId, from);
+
+        // The account level is derived from the freshly written symbol level instead of rescanning transactions
+        String accountSql = "INSERT INTO pnl_daily (account_id, bucket_date, realized_pnl, buy_volume, sell_volume, buy_count, sell_count) " +
+                "SELECT account_id, bucket_date, SUM(realized_pnl), SUM(buy_volume), SUM(sell_volume), SUM(buy_count), SUM(sell_count) " +
+                "FROM pnl_daily_symbol WHERE account_id BETWEEN ? AND ? AND bucket_date >= ? GROUP BY account_id, bucket_date";
+        jdbcTemplate.update(accountSql, fromAccountId, toAccountId, Date.valueOf(firstDay));
+        return rows;
+    }
+}
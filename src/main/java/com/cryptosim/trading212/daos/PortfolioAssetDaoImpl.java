@@ -16,8 +16,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * DAO for managing PortfolioAsset entities.
@@ -27,10 +33,12 @@ import java.util.Optional;
 public class PortfolioAssetDaoImpl implements PortfolioAssetDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
 
     @Autowired
-    public PortfolioAssetDaoImpl(JdbcTemplate jdbcTemplate) {
+    public PortfolioAssetDaoImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
         this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
     }
 
     private static class PortfolioAssetRowMapper implements RowMapper<PortfolioAsset> {
@@ -62,10 +70,24 @@ public class PortfolioAssetDaoImpl implements PortfolioAssetDao {
      */
     @Override
     public List<PortfolioAsset> findByAccountId(int accountId) {
+        shardRouter.routeToAccount(accountId);
         String sql = "SELECT * FROM portfolio_assets WHERE account_id = ?";
         return jdbcTemplate.query(sql, new Object[]{accountId}, new PortfolioAssetRowMapper());
     }
 
+    /**
+     * Finds all portfolio assets of the account owned by the given user.
+     *
+     * @param userIdentifier The unique identifier of the user.
+     * @return A list of PortfolioAsset objects.
+     */
+    @Override
+    public List<PortfolioAsset> findByUserIdentifier(String userIdentifier) {
+        shardRouter.routeToUser(userIdentifier);
+        String sql = "SELECT p.* FROM portfolio_assets p JOIN accounts a ON a.account_id = p.account_id WHERE a.user_identifier = ?";
+        return jdbcTemplate.query(sql, new Object[]{userIdentifier}, new PortfolioAssetRowMapper());
+    }
+
     /**
      * Finds a specific portfolio asset by account ID and asset symbol.
      *
@@ -75,6 +97,7 @@ public class PortfolioAssetDaoImpl implements PortfolioAssetDao {
      */
     @Override
     public Optional<PortfolioAsset> findByAccountIdAndAssetSymbol(int accountId, String assetSymbol) {
+        shardRouter.routeToAccount(accountId);
         String sql = "SELECT * FROM portfolio_assets WHERE account_id = ? AND asset_symbol = ?";
         try {
             PortfolioAsset asset = jdbcTemplate.queryForObject(sql, new Object[]{accountId, assetSymbol}, new PortfolioAssetRowMapper());
@@ -84,6 +107,27 @@ public class PortfolioAssetDaoImpl implements PortfolioAssetDao {
         }
     }
 
+    /**
+     * Finds the portfolio assets of an account for the given symbols.
+     *
+     * @param accountId    The ID of the account.
+     * @param assetSymbols The symbols to look up.
+     * @return A list of PortfolioAsset objects.
+     */
+    @Override
+    public List<PortfolioAsset> findByAccountIdAndAssetSymbols(int accountId, Collection<String> assetSymbols) {
+        if (assetSymbols.isEmpty()) {
+            return Collections.emptyList();
+        }
+        shardRouter.routeToAccount(accountId);
+        String placeholders = assetSymbols.stream().map(symbol -> "?").collect(Collectors.joining(", "));
+        String sql = "SELECT * FROM portfolio_assets WHERE account_id = ? AND asset_symbol IN (" + placeholders + ")";
+        List<Object> args = new ArrayList<>(assetSymbols.size() + 1);
+        args.add(accountId);
+        args.addAll(assetSymbols);
+        return jdbcTemplate.query(sql, args.toArray(), new PortfolioAssetRowMapper());
+    }
+
     /**
      * Adds a new asset to an account's portfolio.
      *
@@ -92,6 +136,7 @@ public class PortfolioAssetDaoImpl implements PortfolioAssetDao {
      */
     @Override
     public PortfolioAsset addAsset(PortfolioAsset asset) {
+        shardRouter.routeToAccount(asset.getAccountId());
         String sql = "INSERT INTO portfolio_assets (account_id, asset_symbol, quantity, average_purchase_price, created_at, updated_at) " +
                 "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
         KeyHolder keyHolder = new GeneratedKeyHolder();
@@ -151,8 +196,44 @@ public class PortfolioAssetDaoImpl implements PortfolioAssetDao {
      */
     @Override
     public int deleteAllAssetsByAccountId(int accountId) {
+        shardRouter.routeToAccount(accountId);
         String sql = "DELETE FROM portfolio_assets WHERE account_id = ?";
         return jdbcTemplate.update(sql, accountId);
     }
-}
 
+    /**
+     * Deletes all assets of an account ID range on the routed shard.
+     * Used for the season rollover.
+     *
+     * @return The number of assets deleted.
+     */
+    @Override
+    public int deleteAssetsByAccountRange(int fromAccountId, int toAccountId) {
+        String sql = "DELETE FROM portfolio_assets WHERE account_id BETWEEN ? AND ?";
+        return jdbcTemplate.update(sql, fromAccountId, toAccountId);
+    }
+
+    /**
+     * Retrieves all assets of an account ID range on the routed shard.
+     * Used for the ledger reconciliation.
+     *
+     * @return The assets, ordered by account ID and asset symbol.
+     */
+    @Override
+    public List<PortfolioAsset> findByAccountRange(int fromAccountId, int toAccountId) {
+        String sql = "SELECT * FROM portfolio_assets WHERE account_id BETWEEN ? AND ? ORDER BY account_id, asset_symbol";
+        return jdbcTemplate.query(sql, new Object[]{fromAccountId, toAccountId}, new PortfolioAssetRowMapper());
+    }
+
+    @Override
+    public Map<String, Integer> countHoldersBySymbol() {
+        String sql = "SELECT asset_symbol, COUNT(*) AS holders FROM portfolio_assets GROUP BY asset_symbol";
+        return ShardRouter.mergeCounts(shardRouter.fanOut(shard -> {
+            Map<String, Integer> holders = new HashMap<>();
+            jdbcTemplate.query(sql, rs -> {
+                holders.put(rs.getString("asset_symbol"), rs.getInt("holders"));
+            });
+            return holders;
+        }));
+    }
+}
@@ -0,0 +1,208 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.PositionLotDao;
+import com.cryptosim.trading212.models.LotMatch;
+import com.cryptosim.trading212.models.PositionLot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * DAO for managing tax lots.
+ * Handles database operations for the 'position_lots' and 'lot_matches' tables.
+ */
+@Repository
+public class PositionLotDaoImpl implements PositionLotDao {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public PositionLotDaoImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    private static class PositionLotRowMapper implements RowMapper<PositionLot> {
+        @Override
+        public PositionLot mapRow(ResultSet rs, int rowNum) throws SQLException {
+            PositionLot lot = new PositionLot();
+            lot.setLotId(rs.getLong("lot_id"));
+            lot.setAccountId(rs.getInt("account_id"));
+            lot.setAssetSymbol(rs.getString("asset_symbol"));
+            int transactionId = rs.getInt("transaction_id");
+            lot.setTransactionId(rs.wasNull() ? null : transactionId);
+            lot.setOriginalQuantity(rs.getBigDecimal("original_quantity"));
+            lot.setRemainingQuantity(rs.getBigDecimal("remaining_quantity"));
+            lot.setUnitCost(rs.getBigDecimal("unit_cost"));
+            Timestamp acquiredAtTimestamp = rs.getTimestamp("acquired_at");
+            if (acquiredAtTimestamp != null) {
+                lot.setAcquiredAt(acquiredAtTimestamp.toLocalDateTime());
+            }
+            return lot;
+        }
+    }
+
+    private static class LotMatchRowMapper implements RowMapper<LotMatch> {
+        @Override
+        public LotMatch mapRow(ResultSet rs, int rowNum) throws SQLException {
+            LotMatch match = new LotMatch();
+            match.setMatchId(rs.getLong("match_id"));
+            match.setSellTransactionId(rs.getInt("sell_transaction_id"));
+            long lotId = rs.getLong("lot_id");
+            match.setLotId(rs.wasNull() ? null : lotId);
+            match.setAssetSymbol(rs.getString("asset_symbol"));
+            match.setQuantity(rs.getBigDecimal("quantity"));
+            match.setUnitCost(rs.getBigDecimal("unit_cost"));
+            match.setSalePrice(rs.getBigDecimal("sale_price"));
+            match.setRealizedProfitLoss(rs.getBigDecimal("realized_profit_loss"));
+            Timestamp acquiredAtTimestamp = rs.getTimestamp("acquired_at");
+            if (acquiredAtTimestamp != null) {
+                match.setAcquiredAt(acquiredAtTimestamp.toLocalDateTime());
+            }
+            return match;
+        }
+    }
+
+    @Override
+    public PositionLot createLot(PositionLot lot) {
+        shardRouter.routeToAccount(lot.getAccountId());
+        String sql = "INSERT INTO position_lots (account_id, asset_symbol, transaction_id, original_quantity, remaining_quantity, unit_cost, acquired_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            ps.setInt(1, lot.getAccountId());
+            ps.setString(2, lot.getAssetSymbol());
+            if (lot.getTransactionId() != null) {
+                ps.setInt(3, lot.getTransactionId());
+            } else {
+                ps.setNull(3, Types.INTEGER);
+            }
+            ps.setBigDecimal(4, lot.getOriginalQuantity());
+            ps.setBigDecimal(5, lot.getRemainingQuantity());
+            ps.setBigDecimal(6, lot.getUnitCost());
+            ps.setTimestamp(7, Timestamp.valueOf(lot.getAcquiredAt() != null ? lot.getAcquiredAt() : LocalDateTime.now()));
+            return ps;
+        }, keyHolder);
+
+        long newLotId = keyHolder.getKey() != null ? keyHolder.getKey().longValue() : -1;
+        if (newLotId == -1) {
+            throw new RuntimeException("Failed to create lot, no ID obtained for asset: " + lot.getAssetSymbol());
+        }
+        lot.setLotId(newLotId);
+        return lot;
+    }
+
+    /**
+     * Keyset page over the (account_id, asset_symbol, lot_id) index; FOR UPDATE serializes
+     * concurrent sells of the same position.
+     */
+    @Override
+    public List<PositionLot> findOpenLotsPage(int accountId, String assetSymbol, boolean oldestFirst, long afterLotId, int limit) {
+        shardRouter.routeToAccount(accountId);
+        String sql = oldestFirst
+                ? "SELECT * FROM position_lots WHERE account_id = ? AND asset_symbol = ? AND lot_id > ? ORDER BY lot_id ASC LIMIT ? FOR UPDATE"
+                : "SELECT * FROM position_lots WHERE account_id = ? AND asset_symbol = ? AND lot_id < ? ORDER BY lot_id DESC LIMIT ? FOR UPDATE";
+        return jdbcTemplate.query(sql, new Object[]{accountId, assetSymbol, afterLotId, limit}, new PositionLotRowMapper());
+    }
+
+    @Override
+    public BigDecimal sumOpenQuantity(int accountId, String assetSymbol) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "SELECT COALESCE(SUM(TRUNCATE(remaining_quantity, 8)), 0) FROM position_lots WHERE account_id = ? AND asset_symbol = ?";
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, accountId, assetSymbol);
+    }
+
+    @Override
+    public List<PositionLot> findOpenLots(int accountId, String assetSymbol) {
+        shardRouter.routeToAccount(accountId);
+        if (assetSymbol == null) {
+            String sql = "SELECT * FROM position_lots WHERE account_id = ? ORDER BY asset_symbol, lot_id";
+            return jdbcTemplate.query(sql, new Object[]{accountId}, new PositionLotRowMapper());
+        }
+        String sql = "SELECT * FROM position_lots WHERE account_id = ? AND asset_symbol = ? ORDER BY lot_id";
+        return jdbcTemplate.query(sql, new Object[]{accountId, assetSymbol}, new PositionLotRowMapper());
+    }
+
+    @Override
+    public boolean updateRemainingQuantity(long lotId, BigDecimal remainingQuantity) {
+        String sql = "UPDATE position_lots SET remaining_quantity = ? WHERE lot_id = ?";
+        int rowsAffected = jdbcTemplate.update(sql, remainingQuantity, lotId);
+        return rowsAffected > 0;
+    }
+
+    @Override
+    public int deleteLots(Collection<Long> lotIds) {
+        if (lotIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = lotIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+        String sql = "DELETE FROM position_lots WHERE lot_id IN (" + placeholders + ")";
+        return jdbcTemplate.update(sql, lotIds.toArray());
+    }
+
+    @Override
+    public int deleteByAccountId(int accountId) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "DELETE FROM position_lots WHERE account_id = ?";
+        return jdbcTemplate.update(sql, accountId);
+    }
+
+    @Override
+    public int deleteByAccountRange(int fromAccountId, int toAccountId) {
+        String sql = "DELETE FROM position_lots WHERE account_id BETWEEN ? AND ?";
+        return jdbcTemplate.update(sql, fromAccountId, toAccountId);
+    }
+
+    @Override
+    public void recordMatches(int accountId, int sellTransactionId, List<LotMatch> matches) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "INSERT INTO lot_matches (account_id, sell_transaction_id, lot_id, asset_symbol, quantity, unit_cost, sale_price, realized_profit_loss, acquired_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, matches, matches.size(), (ps, match) -> {
+            match.setSellTransactionId(sellTransactionId);
+            ps.setInt(1, accountId);
+            ps.setInt(2, sellTransactionId);
+            if (match.getLotId() != null) {
+                ps.setLong(3, match.getLotId());
+            } else {
+                ps.setNull(3, Types.BIGINT);
+            }
+            ps.setString(4, match.getAssetSymbol());
+            ps.setBigDecimal(5, match.getQuantity());
+            ps.setBigDecimal(6, match.getUnitCost());
+            ps.setBigDecimal(7, match.getSalePrice());
+            ps.setBigDecimal(8, match.getRealizedProfitLoss());
+            if (match.getAcquiredAt() != null) {
+                ps.setTimestamp(9, Timestamp.valueOf(match.getAcquiredAt()));
+            } else {
+                ps.setNull(9, Types.TIMESTAMP);
+            }
+        });
+    }
+
+    @Override
+    public List<LotMatch> findMatches(int accountId, int sellTransactionId) {
+        shardRouter.routeToAccount(accountId);
+        // Matches carry their account, so they stay readable after the sell transaction was archived
+        String sql = "SELECT * FROM lot_matches WHERE sell_transaction_id = ? AND account_id = ? ORDER BY match_id";
+        return jdbcTemplate.query(sql, new Object[]{sellTransactionId, accountId}, new LotMatchRowMapper());
+    }
+}
@@ -0,0 +1,204 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.RecurringPlanDao;
+import com.cryptosim.trading212.models.RecurringPlan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * DAO for managing RecurringPlan entities.
+ * Handles database operations for the 'recurring_plans' and 'recurring_plan_runs' tables.
+ */
+@Repository
+public class RecurringPlanDaoImpl implements RecurringPlanDao {
+
+    // Rows fetched per round trip while streaming active plans on startup
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public RecurringPlanDaoImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    private static class RecurringPlanRowMapper implements RowMapper<RecurringPlan> {
+        private final boolean withUserIdentifier;
+
+        private RecurringPlanRowMapper(boolean withUserIdentifier) {
+            this.withUserIdentifier = withUserIdentifier;
+        }
+
+        @Override
+        public RecurringPlan mapRow(ResultSet rs, int rowNum) throws SQLException {
+            RecurringPlan plan = new RecurringPlan();
+            plan.setPlanId(rs.getInt("plan_id"));
+            plan.setAccountId(rs.getInt("account_id"));
+            plan.setAssetSymbol(rs.getString("asset_symbol"));
+            plan.setFiatAmount(rs.getBigDecimal("fiat_amount"));
+            plan.setIntervalSeconds(rs.getLong("interval_seconds"));
+            plan.setNextRunAt(rs.getTimestamp("next_run_at").toLocalDateTime());
+            plan.setActive(rs.getBoolean("active"));
+            Timestamp createdAtTimestamp = rs.getTimestamp("created_at");
+            if (createdAtTimestamp != null) {
+                plan.setCreatedAt(createdAtTimestamp.toLocalDateTime());
+            }
+            Timestamp updatedAtTimestamp = rs.getTimestamp("updated_at");
+            if (updatedAtTimestamp != null) {
+                plan.setUpdatedAt(updatedAtTimestamp.toLocalDateTime());
+            }
+            if (withUserIdentifier) {
+                plan.setUserIdentifier(rs.getString("user_identifier"));
+            }
+            return plan;
+        }
+    }
+
+    @Override
+    public RecurringPlan createPlan(RecurringPlan plan) {
+        shardRouter.routeToAccount(plan.getAccountId());
+        String sql = "INSERT INTO recurring_plans (account_id, asset_symbol, fiat_amount, interval_seconds, next_run_at, active, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            ps.setInt(1, plan.getAccountId());
+            ps.setString(2, plan.getAssetSymbol());
+            ps.setBigDecimal(3, plan.getFiatAmount());
+            ps.setLong(4, plan.getIntervalSeconds());
+            ps.setTimestamp(5, Timestamp.valueOf(plan.getNextRunAt()));
+            return ps;
+        }, keyHolder);
+
+        int newPlanId = keyHolder.getKey() != null ? keyHolder.getKey().intValue() : -1;
+        if (newPlanId == -1) {
+            throw new RuntimeException("Failed to create recurring plan, no ID obtained for asset: " + plan.getAssetSymbol());
+        }
+        plan.setPlanId(newPlanId);
+        plan.setActive(true);
+        return plan;
+    }
+
+    @Override
+    public Optional<RecurringPlan> findById(int planId) {
+        String sql = "SELECT p.*, a.user_identifier FROM recurring_plans p JOIN accounts a ON a.account_id = p.account_id WHERE p.plan_id = ?";
+        try {
+            RecurringPlan plan = jdbcTemplate.queryForObject(sql, new Object[]{planId}, new RecurringPlanRowMapper(true));
+            return Optional.ofNullable(plan);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<RecurringPlan> findByIds(Collection<Integer> planIds) {
+        if (planIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String placeholders = planIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+        String sql = "SELECT p.*, a.user_identifier FROM recurring_plans p JOIN accounts a ON a.account_id = p.account_id " +
+                "WHERE p.plan_id IN (" + placeholders + ")";
+        List<RecurringPlan> plans = new ArrayList<>(planIds.size());
+        for (List<RecurringPlan> shardPlans : shardRouter.fanOut(shard -> jdbcTemplate.query(sql, planIds.toArray(), new RecurringPlanRowMapper(true)))) {
+            plans.addAll(shardPlans);
+        }
+        return plans;
+    }
+
+    @Override
+    public List<RecurringPlan> findByAccountId(int accountId) {
+        shardRouter.routeToAccount(accountId);
+        String sql = "SELECT * FROM recurring_plans WHERE account_id = ? ORDER BY plan_id";
+        return jdbcTemplate.query(sql, new Object[]{accountId}, new RecurringPlanRowMapper(false));
+    }
+
+    @Override
+    public void streamActivePlans(Consumer<RecurringPlan> consumer) {
+        String sql = "SELECT * FROM recurring_plans WHERE active = TRUE";
+        RecurringPlanRowMapper rowMapper = new RecurringPlanRowMapper(false);
+        shardRouter.forEachShard(shard -> jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, rs.getRow()));
+        }));
+    }
+
+    @Override
+    public boolean deactivate(int planId) {
+        String sql = "UPDATE recurring_plans SET active = FALSE, updated_at = CURRENT_TIMESTAMP WHERE plan_id = ? AND active = TRUE";
+        return jdbcTemplate.update(sql, planId) > 0;
+    }
+
+    @Override
+    public boolean advanceNextRun(int planId, LocalDateTime expectedNextRunAt, LocalDateTime newNextRunAt) {
+        String sql = "UPDATE recurring_plans SET next_run_at = ?, updated_at = CURRENT_TIMESTAMP WHERE plan_id = ? AND next_run_at = ?";
+        return jdbcTemplate.update(sql, Timestamp.valueOf(newNextRunAt), planId, Timestamp.valueOf(expectedNextRunAt)) > 0;
+    }
+
+    @Override
+    public boolean claimRun(int planId, LocalDateTime scheduledFor) {
+        String sql = "INSERT INTO recurring_plan_runs (plan_id, scheduled_for, status, executed_at) VALUES (?, ?, 'EXECUTED', CURRENT_TIMESTAMP)";
+        try {
+            jdbcTemplate.update(sql, planId, Timestamp.valueOf(scheduledFor));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void completeRun(int planId, LocalDateTime scheduledFor, int transactionId) {
+        String sql = "UPDATE recurring_plan_runs SET transaction_id = ? WHERE plan_id = ? AND scheduled_for = ?";
+        jdbcTemplate.update(sql, transactionId, planId, Timestamp.valueOf(scheduledFor));
+    }
+
+    @Override
+    public boolean recordFailedRun(int planId, LocalDateTime scheduledFor, String message) {
+        String sql = "INSERT INTO recurring_plan_runs (plan_id, scheduled_for, status, message, executed_at) VALUES (?, ?, 'FAILED', ?, CURRENT_TIMESTAMP)";
+        try {
+            jdbcTemplate.update(sql, planId, Timestamp.valueOf(scheduledFor), message);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Map<String, Integer> countActiveBySymbol() {
+        String sql = "SELECT asset_symbol, COUNT(*) AS active_plans FROM recurring_plans WHERE active = TRUE GROUP BY asset_symbol";
+        return ShardRouter.mergeCounts(shardRouter.fanOut(shard -> {
+            Map<String, Integer> activePlans = new HashMap<>();
+            jdbcTemplate.query(sql, rs -> {
+                activePlans.put(rs.getString("asset_symbol"), rs.getInt("active_plans"));
+            });
+            return activePlans;
+        }));
+    }
+}
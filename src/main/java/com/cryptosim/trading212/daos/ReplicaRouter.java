@@ -0,0 +1,312 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.dtos.ReplicaStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only queries to read replicas of the shards, keeping everything else on the primaries.
+ * <p>
+ * Only reads wrapped in {@link #readFromReplica} may use a replica; all other statements, and any read inside a
+ * transaction, stay on the primary of the routed shard. Within one read the replica is chosen once per shard, so
+ * its statements see a single point in time.
+ * <p>
+ * Replica lag is measured with a heartbeat: every {@link #HEARTBEAT_INTERVAL_MILLIS} this node writes its clock into
+ * its own row of {@code replica_heartbeat} on each primary and reads the row back from every replica. A replica that
+ * shows heartbeat t has applied every commit made before t, whatever its replication delay. Replicas more than
+ * {@link #MAX_REPLICA_LAG_MILLIS} behind, or unreachable, are skipped until they catch up.
+ * <p>
+ * Read-your-writes: a read can name the time of the client's newest write, made through any node, and is then only
+ * served by a replica whose heartbeat shows it has applied everything committed up to that time (allowing for
+ * {@link #MAX_CLOCK_SKEW_MILLIS} between the clocks of the nodes), and by the primary otherwise. Callers that only
+ * know the writes made through this node read from the primary for {@link #STICKY_WINDOW_MILLIS} after a user's own
+ * change instead; as the window is longer than the largest lag a usable replica can have, any replica chosen
+ * afterwards already has the change. That only covers clients whose requests stay on one node.
+ */
+public class ReplicaRouter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    public static final long MAX_REPLICA_LAG_MILLIS = 2_000;
+    public static final long HEARTBEAT_INTERVAL_MILLIS = 500;
+    // Must exceed the largest lag of a usable replica: the lag limit plus one heartbeat interval of measurement delay
+    public static final long STICKY_WINDOW_MILLIS = 5_000;
+    // The nodes' clocks must agree this closely (e.g. via NTP) for write times of one node to be compared with another's heartbeats
+    public static final long MAX_CLOCK_SKEW_MILLIS = 500;
+    private static final long STALE_HEARTBEAT_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final int UNDECIDED = -2;
+    private static final int PRIMARY = -1;
+
+    private final List<List<Replica>> replicas;
+    private final List<JdbcTemplate> primaries;
+    private final String heartbeatId = UUID.randomUUID().toString();
+    private final ThreadLocal<ReadScope> readScope = new ThreadLocal<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    // Replica chosen per shard by the current read, and how recent a replica must be to serve it
+    private static final class ReadScope {
+        final int[] chosen;
+        final long writtenAt;
+
+        ReadScope(int shardCount, long writtenAt) {
+            this.chosen = new int[shardCount];
+            Arrays.fill(chosen, UNDECIDED);
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        final JdbcTemplate jdbcTemplate;
+        volatile long caughtUpTo; // Heartbeat seen on the replica; 0 until the first one has replicated
+        volatile boolean usable;
+        final AtomicLong reads = new AtomicLong();
+        final AtomicLong primaryFallbacks = new AtomicLong();
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+    }
+
+    /**
+     * @param shardRouter        The router of the primaries; its routing DataSource is extended to the replicas.
+     * @param replicaDataSources The replicas of every shard, indexed by shard; shards without replicas have an empty list.
+     * @throws IllegalArgumentException if replicas are given for more shards than there are.
+     */
+    public ReplicaRouter(ShardRouter shardRouter, List<List<DataSource>> replicaDataSources) {
+        if (replicaDataSources.size() > shardRouter.getShardCount()) {
+            throw new IllegalArgumentException("Replicas are configured for " + replicaDataSources.size()
+                    + " shards, but there are only " + shardRouter.getShardCount() + ".");
+        }
+        this.replicas = new ArrayList<>(shardRouter.getShardCount());
+        this.primaries = new ArrayList<>(shardRouter.getShardCount());
+        int replicaCount = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            List<Replica> shardReplicas = new ArrayList<>();
+            if (shard < replicaDataSources.size()) {
+                List<DataSource> dataSources = replicaDataSources.get(shard);
+                for (int i = 0; i < dataSources.size(); i++) {
+                    shardReplicas.add(new Replica("shard-" + shard + "-replica-" + i, dataSources.get(i)));
+                }
+            }
+            replicas.add(shardReplicas);
+            primaries.add(new JdbcTemplate(shardRouter.getShardDataSource(shard)));
+            replicaCount += shardReplicas.size();
+        }
+
+        if (replicaCount == 0) {
+            this.heartbeatExecutor = null;
+            logger.info("No read replicas configured; all reads go to the primaries");
+            return;
+        }
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        removeStaleHeartbeats();
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, 0, HEARTBEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        shardRouter.attachReplicaRouter(this);
+        logger.info("Routing eligible reads to {} read replica(s)", replicaCount);
+    }
+
+    /**
+     * Runs a read that may be served by a replica. The read must not write, and the caller must not use it right
+     * after a change of the same user (see {@link #STICKY_WINDOW_MILLIS}). If the replica fails, or does not have the
+     * requested row (e.g. an account just created through another node), the read is repeated on the primary.
+     *
+     * @param read The read; it may run twice.
+     * @return The result of the read.
+     */
+    public <T> T readFromReplica(Supplier<T> read) {
+        return readFromReplica(read, 0);
+    }
+
+    /**
+     * Runs a read that may be served by a replica that has applied every write committed up to the given time.
+     *
+     * @param read      The read; it may run twice.
+     * @param writtenAt The time, by the clock of the node that made it, of the newest write the read must see; 0 for none.
+     * @return The result of the read.
+     */
+    public <T> T readFromReplica(Supplier<T> read, long writtenAt) {
+        if (heartbeatExecutor == null || readScope.get() != null || TransactionSynchronizationManager.isSynchronizationActive()) {
+            return read.get();
+        }
+        ReadScope scope = new ReadScope(replicas.size(), writtenAt);
+        readScope.set(scope);
+        try {
+            return read.get();
+        } catch (NoSuchElementException | DataAccessException e) {
+            if (!usedReplica(scope.chosen)) {
+                throw e;
+            }
+            logger.debug("Repeating a replica read on the primary: {}", e.getMessage());
+            readScope.remove();
+            return read.get();
+        } finally {
+            readScope.remove();
+        }
+    }
+
+    private boolean usedReplica(int[] chosen) {
+        boolean used = false;
+        for (int shard = 0; shard < chosen.length; shard++) {
+            if (chosen[shard] >= 0) {
+                replicas.get(shard).get(chosen[shard]).primaryFallbacks.incrementAndGet();
+                used = true;
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Picks the replica for a new connection to the shard; called by the routing DataSource.
+     *
+     * @return The replica's DataSource, or null to use the primary.
+     */
+    DataSource replicaFor(int shard) {
+        ReadScope scope = readScope.get();
+        if (scope == null) {
+            return null;
+        }
+        int[] chosen = scope.chosen;
+        if (chosen[shard] == UNDECIDED) {
+            chosen[shard] = chooseReplica(shard, scope.writtenAt);
+            if (chosen[shard] != PRIMARY) {
+                replicas.get(shard).get(chosen[shard]).reads.incrementAndGet();
+            }
+        }
+        return chosen[shard] == PRIMARY ? null : replicas.get(shard).get(chosen[shard]).dataSource;
+    }
+
+    private int chooseReplica(int shard, long writtenAt) {
+        List<Replica> shardReplicas = replicas.get(shard);
+        // A heartbeat written after the commit proves the replica has it; the write time is taken after the commit
+        long requiredHeartbeat = writtenAt > 0 ? writtenAt + MAX_CLOCK_SKEW_MILLIS : 0;
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(shardReplicas.size(), 1));
+        for (int i = 0; i < shardReplicas.size(); i++) {
+            int candidate = (start + i) % shardReplicas.size();
+            Replica replica = shardReplicas.get(candidate);
+            if (replica.usable && replica.caughtUpTo >= requiredHeartbeat) {
+                return candidate;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private void heartbeat() {
+        for (int shard = 0; shard < replicas.size(); shard++) {
+            if (replicas.get(shard).isEmpty()) {
+                continue;
+            }
+            try {
+                primaries.get(shard).update("INSERT INTO replica_heartbeat (heartbeat_id, beat_millis) VALUES (?, ?) " +
+                        "ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)", heartbeatId, System.currentTimeMillis());
+            } catch (DataAccessException e) {
+                logger.debug("Could not write the replica heartbeat on shard {}: {}", shard, e.getMessage());
+            }
+            for (Replica replica : replicas.get(shard)) {
+                try {
+                    replica.caughtUpTo = replica.jdbcTemplate.queryForObject(
+                            "SELECT beat_millis FROM replica_heartbeat WHERE heartbeat_id = ?", Long.class, heartbeatId);
+                    updateUsable(replica, System.currentTimeMillis() - replica.caughtUpTo <= MAX_REPLICA_LAG_MILLIS);
+                } catch (EmptyResultDataAccessException e) {
+                    updateUsable(replica, false); // The first heartbeat has not replicated yet
+                } catch (DataAccessException e) {
+                    logger.debug("Could not read the heartbeat of {}: {}", replica.name, e.getMessage());
+                    updateUsable(replica, false);
+                }
+            }
+        }
+    }
+
+    private static void updateUsable(Replica replica, boolean usable) {
+        if (replica.usable != usable) {
+            if (usable) {
+                logger.info("Read replica {} caught up; serving reads from it", replica.name);
+            } else {
+                logger.warn("Read replica {} is unreachable or more than {} ms behind; reading from the primary", replica.name, MAX_REPLICA_LAG_MILLIS);
+            }
+        }
+        replica.usable = usable;
+    }
+
+    // Every run of every node adds a heartbeat row, so rows of nodes that are long gone are removed at startup
+    private void removeStaleHeartbeats() {
+        for (int shard = 0; shard < replicas.size(); shard++) {
+            if (replicas.get(shard).isEmpty()) {
+                continue;
+            }
+            try {
+                int removed = primaries.get(shard).update("DELETE FROM replica_heartbeat WHERE beat_millis < ?",
+                        System.currentTimeMillis() - STALE_HEARTBEAT_MILLIS);
+                logger.debug("Removed {} stale replica heartbeat(s) on shard {}", removed, shard);
+            } catch (DataAccessException e) {
+                logger.warn("Could not remove stale replica heartbeats on shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return The lag and usage of every replica, by shard.
+     */
+    public List<ReplicaStats> getReplicaStats() {
+        long now = System.currentTimeMillis();
+        List<ReplicaStats> stats = new ArrayList<>();
+        for (int shard = 0; shard < replicas.size(); shard++) {
+            for (Replica replica : replicas.get(shard)) {
+                ReplicaStats replicaStats = new ReplicaStats();
+                replicaStats.setShard(shard);
+                replicaStats.setName(replica.name);
+                replicaStats.setLagMillis(replica.caughtUpTo > 0 ? now - replica.caughtUpTo : -1);
+                replicaStats.setUsable(replica.usable);
+                replicaStats.setReads(replica.reads.get());
+                replicaStats.setPrimaryFallbacks(replica.primaryFallbacks.get());
+                stats.add(replicaStats);
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (heartbeatExecutor == null) {
+            return;
+        }
+        heartbeatExecutor.shutdownNow();
+        for (List<Replica> shardReplicas : replicas) {
+            for (Replica replica : shardReplicas) {
+                if (replica.dataSource instanceof AutoCloseable) {
+                    try {
+                        ((AutoCloseable) replica.dataSource).close();
+                    } catch (Exception e) {
+                        logger.warn("Error closing replica DataSource {}: {}", replica.name, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.SeasonStandingDao;
+import com.cryptosim.trading212.models.SeasonStanding;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO for competition seasons.
+ * Handles database operations for the 'season_prices' and 'season_standings' tables.
+ */
+@Repository
+public class SeasonStandingDaoImpl implements SeasonStandingDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SeasonStandingDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private static class SeasonStandingRowMapper implements RowMapper<SeasonStanding> {
+        @Override
+        public SeasonStanding mapRow(ResultSet rs, int rowNum) throws SQLException {
+            SeasonStanding standing = new SeasonStanding();
+            standing.setSeasonName(rs.getString("season_name"));
+            standing.setAccountId(rs.getInt("account_id"));
+            standing.setUserIdentifier(rs.getString("user_identifier"));
+            standing.setInitialBalance(rs.getBigDecimal("initial_balance"));
+            standing.setBalance(rs.getBigDecimal("balance"));
+            standing.setHoldingsValue(rs.getBigDecimal("holdings_value"));
+            standing.setTotalValue(rs.getBigDecimal("total_value"));
+            Timestamp recordedAtTimestamp = rs.getTimestamp("recorded_at");
+            if (recordedAtTimestamp != null) {
+                standing.setRecordedAt(recordedAtTimestamp.toLocalDateTime());
+            }
+            return standing;
+        }
+    }
+
+    @Override
+    public Map<String, BigDecimal> findPrices(String seasonName) {
+        String sql = "SELECT asset_symbol, price FROM season_prices WHERE season_name = ?";
+        Map<String, BigDecimal> prices = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            prices.put(rs.getString("asset_symbol"), rs.getBigDecimal("price"));
+        }, seasonName);
+        return prices;
+    }
+
+    @Override
+    public void recordPrices(String seasonName, Map<String, BigDecimal> prices) {
+        String sql = "INSERT IGNORE INTO season_prices (season_name, asset_symbol, price) VALUES (?, ?, ?)";
+        List<Object[]> rows = new ArrayList<>(prices.size());
+        prices.forEach((assetSymbol, price) -> rows.add(new Object[]{seasonName, assetSymbol, price}));
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    /**
+     * Reads the accounts of the range in ID order with their standing, if any, and closes a range at every account
+     * that already has one. A range without standings therefore comes back whole, and one whose accounts all have
+     * standings comes back empty.
+     */
+    @Override
+    public List<int[]> findPendingRanges(String seasonName, int fromAccountId, int toAccountId) {
+        String sql = "SELECT a.account_id, s.account_id IS NOT NULL AS rolled_over FROM accounts a " +
+                "LEFT JOIN season_standings s ON s.season_name = ? AND s.account_id = a.account_id " +
+                "WHERE a.account_id BETWEEN ? AND ? ORDER BY a.account_id";
+        List<int[]> ranges = new ArrayList<>();
+        int[] open = {fromAccountId, 0}; // First account ID of the current range, and whether it has pending accounts
+        jdbcTemplate.query(sql, rs -> {
+            int accountId = rs.getInt("account_id");
+            if (!rs.getBoolean("rolled_over")) {
+                open[1] = 1;
+            } else {
+                if (open[1] == 1) {
+                    ranges.add(new int[]{open[0], accountId - 1});
+                }
+                open[0] = accountId + 1;
+                open[1] = 0;
+            }
+        }, seasonName, fromAccountId, toAccountId);
+        if (open[1] == 1) {
+            ranges.add(new int[]{open[0], toAccountId});
+        }
+        return ranges;
+    }
+
+    /**
+     * Values every position with one grouped join instead of loading the accounts into the application.
+     */
+    @Override
+    public int snapshotStandings(String seasonName, int fromAccountId, int toAccountId) {
+        String holdingsValue = "COALESCE(SUM(p.quantity * COALESCE(sp.price, p.average_purchase_price)), 0)";
+        String sql = "INSERT INTO season_standings (season_name, account_id, user_identifier, initial_balance, balance, holdings_value, total_value) " +
+                "SELECT ?, a.account_id, a.user_identifier, a.initial_balance, a.balance, " + holdingsValue + ", a.balance + " + holdingsValue + " " +
+                "FROM accounts a " +
+                "LEFT JOIN portfolio_assets p ON p.account_id = a.account_id " +
+                "LEFT JOIN season_prices sp ON sp.season_name = ? AND sp.asset_symbol = p.asset_symbol " +
+                "WHERE a.account_id BETWEEN ? AND ? " +
+                "GROUP BY a.account_id, a.user_identifier, a.initial_balance, a.balance";
+        return jdbcTemplate.update(sql, seasonName, seasonName, fromAccountId, toAccountId);
+    }
+
+    @Override
+    public List<SeasonStanding> findTopStandings(String seasonName, int limit) {
+        String sql = "SELECT * FROM season_standings WHERE season_name = ? ORDER BY total_value DESC, account_id LIMIT ?";
+        return jdbcTemplate.query(sql, new Object[]{seasonName, limit}, new SeasonStandingRowMapper());
+    }
+}
@@ -0,0 +1,471 @@
+package com.cryptosim.trading212.daos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Routes account-scoped persistence to one of several databases (shards).
+ * <p>
+ * Every account and all of its rows live on exactly one shard. The DAOs select the shard of the account they
+ * work on with {@link #routeToAccount} or {@link #routeToUser}; the route is kept per thread, so the statements
+ * that follow (including those keyed only by a row ID) run on the same shard. Inside a transaction the first
+ * shard used is pinned until the transaction completes, and routing to another shard fails instead of silently
+ * splitting the unit of work across databases. Statements that were never routed run on the home shard (shard 0).
+ * <p>
+ * The home shard also holds the account directory, which allocates cluster-wide account IDs and records the shard
+ * of every account. New accounts are placed by a jump consistent hash of their user identifier, so adding a shard
+ * only moves the accounts that the new shard takes over (see {@code ShardAdminServiceImpl}). Accounts missing
+ * from the directory (created before sharding was enabled) resolve to the home shard.
+ * <p>
+ * Account IDs come from the 'id_sequences' row of the directory in blocks (hi/lo): each node reserves
+ * {@link #ACCOUNT_ID_BLOCK_SIZE} IDs at a time and hands them out from memory, and bulk registrations reserve
+ * exactly the IDs they need in one step. IDs are therefore unique but not in creation order across nodes, and the
+ * unused rest of a block is skipped when a node stops.
+ * <p>
+ * Cross-account queries use {@link #fanOut}, which runs the query on every shard in parallel.
+ */
+public class ShardRouter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    public static final int HOME_SHARD = 0;
+    // Upper bound of the shard count; also the auto-increment step of every shard, which keeps generated IDs unique
+    // across shards so an account's rows can be moved without renumbering them
+    public static final int MAX_SHARDS = 16;
+    private static final int DIRECTORY_CACHE_LIMIT = 100_000;
+    static final int ACCOUNT_ID_BLOCK_SIZE = 100;
+    private static final String ACCOUNT_ID_SEQUENCE = "account";
+
+    private final List<DataSource> shardDataSources;
+    private final DataSource routingDataSource;
+    private final JdbcTemplate directory;
+    private final TransactionTemplate directoryTransaction;
+    private int nextAccountId; // Next unused ID of this node's reserved block, guarded by this
+    private int accountIdBlockEnd; // Exclusive end of the block, guarded by this
+    private final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+    private final Map<String, Integer> userShards = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> accountShards = new ConcurrentHashMap<>();
+    private final ExecutorService fanOutExecutor;
+    private volatile ReplicaRouter replicaRouter;
+
+    /**
+     * @param shardDataSources One DataSource per shard; the first is the home shard.
+     * @throws IllegalArgumentException if there are no shards or more than {@link #MAX_SHARDS}.
+     */
+    public ShardRouter(List<DataSource> shardDataSources) {
+        if (shardDataSources.isEmpty() || shardDataSources.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported, got " + shardDataSources.size() + ".");
+        }
+        this.shardDataSources = List.copyOf(shardDataSources);
+        this.routingDataSource = new ShardRoutingDataSource(this, this.shardDataSources);
+        this.directory = new JdbcTemplate(this.shardDataSources.get(HOME_SHARD));
+        this.directoryTransaction = new TransactionTemplate(new DataSourceTransactionManager(this.shardDataSources.get(HOME_SHARD)));
+        // Reservations commit on their own, so IDs are never handed out twice even if the caller's work rolls back
+        this.directoryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.fanOutExecutor = Executors.newFixedThreadPool(this.shardDataSources.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fanout-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Routing account data across {} shard(s)", this.shardDataSources.size());
+    }
+
+    public int getShardCount() {
+        return shardDataSources.size();
+    }
+
+    /**
+     * @return The DataSource that resolves to the shard of the current route, for the application's JdbcTemplate.
+     */
+    public DataSource getRoutingDataSource() {
+        return routingDataSource;
+    }
+
+    /**
+     * @return The DataSource of one shard, for tooling that works on several shards at once.
+     */
+    public DataSource getShardDataSource(int shard) {
+        checkShard(shard);
+        return shardDataSources.get(shard);
+    }
+
+    /**
+     * Computes the shard a new account of the user is placed on.
+     * Jump consistent hash: growing from n to n + 1 shards moves only 1 / (n + 1) of the users, all to the new shard.
+     */
+    public static int placementOf(String userIdentifier, int shardCount) {
+        long key = 0xcbf29ce484222325L; // FNV-1a, stable across JVMs unlike identity-based hashes
+        for (byte b : userIdentifier.getBytes(StandardCharsets.UTF_8)) {
+            key = (key ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        long bucket = -1;
+        long next = 0;
+        while (next < shardCount) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    /**
+     * @return The shard holding the user's account; the home shard if the user is not in the directory.
+     */
+    public int shardOfUser(String userIdentifier) {
+        if (getShardCount() == 1) {
+            return HOME_SHARD;
+        }
+        Integer shard = userShards.get(userIdentifier);
+        if (shard == null) {
+            shard = lookup("SELECT shard_id FROM account_directory WHERE user_identifier = ?", userIdentifier);
+            if (shard != null) {
+                cache(userShards, userIdentifier, shard);
+            }
+        }
+        return shard != null ? shard : HOME_SHARD;
+    }
+
+    /**
+     * @return The shard holding the account; the home shard if the account is not in the directory.
+     */
+    public int shardOfAccount(int accountId) {
+        if (getShardCount() == 1) {
+            return HOME_SHARD;
+        }
+        Integer shard = accountShards.get(accountId);
+        if (shard == null) {
+            shard = lookup("SELECT shard_id FROM account_directory WHERE account_id = ?", accountId);
+            if (shard != null) {
+                cache(accountShards, accountId, shard);
+            }
+        }
+        return shard != null ? shard : HOME_SHARD;
+    }
+
+    private Integer lookup(String sql, Object key) {
+        try {
+            return directory.queryForObject(sql, Integer.class, key);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    private static <K> void cache(Map<K, Integer> cache, K key, int shard) {
+        if (cache.size() >= DIRECTORY_CACHE_LIMIT) {
+            cache.clear(); // Entries are cheap to reload; this keeps the cache bounded without tracking recency
+        }
+        cache.put(key, shard);
+    }
+
+    /**
+     * Allocates an account ID for the user and places the account, or returns the existing entry if the user is
+     * already in the directory (e.g. an earlier attempt failed after this step). Routes to the account's shard.
+     *
+     * @return The account ID; the account row itself still has to be inserted on its shard.
+     */
+    public int registerAccount(String userIdentifier) {
+        directory.update("INSERT IGNORE INTO account_directory (account_id, user_identifier, shard_id) VALUES (?, ?, ?)",
+                nextAccountId(), userIdentifier, placementOf(userIdentifier, getShardCount()));
+        Map<String, Object> entry = directory.queryForMap(
+                "SELECT account_id, shard_id FROM account_directory WHERE user_identifier = ?", userIdentifier);
+        int accountId = ((Number) entry.get("account_id")).intValue();
+        int shard = ((Number) entry.get("shard_id")).intValue();
+        cache(accountShards, accountId, shard);
+        cache(userShards, userIdentifier, shard);
+        routeTo(shard);
+        return accountId;
+    }
+
+    /**
+     * Allocates account IDs for many users and places their accounts with one batch. Users already in the directory
+     * keep their entry. Does not route; the accounts of the batch usually span all shards (see {@link #shardOfAccount},
+     * which is answered from the cache for the returned accounts).
+     *
+     * @return The account ID of every user, in the order of the users.
+     */
+    public Map<String, Integer> registerAccounts(Collection<String> userIdentifiers) {
+        Map<String, Integer> accountIds = new LinkedHashMap<>();
+        if (userIdentifiers.isEmpty()) {
+            return accountIds;
+        }
+        List<String> users = new ArrayList<>(userIdentifiers);
+        int firstAccountId = reserveAccountIds(users.size());
+        List<Object[]> entries = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            entries.add(new Object[]{firstAccountId + i, users.get(i), placementOf(users.get(i), getShardCount())});
+        }
+        directory.batchUpdate("INSERT IGNORE INTO account_directory (account_id, user_identifier, shard_id) VALUES (?, ?, ?)", entries);
+
+        // Read back rather than trust the batch, so users that were already registered get their existing entry
+        String placeholders = String.join(", ", Collections.nCopies(users.size(), "?"));
+        Map<String, int[]> placements = new HashMap<>();
+        directory.query("SELECT account_id, user_identifier, shard_id FROM account_directory WHERE user_identifier IN (" + placeholders + ")",
+                rs -> {
+                    placements.put(rs.getString("user_identifier"), new int[]{rs.getInt("account_id"), rs.getInt("shard_id")});
+                }, users.toArray());
+        for (String user : users) {
+            int[] placement = placements.get(user);
+            if (placement == null) {
+                throw new IllegalStateException("Directory entry of " + user + " was not written.");
+            }
+            cache(accountShards, placement[0], placement[1]);
+            cache(userShards, user, placement[1]);
+            accountIds.put(user, placement[0]);
+        }
+        return accountIds;
+    }
+
+    private synchronized int nextAccountId() {
+        if (nextAccountId >= accountIdBlockEnd) {
+            nextAccountId = reserveAccountIds(ACCOUNT_ID_BLOCK_SIZE);
+            accountIdBlockEnd = nextAccountId + ACCOUNT_ID_BLOCK_SIZE;
+        }
+        return nextAccountId++;
+    }
+
+    /**
+     * Reserves a contiguous range of account IDs in the directory's sequence.
+     *
+     * @return The first ID of the range.
+     */
+    private int reserveAccountIds(int count) {
+        Integer first = directoryTransaction.execute(status -> {
+            Long next = directory.queryForObject("SELECT next_id FROM id_sequences WHERE sequence_name = ? FOR UPDATE",
+                    Long.class, ACCOUNT_ID_SEQUENCE);
+            if (next == null || next + count > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The account ID sequence is exhausted.");
+            }
+            directory.update("UPDATE id_sequences SET next_id = ? WHERE sequence_name = ?", next + count, ACCOUNT_ID_SEQUENCE);
+            return next.intValue();
+        });
+        if (first == null) {
+            throw new IllegalStateException("Could not reserve account IDs.");
+        }
+        return first;
+    }
+
+    /**
+     * Points the directory entry of an account to another shard, once its rows have been copied there.
+     */
+    public void reassignAccount(int accountId, String userIdentifier, int shard) {
+        checkShard(shard);
+        directory.update("UPDATE account_directory SET shard_id = ? WHERE account_id = ?", shard, accountId);
+        accountShards.remove(accountId);
+        userShards.remove(userIdentifier);
+    }
+
+    /**
+     * Routes the current thread to the shard of the user's account.
+     *
+     * @return The shard.
+     */
+    public int routeToUser(String userIdentifier) {
+        int shard = shardOfUser(userIdentifier);
+        routeTo(shard);
+        return shard;
+    }
+
+    /**
+     * Routes the current thread to the shard of the account.
+     *
+     * @return The shard.
+     */
+    public int routeToAccount(int accountId) {
+        int shard = shardOfAccount(accountId);
+        routeTo(shard);
+        return shard;
+    }
+
+    /**
+     * Routes the statements of the current thread to a shard.
+     *
+     * @throws IllegalStateException if the current transaction already works on another shard.
+     */
+    public void routeTo(int shard) {
+        checkShard(shard);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Integer pinned = (Integer) TransactionSynchronizationManager.getResource(this);
+            if (pinned == null) {
+                pin(shard);
+            } else if (pinned != shard) {
+                throw new IllegalStateException("The current transaction works on shard " + pinned + " and cannot also use shard " + shard + ".");
+            }
+        }
+        currentShard.set(shard);
+    }
+
+    /**
+     * Drops the route of the current thread, so later unrouted statements go to the home shard again.
+     */
+    public void clearRoute() {
+        currentShard.remove();
+    }
+
+    /**
+     * Lets the routing DataSource send eligible reads to the replicas of the shards.
+     */
+    void attachReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    /**
+     * Resolves the DataSource for a new connection to the shard: a replica inside a replica read, else the primary.
+     */
+    DataSource connectionTarget(int shard) {
+        ReplicaRouter replicas = replicaRouter;
+        DataSource replica = replicas != null ? replicas.replicaFor(shard) : null;
+        return replica != null ? replica : shardDataSources.get(shard);
+    }
+
+    /**
+     * Resolves the shard for a new connection; called by the routing DataSource.
+     */
+    int resolveCurrentShard() {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction) {
+            Integer pinned = (Integer) TransactionSynchronizationManager.getResource(this);
+            if (pinned != null) {
+                return pinned;
+            }
+        }
+        Integer routed = currentShard.get();
+        int shard = routed != null ? routed : HOME_SHARD;
+        if (inTransaction) {
+            pin(shard); // The transaction's connection now belongs to this shard
+        }
+        return shard;
+    }
+
+    private void pin(int shard) {
+        TransactionSynchronizationManager.bindResource(this, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ShardRouter.this);
+            }
+        });
+    }
+
+    /**
+     * Runs a query on every shard in parallel, each on a thread routed to its shard.
+     *
+     * @return The results, indexed by shard.
+     * @throws IllegalStateException if called inside a transaction, which cannot span shards.
+     */
+    public <T> List<T> fanOut(IntFunction<T> query) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cross-shard queries cannot run inside a transaction.");
+        }
+        if (getShardCount() == 1) {
+            return List.of(onShard(HOME_SHARD, query));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(getShardCount());
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, query), fanOutExecutor));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Runs an action on every shard, one shard after the other on the calling thread. Meant for streaming reads,
+     * whose consumers are usually not thread-safe.
+     */
+    public void forEachShard(IntConsumer action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cross-shard queries cannot run inside a transaction.");
+        }
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            int target = shard;
+            onShard(target, s -> {
+                action.accept(s);
+                return null;
+            });
+        }
+    }
+
+    private <T> T onShard(int shard, IntFunction<T> query) {
+        Integer previous = currentShard.get();
+        currentShard.set(shard);
+        try {
+            return query.apply(shard);
+        } finally {
+            if (previous != null) {
+                currentShard.set(previous);
+            } else {
+                currentShard.remove();
+            }
+        }
+    }
+
+    /**
+     * Adds up per-symbol counts returned by {@link #fanOut}.
+     */
+    public static Map<String, Integer> mergeCounts(List<Map<String, Integer>> shardCounts) {
+        if (shardCounts.size() == 1) {
+            return shardCounts.get(0);
+        }
+        Map<String, Integer> merged = new HashMap<>();
+        for (Map<String, Integer> counts : shardCounts) {
+            counts.forEach((symbol, count) -> merged.merge(symbol, count, Integer::sum));
+        }
+        return merged;
+    }
+
+    private void checkShard(int shard) {
+        if (shard < 0 || shard >= getShardCount()) {
+            throw new IllegalArgumentException("Unknown shard " + shard + "; there are " + getShardCount() + " shards.");
+        }
+    }
+
+    @Override
+    public void close() {
+        fanOutExecutor.shutdownNow();
+        for (DataSource dataSource : shardDataSources) {
+            if (dataSource instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) dataSource).close();
+                } catch (Exception e) {
+                    logger.warn("Error closing a shard DataSource: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
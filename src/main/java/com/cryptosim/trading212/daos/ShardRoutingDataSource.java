@@ -0,0 +1,38 @@
+package com.cryptosim.trading212.daos;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource that hands out connections of the shard the current thread is routed to (see {@link ShardRouter}),
+ * or of one of its read replicas inside a replica read (see {@link ReplicaRouter}).
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardRouter shardRouter;
+
+    ShardRoutingDataSource(ShardRouter shardRouter, List<DataSource> shardDataSources) {
+        this.shardRouter = shardRouter;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            targets.put(shard, shardDataSources.get(shard));
+        }
+        setTargetDataSources(targets);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return shardRouter.resolveCurrentShard();
+    }
+
+    @Override
+    protected DataSource determineTargetDataSource() {
+        return shardRouter.connectionTarget(shardRouter.resolveCurrentShard());
+    }
+}
@@ -0,0 +1,188 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.TransactionArchiveDao;
+import com.cryptosim.trading212.models.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * DAO for the transaction archive.
+ * Keeps the archive files in one directory and caches the footer of every file, so a lookup only opens the files
+ * whose account ranges cover the account. The directory is rescanned periodically to pick up files written by
+ * other nodes when it is shared between them.
+ */
+@Repository
+public class TransactionArchiveDaoImpl implements TransactionArchiveDao {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiveDaoImpl.class);
+
+    static final String FILE_SUFFIX = ".ctx";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long RESCAN_INTERVAL_MILLIS = 60_000;
+
+    private final Path directory;
+    private final Map<Path, ColumnarTransactionFile.Footer> footers = new ConcurrentHashMap<>();
+    private volatile long lastScanAt;
+
+    @Autowired
+    public TransactionArchiveDaoImpl(@Value("${persistence.archive.dir:archive}") String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath();
+    }
+
+    /**
+     * Writes to a temporary file and renames it once complete, so readers never see a partial file.
+     */
+    @Override
+    public long writeFile(String fileName, Consumer<Consumer<Transaction>> rows) {
+        Path target = directory.resolve(fileName + FILE_SUFFIX);
+        Path temp = directory.resolve(fileName + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            long written;
+            try (ColumnarTransactionFile.Writer writer = new ColumnarTransactionFile.Writer(temp)) {
+                rows.accept(transaction -> {
+                    try {
+                        writer.append(transaction);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.finish();
+                written = writer.getRows();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            footers.put(target, ColumnarTransactionFile.readFooter(target));
+            logger.info("Wrote {} archived transactions to {}", written, target);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive file " + target, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                logger.warn("Could not remove temporary archive file {}: {}", temp, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteFile(String fileName) {
+        Path target = directory.resolve(fileName + FILE_SUFFIX);
+        footers.remove(target);
+        try {
+            return Files.deleteIfExists(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete archive file " + target, e);
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountId(int accountId) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (Map.Entry<Path, ColumnarTransactionFile.Footer> file : currentFiles().entrySet()) {
+            if (!file.getValue().mayContain(accountId)) {
+                continue;
+            }
+            try {
+                transactions.addAll(ColumnarTransactionFile.readAccount(file.getKey(), file.getValue(), accountId));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive file " + file.getKey(), e);
+            }
+        }
+        transactions.sort(TransactionDaoImpl.NEWEST_FIRST);
+        return transactions;
+    }
+
+    /**
+     * Files whose time range lies outside the period are skipped on their cached footer alone.
+     */
+    @Override
+    public void streamFile(String fileName, int fromAccountId, int toAccountId, LocalDateTime from, LocalDateTime to,
+                           Consumer<Transaction> consumer) {
+        Path target = directory.resolve(fileName + FILE_SUFFIX);
+        try {
+            ColumnarTransactionFile.Footer footer = footers.get(target);
+            if (footer == null) {
+                footer = ColumnarTransactionFile.readFooter(target);
+                footers.put(target, footer);
+            }
+            if (footer.rows == 0
+                    || (from != null && footer.maxTimestampMillis < Timestamp.valueOf(from).getTime())
+                    || (to != null && footer.minTimestampMillis >= Timestamp.valueOf(to).getTime())) {
+                return;
+            }
+            ColumnarTransactionFile.readRange(target, footer, fromAccountId, toAccountId, transaction -> {
+                LocalDateTime timestamp = transaction.getTransactionTimestamp();
+                if ((from == null || !timestamp.isBefore(from)) && (to == null || timestamp.isBefore(to))) {
+                    consumer.accept(transaction);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive file " + target, e);
+        }
+    }
+
+    @Override
+    public LocalDateTime findNewestTimestamp() {
+        long newest = Long.MIN_VALUE;
+        for (ColumnarTransactionFile.Footer footer : currentFiles().values()) {
+            if (footer.rows > 0) {
+                newest = Math.max(newest, footer.maxTimestampMillis);
+            }
+        }
+        return newest != Long.MIN_VALUE ? new Timestamp(newest).toLocalDateTime() : null;
+    }
+
+    private Map<Path, ColumnarTransactionFile.Footer> currentFiles() {
+        if (System.currentTimeMillis() - lastScanAt >= RESCAN_INTERVAL_MILLIS) {
+            rescan();
+        }
+        return footers;
+    }
+
+    private synchronized void rescan() {
+        if (System.currentTimeMillis() - lastScanAt < RESCAN_INTERVAL_MILLIS) {
+            return; // Another thread just scanned
+        }
+        Set<Path> present = new HashSet<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    present.add(file);
+                    if (!footers.containsKey(file)) {
+                        try {
+                            footers.put(file, ColumnarTransactionFile.readFooter(file));
+                        } catch (IOException e) {
+                            logger.warn("Skipping unreadable archive file {}: {}", file, e.getMessage());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Could not list the archive directory {}: {}", directory, e.getMessage());
+                return;
+            }
+        }
+        footers.keySet().retainAll(present);
+        lastScanAt = System.currentTimeMillis();
+    }
+}
@@ -1,5 +1,6 @@
 package com.cryptosim.trading212.daos;
 
+import com.cryptosim.trading212.daos.contracts.TransactionArchiveDao;
 import com.cryptosim.trading212.daos.contracts.TransactionDao;
 import com.cryptosim.trading212.models.Transaction;
 import com.cryptosim.trading212.models.TransactionType;
@@ -15,20 +16,38 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * DAO for managing Transaction entities.
- * Handles database operations for the 'transactions' table.
+ * Handles database operations for the 'transactions' table, whose old monthly partitions are moved to the
+ * archive (see {@link TransactionArchiveDao}). History reads combine both tiers.
  */
 @Repository
 public class TransactionDaoImpl implements TransactionDao {
 
+    // Order of every history read; the ID breaks ties between transactions of the same second
+    static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getTransactionTimestamp)
+            .thenComparingInt(Transaction::getTransactionId).reversed();
+    // Rows fetched per round trip while streaming rows into the archive or an export
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
     private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final TransactionArchiveDao transactionArchiveDao;
 
     @Autowired
-    public TransactionDaoImpl(JdbcTemplate jdbcTemplate) {
+    public TransactionDaoImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, TransactionArchiveDao transactionArchiveDao) {
         this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.transactionArchiveDao = transactionArchiveDao;
     }
 
     private static class TransactionRowMapper implements RowMapper<Transaction> {
@@ -59,6 +78,7 @@ public class TransactionDaoImpl implements TransactionDao {
      */
     @Override
     public Transaction logTransaction(Transaction transaction) {
+        shardRouter.routeToAccount(transaction.getAccountId());
         String sql = "INSERT INTO transactions (account_id, asset_symbol, transaction_type, quantity, " +
                 "price_per_unit, total_transaction_value, transaction_timestamp, realized_profit_loss) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
@@ -103,8 +123,173 @@ public class TransactionDaoImpl implements TransactionDao {
      */
     @Override
     public List<Transaction> findByAccountId(int accountId) {
-        String sql = "SELECT * FROM transactions WHERE account_id = ? ORDER BY transaction_timestamp DESC";
-        return jdbcTemplate.query(sql, new Object[]{accountId}, new TransactionRowMapper());
+        shardRouter.routeToAccount(accountId);
+        String sql = "SELECT * FROM transactions WHERE account_id = ? ORDER BY transaction_timestamp DESC, transaction_id DESC";
+        List<Transaction> transactions = jdbcTemplate.query(sql, new Object[]{accountId}, new TransactionRowMapper());
+        if (transactionArchiveDao.findNewestTimestamp() == null) {
+            return transactions;
+        }
+        return merge(transactions, transactionArchiveDao.findByAccountId(accountId), null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds one page of an account's transactions. The table is read through the (account_id, transaction_timestamp,
+     * transaction_id) index, so a page costs the same however long the history is. The archive is only consulted
+     * when the page is not filled from the table or reaches back to archived time.
+     *
+     * @return A list of Transaction objects, newest first.
+     */
+    @Override
+    public List<Transaction> findPageByAccountId(int accountId, LocalDateTime beforeTimestamp, Integer beforeTransactionId, int limit) {
+        shardRouter.routeToAccount(accountId);
+        List<Transaction> page;
+        if (beforeTimestamp == null || beforeTransactionId == null) {
+            String sql = "SELECT * FROM transactions WHERE account_id = ? " +
+                    "ORDER BY transaction_timestamp DESC, transaction_id DESC LIMIT ?";
+            page = jdbcTemplate.query(sql, new Object[]{accountId, limit}, new TransactionRowMapper());
+        } else {
+            // Spelled out instead of a row comparison, which MySQL cannot always turn into an index range
+            String sql = "SELECT * FROM transactions WHERE account_id = ? " +
+                    "AND (transaction_timestamp < ? OR (transaction_timestamp = ? AND transaction_id < ?)) " +
+                    "ORDER BY transaction_timestamp DESC, transaction_id DESC LIMIT ?";
+            Timestamp before = Timestamp.valueOf(beforeTimestamp);
+            page = jdbcTemplate.query(sql, new Object[]{accountId, before, before, beforeTransactionId, limit}, new TransactionRowMapper());
+        }
+
+        LocalDateTime newestArchived = transactionArchiveDao.findNewestTimestamp();
+        boolean pageFull = page.size() == limit;
+        if (newestArchived == null || (pageFull && page.get(page.size() - 1).getTransactionTimestamp().isAfter(newestArchived))) {
+            return page;
+        }
+        return merge(page, transactionArchiveDao.findByAccountId(accountId), beforeTimestamp, beforeTransactionId, limit);
+    }
+
+    /**
+     * Merges table and archive rows newest first, keeping the rows after the cursor. A transaction present in both
+     * (its partition was archived but not yet dropped) is returned once.
+     */
+    private static List<Transaction> merge(List<Transaction> table, List<Transaction> archived,
+                                           LocalDateTime beforeTimestamp, Integer beforeTransactionId, int limit) {
+        List<Transaction> merged = new ArrayList<>(table.size() + archived.size());
+        merged.addAll(table);
+        for (Transaction transaction : archived) {
+            if (beforeTimestamp == null || beforeTransactionId == null
+                    || transaction.getTransactionTimestamp().isBefore(beforeTimestamp)
+                    || (transaction.getTransactionTimestamp().isEqual(beforeTimestamp) && transaction.getTransactionId() < beforeTransactionId)) {
+                merged.add(transaction);
+            }
+        }
+        merged.sort(NEWEST_FIRST);
+        List<Transaction> result = new ArrayList<>(Math.min(merged.size(), limit));
+        for (Transaction transaction : merged) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (result.isEmpty() || result.get(result.size() - 1).getTransactionId() != transaction.getTransactionId()) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the most recent transactions of the account owned by the given user.
+     * Served by the (account_id, transaction_timestamp) index, so only the returned rows are read.
+     *
+     * @param userIdentifier The unique identifier of the user.
+     * @param limit          The maximum number of transactions to return.
+     * @return A list of Transaction objects, newest first.
+     */
+    @Override
+    public List<Transaction> findRecentByUserIdentifier(String userIdentifier, int limit) {
+        shardRouter.routeToUser(userIdentifier);
+        String sql = "SELECT t.* FROM transactions t JOIN accounts a ON a.account_id = t.account_id " +
+                "WHERE a.user_identifier = ? ORDER BY t.transaction_timestamp DESC, t.transaction_id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, new Object[]{userIdentifier, limit}, new TransactionRowMapper());
     }
-}
 
+    /**
+     * Finds transactions of an account by their IDs.
+     *
+     * @param accountId      The ID of the account owning the transactions.
+     * @param transactionIds The IDs of the transactions.
+     * @return A list of Transaction objects, newest first.
+     */
+    @Override
+    public List<Transaction> findByIds(int accountId, Collection<Integer> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        shardRouter.routeToAccount(accountId);
+        String placeholders = transactionIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+        String sql = "SELECT * FROM transactions WHERE account_id = ? AND transaction_id IN (" + placeholders + ") " +
+                "ORDER BY transaction_timestamp DESC, transaction_id DESC";
+        List<Object> args = new ArrayList<>(transactionIds.size() + 1);
+        args.add(accountId);
+        args.addAll(transactionIds);
+        return jdbcTemplate.query(sql, args.toArray(), new TransactionRowMapper());
+    }
+
+    /**
+     * Streams an account ID range through a row callback, served by the account index.
+     * Listing the partitions keeps archived ones that could not be dropped yet out of the result.
+     */
+    @Override
+    public void streamRange(int fromAccountId, int toAccountId, LocalDateTime from, LocalDateTime to, List<String> partitions,
+                            Consumer<Transaction> consumer) {
+        if (partitions != null && partitions.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM transactions");
+        if (partitions != null) {
+            List<String> checked = new ArrayList<>(partitions.size());
+            for (String partition : partitions) {
+                checked.add(TransactionPartitionDaoImpl.checkedName(partition));
+            }
+            sql.append(" PARTITION (").append(String.join(", ", checked)).append(')');
+        }
+        sql.append(" WHERE account_id BETWEEN ? AND ?");
+        List<Object> args = new ArrayList<>(List.of(fromAccountId, toAccountId));
+        if (from != null) {
+            sql.append(" AND transaction_timestamp >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND transaction_timestamp < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        // The order of idx_account_timestamp, so the cursor needs no sort
+        sql.append(" ORDER BY account_id, transaction_timestamp DESC, transaction_id DESC");
+        TransactionRowMapper rowMapper = new TransactionRowMapper();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, rs.getRow()));
+        });
+    }
+
+    /**
+     * Streams a partition through a row callback, served by the account index within the partition.
+     *
+     * @param partitionName The name of the partition.
+     * @param consumer      Callback invoked once per transaction.
+     */
+    @Override
+    public void streamPartition(String partitionName, Consumer<Transaction> consumer) {
+        String sql = "SELECT * FROM transactions PARTITION (" + TransactionPartitionDaoImpl.checkedName(partitionName) + ") " +
+                "ORDER BY account_id, transaction_timestamp DESC, transaction_id DESC";
+        TransactionRowMapper rowMapper = new TransactionRowMapper();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, rs.getRow()));
+        });
+    }
+}
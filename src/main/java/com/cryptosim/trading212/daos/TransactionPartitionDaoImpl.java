@@ -0,0 +1,111 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.TransactionPartitionDao;
+import com.cryptosim.trading212.models.TransactionArchive;
+import com.cryptosim.trading212.models.TransactionPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * DAO for managing the partitions of the 'transactions' table and the 'transaction_archives' table.
+ * Partitions are ranges of UNIX_TIMESTAMP(transaction_timestamp); month boundaries are midnight in the session
+ * time zone of the database, the zone transaction timestamps are written in.
+ */
+@Repository
+public class TransactionPartitionDaoImpl implements TransactionPartitionDao {
+
+    static final String CATCH_ALL_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    // Partition names end up in DDL, so only names of the expected shape are accepted
+    private static final Pattern PARTITION_NAME = Pattern.compile("p\\d{6}|" + CATCH_ALL_PARTITION);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TransactionPartitionDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static String partitionName(YearMonth month) {
+        return month.format(PARTITION_MONTH);
+    }
+
+    static String checkedName(String partitionName) {
+        if (!PARTITION_NAME.matcher(partitionName).matches()) {
+            throw new IllegalArgumentException("Not a transactions partition: " + partitionName);
+        }
+        return partitionName;
+    }
+
+    @Override
+    public List<TransactionPartition> findPartitions() {
+        String sql = "SELECT PARTITION_NAME, TABLE_ROWS FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            String name = rs.getString("PARTITION_NAME");
+            YearMonth month = CATCH_ALL_PARTITION.equals(name) ? null : YearMonth.parse(name, PARTITION_MONTH);
+            return new TransactionPartition(name, month, rs.getLong("TABLE_ROWS"));
+        });
+    }
+
+    /**
+     * Reorganizing the catch-all partition only copies its rows, which is cheap while months are added ahead of time.
+     */
+    @Override
+    public void addPartition(YearMonth month) {
+        String boundary = month.plusMonths(1).atDay(1) + " 00:00:00";
+        jdbcTemplate.execute("ALTER TABLE transactions REORGANIZE PARTITION " + CATCH_ALL_PARTITION + " INTO (" +
+                "PARTITION " + partitionName(month) + " VALUES LESS THAN (UNIX_TIMESTAMP('" + boundary + "')), " +
+                "PARTITION " + CATCH_ALL_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    @Override
+    public long countRows(String partitionName) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions PARTITION (" + checkedName(partitionName) + ")", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public void dropPartition(String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE transactions DROP PARTITION " + checkedName(partitionName));
+    }
+
+    @Override
+    public void recordArchive(String partitionName, LocalDateTime periodEnd, String fileName, long rows) {
+        String sql = "INSERT INTO transaction_archives (partition_name, period_end, file_name, row_count) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE period_end = VALUES(period_end), file_name = VALUES(file_name), " +
+                "row_count = VALUES(row_count), archived_at = CURRENT_TIMESTAMP";
+        jdbcTemplate.update(sql, partitionName, Timestamp.valueOf(periodEnd), fileName, rows);
+    }
+
+    @Override
+    public LocalDateTime findArchiveCutoff() {
+        Timestamp cutoff = jdbcTemplate.queryForObject("SELECT MAX(period_end) FROM transaction_archives", Timestamp.class);
+        return cutoff != null ? cutoff.toLocalDateTime() : null;
+    }
+
+    @Override
+    public List<TransactionArchive> findArchives() {
+        return jdbcTemplate.query("SELECT * FROM transaction_archives ORDER BY period_end", (rs, rowNum) -> {
+            TransactionArchive archive = new TransactionArchive();
+            archive.setPartitionName(rs.getString("partition_name"));
+            archive.setPeriodEnd(rs.getTimestamp("period_end").toLocalDateTime());
+            archive.setFileName(rs.getString("file_name"));
+            archive.setRowCount(rs.getLong("row_count"));
+            Timestamp archivedAt = rs.getTimestamp("archived_at");
+            if (archivedAt != null) {
+                archive.setArchivedAt(archivedAt.toLocalDateTime());
+            }
+            return archive;
+        });
+    }
+}
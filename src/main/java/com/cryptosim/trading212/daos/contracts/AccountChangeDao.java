@@ -0,0 +1,93 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.AccountChange;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface for Account Change Data Access Object.
+ * Defines the contract for the per-account change log stored in 'account_changes'
+ * and the version counter kept on the 'accounts' row.
+ */
+public interface AccountChangeDao {
+
+    /**
+     * Allocates the next version of the account and logs the given changes under it.
+     * Must run in the transaction of the mutation being logged: the version is taken with a row lock
+     * on the account that is held until commit, so versions of one account become visible in order.
+     *
+     * @param accountId The ID of the account.
+     * @param changes   The changes to log; their accountId and version are set by this method. May be empty for a
+     *                  change that only needs a new version, e.g. of a setting on the account row.
+     * @return The version the changes were logged under.
+     */
+    long recordChanges(int accountId, List<AccountChange> changes);
+
+    /**
+     * Allocates the next version of every account in an ID range and logs a PORTFOLIO_RESET under it, on the
+     * shard the current thread is routed to. Must run in the transaction of the reset, like {@link #recordChanges}.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return The number of accounts logged.
+     */
+    int recordResets(int fromAccountId, int toAccountId);
+
+    /**
+     * Returns the latest version of the account.
+     *
+     * @param accountId The ID of the account.
+     * @return The current version; 0 if the account has never changed since the log was introduced.
+     */
+    long getCurrentVersion(int accountId);
+
+    /**
+     * Returns the latest version of the user's account.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @return The current version; 0 if the account has never changed or does not exist.
+     */
+    long getCurrentVersionByUserIdentifier(String userIdentifier);
+
+    /**
+     * Returns the latest version of every account in an ID range, on the shard the current thread is routed to.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return A map of account ID to current version.
+     */
+    Map<Integer, Long> findCurrentVersions(int fromAccountId, int toAccountId);
+
+    /**
+     * Returns the latest version of the account and locks the account row until the end of the transaction, so
+     * no other mutation of the account can commit in between. Must run in a transaction.
+     *
+     * @param accountId The ID of the account.
+     * @return The current version.
+     * @throws IllegalStateException if the account does not exist.
+     */
+    long lockCurrentVersion(int accountId);
+
+    /**
+     * Finds, for every account in an ID range that was reset, the first transaction logged after its last
+     * PORTFOLIO_RESET, on the shard the current thread is routed to. Transactions of an account are numbered in
+     * the order they were executed, so the account's transactions from this ID on make up its state since the reset.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return A map of account ID to transaction ID, or to {@link Integer#MAX_VALUE} if the account has not traded
+     * since its last reset. Accounts that were never reset are absent.
+     */
+    Map<Integer, Integer> findFirstTransactionsAfterLastReset(int fromAccountId, int toAccountId);
+
+    /**
+     * Finds the changes of an account in a version range, oldest first.
+     *
+     * @param accountId    The ID of the account.
+     * @param afterVersion Exclusive lower bound.
+     * @param upToVersion  Inclusive upper bound.
+     * @return A list of AccountChange objects. Returns an empty list if there are none.
+     */
+    List<AccountChange> findChanges(int accountId, long afterVersion, long upToVersion);
+}
@@ -1,7 +1,10 @@
 package com.cryptosim.trading212.daos.contracts;
 
 import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.CostBasisMethod;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -46,6 +49,26 @@ public interface AccountDao {
      */
     Account createAccount(String userIdentifier, BigDecimal initialBalance);
 
+    /**
+     * Creates many accounts with one batch on the shard the current thread is routed to.
+     * Accounts that already exist are left unchanged, so a failed batch can simply be repeated.
+     *
+     * @param accountIds     The account ID of every user, allocated by {@code ShardRouter.registerAccounts}.
+     * @param initialBalance The initial balance of every account. This will also be set as the current balance.
+     * @return The number of accounts created.
+     */
+    int createAccounts(Map<String, Integer> accountIds, BigDecimal initialBalance);
+
+    /**
+     * Sets the balance of every account in an ID range back to its initial balance, on the shard the current
+     * thread is routed to.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return The number of accounts reset.
+     */
+    int resetBalances(int fromAccountId, int toAccountId);
+
     /**
      * Retrieves an account by its primary key ID.
      *
@@ -53,4 +76,30 @@ public interface AccountDao {
      * @return An Optional containing the Account if found, otherwise empty.
      */
     Optional<Account> findById(int accountId);
+
+    /**
+     * Returns the highest account ID in use on the shard the current thread is routed to,
+     * e.g. to split batch jobs into account ID ranges.
+     *
+     * @return The highest account ID, or 0 if there are no accounts.
+     */
+    int findMaxAccountId();
+
+    /**
+     * Retrieves the accounts of an ID range on the shard the current thread is routed to.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return A list of Account objects ordered by account ID. Returns an empty list if there are none.
+     */
+    List<Account> findByAccountRange(int fromAccountId, int toAccountId);
+
+    /**
+     * Updates the cost-basis method of an account.
+     *
+     * @param accountId       The ID of the account.
+     * @param costBasisMethod The method used for realized P&L of future sells.
+     * @return true if the update was successful, false otherwise.
+     */
+    boolean updateCostBasisMethod(int accountId, CostBasisMethod costBasisMethod);
 }
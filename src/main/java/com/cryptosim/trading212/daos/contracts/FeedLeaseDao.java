@@ -0,0 +1,44 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.FeedLease;
+
+import java.util.Optional;
+
+/**
+ * Interface for Feed Lease Data Access Object.
+ * Defines the contract for the 'feed_leases' table, which elects one node of a cluster for a singleton role.
+ * All expiry times are evaluated against the database clock, so the nodes' clocks do not need to agree.
+ */
+public interface FeedLeaseDao {
+
+    /**
+     * Takes the lease if nobody holds it, it has expired, or the caller already holds it.
+     * Every successful acquisition increments the epoch.
+     *
+     * @param leaseName Name of the lease.
+     * @param holder    Node ID of the caller.
+     * @param endpoint  Where the caller serves the role, for the other nodes.
+     * @param ttlMillis How long the lease stays valid without a renewal.
+     * @return The acquired lease, or empty if another node holds it.
+     */
+    Optional<FeedLease> tryAcquire(String leaseName, String holder, String endpoint, long ttlMillis);
+
+    /**
+     * Extends a lease the caller holds, keeping its epoch.
+     *
+     * @return true if the caller still held the lease of this epoch, false if it changed hands.
+     */
+    boolean renew(String leaseName, String holder, long epoch, long ttlMillis);
+
+    /**
+     * Lets a lease the caller holds expire immediately, so another node can take over without waiting.
+     */
+    void release(String leaseName, String holder, long epoch);
+
+    /**
+     * Finds a lease by its name.
+     *
+     * @return An Optional containing the lease if it was ever acquired, otherwise empty.
+     */
+    Optional<FeedLease> findLease(String leaseName);
+}
@@ -0,0 +1,52 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.LedgerDiscrepancy;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Interface for the Ledger Reconciliation Data Access Object.
+ * Defines the contract for database operations related to the 'ledger_checkpoints' and 'ledger_discrepancies'
+ * tables. All methods run on the shard the current thread is routed to.
+ */
+public interface LedgerReconciliationDao {
+
+    /**
+     * Lists the account ID ranges a run has finished on the routed shard.
+     *
+     * @param runId The ID of the run.
+     * @return The first account ID of every finished range; empty if the run is unknown.
+     */
+    Set<Integer> findCheckpoints(String runId);
+
+    /**
+     * Records that a run has finished an account ID range. Recording it again replaces the earlier entry.
+     *
+     * @param runId           The ID of the run.
+     * @param fromAccountId   First account ID of the range (inclusive).
+     * @param toAccountId     Last account ID of the range (inclusive).
+     * @param accounts        The number of accounts checked.
+     * @param transactions    The number of transactions replayed.
+     * @param discrepancies   The number of discrepancies found, repaired or not.
+     * @param changedAccounts The number of accounts skipped because they changed while being checked.
+     */
+    void recordCheckpoint(String runId, int fromAccountId, int toAccountId, int accounts, long transactions,
+                          int discrepancies, int changedAccounts);
+
+    /**
+     * Records discrepancies of a run. A discrepancy recorded again replaces the earlier entry.
+     *
+     * @param discrepancies The discrepancies; their runId must be set.
+     */
+    void recordDiscrepancies(List<LedgerDiscrepancy> discrepancies);
+
+    /**
+     * Finds the discrepancies of a run on the routed shard.
+     *
+     * @param runId The ID of the run.
+     * @param limit The maximum number of discrepancies to return.
+     * @return A list of LedgerDiscrepancy objects ordered by account ID. Returns an empty list if there are none.
+     */
+    List<LedgerDiscrepancy> findDiscrepancies(String runId, int limit);
+}
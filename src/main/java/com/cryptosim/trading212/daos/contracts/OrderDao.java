@@ -0,0 +1,86 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.Order;
+import com.cryptosim.trading212.models.OrderStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Interface for Order Data Access Object.
+ * Defines the contract for database operations related to the 'orders' table.
+ * Methods keyed only by an order ID run on the shard the current thread is routed to (see ShardRouter),
+ * so callers route to the owning account first.
+ */
+public interface OrderDao {
+
+    /**
+     * Persists a new resting order.
+     *
+     * @param order The Order object to create. The accountId, assetSymbol, side, orderType,
+     * quantity and triggerPrice should be set in this object.
+     * @return The created Order object, including its generated ID.
+     * @throws RuntimeException if the order creation fails (e.g., no ID obtained).
+     */
+    Order createOrder(Order order);
+
+    /**
+     * Finds an order by its ID, including the user identifier of the owning account.
+     *
+     * @param orderId The ID of the order.
+     * @return An Optional containing the Order if found, otherwise empty.
+     */
+    Optional<Order> findById(int orderId);
+
+    /**
+     * Finds all orders for a given account ID, newest first.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of Order objects. Returns an empty list if no orders are found.
+     */
+    List<Order> findByAccountId(int accountId);
+
+    /**
+     * Streams every OPEN order to the given consumer without materializing the full result in memory.
+     * Used to rebuild the in-memory order book on startup.
+     *
+     * @param consumer Callback invoked once per open order.
+     */
+    void streamOpenOrders(Consumer<Order> consumer);
+
+    /**
+     * Finds the orders of every shard that were claimed for execution (TRIGGERED) but whose run never committed.
+     *
+     * @return A list of Order objects; usually empty.
+     */
+    List<Order> findTriggeredOrders();
+
+    /**
+     * Atomically moves an order from one status to another.
+     *
+     * @param orderId      The ID of the order.
+     * @param expected     The status the order must currently have.
+     * @param newStatus    The status to set.
+     * @param statusReason Optional reason for the change (may be null).
+     * @return true if the order had the expected status and was updated, false otherwise.
+     */
+    boolean updateStatus(int orderId, OrderStatus expected, OrderStatus newStatus, String statusReason);
+
+    /**
+     * Marks a triggered order as filled and links it to the resulting transaction.
+     *
+     * @param orderId       The ID of the order.
+     * @param transactionId The ID of the transaction created for the fill.
+     * @return true if the update was successful, false otherwise.
+     */
+    boolean markFilled(int orderId, int transactionId);
+
+    /**
+     * Counts the OPEN orders per asset symbol.
+     *
+     * @return A map of asset symbol to number of open orders; symbols without open orders are absent.
+     */
+    Map<String, Integer> countOpenBySymbol();
+}
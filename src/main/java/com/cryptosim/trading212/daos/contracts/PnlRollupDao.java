@@ -0,0 +1,47 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.PnlGrouping;
+import com.cryptosim.trading212.models.PnlSummary;
+import com.cryptosim.trading212.models.Transaction;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interface for P&L Rollup Data Access Object.
+ * Defines the contract for the daily rollup tables 'pnl_daily_symbol' (account x symbol x day)
+ * and 'pnl_daily' (account x day).
+ */
+public interface PnlRollupDao {
+
+    /**
+     * Adds a logged transaction to the rollup rows of its account, symbol and day.
+     * Should run in the same database transaction that logged the trade.
+     *
+     * @param transaction The logged transaction.
+     */
+    void applyTrade(Transaction transaction);
+
+    /**
+     * Sums the rollup rows of an account over an inclusive date range.
+     *
+     * @param accountId The ID of the account.
+     * @param from      First day of the range.
+     * @param to        Last day of the range.
+     * @param grouping  How to group the result.
+     * @return A list of PnlSummary objects; a single zero row for TOTAL if there was no activity.
+     */
+    List<PnlSummary> summarize(int accountId, LocalDate from, LocalDate to, PnlGrouping grouping);
+
+    /**
+     * Rebuilds the rollup rows of an account ID range from the transactions table, on the shard the current
+     * thread is routed to.
+     * Existing rollup rows of the range are replaced, so the rebuild is idempotent. Rollups of days whose
+     * transactions were moved to the archive are kept as they are.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return The number of account x symbol x day rows written.
+     */
+    int rebuildAccountRange(int fromAccountId, int toAccountId);
+}
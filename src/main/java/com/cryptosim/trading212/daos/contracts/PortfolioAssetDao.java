@@ -2,12 +2,15 @@ package com.cryptosim.trading212.daos.contracts;
 
 import com.cryptosim.trading212.models.PortfolioAsset;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Interface for PortfolioAsset Data Access Object.
  * Defines the contract for database operations related to the 'portfolio_assets' table.
+ * Methods keyed only by an asset ID run on the shard of the account the caller last worked on (see ShardRouter).
  */
 public interface PortfolioAssetDao {
 
@@ -19,6 +22,15 @@ public interface PortfolioAssetDao {
      */
     List<PortfolioAsset> findByAccountId(int accountId);
 
+    /**
+     * Finds all portfolio assets of the account owned by the given user, resolving the account
+     * in the same statement so it can run without a prior account lookup.
+     *
+     * @param userIdentifier The unique identifier of the user.
+     * @return A list of PortfolioAsset objects. Returns an empty list if the user has no assets or does not exist.
+     */
+    List<PortfolioAsset> findByUserIdentifier(String userIdentifier);
+
     /**
      * Finds a specific portfolio asset by account ID and asset symbol.
      *
@@ -28,6 +40,15 @@ public interface PortfolioAssetDao {
      */
     Optional<PortfolioAsset> findByAccountIdAndAssetSymbol(int accountId, String assetSymbol);
 
+    /**
+     * Finds the portfolio assets of an account for the given symbols. Symbols without a position are omitted.
+     *
+     * @param accountId    The ID of the account.
+     * @param assetSymbols The symbols to look up.
+     * @return A list of PortfolioAsset objects. Returns an empty list if none are found.
+     */
+    List<PortfolioAsset> findByAccountIdAndAssetSymbols(int accountId, Collection<String> assetSymbols);
+
     /**
      * Adds a new asset to an account's portfolio.
      *
@@ -64,4 +85,30 @@ public interface PortfolioAssetDao {
      * @return The number of assets (rows) deleted.
      */
     int deleteAllAssetsByAccountId(int accountId);
+
+    /**
+     * Deletes all assets of the accounts in an ID range, on the shard the current thread is routed to.
+     * This is used for resetting all accounts at the end of a competition season.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return The number of assets (rows) deleted.
+     */
+    int deleteAssetsByAccountRange(int fromAccountId, int toAccountId);
+
+    /**
+     * Retrieves all assets of the accounts in an ID range, on the shard the current thread is routed to.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return A list of PortfolioAsset objects ordered by account ID and asset symbol.
+     */
+    List<PortfolioAsset> findByAccountRange(int fromAccountId, int toAccountId);
+
+    /**
+     * Counts the accounts holding each asset, e.g. to keep the feed subscribed to every held symbol.
+     *
+     * @return A map of asset symbol to number of holders; symbols nobody holds are absent.
+     */
+    Map<String, Integer> countHoldersBySymbol();
 }
@@ -0,0 +1,102 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.LotMatch;
+import com.cryptosim.trading212.models.PositionLot;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface for Position Lot Data Access Object.
+ * Defines the contract for database operations related to the 'position_lots' and 'lot_matches' tables.
+ * Methods keyed only by lot or transaction IDs run on the shard of the account the caller last worked on (see ShardRouter).
+ */
+public interface PositionLotDao {
+
+    /**
+     * Persists a new open lot.
+     *
+     * @param lot The PositionLot to create. Its remaining quantity should equal the original quantity.
+     * @return The created PositionLot, including its generated ID.
+     * @throws RuntimeException if the lot creation fails (e.g., no ID obtained).
+     */
+    PositionLot createLot(PositionLot lot);
+
+    /**
+     * Loads one page of the open lots of a position, locking them for the current transaction.
+     *
+     * @param accountId   The ID of the account.
+     * @param assetSymbol The symbol of the position.
+     * @param oldestFirst true to page in ascending lot order (FIFO), false for descending (LIFO).
+     * @param afterLotId  Only lots after this ID in paging order are returned (exclusive keyset).
+     * @param limit       The maximum number of lots to return.
+     * @return A list of PositionLot objects in paging order.
+     */
+    List<PositionLot> findOpenLotsPage(int accountId, String assetSymbol, boolean oldestFirst, long afterLotId, int limit);
+
+    /**
+     * Sums the remaining quantity of the open lots of a position, each truncated to eight decimals like a matched lot.
+     *
+     * @param accountId   The ID of the account.
+     * @param assetSymbol The symbol of the position.
+     * @return The total open quantity; zero if the position has no lots.
+     */
+    BigDecimal sumOpenQuantity(int accountId, String assetSymbol);
+
+    /**
+     * Finds all open lots of an account, oldest first.
+     *
+     * @param accountId   The ID of the account.
+     * @param assetSymbol Optional symbol to restrict the result to one position (may be null).
+     * @return A list of PositionLot objects. Returns an empty list if none are found.
+     */
+    List<PositionLot> findOpenLots(int accountId, String assetSymbol);
+
+    /**
+     * Reduces the remaining quantity of a partially sold lot.
+     *
+     * @return true if the update was successful, false otherwise.
+     */
+    boolean updateRemainingQuantity(long lotId, BigDecimal remainingQuantity);
+
+    /**
+     * Deletes fully sold lots; their details are preserved in 'lot_matches'.
+     *
+     * @param lotIds The IDs of the lots to delete.
+     * @return The number of lots deleted.
+     */
+    int deleteLots(Collection<Long> lotIds);
+
+    /**
+     * Deletes all open lots of an account, e.g. on account reset.
+     *
+     * @return The number of lots deleted.
+     */
+    int deleteByAccountId(int accountId);
+
+    /**
+     * Deletes all open lots of the accounts in an ID range, on the shard the current thread is routed to.
+     *
+     * @return The number of lots deleted.
+     */
+    int deleteByAccountRange(int fromAccountId, int toAccountId);
+
+    /**
+     * Persists the lot matches of a sell.
+     *
+     * @param accountId         The ID of the account owning the transaction.
+     * @param sellTransactionId The ID of the SELL transaction.
+     * @param matches           The matches; their sellTransactionId is set by this method.
+     */
+    void recordMatches(int accountId, int sellTransactionId, List<LotMatch> matches);
+
+    /**
+     * Finds the lot matches of a sell transaction of the given account.
+     *
+     * @param accountId         The ID of the account owning the transaction.
+     * @param sellTransactionId The ID of the SELL transaction.
+     * @return A list of LotMatch objects in matching order. Returns an empty list if none are found.
+     */
+    List<LotMatch> findMatches(int accountId, int sellTransactionId);
+}
@@ -0,0 +1,115 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.RecurringPlan;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Interface for RecurringPlan Data Access Object.
+ * Defines the contract for database operations related to the 'recurring_plans'
+ * and 'recurring_plan_runs' tables.
+ * Methods keyed only by a plan ID run on the shard the current thread is routed to (see ShardRouter),
+ * except {@link #findByIds}, which looks on every shard.
+ */
+public interface RecurringPlanDao {
+
+    /**
+     * Persists a new active recurring plan.
+     *
+     * @param plan The RecurringPlan object to create. The accountId, assetSymbol, fiatAmount,
+     * intervalSeconds and nextRunAt should be set in this object.
+     * @return The created RecurringPlan object, including its generated ID.
+     * @throws RuntimeException if the plan creation fails (e.g., no ID obtained).
+     */
+    RecurringPlan createPlan(RecurringPlan plan);
+
+    /**
+     * Finds a plan by its ID, including the user identifier of the owning account.
+     *
+     * @param planId The ID of the plan.
+     * @return An Optional containing the RecurringPlan if found, otherwise empty.
+     */
+    Optional<RecurringPlan> findById(int planId);
+
+    /**
+     * Loads a batch of plans with one query, including the user identifier of each owning account.
+     *
+     * @param planIds The IDs of the plans to load.
+     * @return The plans that exist, in no particular order.
+     */
+    List<RecurringPlan> findByIds(Collection<Integer> planIds);
+
+    /**
+     * Finds all plans for a given account ID.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of RecurringPlan objects. Returns an empty list if no plans are found.
+     */
+    List<RecurringPlan> findByAccountId(int accountId);
+
+    /**
+     * Streams every active plan to the given consumer without materializing the full result in memory.
+     *
+     * @param consumer Callback invoked once per active plan.
+     */
+    void streamActivePlans(Consumer<RecurringPlan> consumer);
+
+    /**
+     * Deactivates a plan so that it is never scheduled again.
+     *
+     * @param planId The ID of the plan.
+     * @return true if the plan was active and has been deactivated, false otherwise.
+     */
+    boolean deactivate(int planId);
+
+    /**
+     * Moves a plan's next run forward, but only if it still points at the expected slot.
+     *
+     * @param planId            The ID of the plan.
+     * @param expectedNextRunAt The slot that was just handled.
+     * @param newNextRunAt      The next slot.
+     * @return true if the plan was advanced, false if another run already advanced it.
+     */
+    boolean advanceNextRun(int planId, LocalDateTime expectedNextRunAt, LocalDateTime newNextRunAt);
+
+    /**
+     * Claims a slot for execution by inserting its run row. The (plan, slot) pair is unique,
+     * so a slot that was already executed (e.g. before a crash) cannot be claimed again.
+     *
+     * @param planId       The ID of the plan.
+     * @param scheduledFor The slot to claim.
+     * @return true if the slot was claimed, false if it had already been run.
+     */
+    boolean claimRun(int planId, LocalDateTime scheduledFor);
+
+    /**
+     * Links a claimed run to the transaction it created.
+     *
+     * @param planId        The ID of the plan.
+     * @param scheduledFor  The slot that was run.
+     * @param transactionId The transaction created by the run.
+     */
+    void completeRun(int planId, LocalDateTime scheduledFor, int transactionId);
+
+    /**
+     * Records a run whose purchase failed (e.g. insufficient funds).
+     *
+     * @param planId       The ID of the plan.
+     * @param scheduledFor The slot that was run.
+     * @param message      Failure reason.
+     * @return true if the run was recorded, false if this slot had already been recorded.
+     */
+    boolean recordFailedRun(int planId, LocalDateTime scheduledFor, String message);
+
+    /**
+     * Counts the active plans per asset symbol.
+     *
+     * @return A map of asset symbol to number of active plans; symbols without active plans are absent.
+     */
+    Map<String, Integer> countActiveBySymbol();
+}
@@ -0,0 +1,62 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.SeasonStanding;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface for the Season Standing Data Access Object.
+ * Defines the contract for database operations related to the 'season_prices' and 'season_standings' tables.
+ * All methods run on the shard the current thread is routed to.
+ */
+public interface SeasonStandingDao {
+
+    /**
+     * Finds the closing prices of a season.
+     *
+     * @param seasonName The name of the season.
+     * @return The price of every symbol, keyed by asset symbol; empty if the season has no prices on the routed shard.
+     */
+    Map<String, BigDecimal> findPrices(String seasonName);
+
+    /**
+     * Records the closing prices of a season. Symbols that already have a price keep it.
+     *
+     * @param seasonName The name of the season.
+     * @param prices     The price of every symbol, keyed by asset symbol.
+     */
+    void recordPrices(String seasonName, Map<String, BigDecimal> prices);
+
+    /**
+     * Finds the parts of an account ID range whose accounts have no standings of a season yet.
+     *
+     * @param seasonName    The name of the season.
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return The ranges as {first, last} account ID pairs in ascending order, split around the accounts that
+     * already have standings; empty if every account of the range has standings.
+     */
+    List<int[]> findPendingRanges(String seasonName, int fromAccountId, int toAccountId);
+
+    /**
+     * Records the standings of every account in an ID range, valuing positions at the season's closing prices.
+     * Should run in the transaction that resets the accounts, so the standings are exactly the reset state.
+     *
+     * @param seasonName    The name of the season.
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @return The number of standings recorded.
+     */
+    int snapshotStandings(String seasonName, int fromAccountId, int toAccountId);
+
+    /**
+     * Finds the best standings of a season by total value.
+     *
+     * @param seasonName The name of the season.
+     * @param limit      The maximum number of standings to return.
+     * @return A list of SeasonStanding objects, best first. Returns an empty list if the season is unknown.
+     */
+    List<SeasonStanding> findTopStandings(String seasonName, int limit);
+}
@@ -0,0 +1,63 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Interface for the Transaction Archive Data Access Object.
+ * Defines the contract for the cold tier of the transaction history: compressed columnar files on local disk that
+ * hold the transactions of monthly partitions dropped from the 'transactions' table.
+ */
+public interface TransactionArchiveDao {
+
+    /**
+     * Writes an archive file, replacing a file of the same name. The file only becomes visible to readers once it
+     * is complete and on disk.
+     *
+     * @param fileName The name of the file within the archive directory.
+     * @param rows     Called once with the sink to pass every row to; rows must come ordered by account ID.
+     * @return The number of rows written.
+     * @throws IllegalArgumentException if the rows are not ordered by account ID.
+     */
+    long writeFile(String fileName, Consumer<Consumer<Transaction>> rows);
+
+    /**
+     * Deletes an archive file.
+     *
+     * @return true if the file existed.
+     */
+    boolean deleteFile(String fileName);
+
+    /**
+     * Finds all archived transactions of an account, ordered by transaction_timestamp descending.
+     * Searches the files of every shard, so the history stays complete after an account moved to another shard.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of Transaction objects. Returns an empty list if the account has no archived transactions.
+     */
+    List<Transaction> findByAccountId(int accountId);
+
+    /**
+     * Streams the transactions of an account ID range in one archive file, ordered by account ID.
+     *
+     * @param fileName      The name of the file within the archive directory, as recorded in 'transaction_archives'.
+     * @param fromAccountId The first account ID, inclusive.
+     * @param toAccountId   The last account ID, inclusive.
+     * @param from          The earliest transaction_timestamp, inclusive; null for no lower bound.
+     * @param to            The end of the period, exclusive; null for no upper bound.
+     * @param consumer      Callback invoked once per transaction.
+     * @throws java.io.UncheckedIOException if the file is missing or cannot be read.
+     */
+    void streamFile(String fileName, int fromAccountId, int toAccountId, LocalDateTime from, LocalDateTime to,
+                    Consumer<Transaction> consumer);
+
+    /**
+     * Finds the timestamp of the newest archived transaction, so readers can skip the archive for newer rows.
+     *
+     * @return The timestamp, or null if the archive is empty.
+     */
+    LocalDateTime findNewestTimestamp();
+}
@@ -1,7 +1,10 @@
 package com.cryptosim.trading212.daos.contracts;
 
 import com.cryptosim.trading212.models.Transaction;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface for Transaction Data Access Object.
@@ -23,9 +26,66 @@ public interface TransactionDao {
 
     /**
      * Finds all transactions for a given account ID, ordered by transaction_timestamp descending.
+     * Includes the archived transactions.
      *
      * @param accountId The ID of the account for which to retrieve transactions.
      * @return A list of Transaction objects. Returns an empty list if no transactions are found.
      */
     List<Transaction> findByAccountId(int accountId);
+
+    /**
+     * Finds one page of an account's transactions, ordered by transaction_timestamp and transaction_id descending.
+     * Pages continue after the last row of the previous page (keyset paging), reading the table and then the archive.
+     *
+     * @param accountId           The ID of the account.
+     * @param beforeTimestamp     The timestamp of the last row of the previous page; null for the first page.
+     * @param beforeTransactionId The ID of the last row of the previous page; null for the first page.
+     * @param limit               The maximum number of transactions to return.
+     * @return A list of Transaction objects. Returns an empty list after the last page.
+     */
+    List<Transaction> findPageByAccountId(int accountId, LocalDateTime beforeTimestamp, Integer beforeTransactionId, int limit);
+
+    /**
+     * Finds the most recent transactions of the account owned by the given user, newest first.
+     * The account is resolved in the same statement so it can run without a prior account lookup.
+     * Reads the table only, not the archive.
+     *
+     * @param userIdentifier The unique identifier of the user.
+     * @param limit          The maximum number of transactions to return.
+     * @return A list of Transaction objects. Returns an empty list if none are found or the user does not exist.
+     */
+    List<Transaction> findRecentByUserIdentifier(String userIdentifier, int limit);
+
+    /**
+     * Finds transactions of an account by their IDs, ordered by transaction_timestamp descending.
+     *
+     * @param accountId      The ID of the account owning the transactions.
+     * @param transactionIds The IDs of the transactions.
+     * @return A list of Transaction objects. IDs that do not belong to the account are omitted.
+     */
+    List<Transaction> findByIds(int accountId, Collection<Integer> transactionIds);
+
+    /**
+     * Streams the rows of one partition ordered by account ID, and within an account newest first, so it can be
+     * written to the archive without holding the partition in memory. Runs on the routed shard.
+     *
+     * @param partitionName The name of the partition.
+     * @param consumer      Callback invoked once per transaction.
+     */
+    void streamPartition(String partitionName, Consumer<Transaction> consumer);
+
+    /**
+     * Streams the transactions of an account ID range from a forward-only cursor, ordered by account ID and within
+     * an account newest first, so any number of rows can be exported in constant memory. Runs on the routed shard
+     * and reads the table only, not the archive.
+     *
+     * @param fromAccountId First account ID of the range (inclusive).
+     * @param toAccountId   Last account ID of the range (inclusive).
+     * @param from          Earliest transaction timestamp (inclusive); null for no lower bound.
+     * @param to            Latest transaction timestamp (exclusive); null for no upper bound.
+     * @param partitions    The partitions to read; null to read the whole table.
+     * @param consumer      Callback invoked once per transaction.
+     */
+    void streamRange(int fromAccountId, int toAccountId, LocalDateTime from, LocalDateTime to, List<String> partitions,
+                     Consumer<Transaction> consumer);
 }
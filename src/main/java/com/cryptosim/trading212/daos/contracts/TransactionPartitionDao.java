@@ -0,0 +1,70 @@
+package com.cryptosim.trading212.daos.contracts;
+
+import com.cryptosim.trading212.models.TransactionArchive;
+import com.cryptosim.trading212.models.TransactionPartition;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Interface for the Transaction Partition Data Access Object.
+ * Defines the contract for managing the monthly partitions of the 'transactions' table and recording which
+ * partitions were moved to the archive ('transaction_archives'). All methods run on the routed shard.
+ */
+public interface TransactionPartitionDao {
+
+    /**
+     * Lists the partitions of the 'transactions' table in ascending order; the catch-all partition comes last.
+     *
+     * @return The partitions; empty if the table is not partitioned.
+     */
+    List<TransactionPartition> findPartitions();
+
+    /**
+     * Adds the partition of a month by splitting it off the catch-all partition.
+     * The month must follow the highest existing monthly partition.
+     *
+     * @param month The month to add.
+     */
+    void addPartition(YearMonth month);
+
+    /**
+     * Counts the rows of a partition exactly.
+     *
+     * @param partitionName The name of the partition.
+     * @return The number of rows.
+     */
+    long countRows(String partitionName);
+
+    /**
+     * Drops a partition together with its rows.
+     *
+     * @param partitionName The name of the partition.
+     */
+    void dropPartition(String partitionName);
+
+    /**
+     * Records that a partition was written to the archive. Recording it again replaces the earlier entry.
+     *
+     * @param partitionName The name of the partition.
+     * @param periodEnd     The first instant after the rows of the partition.
+     * @param fileName      The name of the archive file; null if the partition was empty.
+     * @param rows          The number of archived rows.
+     */
+    void recordArchive(String partitionName, LocalDateTime periodEnd, String fileName, long rows);
+
+    /**
+     * Finds the end of the newest archived period; rows before it may be in the archive instead of the table.
+     *
+     * @return The first instant after the newest archived partition, or null if nothing was archived.
+     */
+    LocalDateTime findArchiveCutoff();
+
+    /**
+     * Lists the partitions recorded as archived, oldest first.
+     *
+     * @return The archive entries; empty if nothing was archived.
+     */
+    List<TransactionArchive> findArchives();
+}
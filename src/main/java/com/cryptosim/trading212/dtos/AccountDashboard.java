@@ -0,0 +1,102 @@
+package com.cryptosim.trading212.dtos;
+
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object with everything the dashboard page renders, assembled in one request.
+ * All positions are valued against the same price snapshot, which is included as well.
+ */
+public class AccountDashboard {
+    private Account account;
+    private Map<String, BigDecimal> prices;
+    private LocalDateTime pricesAsOf;
+    private List<PortfolioPosition> positions;
+    private String valuationCurrency; // Currency of position prices, values and equity; the account balance stays in USD
+    private BigDecimal positionsMarketValue;
+    private BigDecimal totalEquity; // Balance plus market value of all priced positions
+    private List<Transaction> recentTransactions;
+
+    // Getters and Setters
+    public Account getAccount() {
+        return account;
+    }
+
+    public void setAccount(Account account) {
+        this.account = account;
+    }
+
+    public Map<String, BigDecimal> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(Map<String, BigDecimal> prices) {
+        this.prices = prices;
+    }
+
+    public LocalDateTime getPricesAsOf() {
+        return pricesAsOf;
+    }
+
+    public void setPricesAsOf(LocalDateTime pricesAsOf) {
+        this.pricesAsOf = pricesAsOf;
+    }
+
+    public List<PortfolioPosition> getPositions() {
+        return positions;
+    }
+
+    public void setPositions(List<PortfolioPosition> positions) {
+        this.positions = positions;
+    }
+
+    public String getValuationCurrency() {
+        return valuationCurrency;
+    }
+
+    public void setValuationCurrency(String valuationCurrency) {
+        this.valuationCurrency = valuationCurrency;
+    }
+
+    public BigDecimal getPositionsMarketValue() {
+        return positionsMarketValue;
+    }
+
+    public void setPositionsMarketValue(BigDecimal positionsMarketValue) {
+        this.positionsMarketValue = positionsMarketValue;
+    }
+
+    public BigDecimal getTotalEquity() {
+        return totalEquity;
+    }
+
+    public void setTotalEquity(BigDecimal totalEquity) {
+        this.totalEquity = totalEquity;
+    }
+
+    public List<Transaction> getRecentTransactions() {
+        return recentTransactions;
+    }
+
+    public void setRecentTransactions(List<Transaction> recentTransactions) {
+        this.recentTransactions = recentTransactions;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountDashboard{" +
+                "account=" + account +
+                ", pricesAsOf=" + pricesAsOf +
+                ", positions=" + positions +
+                ", valuationCurrency='" + valuationCurrency + '\'' +
+                ", positionsMarketValue=" + positionsMarketValue +
+                ", totalEquity=" + totalEquity +
+                ", recentTransactions=" + (recentTransactions != null ? recentTransactions.size() : 0) +
+                '}';
+    }
+}
@@ -0,0 +1,105 @@
+package com.cryptosim.trading212.dtos;
+
+import com.cryptosim.trading212.models.PortfolioAsset;
+import com.cryptosim.trading212.models.Transaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Data Transfer Object for a delta sync of an account.
+ * <p>
+ * Clients apply a response in this order: if {@code fullSync} or {@code portfolioReset} is set, drop every
+ * local position (on {@code fullSync} also every local transaction); then remove {@code removedPositions},
+ * upsert {@code positions} and add {@code transactions}. The next request passes {@code version} as
+ * {@code since}; while {@code hasMore} is set the client should sync again right away.
+ */
+public class AccountSyncResponse {
+    private long version;
+    private boolean hasMore;
+    private boolean fullSync;
+    private boolean portfolioReset;
+    private BigDecimal balance;
+    private List<PortfolioAsset> positions;
+    private List<String> removedPositions;
+    private List<Transaction> transactions;
+
+    // Getters and Setters
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isFullSync() {
+        return fullSync;
+    }
+
+    public void setFullSync(boolean fullSync) {
+        this.fullSync = fullSync;
+    }
+
+    public boolean isPortfolioReset() {
+        return portfolioReset;
+    }
+
+    public void setPortfolioReset(boolean portfolioReset) {
+        this.portfolioReset = portfolioReset;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public List<PortfolioAsset> getPositions() {
+        return positions;
+    }
+
+    public void setPositions(List<PortfolioAsset> positions) {
+        this.positions = positions;
+    }
+
+    public List<String> getRemovedPositions() {
+        return removedPositions;
+    }
+
+    public void setRemovedPositions(List<String> removedPositions) {
+        this.removedPositions = removedPositions;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountSyncResponse{" +
+                "version=" + version +
+                ", hasMore=" + hasMore +
+                ", fullSync=" + fullSync +
+                ", portfolioReset=" + portfolioReset +
+                ", balance=" + balance +
+                ", positions=" + (positions != null ? positions.size() : 0) +
+                ", removedPositions=" + removedPositions +
+                ", transactions=" + (transactions != null ? transactions.size() : 0) +
+                '}';
+    }
+}
@@ -0,0 +1,106 @@
+package com.cryptosim.trading212.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object reporting the progress of a chunked background job.
+ */
+public class BackfillProgress {
+    private String jobName;
+    private boolean running;
+    private int totalChunks;
+    private int completedChunks;
+    private int failedChunks;
+    private long rowsWritten;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt; // Null while running
+    private String lastError; // Null if no chunk failed
+
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    public void setTotalChunks(int totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+
+    public void setCompletedChunks(int completedChunks) {
+        this.completedChunks = completedChunks;
+    }
+
+    public int getFailedChunks() {
+        return failedChunks;
+    }
+
+    public void setFailedChunks(int failedChunks) {
+        this.failedChunks = failedChunks;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public void setRowsWritten(long rowsWritten) {
+        this.rowsWritten = rowsWritten;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public String toString() {
+        return "BackfillProgress{" +
+                "jobName='" + jobName + '\'' +
+                ", running=" + running +
+                ", totalChunks=" + totalChunks +
+                ", completedChunks=" + completedChunks +
+                ", failedChunks=" + failedChunks +
+                ", rowsWritten=" + rowsWritten +
+                ", startedAt=" + startedAt +
+                ", finishedAt=" + finishedAt +
+                ", lastError='" + lastError + '\'' +
+                '}';
+    }
+}
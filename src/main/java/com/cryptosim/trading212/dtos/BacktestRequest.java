@@ -0,0 +1,79 @@
+package com.cryptosim.trading212.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object for running a set of strategies against the recorded tick history.
+ */
+public class BacktestRequest {
+    private LocalDate from; // First day (UTC) of the replayed history
+    private LocalDate to; // Last day (UTC) of the replayed history
+    private Integer resolutionSeconds; // Optional bar size the ticks are conflated to; defaults to 60
+    private BigDecimal initialBalance; // Optional; defaults to 10000
+    private Integer equityIntervalMinutes; // Optional sampling interval of the equity curves; defaults to 60
+    private List<BacktestStrategySpec> strategies;
+
+    // Getters and Setters
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Integer getResolutionSeconds() {
+        return resolutionSeconds;
+    }
+
+    public void setResolutionSeconds(Integer resolutionSeconds) {
+        this.resolutionSeconds = resolutionSeconds;
+    }
+
+    public BigDecimal getInitialBalance() {
+        return initialBalance;
+    }
+
+    public void setInitialBalance(BigDecimal initialBalance) {
+        this.initialBalance = initialBalance;
+    }
+
+    public Integer getEquityIntervalMinutes() {
+        return equityIntervalMinutes;
+    }
+
+    public void setEquityIntervalMinutes(Integer equityIntervalMinutes) {
+        this.equityIntervalMinutes = equityIntervalMinutes;
+    }
+
+    public List<BacktestStrategySpec> getStrategies() {
+        return strategies;
+    }
+
+    public void setStrategies(List<BacktestStrategySpec> strategies) {
+        this.strategies = strategies;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "BacktestRequest{" +
+                "from=" + from +
+                ", to=" + to +
+                ", resolutionSeconds=" + resolutionSeconds +
+                ", initialBalance=" + initialBalance +
+                ", equityIntervalMinutes=" + equityIntervalMinutes +
+                ", strategies=" + strategies +
+                '}';
+    }
+}
@@ -0,0 +1,97 @@
+package com.cryptosim.trading212.dtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object returned by a backtest run: the replayed history and one result per strategy, in request order.
+ */
+public class BacktestResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private int resolutionSeconds;
+    private List<String> symbols; // Symbols present in the replayed history
+    private int tickCount;
+    private long loadMillis; // Time spent reading the recorded history
+    private long elapsedMillis; // Wall-clock time of the parallel replay of all strategies
+    private List<BacktestResult> results;
+
+    // Getters and Setters
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public int getResolutionSeconds() {
+        return resolutionSeconds;
+    }
+
+    public void setResolutionSeconds(int resolutionSeconds) {
+        this.resolutionSeconds = resolutionSeconds;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public void setTickCount(int tickCount) {
+        this.tickCount = tickCount;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    public void setLoadMillis(long loadMillis) {
+        this.loadMillis = loadMillis;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<BacktestResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BacktestResult> results) {
+        this.results = results;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "BacktestResponse{" +
+                "from=" + from +
+                ", to=" + to +
+                ", resolutionSeconds=" + resolutionSeconds +
+                ", symbols=" + symbols +
+                ", tickCount=" + tickCount +
+                ", loadMillis=" + loadMillis +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
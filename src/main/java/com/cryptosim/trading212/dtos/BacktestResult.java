@@ -0,0 +1,128 @@
+package com.cryptosim.trading212.dtos;
+
+import com.cryptosim.trading212.models.BacktestStrategyType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Data Transfer Object with the outcome of replaying one strategy: summary statistics and its equity curve.
+ */
+public class BacktestResult {
+    private String name;
+    private BacktestStrategyType type;
+    private BigDecimal finalEquity;
+    private BigDecimal totalReturnPercent;
+    private BigDecimal maxDrawdownPercent; // Largest peak-to-trough decline of the sampled equity curve
+    private BigDecimal realizedProfitLoss;
+    private int tradeCount;
+    private int rejectedTradeCount; // Orders refused for insufficient funds or holdings
+    private long elapsedMillis;
+    private List<Long> equityTimestamps; // Epoch milliseconds
+    private List<BigDecimal> equityValues;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BacktestStrategyType getType() {
+        return type;
+    }
+
+    public void setType(BacktestStrategyType type) {
+        this.type = type;
+    }
+
+    public BigDecimal getFinalEquity() {
+        return finalEquity;
+    }
+
+    public void setFinalEquity(BigDecimal finalEquity) {
+        this.finalEquity = finalEquity;
+    }
+
+    public BigDecimal getTotalReturnPercent() {
+        return totalReturnPercent;
+    }
+
+    public void setTotalReturnPercent(BigDecimal totalReturnPercent) {
+        this.totalReturnPercent = totalReturnPercent;
+    }
+
+    public BigDecimal getMaxDrawdownPercent() {
+        return maxDrawdownPercent;
+    }
+
+    public void setMaxDrawdownPercent(BigDecimal maxDrawdownPercent) {
+        this.maxDrawdownPercent = maxDrawdownPercent;
+    }
+
+    public BigDecimal getRealizedProfitLoss() {
+        return realizedProfitLoss;
+    }
+
+    public void setRealizedProfitLoss(BigDecimal realizedProfitLoss) {
+        this.realizedProfitLoss = realizedProfitLoss;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    public void setTradeCount(int tradeCount) {
+        this.tradeCount = tradeCount;
+    }
+
+    public int getRejectedTradeCount() {
+        return rejectedTradeCount;
+    }
+
+    public void setRejectedTradeCount(int rejectedTradeCount) {
+        this.rejectedTradeCount = rejectedTradeCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<Long> getEquityTimestamps() {
+        return equityTimestamps;
+    }
+
+    public void setEquityTimestamps(List<Long> equityTimestamps) {
+        this.equityTimestamps = equityTimestamps;
+    }
+
+    public List<BigDecimal> getEquityValues() {
+        return equityValues;
+    }
+
+    public void setEquityValues(List<BigDecimal> equityValues) {
+        this.equityValues = equityValues;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "BacktestResult{" +
+                "name='" + name + '\'' +
+                ", type=" + type +
+                ", finalEquity=" + finalEquity +
+                ", totalReturnPercent=" + totalReturnPercent +
+                ", maxDrawdownPercent=" + maxDrawdownPercent +
+                ", realizedProfitLoss=" + realizedProfitLoss +
+                ", tradeCount=" + tradeCount +
+                ", rejectedTradeCount=" + rejectedTradeCount +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.cryptosim.trading212.dtos;
+
+import com.cryptosim.trading212.models.BacktestStrategyType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object describing one strategy and parameter combination of a backtest.
+ * <p>
+ * MOVING_AVERAGE_CROSSOVER uses the first symbol and the parameters shortWindow, longWindow (in bars)
+ * and allocation (fraction of the balance to invest on a buy signal, default 1).
+ * REBALANCE uses all symbols with the given weights (summing to at most 1, the rest stays in cash)
+ * and the parameters intervalMinutes and thresholdPercent (minimum drift that triggers a trade, default 0).
+ */
+public class BacktestStrategySpec {
+    private String name; // Optional label; defaults to the type and parameters
+    private BacktestStrategyType type;
+    private List<String> symbols;
+    private List<BigDecimal> weights; // REBALANCE only
+    private Map<String, BigDecimal> parameters;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BacktestStrategyType getType() {
+        return type;
+    }
+
+    public void setType(BacktestStrategyType type) {
+        this.type = type;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    public List<BigDecimal> getWeights() {
+        return weights;
+    }
+
+    public void setWeights(List<BigDecimal> weights) {
+        this.weights = weights;
+    }
+
+    public Map<String, BigDecimal> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, BigDecimal> parameters) {
+        this.parameters = parameters;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "BacktestStrategySpec{" +
+                "name='" + name + '\'' +
+                ", type=" + type +
+                ", symbols=" + symbols +
+                ", weights=" + weights +
+                ", parameters=" + parameters +
+                '}';
+    }
+}
@@ -0,0 +1,29 @@
+package com.cryptosim.trading212.dtos;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Data Transfer Object for provisioning many accounts at once.
+ */
+public class BulkAccountRequest {
+    private List<String> userIdentifiers;
+    private BigDecimal initialBalance;
+
+    // Getters and Setters
+    public List<String> getUserIdentifiers() {
+        return userIdentifiers;
+    }
+
+    public void setUserIdentifiers(List<String> userIdentifiers) {
+        this.userIdentifiers = userIdentifiers;
+    }
+
+    public BigDecimal getInitialBalance() {
+        return initialBalance;
+    }
+
+    public void setInitialBalance(BigDecimal initialBalance) {
+        this.initialBalance = initialBalance;
+    }
+}
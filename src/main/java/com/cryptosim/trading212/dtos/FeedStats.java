@@ -0,0 +1,135 @@
+package com.cryptosim.trading212.dtos;
+
+/**
+ * Data Transfer Object reporting the ingest counters of one market data connection.
+ */
+public class FeedStats {
+    private String feedName; // e.g. "kraken-shard-0"
+    private boolean connected;
+    private int symbolCount;
+    private int queueDepth; // Frames waiting to be parsed
+    private int queueCapacity;
+    private long framesReceived;
+    private long framesDropped; // Rejected because the queue was full
+    private long ticksApplied;
+    private long ticksConflated; // Superseded by a newer tick of the same symbol in the same batch
+    private long reconnects;
+    private long stalls; // Connections closed because no frame arrived within the stall timeout
+    private long lastFrameAgeMillis; // -1 if no frame was ever received
+
+    // Getters and Setters
+    public String getFeedName() {
+        return feedName;
+    }
+
+    public void setFeedName(String feedName) {
+        this.feedName = feedName;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public void setConnected(boolean connected) {
+        this.connected = connected;
+    }
+
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+
+    public void setSymbolCount(int symbolCount) {
+        this.symbolCount = symbolCount;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getFramesReceived() {
+        return framesReceived;
+    }
+
+    public void setFramesReceived(long framesReceived) {
+        this.framesReceived = framesReceived;
+    }
+
+    public long getFramesDropped() {
+        return framesDropped;
+    }
+
+    public void setFramesDropped(long framesDropped) {
+        this.framesDropped = framesDropped;
+    }
+
+    public long getTicksApplied() {
+        return ticksApplied;
+    }
+
+    public void setTicksApplied(long ticksApplied) {
+        this.ticksApplied = ticksApplied;
+    }
+
+    public long getTicksConflated() {
+        return ticksConflated;
+    }
+
+    public void setTicksConflated(long ticksConflated) {
+        this.ticksConflated = ticksConflated;
+    }
+
+    public long getReconnects() {
+        return reconnects;
+    }
+
+    public void setReconnects(long reconnects) {
+        this.reconnects = reconnects;
+    }
+
+    public long getStalls() {
+        return stalls;
+    }
+
+    public void setStalls(long stalls) {
+        this.stalls = stalls;
+    }
+
+    public long getLastFrameAgeMillis() {
+        return lastFrameAgeMillis;
+    }
+
+    public void setLastFrameAgeMillis(long lastFrameAgeMillis) {
+        this.lastFrameAgeMillis = lastFrameAgeMillis;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "FeedStats{" +
+                "feedName='" + feedName + '\'' +
+                ", connected=" + connected +
+                ", symbolCount=" + symbolCount +
+                ", queueDepth=" + queueDepth +
+                ", queueCapacity=" + queueCapacity +
+                ", framesReceived=" + framesReceived +
+                ", framesDropped=" + framesDropped +
+                ", ticksApplied=" + ticksApplied +
+                ", ticksConflated=" + ticksConflated +
+                ", reconnects=" + reconnects +
+                ", stalls=" + stalls +
+                ", lastFrameAgeMillis=" + lastFrameAgeMillis +
+                '}';
+    }
+}
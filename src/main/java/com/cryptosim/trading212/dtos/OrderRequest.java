@@ -0,0 +1,80 @@
+package com.cryptosim.trading212.dtos;
+
+import com.cryptosim.trading212.models.OrderType;
+import com.cryptosim.trading212.models.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for placing resting limit/stop orders.
+ */
+public class OrderRequest {
+    private String userIdentifier;
+    private String assetSymbol;
+    private TransactionType side;
+    private OrderType orderType;
+    private BigDecimal quantity;
+    private BigDecimal triggerPrice;
+
+    // Getters and Setters
+    public String getUserIdentifier() {
+        return userIdentifier;
+    }
+
+    public void setUserIdentifier(String userIdentifier) {
+        this.userIdentifier = userIdentifier;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public TransactionType getSide() {
+        return side;
+    }
+
+    public void setSide(TransactionType side) {
+        this.side = side;
+    }
+
+    public OrderType getOrderType() {
+        return orderType;
+    }
+
+    public void setOrderType(OrderType orderType) {
+        this.orderType = orderType;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getTriggerPrice() {
+        return triggerPrice;
+    }
+
+    public void setTriggerPrice(BigDecimal triggerPrice) {
+        this.triggerPrice = triggerPrice;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "OrderRequest{" +
+                "userIdentifier='" + userIdentifier + '\'' +
+                ", assetSymbol='" + assetSymbol + '\'' +
+                ", side=" + side +
+                ", orderType=" + orderType +
+                ", quantity=" + quantity +
+                ", triggerPrice=" + triggerPrice +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.cryptosim.trading212.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for a portfolio holding valued at a given price.
+ */
+public class PortfolioPosition {
+    private String assetSymbol;
+    private BigDecimal quantity;
+    private BigDecimal averagePurchasePrice;
+    private BigDecimal currentPrice; // Null if no price is available for the symbol
+    private BigDecimal currentMarketValue;
+    private BigDecimal unrealizedProfitLoss; // Null if no price is available for the symbol
+
+    // Getters and Setters
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getAveragePurchasePrice() {
+        return averagePurchasePrice;
+    }
+
+    public void setAveragePurchasePrice(BigDecimal averagePurchasePrice) {
+        this.averagePurchasePrice = averagePurchasePrice;
+    }
+
+    public BigDecimal getCurrentPrice() {
+        return currentPrice;
+    }
+
+    public void setCurrentPrice(BigDecimal currentPrice) {
+        this.currentPrice = currentPrice;
+    }
+
+    public BigDecimal getCurrentMarketValue() {
+        return currentMarketValue;
+    }
+
+    public void setCurrentMarketValue(BigDecimal currentMarketValue) {
+        this.currentMarketValue = currentMarketValue;
+    }
+
+    public BigDecimal getUnrealizedProfitLoss() {
+        return unrealizedProfitLoss;
+    }
+
+    public void setUnrealizedProfitLoss(BigDecimal unrealizedProfitLoss) {
+        this.unrealizedProfitLoss = unrealizedProfitLoss;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "PortfolioPosition{" +
+                "assetSymbol='" + assetSymbol + '\'' +
+                ", quantity=" + quantity +
+                ", averagePurchasePrice=" + averagePurchasePrice +
+                ", currentPrice=" + currentPrice +
+                ", currentMarketValue=" + currentMarketValue +
+                ", unrealizedProfitLoss=" + unrealizedProfitLoss +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.cryptosim.trading212.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for a price together with how long ago the feed last confirmed it.
+ */
+public class PriceAge {
+    private BigDecimal price;
+    private long ageMillis;
+    private long sequence; // Increases with every update of the symbol's quote
+    private boolean stale; // Older than the symbol's trading limit; trades are refused
+
+    // Getters and Setters
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public long getAgeMillis() {
+        return ageMillis;
+    }
+
+    public void setAgeMillis(long ageMillis) {
+        this.ageMillis = ageMillis;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "PriceAge{" +
+                "price=" + price +
+                ", ageMillis=" + ageMillis +
+                ", sequence=" + sequence +
+                ", stale=" + stale +
+                '}';
+    }
+}
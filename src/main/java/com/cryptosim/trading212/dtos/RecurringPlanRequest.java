@@ -0,0 +1,68 @@
+package com.cryptosim.trading212.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for creating recurring (DCA) purchase plans.
+ */
+public class RecurringPlanRequest {
+    private String userIdentifier;
+    private String assetSymbol;
+    private BigDecimal fiatAmount;
+    private Long intervalSeconds;
+    private LocalDateTime firstRunAt; // Optional; defaults to now
+
+    // Getters and Setters
+    public String getUserIdentifier() {
+        return userIdentifier;
+    }
+
+    public void setUserIdentifier(String userIdentifier) {
+        this.userIdentifier = userIdentifier;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public BigDecimal getFiatAmount() {
+        return fiatAmount;
+    }
+
+    public void setFiatAmount(BigDecimal fiatAmount) {
+        this.fiatAmount = fiatAmount;
+    }
+
+    public Long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(Long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public LocalDateTime getFirstRunAt() {
+        return firstRunAt;
+    }
+
+    public void setFirstRunAt(LocalDateTime firstRunAt) {
+        this.firstRunAt = firstRunAt;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "RecurringPlanRequest{" +
+                "userIdentifier='" + userIdentifier + '\'' +
+                ", assetSymbol='" + assetSymbol + '\'' +
+                ", fiatAmount=" + fiatAmount +
+                ", intervalSeconds=" + intervalSeconds +
+                ", firstRunAt=" + firstRunAt +
+                '}';
+    }
+}
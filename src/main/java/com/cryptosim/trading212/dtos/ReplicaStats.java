@@ -0,0 +1,62 @@
+package com.cryptosim.trading212.dtos;
+
+/**
+ * Data Transfer Object reporting the lag and usage of one read replica.
+ */
+public class ReplicaStats {
+    private int shard;
+    private String name;
+    private long lagMillis; // Age of the newest heartbeat seen on the replica; -1 before the first one
+    private boolean usable; // Whether reads are currently sent to the replica
+    private long reads;
+    private long primaryFallbacks; // Reads repeated on the primary after failing or missing a row on the replica
+
+    // Getters and Setters
+    public int getShard() {
+        return shard;
+    }
+
+    public void setShard(int shard) {
+        this.shard = shard;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public void setLagMillis(long lagMillis) {
+        this.lagMillis = lagMillis;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public void setUsable(boolean usable) {
+        this.usable = usable;
+    }
+
+    public long getReads() {
+        return reads;
+    }
+
+    public void setReads(long reads) {
+        this.reads = reads;
+    }
+
+    public long getPrimaryFallbacks() {
+        return primaryFallbacks;
+    }
+
+    public void setPrimaryFallbacks(long primaryFallbacks) {
+        this.primaryFallbacks = primaryFallbacks;
+    }
+}
@@ -0,0 +1,53 @@
+package com.cryptosim.trading212.dtos;
+
+/**
+ * Data Transfer Object reporting the size of one database shard.
+ */
+public class ShardStats {
+    private int shard;
+    private long accounts; // Account rows stored on the shard
+    private long directoryAccounts; // Accounts the directory places on the shard; differs from accounts while moving
+    private long transactions;
+    private long openOrders;
+
+    // Getters and Setters
+    public int getShard() {
+        return shard;
+    }
+
+    public void setShard(int shard) {
+        this.shard = shard;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(long accounts) {
+        this.accounts = accounts;
+    }
+
+    public long getDirectoryAccounts() {
+        return directoryAccounts;
+    }
+
+    public void setDirectoryAccounts(long directoryAccounts) {
+        this.directoryAccounts = directoryAccounts;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(long transactions) {
+        this.transactions = transactions;
+    }
+
+    public long getOpenOrders() {
+        return openOrders;
+    }
+
+    public void setOpenOrders(long openOrders) {
+        this.openOrders = openOrders;
+    }
+}
@@ -0,0 +1,95 @@
+package com.cryptosim.trading212.dtos;
+
+/**
+ * Data Transfer Object reporting the deliveries to one tick listener.
+ */
+public class TickListenerStats {
+    private String name;
+    private int symbolCount; // 0 for listeners of every symbol
+    private boolean isolated; // Runs on its own thread
+    private long delivered;
+    private long dropped; // Rejected because the listener's queue was full
+    private int queueDepth;
+    private long averageLatencyMicros; // From publication to the start of delivery
+    private long maxLatencyMicros;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+
+    public void setSymbolCount(int symbolCount) {
+        this.symbolCount = symbolCount;
+    }
+
+    public boolean isIsolated() {
+        return isolated;
+    }
+
+    public void setIsolated(boolean isolated) {
+        this.isolated = isolated;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public void setDelivered(long delivered) {
+        this.delivered = delivered;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public long getAverageLatencyMicros() {
+        return averageLatencyMicros;
+    }
+
+    public void setAverageLatencyMicros(long averageLatencyMicros) {
+        this.averageLatencyMicros = averageLatencyMicros;
+    }
+
+    public long getMaxLatencyMicros() {
+        return maxLatencyMicros;
+    }
+
+    public void setMaxLatencyMicros(long maxLatencyMicros) {
+        this.maxLatencyMicros = maxLatencyMicros;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "TickListenerStats{" +
+                "name='" + name + '\'' +
+                ", symbolCount=" + symbolCount +
+                ", isolated=" + isolated +
+                ", delivered=" + delivered +
+                ", dropped=" + dropped +
+                ", queueDepth=" + queueDepth +
+                ", averageLatencyMicros=" + averageLatencyMicros +
+                ", maxLatencyMicros=" + maxLatencyMicros +
+                '}';
+    }
+}
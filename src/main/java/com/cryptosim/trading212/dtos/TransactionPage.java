@@ -0,0 +1,41 @@
+package com.cryptosim.trading212.dtos;
+
+import com.cryptosim.trading212.models.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a transaction history, newest first.
+ * The next page is requested with the returned cursor; both cursor fields are null on the last page.
+ */
+public class TransactionPage {
+    private List<Transaction> transactions;
+    private LocalDateTime nextBeforeTimestamp;
+    private Integer nextBeforeId;
+
+    // Getters and Setters
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+
+    public LocalDateTime getNextBeforeTimestamp() {
+        return nextBeforeTimestamp;
+    }
+
+    public void setNextBeforeTimestamp(LocalDateTime nextBeforeTimestamp) {
+        this.nextBeforeTimestamp = nextBeforeTimestamp;
+    }
+
+    public Integer getNextBeforeId() {
+        return nextBeforeId;
+    }
+
+    public void setNextBeforeId(Integer nextBeforeId) {
+        this.nextBeforeId = nextBeforeId;
+    }
+}
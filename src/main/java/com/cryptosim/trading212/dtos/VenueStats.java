@@ -0,0 +1,75 @@
+package com.cryptosim.trading212.dtos;
+
+/**
+ * Data Transfer Object reporting the state of one price venue feeding the consolidated quotes.
+ */
+public class VenueStats {
+    private String venue;
+    private boolean connected;
+    private boolean stale; // No message within the staleness threshold; its quotes are ignored
+    private long lastMessageAgeMillis; // -1 if the venue never sent anything
+    private int symbolsQuoted;
+    private long quotesReceived;
+
+    // Getters and Setters
+    public String getVenue() {
+        return venue;
+    }
+
+    public void setVenue(String venue) {
+        this.venue = venue;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public void setConnected(boolean connected) {
+        this.connected = connected;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
+    public long getLastMessageAgeMillis() {
+        return lastMessageAgeMillis;
+    }
+
+    public void setLastMessageAgeMillis(long lastMessageAgeMillis) {
+        this.lastMessageAgeMillis = lastMessageAgeMillis;
+    }
+
+    public int getSymbolsQuoted() {
+        return symbolsQuoted;
+    }
+
+    public void setSymbolsQuoted(int symbolsQuoted) {
+        this.symbolsQuoted = symbolsQuoted;
+    }
+
+    public long getQuotesReceived() {
+        return quotesReceived;
+    }
+
+    public void setQuotesReceived(long quotesReceived) {
+        this.quotesReceived = quotesReceived;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "VenueStats{" +
+                "venue='" + venue + '\'' +
+                ", connected=" + connected +
+                ", stale=" + stale +
+                ", lastMessageAgeMillis=" + lastMessageAgeMillis +
+                ", symbolsQuoted=" + symbolsQuoted +
+                ", quotesReceived=" + quotesReceived +
+                '}';
+    }
+}
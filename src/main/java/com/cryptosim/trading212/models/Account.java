@@ -13,6 +13,7 @@ public class Account {
     private String userIdentifier;
     private BigDecimal balance;
     private BigDecimal initialBalance;
+    private CostBasisMethod costBasisMethod = CostBasisMethod.AVERAGE;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -78,6 +79,14 @@ public class Account {
         this.updatedAt = updatedAt;
     }
 
+    public CostBasisMethod getCostBasisMethod() {
+        return costBasisMethod;
+    }
+
+    public void setCostBasisMethod(CostBasisMethod costBasisMethod) {
+        this.costBasisMethod = costBasisMethod;
+    }
+
     // toString method for debugging
     @Override
     public String toString() {
@@ -86,6 +95,7 @@ public class Account {
                 ", userIdentifier='" + userIdentifier + '\'' +
                 ", balance=" + balance +
                 ", initialBalance=" + initialBalance +
+                ", costBasisMethod=" + costBasisMethod +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
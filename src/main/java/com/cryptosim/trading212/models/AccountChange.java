@@ -0,0 +1,88 @@
+package com.cryptosim.trading212.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one entry of an account's change log. Entries written by the same mutation share a version.
+ * Corresponds to the 'account_changes' table in the database.
+ */
+public class AccountChange {
+
+    private int accountId;
+    private long version;
+    private AccountChangeType changeType;
+    private String assetSymbol; // Set for POSITION and TRANSACTION changes
+    private Integer transactionId; // Set for TRANSACTION changes
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public AccountChange() {
+    }
+
+    public AccountChange(AccountChangeType changeType, String assetSymbol, Integer transactionId) {
+        this.changeType = changeType;
+        this.assetSymbol = assetSymbol;
+        this.transactionId = transactionId;
+    }
+
+    // Getters and Setters
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public AccountChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(AccountChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Integer transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountChange{" +
+                "accountId=" + accountId +
+                ", version=" + version +
+                ", changeType=" + changeType +
+                ", assetSymbol='" + assetSymbol + '\'' +
+                ", transactionId=" + transactionId +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,11 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents the kind of an entry in the account change log.
+ * Corresponds to the ENUM in the 'account_changes' table.
+ */
+public enum AccountChangeType {
+    POSITION,        // The position in asset_symbol was added, changed or removed
+    TRANSACTION,     // transaction_id was logged
+    PORTFOLIO_RESET  // Every position was removed by an account reset
+}
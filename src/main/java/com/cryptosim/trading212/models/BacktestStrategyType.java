@@ -0,0 +1,9 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents the built-in strategies that can be replayed by the backtesting engine.
+ */
+public enum BacktestStrategyType {
+    MOVING_AVERAGE_CROSSOVER, // Buys when the short moving average crosses above the long one, sells on the cross below
+    REBALANCE                 // Periodically restores fixed target weights across several symbols
+}
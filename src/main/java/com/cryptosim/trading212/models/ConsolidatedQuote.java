@@ -0,0 +1,89 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents the best bid and best offer of one symbol across all price venues.
+ * <p>
+ * The price is the last traded price of the venue that reported one most recently; only if no venue reports
+ * trades is it the midpoint of the best bid and offer, or the one of them that is known. Instances are immutable;
+ * every venue update installs a new one with the next sequence number of the symbol.
+ */
+public final class ConsolidatedQuote {
+
+    private final String assetSymbol;
+    private final BigDecimal bestBid;
+    private final String bestBidVenue;
+    private final BigDecimal bestAsk;
+    private final String bestAskVenue;
+    private final BigDecimal price;
+    private final int venueCount; // Venues whose quotes were consolidated
+    private final long updatedAt; // Epoch milliseconds of the newest contributing venue quote
+    private final long sequence; // Increases by one with every quote installed for the symbol
+
+    public ConsolidatedQuote(String assetSymbol, BigDecimal bestBid, String bestBidVenue, BigDecimal bestAsk, String bestAskVenue,
+                             BigDecimal price, int venueCount, long updatedAt, long sequence) {
+        this.assetSymbol = assetSymbol;
+        this.bestBid = bestBid;
+        this.bestBidVenue = bestBidVenue;
+        this.bestAsk = bestAsk;
+        this.bestAskVenue = bestAskVenue;
+        this.price = price;
+        this.venueCount = venueCount;
+        this.updatedAt = updatedAt;
+        this.sequence = sequence;
+    }
+
+    // Getters
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public BigDecimal getBestBid() {
+        return bestBid;
+    }
+
+    public String getBestBidVenue() {
+        return bestBidVenue;
+    }
+
+    public BigDecimal getBestAsk() {
+        return bestAsk;
+    }
+
+    public String getBestAskVenue() {
+        return bestAskVenue;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public int getVenueCount() {
+        return venueCount;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "ConsolidatedQuote{" +
+                "assetSymbol='" + assetSymbol + '\'' +
+                ", bestBid=" + bestBid +
+                ", bestBidVenue='" + bestBidVenue + '\'' +
+                ", bestAsk=" + bestAsk +
+                ", bestAskVenue='" + bestAskVenue + '\'' +
+                ", price=" + price +
+                ", venueCount=" + venueCount +
+                ", updatedAt=" + updatedAt +
+                ", sequence=" + sequence +
+                '}';
+    }
+}
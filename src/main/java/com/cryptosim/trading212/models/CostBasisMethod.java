@@ -0,0 +1,11 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents how the cost basis of sold crypto is determined for realized P&L.
+ * Corresponds to the ENUM 'cost_basis_method' in the 'accounts' table.
+ */
+public enum CostBasisMethod {
+    AVERAGE, // Weighted average purchase price of the position
+    FIFO,    // Oldest lots are sold first
+    LIFO     // Newest lots are sold first
+}
@@ -0,0 +1,82 @@
+package com.cryptosim.trading212.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a lease on a cluster-wide singleton role, such as the price feed leader.
+ * Corresponds to the 'feed_leases' table in the database.
+ */
+public class FeedLease {
+
+    private String leaseName;
+    private String holder; // Node ID of the current holder
+    private String endpoint; // host:port the holder serves the role on
+    private long epoch; // Incremented whenever the lease changes hands
+    private LocalDateTime expiresAt; // Database time
+    private boolean expired; // Evaluated against the database clock when the lease was read
+
+    // Constructors
+    public FeedLease() {
+    }
+
+    // Getters and Setters
+    public String getLeaseName() {
+        return leaseName;
+    }
+
+    public void setLeaseName(String leaseName) {
+        this.leaseName = leaseName;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(long epoch) {
+        this.epoch = epoch;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired() {
+        return expired;
+    }
+
+    public void setExpired(boolean expired) {
+        this.expired = expired;
+    }
+
+    @Override
+    public String toString() {
+        return "FeedLease{" +
+                "leaseName='" + leaseName + '\'' +
+                ", holder='" + holder + '\'' +
+                ", endpoint='" + endpoint + '\'' +
+                ", epoch=" + epoch +
+                ", expiresAt=" + expiresAt +
+                ", expired=" + expired +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a difference found by a ledger reconciliation run between the stored state of an account and the
+ * state rebuilt from its transaction log.
+ * Corresponds to the 'ledger_discrepancies' table in the database.
+ */
+public class LedgerDiscrepancy {
+
+    private String runId;
+    private int accountId;
+    private String assetSymbol; // Null for BALANCE
+    private LedgerDiscrepancyType discrepancyType;
+    private BigDecimal expectedValue; // Rebuilt from the transaction log
+    private BigDecimal actualValue; // Stored in accounts or portfolio_assets
+    private boolean repaired;
+    private LocalDateTime recordedAt;
+
+    // Constructors
+    public LedgerDiscrepancy() {
+    }
+
+    public LedgerDiscrepancy(int accountId, String assetSymbol, LedgerDiscrepancyType discrepancyType,
+                             BigDecimal expectedValue, BigDecimal actualValue) {
+        this.accountId = accountId;
+        this.assetSymbol = assetSymbol;
+        this.discrepancyType = discrepancyType;
+        this.expectedValue = expectedValue;
+        this.actualValue = actualValue;
+    }
+
+    // Getters and Setters
+    public String getRunId() {
+        return runId;
+    }
+
+    public void setRunId(String runId) {
+        this.runId = runId;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public LedgerDiscrepancyType getDiscrepancyType() {
+        return discrepancyType;
+    }
+
+    public void setDiscrepancyType(LedgerDiscrepancyType discrepancyType) {
+        this.discrepancyType = discrepancyType;
+    }
+
+    public BigDecimal getExpectedValue() {
+        return expectedValue;
+    }
+
+    public void setExpectedValue(BigDecimal expectedValue) {
+        this.expectedValue = expectedValue;
+    }
+
+    public BigDecimal getActualValue() {
+        return actualValue;
+    }
+
+    public void setActualValue(BigDecimal actualValue) {
+        this.actualValue = actualValue;
+    }
+
+    public boolean isRepaired() {
+        return repaired;
+    }
+
+    public void setRepaired(boolean repaired) {
+        this.repaired = repaired;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerDiscrepancy{" +
+                "runId='" + runId + '\'' +
+                ", accountId=" + accountId +
+                ", assetSymbol='" + assetSymbol + '\'' +
+                ", discrepancyType=" + discrepancyType +
+                ", expectedValue=" + expectedValue +
+                ", actualValue=" + actualValue +
+                ", repaired=" + repaired +
+                '}';
+    }
+}
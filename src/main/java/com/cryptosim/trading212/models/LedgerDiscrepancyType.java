@@ -0,0 +1,10 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents the value of an account that differs from what its transaction log implies.
+ */
+public enum LedgerDiscrepancyType {
+    BALANCE,      // Fiat balance of the account
+    QUANTITY,     // Quantity of a position; 0 if the position is missing on either side
+    AVERAGE_PRICE // Average purchase price of a position held on both sides
+}
@@ -0,0 +1,113 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Represents the part of a sell that was matched against one tax lot, with the P&L realized on it.
+ * Corresponds to the 'lot_matches' table in the database.
+ */
+public class LotMatch {
+
+    private long matchId;
+    private int sellTransactionId;
+    private Long lotId; // Null for holdings bought before lots were tracked, matched at the average price
+    private String assetSymbol;
+    private BigDecimal quantity;
+    private BigDecimal unitCost;
+    private BigDecimal salePrice;
+    private BigDecimal realizedProfitLoss;
+    private LocalDateTime acquiredAt; // Null for holdings bought before lots were tracked
+
+    // Constructors
+    public LotMatch() {
+    }
+
+    // Getters and Setters
+    public long getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(long matchId) {
+        this.matchId = matchId;
+    }
+
+    public int getSellTransactionId() {
+        return sellTransactionId;
+    }
+
+    public void setSellTransactionId(int sellTransactionId) {
+        this.sellTransactionId = sellTransactionId;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitCost() {
+        return unitCost;
+    }
+
+    public void setUnitCost(BigDecimal unitCost) {
+        this.unitCost = unitCost;
+    }
+
+    public BigDecimal getSalePrice() {
+        return salePrice;
+    }
+
+    public void setSalePrice(BigDecimal salePrice) {
+        this.salePrice = salePrice;
+    }
+
+    public BigDecimal getRealizedProfitLoss() {
+        return realizedProfitLoss;
+    }
+
+    public void setRealizedProfitLoss(BigDecimal realizedProfitLoss) {
+        this.realizedProfitLoss = realizedProfitLoss;
+    }
+
+    public LocalDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public void setAcquiredAt(LocalDateTime acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "LotMatch{" +
+                "matchId=" + matchId +
+                ", sellTransactionId=" + sellTransactionId +
+                ", lotId=" + lotId +
+                ", assetSymbol='" + assetSymbol + '\'' +
+                ", quantity=" + quantity +
+                ", unitCost=" + unitCost +
+                ", salePrice=" + salePrice +
+                ", realizedProfitLoss=" + realizedProfitLoss +
+                ", acquiredAt=" + acquiredAt +
+                '}';
+    }
+}
@@ -0,0 +1,165 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a resting limit or stop order that waits for the market price to cross its trigger.
+ * Corresponds to the 'orders' table in the database.
+ */
+public class Order {
+
+    private int orderId;
+    private int accountId; // Foreign key to Account
+    private String userIdentifier; // Joined from accounts, not stored in 'orders'
+    private String assetSymbol;
+    private TransactionType side;
+    private OrderType orderType;
+    private BigDecimal quantity;
+    private BigDecimal triggerPrice;
+    private OrderStatus status;
+    private Integer transactionId; // Set once the order is filled
+    private String statusReason; // Nullable, e.g. why an order was rejected
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public Order() {
+    }
+
+    public Order(int orderId, int accountId, String assetSymbol, TransactionType side, OrderType orderType,
+                 BigDecimal quantity, BigDecimal triggerPrice, OrderStatus status) {
+        this.orderId = orderId;
+        this.accountId = accountId;
+        this.assetSymbol = assetSymbol;
+        this.side = side;
+        this.orderType = orderType;
+        this.quantity = quantity;
+        this.triggerPrice = triggerPrice;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(int orderId) {
+        this.orderId = orderId;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getUserIdentifier() {
+        return userIdentifier;
+    }
+
+    public void setUserIdentifier(String userIdentifier) {
+        this.userIdentifier = userIdentifier;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public TransactionType getSide() {
+        return side;
+    }
+
+    public void setSide(TransactionType side) {
+        this.side = side;
+    }
+
+    public OrderType getOrderType() {
+        return orderType;
+    }
+
+    public void setOrderType(OrderType orderType) {
+        this.orderType = orderType;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getTriggerPrice() {
+        return triggerPrice;
+    }
+
+    public void setTriggerPrice(BigDecimal triggerPrice) {
+        this.triggerPrice = triggerPrice;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Integer transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getStatusReason() {
+        return statusReason;
+    }
+
+    public void setStatusReason(String statusReason) {
+        this.statusReason = statusReason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // toString method for debugging
+    @Override
+    public String toString() {
+        return "Order{" +
+                "orderId=" + orderId +
+                ", accountId=" + accountId +
+                ", assetSymbol='" + assetSymbol + '\'' +
+                ", side=" + side +
+                ", orderType=" + orderType +
+                ", quantity=" + quantity +
+                ", triggerPrice=" + triggerPrice +
+                ", status=" + status +
+                ", transactionId=" + transactionId +
+                ", statusReason='" + statusReason + '\'' +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -0,0 +1,15 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents the lifecycle state of a resting order.
+ * Corresponds to the ENUM in the 'orders' table.
+ * TRIGGERED marks an order that was claimed for execution but whose outcome
+ * has not been recorded yet.
+ */
+public enum OrderStatus {
+    OPEN,
+    TRIGGERED,
+    FILLED,
+    CANCELLED,
+    REJECTED
+}
@@ -0,0 +1,10 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents the type of a resting order (LIMIT or STOP).
+ * Corresponds to the ENUM in the 'orders' table.
+ */
+public enum OrderType {
+    LIMIT,
+    STOP
+}
@@ -0,0 +1,10 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents how P&L summaries over a date range are grouped.
+ */
+public enum PnlGrouping {
+    TOTAL,  // One row for the whole range
+    SYMBOL, // One row per asset symbol
+    DAY     // One row per day with activity
+}
@@ -0,0 +1,93 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Represents aggregated trading results (realized P&L, volume and trade counts) of an account,
+ * summed from the 'pnl_daily' or 'pnl_daily_symbol' rollup tables.
+ */
+public class PnlSummary {
+
+    private String assetSymbol; // Null unless grouped by symbol
+    private LocalDate bucketDate; // Null unless grouped by day
+    private BigDecimal realizedProfitLoss;
+    private BigDecimal buyVolume; // Fiat value bought
+    private BigDecimal sellVolume; // Fiat value sold
+    private long buyCount;
+    private long sellCount;
+
+    // Constructors
+    public PnlSummary() {
+    }
+
+    // Getters and Setters
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public LocalDate getBucketDate() {
+        return bucketDate;
+    }
+
+    public void setBucketDate(LocalDate bucketDate) {
+        this.bucketDate = bucketDate;
+    }
+
+    public BigDecimal getRealizedProfitLoss() {
+        return realizedProfitLoss;
+    }
+
+    public void setRealizedProfitLoss(BigDecimal realizedProfitLoss) {
+        this.realizedProfitLoss = realizedProfitLoss;
+    }
+
+    public BigDecimal getBuyVolume() {
+        return buyVolume;
+    }
+
+    public void setBuyVolume(BigDecimal buyVolume) {
+        this.buyVolume = buyVolume;
+    }
+
+    public BigDecimal getSellVolume() {
+        return sellVolume;
+    }
+
+    public void setSellVolume(BigDecimal sellVolume) {
+        this.sellVolume = sellVolume;
+    }
+
+    public long getBuyCount() {
+        return buyCount;
+    }
+
+    public void setBuyCount(long buyCount) {
+        this.buyCount = buyCount;
+    }
+
+    public long getSellCount() {
+        return sellCount;
+    }
+
+    public void setSellCount(long sellCount) {
+        this.sellCount = sellCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PnlSummary{" +
+                "assetSymbol='" + assetSymbol + '\'' +
+                ", bucketDate=" + bucketDate +
+                ", realizedProfitLoss=" + realizedProfitLoss +
+                ", buyVolume=" + buyVolume +
+                ", sellVolume=" + sellVolume +
+                ", buyCount=" + buyCount +
+                ", sellCount=" + sellCount +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Represents an open tax lot: the part of a purchase that has not been sold yet.
+ * Corresponds to the 'position_lots' table in the database.
+ */
+public class PositionLot {
+
+    private long lotId;
+    private int accountId;
+    private String assetSymbol;
+    private Integer transactionId; // BUY transaction that opened the lot
+    private BigDecimal originalQuantity;
+    private BigDecimal remainingQuantity;
+    private BigDecimal unitCost;
+    private LocalDateTime acquiredAt;
+
+    // Constructors
+    public PositionLot() {
+    }
+
+    // Getters and Setters
+    public long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(long lotId) {
+        this.lotId = lotId;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Integer transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public BigDecimal getOriginalQuantity() {
+        return originalQuantity;
+    }
+
+    public void setOriginalQuantity(BigDecimal originalQuantity) {
+        this.originalQuantity = originalQuantity;
+    }
+
+    public BigDecimal getRemainingQuantity() {
+        return remainingQuantity;
+    }
+
+    public void setRemainingQuantity(BigDecimal remainingQuantity) {
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    public BigDecimal getUnitCost() {
+        return unitCost;
+    }
+
+    public void setUnitCost(BigDecimal unitCost) {
+        this.unitCost = unitCost;
+    }
+
+    public LocalDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public void setAcquiredAt(LocalDateTime acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PositionLot{" +
+                "lotId=" + lotId +
+                ", accountId=" + accountId +
+                ", assetSymbol='" + assetSymbol + '\'' +
+                ", transactionId=" + transactionId +
+                ", originalQuantity=" + originalQuantity +
+                ", remainingQuantity=" + remainingQuantity +
+                ", unitCost=" + unitCost +
+                ", acquiredAt=" + acquiredAt +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents an accepted price change of one symbol, as delivered to tick listeners.
+ * Instances are immutable and shared by every listener of the tick.
+ */
+public final class PriceTick {
+
+    private final String assetSymbol;
+    private final BigDecimal price;
+    private final BigDecimal previousPrice; // Null for the first price after a (re)subscription
+    private final long timestamp; // Epoch milliseconds when the tick was accepted
+    private final long publishedNanos; // System.nanoTime() at publication, for delivery latency
+
+    public PriceTick(String assetSymbol, BigDecimal price, BigDecimal previousPrice, long timestamp, long publishedNanos) {
+        this.assetSymbol = assetSymbol;
+        this.price = price;
+        this.previousPrice = previousPrice;
+        this.timestamp = timestamp;
+        this.publishedNanos = publishedNanos;
+    }
+
+    // Getters
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public BigDecimal getPreviousPrice() {
+        return previousPrice;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "PriceTick{" +
+                "assetSymbol='" + assetSymbol + '\'' +
+                ", price=" + price +
+                ", previousPrice=" + previousPrice +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
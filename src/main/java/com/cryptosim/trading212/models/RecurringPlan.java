@@ -0,0 +1,134 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a recurring investment plan ("buy $50 of BTC/USD every day").
+ * Corresponds to the 'recurring_plans' table in the database.
+ */
+public class RecurringPlan {
+
+    private int planId;
+    private int accountId; // Foreign key to Account
+    private String userIdentifier; // Joined from accounts, not stored in 'recurring_plans'
+    private String assetSymbol;
+    private BigDecimal fiatAmount; // Amount of fiat spent per run
+    private long intervalSeconds;
+    private LocalDateTime nextRunAt;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public RecurringPlan() {
+    }
+
+    public RecurringPlan(int planId, int accountId, String assetSymbol, BigDecimal fiatAmount,
+                         long intervalSeconds, LocalDateTime nextRunAt, boolean active) {
+        this.planId = planId;
+        this.accountId = accountId;
+        this.assetSymbol = assetSymbol;
+        this.fiatAmount = fiatAmount;
+        this.intervalSeconds = intervalSeconds;
+        this.nextRunAt = nextRunAt;
+        this.active = active;
+    }
+
+    // Getters and Setters
+    public int getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(int planId) {
+        this.planId = planId;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getUserIdentifier() {
+        return userIdentifier;
+    }
+
+    public void setUserIdentifier(String userIdentifier) {
+        this.userIdentifier = userIdentifier;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public void setAssetSymbol(String assetSymbol) {
+        this.assetSymbol = assetSymbol;
+    }
+
+    public BigDecimal getFiatAmount() {
+        return fiatAmount;
+    }
+
+    public void setFiatAmount(BigDecimal fiatAmount) {
+        this.fiatAmount = fiatAmount;
+    }
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // toString method for debugging
+    @Override
+    public String toString() {
+        return "RecurringPlan{" +
+                "planId=" + planId +
+                ", accountId=" + accountId +
+                ", assetSymbol='" + assetSymbol + '\'' +
+                ", fiatAmount=" + fiatAmount +
+                ", intervalSeconds=" + intervalSeconds +
+                ", nextRunAt=" + nextRunAt +
+                ", active=" + active +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Represents the final standing of an account in a competition season.
+ * Corresponds to the 'season_standings' table in the database.
+ */
+public class SeasonStanding {
+
+    private String seasonName;
+    private int accountId;
+    private String userIdentifier;
+    private BigDecimal initialBalance;
+    private BigDecimal balance;
+    private BigDecimal holdingsValue; // Positions at the season's closing prices, or at cost without a price
+    private BigDecimal totalValue;
+    private LocalDateTime recordedAt;
+
+    // Getters and Setters
+    public String getSeasonName() {
+        return seasonName;
+    }
+
+    public void setSeasonName(String seasonName) {
+        this.seasonName = seasonName;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getUserIdentifier() {
+        return userIdentifier;
+    }
+
+    public void setUserIdentifier(String userIdentifier) {
+        this.userIdentifier = userIdentifier;
+    }
+
+    public BigDecimal getInitialBalance() {
+        return initialBalance;
+    }
+
+    public void setInitialBalance(BigDecimal initialBalance) {
+        this.initialBalance = initialBalance;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public BigDecimal getHoldingsValue() {
+        return holdingsValue;
+    }
+
+    public void setHoldingsValue(BigDecimal holdingsValue) {
+        this.holdingsValue = holdingsValue;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
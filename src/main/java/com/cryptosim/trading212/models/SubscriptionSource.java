@@ -0,0 +1,13 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents why the market data feed is subscribed to a symbol.
+ * A symbol stays subscribed while any source holds a reference to it.
+ */
+public enum SubscriptionSource {
+    PINNED,   // Always subscribed, e.g. the fiat pairs used for cross rates
+    POSITION, // One reference per account holding the asset
+    ORDER,    // One reference per open limit/stop order
+    PLAN,     // One reference per active recurring plan
+    STREAM    // One reference per connected price stream client
+}
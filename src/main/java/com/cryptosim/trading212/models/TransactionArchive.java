@@ -0,0 +1,57 @@
+package com.cryptosim.trading212.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a partition of the 'transactions' table that was moved to an archive file.
+ * Corresponds to the 'transaction_archives' table in the database.
+ */
+public class TransactionArchive {
+
+    private String partitionName;
+    private LocalDateTime periodEnd; // First instant after the archived rows
+    private String fileName; // Null if the partition was empty
+    private long rowCount;
+    private LocalDateTime archivedAt;
+
+    // Getters and Setters
+    public String getPartitionName() {
+        return partitionName;
+    }
+
+    public void setPartitionName(String partitionName) {
+        this.partitionName = partitionName;
+    }
+
+    public LocalDateTime getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(LocalDateTime periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
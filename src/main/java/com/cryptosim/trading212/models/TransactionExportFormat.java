@@ -0,0 +1,9 @@
+package com.cryptosim.trading212.models;
+
+/**
+ * Represents the file format of a transaction export. Exports are always gzip-compressed.
+ */
+public enum TransactionExportFormat {
+    CSV,   // Header line, then one comma-separated line per transaction
+    NDJSON // One JSON object per line
+}
@@ -0,0 +1,50 @@
+package com.cryptosim.trading212.models;
+
+import java.time.YearMonth;
+
+/**
+ * Represents one monthly partition of the 'transactions' table.
+ * A partition named pYYYYMM holds the transactions before the start of the following month that no lower partition
+ * holds; the catch-all partition above the last month has no month.
+ */
+public class TransactionPartition {
+
+    private String name;
+    private YearMonth month; // Null for the catch-all partition
+    private long estimatedRows; // InnoDB statistics, not an exact count
+
+    // Constructors
+    public TransactionPartition() {
+    }
+
+    public TransactionPartition(String name, YearMonth month, long estimatedRows) {
+        this.name = name;
+        this.month = month;
+        this.estimatedRows = estimatedRows;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public void setMonth(YearMonth month) {
+        this.month = month;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public void setEstimatedRows(long estimatedRows) {
+        this.estimatedRows = estimatedRows;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cryptosim.trading212.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents the latest top of book of one symbol on one price venue.
+ * Instances are immutable; any of the prices may be null if the venue did not report it.
+ */
+public final class VenueQuote {
+
+    private final BigDecimal bid;
+    private final BigDecimal ask;
+    private final BigDecimal last; // Last traded price
+    private final long receivedAt; // Epoch milliseconds when the quote was parsed
+
+    public VenueQuote(BigDecimal bid, BigDecimal ask, BigDecimal last, long receivedAt) {
+        this.bid = bid;
+        this.ask = ask;
+        this.last = last;
+        this.receivedAt = receivedAt;
+    }
+
+    // Getters
+    public BigDecimal getBid() {
+        return bid;
+    }
+
+    public BigDecimal getAsk() {
+        return ask;
+    }
+
+    public BigDecimal getLast() {
+        return last;
+    }
+
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    // toString for logging
+    @Override
+    public String toString() {
+        return "VenueQuote{" +
+                "bid=" + bid +
+                ", ask=" + ask +
+                ", last=" + last +
+                ", receivedAt=" + receivedAt +
+                '}';
+    }
+}
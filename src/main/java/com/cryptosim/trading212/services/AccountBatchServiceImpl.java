@@ -0,0 +1,219 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.SeasonStandingDao;
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.SeasonStanding;
+import com.cryptosim.trading212.services.contracts.AccountBatchService;
+import com.cryptosim.trading212.services.contracts.AccountVersionService;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+/**
+ * Service class for operations on many accounts at once.
+ * <p>
+ * Provisioning allocates the account IDs of a whole batch with one reservation in the shard directory and writes
+ * the directory entries and the accounts with one JDBC batch per shard, instead of a generated-key round trip per
+ * account. Batches are idempotent, so a failed job can simply be started again with the same users.
+ * <p>
+ * A season rollover records the closing prices on every shard and then rolls the accounts over in account ID
+ * chunks, each with a handful of set-based statements in one transaction (see {@link SeasonRolloverRunner}).
+ * Starting the rollover of a season again resumes it at the closing prices first recorded, skipping the accounts
+ * that already have standings, so a job with failed chunks can simply be started again.
+ */
+@Service
+public class AccountBatchServiceImpl implements AccountBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountBatchServiceImpl.class);
+
+    private static final int PROVISIONING_BATCH_SIZE = 1000;
+    private static final int ROLLOVER_CHUNK_ACCOUNTS = 5000;
+    private static final int MAX_USER_IDENTIFIER_LENGTH = 255;
+    private static final Pattern SEASON_NAME = Pattern.compile("[A-Za-z0-9._-]{1,50}");
+
+    private final ShardRouter shardRouter;
+    private final AccountDao accountDao;
+    private final SeasonStandingDao seasonStandingDao;
+    private final SeasonRolloverRunner seasonRolloverRunner;
+    private final KrakenDataService krakenDataService;
+    private final AccountVersionService accountVersionService;
+    private final BackgroundJobTracker jobs = new BackgroundJobTracker("account-batch", 1);
+
+    @Autowired
+    public AccountBatchServiceImpl(ShardRouter shardRouter, AccountDao accountDao, SeasonStandingDao seasonStandingDao,
+                                   SeasonRolloverRunner seasonRolloverRunner, KrakenDataService krakenDataService,
+                                   AccountVersionService accountVersionService) {
+        this.shardRouter = shardRouter;
+        this.accountDao = accountDao;
+        this.seasonStandingDao = seasonStandingDao;
+        this.seasonRolloverRunner = seasonRolloverRunner;
+        this.krakenDataService = krakenDataService;
+        this.accountVersionService = accountVersionService;
+    }
+
+    @Override
+    public synchronized BackfillProgress startProvisioning(List<String> userIdentifiers, BigDecimal initialBalance) {
+        if (userIdentifiers == null || userIdentifiers.isEmpty() || userIdentifiers.size() > MAX_PROVISIONED_USERS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_PROVISIONED_USERS + " user identifiers must be given.");
+        }
+        if (initialBalance == null || initialBalance.signum() <= 0) {
+            throw new IllegalArgumentException("Initial balance must be positive.");
+        }
+        LinkedHashSet<String> users = new LinkedHashSet<>();
+        for (String userIdentifier : userIdentifiers) {
+            if (userIdentifier == null || userIdentifier.isBlank() || userIdentifier.length() > MAX_USER_IDENTIFIER_LENGTH) {
+                throw new IllegalArgumentException("User identifiers must be non-blank and at most " + MAX_USER_IDENTIFIER_LENGTH + " characters.");
+            }
+            users.add(userIdentifier);
+        }
+        checkIdle();
+
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>(PROVISIONING_BATCH_SIZE);
+        for (String user : users) {
+            batch.add(user);
+            if (batch.size() == PROVISIONING_BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>(PROVISIONING_BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        jobs.start("account-provisioning", batches.size(), 0);
+        logger.info("Starting provisioning of {} accounts in {} batches", users.size(), batches.size());
+        jobs.getExecutor().execute(() -> {
+            try {
+                for (List<String> accountBatch : batches) {
+                    provisionBatch(accountBatch, initialBalance);
+                }
+            } finally {
+                shardRouter.clearRoute();
+                finishJob();
+            }
+        });
+        return getJobProgress();
+    }
+
+    private void provisionBatch(List<String> users, BigDecimal initialBalance) {
+        try {
+            Map<String, Integer> accountIds = shardRouter.registerAccounts(users);
+            Map<Integer, Map<String, Integer>> byShard = new HashMap<>();
+            accountIds.forEach((user, accountId) ->
+                    byShard.computeIfAbsent(shardRouter.shardOfAccount(accountId), shard -> new HashMap<>()).put(user, accountId));
+            long rows = 0;
+            for (Map.Entry<Integer, Map<String, Integer>> shardAccounts : byShard.entrySet()) {
+                shardRouter.routeTo(shardAccounts.getKey());
+                rows += accountDao.createAccounts(shardAccounts.getValue(), initialBalance);
+            }
+            jobs.chunkCompleted(rows);
+        } catch (Exception e) {
+            jobs.chunkFailed("Batch starting with " + users.get(0) + ": " + e.getMessage());
+            logger.error("Provisioning failed for the batch starting with {}", users.get(0), e);
+        }
+    }
+
+    @Override
+    public synchronized BackfillProgress startSeasonRollover(String seasonName) {
+        if (seasonName == null || !SEASON_NAME.matcher(seasonName).matches()) {
+            throw new IllegalArgumentException("Season names consist of 1 to 50 letters, digits, '.', '_' or '-'.");
+        }
+        checkIdle();
+        // A resumed season keeps its closing prices; a shard may lack them if the first run failed while recording
+        Map<String, BigDecimal> recordedPrices = new HashMap<>();
+        shardRouter.fanOut(shard -> seasonStandingDao.findPrices(seasonName)).forEach(recordedPrices::putAll);
+        boolean resumed = !recordedPrices.isEmpty();
+        // Every shard values its own accounts, so each gets the closing prices
+        Map<String, BigDecimal> prices = resumed ? recordedPrices : krakenDataService.getLatestPrices();
+        shardRouter.forEachShard(shard -> seasonStandingDao.recordPrices(seasonName, prices));
+        List<Integer> maxAccountIds = shardRouter.fanOut(shard -> accountDao.findMaxAccountId());
+        int totalChunks = 0;
+        for (int maxAccountId : maxAccountIds) {
+            totalChunks += (maxAccountId + ROLLOVER_CHUNK_ACCOUNTS - 1) / ROLLOVER_CHUNK_ACCOUNTS;
+        }
+
+        jobs.start("season-rollover:" + seasonName, totalChunks, 0);
+        logger.info("{} rollover of season {} at {} prices over max account IDs {} of the shards in {} chunks",
+                resumed ? "Resuming" : "Starting", seasonName, prices.size(), maxAccountIds, totalChunks);
+        jobs.getExecutor().execute(() -> {
+            try {
+                for (int shard = 0; shard < maxAccountIds.size(); shard++) {
+                    int maxAccountId = maxAccountIds.get(shard);
+                    for (int fromAccountId = 1; fromAccountId <= maxAccountId; fromAccountId += ROLLOVER_CHUNK_ACCOUNTS) {
+                        rolloverChunk(shard, seasonName, fromAccountId, Math.min(fromAccountId + ROLLOVER_CHUNK_ACCOUNTS - 1, maxAccountId));
+                    }
+                }
+            } finally {
+                finishJob();
+            }
+        });
+        return getJobProgress();
+    }
+
+    private void rolloverChunk(int shard, String seasonName, int fromAccountId, int toAccountId) {
+        try {
+            jobs.chunkCompleted(seasonRolloverRunner.rolloverChunk(shard, seasonName, fromAccountId, toAccountId));
+            accountVersionService.markAllChanged();
+        } catch (Exception e) {
+            jobs.chunkFailed("Shard " + shard + ", accounts " + fromAccountId + "-" + toAccountId + ": " + e.getMessage());
+            logger.error("Season rollover failed for account IDs {}-{} on shard {}", fromAccountId, toAccountId, shard, e);
+        }
+    }
+
+    private void checkIdle() {
+        String runningJob = jobs.getRunningJobName();
+        if (runningJob != null) {
+            throw new IllegalStateException("Another account batch job (" + runningJob + ") is running.");
+        }
+    }
+
+    private void finishJob() {
+        jobs.finish();
+        BackfillProgress job = jobs.getProgress();
+        logger.info("Account batch job {} finished: {} chunks done, {} failed, {} rows written",
+                job.getJobName(), job.getCompletedChunks(), job.getFailedChunks(), job.getRowsWritten());
+    }
+
+    @Override
+    public BackfillProgress getJobProgress() {
+        return jobs.getProgress();
+    }
+
+    @Override
+    public List<SeasonStanding> getStandings(String seasonName, int limit) {
+        if (limit < 1 || limit > MAX_STANDINGS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_STANDINGS + ".");
+        }
+        List<SeasonStanding> standings = new ArrayList<>();
+        for (List<SeasonStanding> shardStandings : shardRouter.fanOut(shard -> seasonStandingDao.findTopStandings(seasonName, limit))) {
+            standings.addAll(shardStandings);
+        }
+        if (standings.isEmpty()) {
+            throw new NoSuchElementException("No standings found for season: " + seasonName);
+        }
+        standings.sort(Comparator.comparing(SeasonStanding::getTotalValue).reversed()
+                .thenComparingInt(SeasonStanding::getAccountId));
+        return standings.size() > limit ? new ArrayList<>(standings.subList(0, limit)) : standings;
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        jobs.shutdown();
+    }
+}
@@ -0,0 +1,116 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.PortfolioAssetDao;
+import com.cryptosim.trading212.daos.contracts.TransactionDao;
+import com.cryptosim.trading212.dtos.AccountSyncResponse;
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.AccountChange;
+import com.cryptosim.trading212.models.AccountChangeType;
+import com.cryptosim.trading212.models.PortfolioAsset;
+import com.cryptosim.trading212.services.contracts.AccountSyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Service class for delta synchronization backed by the per-account change log.
+ * <p>
+ * A sync reads the log entries after the client's version and resolves them against the current rows:
+ * a logged position is returned if it still exists and reported as removed otherwise, and logged
+ * transactions are loaded by ID. The work per sync is proportional to the number of changes, not to
+ * the size of the history. All reads run in one read-only transaction so they see a single snapshot.
+ */
+@Service
+public class AccountSyncServiceImpl implements AccountSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountSyncServiceImpl.class);
+
+    // Versions applied per response; each version holds at most two log entries
+    private static final long MAX_VERSIONS_PER_SYNC = 500;
+
+    private final AccountDao accountDao;
+    private final AccountChangeDao accountChangeDao;
+    private final PortfolioAssetDao portfolioAssetDao;
+    private final TransactionDao transactionDao;
+
+    @Autowired
+    public AccountSyncServiceImpl(AccountDao accountDao,
+                                  AccountChangeDao accountChangeDao,
+                                  PortfolioAssetDao portfolioAssetDao,
+                                  TransactionDao transactionDao) {
+        this.accountDao = accountDao;
+        this.accountChangeDao = accountChangeDao;
+        this.portfolioAssetDao = portfolioAssetDao;
+        this.transactionDao = transactionDao;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public AccountSyncResponse sync(String userIdentifier, long sinceVersion) {
+        if (sinceVersion < 0) {
+            throw new IllegalArgumentException("Sync version must not be negative.");
+        }
+        Account account = accountDao.findByUserIdentifier(userIdentifier)
+                .orElseThrow(() -> {
+                    logger.warn("Account not found for userIdentifier: {}", userIdentifier);
+                    return new NoSuchElementException("Account not found for user: " + userIdentifier);
+                });
+        long currentVersion = accountChangeDao.getCurrentVersion(account.getAccountId());
+
+        AccountSyncResponse response = new AccountSyncResponse();
+        response.setBalance(account.getBalance());
+        if (sinceVersion == 0 || sinceVersion > currentVersion) {
+            // New client, or a version from another database: send a snapshot
+            response.setVersion(currentVersion);
+            response.setFullSync(true);
+            response.setPositions(portfolioAssetDao.findByAccountId(account.getAccountId()));
+            response.setRemovedPositions(new ArrayList<>());
+            response.setTransactions(transactionDao.findByAccountId(account.getAccountId()));
+            logger.debug("Full sync for user {} at version {}", userIdentifier, currentVersion);
+            return response;
+        }
+
+        long upToVersion = Math.min(currentVersion, sinceVersion + MAX_VERSIONS_PER_SYNC);
+        List<AccountChange> changes = accountChangeDao.findChanges(account.getAccountId(), sinceVersion, upToVersion);
+
+        boolean portfolioReset = false;
+        Set<String> changedSymbols = new LinkedHashSet<>();
+        List<Integer> transactionIds = new ArrayList<>();
+        for (AccountChange change : changes) {
+            if (change.getChangeType() == AccountChangeType.PORTFOLIO_RESET) {
+                // Everything before the reset is gone; only positions touched afterwards matter
+                portfolioReset = true;
+                changedSymbols.clear();
+            } else if (change.getChangeType() == AccountChangeType.POSITION) {
+                changedSymbols.add(change.getAssetSymbol());
+            } else if (change.getTransactionId() != null) {
+                transactionIds.add(change.getTransactionId());
+            }
+        }
+
+        List<PortfolioAsset> positions = portfolioAssetDao.findByAccountIdAndAssetSymbols(account.getAccountId(), changedSymbols);
+        List<String> removedPositions = new ArrayList<>(changedSymbols);
+        for (PortfolioAsset position : positions) {
+            removedPositions.remove(position.getAssetSymbol());
+        }
+
+        response.setVersion(upToVersion);
+        response.setHasMore(upToVersion < currentVersion);
+        response.setPortfolioReset(portfolioReset);
+        response.setPositions(positions);
+        response.setRemovedPositions(removedPositions);
+        response.setTransactions(transactionDao.findByIds(account.getAccountId(), transactionIds));
+        logger.debug("Delta sync for user {} from version {} to {}: {} changes", userIdentifier, sinceVersion, upToVersion, changes.size());
+        return response;
+    }
+}
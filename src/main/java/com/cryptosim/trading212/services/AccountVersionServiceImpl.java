@@ -0,0 +1,104 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
+import com.cryptosim.trading212.services.contracts.AccountVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class serving the persisted per-account version, {@code accounts.change_version}, which every mutation
+ * of an account moves in its own transaction, whichever node makes it.
+ * <p>
+ * Readers must read the version before they query the account, and from the same database, i.e. within the same
+ * replica read. As the version commits with the change, this guarantees a tag is never attached to data older than
+ * the version it names: at worst new data is served under the previous tag, which only costs the client one extra
+ * full response.
+ * <p>
+ * The change times kept here only know the changes made through this node. For read-your-writes across nodes, a
+ * request also carries the time of its client's newest change (see {@link #getClientChangedAt()}), which changes
+ * made by the request itself move forward.
+ */
+@Service
+public class AccountVersionServiceImpl implements AccountVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountVersionServiceImpl.class);
+
+    private final AccountChangeDao accountChangeDao;
+    private volatile long allChangedAt;
+    // Entries are only created on the first change, so lookups for unknown users do not grow the map
+    private final ConcurrentHashMap<String, Long> changedAt = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> clientChangedAt = new ThreadLocal<>();
+
+    @Autowired
+    public AccountVersionServiceImpl(AccountChangeDao accountChangeDao) {
+        this.accountChangeDao = accountChangeDao;
+    }
+
+    @Override
+    public long getVersion(String userIdentifier) {
+        return accountChangeDao.getCurrentVersionByUserIdentifier(userIdentifier);
+    }
+
+    @Override
+    public void markChanged(String userIdentifier) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordChange(userIdentifier);
+                }
+            });
+        } else {
+            recordChange(userIdentifier);
+        }
+    }
+
+    private void recordChange(String userIdentifier) {
+        long now = System.currentTimeMillis();
+        changedAt.put(userIdentifier, now);
+        setClientChangedAt(now);
+        logger.debug("Account state of {} changed", userIdentifier);
+    }
+
+    @Override
+    public void markAllChanged() {
+        allChangedAt = System.currentTimeMillis();
+        logger.info("Account state of all users changed");
+    }
+
+    @Override
+    public boolean changedWithin(String userIdentifier, long millis) {
+        Long changed = changedAt.get(userIdentifier);
+        long now = System.currentTimeMillis();
+        return (changed != null && now - changed < millis) || now - allChangedAt < millis;
+    }
+
+    @Override
+    public void setClientChangedAt(long changedAtMillis) {
+        if (changedAtMillis > getClientChangedAt()) {
+            clientChangedAt.set(changedAtMillis);
+        }
+    }
+
+    @Override
+    public long getClientChangedAt() {
+        Long changed = clientChangedAt.get();
+        return changed != null ? changed : 0L;
+    }
+
+    @Override
+    public void clearClientChangedAt() {
+        clientChangedAt.remove();
+    }
+
+    @Override
+    public String getETag(String userIdentifier) {
+        return "\"" + getVersion(userIdentifier) + "\"";
+    }
+}
@@ -0,0 +1,130 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.BackfillProgress;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The daemon threads of a service's background jobs and the progress of its current or last job, of which there is
+ * one at a time. The static part of the job is guarded by the tracker; the counters are updated by the worker threads
+ * and read live, so reading the progress never waits for a chunk.
+ */
+final class BackgroundJobTracker {
+
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger completedChunks = new AtomicInteger();
+    private final AtomicInteger failedChunks = new AtomicInteger();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private BackfillProgress job;
+    private volatile String lastError;
+
+    /**
+     * @param threadName The name of the worker thread, suffixed with its number if there are several.
+     * @param threads    The number of worker threads.
+     */
+    BackgroundJobTracker(String threadName, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, threads == 1 ? threadName : threadName + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return The name of the running job, or null if no job is running.
+     */
+    synchronized String getRunningJobName() {
+        return job != null && job.isRunning() ? job.getJobName() : null;
+    }
+
+    /**
+     * Makes a new job the current one and resets the counters.
+     *
+     * @param completedChunks The chunks already done, e.g. by an earlier run that the job resumes.
+     */
+    synchronized void start(String jobName, int totalChunks, int completedChunks) {
+        BackfillProgress started = new BackfillProgress();
+        started.setJobName(jobName);
+        started.setRunning(true);
+        started.setTotalChunks(totalChunks);
+        started.setStartedAt(LocalDateTime.now());
+        this.completedChunks.set(completedChunks);
+        failedChunks.set(0);
+        rowsWritten.set(0);
+        lastError = null;
+        job = started;
+    }
+
+    void chunkCompleted(long rows) {
+        rowsWritten.addAndGet(rows);
+        completedChunks.incrementAndGet();
+    }
+
+    void chunkFailed(String error) {
+        failedChunks.incrementAndGet();
+        lastError = error;
+    }
+
+    void setLastError(String error) {
+        lastError = error;
+    }
+
+    synchronized void finish() {
+        job.setFinishedAt(LocalDateTime.now());
+        job.setRunning(false);
+    }
+
+    int getCompletedChunks() {
+        return completedChunks.get();
+    }
+
+    int getFailedChunks() {
+        return failedChunks.get();
+    }
+
+    long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /**
+     * @return A snapshot of the progress of the current or last job, or null if no job started since startup.
+     */
+    synchronized BackfillProgress getProgress() {
+        if (job == null) {
+            return null;
+        }
+        BackfillProgress progress = new BackfillProgress();
+        progress.setJobName(job.getJobName());
+        progress.setRunning(job.isRunning());
+        progress.setTotalChunks(job.getTotalChunks());
+        progress.setCompletedChunks(completedChunks.get());
+        progress.setFailedChunks(failedChunks.get());
+        progress.setRowsWritten(rowsWritten.get());
+        progress.setStartedAt(job.getStartedAt());
+        progress.setFinishedAt(job.getFinishedAt());
+        progress.setLastError(lastError);
+        return progress;
+    }
+
+    /**
+     * Interrupts the running job and waits briefly for its threads; for the owning service's shutdown.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.utils.Money;
+import com.cryptosim.trading212.utils.Price;
+import com.cryptosim.trading212.utils.Quantity;
+import com.cryptosim.trading212.utils.TradeMath;
+
+import java.math.BigDecimal;
+
+/**
+ * In-memory account and portfolio used while replaying a strategy.
+ * <p>
+ * Buys and sells follow exactly the rules of {@link TradingServiceImpl} (see {@link TradeMath}): the same
+ * rounding of cost, proceeds, quantities and average prices, the same insufficient funds/holdings checks,
+ * and realized P&L against the average purchase price. Orders that the live service would reject are
+ * refused and counted instead of throwing. Symbols are addressed by their index in the {@link TickHistory}.
+ * State and arithmetic use the fixed-point {@link Money}, {@link Quantity} and {@link Price} types. Like the live
+ * service, cost, proceeds and averages are computed from the quantities and amounts the strategy passes and rounded
+ * once; only the quantities kept in positions are rounded down to the crypto scale.
+ * <p>
+ * This class is not thread-safe; every replay owns its account.
+ */
+public class BacktestAccount {
+
+    private final BigDecimal initialBalance;
+    private final Quantity[] quantities;      // Null where nothing is held
+    private final Price[] averagePrices;
+    private final long[] lastPrices;          // Scaled by 10^8; 0 before the first tick of a symbol
+    private Money balance;
+    private Money realizedProfitLoss = Money.ZERO;
+    private int tradeCount;
+    private int rejectedTradeCount;
+
+    public BacktestAccount(int symbolCount, BigDecimal initialBalance) {
+        this.initialBalance = initialBalance;
+        this.balance = Money.of(initialBalance);
+        this.quantities = new Quantity[symbolCount];
+        this.averagePrices = new Price[symbolCount];
+        this.lastPrices = new long[symbolCount];
+    }
+
+    void updatePrice(int symbolIndex, long priceUnits) {
+        lastPrices[symbolIndex] = priceUnits;
+    }
+
+    /**
+     * @return The latest price of a symbol scaled by 10^8, or 0 if it has not ticked yet.
+     */
+    public long getPriceUnits(int symbolIndex) {
+        return lastPrices[symbolIndex];
+    }
+
+    public BigDecimal getPrice(int symbolIndex) {
+        return BigDecimal.valueOf(lastPrices[symbolIndex], TradeMath.PRICE_SCALE);
+    }
+
+    /**
+     * Buys a quantity at the latest price.
+     *
+     * @return true if the buy was executed, false if it was rejected.
+     */
+    public boolean buy(int symbolIndex, BigDecimal quantity) {
+        if (quantity == null) {
+            rejectedTradeCount++;
+            return false;
+        }
+        Quantity recordedQuantity;
+        Money cost;
+        try {
+            recordedQuantity = Quantity.of(quantity);
+            cost = Money.tradeValue(quantity, getPrice(symbolIndex));
+        } catch (ArithmeticException e) {
+            rejectedTradeCount++;
+            return false;
+        }
+        if (recordedQuantity.signum() <= 0 || lastPrices[symbolIndex] == 0 || balance.compareTo(cost) < 0) {
+            rejectedTradeCount++;
+            return false;
+        }
+        balance = balance.minus(cost);
+        Quantity held = quantities[symbolIndex];
+        if (held != null) {
+            averagePrices[symbolIndex] = Price.averageAfterBuy(held, averagePrices[symbolIndex], quantity, getPrice(symbolIndex));
+            quantities[symbolIndex] = held.plus(recordedQuantity);
+        } else {
+            quantities[symbolIndex] = recordedQuantity;
+            averagePrices[symbolIndex] = Price.ofUnits(lastPrices[symbolIndex]);
+        }
+        tradeCount++;
+        return true;
+    }
+
+    /**
+     * Spends (at most) a fiat amount at the latest price, like a recurring plan purchase.
+     *
+     * @return true if the buy was executed, false if it was rejected.
+     */
+    public boolean buyForAmount(int symbolIndex, BigDecimal fiatAmount) {
+        if (fiatAmount == null || fiatAmount.signum() <= 0 || lastPrices[symbolIndex] == 0) {
+            rejectedTradeCount++;
+            return false;
+        }
+        Quantity quantity;
+        try {
+            quantity = Quantity.forAmount(fiatAmount, getPrice(symbolIndex));
+        } catch (ArithmeticException e) {
+            rejectedTradeCount++;
+            return false;
+        }
+        return buy(symbolIndex, quantity.toBigDecimal());
+    }
+
+    /**
+     * Sells a quantity at the latest price.
+     *
+     * @return true if the sell was executed, false if it was rejected.
+     */
+    public boolean sell(int symbolIndex, BigDecimal quantity) {
+        if (quantity == null) {
+            rejectedTradeCount++;
+            return false;
+        }
+        Quantity held = quantities[symbolIndex];
+        if (held == null || held.toBigDecimal().compareTo(quantity) < 0 || Quantity.of(quantity).signum() <= 0
+                || lastPrices[symbolIndex] == 0) {
+            rejectedTradeCount++;
+            return false;
+        }
+        // The held quantity bounds the sold one, so none of these overflows
+        Money proceeds = Money.tradeValue(quantity, getPrice(symbolIndex));
+        realizedProfitLoss = realizedProfitLoss.plus(proceeds.minus(Money.tradeValue(quantity, averagePrices[symbolIndex].toBigDecimal())));
+        balance = balance.plus(proceeds);
+        Quantity remaining = held.minus(quantity);
+        if (remaining.signum() <= 0) {
+            quantities[symbolIndex] = null;
+            averagePrices[symbolIndex] = null;
+        } else {
+            quantities[symbolIndex] = remaining;
+        }
+        tradeCount++;
+        return true;
+    }
+
+    /**
+     * Sells the whole position of a symbol, if any.
+     *
+     * @return true if a position was sold.
+     */
+    public boolean sellAll(int symbolIndex) {
+        return quantities[symbolIndex] != null && sell(symbolIndex, quantities[symbolIndex].toBigDecimal());
+    }
+
+    public BigDecimal getQuantity(int symbolIndex) {
+        return quantities[symbolIndex] != null ? quantities[symbolIndex].toBigDecimal() : BigDecimal.ZERO;
+    }
+
+    /**
+     * @return The market value of a position at the latest price.
+     */
+    public BigDecimal getPositionValue(int symbolIndex) {
+        return quantities[symbolIndex] != null ? positionValue(symbolIndex).toBigDecimal() : BigDecimal.ZERO;
+    }
+
+    private Money positionValue(int symbolIndex) {
+        return quantities[symbolIndex].times(Price.ofUnits(lastPrices[symbolIndex]));
+    }
+
+    /**
+     * @return The balance plus the market value of all positions.
+     */
+    public BigDecimal getEquity() {
+        Money equity = balance;
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] != null) {
+                equity = equity.plus(positionValue(i));
+            }
+        }
+        return equity.toBigDecimal();
+    }
+
+    public BigDecimal getInitialBalance() {
+        return initialBalance;
+    }
+
+    public BigDecimal getBalance() {
+        return balance.toBigDecimal();
+    }
+
+    public BigDecimal getRealizedProfitLoss() {
+        return realizedProfitLoss.toBigDecimal();
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    public int getRejectedTradeCount() {
+        return rejectedTradeCount;
+    }
+}
@@ -0,0 +1,179 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.BacktestResult;
+import com.cryptosim.trading212.models.BacktestStrategyType;
+import com.cryptosim.trading212.services.contracts.BacktestStrategy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays strategies over a shared, read-only {@link TickHistory} on a fork-join pool.
+ * <p>
+ * A replay is inherently sequential (every decision depends on the previous ones), so the parallelism is
+ * across strategies: the set of replays is split recursively and idle workers steal the halves. Each replay
+ * walks the primitive tick arrays, updates its own {@link BacktestAccount} and samples the equity at a fixed
+ * interval; BigDecimal arithmetic only happens on trades and samples.
+ */
+public class BacktestEngine {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int PERCENT_SCALE = 4;
+
+    private final ForkJoinPool pool;
+
+    public BacktestEngine(int parallelism) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("backtest-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * A strategy instance to replay, with the label and type reported in its result.
+     */
+    public static final class Run {
+        private final String name;
+        private final BacktestStrategyType type;
+        private final BacktestStrategy strategy;
+
+        public Run(String name, BacktestStrategyType type, BacktestStrategy strategy) {
+            this.name = name;
+            this.type = type;
+            this.strategy = strategy;
+        }
+    }
+
+    /**
+     * Replays all runs in parallel and blocks until they are done.
+     *
+     * @param history              The ticks to replay.
+     * @param runs                 The strategies; each must be a fresh instance.
+     * @param initialBalance       Starting balance of every run.
+     * @param equityIntervalMillis Sampling interval of the equity curves.
+     * @return One result per run, in the order of the runs.
+     */
+    public List<BacktestResult> run(TickHistory history, List<Run> runs, BigDecimal initialBalance, long equityIntervalMillis) {
+        BacktestResult[] results = new BacktestResult[runs.size()];
+        if (!runs.isEmpty()) {
+            pool.invoke(new ReplayTask(history, runs, initialBalance, equityIntervalMillis, results, 0, runs.size()));
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    private static final class ReplayTask extends RecursiveAction {
+        private final TickHistory history;
+        private final List<Run> runs;
+        private final BigDecimal initialBalance;
+        private final long equityIntervalMillis;
+        private final BacktestResult[] results;
+        private final int from;
+        private final int to;
+
+        private ReplayTask(TickHistory history, List<Run> runs, BigDecimal initialBalance, long equityIntervalMillis,
+                           BacktestResult[] results, int from, int to) {
+            this.history = history;
+            this.runs = runs;
+            this.initialBalance = initialBalance;
+            this.equityIntervalMillis = equityIntervalMillis;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = replay(history, runs.get(from), initialBalance, equityIntervalMillis);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ReplayTask(history, runs, initialBalance, equityIntervalMillis, results, from, middle),
+                    new ReplayTask(history, runs, initialBalance, equityIntervalMillis, results, middle, to));
+        }
+    }
+
+    static BacktestResult replay(TickHistory history, Run run, BigDecimal initialBalance, long equityIntervalMillis) {
+        long startedAt = System.nanoTime();
+        BacktestAccount account = new BacktestAccount(history.getSymbols().size(), initialBalance);
+        BacktestStrategy strategy = run.strategy;
+        List<Long> equityTimestamps = new ArrayList<>();
+        List<BigDecimal> equityValues = new ArrayList<>();
+        EquityStats stats = new EquityStats(initialBalance);
+
+        long nextSampleAt = Long.MIN_VALUE;
+        int size = history.size();
+        for (int tick = 0; tick < size; tick++) {
+            long timestamp = history.timestamp(tick);
+            int symbolIndex = history.symbolIndex(tick);
+            long price = history.price(tick);
+            account.updatePrice(symbolIndex, price);
+            strategy.onTick(symbolIndex, timestamp, price, account);
+            if (timestamp >= nextSampleAt) {
+                BigDecimal equity = account.getEquity();
+                equityTimestamps.add(timestamp);
+                equityValues.add(equity);
+                stats.add(equity);
+                nextSampleAt = (timestamp / equityIntervalMillis + 1) * equityIntervalMillis;
+            }
+        }
+        BigDecimal finalEquity = account.getEquity();
+        if (size > 0 && equityTimestamps.get(equityTimestamps.size() - 1) != history.timestamp(size - 1)) {
+            equityTimestamps.add(history.timestamp(size - 1));
+            equityValues.add(finalEquity);
+            stats.add(finalEquity);
+        }
+
+        BacktestResult result = new BacktestResult();
+        result.setName(run.name);
+        result.setType(run.type);
+        result.setFinalEquity(finalEquity);
+        result.setTotalReturnPercent(initialBalance.signum() > 0
+                ? finalEquity.subtract(initialBalance).multiply(HUNDRED).divide(initialBalance, PERCENT_SCALE, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        result.setMaxDrawdownPercent(stats.maxDrawdownPercent);
+        result.setRealizedProfitLoss(account.getRealizedProfitLoss());
+        result.setTradeCount(account.getTradeCount());
+        result.setRejectedTradeCount(account.getRejectedTradeCount());
+        result.setEquityTimestamps(equityTimestamps);
+        result.setEquityValues(equityValues);
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return result;
+    }
+
+    // Running peak and largest peak-to-trough decline of the sampled equity
+    private static final class EquityStats {
+        private BigDecimal peak;
+        private BigDecimal maxDrawdownPercent = BigDecimal.ZERO;
+
+        private EquityStats(BigDecimal initialEquity) {
+            this.peak = initialEquity;
+        }
+
+        private void add(BigDecimal equity) {
+            if (equity.compareTo(peak) > 0) {
+                peak = equity;
+            } else if (peak.signum() > 0) {
+                BigDecimal drawdown = peak.subtract(equity).multiply(HUNDRED).divide(peak, PERCENT_SCALE, RoundingMode.HALF_UP);
+                if (drawdown.compareTo(maxDrawdownPercent) > 0) {
+                    maxDrawdownPercent = drawdown;
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
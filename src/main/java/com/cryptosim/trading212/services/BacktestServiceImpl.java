@@ -0,0 +1,168 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.BacktestRequest;
+import com.cryptosim.trading212.dtos.BacktestResponse;
+import com.cryptosim.trading212.dtos.BacktestResult;
+import com.cryptosim.trading212.dtos.BacktestStrategySpec;
+import com.cryptosim.trading212.services.contracts.BacktestService;
+import com.cryptosim.trading212.services.contracts.BacktestStrategy;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for backtests.
+ * <p>
+ * The recorded history of the requested range is loaded once, conflated to the requested bar size, and shared
+ * read-only by all strategies of the request, which are replayed in parallel by the {@link BacktestEngine}.
+ * At the default one-minute resolution a year of all subscribed symbols is about 12 million ticks (~240 MB);
+ * the history size is capped so a request cannot exhaust the heap.
+ */
+@Service
+public class BacktestServiceImpl implements BacktestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacktestServiceImpl.class);
+
+    private static final int DEFAULT_RESOLUTION_SECONDS = 60;
+    private static final int DEFAULT_EQUITY_INTERVAL_MINUTES = 60;
+    private static final BigDecimal DEFAULT_INITIAL_BALANCE = new BigDecimal("10000.00");
+    private static final long MAX_RANGE_DAYS = 366;
+    private static final int MAX_STRATEGIES = 256;
+    private static final int MAX_HISTORY_TICKS = 20_000_000;
+    private static final int MAX_MOVING_AVERAGE_WINDOW = 100_000;
+
+    private final TickRecorder tickRecorder;
+    private final BacktestEngine backtestEngine;
+
+    @Autowired
+    public BacktestServiceImpl(TickRecorder tickRecorder) {
+        this.tickRecorder = tickRecorder;
+        this.backtestEngine = new BacktestEngine(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public BacktestResponse runBacktest(BacktestRequest request) {
+        LocalDate from = request.getFrom();
+        LocalDate to = request.getTo();
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range: 'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Backtest range must not exceed " + MAX_RANGE_DAYS + " days.");
+        }
+        List<BacktestStrategySpec> specs = request.getStrategies();
+        if (specs == null || specs.isEmpty() || specs.size() > MAX_STRATEGIES) {
+            throw new IllegalArgumentException("A backtest needs between 1 and " + MAX_STRATEGIES + " strategies.");
+        }
+        int resolutionSeconds = request.getResolutionSeconds() != null ? request.getResolutionSeconds() : DEFAULT_RESOLUTION_SECONDS;
+        int equityIntervalMinutes = request.getEquityIntervalMinutes() != null ? request.getEquityIntervalMinutes() : DEFAULT_EQUITY_INTERVAL_MINUTES;
+        BigDecimal initialBalance = request.getInitialBalance() != null ? request.getInitialBalance() : DEFAULT_INITIAL_BALANCE;
+        if (resolutionSeconds <= 0 || equityIntervalMinutes <= 0) {
+            throw new IllegalArgumentException("Resolution and equity interval must be positive.");
+        }
+        if (initialBalance.signum() <= 0) {
+            throw new IllegalArgumentException("Initial balance must be positive.");
+        }
+
+        long loadStartedAt = System.nanoTime();
+        TickHistory history = tickRecorder.loadHistory(from, to, resolutionSeconds * 1000L, MAX_HISTORY_TICKS);
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStartedAt);
+        logger.info("Loaded {} ticks of {} symbols for {}..{} at {}s resolution in {} ms",
+                history.size(), history.getSymbols().size(), from, to, resolutionSeconds, loadMillis);
+
+        List<BacktestEngine.Run> runs = new ArrayList<>(specs.size());
+        for (BacktestStrategySpec spec : specs) {
+            runs.add(new BacktestEngine.Run(nameOf(spec), spec.getType(), createStrategy(spec, history)));
+        }
+
+        long replayStartedAt = System.nanoTime();
+        List<BacktestResult> results = backtestEngine.run(history, runs, initialBalance, equityIntervalMinutes * 60_000L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - replayStartedAt);
+        logger.info("Replayed {} strategies over {} ticks in {} ms", runs.size(), history.size(), elapsedMillis);
+
+        BacktestResponse response = new BacktestResponse();
+        response.setFrom(from);
+        response.setTo(to);
+        response.setResolutionSeconds(resolutionSeconds);
+        response.setSymbols(history.getSymbols());
+        response.setTickCount(history.size());
+        response.setLoadMillis(loadMillis);
+        response.setElapsedMillis(elapsedMillis);
+        response.setResults(results);
+        return response;
+    }
+
+    private BacktestStrategy createStrategy(BacktestStrategySpec spec, TickHistory history) {
+        if (spec.getType() == null) {
+            throw new IllegalArgumentException("Strategy type is required (MOVING_AVERAGE_CROSSOVER or REBALANCE).");
+        }
+        List<String> symbols = spec.getSymbols();
+        if (symbols == null || symbols.isEmpty()) {
+            throw new IllegalArgumentException("Strategy " + nameOf(spec) + " needs at least one symbol.");
+        }
+        int[] symbolIndexes = new int[symbols.size()];
+        for (int i = 0; i < symbols.size(); i++) {
+            symbolIndexes[i] = history.indexOf(symbols.get(i));
+            if (symbolIndexes[i] < 0) {
+                throw new IllegalArgumentException("No recorded ticks for " + symbols.get(i) + " in the requested range.");
+            }
+        }
+        Map<String, BigDecimal> parameters = spec.getParameters() != null ? spec.getParameters() : Collections.emptyMap();
+
+        switch (spec.getType()) {
+            case MOVING_AVERAGE_CROSSOVER:
+                int shortWindow = intParameter(parameters, "shortWindow");
+                int longWindow = intParameter(parameters, "longWindow");
+                if (longWindow > MAX_MOVING_AVERAGE_WINDOW) {
+                    throw new IllegalArgumentException("longWindow must not exceed " + MAX_MOVING_AVERAGE_WINDOW + ".");
+                }
+                return new MovingAverageCrossoverStrategy(symbolIndexes[0], shortWindow, longWindow,
+                        parameters.getOrDefault("allocation", BigDecimal.ONE));
+            case REBALANCE:
+                List<BigDecimal> weights = spec.getWeights();
+                if (weights == null || weights.size() != symbols.size()) {
+                    throw new IllegalArgumentException("Strategy " + nameOf(spec) + " needs one weight per symbol.");
+                }
+                long intervalMillis = intParameter(parameters, "intervalMinutes") * 60_000L;
+                BigDecimal threshold = parameters.getOrDefault("thresholdPercent", BigDecimal.ZERO).movePointLeft(2);
+                return new RebalancingStrategy(symbolIndexes, weights.toArray(new BigDecimal[0]), intervalMillis, threshold);
+            default:
+                throw new IllegalArgumentException("Unsupported strategy type: " + spec.getType());
+        }
+    }
+
+    private static int intParameter(Map<String, BigDecimal> parameters, String name) {
+        BigDecimal value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing strategy parameter: " + name);
+        }
+        try {
+            return value.intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Strategy parameter " + name + " must be a whole number.");
+        }
+    }
+
+    private static String nameOf(BacktestStrategySpec spec) {
+        if (spec.getName() != null && !spec.getName().isBlank()) {
+            return spec.getName();
+        }
+        return spec.getType() + " " + spec.getSymbols() + (spec.getParameters() != null ? " " + spec.getParameters() : "");
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        backtestEngine.shutdown();
+    }
+}
@@ -0,0 +1,716 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.FeedLeaseDao;
+import com.cryptosim.trading212.dtos.FeedStats;
+import com.cryptosim.trading212.dtos.TickListenerStats;
+import com.cryptosim.trading212.dtos.VenueStats;
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import com.cryptosim.trading212.models.FeedLease;
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Market data source for several application nodes sharing one database: only one node, the feed leader,
+ * connects to Kraken, and it relays its quotes to the other nodes.
+ * <p>
+ * Enabled with {@code market-data.source=cluster}. The nodes compete for a lease in the {@code feed_leases}
+ * table. The holder runs its own {@link KrakenDataServiceImpl} and sends every consolidated quote that changed
+ * to its followers over TCP, in binary batches every {@value #RELAY_BATCH_MILLIS} ms (see
+ * {@link PriceRelayProtocol}), plus the age of every price once a second. If the leader stops renewing its lease,
+ * another node takes it over when it expires, within {@value #LEASE_TTL_MILLIS} ms plus one renewal interval, and
+ * the followers reconnect to the new leader. A leader that cannot renew its lease steps down before the lease can
+ * expire, so two nodes never lead at once.
+ * <p>
+ * Every node, the leader included, serves prices from the same mirror of the leader's quotes, so all nodes price
+ * trades off the same quotes. Quote sequences carry the lease epoch in their upper bits and therefore keep
+ * increasing across failovers. Price ages are measured from when a node last received confirmation of a price,
+ * so a follower's prices age once its leader goes silent and trades are refused rather than priced stale.
+ * <p>
+ * Followers forward their subscriptions to the leader, which subscribes the union of every node's symbols.
+ */
+@Service
+@ConditionalOnProperty(name = "market-data.source", havingValue = "cluster")
+public class ClusteredMarketDataServiceImpl implements KrakenDataService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusteredMarketDataServiceImpl.class);
+    private static final String LEASE_NAME = "price-feed";
+    // Failover completes well within the freshness limit of trades (QuoteFreshness)
+    private static final long LEASE_TTL_MILLIS = 6000;
+    private static final long LEASE_RENEW_MILLIS = 2000;
+    private static final long RELAY_BATCH_MILLIS = 10;
+    private static final long RELAY_HEARTBEAT_MILLIS = 1000;
+    // Several missed heartbeats; the follower then looks the leader up again
+    private static final int FOLLOWER_READ_TIMEOUT_MILLIS = 5000;
+    private static final long FOLLOWER_RETRY_MILLIS = 1000;
+    private static final int SEQUENCE_BITS = 40; // Lower bits of a relayed sequence: the leader's own sequence
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final FeedLeaseDao feedLeaseDao;
+    private final String nodeId;
+    private final String endpoint;
+    private final int relayPort;
+    private final List<String> symbols;
+    private final Map<String, Integer> slots;
+    private final AtomicReferenceArray<ConsolidatedQuote> quotes;
+    private final AtomicLongArray confirmedAt; // Per slot, epoch milliseconds of this node's clock
+    private final TickBus tickBus = new TickBus();
+    private final Set<String> requestedSymbols = ConcurrentHashMap.newKeySet(); // This node's own subscriptions
+    private final ScheduledExecutorService leaseExecutor;
+    private final AtomicLong quotesApplied = new AtomicLong();
+    private final AtomicLong leaderChanges = new AtomicLong();
+    private final Object leaderConnectionLock = new Object();
+    private volatile LeaderTerm term; // Non-null while this node leads the feed
+    private volatile boolean running;
+    private Thread followerThread;
+
+    // Connection to the leader while following; guarded by leaderConnectionLock
+    private Socket leaderSocket;
+    private DataOutputStream leaderOut;
+    private PriceRelayProtocol.Hello leaderHello;
+    private volatile long lastLeaderFrameAt;
+
+    @Autowired
+    public ClusteredMarketDataServiceImpl(FeedLeaseDao feedLeaseDao,
+                                          @Value("${market-data.cluster.node-id:}") String nodeId,
+                                          @Value("${market-data.cluster.relay-host:}") String relayHost,
+                                          @Value("${market-data.cluster.relay-port:9212}") int relayPort) {
+        this.feedLeaseDao = feedLeaseDao;
+        String host = relayHost.isBlank() ? localHostName() : relayHost;
+        this.nodeId = nodeId.isBlank() ? host + "-" + ProcessHandle.current().pid() : nodeId;
+        this.endpoint = host + ":" + relayPort;
+        this.relayPort = relayPort;
+        this.symbols = KrakenPriceVenue.KRAKEN_AVAILABLE_SYMBOLS;
+        Map<String, Integer> slotMap = new HashMap<>();
+        for (int i = 0; i < symbols.size(); i++) {
+            slotMap.put(symbols.get(i), i);
+        }
+        this.slots = Map.copyOf(slotMap);
+        this.quotes = new AtomicReferenceArray<>(symbols.size());
+        this.confirmedAt = new AtomicLongArray(symbols.size());
+        this.leaseExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "feed-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    @PostConstruct
+    private void init() {
+        connect();
+    }
+
+    /**
+     * Starts competing for the feed lease and following the current leader. Later calls do nothing.
+     */
+    @Override
+    public void connect() {
+        if (running) {
+            return;
+        }
+        running = true;
+        logger.info("Joining the price feed cluster as {} (relay endpoint {})", nodeId, endpoint);
+        followerThread = new Thread(this::followLoop, "price-relay-follower");
+        followerThread.setDaemon(true);
+        followerThread.start();
+        leaseExecutor.scheduleWithFixedDelay(this::checkLease, 0, LEASE_RENEW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkLease() {
+        long now = System.currentTimeMillis(); // Before the query, so the lease is known to last at least until now + TTL
+        LeaderTerm current = term;
+        try {
+            if (current != null) {
+                if (feedLeaseDao.renew(LEASE_NAME, nodeId, current.epoch, LEASE_TTL_MILLIS)) {
+                    current.renewedAt = now;
+                } else {
+                    logger.warn("Lost the price feed lease of epoch {} to another node", current.epoch);
+                    stepDown(current);
+                }
+            } else {
+                Optional<FeedLease> lease = feedLeaseDao.tryAcquire(LEASE_NAME, nodeId, endpoint, LEASE_TTL_MILLIS);
+                if (lease.isPresent()) {
+                    becomeLeader(lease.get(), now);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Price feed lease check failed", e);
+        }
+    }
+
+    private synchronized void becomeLeader(FeedLease lease, long renewedAt) {
+        if (!running || term != null) {
+            return;
+        }
+        closeLeaderConnection();
+        try {
+            LeaderTerm started = new LeaderTerm(lease.getEpoch(), renewedAt);
+            term = started;
+            started.addInterest(this, requestedSymbols); // After publishing the term; see subscribe()
+            leaderChanges.incrementAndGet();
+            logger.info("Leading the price feed with epoch {}, relaying on {}", lease.getEpoch(), endpoint);
+        } catch (IOException e) {
+            logger.error("Could not start the price relay on port {}; giving up the feed lease", relayPort, e);
+            feedLeaseDao.release(LEASE_NAME, nodeId, lease.getEpoch());
+        }
+    }
+
+    private synchronized void stepDown(LeaderTerm leaderTerm) {
+        if (term != leaderTerm) {
+            return;
+        }
+        term = null;
+        logger.info("Stepping down as price feed leader of epoch {}", leaderTerm.epoch);
+        leaderTerm.close();
+    }
+
+    /**
+     * One period of leadership: the local feed, the relay and the interest of every node in each symbol.
+     */
+    private final class LeaderTerm implements TickListener, PriceRelayServer.Handler {
+        private final long epoch;
+        private final KrakenDataServiceImpl feed;
+        private final PriceRelayServer relay;
+        private final PriceRelayProtocol.Hello hello;
+        private final ScheduledExecutorService relayExecutor;
+        private final AtomicIntegerArray changed; // Per slot, 1 if the quote changed since the last batch
+        private final Map<String, Set<Object>> interest = new HashMap<>(); // Guarded by itself
+        private volatile long renewedAt;
+        private volatile boolean closed;
+
+        private LeaderTerm(long epoch, long renewedAt) throws IOException {
+            this.epoch = epoch;
+            this.renewedAt = renewedAt;
+            this.changed = new AtomicIntegerArray(symbols.size());
+            this.feed = new KrakenDataServiceImpl(List.of(new KrakenPriceVenue()));
+            List<String> venues = new ArrayList<>();
+            for (VenueStats venue : feed.getVenueStats()) {
+                venues.add(venue.getVenue());
+            }
+            this.hello = new PriceRelayProtocol.Hello(epoch, nodeId, symbols, venues);
+            this.relay = new PriceRelayServer(relayPort, symbols, this);
+            this.relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "price-relay-sender");
+                thread.setDaemon(true);
+                return thread;
+            });
+            feed.addTickListener(this, "price-relay", null, false);
+            feed.connect();
+            relayExecutor.scheduleWithFixedDelay(this::sendBatch, RELAY_BATCH_MILLIS, RELAY_BATCH_MILLIS, TimeUnit.MILLISECONDS);
+            relayExecutor.scheduleWithFixedDelay(this::sendHeartbeat, RELAY_HEARTBEAT_MILLIS, RELAY_HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void onTick(PriceTick tick) {
+            Integer slot = slots.get(tick.getAssetSymbol());
+            ConsolidatedQuote quote = feed.getQuote(tick.getAssetSymbol());
+            if (closed || slot == null || quote == null) {
+                return;
+            }
+            ConsolidatedQuote relayed = new ConsolidatedQuote(quote.getAssetSymbol(), quote.getBestBid(), quote.getBestBidVenue(),
+                    quote.getBestAsk(), quote.getBestAskVenue(), quote.getPrice(), quote.getVenueCount(), quote.getUpdatedAt(),
+                    (epoch << SEQUENCE_BITS) | (quote.getSequence() & SEQUENCE_MASK));
+            if (install(slot, relayed, System.currentTimeMillis())) {
+                changed.set(slot, 1);
+            }
+        }
+
+        @Override
+        public void onSymbolRemoved(String assetSymbol) {
+            Integer slot = slots.get(assetSymbol);
+            if (!closed && slot != null) {
+                clear(slot);
+                changed.set(slot, 1);
+            }
+        }
+
+        private void sendBatch() {
+            try {
+                PriceRelayProtocol.QuoteBatch batch = new PriceRelayProtocol.QuoteBatch(hello.getVenues());
+                for (int slot = 0; slot < symbols.size(); slot++) {
+                    if (changed.get(slot) != 0 && changed.getAndSet(slot, 0) != 0) {
+                        batch.add(slot, quotes.get(slot));
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    relay.broadcast(batch.toFrame());
+                }
+            } catch (Exception e) {
+                logger.error("Failed to relay a quote batch", e);
+            }
+        }
+
+        private void sendHeartbeat() {
+            long now = System.currentTimeMillis();
+            if (now - renewedAt > LEASE_TTL_MILLIS - LEASE_RENEW_MILLIS) {
+                logger.warn("Price feed lease of epoch {} could not be renewed for {} ms", epoch, now - renewedAt);
+                leaseExecutor.execute(() -> stepDown(this)); // Not on this thread, which close() interrupts
+                return;
+            }
+            try {
+                relay.broadcast(heartbeat(now));
+            } catch (Exception e) {
+                logger.error("Failed to relay price ages", e);
+            }
+        }
+
+        // Also refreshes the confirmation times of this node's own mirror
+        private byte[] heartbeat(long now) {
+            int[] indexes = new int[symbols.size()];
+            int[] ages = new int[symbols.size()];
+            int count = 0;
+            for (int slot = 0; slot < symbols.size(); slot++) {
+                long ageMillis = feed.getPriceAgeMillis(symbols.get(slot));
+                if (ageMillis >= 0 && quotes.get(slot) != null) {
+                    confirmedAt.set(slot, now - ageMillis);
+                    indexes[count] = slot;
+                    ages[count++] = (int) Math.min(ageMillis, Integer.MAX_VALUE);
+                }
+            }
+            return PriceRelayProtocol.encodeHeartbeat(indexes, ages, count);
+        }
+
+        @Override
+        public byte[] hello() {
+            return PriceRelayProtocol.encodeHello(hello);
+        }
+
+        @Override
+        public List<byte[]> snapshot() {
+            PriceRelayProtocol.QuoteBatch batch = new PriceRelayProtocol.QuoteBatch(hello.getVenues());
+            for (int slot = 0; slot < symbols.size(); slot++) {
+                ConsolidatedQuote quote = quotes.get(slot);
+                if (quote != null) {
+                    batch.add(slot, quote);
+                }
+            }
+            return List.of(batch.toFrame(), heartbeat(System.currentTimeMillis()));
+        }
+
+        @Override
+        public void onSubscribe(Object follower, List<String> assetSymbols) {
+            addInterest(follower, assetSymbols);
+        }
+
+        @Override
+        public void onUnsubscribe(Object follower, List<String> assetSymbols) {
+            removeInterest(follower, assetSymbols);
+        }
+
+        @Override
+        public void onDisconnected(Object follower) {
+            List<String> released = new ArrayList<>();
+            synchronized (interest) {
+                for (Map.Entry<String, Set<Object>> entry : interest.entrySet()) {
+                    if (entry.getValue().contains(follower)) {
+                        released.add(entry.getKey());
+                    }
+                }
+            }
+            removeInterest(follower, released);
+        }
+
+        // The feed is changed under the lock, so concurrent changes for one symbol reach it in order
+        private void addInterest(Object owner, Collection<String> assetSymbols) {
+            synchronized (interest) {
+                List<String> added = new ArrayList<>();
+                for (String symbol : assetSymbols) {
+                    Set<Object> owners = interest.computeIfAbsent(symbol, key -> new HashSet<>());
+                    if (owners.add(owner) && owners.size() == 1) {
+                        added.add(symbol);
+                    }
+                }
+                if (!added.isEmpty() && !closed) {
+                    feed.subscribe(added);
+                }
+            }
+        }
+
+        private void removeInterest(Object owner, Collection<String> assetSymbols) {
+            synchronized (interest) {
+                List<String> removed = new ArrayList<>();
+                for (String symbol : assetSymbols) {
+                    Set<Object> owners = interest.get(symbol);
+                    if (owners != null && owners.remove(owner) && owners.isEmpty()) {
+                        interest.remove(symbol);
+                        removed.add(symbol);
+                    }
+                }
+                if (!removed.isEmpty() && !closed) {
+                    feed.unsubscribe(removed);
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            relayExecutor.shutdownNow();
+            relay.close();
+            feed.removeTickListener(this);
+            feed.cleanup();
+            try {
+                feedLeaseDao.release(LEASE_NAME, nodeId, epoch);
+            } catch (Exception e) {
+                logger.warn("Could not release the price feed lease of epoch {}: {}", epoch, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Installs a quote in the mirror unless it already holds a newer one, and publishes a tick if the price changed.
+     *
+     * @return true if the quote was installed.
+     */
+    private boolean install(int slot, ConsolidatedQuote quote, long nowMillis) {
+        while (true) {
+            ConsolidatedQuote previous = quotes.get(slot);
+            if (previous != null && previous.getSequence() >= quote.getSequence()) {
+                return false; // Venue threads of the leader may deliver a symbol's quotes out of order
+            }
+            if (quotes.compareAndSet(slot, previous, quote)) {
+                confirmedAt.set(slot, nowMillis);
+                quotesApplied.incrementAndGet();
+                BigDecimal previousPrice = previous != null ? previous.getPrice() : null;
+                if (previousPrice == null || previousPrice.compareTo(quote.getPrice()) != 0) {
+                    tickBus.publish(new PriceTick(quote.getAssetSymbol(), quote.getPrice(), previousPrice, nowMillis, System.nanoTime()));
+                }
+                return true;
+            }
+        }
+    }
+
+    private void clear(int slot) {
+        if (quotes.getAndSet(slot, null) != null) {
+            tickBus.publishRemoved(symbols.get(slot));
+        }
+    }
+
+    private void followLoop() {
+        while (running) {
+            try {
+                if (term == null) {
+                    Optional<FeedLease> lease = feedLeaseDao.findLease(LEASE_NAME);
+                    if (lease.isPresent() && !lease.get().isExpired() && !nodeId.equals(lease.get().getHolder())) {
+                        follow(lease.get());
+                    }
+                }
+            } catch (Exception e) {
+                if (running && term == null) {
+                    logger.warn("Price relay from the feed leader failed: {}", e.getMessage());
+                }
+            }
+            try {
+                Thread.sleep(FOLLOWER_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void follow(FeedLease lease) throws IOException {
+        int separator = lease.getEndpoint().lastIndexOf(':');
+        String host = lease.getEndpoint().substring(0, separator);
+        int port = Integer.parseInt(lease.getEndpoint().substring(separator + 1));
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), FOLLOWER_READ_TIMEOUT_MILLIS);
+            socket.setSoTimeout(FOLLOWER_READ_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            if (in.readByte() != PriceRelayProtocol.HELLO) {
+                throw new IOException("Price relay did not open with a HELLO.");
+            }
+            PriceRelayProtocol.Hello hello = PriceRelayProtocol.readHello(in);
+            int[] localSlots = new int[hello.getSymbols().size()];
+            for (int i = 0; i < localSlots.length; i++) {
+                localSlots[i] = slots.getOrDefault(hello.getSymbols().get(i), -1);
+            }
+            synchronized (leaderConnectionLock) {
+                if (term != null) {
+                    return; // Became leader while connecting
+                }
+                leaderSocket = socket;
+                leaderOut = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                leaderHello = hello;
+            }
+            sendSubscription(PriceRelayProtocol.SUBSCRIBE, requestedSymbols);
+            leaderChanges.incrementAndGet();
+            logger.info("Following price feed leader {} of epoch {} at {}", hello.getLeaderId(), hello.getEpoch(), lease.getEndpoint());
+            while (running && term == null) {
+                byte type = in.readByte();
+                long now = System.currentTimeMillis();
+                lastLeaderFrameAt = now;
+                if (type == PriceRelayProtocol.QUOTES) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        int index = checkIndex(in.readUnsignedShort(), localSlots.length);
+                        ConsolidatedQuote quote = PriceRelayProtocol.readQuote(in, hello.getSymbols().get(index), hello.getVenues());
+                        int slot = localSlots[index];
+                        if (slot >= 0 && quote != null) {
+                            install(slot, quote, now);
+                        } else if (slot >= 0) {
+                            clear(slot);
+                        }
+                    }
+                } else if (type == PriceRelayProtocol.HEARTBEAT) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        int index = checkIndex(in.readUnsignedShort(), localSlots.length);
+                        int ageMillis = in.readInt();
+                        int slot = localSlots[index];
+                        if (slot >= 0 && quotes.get(slot) != null) {
+                            confirmedAt.set(slot, now - ageMillis); // Our clock; the leader's may differ
+                        }
+                    }
+                } else {
+                    throw new IOException("Unexpected price relay frame type " + type + ".");
+                }
+            }
+        } finally {
+            synchronized (leaderConnectionLock) {
+                if (leaderSocket == socket) {
+                    leaderSocket = null;
+                    leaderOut = null;
+                    leaderHello = null;
+                }
+            }
+            socket.close();
+        }
+    }
+
+    private static int checkIndex(int index, int size) throws IOException {
+        if (index >= size) {
+            throw new IOException("Symbol index " + index + " out of range in price relay frame.");
+        }
+        return index;
+    }
+
+    private void sendSubscription(byte type, Collection<String> assetSymbols) {
+        synchronized (leaderConnectionLock) {
+            if (leaderOut == null || assetSymbols.isEmpty()) {
+                return; // Sent in full once connected
+            }
+            List<Integer> indexes = new ArrayList<>(assetSymbols.size());
+            for (String symbol : assetSymbols) {
+                int index = leaderHello.indexOf(symbol);
+                if (index >= 0) {
+                    indexes.add(index);
+                }
+            }
+            try {
+                leaderOut.write(PriceRelayProtocol.encodeSubscription(type, indexes));
+                leaderOut.flush();
+            } catch (IOException e) {
+                logger.warn("Could not forward subscriptions to the feed leader: {}", e.getMessage()); // The reader reconnects
+            }
+        }
+    }
+
+    private void closeLeaderConnection() {
+        synchronized (leaderConnectionLock) {
+            if (leaderSocket != null) {
+                try {
+                    leaderSocket.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing the price relay connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Collection<String> assetSymbols) {
+        List<String> known = knownSymbols(assetSymbols);
+        requestedSymbols.addAll(known);
+        LeaderTerm current = term;
+        if (current != null) {
+            current.addInterest(this, known);
+        } else {
+            sendSubscription(PriceRelayProtocol.SUBSCRIBE, known);
+        }
+    }
+
+    @Override
+    public void unsubscribe(Collection<String> assetSymbols) {
+        List<String> known = knownSymbols(assetSymbols);
+        requestedSymbols.removeAll(known);
+        LeaderTerm current = term;
+        if (current != null) {
+            current.removeInterest(this, known);
+        } else {
+            sendSubscription(PriceRelayProtocol.UNSUBSCRIBE, known);
+        }
+    }
+
+    private List<String> knownSymbols(Collection<String> assetSymbols) {
+        List<String> known = new ArrayList<>(assetSymbols.size());
+        for (String symbol : assetSymbols) {
+            if (slots.containsKey(symbol)) {
+                known.add(symbol);
+            } else {
+                logger.warn("Ignoring subscription change for unknown symbol {}", symbol);
+            }
+        }
+        return known;
+    }
+
+    @Override
+    public Map<String, BigDecimal> getLatestPrices() {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (int slot = 0; slot < symbols.size(); slot++) {
+            ConsolidatedQuote quote = quotes.get(slot);
+            if (quote != null) {
+                prices.put(symbols.get(slot), quote.getPrice());
+            }
+        }
+        return prices;
+    }
+
+    @Override
+    public BigDecimal getPriceForSymbol(String assetSymbol) {
+        ConsolidatedQuote quote = getQuote(assetSymbol);
+        return quote != null ? quote.getPrice() : null;
+    }
+
+    @Override
+    public ConsolidatedQuote getQuote(String assetSymbol) {
+        Integer slot = slots.get(assetSymbol);
+        return slot != null ? quotes.get(slot) : null;
+    }
+
+    @Override
+    public long getPriceAgeMillis(String assetSymbol) {
+        Integer slot = slots.get(assetSymbol);
+        if (slot == null || quotes.get(slot) == null) {
+            return -1;
+        }
+        return Math.max(0, System.currentTimeMillis() - confirmedAt.get(slot));
+    }
+
+    @Override
+    public List<String> getAvailableSymbols() {
+        return symbols;
+    }
+
+    /**
+     * On the leader, the symbols subscribed for the whole cluster; on a follower, the symbols this node requested.
+     */
+    @Override
+    public List<String> getSubscribedSymbols() {
+        LeaderTerm current = term;
+        return current != null ? current.feed.getSubscribedSymbols() : new ArrayList<>(requestedSymbols);
+    }
+
+    @Override
+    public List<FeedStats> getFeedStats() {
+        LeaderTerm current = term;
+        if (current != null) {
+            return current.feed.getFeedStats();
+        }
+        long lastFrameAt = lastLeaderFrameAt;
+        FeedStats stats = new FeedStats();
+        synchronized (leaderConnectionLock) {
+            stats.setFeedName(leaderHello != null ? "relay:" + leaderHello.getLeaderId() : "relay");
+            stats.setConnected(leaderSocket != null);
+        }
+        stats.setSymbolCount(getLatestPrices().size());
+        stats.setTicksApplied(quotesApplied.get());
+        stats.setReconnects(leaderChanges.get());
+        stats.setLastFrameAgeMillis(lastFrameAt > 0 ? System.currentTimeMillis() - lastFrameAt : -1);
+        return List.of(stats);
+    }
+
+    @Override
+    public List<VenueStats> getVenueStats() {
+        LeaderTerm current = term;
+        if (current != null) {
+            return current.feed.getVenueStats();
+        }
+        long lastFrameAt = lastLeaderFrameAt;
+        long now = System.currentTimeMillis();
+        VenueStats stats = new VenueStats();
+        stats.setVenue("relay");
+        synchronized (leaderConnectionLock) {
+            stats.setConnected(leaderSocket != null);
+        }
+        stats.setStale(lastFrameAt == 0 || now - lastFrameAt > FOLLOWER_READ_TIMEOUT_MILLIS);
+        stats.setLastMessageAgeMillis(lastFrameAt == 0 ? -1 : Math.max(0, now - lastFrameAt));
+        stats.setSymbolsQuoted(getLatestPrices().size());
+        stats.setQuotesReceived(quotesApplied.get());
+        return List.of(stats);
+    }
+
+    @Override
+    public void addTickListener(TickListener listener, String name, Collection<String> assetSymbols, boolean isolated) {
+        tickBus.addListener(listener, name, assetSymbols, isolated);
+    }
+
+    @Override
+    public boolean removeTickListener(TickListener listener) {
+        return tickBus.removeListener(listener);
+    }
+
+    @Override
+    public List<TickListenerStats> getTickListenerStats() {
+        return tickBus.getStats();
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        running = false;
+        leaseExecutor.shutdownNow();
+        LeaderTerm current = term;
+        if (current != null) {
+            stepDown(current); // Releases the lease, so a follower takes over without waiting for it to expire
+        }
+        closeLeaderConnection();
+        if (followerThread != null) {
+            followerThread.interrupt();
+        }
+        tickBus.shutdown();
+    }
+}
@@ -0,0 +1,363 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import com.cryptosim.trading212.models.VenueQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Best bid and offer per symbol across several price venues, for a fixed catalogue of symbols, and the price
+ * trades fill at: the last traded price of the venue that reported one most recently.
+ * <p>
+ * Every venue has its own array of quotes with one slot per symbol, and every symbol has a consolidated
+ * quote slot. A venue update stores its quote and then recomputes the consolidated quote from all venues
+ * and installs it with a compare-and-set, retrying if another venue installed one in the meantime. The
+ * consolidated quote is therefore always derived from venue quotes that were current when it was installed,
+ * no venue waits for another, and readers never lock.
+ * <p>
+ * A venue's quote of a symbol is confirmed by a newer quote or by a heartbeat of the connection carrying the
+ * symbol, so when one of a venue's connections stalls only its own symbols age, however busy the venue's other
+ * connections are. A quote unconfirmed for longer than the staleness threshold is left out of the consolidation
+ * as long as a fresh quote of another venue exists; if none does, the stale quotes are still used rather than
+ * dropping the price. {@link #refresh(long)} re-consolidates every symbol whose quotes turned stale or fresh.
+ */
+public class ConsolidatedQuoteBook {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsolidatedQuoteBook.class);
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    /**
+     * Notified, on the updating thread, whenever a new consolidated quote has been installed.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * @param previous The replaced quote, or null if the symbol had none.
+         * @param current  The installed quote.
+         */
+        void onChange(ConsolidatedQuote previous, ConsolidatedQuote current);
+    }
+
+    private final List<String> symbols;
+    private final Map<String, Integer> slots;
+    private final List<String> venues;
+    private final long staleAfterMillis;
+    private final ChangeListener listener;
+    private final AtomicReferenceArray<VenueQuote>[] venueQuotes; // [venue][slot]
+    private final AtomicReferenceArray<ConsolidatedQuote> consolidated;
+    private final AtomicLongArray lastMessageAt; // Per venue, epoch milliseconds; 0 if never
+    private final AtomicLongArray[] confirmedAt; // [venue][slot], epoch milliseconds; 0 if never
+    private final LongAdder[] quotesReceived;
+    private final boolean[] staleAtLastRefresh; // Per venue; only touched by refresh()
+    private final boolean[][] quoteStaleAtLastRefresh; // [venue][slot]; only touched by refresh()
+
+    /**
+     * @param symbols          The catalogue of symbols.
+     * @param venues           The venue names; a venue is addressed by its index in this list.
+     * @param staleAfterMillis Silence after which a venue is considered stale.
+     * @param listener         Notified of every installed consolidated quote.
+     */
+    @SuppressWarnings("unchecked")
+    public ConsolidatedQuoteBook(List<String> symbols, List<String> venues, long staleAfterMillis, ChangeListener listener) {
+        this.symbols = List.copyOf(symbols);
+        Map<String, Integer> slotMap = new HashMap<>();
+        for (int i = 0; i < this.symbols.size(); i++) {
+            if (slotMap.putIfAbsent(this.symbols.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate symbol " + this.symbols.get(i) + " in quote book.");
+            }
+        }
+        this.slots = Map.copyOf(slotMap);
+        this.venues = List.copyOf(venues);
+        this.staleAfterMillis = staleAfterMillis;
+        this.listener = listener;
+        this.venueQuotes = (AtomicReferenceArray<VenueQuote>[]) new AtomicReferenceArray<?>[this.venues.size()];
+        this.confirmedAt = new AtomicLongArray[this.venues.size()];
+        this.quotesReceived = new LongAdder[this.venues.size()];
+        this.staleAtLastRefresh = new boolean[this.venues.size()];
+        this.quoteStaleAtLastRefresh = new boolean[this.venues.size()][this.symbols.size()];
+        for (int venue = 0; venue < this.venues.size(); venue++) {
+            venueQuotes[venue] = new AtomicReferenceArray<>(this.symbols.size());
+            confirmedAt[venue] = new AtomicLongArray(this.symbols.size());
+            quotesReceived[venue] = new LongAdder();
+            staleAtLastRefresh[venue] = true; // Until the venue has sent something
+            Arrays.fill(quoteStaleAtLastRefresh[venue], true);
+        }
+        this.consolidated = new AtomicReferenceArray<>(this.symbols.size());
+        this.lastMessageAt = new AtomicLongArray(this.venues.size());
+    }
+
+    /**
+     * @return The slot of the symbol, or -1 if it is not part of the catalogue.
+     */
+    public int slotOf(String symbol) {
+        Integer slot = slots.get(symbol);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Stores a venue's quote and installs the resulting consolidated quote.
+     *
+     * @param venue  Index of the venue.
+     * @param symbol The quoted symbol.
+     * @param quote  The venue's quote; its receive time also counts as a sign of life of the venue.
+     * @return The installed consolidated quote, or null if the symbol is not part of the catalogue.
+     */
+    public ConsolidatedQuote update(int venue, String symbol, VenueQuote quote) {
+        Integer slot = slots.get(symbol);
+        if (slot == null) {
+            return null;
+        }
+        venueQuotes[venue].set(slot, quote);
+        confirmedAt[venue].set(slot, quote.getReceivedAt());
+        lastMessageAt.set(venue, quote.getReceivedAt());
+        quotesReceived[venue].increment();
+        return reconsolidate(slot, quote.getReceivedAt());
+    }
+
+    /**
+     * Records a sign of life of one of a venue's connections that did not carry a quote. Since a live subscription
+     * keeps its last quote valid, it confirms the venue's quotes of the symbols on that connection.
+     *
+     * @param venue        Index of the venue.
+     * @param assetSymbols The symbols subscribed on the connection; symbols outside the catalogue are ignored.
+     */
+    public void heartbeat(int venue, Collection<String> assetSymbols, long nowMillis) {
+        for (String symbol : assetSymbols) {
+            Integer slot = slots.get(symbol);
+            if (slot != null) {
+                confirmedAt[venue].set(slot, nowMillis);
+            }
+        }
+        lastMessageAt.set(venue, nowMillis);
+    }
+
+    private ConsolidatedQuote reconsolidate(int slot, long nowMillis) {
+        while (true) {
+            // Read before the venue quotes, so a quote stored after them always makes this CAS fail
+            ConsolidatedQuote current = consolidated.get(slot);
+            ConsolidatedQuote updated = consolidate(slot, nowMillis, current != null ? current.getSequence() + 1 : 1);
+            if (consolidated.compareAndSet(slot, current, updated)) {
+                if (updated != null) {
+                    listener.onChange(current, updated);
+                }
+                return updated;
+            }
+        }
+    }
+
+    private ConsolidatedQuote consolidate(int slot, long nowMillis, long sequence) {
+        boolean anyFresh = false;
+        for (int venue = 0; venue < venues.size() && !anyFresh; venue++) {
+            anyFresh = venueQuotes[venue].get(slot) != null && !isQuoteStale(venue, slot, nowMillis);
+        }
+        BigDecimal bestBid = null;
+        BigDecimal bestAsk = null;
+        String bestBidVenue = null;
+        String bestAskVenue = null;
+        VenueQuote newest = null;
+        VenueQuote newestTrade = null;
+        int venueCount = 0;
+        for (int venue = 0; venue < venues.size(); venue++) {
+            VenueQuote quote = venueQuotes[venue].get(slot);
+            if (quote == null || (anyFresh && isQuoteStale(venue, slot, nowMillis))) {
+                continue;
+            }
+            venueCount++;
+            if (quote.getBid() != null && (bestBid == null || quote.getBid().compareTo(bestBid) > 0)) {
+                bestBid = quote.getBid();
+                bestBidVenue = venues.get(venue);
+            }
+            if (quote.getAsk() != null && (bestAsk == null || quote.getAsk().compareTo(bestAsk) < 0)) {
+                bestAsk = quote.getAsk();
+                bestAskVenue = venues.get(venue);
+            }
+            if (newest == null || quote.getReceivedAt() > newest.getReceivedAt()) {
+                newest = quote;
+            }
+            if (quote.getLast() != null && (newestTrade == null || quote.getReceivedAt() > newestTrade.getReceivedAt())) {
+                newestTrade = quote;
+            }
+        }
+        if (newest == null) {
+            return null;
+        }
+        // Trades fill at this price, so it stays the last traded price as with a single venue. The midpoint would
+        // fill buys below the best ask and sells above the best bid; it is only used by venues that report no trades.
+        BigDecimal price;
+        if (newestTrade != null) {
+            price = newestTrade.getLast();
+        } else if (bestBid != null && bestAsk != null) {
+            price = bestBid.add(bestAsk).divide(TWO); // Halving always terminates
+        } else {
+            price = bestBid != null ? bestBid : bestAsk;
+        }
+        if (price == null) {
+            return null;
+        }
+        return new ConsolidatedQuote(symbols.get(slot), bestBid, bestBidVenue, bestAsk, bestAskVenue, price, venueCount, newest.getReceivedAt(), sequence);
+    }
+
+    public ConsolidatedQuote get(String symbol) {
+        Integer slot = slots.get(symbol);
+        return slot != null ? consolidated.get(slot) : null;
+    }
+
+    public BigDecimal getPrice(String symbol) {
+        ConsolidatedQuote quote = get(symbol);
+        return quote != null ? quote.getPrice() : null;
+    }
+
+    /**
+     * Age of a symbol's price: the time since a venue quoting it last confirmed it, either with a new quote
+     * or with a heartbeat of the connection carrying the symbol. A quiet symbol on a healthy connection therefore
+     * stays fresh, while every symbol of a stalled connection ages even if the venue's other connections do not.
+     *
+     * @return The age in milliseconds, or -1 if the symbol has no price.
+     */
+    public long getPriceAgeMillis(String symbol, long nowMillis) {
+        Integer slot = slots.get(symbol);
+        ConsolidatedQuote quote = slot != null ? consolidated.get(slot) : null;
+        if (quote == null) {
+            return -1;
+        }
+        long confirmedAt = quote.getUpdatedAt();
+        for (int venue = 0; venue < venues.size(); venue++) {
+            if (venueQuotes[venue].get(slot) != null) {
+                confirmedAt = Math.max(confirmedAt, this.confirmedAt[venue].get(slot));
+            }
+        }
+        return Math.max(0, nowMillis - confirmedAt);
+    }
+
+    /**
+     * Drops the quotes of every venue for a symbol.
+     *
+     * @return The consolidated quote that was installed, or null if there was none.
+     */
+    public ConsolidatedQuote remove(String symbol) {
+        Integer slot = slots.get(symbol);
+        if (slot == null) {
+            return null;
+        }
+        for (AtomicReferenceArray<VenueQuote> quotes : venueQuotes) {
+            quotes.set(slot, null);
+        }
+        return consolidated.getAndSet(slot, null);
+    }
+
+    /**
+     * @return A new map with the consolidated price of every symbol that currently has one.
+     */
+    public Map<String, BigDecimal> snapshotPrices() {
+        Map<String, BigDecimal> snapshot = new HashMap<>();
+        for (int i = 0; i < symbols.size(); i++) {
+            ConsolidatedQuote quote = consolidated.get(i);
+            if (quote != null) {
+                snapshot.put(symbols.get(i), quote.getPrice());
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Re-consolidates every symbol whose quote of some venue turned stale or fresh since the last call.
+     * Meant to be called periodically from a single thread.
+     *
+     * @return true if the freshness of any quote changed.
+     */
+    public boolean refresh(long nowMillis) {
+        for (int venue = 0; venue < venues.size(); venue++) {
+            boolean stale = isStale(venue, nowMillis);
+            if (stale != staleAtLastRefresh[venue]) {
+                staleAtLastRefresh[venue] = stale;
+                if (stale) {
+                    logger.warn("Price venue {} is stale, its quotes are ignored where another venue quotes the symbol", venues.get(venue));
+                } else {
+                    logger.info("Price venue {} is fresh", venues.get(venue));
+                }
+            }
+        }
+        boolean changed = false;
+        int agedSymbols = 0;
+        for (int slot = 0; slot < symbols.size(); slot++) {
+            boolean slotChanged = false;
+            for (int venue = 0; venue < venues.size(); venue++) {
+                boolean stale = isQuoteStale(venue, slot, nowMillis);
+                if (stale != quoteStaleAtLastRefresh[venue][slot]) {
+                    quoteStaleAtLastRefresh[venue][slot] = stale;
+                    slotChanged = true;
+                    if (stale && venueQuotes[venue].get(slot) != null) {
+                        agedSymbols++;
+                    }
+                }
+            }
+            if (slotChanged) {
+                changed = true;
+                if (consolidated.get(slot) != null) {
+                    reconsolidate(slot, nowMillis);
+                }
+            }
+        }
+        if (agedSymbols > 0) {
+            logger.warn("{} venue quote(s) went unconfirmed for over {} ms and are ignored where another venue quotes the symbol",
+                    agedSymbols, staleAfterMillis);
+        }
+        return changed;
+    }
+
+    /**
+     * @return true if the venue as a whole has sent nothing for longer than the staleness threshold.
+     */
+    public boolean isStale(int venue, long nowMillis) {
+        long last = lastMessageAt.get(venue);
+        return last == 0 || nowMillis - last > staleAfterMillis;
+    }
+
+    private boolean isQuoteStale(int venue, int slot, long nowMillis) {
+        long last = confirmedAt[venue].get(slot);
+        return last == 0 || nowMillis - last > staleAfterMillis;
+    }
+
+    /**
+     * @return Milliseconds since the venue last sent anything, or -1 if it never did.
+     */
+    public long getLastMessageAgeMillis(int venue, long nowMillis) {
+        long last = lastMessageAt.get(venue);
+        return last == 0 ? -1 : Math.max(0, nowMillis - last);
+    }
+
+    /**
+     * @return The number of symbols the venue currently has a quote for.
+     */
+    public int getSymbolsQuoted(int venue) {
+        int count = 0;
+        for (int slot = 0; slot < symbols.size(); slot++) {
+            if (venueQuotes[venue].get(slot) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getQuotesReceived(int venue) {
+        return quotesReceived[venue].sum();
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public List<String> getVenues() {
+        return venues;
+    }
+}
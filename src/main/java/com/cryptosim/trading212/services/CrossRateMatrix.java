@@ -0,0 +1,125 @@
+package com.cryptosim.trading212.services;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dense matrix of exchange rates between a fixed set of currencies, derived from their prices in one
+ * reference currency (e.g. every subscribed {@code X/USD} pair).
+ * <p>
+ * Cell {@code (i, j)} holds the price of currency i in currency j. When the reference price of currency k
+ * changes, only row k and column k are recomputed (2n divisions), so a lookup of any base/quote
+ * combination is a single array read. Cells involving a currency without a price yet are null.
+ * <p>
+ * Updates must be serialized by the caller; lookups are lock-free and may run concurrently with an update,
+ * in which case they see either the old or the new rate of each cell.
+ */
+public class CrossRateMatrix {
+
+    private static final MathContext RATE_PRECISION = MathContext.DECIMAL64;
+
+    private final Map<String, Integer> indexes;
+    private final List<String> currencies;
+    private final int referenceIndex;
+    private final BigDecimal[] referencePrices;
+    private final AtomicReferenceArray<BigDecimal> rates;
+
+    /**
+     * @param currencies        All currencies of the matrix, including the reference currency.
+     * @param referenceCurrency The currency the updates are quoted in.
+     */
+    public CrossRateMatrix(List<String> currencies, String referenceCurrency) {
+        Map<String, Integer> indexMap = new HashMap<>();
+        for (String currency : currencies) {
+            indexMap.putIfAbsent(currency, indexMap.size());
+        }
+        if (!indexMap.containsKey(referenceCurrency)) {
+            throw new IllegalArgumentException("Reference currency " + referenceCurrency + " is not part of the matrix.");
+        }
+        String[] ordered = new String[indexMap.size()];
+        indexMap.forEach((currency, index) -> ordered[index] = currency);
+        this.indexes = Collections.unmodifiableMap(indexMap);
+        this.currencies = List.of(ordered);
+        this.referenceIndex = indexMap.get(referenceCurrency);
+        int n = ordered.length;
+        this.referencePrices = new BigDecimal[n];
+        this.rates = new AtomicReferenceArray<>(n * n);
+        referencePrices[referenceIndex] = BigDecimal.ONE;
+        for (int i = 0; i < n; i++) {
+            rates.set(i * n + i, BigDecimal.ONE);
+        }
+    }
+
+    /**
+     * Sets the price of a currency in the reference currency and recomputes its row and column.
+     *
+     * @return false if the currency is not part of the matrix or the price is not positive.
+     */
+    public boolean update(String currency, BigDecimal referencePrice) {
+        Integer boxedIndex = indexes.get(currency);
+        if (boxedIndex == null || boxedIndex == referenceIndex || referencePrice == null || referencePrice.signum() <= 0) {
+            return false;
+        }
+        int k = boxedIndex;
+        int n = referencePrices.length;
+        referencePrices[k] = referencePrice;
+        for (int j = 0; j < n; j++) {
+            BigDecimal other = referencePrices[j];
+            if (j == k || other == null) {
+                continue;
+            }
+            // The reference column keeps the exact feed price; every other cell is a derived quotient
+            rates.set(k * n + j, j == referenceIndex ? referencePrice : referencePrice.divide(other, RATE_PRECISION));
+            rates.set(j * n + k, other.divide(referencePrice, RATE_PRECISION));
+        }
+        return true;
+    }
+
+    /**
+     * Forgets the reference price of a currency, e.g. after its feed was unsubscribed. Its row and column
+     * read as unpriced until the next {@link #update(String, BigDecimal)}.
+     *
+     * @return false if the currency is not part of the matrix or is the reference currency.
+     */
+    public boolean remove(String currency) {
+        Integer boxedIndex = indexes.get(currency);
+        if (boxedIndex == null || boxedIndex == referenceIndex) {
+            return false;
+        }
+        int k = boxedIndex;
+        int n = referencePrices.length;
+        referencePrices[k] = null;
+        for (int j = 0; j < n; j++) {
+            if (j != k) {
+                rates.set(k * n + j, null);
+                rates.set(j * n + k, null);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The price of one unit of base in quote, or null if either currency is unknown or unpriced.
+     */
+    public BigDecimal getRate(String base, String quote) {
+        Integer i = indexes.get(base);
+        Integer j = indexes.get(quote);
+        if (i == null || j == null) {
+            return null;
+        }
+        return rates.get(i * referencePrices.length + j);
+    }
+
+    public boolean contains(String currency) {
+        return indexes.containsKey(currency);
+    }
+
+    public List<String> getCurrencies() {
+        return currencies;
+    }
+}
@@ -0,0 +1,115 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.services.contracts.CrossRateService;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class that keeps a {@link CrossRateMatrix} over all available {@code X/USD} pairs up to date from
+ * the price feed, so any base/quote combination (ETH/BTC, BTC/EUR, ...) is answered with a single lookup.
+ */
+@Service
+public class CrossRateServiceImpl implements CrossRateService, TickListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrossRateServiceImpl.class);
+
+    private static final String REFERENCE_CURRENCY = "USD";
+    // The matrix is n x n and every tick rewrites 2n cells, so large (synthetic) universes are truncated
+    private static final int MAX_MATRIX_CURRENCIES = 512;
+
+    private final KrakenDataService krakenDataService;
+    private final CrossRateMatrix matrix;
+    private final List<String> referenceSymbols = new ArrayList<>(); // The X/USD pairs behind the matrix
+
+    @Autowired
+    public CrossRateServiceImpl(KrakenDataService krakenDataService) {
+        this.krakenDataService = krakenDataService;
+        List<String> currencies = new ArrayList<>();
+        currencies.add(REFERENCE_CURRENCY);
+        for (String symbol : krakenDataService.getAvailableSymbols()) {
+            String[] parts = symbol.split("/");
+            if (parts.length == 2 && REFERENCE_CURRENCY.equals(parts[1])) {
+                if (currencies.size() == MAX_MATRIX_CURRENCIES) {
+                    logger.warn("Cross rates limited to the first {} currencies of the feed", MAX_MATRIX_CURRENCIES);
+                    break;
+                }
+                currencies.add(parts[0]);
+                referenceSymbols.add(symbol);
+            }
+        }
+        this.matrix = new CrossRateMatrix(currencies, REFERENCE_CURRENCY);
+    }
+
+    /**
+     * Seeds the matrix with the prices already cached and starts following the feed.
+     */
+    @PostConstruct
+    private void init() {
+        krakenDataService.addTickListener(this, "cross-rates", referenceSymbols, false);
+        for (Map.Entry<String, BigDecimal> price : krakenDataService.getLatestPrices().entrySet()) {
+            applyPrice(price.getKey(), price.getValue());
+        }
+        logger.info("Cross-rate matrix initialized for {} currencies", matrix.getCurrencies().size());
+    }
+
+    @Override
+    public void onTick(PriceTick tick) {
+        applyPrice(tick.getAssetSymbol(), tick.getPrice());
+    }
+
+    // Serialized so row/column rewrites of concurrent ticks do not interleave
+    private synchronized void applyPrice(String assetSymbol, BigDecimal price) {
+        String currency = referenceQuotedCurrency(assetSymbol);
+        if (currency != null) {
+            matrix.update(currency, price);
+        }
+    }
+
+    // An unsubscribed pair would otherwise keep serving its last rate indefinitely
+    @Override
+    public synchronized void onSymbolRemoved(String assetSymbol) {
+        String currency = referenceQuotedCurrency(assetSymbol);
+        if (currency != null) {
+            matrix.remove(currency);
+        }
+    }
+
+    private static String referenceQuotedCurrency(String assetSymbol) {
+        int separator = assetSymbol.indexOf('/');
+        if (separator > 0 && assetSymbol.startsWith(REFERENCE_CURRENCY, separator + 1)
+                && assetSymbol.length() == separator + 1 + REFERENCE_CURRENCY.length()) {
+            return assetSymbol.substring(0, separator);
+        }
+        return null;
+    }
+
+    @Override
+    public BigDecimal getRate(String base, String quote) {
+        return matrix.getRate(base, quote);
+    }
+
+    @Override
+    public BigDecimal getPriceForSymbol(String symbol) {
+        int separator = symbol.indexOf('/');
+        if (separator <= 0) {
+            return null;
+        }
+        return matrix.getRate(symbol.substring(0, separator), symbol.substring(separator + 1));
+    }
+
+    @Override
+    public List<String> getCurrencies() {
+        return matrix.getCurrencies();
+    }
+}
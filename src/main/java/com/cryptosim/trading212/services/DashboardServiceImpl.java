@@ -0,0 +1,146 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.PortfolioAssetDao;
+import com.cryptosim.trading212.daos.contracts.TransactionDao;
+import com.cryptosim.trading212.dtos.AccountDashboard;
+import com.cryptosim.trading212.dtos.PortfolioPosition;
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.PortfolioAsset;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.services.contracts.CrossRateService;
+import com.cryptosim.trading212.services.contracts.DashboardService;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Service class that assembles the dashboard page in a single request.
+ * <p>
+ * The account, portfolio and recent-transactions queries run in one read-only transaction, so they see a
+ * single snapshot of the account: the balance, the positions and the trades that produced them always agree,
+ * even while a trade of the account commits. All positions are valued against one snapshot of the price cache
+ * taken right after the queries. Valuations in another currency than USD
+ * read the position prices from the cross-rate matrix and convert the USD cost basis and balance at the
+ * current USD rate of that currency.
+ */
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+    private static final int FIAT_SCALE = 2;
+    private static final int CRYPTO_VALUE_SCALE = 8;
+    private static final String BASE_CURRENCY = "USD";
+    private static final Set<String> FIAT_CURRENCIES = Set.of("USD", "EUR", "GBP");
+    private static final int MAX_TRANSACTION_LIMIT = 500;
+
+    private final AccountDao accountDao;
+    private final PortfolioAssetDao portfolioAssetDao;
+    private final TransactionDao transactionDao;
+    private final KrakenDataService krakenDataService;
+    private final CrossRateService crossRateService;
+
+    @Autowired
+    public DashboardServiceImpl(AccountDao accountDao,
+                                PortfolioAssetDao portfolioAssetDao,
+                                TransactionDao transactionDao,
+                                KrakenDataService krakenDataService,
+                                CrossRateService crossRateService) {
+        this.accountDao = accountDao;
+        this.portfolioAssetDao = portfolioAssetDao;
+        this.transactionDao = transactionDao;
+        this.krakenDataService = krakenDataService;
+        this.crossRateService = crossRateService;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public AccountDashboard getDashboard(String userIdentifier, int transactionLimit, String valuationCurrency) {
+        if (transactionLimit < 0 || transactionLimit > MAX_TRANSACTION_LIMIT) {
+            throw new IllegalArgumentException("Transaction limit must be between 0 and " + MAX_TRANSACTION_LIMIT + ".");
+        }
+        String currency = valuationCurrency != null ? valuationCurrency.toUpperCase() : BASE_CURRENCY;
+        if (!crossRateService.getCurrencies().contains(currency)) {
+            throw new IllegalArgumentException("Unknown valuation currency: " + valuationCurrency + ". Supported: " + crossRateService.getCurrencies());
+        }
+
+        Account account = accountDao.findByUserIdentifier(userIdentifier)
+                .orElseThrow(() -> {
+                    logger.warn("Account not found for userIdentifier: {}", userIdentifier);
+                    return new NoSuchElementException("Account not found for user: " + userIdentifier);
+                });
+        List<PortfolioAsset> assets = portfolioAssetDao.findByUserIdentifier(userIdentifier);
+        List<Transaction> transactions = transactionLimit == 0
+                ? new ArrayList<>()
+                : transactionDao.findRecentByUserIdentifier(userIdentifier, transactionLimit);
+
+        Map<String, BigDecimal> prices = krakenDataService.getLatestPrices();
+        LocalDateTime pricesAsOf = LocalDateTime.now();
+
+        boolean inBaseCurrency = BASE_CURRENCY.equals(currency);
+        BigDecimal baseCurrencyRate = inBaseCurrency ? BigDecimal.ONE : crossRateService.getRate(BASE_CURRENCY, currency);
+        if (baseCurrencyRate == null) {
+            throw new NoSuchElementException("Rate for " + currency + " is not currently available.");
+        }
+        int valueScale = FIAT_CURRENCIES.contains(currency) ? FIAT_SCALE : CRYPTO_VALUE_SCALE;
+
+        BigDecimal positionsMarketValue = BigDecimal.ZERO.setScale(valueScale);
+        List<PortfolioPosition> positions = new ArrayList<>(assets.size());
+        for (PortfolioAsset asset : assets) {
+            BigDecimal currentPrice = inBaseCurrency
+                    ? prices.get(asset.getAssetSymbol())
+                    : crossRateService.getRate(baseOf(asset.getAssetSymbol()), currency);
+            PortfolioPosition position = valuePosition(asset, currentPrice, baseCurrencyRate, valueScale);
+            positionsMarketValue = positionsMarketValue.add(position.getCurrentMarketValue());
+            positions.add(position);
+        }
+
+        AccountDashboard dashboard = new AccountDashboard();
+        dashboard.setAccount(account);
+        dashboard.setPrices(prices);
+        dashboard.setPricesAsOf(pricesAsOf);
+        dashboard.setPositions(positions);
+        dashboard.setValuationCurrency(currency);
+        dashboard.setPositionsMarketValue(positionsMarketValue);
+        dashboard.setTotalEquity(account.getBalance().multiply(baseCurrencyRate).add(positionsMarketValue).setScale(valueScale, RoundingMode.HALF_UP));
+        dashboard.setRecentTransactions(transactions);
+        logger.debug("Built dashboard for user {}: {} positions, {} transactions", userIdentifier, positions.size(), transactions.size());
+        return dashboard;
+    }
+
+    private static String baseOf(String assetSymbol) {
+        int separator = assetSymbol.indexOf('/');
+        return separator > 0 ? assetSymbol.substring(0, separator) : assetSymbol;
+    }
+
+    // Prices are in the valuation currency; the USD cost basis is converted at baseCurrencyRate
+    private static PortfolioPosition valuePosition(PortfolioAsset asset, BigDecimal currentPrice, BigDecimal baseCurrencyRate, int valueScale) {
+        PortfolioPosition position = new PortfolioPosition();
+        position.setAssetSymbol(asset.getAssetSymbol());
+        position.setQuantity(asset.getQuantity());
+        position.setAveragePurchasePrice(asset.getAveragePurchasePrice());
+        position.setCurrentPrice(currentPrice);
+        if (currentPrice != null) {
+            BigDecimal marketValue = asset.getQuantity().multiply(currentPrice).setScale(valueScale, RoundingMode.HALF_UP);
+            BigDecimal costBasis = asset.getQuantity().multiply(asset.getAveragePurchasePrice()).multiply(baseCurrencyRate).setScale(valueScale, RoundingMode.HALF_UP);
+            position.setCurrentMarketValue(marketValue);
+            position.setUnrealizedProfitLoss(marketValue.subtract(costBasis));
+        } else {
+            position.setCurrentMarketValue(BigDecimal.ZERO.setScale(valueScale));
+        }
+        return position;
+    }
+}
@@ -1,66 +1,86 @@
 package com.cryptosim.trading212.services;
 
+import com.cryptosim.trading212.dtos.FeedStats;
+import com.cryptosim.trading212.dtos.TickListenerStats;
+import com.cryptosim.trading212.dtos.VenueStats;
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.models.VenueQuote;
 import com.cryptosim.trading212.services.contracts.KrakenDataService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.stream.Collectors;
+import com.cryptosim.trading212.services.contracts.PriceVenue;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import com.cryptosim.trading212.services.contracts.VenueQuoteSink;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.handshake.ServerHandshake;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Service to connect to Kraken WebSocket API and manage real-time price data.
+ * Market data service that consolidates the quotes of every {@link PriceVenue} bean into a best bid and
+ * offer per symbol.
+ * <p>
+ * Each venue delivers its quotes on its own threads into a {@link ConsolidatedQuoteBook}, which maintains the
+ * consolidated quotes without locks, so a slow or disconnected venue never holds up pricing from the others.
+ * Prices served to the rest of the application are the consolidated prices, and a tick is published whenever
+ * one changes. A venue's quote that the connection carrying it has not confirmed for {@value #STALE_VENUE_MILLIS} ms
+ * is considered stale and ignored wherever another venue quotes the same symbol.
+ * <p>
+ * By default the only venue is {@link KrakenPriceVenue}; further venues are added by declaring more
+ * {@link PriceVenue} beans. {@code market-data.source=synthetic} replaces this service with
+ * {@link SyntheticMarketDataServiceImpl}, {@code market-data.source=cluster} with {@link ClusteredMarketDataServiceImpl}.
  */
 @Service
+@ConditionalOnProperty(name = "market-data.source", havingValue = "kraken", matchIfMissing = true)
 public class KrakenDataServiceImpl implements KrakenDataService {
 
     private static final Logger logger = LoggerFactory.getLogger(KrakenDataServiceImpl.class);
-    private static final String KRAKEN_WS_API_URL = "wss://ws.kraken.com/v2";
-    private static final List<String> KRAKEN_SYMBOLS_TO_SUBSCRIBE = Arrays.asList(
-            "BTC/USD",  // Using BTC/USD directly based on "XBT/USD not supported" error
-            "ETH/USD",  // Ethereum
-            "USDT/USD", // Tether
-            "ADA/USD",  // Cardano
-            "SOL/USD",  // Solana
-            "XRP/USD",  // Ripple
-            "DOT/USD",  // Polkadot
-            "DOGE/USD", // Dogecoin
-            "LTC/USD",  // Litecoin
-            "LINK/USD", // Chainlin
-            "AVAX/USD", // Avalanche
-            "SHIB/USD", // Shiba Inu
-            "TRX/USD",  // Tron
-            "USDC/USD", // USD Coin
-            "DAI/USD",  // Dai
-            "ATOM/USD", // Cosmos
-            "UNI/USD",  // Uniswap
-            "BCH/USD",  // Bitcoin Cash
-            "ALGO/USD", // Algorand
-            "XTZ/USD",  // Tezos
-            "FIL/USD",  // Filecoin
-            "ETC/USD",  // Ethereum Classic
-            "XLM/USD"   // Stellar Lumens
-    );
-
-    private WebSocketClient webSocketClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    private final ConcurrentHashMap<String, BigDecimal> latestPrices = new ConcurrentHashMap<>();
-
-    public KrakenDataServiceImpl() {
+    // Kraken sends a heartbeat every second, so a few seconds of silence means the venue is not delivering
+    private static final long STALE_VENUE_MILLIS = 5000;
+    private static final long STALENESS_CHECK_INTERVAL_MILLIS = 1000;
 
+    private final List<PriceVenue> venues;
+    private final List<String> availableSymbols;
+    private final ConsolidatedQuoteBook quoteBook;
+    private final TickBus tickBus = new TickBus();
+    private final ScheduledExecutorService stalenessChecker;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Autowired
+    public KrakenDataServiceImpl(List<PriceVenue> venues) {
+        if (venues.isEmpty()) {
+            throw new IllegalStateException("No price venue is configured.");
+        }
+        this.venues = List.copyOf(venues);
+        Set<String> symbols = new LinkedHashSet<>();
+        List<String> venueNames = new ArrayList<>();
+        for (PriceVenue venue : this.venues) {
+            if (venueNames.contains(venue.getName())) {
+                throw new IllegalStateException("Duplicate price venue name " + venue.getName() + ".");
+            }
+            venueNames.add(venue.getName());
+            symbols.addAll(venue.getAvailableSymbols());
+        }
+        this.availableSymbols = List.copyOf(symbols);
+        this.quoteBook = new ConsolidatedQuoteBook(availableSymbols, venueNames, STALE_VENUE_MILLIS, this::publish);
+        this.stalenessChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-venue-staleness");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @PostConstruct
@@ -68,160 +88,182 @@ public class KrakenDataServiceImpl implements KrakenDataService {
         connect();
     }
 
+    /**
+     * Starts every venue and the staleness check. Venues reconnect on their own afterwards, so later calls do
+     * nothing. Also called directly by {@link ClusteredMarketDataServiceImpl}, which runs its own instance of
+     * this service while its node leads the feed.
+     */
     @Override
     public void connect() {
-        try {
-            webSocketClient = new WebSocketClient(new URI(KRAKEN_WS_API_URL)) {
-                @Override
-                public void onOpen(ServerHandshake handshakedata) {
-                    logger.info("Connected to Kraken WebSocket API. Status: {}", handshakedata.getHttpStatusMessage());
-                    subscribeToTickers();
-                }
-
-                @Override
-                public void onMessage(String message) {
-                    logger.debug("Received message from Kraken: {}", message);
-                    handleIncomingMessage(message);
-                }
-
-                @Override
-                public void onClose(int code, String reason, boolean remote) {
-                    logger.warn("Kraken WebSocket connection closed. Code: {}, Reason: {}, Remote: {}", code, reason, remote);
-                    // Implement reconnection logic if needed
-                }
-
-                @Override
-                public void onError(Exception ex) {
-                    logger.error("Error in Kraken WebSocket connection", ex);
-                }
-            };
-            logger.info("Attempting to connect to Kraken WebSocket API...");
-            webSocketClient.connect(); // Asynchronous connect
-        } catch (URISyntaxException e) {
-            logger.error("Invalid WebSocket URI: {}", KRAKEN_WS_API_URL, e);
-        } catch (Exception e) {
-            logger.error("Failed to initialize WebSocket connection", e);
-        }
-    }
-
-    private void subscribeToTickers() {
-        try {
-            Map<String, Object> params = new ConcurrentHashMap<>();
-            params.put("channel", "ticker");
-            params.put("symbol", KRAKEN_SYMBOLS_TO_SUBSCRIBE); // Using the revised list directly
-
-            Map<String, Object> subscribeMessage = new ConcurrentHashMap<>();
-            subscribeMessage.put("method", "subscribe");
-            subscribeMessage.put("params", params);
-
-            String messagePayload = objectMapper.writeValueAsString(subscribeMessage);
-            logger.info("Subscribing to tickers: {}", messagePayload);
-            if (webSocketClient != null && webSocketClient.isOpen()) {
-                webSocketClient.send(messagePayload);
-            } else {
-                logger.warn("WebSocket client not open, cannot send subscription message.");
-            }
-        } catch (JsonProcessingException e) {
-            logger.error("Error creating subscription message JSON", e);
-        } catch (Exception e) {
-            logger.error("Error sending subscription message", e);
-        }
-    }
-
-    private void handleIncomingMessage(String message) {
-        try {
-            JsonNode rootNode = objectMapper.readTree(message);
-            if (rootNode.has("method") && "subscribe".equals(rootNode.get("method").asText())) {
-                boolean success = rootNode.get("success").asBoolean(false); // Default to false if not present
-                String symbol = rootNode.has("symbol") ? rootNode.get("symbol").asText("N/A") : (rootNode.has("pair") ? rootNode.get("pair").asText("N/A") : "N/A_Subscription_Response");
-
-                if (success) {
-                    logger.info("Successfully subscribed to channel for symbol: {}", symbol);
-                } else {
-                    String errorMsg = rootNode.has("error") ? rootNode.get("error").asText("Unknown subscription error") : "Unknown subscription error";
-                    logger.error("Failed to subscribe to channel for symbol: {}. Error: {}", symbol, errorMsg);
-                }
-                return; // Processed subscription response
+        if (!started.compareAndSet(false, true)) {
+            logger.debug("Price venues already started; they reconnect on their own.");
+            return;
+        }
+        for (int i = 0; i < venues.size(); i++) {
+            logger.info("Starting price venue {}", venues.get(i).getName());
+            venues.get(i).start(new VenueChannel(i));
+        }
+        stalenessChecker.scheduleWithFixedDelay(() -> {
+            try {
+                quoteBook.refresh(System.currentTimeMillis());
+            } catch (Exception e) {
+                logger.error("Venue staleness check failed", e);
             }
+        }, STALENESS_CHECK_INTERVAL_MILLIS, STALENESS_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
 
-            // Check for heartbeat messages
-            if (rootNode.has("channel") && "heartbeat".equals(rootNode.get("channel").asText())) {
-                logger.debug("Received heartbeat from Kraken.");
-                return;
-            }
-            if (rootNode.has("channel") && "ticker".equals(rootNode.get("channel").asText()) && rootNode.has("data") && rootNode.get("data").isArray()) {
-                JsonNode dataArray = rootNode.get("data");
-                for (JsonNode tickerData : dataArray) {
-                    if (tickerData.has("symbol") && tickerData.has("last")) {
-                        String symbol = tickerData.get("symbol").asText();
-                        String lastPriceStr = tickerData.get("last").asText();
-                        try {
-                            BigDecimal price = new BigDecimal(lastPriceStr);
-                            latestPrices.put(symbol, price);
-                            logger.trace("Updated price for {}: {}", symbol, price);
-                        } catch (NumberFormatException e) {
-                            logger.error("Could not parse price '{}' for symbol {}", lastPriceStr, symbol, e);
-                        }
-                    }
-                }
-            } else if (rootNode.has("channel") && "status".equals(rootNode.get("channel").asText())) {
-                logger.info("Received status message from Kraken: {}", message);
-                // You might want to handle system status updates (online, maintenance, etc.)
+    /**
+     * Feeds the quotes of one venue into the book.
+     */
+    private final class VenueChannel implements VenueQuoteSink {
+        private final int venue;
+
+        private VenueChannel(int venue) {
+            this.venue = venue;
+        }
+
+        @Override
+        public void onQuote(String assetSymbol, VenueQuote quote) {
+            quoteBook.update(venue, assetSymbol, quote);
+        }
+
+        @Override
+        public void onHeartbeat(Collection<String> assetSymbols) {
+            quoteBook.heartbeat(venue, assetSymbols, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Called by the book, on the thread of the venue whose quote was consolidated, for every new consolidated quote.
+     */
+    private void publish(ConsolidatedQuote previous, ConsolidatedQuote current) {
+        BigDecimal previousPrice = previous != null ? previous.getPrice() : null;
+        if (previousPrice != null && previousPrice.compareTo(current.getPrice()) == 0) {
+            return; // E.g. a ticker update that only changed the volume, or a better bid on another venue
+        }
+        logger.trace("Updated price for {}: {}", current.getAssetSymbol(), current.getPrice());
+        tickBus.publish(new PriceTick(current.getAssetSymbol(), current.getPrice(), previousPrice, System.currentTimeMillis(), System.nanoTime()));
+    }
+
+    @Override
+    public void addTickListener(TickListener listener, String name, Collection<String> assetSymbols, boolean isolated) {
+        tickBus.addListener(listener, name, assetSymbols, isolated);
+    }
+
+    @Override
+    public boolean removeTickListener(TickListener listener) {
+        return tickBus.removeListener(listener);
+    }
+
+    @Override
+    public List<TickListenerStats> getTickListenerStats() {
+        return tickBus.getStats();
+    }
+
+    @Override
+    public List<String> getAvailableSymbols() {
+        return availableSymbols;
+    }
+
+    @Override
+    public List<String> getSubscribedSymbols() {
+        Set<String> subscribed = new LinkedHashSet<>();
+        for (PriceVenue venue : venues) {
+            subscribed.addAll(venue.getSubscribedSymbols());
+        }
+        return new ArrayList<>(subscribed);
+    }
+
+    @Override
+    public void subscribe(Collection<String> assetSymbols) {
+        List<String> known = knownSymbols(assetSymbols);
+        for (PriceVenue venue : venues) {
+            venue.subscribe(known);
+        }
+    }
+
+    @Override
+    public void unsubscribe(Collection<String> assetSymbols) {
+        List<String> known = knownSymbols(assetSymbols);
+        for (PriceVenue venue : venues) {
+            venue.unsubscribe(known);
+        }
+        for (String symbol : known) {
+            if (quoteBook.remove(symbol) != null) {
+                tickBus.publishRemoved(symbol);
             }
-            else {
-                logger.warn("Received unhandled message type or format from Kraken: {}", message);
+        }
+    }
+
+    private List<String> knownSymbols(Collection<String> assetSymbols) {
+        List<String> known = new ArrayList<>(assetSymbols.size());
+        for (String symbol : assetSymbols) {
+            if (quoteBook.slotOf(symbol) < 0) {
+                logger.warn("Ignoring subscription change for unknown symbol {}", symbol);
+            } else {
+                known.add(symbol);
             }
+        }
+        return known;
+    }
 
-        } catch (JsonProcessingException e) {
-            logger.error("Error parsing incoming JSON message from Kraken: {}", message, e);
-        } catch (Exception e) {
-            logger.error("Unexpected error handling incoming message: {}", message, e);
+    @Override
+    public List<FeedStats> getFeedStats() {
+        List<FeedStats> stats = new ArrayList<>();
+        for (PriceVenue venue : venues) {
+            stats.addAll(venue.getFeedStats());
         }
+        return stats;
+    }
+
+    @Override
+    public List<VenueStats> getVenueStats() {
+        long now = System.currentTimeMillis();
+        List<VenueStats> stats = new ArrayList<>(venues.size());
+        for (int i = 0; i < venues.size(); i++) {
+            VenueStats entry = new VenueStats();
+            entry.setVenue(venues.get(i).getName());
+            entry.setConnected(venues.get(i).isConnected());
+            entry.setStale(quoteBook.isStale(i, now));
+            entry.setLastMessageAgeMillis(quoteBook.getLastMessageAgeMillis(i, now));
+            entry.setSymbolsQuoted(quoteBook.getSymbolsQuoted(i));
+            entry.setQuotesReceived(quoteBook.getQuotesReceived(i));
+            stats.add(entry);
+        }
+        return stats;
     }
 
     @Override
     public Map<String, BigDecimal> getLatestPrices() {
-        return new ConcurrentHashMap<>(latestPrices);
+        return quoteBook.snapshotPrices();
     }
 
     @Override
     public BigDecimal getPriceForSymbol(String assetSymbol) {
-        return latestPrices.get(assetSymbol);
+        return quoteBook.getPrice(assetSymbol);
+    }
+
+    @Override
+    public ConsolidatedQuote getQuote(String assetSymbol) {
+        return quoteBook.get(assetSymbol);
+    }
+
+    @Override
+    public long getPriceAgeMillis(String assetSymbol) {
+        return quoteBook.getPriceAgeMillis(assetSymbol, System.currentTimeMillis());
     }
 
     @PreDestroy
     public void cleanup() {
-        if (webSocketClient != null && webSocketClient.isOpen()) {
-            logger.info("Closing Kraken WebSocket connection and unsubscribing...");
+        logger.info("Stopping price venues...");
+        stalenessChecker.shutdownNow();
+        tickBus.shutdown();
+        for (PriceVenue venue : venues) {
             try {
-                if (!KRAKEN_SYMBOLS_TO_SUBSCRIBE.isEmpty()) {
-                    Map<String, Object> params = new ConcurrentHashMap<>();
-                    params.put("channel", "ticker");
-                    params.put("symbol", KRAKEN_SYMBOLS_TO_SUBSCRIBE);
-
-                    Map<String, Object> unsubscribeMessage = new ConcurrentHashMap<>();
-                    unsubscribeMessage.put("method", "unsubscribe");
-                    unsubscribeMessage.put("params", params);
-
-                    String messagePayload = objectMapper.writeValueAsString(unsubscribeMessage);
-                    logger.info("Unsubscribing from tickers: {}", messagePayload);
-                    webSocketClient.send(messagePayload);
-                    Thread.sleep(500);
-                }
-            } catch (JsonProcessingException e) {
-                logger.error("Error creating unsubscribe message JSON during shutdown", e);
-            } catch (InterruptedException e) {
-                logger.warn("Thread interrupted during unsubscribe sleep period.", e);
-                Thread.currentThread().interrupt(); // Restore interruption status
+                venue.stop();
             } catch (Exception e) {
-                logger.error("Error sending unsubscribe message during shutdown", e);
-            } finally {
-                webSocketClient.closeConnection(1000, "Application shutting down");
-                logger.info("Kraken WebSocket connection closed command sent.");
+                logger.error("Error stopping price venue {}", venue.getName(), e);
             }
-        } else if (webSocketClient != null) {
-            logger.info("Kraken WebSocket client exists but is not open. Closing if possible.");
-            webSocketClient.closeConnection(1000, "Application shutting down - client not open");
         }
     }
 }
@@ -0,0 +1,388 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.FeedStats;
+import com.cryptosim.trading212.models.VenueQuote;
+import com.cryptosim.trading212.services.contracts.VenueQuoteSink;
+import com.cryptosim.trading212.utils.SpscRingBuffer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One WebSocket connection to the Kraken API carrying a disjoint subset of the subscribed symbols.
+ * <p>
+ * Every shard has its own socket, read thread and parser thread, so ingest capacity grows with the number
+ * of shards. The read thread does nothing but append raw frames to a preallocated {@link SpscRingBuffer};
+ * a slow consumer can therefore never back up the socket. The parser thread drains frames in batches,
+ * parses them and hands the quotes to the sink. When it falls behind, a batch holds several quotes of the
+ * same symbol and only the newest is applied. If the buffer is full, frames are dropped and counted.
+ * <p>
+ * A shard remembers its symbols and, when its connection drops, reconnects on its own with exponential
+ * backoff and resubscribes them, without affecting the other shards. A connection that stays open but
+ * stops delivering (Kraken sends a heartbeat every second while anything is subscribed) is closed by
+ * {@link #closeIfStalled(long, long)}, which leads to the same reconnect. Each connection has a new read
+ * thread, but the old one has ended by the time the reconnect is scheduled, so the buffer always has a
+ * single producer.
+ */
+public class KrakenFeedShard {
+
+    private static final Logger logger = LoggerFactory.getLogger(KrakenFeedShard.class);
+
+    // Ticker requests are split so a single message never carries an unbounded symbol list
+    private static final int TICKER_REQUEST_BATCH_SIZE = 100;
+    private static final long MIN_RECONNECT_DELAY_MILLIS = 1000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+    private static final int FRAME_BUFFER_CAPACITY = 1 << 16;
+    private static final int PARSE_BATCH_SIZE = 256;
+    private static final int IDLE_SPINS = 100;
+    private static final long IDLE_PARK_NANOS = 200_000;
+
+    private final int shardId;
+    private final URI uri;
+    private final VenueQuoteSink sink;
+    private final ScheduledExecutorService reconnectScheduler;
+    private final ObjectMapper objectMapper = new ObjectMapper(); // Per shard, so parsers share no state
+    // Symbols this shard's socket is (or, while disconnected, will be) subscribed to
+    private final Set<String> symbols = ConcurrentHashMap.newKeySet();
+    private final SpscRingBuffer<String> frames = new SpscRingBuffer<>(FRAME_BUFFER_CAPACITY);
+    private final Map<String, VenueQuote> batchQuotes = new LinkedHashMap<>(); // Parser thread only
+    private final Thread parserThread;
+
+    // Written by a single thread each, read by the stats endpoint
+    private final AtomicLong framesReceived = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+    private final AtomicLong ticksApplied = new AtomicLong();
+    private final AtomicLong ticksConflated = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong lastFrameAt = new AtomicLong(); // Epoch milliseconds; the open time until a frame arrives
+
+    private volatile WebSocketClient webSocketClient;
+    private volatile boolean stopped;
+    private long reconnectDelayMillis = MIN_RECONNECT_DELAY_MILLIS; // Only touched by this shard's callbacks
+
+    /**
+     * @param shardId            Index of the shard, used in logs.
+     * @param uri                The Kraken WebSocket endpoint.
+     * @param sink               Receives the newest quote per symbol of every parsed batch and the heartbeats,
+     *                           on the shard's parser thread.
+     * @param reconnectScheduler Runs delayed reconnect attempts.
+     */
+    public KrakenFeedShard(int shardId, URI uri, VenueQuoteSink sink, ScheduledExecutorService reconnectScheduler) {
+        this.shardId = shardId;
+        this.uri = uri;
+        this.sink = sink;
+        this.reconnectScheduler = reconnectScheduler;
+        this.parserThread = new Thread(this::parseLoop, "kraken-feed-parser-" + shardId);
+        this.parserThread.setDaemon(true);
+    }
+
+    /**
+     * Opens a new connection. Symbols subscribed in the meantime are sent once it is open.
+     */
+    public void connect() {
+        if (stopped) {
+            return;
+        }
+        if (parserThread.getState() == Thread.State.NEW) {
+            parserThread.start();
+        }
+        try {
+            WebSocketClient client = new WebSocketClient(uri) {
+                @Override
+                public void onOpen(ServerHandshake handshakedata) {
+                    logger.info("Feed shard {} connected to Kraken WebSocket API. Status: {}", shardId, handshakedata.getHttpStatusMessage());
+                    reconnectDelayMillis = MIN_RECONNECT_DELAY_MILLIS;
+                    lastFrameAt.set(System.currentTimeMillis());
+                    // Restores the shard's subscriptions after a (re)connect
+                    sendTickerRequest(this, "subscribe", new ArrayList<>(symbols));
+                }
+
+                @Override
+                public void onMessage(String message) {
+                    framesReceived.lazySet(framesReceived.get() + 1);
+                    lastFrameAt.lazySet(System.currentTimeMillis());
+                    if (!frames.offer(message)) {
+                        // Logged once per buffer's worth of drops; the counter has the exact number
+                        if (framesDropped.get() % FRAME_BUFFER_CAPACITY == 0) {
+                            logger.warn("Feed shard {} frame buffer full, dropping frames", shardId);
+                        }
+                        framesDropped.lazySet(framesDropped.get() + 1);
+                    }
+                }
+
+                @Override
+                public void onClose(int code, String reason, boolean remote) {
+                    logger.warn("Feed shard {} connection closed. Code: {}, Reason: {}, Remote: {}", shardId, code, reason, remote);
+                    scheduleReconnect();
+                }
+
+                @Override
+                public void onError(Exception ex) {
+                    logger.error("Error in feed shard {} connection", shardId, ex);
+                }
+            };
+            webSocketClient = client;
+            logger.info("Feed shard {} attempting to connect to Kraken WebSocket API...", shardId);
+            client.connect(); // Asynchronous connect
+        } catch (Exception e) {
+            logger.error("Feed shard {} failed to initialize WebSocket connection", shardId, e);
+            scheduleReconnect();
+        }
+    }
+
+    private void scheduleReconnect() {
+        if (stopped) {
+            return;
+        }
+        reconnects.incrementAndGet();
+        long delay = reconnectDelayMillis;
+        reconnectDelayMillis = Math.min(delay * 2, MAX_RECONNECT_DELAY_MILLIS);
+        logger.info("Feed shard {} reconnecting in {} ms", shardId, delay);
+        try {
+            reconnectScheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.warn("Feed shard {} could not schedule a reconnect: {}", shardId, e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the connection if it is open and has carried no frame for longer than the timeout, so that it is
+     * reestablished and resubscribed. A shard without symbols receives no heartbeats and is never considered stalled.
+     *
+     * @return true if the connection was closed.
+     */
+    public boolean closeIfStalled(long nowMillis, long stallTimeoutMillis) {
+        WebSocketClient client = webSocketClient;
+        if (client == null || !client.isOpen() || symbols.isEmpty() || nowMillis - lastFrameAt.get() <= stallTimeoutMillis) {
+            return false;
+        }
+        stalls.incrementAndGet();
+        logger.warn("Feed shard {} received nothing for {} ms, reconnecting", shardId, nowMillis - lastFrameAt.get());
+        client.closeConnection(1001, "Feed stalled"); // Triggers onClose and with it the reconnect
+        return true;
+    }
+
+    /**
+     * Adds symbols to the shard and subscribes them if the connection is open.
+     */
+    public void subscribe(Collection<String> assetSymbols) {
+        List<String> added = new ArrayList<>();
+        for (String symbol : assetSymbols) {
+            if (symbols.add(symbol)) {
+                added.add(symbol);
+            }
+        }
+        sendTickerRequest(webSocketClient, "subscribe", added);
+    }
+
+    /**
+     * Removes symbols from the shard and unsubscribes them if the connection is open.
+     *
+     * @return The symbols that were actually subscribed on this shard.
+     */
+    public List<String> unsubscribe(Collection<String> assetSymbols) {
+        List<String> removed = new ArrayList<>();
+        for (String symbol : assetSymbols) {
+            if (symbols.remove(symbol)) {
+                removed.add(symbol);
+            }
+        }
+        sendTickerRequest(webSocketClient, "unsubscribe", removed);
+        return removed;
+    }
+
+    /**
+     * Sends a ticker subscribe/unsubscribe request for the given symbols, split into batches.
+     * Requests are skipped while the socket is not open; {@code onOpen} resubscribes every symbol of the shard.
+     */
+    private void sendTickerRequest(WebSocketClient client, String method, List<String> requestSymbols) {
+        if (requestSymbols.isEmpty()) {
+            return;
+        }
+        if (client == null || !client.isOpen()) {
+            logger.debug("Feed shard {} not open, deferring {} of {} symbols.", shardId, method, requestSymbols.size());
+            return;
+        }
+        for (int from = 0; from < requestSymbols.size(); from += TICKER_REQUEST_BATCH_SIZE) {
+            List<String> batch = requestSymbols.subList(from, Math.min(from + TICKER_REQUEST_BATCH_SIZE, requestSymbols.size()));
+            try {
+                Map<String, Object> params = new ConcurrentHashMap<>();
+                params.put("channel", "ticker");
+                params.put("symbol", batch);
+
+                Map<String, Object> request = new ConcurrentHashMap<>();
+                request.put("method", method);
+                request.put("params", params);
+
+                String messagePayload = objectMapper.writeValueAsString(request);
+                logger.info("Feed shard {} sending ticker {} request: {}", shardId, method, messagePayload);
+                client.send(messagePayload);
+            } catch (JsonProcessingException e) {
+                logger.error("Error creating ticker {} message JSON", method, e);
+            } catch (Exception e) {
+                logger.error("Error sending ticker {} message on feed shard {}", method, shardId, e);
+            }
+        }
+    }
+
+    private void parseLoop() {
+        int idleRounds = 0;
+        while (!stopped) {
+            int drained = frames.drain(this::handleIncomingMessage, PARSE_BATCH_SIZE);
+            if (drained > 0) {
+                applyBatch();
+                idleRounds = 0;
+            } else if (++idleRounds < IDLE_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Publishes the newest quote per symbol of the drained frames
+    private void applyBatch() {
+        if (batchQuotes.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, VenueQuote> quote : batchQuotes.entrySet()) {
+            try {
+                sink.onQuote(quote.getKey(), quote.getValue());
+            } catch (Exception e) {
+                logger.error("Feed shard {} failed to apply quote of {}", shardId, quote.getKey(), e);
+            }
+        }
+        ticksApplied.lazySet(ticksApplied.get() + batchQuotes.size());
+        batchQuotes.clear();
+    }
+
+    private void handleIncomingMessage(String message) {
+        logger.debug("Feed shard {} received message from Kraken: {}", shardId, message);
+        try {
+            JsonNode rootNode = objectMapper.readTree(message);
+            if (rootNode.has("method") && ("subscribe".equals(rootNode.get("method").asText())
+                    || "unsubscribe".equals(rootNode.get("method").asText()))) {
+                String method = rootNode.get("method").asText();
+                boolean success = rootNode.get("success").asBoolean(false); // Default to false if not present
+                String symbol = rootNode.has("symbol") ? rootNode.get("symbol").asText("N/A") : (rootNode.has("pair") ? rootNode.get("pair").asText("N/A") : "N/A_Subscription_Response");
+
+                if (success) {
+                    logger.info("Successful {} for symbol: {}", method, symbol);
+                } else {
+                    String errorMsg = rootNode.has("error") ? rootNode.get("error").asText("Unknown subscription error") : "Unknown subscription error";
+                    logger.error("Failed {} for symbol: {}. Error: {}", method, symbol, errorMsg);
+                }
+                return; // Processed subscription response
+            }
+
+            // Check for heartbeat messages
+            if (rootNode.has("channel") && "heartbeat".equals(rootNode.get("channel").asText())) {
+                logger.debug("Received heartbeat from Kraken.");
+                sink.onHeartbeat(symbols); // Confirms only what this connection carries
+                return;
+            }
+            if (rootNode.has("channel") && "ticker".equals(rootNode.get("channel").asText()) && rootNode.has("data") && rootNode.get("data").isArray()) {
+                JsonNode dataArray = rootNode.get("data");
+                for (JsonNode tickerData : dataArray) {
+                    if (tickerData.has("symbol") && (tickerData.has("last") || tickerData.has("bid") || tickerData.has("ask"))) {
+                        String symbol = tickerData.get("symbol").asText();
+                        if (!symbols.contains(symbol)) {
+                            continue; // Late tick of a symbol that was just unsubscribed
+                        }
+                        try {
+                            VenueQuote quote = new VenueQuote(priceField(tickerData, "bid"), priceField(tickerData, "ask"),
+                                    priceField(tickerData, "last"), System.currentTimeMillis());
+                            if (batchQuotes.put(symbol, quote) != null) {
+                                ticksConflated.lazySet(ticksConflated.get() + 1);
+                            }
+                        } catch (NumberFormatException e) {
+                            logger.error("Could not parse ticker prices for symbol {}: {}", symbol, tickerData, e);
+                        }
+                    }
+                }
+            } else if (rootNode.has("channel") && "status".equals(rootNode.get("channel").asText())) {
+                logger.info("Feed shard {} received status message from Kraken: {}", shardId, message);
+            } else {
+                logger.warn("Received unhandled message type or format from Kraken: {}", message);
+            }
+
+        } catch (JsonProcessingException e) {
+            logger.error("Error parsing incoming JSON message from Kraken: {}", message, e);
+        } catch (Exception e) {
+            logger.error("Unexpected error handling incoming message: {}", message, e);
+        }
+    }
+
+    private static BigDecimal priceField(JsonNode tickerData, String field) {
+        JsonNode value = tickerData.get(field);
+        return value != null && !value.isNull() ? new BigDecimal(value.asText()) : null;
+    }
+
+    /**
+     * Stops reconnecting and unsubscribes every symbol; {@link #close()} then ends the connection.
+     */
+    public void stop() {
+        stopped = true;
+        WebSocketClient client = webSocketClient;
+        if (client != null && client.isOpen()) {
+            sendTickerRequest(client, "unsubscribe", new ArrayList<>(symbols));
+        }
+    }
+
+    public void close() {
+        WebSocketClient client = webSocketClient;
+        if (client != null) {
+            client.closeConnection(1000, "Application shutting down");
+        }
+    }
+
+    public FeedStats getStats() {
+        FeedStats stats = new FeedStats();
+        stats.setFeedName("kraken-shard-" + shardId);
+        stats.setConnected(isConnected());
+        stats.setSymbolCount(symbols.size());
+        stats.setQueueDepth(frames.size());
+        stats.setQueueCapacity(frames.capacity());
+        stats.setFramesReceived(framesReceived.get());
+        stats.setFramesDropped(framesDropped.get());
+        stats.setTicksApplied(ticksApplied.get());
+        stats.setTicksConflated(ticksConflated.get());
+        stats.setReconnects(reconnects.get());
+        stats.setStalls(stalls.get());
+        long lastFrame = lastFrameAt.get();
+        stats.setLastFrameAgeMillis(lastFrame == 0 ? -1 : Math.max(0, System.currentTimeMillis() - lastFrame));
+        return stats;
+    }
+
+    public boolean isConnected() {
+        WebSocketClient client = webSocketClient;
+        return client != null && client.isOpen();
+    }
+
+    public Set<String> getSymbols() {
+        return symbols;
+    }
+
+    public int getShardId() {
+        return shardId;
+    }
+}
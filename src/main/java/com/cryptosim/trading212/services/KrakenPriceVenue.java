@@ -0,0 +1,244 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.FeedStats;
+import com.cryptosim.trading212.services.contracts.PriceVenue;
+import com.cryptosim.trading212.services.contracts.VenueQuoteSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Kraken WebSocket API as a price venue.
+ * <p>
+ * The subscribed symbols are partitioned across several {@link KrakenFeedShard} connections, each with
+ * its own read and parser thread, so ingestion is not bound to a single core. A symbol always maps
+ * to the same shard (by its position in the catalogue), so each symbol's quotes come from a single thread.
+ * A watchdog closes any shard connection that has been silent for {@value #STALL_TIMEOUT_MILLIS} ms; the shard
+ * then reconnects with backoff and resubscribes its symbols.
+ */
+@Component
+@ConditionalOnProperty(name = "market-data.source", havingValue = "kraken", matchIfMissing = true)
+public class KrakenPriceVenue implements PriceVenue {
+
+    private static final Logger logger = LoggerFactory.getLogger(KrakenPriceVenue.class);
+    private static final String VENUE_NAME = "kraken";
+    private static final String KRAKEN_WS_API_URL = "wss://ws.kraken.com/v2";
+    // One connection per core, capped to stay well within the exchange's connection limits
+    private static final int MAX_FEED_SHARDS = 4;
+    // Several missed heartbeats; a silently dead socket may otherwise never report onClose
+    private static final long STALL_TIMEOUT_MILLIS = 10_000;
+    private static final long STALL_CHECK_INTERVAL_MILLIS = 1000;
+    // Catalogue of pairs that can be subscribed; which of them are live is decided at runtime by SubscriptionServiceImpl
+    static final List<String> KRAKEN_AVAILABLE_SYMBOLS = List.of(
+            "BTC/USD",  // Using BTC/USD directly based on "XBT/USD not supported" error
+            "ETH/USD",  // Ethereum
+            "USDT/USD", // Tether
+            "ADA/USD",  // Cardano
+            "SOL/USD",  // Solana
+            "XRP/USD",  // Ripple
+            "DOT/USD",  // Polkadot
+            "DOGE/USD", // Dogecoin
+            "LTC/USD",  // Litecoin
+            "LINK/USD", // Chainlin
+            "AVAX/USD", // Avalanche
+            "SHIB/USD", // Shiba Inu
+            "TRX/USD",  // Tron
+            "USDC/USD", // USD Coin
+            "DAI/USD",  // Dai
+            "ATOM/USD", // Cosmos
+            "UNI/USD",  // Uniswap
+            "BCH/USD",  // Bitcoin Cash
+            "ALGO/USD", // Algorand
+            "XTZ/USD",  // Tezos
+            "FIL/USD",  // Filecoin
+            "ETC/USD",  // Ethereum Classic
+            "XLM/USD",  // Stellar Lumens
+            "NEAR/USD", // Near Protocol
+            "APT/USD",  // Aptos
+            "ARB/USD",  // Arbitrum
+            "OP/USD",   // Optimism
+            "SUI/USD",  // Sui
+            "SEI/USD",  // Sei
+            "TIA/USD",  // Celestia
+            "INJ/USD",  // Injective
+            "AAVE/USD", // Aave
+            "MKR/USD",  // Maker
+            "COMP/USD", // Compound
+            "CRV/USD",  // Curve
+            "SNX/USD",  // Synthetix
+            "LDO/USD",  // Lido DAO
+            "GRT/USD",  // The Graph
+            "FET/USD",  // Fetch.ai
+            "SAND/USD", // The Sandbox
+            "MANA/USD", // Decentraland
+            "ENJ/USD",  // Enjin
+            "FLOW/USD", // Flow
+            "KSM/USD",  // Kusama
+            "EOS/USD",  // EOS
+            "XMR/USD",  // Monero
+            "ZEC/USD",  // Zcash
+            "DASH/USD", // Dash
+            "QNT/USD",  // Quant
+            "PEPE/USD", // Pepe
+            "BONK/USD", // Bonk
+            "WIF/USD",  // dogwifhat
+            "EUR/USD",  // Euro, for valuations and cross rates in EUR
+            "GBP/USD"   // British Pound, for valuations and cross rates in GBP
+    );
+
+    private final Map<String, Integer> catalogueIndex = new HashMap<>();
+    private final ScheduledExecutorService reconnectScheduler;
+    private final int shardCount;
+    private volatile KrakenFeedShard[] shards = new KrakenFeedShard[0]; // Created by start()
+
+    public KrakenPriceVenue() {
+        for (int i = 0; i < KRAKEN_AVAILABLE_SYMBOLS.size(); i++) {
+            catalogueIndex.put(KRAKEN_AVAILABLE_SYMBOLS.get(i), i);
+        }
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.reconnectScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kraken-feed-reconnect-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shardCount = Math.max(1, Math.min(MAX_FEED_SHARDS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Override
+    public String getName() {
+        return VENUE_NAME;
+    }
+
+    @Override
+    public List<String> getAvailableSymbols() {
+        return KRAKEN_AVAILABLE_SYMBOLS;
+    }
+
+    @Override
+    public synchronized void start(VenueQuoteSink sink) {
+        if (shards.length > 0) {
+            return;
+        }
+        URI uri = URI.create(KRAKEN_WS_API_URL);
+        KrakenFeedShard[] created = new KrakenFeedShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            created[i] = new KrakenFeedShard(i, uri, sink, reconnectScheduler);
+        }
+        shards = created;
+        logger.info("Connecting {} Kraken feed shards...", shardCount);
+        for (KrakenFeedShard shard : created) {
+            shard.connect();
+        }
+        reconnectScheduler.scheduleWithFixedDelay(this::closeStalledShards, STALL_CHECK_INTERVAL_MILLIS,
+                STALL_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void closeStalledShards() {
+        long now = System.currentTimeMillis();
+        for (KrakenFeedShard shard : shards) {
+            try {
+                shard.closeIfStalled(now, STALL_TIMEOUT_MILLIS);
+            } catch (Exception e) {
+                logger.error("Stall check of feed shard {} failed", shard.getShardId(), e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Collection<String> assetSymbols) {
+        KrakenFeedShard[] current = shards;
+        List<List<String>> perShard = partition(assetSymbols, current.length);
+        for (int i = 0; i < current.length; i++) {
+            current[i].subscribe(perShard.get(i));
+        }
+    }
+
+    @Override
+    public void unsubscribe(Collection<String> assetSymbols) {
+        KrakenFeedShard[] current = shards;
+        List<List<String>> perShard = partition(assetSymbols, current.length);
+        for (int i = 0; i < current.length; i++) {
+            current[i].unsubscribe(perShard.get(i));
+        }
+    }
+
+    // Symbols are dealt round-robin over the shards in catalogue order, which keeps the shards balanced
+    private List<List<String>> partition(Collection<String> assetSymbols, int count) {
+        List<List<String>> perShard = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            perShard.add(new ArrayList<>());
+        }
+        if (count == 0) {
+            logger.warn("Kraken venue not started, ignoring subscription change for {} symbols", assetSymbols.size());
+            return perShard;
+        }
+        for (String symbol : assetSymbols) {
+            Integer index = catalogueIndex.get(symbol);
+            if (index != null) {
+                perShard.get(index % count).add(symbol);
+            }
+        }
+        return perShard;
+    }
+
+    @Override
+    public List<String> getSubscribedSymbols() {
+        List<String> subscribed = new ArrayList<>();
+        for (KrakenFeedShard shard : shards) {
+            subscribed.addAll(shard.getSymbols());
+        }
+        return subscribed;
+    }
+
+    @Override
+    public boolean isConnected() {
+        for (KrakenFeedShard shard : shards) {
+            if (shard.isConnected()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<FeedStats> getFeedStats() {
+        List<FeedStats> stats = new ArrayList<>(shards.length);
+        for (KrakenFeedShard shard : shards) {
+            stats.add(shard.getStats());
+        }
+        return stats;
+    }
+
+    @Override
+    public void stop() {
+        logger.info("Closing Kraken feed shards and unsubscribing...");
+        reconnectScheduler.shutdownNow();
+        KrakenFeedShard[] current = shards;
+        for (KrakenFeedShard shard : current) {
+            shard.stop();
+        }
+        try {
+            Thread.sleep(500); // Lets the unsubscribe requests go out before the sockets close
+        } catch (InterruptedException e) {
+            logger.warn("Thread interrupted during unsubscribe sleep period.", e);
+            Thread.currentThread().interrupt(); // Restore interruption status
+        } finally {
+            for (KrakenFeedShard shard : current) {
+                shard.close();
+            }
+            logger.info("Kraken WebSocket connection closed command sent.");
+        }
+    }
+}
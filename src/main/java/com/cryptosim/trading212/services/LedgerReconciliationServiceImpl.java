@@ -0,0 +1,363 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.LedgerReconciliationDao;
+import com.cryptosim.trading212.daos.contracts.PortfolioAssetDao;
+import com.cryptosim.trading212.daos.contracts.TransactionArchiveDao;
+import com.cryptosim.trading212.daos.contracts.TransactionDao;
+import com.cryptosim.trading212.daos.contracts.TransactionPartitionDao;
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.LedgerDiscrepancy;
+import com.cryptosim.trading212.models.LedgerDiscrepancyType;
+import com.cryptosim.trading212.models.PortfolioAsset;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionArchive;
+import com.cryptosim.trading212.models.TransactionPartition;
+import com.cryptosim.trading212.services.contracts.AccountVersionService;
+import com.cryptosim.trading212.services.contracts.LedgerReconciliationService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Service class reconciling the stored balances and positions with the transaction log.
+ * <p>
+ * The accounts of every shard are checked in account ID ranges of {@link #RECONCILE_CHUNK_ACCOUNTS} accounts, which
+ * run in parallel on {@link #RECONCILE_THREADS} threads. A chunk reads the versions, accounts and positions of its
+ * range, then streams the transactions of the range from the archive files of all shards, oldest month first, and
+ * from the partitions still in the table, the same way the transaction export does. Every account's rows are
+ * replayed onto its initial balance (see {@link LedgerReplay}) as soon as the cursor moves on to the next account,
+ * so only one account's rows are held at a time. Transactions before an account's last reset are skipped, as the
+ * reset restored the initial balance without touching the log.
+ * <p>
+ * Accounts whose version moved while their chunk was read traded in the meantime and are skipped rather than
+ * reported. Repairs lock the account row and apply only if the version is still the one read, so a repair never
+ * overwrites a concurrent trade. Average prices are only reported, never repaired (see {@link LedgerRepairRunner}). Each finished range is checkpointed together with its discrepancies.
+ */
+@Service
+public class LedgerReconciliationServiceImpl implements LedgerReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReconciliationServiceImpl.class);
+
+    private static final int RECONCILE_CHUNK_ACCOUNTS = 1000;
+    private static final int RECONCILE_THREADS = 4;
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern RUN_ID_PATTERN = Pattern.compile("\\d{8}-\\d{6}");
+
+    private final ShardRouter shardRouter;
+    private final AccountDao accountDao;
+    private final AccountChangeDao accountChangeDao;
+    private final PortfolioAssetDao portfolioAssetDao;
+    private final TransactionDao transactionDao;
+    private final TransactionPartitionDao transactionPartitionDao;
+    private final TransactionArchiveDao transactionArchiveDao;
+    private final LedgerReconciliationDao ledgerReconciliationDao;
+    private final LedgerRepairRunner ledgerRepairRunner;
+    private final AccountVersionService accountVersionService;
+    private final BackgroundJobTracker jobs = new BackgroundJobTracker("ledger-reconciliation", RECONCILE_THREADS);
+    private final AtomicLong transactionsReplayed = new AtomicLong();
+    private final AtomicInteger accountsRepaired = new AtomicInteger();
+
+    @Autowired
+    public LedgerReconciliationServiceImpl(ShardRouter shardRouter, AccountDao accountDao, AccountChangeDao accountChangeDao,
+                                           PortfolioAssetDao portfolioAssetDao, TransactionDao transactionDao,
+                                           TransactionPartitionDao transactionPartitionDao,
+                                           TransactionArchiveDao transactionArchiveDao,
+                                           LedgerReconciliationDao ledgerReconciliationDao,
+                                           LedgerRepairRunner ledgerRepairRunner, AccountVersionService accountVersionService) {
+        this.shardRouter = shardRouter;
+        this.accountDao = accountDao;
+        this.accountChangeDao = accountChangeDao;
+        this.portfolioAssetDao = portfolioAssetDao;
+        this.transactionDao = transactionDao;
+        this.transactionPartitionDao = transactionPartitionDao;
+        this.transactionArchiveDao = transactionArchiveDao;
+        this.ledgerReconciliationDao = ledgerReconciliationDao;
+        this.ledgerRepairRunner = ledgerRepairRunner;
+        this.accountVersionService = accountVersionService;
+    }
+
+    /**
+     * Where a shard keeps its transactions.
+     */
+    private static final class ShardLayout {
+        final List<String> partitions; // Null if the table is not partitioned
+        final List<TransactionArchive> archives;
+
+        ShardLayout(List<String> partitions, List<TransactionArchive> archives) {
+            this.partitions = partitions;
+            this.archives = archives;
+        }
+    }
+
+    /**
+     * What every chunk of a run shares.
+     */
+    private static final class ReconciliationRun {
+        final String runId;
+        final boolean repair;
+        final List<String> archiveFiles; // Of all shards, oldest month first
+        final List<ShardLayout> layouts;
+
+        ReconciliationRun(String runId, boolean repair, List<String> archiveFiles, List<ShardLayout> layouts) {
+            this.runId = runId;
+            this.repair = repair;
+            this.archiveFiles = archiveFiles;
+            this.layouts = layouts;
+        }
+    }
+
+    @Override
+    public synchronized BackfillProgress startReconciliation(boolean repair, String resumeRunId) {
+        if (resumeRunId != null && !RUN_ID_PATTERN.matcher(resumeRunId).matches()) {
+            throw new IllegalArgumentException("Run IDs have the form yyyyMMdd-HHmmss.");
+        }
+        String runningReconciliation = jobs.getRunningJobName();
+        if (runningReconciliation != null) {
+            throw new IllegalStateException("Another ledger reconciliation (" + runningReconciliation + ") is running.");
+        }
+        String runId = resumeRunId != null ? resumeRunId : LocalDateTime.now().format(RUN_ID);
+        List<Integer> maxAccountIds = shardRouter.fanOut(shard -> accountDao.findMaxAccountId());
+        List<Set<Integer>> checkpoints = shardRouter.fanOut(shard -> ledgerReconciliationDao.findCheckpoints(runId));
+        List<ShardLayout> layouts = shardRouter.fanOut(shard -> shardLayout());
+        // An account's archived rows stay in the files of the shard it lived on when its month was archived
+        List<TransactionArchive> archives = new ArrayList<>();
+        for (ShardLayout layout : layouts) {
+            archives.addAll(layout.archives);
+        }
+        archives.sort(Comparator.comparing(TransactionArchive::getPeriodEnd));
+        List<String> archiveFiles = new ArrayList<>();
+        for (TransactionArchive archive : archives) {
+            if (archive.getFileName() != null) {
+                archiveFiles.add(archive.getFileName());
+            }
+        }
+        ReconciliationRun run = new ReconciliationRun(runId, repair, archiveFiles, layouts);
+
+        List<int[]> chunks = new ArrayList<>();
+        int totalChunks = 0;
+        for (int shard = 0; shard < maxAccountIds.size(); shard++) {
+            int maxAccountId = maxAccountIds.get(shard);
+            for (int fromAccountId = 1; fromAccountId <= maxAccountId; fromAccountId += RECONCILE_CHUNK_ACCOUNTS) {
+                totalChunks++;
+                if (!checkpoints.get(shard).contains(fromAccountId)) {
+                    chunks.add(new int[]{shard, fromAccountId, Math.min(fromAccountId + RECONCILE_CHUNK_ACCOUNTS - 1, maxAccountId)});
+                }
+            }
+        }
+
+        jobs.start("ledger-reconciliation:" + runId, totalChunks, totalChunks - chunks.size());
+        transactionsReplayed.set(0);
+        accountsRepaired.set(0);
+        logger.info("Starting ledger reconciliation {} ({}) over max account IDs {} of the shards and {} archive files: "
+                        + "{} chunks, {} already checkpointed",
+                runId, repair ? "repair" : "report only", maxAccountIds, archiveFiles.size(), totalChunks, totalChunks - chunks.size());
+
+        if (chunks.isEmpty()) {
+            finishReconciliation();
+            return getReconciliationProgress();
+        }
+        AtomicInteger remaining = new AtomicInteger(chunks.size());
+        for (int[] chunk : chunks) {
+            jobs.getExecutor().execute(() -> {
+                try {
+                    reconcileChunk(run, chunk[0], chunk[1], chunk[2]);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        finishReconciliation();
+                    }
+                }
+            });
+        }
+        return getReconciliationProgress();
+    }
+
+    private void reconcileChunk(ReconciliationRun run, int shard, int fromAccountId, int toAccountId) {
+        try {
+            shardRouter.routeTo(shard);
+            // Read first, so any trade that commits after the reads below shows up as a version change
+            Map<Integer, Long> versions = accountChangeDao.findCurrentVersions(fromAccountId, toAccountId);
+            Map<Integer, Integer> firstTransactions = accountChangeDao.findFirstTransactionsAfterLastReset(fromAccountId, toAccountId);
+            List<Account> accounts = accountDao.findByAccountRange(fromAccountId, toAccountId);
+            Map<Integer, List<PortfolioAsset>> assets = new HashMap<>();
+            for (PortfolioAsset asset : portfolioAssetDao.findByAccountRange(fromAccountId, toAccountId)) {
+                assets.computeIfAbsent(asset.getAccountId(), accountId -> new ArrayList<>()).add(asset);
+            }
+            Map<Integer, LedgerReplay> replays = new HashMap<>();
+            for (Account account : accounts) {
+                replays.put(account.getAccountId(), new LedgerReplay(account.getAccountId(), account.getInitialBalance(),
+                        firstTransactions.getOrDefault(account.getAccountId(), 0)));
+            }
+
+            AccountReplayer replayer = new AccountReplayer(replays);
+            for (String fileName : run.archiveFiles) {
+                transactionArchiveDao.streamFile(fileName, fromAccountId, toAccountId, null, null, replayer);
+                replayer.flush();
+            }
+            transactionDao.streamRange(fromAccountId, toAccountId, null, null, run.layouts.get(shard).partitions, replayer);
+            replayer.flush();
+            Map<Integer, Long> versionsAfter = accountChangeDao.findCurrentVersions(fromAccountId, toAccountId);
+
+            long replayed = 0;
+            int discrepancyCount = 0;
+            int changedAccounts = 0;
+            List<LedgerDiscrepancy> unrepaired = new ArrayList<>();
+            for (Account account : accounts) {
+                int accountId = account.getAccountId();
+                LedgerReplay replay = replays.get(accountId);
+                replayed += replay.getReplayed();
+                List<PortfolioAsset> accountAssets = assets.getOrDefault(accountId, List.of());
+                List<LedgerDiscrepancy> discrepancies = replay.findDiscrepancies(account.getBalance(), accountAssets);
+                if (discrepancies.isEmpty()) {
+                    continue;
+                }
+                long version = versions.getOrDefault(accountId, 0L);
+                if (!Objects.equals(versionsAfter.get(accountId), version)) {
+                    changedAccounts++;
+                    continue;
+                }
+                for (LedgerDiscrepancy discrepancy : discrepancies) {
+                    discrepancy.setRunId(run.runId);
+                }
+                boolean repairable = discrepancies.stream()
+                        .anyMatch(discrepancy -> discrepancy.getDiscrepancyType() != LedgerDiscrepancyType.AVERAGE_PRICE);
+                if (!run.repair || !repairable) {
+                    unrepaired.addAll(discrepancies);
+                } else if (ledgerRepairRunner.repairAccount(shard, replay, version, accountAssets, discrepancies)) {
+                    accountsRepaired.incrementAndGet();
+                    accountVersionService.markChanged(account.getUserIdentifier());
+                } else {
+                    changedAccounts++;
+                    continue;
+                }
+                discrepancyCount += discrepancies.size();
+            }
+            ledgerRepairRunner.recordChunk(shard, run.runId, fromAccountId, toAccountId, accounts.size(), replayed,
+                    discrepancyCount, changedAccounts, unrepaired);
+            if (discrepancyCount > 0 || changedAccounts > 0) {
+                logger.info("Ledger reconciliation {}: {} discrepancies in account IDs {}-{} on shard {}, {} accounts changed while checked",
+                        run.runId, discrepancyCount, fromAccountId, toAccountId, shard, changedAccounts);
+            }
+            transactionsReplayed.addAndGet(replayed);
+            jobs.chunkCompleted(discrepancyCount);
+        } catch (Exception e) {
+            jobs.chunkFailed("Shard " + shard + ", accounts " + fromAccountId + "-" + toAccountId + ": " + e.getMessage());
+            logger.error("Ledger reconciliation failed for account IDs {}-{} on shard {}", fromAccountId, toAccountId, shard, e);
+        } finally {
+            shardRouter.clearRoute();
+        }
+    }
+
+    /**
+     * Collects the rows of one account at a time, as the sources deliver them grouped by account, and replays them
+     * in execution order once the next account starts. Rows of accounts outside the chunk's shard are dropped.
+     */
+    private static final class AccountReplayer implements Consumer<Transaction> {
+        private final Map<Integer, LedgerReplay> replays;
+        private final List<Transaction> rows = new ArrayList<>();
+        private int accountId;
+
+        AccountReplayer(Map<Integer, LedgerReplay> replays) {
+            this.replays = replays;
+        }
+
+        @Override
+        public void accept(Transaction transaction) {
+            if (!rows.isEmpty() && transaction.getAccountId() != accountId) {
+                flush();
+            }
+            accountId = transaction.getAccountId();
+            rows.add(transaction);
+        }
+
+        void flush() {
+            LedgerReplay replay = replays.get(accountId);
+            if (replay != null) {
+                rows.sort(Comparator.comparingInt(Transaction::getTransactionId));
+                for (Transaction row : rows) {
+                    replay.apply(row);
+                }
+            }
+            rows.clear();
+        }
+    }
+
+    private void finishReconciliation() {
+        jobs.finish();
+        BackfillProgress job = jobs.getProgress();
+        logger.info("Ledger reconciliation {} finished: {} chunks done, {} failed, {} transactions replayed, "
+                        + "{} discrepancies recorded, {} accounts repaired",
+                job.getJobName(), job.getCompletedChunks(), job.getFailedChunks(), transactionsReplayed.get(),
+                job.getRowsWritten(), accountsRepaired.get());
+    }
+
+    @Override
+    public BackfillProgress getReconciliationProgress() {
+        return jobs.getProgress();
+    }
+
+    @Override
+    public List<LedgerDiscrepancy> getDiscrepancies(String runId, int limit) {
+        if (runId == null || !RUN_ID_PATTERN.matcher(runId).matches()) {
+            throw new IllegalArgumentException("Run IDs have the form yyyyMMdd-HHmmss.");
+        }
+        if (limit < 1 || limit > MAX_DISCREPANCIES) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_DISCREPANCIES + ".");
+        }
+        List<LedgerDiscrepancy> discrepancies = new ArrayList<>();
+        for (List<LedgerDiscrepancy> shardDiscrepancies : shardRouter.fanOut(shard -> ledgerReconciliationDao.findDiscrepancies(runId, limit))) {
+            discrepancies.addAll(shardDiscrepancies);
+        }
+        discrepancies.sort(Comparator.comparingInt(LedgerDiscrepancy::getAccountId)
+                .thenComparing(LedgerDiscrepancy::getAssetSymbol, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(LedgerDiscrepancy::getDiscrepancyType));
+        return discrepancies.size() > limit ? new ArrayList<>(discrepancies.subList(0, limit)) : discrepancies;
+    }
+
+    /**
+     * Reads the table partitions not yet recorded as archived and the archive entries of the routed shard.
+     */
+    private ShardLayout shardLayout() {
+        List<TransactionArchive> archives = transactionPartitionDao.findArchives();
+        Set<String> archived = new HashSet<>();
+        for (TransactionArchive archive : archives) {
+            archived.add(archive.getPartitionName());
+        }
+        List<TransactionPartition> partitions = transactionPartitionDao.findPartitions();
+        if (partitions.isEmpty()) {
+            return new ShardLayout(null, archives);
+        }
+        List<String> live = new ArrayList<>();
+        for (TransactionPartition partition : partitions) {
+            if (!archived.contains(partition.getName())) {
+                live.add(partition.getName());
+            }
+        }
+        return new ShardLayout(live, archives);
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        jobs.shutdown();
+    }
+}
@@ -0,0 +1,125 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.LedgerReconciliationDao;
+import com.cryptosim.trading212.daos.contracts.PortfolioAssetDao;
+import com.cryptosim.trading212.models.AccountChange;
+import com.cryptosim.trading212.models.AccountChangeType;
+import com.cryptosim.trading212.models.LedgerDiscrepancy;
+import com.cryptosim.trading212.models.LedgerDiscrepancyType;
+import com.cryptosim.trading212.models.PortfolioAsset;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Writes the results of a ledger reconciliation, each step in its own transaction.
+ * Kept as a separate bean so the transactional proxy applies when called from {@link LedgerReconciliationServiceImpl}'s
+ * worker threads.
+ */
+@Service
+public class LedgerRepairRunner {
+
+    private final AccountDao accountDao;
+    private final AccountChangeDao accountChangeDao;
+    private final PortfolioAssetDao portfolioAssetDao;
+    private final LedgerReconciliationDao ledgerReconciliationDao;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public LedgerRepairRunner(AccountDao accountDao, AccountChangeDao accountChangeDao, PortfolioAssetDao portfolioAssetDao,
+                              LedgerReconciliationDao ledgerReconciliationDao, ShardRouter shardRouter) {
+        this.accountDao = accountDao;
+        this.accountChangeDao = accountChangeDao;
+        this.portfolioAssetDao = portfolioAssetDao;
+        this.ledgerReconciliationDao = ledgerReconciliationDao;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Sets the balance and the differing position quantities of an account to the replayed state and records the
+     * discrepancies, unless the account changed since it was read. The changed positions are logged for delta sync
+     * like the positions touched by a trade.
+     * <p>
+     * Average prices are never repaired: the log only has the rounded quantity and price of every buy, so a replayed
+     * average can be off where the stored one is right. Their discrepancies are recorded for review, and a position
+     * whose quantity is repaired keeps its stored average.
+     *
+     * @param observedVersion The version of the account read before its transactions were replayed.
+     * @param assets          The stored positions of the account, as compared.
+     * @param discrepancies   The discrepancies found; all but the average prices are marked as repaired if the
+     *                        repair is applied.
+     * @return true if the account was repaired, false if it changed in the meantime and was left alone.
+     */
+    @Transactional
+    public boolean repairAccount(int shard, LedgerReplay replay, long observedVersion, List<PortfolioAsset> assets,
+                                 List<LedgerDiscrepancy> discrepancies) {
+        shardRouter.routeTo(shard);
+        int accountId = replay.getAccountId();
+        // Locks the account row, so no trade commits between the check and the repair
+        if (accountChangeDao.lockCurrentVersion(accountId) != observedVersion) {
+            return false;
+        }
+
+        Map<String, PortfolioAsset> stored = new HashMap<>();
+        for (PortfolioAsset asset : assets) {
+            stored.put(asset.getAssetSymbol(), asset);
+        }
+        TreeSet<String> symbols = new TreeSet<>();
+        for (LedgerDiscrepancy discrepancy : discrepancies) {
+            if (discrepancy.getDiscrepancyType() == LedgerDiscrepancyType.BALANCE) {
+                accountDao.updateBalance(accountId, replay.getCash().toBigDecimal());
+            } else if (discrepancy.getDiscrepancyType() == LedgerDiscrepancyType.QUANTITY) {
+                symbols.add(discrepancy.getAssetSymbol());
+            }
+        }
+        List<AccountChange> changes = new ArrayList<>();
+        for (String symbol : symbols) {
+            LedgerReplay.Position expected = replay.getPositions().get(symbol);
+            PortfolioAsset actual = stored.get(symbol);
+            if (expected == null) {
+                portfolioAssetDao.deleteAsset(actual.getAssetId());
+            } else if (actual == null) {
+                PortfolioAsset asset = new PortfolioAsset();
+                asset.setAccountId(accountId);
+                asset.setAssetSymbol(symbol);
+                asset.setQuantity(expected.getQuantity().toBigDecimal());
+                asset.setAveragePurchasePrice(expected.getAveragePrice().toBigDecimal());
+                portfolioAssetDao.addAsset(asset);
+            } else {
+                portfolioAssetDao.updateAsset(actual.getAssetId(), expected.getQuantity().toBigDecimal(),
+                        actual.getAveragePurchasePrice());
+            }
+            changes.add(new AccountChange(AccountChangeType.POSITION, symbol, null));
+        }
+        // Bumps the version even for a balance-only repair, so cached account state is revalidated
+        accountChangeDao.recordChanges(accountId, changes);
+
+        for (LedgerDiscrepancy discrepancy : discrepancies) {
+            discrepancy.setRepaired(discrepancy.getDiscrepancyType() != LedgerDiscrepancyType.AVERAGE_PRICE);
+        }
+        ledgerReconciliationDao.recordDiscrepancies(discrepancies);
+        return true;
+    }
+
+    /**
+     * Records the unrepaired discrepancies of an account ID range together with the checkpoint of the range, so a
+     * resumed run neither skips nor duplicates them.
+     */
+    @Transactional
+    public void recordChunk(int shard, String runId, int fromAccountId, int toAccountId, int accounts, long transactions,
+                            int discrepancyCount, int changedAccounts, List<LedgerDiscrepancy> unrepaired) {
+        shardRouter.routeTo(shard);
+        ledgerReconciliationDao.recordDiscrepancies(unrepaired);
+        ledgerReconciliationDao.recordCheckpoint(runId, fromAccountId, toAccountId, accounts, transactions,
+                discrepancyCount, changedAccounts);
+    }
+}
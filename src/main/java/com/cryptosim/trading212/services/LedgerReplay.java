@@ -0,0 +1,183 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.LedgerDiscrepancy;
+import com.cryptosim.trading212.models.LedgerDiscrepancyType;
+import com.cryptosim.trading212.models.PortfolioAsset;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionType;
+import com.cryptosim.trading212.utils.Money;
+import com.cryptosim.trading212.utils.Price;
+import com.cryptosim.trading212.utils.Quantity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The cash and positions an account should have according to its transaction log: the initial balance with every
+ * trade since the last reset applied in execution order, by the same fixed-point rules as {@link TradingServiceImpl}.
+ * A buy pays its recorded total and averages its price into the position; a sell receives its recorded total and
+ * keeps the average price, closing the position once nothing is left.
+ * <p>
+ * The trade engine works from the requested quantity and the feed price, while the log records both rounded to eight
+ * decimals. Averages are therefore compared with a tolerance of {@link #AVERAGE_PRICE_TOLERANCE_DIVISOR 1/10000},
+ * and a sell of a quantity with more decimals leaves the stored position up to one unit below the replayed one.
+ */
+public final class LedgerReplay {
+
+    static final long AVERAGE_PRICE_TOLERANCE_DIVISOR = 10_000;
+
+    /**
+     * A position as the transaction log implies it.
+     */
+    public static final class Position {
+        private Quantity quantity;
+        private Price averagePrice;
+        private long quantitySlack; // Units the stored position may be below the replayed one, one per partial sell
+
+        Position(Quantity quantity, Price averagePrice) {
+            this.quantity = quantity;
+            this.averagePrice = averagePrice;
+        }
+
+        public Quantity getQuantity() {
+            return quantity;
+        }
+
+        public Price getAveragePrice() {
+            return averagePrice;
+        }
+    }
+
+    private final int accountId;
+    private final int firstCountedTransactionId;
+    private final Map<String, Position> positions = new TreeMap<>();
+    private Money cash;
+    private int lastTransactionId;
+    private long replayed;
+
+    /**
+     * @param accountId                 The ID of the account.
+     * @param initialBalance            The balance the account started with and is reset to.
+     * @param firstCountedTransactionId Transactions with a lower ID predate the last reset and are skipped.
+     */
+    public LedgerReplay(int accountId, BigDecimal initialBalance, int firstCountedTransactionId) {
+        this.accountId = accountId;
+        this.firstCountedTransactionId = firstCountedTransactionId;
+        this.cash = Money.of(initialBalance);
+    }
+
+    /**
+     * Applies the next transaction of the account. Transaction IDs of an account grow in execution order, as its
+     * trades are serialized by the account row lock and keep their IDs when the account moves shard.
+     *
+     * @throws IllegalStateException if the transaction is not newer than the last one applied.
+     */
+    public void apply(Transaction transaction) {
+        if (transaction.getTransactionId() < firstCountedTransactionId) {
+            return;
+        }
+        if (transaction.getTransactionId() <= lastTransactionId) {
+            throw new IllegalStateException("Transaction " + transaction.getTransactionId() + " of account " + accountId
+                    + " is out of order after transaction " + lastTransactionId + ".");
+        }
+        lastTransactionId = transaction.getTransactionId();
+        replayed++;
+
+        String assetSymbol = transaction.getAssetSymbol();
+        Quantity quantity = Quantity.of(transaction.getQuantity());
+        Money total = Money.of(transaction.getTotalTransactionValue());
+        Position position = positions.get(assetSymbol);
+        if (transaction.getTransactionType() == TransactionType.BUY) {
+            cash = cash.minus(total);
+            Price price = Price.of(transaction.getPricePerUnit());
+            if (position == null) {
+                positions.put(assetSymbol, new Position(quantity, price));
+            } else {
+                position.averagePrice = Price.averageAfterBuy(position.quantity, position.averagePrice, quantity, price);
+                position.quantity = position.quantity.plus(quantity);
+            }
+        } else {
+            cash = cash.plus(total);
+            Quantity remaining = (position != null ? position.quantity : Quantity.ZERO).minus(quantity);
+            if (remaining.signum() <= 0) {
+                positions.remove(assetSymbol);
+            } else {
+                position.quantity = remaining;
+                position.quantitySlack++;
+            }
+        }
+    }
+
+    /**
+     * Compares the stored state of the account with the replayed one, at the precision the trade engine keeps:
+     * cents for the balance and eight decimals for quantities and prices, with the tolerances for what the log
+     * cannot tell (see the class comment).
+     *
+     * @param balance The stored balance.
+     * @param assets  The stored positions of the account.
+     * @return The differences, the balance first and then by asset symbol; empty if the account is consistent.
+     */
+    public List<LedgerDiscrepancy> findDiscrepancies(BigDecimal balance, List<PortfolioAsset> assets) {
+        List<LedgerDiscrepancy> discrepancies = new ArrayList<>();
+        Money actualCash = Money.of(balance);
+        if (!actualCash.equals(cash)) {
+            discrepancies.add(new LedgerDiscrepancy(accountId, null, LedgerDiscrepancyType.BALANCE,
+                    cash.toBigDecimal(), actualCash.toBigDecimal()));
+        }
+
+        Map<String, PortfolioAsset> stored = new HashMap<>();
+        for (PortfolioAsset asset : assets) {
+            stored.put(asset.getAssetSymbol(), asset);
+        }
+        TreeSet<String> symbols = new TreeSet<>(positions.keySet());
+        symbols.addAll(stored.keySet());
+        for (String symbol : symbols) {
+            Position expected = positions.get(symbol);
+            PortfolioAsset actual = stored.get(symbol);
+            Quantity expectedQuantity = expected != null ? expected.quantity : Quantity.ZERO;
+            Quantity actualQuantity = actual != null ? Quantity.of(actual.getQuantity()) : Quantity.ZERO;
+            long shortfall = expectedQuantity.getUnits() - actualQuantity.getUnits();
+            if (shortfall < 0 || shortfall > (expected != null ? expected.quantitySlack : 0)) {
+                discrepancies.add(new LedgerDiscrepancy(accountId, symbol, LedgerDiscrepancyType.QUANTITY,
+                        expectedQuantity.toBigDecimal(), actualQuantity.toBigDecimal()));
+            }
+            if (expected != null && actual != null) {
+                Price actualPrice = Price.of(actual.getAveragePurchasePrice());
+                long difference = Math.abs(expected.averagePrice.getUnits() - actualPrice.getUnits());
+                if (difference > Math.max(1, expected.averagePrice.getUnits() / AVERAGE_PRICE_TOLERANCE_DIVISOR)) {
+                    discrepancies.add(new LedgerDiscrepancy(accountId, symbol, LedgerDiscrepancyType.AVERAGE_PRICE,
+                            expected.averagePrice.toBigDecimal(), actualPrice.toBigDecimal()));
+                }
+            }
+        }
+        return discrepancies;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public Money getCash() {
+        return cash;
+    }
+
+    /**
+     * @return The open positions keyed by asset symbol; closed positions are absent.
+     */
+    public Map<String, Position> getPositions() {
+        return Collections.unmodifiableMap(positions);
+    }
+
+    /**
+     * @return The number of transactions applied, not counting those before the last reset.
+     */
+    public long getReplayed() {
+        return replayed;
+    }
+}
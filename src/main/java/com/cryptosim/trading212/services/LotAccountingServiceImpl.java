@@ -0,0 +1,210 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.PositionLotDao;
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.CostBasisMethod;
+import com.cryptosim.trading212.models.LotMatch;
+import com.cryptosim.trading212.models.PositionLot;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.services.contracts.AccountVersionService;
+import com.cryptosim.trading212.services.contracts.LotAccountingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Service class for tax-lot accounting.
+ * <p>
+ * Every buy opens a lot; a sell walks the lots of the position oldest first (FIFO) or newest first (LIFO).
+ * Lots are loaded lazily in small keyset pages from the end being consumed into a {@link LotLedger}, so a
+ * sell only reads the lots it actually closes plus at most one page, however long the position's history is.
+ * Closed lots are deleted, which keeps 'position_lots' proportional to open positions; what a sell consumed
+ * stays available in 'lot_matches'. Holdings bought before lots were tracked (the position's quantity beyond
+ * its open lots) are the oldest ones, so they are matched first for FIFO and last for LIFO, at the position's
+ * average price.
+ */
+@Service
+public class LotAccountingServiceImpl implements LotAccountingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LotAccountingServiceImpl.class);
+
+    private static final int LOT_PAGE_SIZE = 64;
+    private static final int FIXED_POINT_SCALE = 8;
+    private static final int PNL_SCALE = 8;
+
+    private final AccountDao accountDao;
+    private final PositionLotDao positionLotDao;
+    private final AccountChangeDao accountChangeDao;
+    private final AccountVersionService accountVersionService;
+
+    @Autowired
+    public LotAccountingServiceImpl(AccountDao accountDao, PositionLotDao positionLotDao, AccountChangeDao accountChangeDao,
+                                    AccountVersionService accountVersionService) {
+        this.accountDao = accountDao;
+        this.positionLotDao = positionLotDao;
+        this.accountChangeDao = accountChangeDao;
+        this.accountVersionService = accountVersionService;
+    }
+
+    private Account getAccountByUserIdentifier(String userIdentifier) {
+        return accountDao.findByUserIdentifier(userIdentifier)
+                .orElseThrow(() -> {
+                    logger.warn("Account not found for userIdentifier: {}", userIdentifier);
+                    return new NoSuchElementException("Account not found for user: " + userIdentifier);
+                });
+    }
+
+    @Override
+    public void openLot(Transaction buyTransaction) {
+        PositionLot lot = new PositionLot();
+        lot.setAccountId(buyTransaction.getAccountId());
+        lot.setAssetSymbol(buyTransaction.getAssetSymbol());
+        lot.setTransactionId(buyTransaction.getTransactionId());
+        lot.setOriginalQuantity(buyTransaction.getQuantity());
+        lot.setRemainingQuantity(buyTransaction.getQuantity());
+        lot.setUnitCost(buyTransaction.getPricePerUnit());
+        lot.setAcquiredAt(buyTransaction.getTransactionTimestamp());
+        positionLotDao.createLot(lot);
+        logger.debug("Opened lot {} for transaction {}", lot.getLotId(), buyTransaction.getTransactionId());
+    }
+
+    @Override
+    public List<LotMatch> matchSale(int accountId, String assetSymbol, BigDecimal quantity, BigDecimal salePrice,
+                                    BigDecimal positionQuantity, BigDecimal averagePrice, CostBasisMethod method) {
+        boolean oldestFirst = method != CostBasisMethod.LIFO;
+        LotLedger ledger = new LotLedger(LOT_PAGE_SIZE);
+        Map<Long, PositionLot> loadedLots = new HashMap<>();
+        List<LotMatch> matches = new ArrayList<>();
+        List<Long> closedLotIds = new ArrayList<>();
+        Map<Long, Long> partialLots = new HashMap<>();
+
+        long unmatched = toUnits(quantity);
+        if (oldestFirst) {
+            long untracked = toUnits(positionQuantity) - toUnits(positionLotDao.sumOpenQuantity(accountId, assetSymbol));
+            if (untracked > 0) {
+                long legacyMatched = Math.min(untracked, unmatched);
+                matches.add(buildMatch(null, assetSymbol, fromUnits(legacyMatched), averagePrice, salePrice, null));
+                unmatched -= legacyMatched;
+            }
+        }
+        long pageCursor = oldestFirst ? 0 : Long.MAX_VALUE;
+        boolean moreLots = true;
+        while (unmatched > 0 && moreLots) {
+            List<PositionLot> page = positionLotDao.findOpenLotsPage(accountId, assetSymbol, oldestFirst, pageCursor, LOT_PAGE_SIZE);
+            moreLots = page.size() == LOT_PAGE_SIZE;
+            for (PositionLot lot : page) {
+                loadedLots.put(lot.getLotId(), lot);
+                long remaining = toUnits(lot.getRemainingQuantity());
+                if (remaining == 0) {
+                    closedLotIds.add(lot.getLotId()); // Dust below the fixed-point scale
+                } else if (oldestFirst) {
+                    ledger.addLast(lot.getLotId(), remaining, toUnits(lot.getUnitCost()));
+                } else {
+                    ledger.addFirst(lot.getLotId(), remaining, toUnits(lot.getUnitCost()));
+                }
+                pageCursor = lot.getLotId();
+            }
+            unmatched = ledger.consume(unmatched, oldestFirst, (lotId, matchedQuantity, unitCost, remainingQuantity) -> {
+                PositionLot lot = loadedLots.get(lotId);
+                matches.add(buildMatch(lotId, assetSymbol, fromUnits(matchedQuantity), fromUnits(unitCost), salePrice, lot.getAcquiredAt()));
+                if (remainingQuantity == 0) {
+                    closedLotIds.add(lotId);
+                    partialLots.remove(lotId);
+                } else {
+                    partialLots.put(lotId, remainingQuantity);
+                }
+            });
+        }
+
+        // For LIFO this is the untracked holding, reached once the lots run out
+        if (unmatched > 0) {
+            logger.info("Sell of {} {} for account {} exceeds its lots by {}; matching the rest at the average price {}",
+                    quantity, assetSymbol, accountId, fromUnits(unmatched), averagePrice);
+            matches.add(buildMatch(null, assetSymbol, fromUnits(unmatched), averagePrice, salePrice, null));
+        }
+
+        positionLotDao.deleteLots(closedLotIds);
+        for (Map.Entry<Long, Long> partial : partialLots.entrySet()) {
+            positionLotDao.updateRemainingQuantity(partial.getKey(), fromUnits(partial.getValue()));
+        }
+        logger.debug("Matched sell of {} {} for account {} against {} lots ({} closed)",
+                quantity, assetSymbol, accountId, matches.size(), closedLotIds.size());
+        return matches;
+    }
+
+    private LotMatch buildMatch(Long lotId, String assetSymbol, BigDecimal quantity, BigDecimal unitCost,
+                                BigDecimal salePrice, LocalDateTime acquiredAt) {
+        LotMatch match = new LotMatch();
+        match.setLotId(lotId);
+        match.setAssetSymbol(assetSymbol);
+        match.setQuantity(quantity);
+        match.setUnitCost(unitCost);
+        match.setSalePrice(salePrice);
+        match.setRealizedProfitLoss(quantity.multiply(salePrice.subtract(unitCost)).setScale(PNL_SCALE, RoundingMode.HALF_UP));
+        match.setAcquiredAt(acquiredAt);
+        return match;
+    }
+
+    private static long toUnits(BigDecimal value) {
+        return value.setScale(FIXED_POINT_SCALE, RoundingMode.DOWN).movePointRight(FIXED_POINT_SCALE).longValueExact();
+    }
+
+    private static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, FIXED_POINT_SCALE);
+    }
+
+    @Override
+    public void recordMatches(int accountId, int sellTransactionId, List<LotMatch> matches) {
+        if (matches == null || matches.isEmpty()) {
+            return;
+        }
+        positionLotDao.recordMatches(accountId, sellTransactionId, matches);
+    }
+
+    @Override
+    public void clearLots(int accountId) {
+        int lotsDeleted = positionLotDao.deleteByAccountId(accountId);
+        logger.info("Deleted {} open lots for accountId: {}", lotsDeleted, accountId);
+    }
+
+    @Override
+    public List<PositionLot> getOpenLots(String userIdentifier, String assetSymbol) {
+        Account account = getAccountByUserIdentifier(userIdentifier);
+        return positionLotDao.findOpenLots(account.getAccountId(), assetSymbol);
+    }
+
+    @Override
+    public List<LotMatch> getLotMatches(String userIdentifier, int sellTransactionId) {
+        Account account = getAccountByUserIdentifier(userIdentifier);
+        return positionLotDao.findMatches(account.getAccountId(), sellTransactionId);
+    }
+
+    @Transactional
+    @Override
+    public Account setCostBasisMethod(String userIdentifier, CostBasisMethod method) {
+        if (method == null) {
+            throw new IllegalArgumentException("Cost-basis method is required (AVERAGE, FIFO or LIFO).");
+        }
+        Account account = getAccountByUserIdentifier(userIdentifier);
+        accountDao.updateCostBasisMethod(account.getAccountId(), method);
+        // Nothing for delta sync to log, but the account details change with the method
+        accountChangeDao.recordChanges(account.getAccountId(), List.of());
+        logger.info("Cost-basis method of account {} set to {}", account.getAccountId(), method);
+        accountVersionService.markChanged(userIdentifier);
+        account.setCostBasisMethod(method);
+        return account;
+    }
+}
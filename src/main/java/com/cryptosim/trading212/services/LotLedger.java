@@ -0,0 +1,145 @@
+package com.cryptosim.trading212.services;
+
+/**
+ * Compact double-ended queue of tax lots for a single position, kept in acquisition order.
+ * <p>
+ * Lots are stored as three parallel {@code long} arrays (lot ID, remaining quantity and unit cost, both as
+ * fixed-point values scaled by 10^8) in a power-of-two ring buffer, so a lot costs 24 bytes and no object.
+ * FIFO matching consumes from the head and LIFO from the tail; each fully consumed lot is removed in O(1),
+ * so matching a sell costs O(1) amortized per lot it touches.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class LotLedger {
+
+    /**
+     * Receives the lots consumed by a match, in matching order.
+     */
+    @FunctionalInterface
+    public interface LotConsumer {
+        /**
+         * @param lotId             The ID of the matched lot.
+         * @param matchedQuantity   The quantity taken from the lot (scaled by 10^8).
+         * @param unitCost          The unit cost of the lot (scaled by 10^8).
+         * @param remainingQuantity What is left of the lot afterwards (scaled by 10^8); 0 if it was closed.
+         */
+        void accept(long lotId, long matchedQuantity, long unitCost, long remainingQuantity);
+    }
+
+    private long[] lotIds;
+    private long[] quantities;
+    private long[] unitCosts;
+    private int head;
+    private int size;
+
+    public LotLedger(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1;
+        lotIds = new long[capacity];
+        quantities = new long[capacity];
+        unitCosts = new long[capacity];
+    }
+
+    /**
+     * Appends a lot after the newest one.
+     */
+    public void addLast(long lotId, long quantity, long unitCost) {
+        requirePositive(quantity);
+        ensureCapacity();
+        int index = (head + size) & (lotIds.length - 1);
+        set(index, lotId, quantity, unitCost);
+        size++;
+    }
+
+    /**
+     * Prepends a lot before the oldest one, e.g. when older lots are loaded page by page for LIFO matching.
+     */
+    public void addFirst(long lotId, long quantity, long unitCost) {
+        requirePositive(quantity);
+        ensureCapacity();
+        head = (head - 1) & (lotIds.length - 1);
+        set(head, lotId, quantity, unitCost);
+        size++;
+    }
+
+    /**
+     * Takes up to the given quantity from the lots, oldest first (FIFO) or newest first (LIFO).
+     * Closed lots are removed; a partially matched lot keeps its place with the reduced quantity.
+     *
+     * @param quantity  The quantity to match (scaled by 10^8).
+     * @param fromOldest true for FIFO, false for LIFO.
+     * @param consumer  Receives every matched lot.
+     * @return The quantity that could not be matched because the ledger ran out of lots.
+     */
+    public long consume(long quantity, boolean fromOldest, LotConsumer consumer) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity to match must not be negative.");
+        }
+        int mask = lotIds.length - 1;
+        while (quantity > 0 && size > 0) {
+            int index = fromOldest ? head : (head + size - 1) & mask;
+            long available = quantities[index];
+            long matched = Math.min(available, quantity);
+            long remaining = available - matched;
+            quantity -= matched;
+            consumer.accept(lotIds[index], matched, unitCosts[index], remaining);
+            if (remaining == 0) {
+                if (fromOldest) {
+                    head = (head + 1) & mask;
+                }
+                size--;
+            } else {
+                quantities[index] = remaining;
+            }
+        }
+        return quantity;
+    }
+
+    /**
+     * @return The total quantity of all lots (scaled by 10^8).
+     */
+    public long totalQuantity() {
+        long total = 0;
+        int mask = lotIds.length - 1;
+        for (int i = 0; i < size; i++) {
+            total += quantities[(head + i) & mask];
+        }
+        return total;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Checked before head moves, so a rejected lot leaves the ring untouched
+    private static void requirePositive(long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Lot quantity must be positive.");
+        }
+    }
+
+    private void set(int index, long lotId, long quantity, long unitCost) {
+        lotIds[index] = lotId;
+        quantities[index] = quantity;
+        unitCosts[index] = unitCost;
+    }
+
+    // Doubles the arrays and unwraps the ring so the oldest lot is at index 0 again
+    private void ensureCapacity() {
+        if (size < lotIds.length) {
+            return;
+        }
+        int capacity = lotIds.length << 1;
+        lotIds = unwrap(lotIds, capacity);
+        quantities = unwrap(quantities, capacity);
+        unitCosts = unwrap(unitCosts, capacity);
+        head = 0;
+    }
+
+    private long[] unwrap(long[] source, int capacity) {
+        long[] target = new long[capacity];
+        int firstPart = Math.min(size, source.length - head);
+        System.arraycopy(source, head, target, 0, firstPart);
+        System.arraycopy(source, 0, target, firstPart, size - firstPart);
+        return target;
+    }
+}
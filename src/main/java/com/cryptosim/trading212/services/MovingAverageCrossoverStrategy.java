@@ -0,0 +1,76 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.services.contracts.BacktestStrategy;
+import com.cryptosim.trading212.utils.TradeMath;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Moving-average crossover on a single symbol: invests a fraction of the balance when the short simple
+ * moving average crosses above the long one and sells the whole position when it crosses back below.
+ * Both averages are maintained incrementally over one ring buffer, so a tick costs O(1).
+ */
+public class MovingAverageCrossoverStrategy implements BacktestStrategy {
+
+    private final int symbolIndex;
+    private final int shortWindow;
+    private final int longWindow;
+    private final BigDecimal allocation;
+    private final long[] window;
+    private int next;
+    private int count;
+    private long shortSum;
+    private long longSum;
+    private int trend; // 1 while short > long, -1 while short < long, 0 until the long window is full
+
+    /**
+     * @param symbolIndex The traded symbol.
+     * @param shortWindow Length of the short average in ticks.
+     * @param longWindow  Length of the long average in ticks; must exceed shortWindow.
+     * @param allocation  Fraction (0, 1] of the balance invested on a buy signal.
+     */
+    public MovingAverageCrossoverStrategy(int symbolIndex, int shortWindow, int longWindow, BigDecimal allocation) {
+        if (shortWindow <= 0 || longWindow <= shortWindow) {
+            throw new IllegalArgumentException("Moving average windows must satisfy 0 < shortWindow < longWindow.");
+        }
+        if (allocation.signum() <= 0 || allocation.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("Allocation must be in (0, 1].");
+        }
+        this.symbolIndex = symbolIndex;
+        this.shortWindow = shortWindow;
+        this.longWindow = longWindow;
+        this.allocation = allocation;
+        this.window = new long[longWindow];
+    }
+
+    @Override
+    public void onTick(int symbolIndex, long timestamp, long priceUnits, BacktestAccount account) {
+        if (symbolIndex != this.symbolIndex) {
+            return;
+        }
+        long leavingLong = count >= longWindow ? window[next] : 0;
+        long leavingShort = count >= shortWindow ? window[(next - shortWindow + longWindow) % longWindow] : 0;
+        longSum += priceUnits - leavingLong;
+        shortSum += priceUnits - leavingShort;
+        window[next] = priceUnits;
+        next = (next + 1) % longWindow;
+        count++;
+        if (count < longWindow) {
+            return;
+        }
+
+        double shortAverage = (double) shortSum / shortWindow;
+        double longAverage = (double) longSum / longWindow;
+        int newTrend = shortAverage > longAverage ? 1 : shortAverage < longAverage ? -1 : trend;
+        if (trend != 0 && newTrend != trend) {
+            if (newTrend > 0) {
+                BigDecimal amount = account.getBalance().multiply(allocation).setScale(TradeMath.FIAT_SCALE, RoundingMode.DOWN);
+                account.buyForAmount(symbolIndex, amount);
+            } else {
+                account.sellAll(symbolIndex);
+            }
+        }
+        trend = newTrend;
+    }
+}
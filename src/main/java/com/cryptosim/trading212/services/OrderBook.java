@@ -0,0 +1,144 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.OrderType;
+import com.cryptosim.trading212.models.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Price-sorted book of resting orders for a single symbol.
+ * <p>
+ * Orders are split by the direction in which the price has to move to trigger them:
+ * SELL LIMIT and BUY STOP orders trigger when the price rises to their level, BUY LIMIT and
+ * SELL STOP orders trigger when it falls to their level. Each direction is kept in a tree sorted
+ * so that the crossed levels always form a prefix, which means a tick only visits the orders it
+ * actually triggers. Orders at the same level keep their arrival (FIFO) order.
+ */
+public class OrderBook {
+
+    /**
+     * Compact in-memory entry for an order resting in the book.
+     * The full order row is only reloaded from the database once it triggers.
+     */
+    public static final class RestingOrder {
+        private final int orderId;
+        private final int accountId;
+        private final BigDecimal triggerPrice;
+        private final boolean triggersOnRise;
+
+        public RestingOrder(int orderId, int accountId, BigDecimal triggerPrice, boolean triggersOnRise) {
+            this.orderId = orderId;
+            this.accountId = accountId;
+            this.triggerPrice = triggerPrice;
+            this.triggersOnRise = triggersOnRise;
+        }
+
+        public int getOrderId() {
+            return orderId;
+        }
+
+        // Selects the shard the order is stored on once it triggers
+        public int getAccountId() {
+            return accountId;
+        }
+
+        public BigDecimal getTriggerPrice() {
+            return triggerPrice;
+        }
+
+        // Identity is the order ID, so a cancelled order can be removed with a freshly built entry
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof RestingOrder && ((RestingOrder) o).orderId == orderId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(orderId);
+        }
+    }
+
+    // Ascending by trigger price: every level <= the current price is crossed
+    private final TreeMap<BigDecimal, ArrayDeque<RestingOrder>> risingTriggers = new TreeMap<>();
+    // Descending by trigger price: every level >= the current price is crossed
+    private final TreeMap<BigDecimal, ArrayDeque<RestingOrder>> fallingTriggers = new TreeMap<>(Comparator.reverseOrder());
+    private int size;
+
+    /**
+     * Determines whether an order triggers on an upward price move.
+     * A sell limit waits for the price to rise to its limit, a buy stop for a breakout above its stop.
+     */
+    public static boolean triggersOnRise(TransactionType side, OrderType orderType) {
+        return (side == TransactionType.SELL) == (orderType == OrderType.LIMIT);
+    }
+
+    public synchronized void add(RestingOrder order) {
+        TreeMap<BigDecimal, ArrayDeque<RestingOrder>> tree = order.triggersOnRise ? risingTriggers : fallingTriggers;
+        tree.computeIfAbsent(order.triggerPrice, price -> new ArrayDeque<>(2)).addLast(order);
+        size++;
+    }
+
+    /**
+     * Removes an order from its price level.
+     *
+     * @return true if the order was still resting in the book.
+     */
+    public synchronized boolean remove(RestingOrder order) {
+        TreeMap<BigDecimal, ArrayDeque<RestingOrder>> tree = order.triggersOnRise ? risingTriggers : fallingTriggers;
+        ArrayDeque<RestingOrder> level = tree.get(order.triggerPrice);
+        if (level == null || !level.remove(order)) {
+            return false;
+        }
+        if (level.isEmpty()) {
+            tree.remove(order.triggerPrice);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes and returns every order whose trigger has been crossed by the given price,
+     * lowest (rising) or highest (falling) trigger first. Costs O(log n) when nothing is crossed.
+     *
+     * @param price The latest traded price.
+     * @return The triggered orders, or an empty list.
+     */
+    public synchronized List<RestingOrder> pollTriggered(BigDecimal price) {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<RestingOrder> triggered = drainCrossed(risingTriggers.headMap(price, true), null);
+        triggered = drainCrossed(fallingTriggers.headMap(price, true), triggered);
+        return triggered != null ? triggered : Collections.emptyList();
+    }
+
+    private List<RestingOrder> drainCrossed(NavigableMap<BigDecimal, ArrayDeque<RestingOrder>> crossedLevels, List<RestingOrder> triggered) {
+        if (crossedLevels.isEmpty()) {
+            return triggered;
+        }
+        if (triggered == null) {
+            triggered = new ArrayList<>();
+        }
+        Iterator<Map.Entry<BigDecimal, ArrayDeque<RestingOrder>>> levels = crossedLevels.entrySet().iterator();
+        while (levels.hasNext()) {
+            ArrayDeque<RestingOrder> level = levels.next().getValue();
+            size -= level.size();
+            triggered.addAll(level);
+            levels.remove();
+        }
+        return triggered;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
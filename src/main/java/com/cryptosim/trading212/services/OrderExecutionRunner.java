@@ -0,0 +1,61 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.OrderDao;
+import com.cryptosim.trading212.models.Order;
+import com.cryptosim.trading212.models.OrderStatus;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionType;
+import com.cryptosim.trading212.services.contracts.TradingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Executes triggered resting orders, each in its own database transaction.
+ * Kept as a separate bean so the transactional proxy applies when called from {@link OrderServiceImpl}'s
+ * execution threads.
+ */
+@Service
+public class OrderExecutionRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExecutionRunner.class);
+
+    private final OrderDao orderDao;
+    private final TradingService tradingService;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public OrderExecutionRunner(OrderDao orderDao, TradingService tradingService, ShardRouter shardRouter) {
+        this.orderDao = orderDao;
+        this.tradingService = tradingService;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Claims the order (OPEN -> TRIGGERED), runs it through the regular buy/sell logic and marks it filled.
+     * The claim holds the order's row lock until the fill commits, so the order can never execute twice;
+     * if the trade fails, the whole run (including the claim) is rolled back and the order is still OPEN.
+     *
+     * @return The transaction of the fill, or null if the order was no longer open.
+     */
+    @Transactional
+    public Transaction fill(int orderId, int accountId) {
+        shardRouter.routeToAccount(accountId);
+        if (!orderDao.updateStatus(orderId, OrderStatus.OPEN, OrderStatus.TRIGGERED, null)) {
+            logger.debug("Order {} was no longer open when triggered, skipping.", orderId);
+            return null;
+        }
+        Order order = orderDao.findById(orderId)
+                .orElseThrow(() -> new NoSuchElementException("Order " + orderId + " not found."));
+        Transaction transaction = order.getSide() == TransactionType.BUY
+                ? tradingService.buyCrypto(order.getUserIdentifier(), order.getAssetSymbol(), order.getQuantity())
+                : tradingService.sellCrypto(order.getUserIdentifier(), order.getAssetSymbol(), order.getQuantity());
+        orderDao.markFilled(orderId, transaction.getTransactionId());
+        return transaction;
+    }
+}
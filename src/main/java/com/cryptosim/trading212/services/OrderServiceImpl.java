@@ -0,0 +1,291 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.OrderDao;
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.Order;
+import com.cryptosim.trading212.models.OrderStatus;
+import com.cryptosim.trading212.models.OrderType;
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionType;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.OrderService;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import com.cryptosim.trading212.services.contracts.TradingService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class for resting limit and stop orders.
+ * Open orders are persisted in the 'orders' table and mirrored in one price-sorted
+ * {@link OrderBook} per symbol. Every price tick only visits the orders it crosses; those are
+ * handed to a small executor that runs them through the regular {@link TradingService} logic,
+ * so the feed thread never waits on the database.
+ * <p>
+ * The claim and the fill of an order commit together (see {@link OrderExecutionRunner}), so an order that is still
+ * TRIGGERED never traded; such orders are reopened when the application is ready, before the books are loaded.
+ */
+@Service
+public class OrderServiceImpl implements OrderService, TickListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
+
+    private static final int PRICE_SCALE = 8;
+    private static final int EXECUTION_THREADS = 4;
+    private static final int STATUS_REASON_MAX_LENGTH = 255;
+    private static final long LOAD_RETRY_MILLIS = 60_000;
+
+    private final OrderDao orderDao;
+    private final AccountDao accountDao;
+    private final OrderExecutionRunner orderExecutionRunner;
+    private final KrakenDataService krakenDataService;
+    private final ShardRouter shardRouter;
+
+    private final ConcurrentHashMap<String, OrderBook> orderBooks = new ConcurrentHashMap<>();
+    private final ExecutorService executionExecutor;
+    private final ScheduledExecutorService loadExecutor;
+
+    @Autowired
+    public OrderServiceImpl(OrderDao orderDao,
+                            AccountDao accountDao,
+                            OrderExecutionRunner orderExecutionRunner,
+                            KrakenDataService krakenDataService,
+                            ShardRouter shardRouter) {
+        this.orderDao = orderDao;
+        this.accountDao = accountDao;
+        this.orderExecutionRunner = orderExecutionRunner;
+        this.krakenDataService = krakenDataService;
+        this.shardRouter = shardRouter;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executionExecutor = Executors.newFixedThreadPool(EXECUTION_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "order-execution-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loadExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-book-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts listening to price updates and loads the order books in the background once the application is ready,
+     * so a database that is not reachable yet does not fail the startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        krakenDataService.addTickListener(this, "order-triggers", null, false);
+        loadExecutor.execute(this::loadOrderBooks);
+    }
+
+    /**
+     * Reopens the orders left TRIGGERED and rebuilds the in-memory order books from the open orders in the database.
+     * If that fails, the books are cleared and the load is retried after {@link #LOAD_RETRY_MILLIS} ms; an order
+     * placed in the meantime may then sit in its book twice, which its claim makes harmless.
+     */
+    private void loadOrderBooks() {
+        try {
+            reopenTriggeredOrders();
+            long startedAt = System.nanoTime();
+            AtomicInteger loaded = new AtomicInteger();
+            orderDao.streamOpenOrders(order -> {
+                bookFor(order.getAssetSymbol()).add(toRestingOrder(order));
+                loaded.incrementAndGet();
+            });
+            logger.info("Rebuilt order books with {} open orders across {} symbols in {} ms",
+                    loaded.get(), orderBooks.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (Exception e) {
+            logger.error("Loading the order books failed, retrying in {} ms", LOAD_RETRY_MILLIS, e);
+            orderBooks.clear();
+            loadExecutor.schedule(this::loadOrderBooks, LOAD_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            shardRouter.clearRoute();
+        }
+    }
+
+    /**
+     * Moves every TRIGGERED order back to OPEN. Such an order was claimed by a run whose fill never committed,
+     * so it did not trade.
+     */
+    private void reopenTriggeredOrders() {
+        for (Order order : orderDao.findTriggeredOrders()) {
+            shardRouter.routeToAccount(order.getAccountId());
+            if (orderDao.updateStatus(order.getOrderId(), OrderStatus.TRIGGERED, OrderStatus.OPEN, null)) {
+                logger.warn("Reopened order ID: {}, which was triggered but never executed", order.getOrderId());
+            }
+        }
+    }
+
+    private OrderBook bookFor(String assetSymbol) {
+        return orderBooks.computeIfAbsent(assetSymbol, symbol -> new OrderBook());
+    }
+
+    private static OrderBook.RestingOrder toRestingOrder(Order order) {
+        return new OrderBook.RestingOrder(order.getOrderId(), order.getAccountId(), order.getTriggerPrice(),
+                OrderBook.triggersOnRise(order.getSide(), order.getOrderType()));
+    }
+
+    private Account getAccountByUserIdentifier(String userIdentifier) {
+        return accountDao.findByUserIdentifier(userIdentifier)
+                .orElseThrow(() -> {
+                    logger.warn("Account not found for userIdentifier: {}", userIdentifier);
+                    return new NoSuchElementException("Account not found for user: " + userIdentifier);
+                });
+    }
+
+    @Override
+    public Order placeOrder(String userIdentifier, String assetSymbol, TransactionType side, OrderType orderType,
+                            BigDecimal quantity, BigDecimal triggerPrice) {
+        logger.info("Attempting to place {} {} order for {} of {} at {} for user {}", orderType, side, quantity, assetSymbol, triggerPrice, userIdentifier);
+
+        if (side == null || orderType == null) {
+            throw new IllegalArgumentException("Order side and type are required.");
+        }
+        if (quantity == null || quantity.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Order quantity must be positive.");
+        }
+        if (triggerPrice == null || triggerPrice.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Order trigger price must be positive.");
+        }
+
+        Account account = getAccountByUserIdentifier(userIdentifier);
+
+        Order order = new Order();
+        order.setAccountId(account.getAccountId());
+        order.setUserIdentifier(userIdentifier);
+        order.setAssetSymbol(assetSymbol);
+        order.setSide(side);
+        order.setOrderType(orderType);
+        order.setQuantity(quantity);
+        order.setTriggerPrice(triggerPrice.setScale(PRICE_SCALE, RoundingMode.HALF_UP));
+        Order createdOrder = orderDao.createOrder(order);
+
+        OrderBook book = bookFor(assetSymbol);
+        book.add(toRestingOrder(createdOrder));
+        logger.info("Placed order ID: {} for account {}", createdOrder.getOrderId(), account.getAccountId());
+
+        // An order that is already marketable should not have to wait for the next tick
+        BigDecimal currentPrice = krakenDataService.getPriceForSymbol(assetSymbol);
+        if (currentPrice != null) {
+            dispatchTriggered(assetSymbol, book, currentPrice);
+        }
+        return createdOrder;
+    }
+
+    @Override
+    public Order cancelOrder(String userIdentifier, int orderId) {
+        Account account = getAccountByUserIdentifier(userIdentifier);
+        Order order = orderDao.findById(orderId)
+                .filter(found -> found.getAccountId() == account.getAccountId())
+                .orElseThrow(() -> new NoSuchElementException("Order " + orderId + " not found for user: " + userIdentifier));
+
+        if (!orderDao.updateStatus(orderId, OrderStatus.OPEN, OrderStatus.CANCELLED, "Cancelled by user")) {
+            throw new IllegalArgumentException("Order " + orderId + " can no longer be cancelled.");
+        }
+        OrderBook book = orderBooks.get(order.getAssetSymbol());
+        if (book != null) {
+            book.remove(toRestingOrder(order));
+        }
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setStatusReason("Cancelled by user");
+        logger.info("Cancelled order ID: {} for account {}", orderId, account.getAccountId());
+        return order;
+    }
+
+    @Override
+    public List<Order> getOrders(String userIdentifier) {
+        Account account = getAccountByUserIdentifier(userIdentifier);
+        return orderDao.findByAccountId(account.getAccountId());
+    }
+
+    /**
+     * Invoked on the feed thread for every price change. Only orders whose trigger was crossed
+     * are removed from the book; their execution is handed off to the execution executor.
+     */
+    @Override
+    public void onTick(PriceTick tick) {
+        OrderBook book = orderBooks.get(tick.getAssetSymbol());
+        if (book != null) {
+            dispatchTriggered(tick.getAssetSymbol(), book, tick.getPrice());
+        }
+    }
+
+    private void dispatchTriggered(String assetSymbol, OrderBook book, BigDecimal price) {
+        List<OrderBook.RestingOrder> triggered = book.pollTriggered(price);
+        if (triggered.isEmpty()) {
+            return;
+        }
+        logger.info("{} resting orders triggered for {} at {}", triggered.size(), assetSymbol, price);
+        for (OrderBook.RestingOrder restingOrder : triggered) {
+            executionExecutor.execute(() -> executeTriggeredOrder(restingOrder));
+        }
+    }
+
+    /**
+     * Executes a triggered order through the {@link OrderExecutionRunner}. If it fails, the run has been rolled back
+     * and the still open order is rejected.
+     */
+    private void executeTriggeredOrder(OrderBook.RestingOrder restingOrder) {
+        int orderId = restingOrder.getOrderId();
+        try {
+            Transaction transaction = orderExecutionRunner.fill(orderId, restingOrder.getAccountId());
+            if (transaction != null) {
+                logger.info("Filled order ID: {} with transaction ID: {}", orderId, transaction.getTransactionId());
+            }
+        } catch (IllegalArgumentException | NoSuchElementException | IllegalStateException e) {
+            logger.warn("Rejected triggered order {}: {}", orderId, e.getMessage());
+            reject(restingOrder, truncateReason(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error executing triggered order {}", orderId, e);
+            reject(restingOrder, "Unexpected error during execution.");
+        } finally {
+            shardRouter.clearRoute();
+        }
+    }
+
+    private void reject(OrderBook.RestingOrder restingOrder, String reason) {
+        shardRouter.routeToAccount(restingOrder.getAccountId());
+        orderDao.updateStatus(restingOrder.getOrderId(), OrderStatus.OPEN, OrderStatus.REJECTED, reason);
+    }
+
+    private static String truncateReason(String reason) {
+        if (reason == null || reason.length() <= STATUS_REASON_MAX_LENGTH) {
+            return reason;
+        }
+        return reason.substring(0, STATUS_REASON_MAX_LENGTH);
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        loadExecutor.shutdownNow();
+        executionExecutor.shutdown();
+        try {
+            if (!executionExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Order execution executor did not terminate in time; queued orders stay OPEN and are reloaded on restart.");
+                executionExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executionExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.PnlRollupDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Executes one chunk of the P&L rollup backfill in its own transaction.
+ * Kept as a separate bean so the transactional proxy applies when called from {@link PnlServiceImpl}'s worker threads.
+ */
+@Service
+public class PnlRollupRunner {
+
+    private final PnlRollupDao pnlRollupDao;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public PnlRollupRunner(PnlRollupDao pnlRollupDao, ShardRouter shardRouter) {
+        this.pnlRollupDao = pnlRollupDao;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Rebuilds the rollups of an account ID range of one shard atomically.
+     *
+     * @return The number of account x symbol x day rows written.
+     */
+    @Transactional
+    public int rebuildChunk(int shard, int fromAccountId, int toAccountId) {
+        shardRouter.routeTo(shard);
+        return pnlRollupDao.rebuildAccountRange(fromAccountId, toAccountId);
+    }
+}
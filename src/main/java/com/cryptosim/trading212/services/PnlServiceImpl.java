@@ -0,0 +1,121 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.PnlRollupDao;
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.PnlGrouping;
+import com.cryptosim.trading212.models.PnlSummary;
+import com.cryptosim.trading212.services.contracts.PnlService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service class for realized P&L reports.
+ * <p>
+ * Every trade adds itself to the daily rollups (see {@link TradingServiceImpl}), so a report over any range
+ * sums at most one row per day and symbol instead of scanning the account's history. The backfill rebuilds
+ * the rollups from 'transactions' in account ID chunks of every shard, each in its own transaction, on a small pool.
+ * Chunks are idempotent, so a failed or interrupted backfill can simply be started again.
+ */
+@Service
+public class PnlServiceImpl implements PnlService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PnlServiceImpl.class);
+
+    private static final int BACKFILL_CHUNK_ACCOUNTS = 1000;
+    private static final int BACKFILL_THREADS = 4;
+    private static final long MAX_RANGE_DAYS = 3660;
+
+    private final AccountDao accountDao;
+    private final PnlRollupDao pnlRollupDao;
+    private final PnlRollupRunner pnlRollupRunner;
+    private final ShardRouter shardRouter;
+    private final BackgroundJobTracker jobs = new BackgroundJobTracker("pnl-backfill", BACKFILL_THREADS);
+
+    @Autowired
+    public PnlServiceImpl(AccountDao accountDao, PnlRollupDao pnlRollupDao, PnlRollupRunner pnlRollupRunner, ShardRouter shardRouter) {
+        this.accountDao = accountDao;
+        this.pnlRollupDao = pnlRollupDao;
+        this.pnlRollupRunner = pnlRollupRunner;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public List<PnlSummary> getSummary(String userIdentifier, LocalDate from, LocalDate to, PnlGrouping grouping) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range: 'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days.");
+        }
+        Account account = accountDao.findByUserIdentifier(userIdentifier)
+                .orElseThrow(() -> {
+                    logger.warn("Account not found for userIdentifier: {}", userIdentifier);
+                    return new NoSuchElementException("Account not found for user: " + userIdentifier);
+                });
+        return pnlRollupDao.summarize(account.getAccountId(), from, to, grouping != null ? grouping : PnlGrouping.TOTAL);
+    }
+
+    @Override
+    public synchronized BackfillProgress startBackfill() {
+        if (jobs.getRunningJobName() != null) {
+            throw new IllegalStateException("A P&L backfill is already running.");
+        }
+        List<Integer> maxAccountIds = shardRouter.fanOut(shard -> accountDao.findMaxAccountId());
+        int totalChunks = 0;
+        for (int maxAccountId : maxAccountIds) {
+            totalChunks += (maxAccountId + BACKFILL_CHUNK_ACCOUNTS - 1) / BACKFILL_CHUNK_ACCOUNTS;
+        }
+
+        jobs.start("pnl-rollups", totalChunks, 0);
+        logger.info("Starting P&L rollup backfill over max account IDs {} of the shards in {} chunks", maxAccountIds, totalChunks);
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>(totalChunks);
+        for (int shard = 0; shard < maxAccountIds.size(); shard++) {
+            int maxAccountId = maxAccountIds.get(shard);
+            for (int fromAccountId = 1; fromAccountId <= maxAccountId; fromAccountId += BACKFILL_CHUNK_ACCOUNTS) {
+                int chunkShard = shard;
+                int chunkFrom = fromAccountId;
+                int chunkTo = Math.min(fromAccountId + BACKFILL_CHUNK_ACCOUNTS - 1, maxAccountId);
+                chunks.add(CompletableFuture.runAsync(() -> runChunk(chunkShard, chunkFrom, chunkTo), jobs.getExecutor()));
+            }
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            jobs.finish();
+            logger.info("P&L rollup backfill finished: {} chunks done, {} failed, {} rows written",
+                    jobs.getCompletedChunks(), jobs.getFailedChunks(), jobs.getRowsWritten());
+        });
+        return getBackfillProgress();
+    }
+
+    private void runChunk(int shard, int fromAccountId, int toAccountId) {
+        try {
+            jobs.chunkCompleted(pnlRollupRunner.rebuildChunk(shard, fromAccountId, toAccountId));
+        } catch (Exception e) {
+            jobs.chunkFailed("Shard " + shard + ", accounts " + fromAccountId + "-" + toAccountId + ": " + e.getMessage());
+            logger.error("P&L rollup backfill failed for account IDs {}-{} on shard {}", fromAccountId, toAccountId, shard, e);
+        }
+    }
+
+    @Override
+    public BackfillProgress getBackfillProgress() {
+        return jobs.getProgress();
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        jobs.shutdown();
+    }
+}
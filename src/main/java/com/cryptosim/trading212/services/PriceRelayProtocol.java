@@ -0,0 +1,308 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire format of the price relay between the feed leader and its followers (see {@link ClusteredMarketDataServiceImpl}).
+ * <p>
+ * Every frame is a type byte followed by its body, big-endian as written by {@link DataOutputStream}. The leader
+ * opens every connection with a HELLO carrying its symbol and venue lists; all later frames refer to symbols and
+ * venues by their index in those lists. Prices travel as an unscaled long and a scale, so a quote entry takes
+ * 30 to 50 bytes.
+ */
+final class PriceRelayProtocol {
+
+    static final int VERSION = 1;
+
+    static final byte HELLO = 1;       // Leader: version, epoch, leader ID, symbols, venues
+    static final byte QUOTES = 2;      // Leader: batch of quotes; an entry without a price clears the symbol
+    static final byte HEARTBEAT = 3;   // Leader: age of every price, sent even when nothing changed
+    static final byte SUBSCRIBE = 4;   // Follower: symbols its node needs
+    static final byte UNSUBSCRIBE = 5; // Follower: symbols its node no longer needs
+
+    private static final byte HAS_PRICE = 1;
+    private static final byte HAS_BID = 2;
+    private static final byte HAS_ASK = 4;
+    private static final int MAX_SYMBOLS = 0xFFFF; // Indexes are sent as unsigned shorts
+    private static final MathContext LONG_PRECISION = new MathContext(18, RoundingMode.HALF_UP);
+
+    private PriceRelayProtocol() {
+    }
+
+    /**
+     * Contents of a HELLO frame.
+     */
+    static final class Hello {
+        private final long epoch;
+        private final String leaderId;
+        private final List<String> symbols;
+        private final List<String> venues;
+        private final Map<String, Integer> symbolIndexes = new HashMap<>();
+
+        Hello(long epoch, String leaderId, List<String> symbols, List<String> venues) {
+            this.epoch = epoch;
+            this.leaderId = leaderId;
+            this.symbols = List.copyOf(symbols);
+            this.venues = List.copyOf(venues);
+            for (int i = 0; i < this.symbols.size(); i++) {
+                symbolIndexes.put(this.symbols.get(i), i);
+            }
+        }
+
+        long getEpoch() {
+            return epoch;
+        }
+
+        String getLeaderId() {
+            return leaderId;
+        }
+
+        List<String> getSymbols() {
+            return symbols;
+        }
+
+        List<String> getVenues() {
+            return venues;
+        }
+
+        int indexOf(String symbol) {
+            Integer index = symbolIndexes.get(symbol);
+            return index != null ? index : -1;
+        }
+    }
+
+    /**
+     * Builds a QUOTES frame; entries are written as they are added.
+     */
+    static final class QuoteBatch {
+        private final Map<String, Integer> venueIndexes = new HashMap<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(body);
+        private int count;
+
+        QuoteBatch(List<String> venues) {
+            for (int i = 0; i < venues.size(); i++) {
+                venueIndexes.put(venues.get(i), i);
+            }
+        }
+
+        /**
+         * @param symbolIndex Index of the symbol in the HELLO.
+         * @param quote       The quote, or null to clear the symbol.
+         */
+        QuoteBatch add(int symbolIndex, ConsolidatedQuote quote) {
+            try {
+                out.writeShort(symbolIndex);
+                if (quote == null) {
+                    out.writeByte(0);
+                    count++;
+                    return this;
+                }
+                byte flags = HAS_PRICE;
+                flags |= quote.getBestBid() != null ? HAS_BID : 0;
+                flags |= quote.getBestAsk() != null ? HAS_ASK : 0;
+                out.writeByte(flags);
+                out.writeLong(quote.getSequence());
+                out.writeLong(quote.getUpdatedAt());
+                out.writeShort(quote.getVenueCount());
+                writePrice(out, quote.getPrice());
+                if (quote.getBestBid() != null) {
+                    writePrice(out, quote.getBestBid());
+                    out.writeByte(venueIndexes.getOrDefault(quote.getBestBidVenue(), -1));
+                }
+                if (quote.getBestAsk() != null) {
+                    writePrice(out, quote.getBestAsk());
+                    out.writeByte(venueIndexes.getOrDefault(quote.getBestAskVenue(), -1));
+                }
+                count++;
+                return this;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Cannot happen with an in-memory stream
+            }
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        byte[] toFrame() {
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(body.size() + 5);
+            frame.write(QUOTES);
+            frame.write(count >>> 24);
+            frame.write(count >>> 16);
+            frame.write(count >>> 8);
+            frame.write(count);
+            frame.writeBytes(body.toByteArray());
+            return frame.toByteArray();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if there are more symbols or venues than the format can address.
+     */
+    static byte[] encodeHello(Hello hello) {
+        if (hello.getSymbols().size() > MAX_SYMBOLS || hello.getVenues().size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many symbols or venues for the price relay.");
+        }
+        return encode(out -> {
+            out.writeByte(HELLO);
+            out.writeInt(VERSION);
+            out.writeLong(hello.getEpoch());
+            out.writeUTF(hello.getLeaderId());
+            out.writeInt(hello.getSymbols().size());
+            for (String symbol : hello.getSymbols()) {
+                out.writeUTF(symbol);
+            }
+            out.writeInt(hello.getVenues().size());
+            for (String venue : hello.getVenues()) {
+                out.writeUTF(venue);
+            }
+        });
+    }
+
+    /**
+     * Reads the body of a HELLO frame, after its type byte.
+     */
+    static Hello readHello(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported price relay version " + version + ".");
+        }
+        long epoch = in.readLong();
+        String leaderId = in.readUTF();
+        List<String> symbols = readStrings(in, MAX_SYMBOLS);
+        List<String> venues = readStrings(in, Byte.MAX_VALUE);
+        return new Hello(epoch, leaderId, symbols, venues);
+    }
+
+    private static List<String> readStrings(DataInputStream in, int max) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > max) {
+            throw new IOException("Invalid list length " + count + " in price relay frame.");
+        }
+        List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(in.readUTF());
+        }
+        return strings;
+    }
+
+    /**
+     * Reads one entry of a QUOTES frame after its symbol index.
+     *
+     * @return The quote, or null if the entry clears the symbol.
+     */
+    static ConsolidatedQuote readQuote(DataInputStream in, String symbol, List<String> venues) throws IOException {
+        byte flags = in.readByte();
+        if ((flags & HAS_PRICE) == 0) {
+            return null;
+        }
+        long sequence = in.readLong();
+        long updatedAt = in.readLong();
+        int venueCount = in.readUnsignedShort();
+        BigDecimal price = readPrice(in);
+        BigDecimal bestBid = null;
+        BigDecimal bestAsk = null;
+        String bestBidVenue = null;
+        String bestAskVenue = null;
+        if ((flags & HAS_BID) != 0) {
+            bestBid = readPrice(in);
+            bestBidVenue = venueName(venues, in.readByte());
+        }
+        if ((flags & HAS_ASK) != 0) {
+            bestAsk = readPrice(in);
+            bestAskVenue = venueName(venues, in.readByte());
+        }
+        return new ConsolidatedQuote(symbol, bestBid, bestBidVenue, bestAsk, bestAskVenue, price, venueCount, updatedAt, sequence);
+    }
+
+    private static String venueName(List<String> venues, int index) {
+        return index >= 0 && index < venues.size() ? venues.get(index) : null;
+    }
+
+    /**
+     * @param symbolIndexes Indexes of the symbols in the HELLO.
+     * @param ageMillis     Age of each symbol's price, in the same order.
+     */
+    static byte[] encodeHeartbeat(int[] symbolIndexes, int[] ageMillis, int count) {
+        return encode(out -> {
+            out.writeByte(HEARTBEAT);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeShort(symbolIndexes[i]);
+                out.writeInt(ageMillis[i]);
+            }
+        });
+    }
+
+    /**
+     * @param type          {@link #SUBSCRIBE} or {@link #UNSUBSCRIBE}.
+     * @param symbolIndexes Indexes of the symbols in the leader's HELLO.
+     */
+    static byte[] encodeSubscription(byte type, Collection<Integer> symbolIndexes) {
+        return encode(out -> {
+            out.writeByte(type);
+            out.writeInt(symbolIndexes.size());
+            for (int index : symbolIndexes) {
+                out.writeShort(index);
+            }
+        });
+    }
+
+    /**
+     * Reads the body of a SUBSCRIBE or UNSUBSCRIBE frame, after its type byte.
+     */
+    static List<Integer> readSubscription(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_SYMBOLS) {
+            throw new IOException("Invalid subscription length " + count + " in price relay frame.");
+        }
+        List<Integer> symbolIndexes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            symbolIndexes.add(in.readUnsignedShort());
+        }
+        return symbolIndexes;
+    }
+
+    // A value with more than 18 significant digits is rounded so its unscaled value fits a long
+    private static void writePrice(DataOutputStream out, BigDecimal price) throws IOException {
+        BigDecimal value = price.unscaledValue().bitLength() < Long.SIZE ? price : price.round(LONG_PRECISION);
+        out.writeLong(value.unscaledValue().longValueExact());
+        out.writeByte(value.scale());
+    }
+
+    private static BigDecimal readPrice(DataInputStream in) throws IOException {
+        long unscaled = in.readLong();
+        return new BigDecimal(BigInteger.valueOf(unscaled), in.readByte());
+    }
+
+    @FunctionalInterface
+    private interface FrameWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(FrameWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writer.write(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen with an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+}
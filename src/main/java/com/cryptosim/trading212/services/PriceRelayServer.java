@@ -0,0 +1,221 @@
+package com.cryptosim.trading212.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Leader side of the price relay: accepts follower connections and sends each of them the frames it is given
+ * (see {@link PriceRelayProtocol}).
+ * <p>
+ * Every follower has its own bounded outbox and writer thread, so a slow follower never delays the others. A
+ * follower whose outbox overflows is disconnected; it catches up from a fresh snapshot when it reconnects.
+ */
+class PriceRelayServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceRelayServer.class);
+    // At one batch every 10 ms, several seconds of backlog
+    private static final int OUTBOX_CAPACITY = 1024;
+
+    /**
+     * Callbacks of the leader; invoked on the threads of the relay.
+     */
+    interface Handler {
+        /**
+         * @return The HELLO frame that opens every connection.
+         */
+        byte[] hello();
+
+        /**
+         * @return Frames that bring a newly connected follower up to date. Called once the follower receives
+         * every broadcast frame, so nothing published in the meantime is lost.
+         */
+        List<byte[]> snapshot();
+
+        void onSubscribe(Object follower, List<String> assetSymbols);
+
+        void onUnsubscribe(Object follower, List<String> assetSymbols);
+
+        /**
+         * Called once per follower when its connection closes for any reason.
+         */
+        void onDisconnected(Object follower);
+    }
+
+    private final List<String> symbols;
+    private final Handler handler;
+    private final ServerSocket serverSocket;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCounter = new AtomicInteger();
+    private volatile boolean running = true;
+
+    /**
+     * Binds the port and starts accepting followers.
+     *
+     * @param port    The port to listen on.
+     * @param symbols The symbols of the HELLO, to resolve the indexes in subscription frames.
+     * @throws IOException if the port cannot be bound.
+     */
+    PriceRelayServer(int port, List<String> symbols, Handler handler) throws IOException {
+        this.symbols = List.copyOf(symbols);
+        this.handler = handler;
+        this.serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+        Thread acceptThread = new Thread(this::acceptLoop, "price-relay-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket, connectionCounter.incrementAndGet());
+                // HELLO first, then join the broadcasts, then the snapshot: the follower sees every change
+                connection.send(handler.hello());
+                connections.add(connection);
+                for (byte[] frame : handler.snapshot()) {
+                    connection.send(frame);
+                }
+                connection.start();
+                logger.info("Price relay follower {} connected from {}", connection.id, socket.getRemoteSocketAddress());
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Failed to accept a price relay follower: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a frame for every connected follower.
+     */
+    void broadcast(byte[] frame) {
+        for (Connection connection : connections) {
+            connection.send(frame);
+        }
+    }
+
+    int getFollowerCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Error closing the price relay socket: {}", e.getMessage());
+        }
+        for (Connection connection : new ArrayList<>(connections)) {
+            connection.close("relay stopped");
+        }
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final int id;
+        private final BlockingQueue<byte[]> outbox = new ArrayBlockingQueue<>(OUTBOX_CAPACITY);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private Thread writerThread;
+
+        private Connection(Socket socket, int id) {
+            this.socket = socket;
+            this.id = id;
+        }
+
+        private void start() {
+            writerThread = new Thread(this::writeLoop, "price-relay-writer-" + id);
+            writerThread.setDaemon(true);
+            writerThread.start();
+            Thread readerThread = new Thread(this::readLoop, "price-relay-reader-" + id);
+            readerThread.setDaemon(true);
+            readerThread.start();
+        }
+
+        private void send(byte[] frame) {
+            if (!closed.get() && !outbox.offer(frame)) {
+                close("outbox overflow");
+            }
+        }
+
+        private void writeLoop() {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                while (!closed.get()) {
+                    out.write(outbox.take());
+                    if (outbox.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                close(e.getMessage());
+            }
+        }
+
+        private void readLoop() {
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                while (!closed.get()) {
+                    byte type = in.readByte();
+                    if (type != PriceRelayProtocol.SUBSCRIBE && type != PriceRelayProtocol.UNSUBSCRIBE) {
+                        throw new IOException("Unexpected price relay frame type " + type + ".");
+                    }
+                    List<String> assetSymbols = new ArrayList<>();
+                    for (int index : PriceRelayProtocol.readSubscription(in)) {
+                        if (index < symbols.size()) {
+                            assetSymbols.add(symbols.get(index));
+                        }
+                    }
+                    if (type == PriceRelayProtocol.SUBSCRIBE) {
+                        handler.onSubscribe(this, assetSymbols);
+                    } else {
+                        handler.onUnsubscribe(this, assetSymbols);
+                    }
+                }
+            } catch (IOException e) {
+                close(e.getMessage());
+            } catch (Exception e) {
+                logger.error("Error handling price relay follower {}", id, e);
+                close(e.getMessage());
+            }
+        }
+
+        private void close(String reason) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Error closing price relay follower {}: {}", id, e.getMessage());
+            }
+            if (writerThread != null) {
+                writerThread.interrupt();
+            }
+            logger.info("Price relay follower {} disconnected: {}", id, reason);
+            handler.onDisconnected(this);
+        }
+    }
+}
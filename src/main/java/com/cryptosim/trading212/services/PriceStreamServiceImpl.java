@@ -0,0 +1,184 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.models.SubscriptionSource;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.PriceStreamService;
+import com.cryptosim.trading212.services.contracts.SubscriptionService;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service class that streams live prices to clients as server-sent events.
+ * <p>
+ * Each open stream holds a {@link SubscriptionSource#STREAM} reference on its symbols, so watching a pair is
+ * enough for the feed to start ingesting it. A stream receives the current prices when it opens. After that,
+ * the service follows the feed as a tick listener, collects the latest price of every streamed symbol that
+ * changed, and pushes those once per {@value #PUSH_INTERVAL_MILLIS} ms to the streams that contain them.
+ */
+@Service
+public class PriceStreamServiceImpl implements PriceStreamService, TickListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceStreamServiceImpl.class);
+
+    private static final int MAX_SYMBOLS_PER_STREAM = 50;
+    private static final long PUSH_INTERVAL_MILLIS = 1000;
+    private static final long STREAM_TIMEOUT_MILLIS = 30 * 60_000; // EventSource clients reconnect on their own
+
+    /**
+     * One connected client and the symbols it watches.
+     */
+    private static final class PriceStream {
+        private final SseEmitter emitter;
+        private final Set<String> symbols;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private PriceStream(SseEmitter emitter, Set<String> symbols) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+        }
+    }
+
+    private final KrakenDataService krakenDataService;
+    private final SubscriptionService subscriptionService;
+    private final List<PriceStream> streams = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> streamedSymbols = new ConcurrentHashMap<>(); // symbol -> open streams
+    private final Map<String, BigDecimal> changedPrices = new ConcurrentHashMap<>(); // Since the last push
+    private final ScheduledExecutorService pushExecutor;
+
+    @Autowired
+    public PriceStreamServiceImpl(KrakenDataService krakenDataService, SubscriptionService subscriptionService) {
+        this.krakenDataService = krakenDataService;
+        this.subscriptionService = subscriptionService;
+        this.pushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-stream-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    private void init() {
+        // Inline: the callback is a map lookup and a put
+        krakenDataService.addTickListener(this, "price-streams", null, false);
+        pushExecutor.scheduleWithFixedDelay(this::push, PUSH_INTERVAL_MILLIS, PUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter openStream(Collection<String> assetSymbols) {
+        Set<String> symbols = new LinkedHashSet<>(assetSymbols);
+        if (symbols.isEmpty() || symbols.size() > MAX_SYMBOLS_PER_STREAM) {
+            throw new IllegalArgumentException("A price stream needs between 1 and " + MAX_SYMBOLS_PER_STREAM + " symbols.");
+        }
+        Set<String> available = Set.copyOf(krakenDataService.getAvailableSymbols());
+        for (String symbol : symbols) {
+            if (!available.contains(symbol)) {
+                throw new IllegalArgumentException("Symbol " + symbol + " is not available.");
+            }
+        }
+
+        PriceStream stream = new PriceStream(new SseEmitter(STREAM_TIMEOUT_MILLIS), symbols);
+        Map<String, BigDecimal> initialPrices = new HashMap<>();
+        for (String symbol : symbols) {
+            subscriptionService.acquire(symbol, SubscriptionSource.STREAM);
+            streamedSymbols.merge(symbol, 1, Integer::sum);
+            BigDecimal price = krakenDataService.getPriceForSymbol(symbol);
+            if (price != null) {
+                initialPrices.put(symbol, price);
+            }
+        }
+        stream.emitter.onCompletion(() -> close(stream));
+        stream.emitter.onTimeout(() -> close(stream));
+        stream.emitter.onError(error -> close(stream));
+        streams.add(stream);
+        if (!initialPrices.isEmpty()) {
+            try {
+                stream.emitter.send(SseEmitter.event().name("prices").data(initialPrices));
+            } catch (Exception e) {
+                logger.debug("Initial prices for stream {} could not be sent: {}", symbols, e.getMessage());
+            }
+        }
+        logger.info("Opened price stream for {} ({} streams open)", symbols, streams.size());
+        return stream.emitter;
+    }
+
+    // Called once per stream however it ends, so every acquired reference is released exactly once
+    private void close(PriceStream stream) {
+        if (!stream.closed.compareAndSet(false, true)) {
+            return;
+        }
+        streams.remove(stream);
+        for (String symbol : stream.symbols) {
+            subscriptionService.release(symbol, SubscriptionSource.STREAM);
+            streamedSymbols.computeIfPresent(symbol, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        logger.debug("Closed price stream for {}", stream.symbols);
+    }
+
+    @Override
+    public void onTick(PriceTick tick) {
+        if (streamedSymbols.containsKey(tick.getAssetSymbol())) {
+            changedPrices.put(tick.getAssetSymbol(), tick.getPrice());
+        }
+    }
+
+    private void push() {
+        if (changedPrices.isEmpty()) {
+            return;
+        }
+        Map<String, BigDecimal> changed = new HashMap<>();
+        for (String symbol : changedPrices.keySet()) {
+            BigDecimal price = changedPrices.remove(symbol);
+            if (price != null) {
+                changed.put(symbol, price);
+            }
+        }
+        for (PriceStream stream : streams) {
+            Map<String, BigDecimal> update = new HashMap<>();
+            for (String symbol : stream.symbols) {
+                BigDecimal price = changed.get(symbol);
+                if (price != null) {
+                    update.put(symbol, price);
+                }
+            }
+            if (update.isEmpty()) {
+                continue;
+            }
+            try {
+                stream.emitter.send(SseEmitter.event().name("prices").data(update));
+            } catch (Exception e) {
+                logger.debug("Price stream for {} failed, closing it: {}", stream.symbols, e.getMessage());
+                stream.emitter.completeWithError(e);
+                close(stream);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        pushExecutor.shutdownNow();
+        for (PriceStream stream : streams) {
+            stream.emitter.complete();
+        }
+    }
+}
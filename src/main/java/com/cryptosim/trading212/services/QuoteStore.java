@@ -0,0 +1,98 @@
+package com.cryptosim.trading212.services;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latest price per symbol for a fixed catalogue of symbols, shared by all generator threads.
+ * <p>
+ * Every symbol has its own slot in an array, assigned once at construction. Since each symbol is produced
+ * by exactly one thread, a slot has a single writer and concurrent writers never touch the same memory or
+ * lock; readers see each slot's latest value without locking.
+ */
+public class QuoteStore {
+
+    private final List<String> symbols;
+    private final Map<String, Integer> slots;
+    private final AtomicReferenceArray<BigDecimal> prices;
+
+    public QuoteStore(List<String> symbols) {
+        this.symbols = List.copyOf(symbols);
+        Map<String, Integer> slotMap = new HashMap<>();
+        for (int i = 0; i < this.symbols.size(); i++) {
+            if (slotMap.putIfAbsent(this.symbols.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate symbol " + this.symbols.get(i) + " in quote store.");
+            }
+        }
+        this.slots = Map.copyOf(slotMap);
+        this.prices = new AtomicReferenceArray<>(this.symbols.size());
+    }
+
+    /**
+     * @return The slot of the symbol, or -1 if it is not part of the catalogue.
+     */
+    public int slotOf(String symbol) {
+        Integer slot = slots.get(symbol);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Stores the latest price of a symbol.
+     *
+     * @return false if the symbol is not part of the catalogue.
+     */
+    public boolean put(String symbol, BigDecimal price) {
+        Integer slot = slots.get(symbol);
+        if (slot == null) {
+            return false;
+        }
+        prices.set(slot, price);
+        return true;
+    }
+
+    /**
+     * Stores the latest price of a symbol and returns the one it replaces.
+     *
+     * @return The previous price, or null if there was none or the symbol is not part of the catalogue.
+     */
+    public BigDecimal getAndSet(String symbol, BigDecimal price) {
+        Integer slot = slots.get(symbol);
+        return slot != null ? prices.getAndSet(slot, price) : null;
+    }
+
+    public BigDecimal get(String symbol) {
+        Integer slot = slots.get(symbol);
+        return slot != null ? prices.get(slot) : null;
+    }
+
+    /**
+     * Drops the price of a symbol.
+     *
+     * @return The price that was stored, or null if there was none.
+     */
+    public BigDecimal remove(String symbol) {
+        Integer slot = slots.get(symbol);
+        return slot != null ? prices.getAndSet(slot, null) : null;
+    }
+
+    /**
+     * @return A new map with every symbol that currently has a price.
+     */
+    public Map<String, BigDecimal> snapshot() {
+        Map<String, BigDecimal> snapshot = new HashMap<>();
+        for (int i = 0; i < symbols.size(); i++) {
+            BigDecimal price = prices.get(i);
+            if (price != null) {
+                snapshot.put(symbols.get(i), price);
+            }
+        }
+        return snapshot;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+}
@@ -0,0 +1,90 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.services.contracts.BacktestStrategy;
+import com.cryptosim.trading212.utils.TradeMath;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Periodic rebalancing to fixed target weights. At every interval boundary (once all symbols have a price)
+ * positions that drifted from their target value by more than the threshold are traded back: overweight
+ * positions are sold first so their proceeds can fund the underweight ones. Weights summing to less than 1
+ * keep the rest in cash.
+ */
+public class RebalancingStrategy implements BacktestStrategy {
+
+    // Smaller corrections are not worth a trade (and may round to a zero quantity)
+    private static final BigDecimal MINIMUM_TRADE_VALUE = BigDecimal.ONE;
+
+    private final int[] symbolIndexes;
+    private final BigDecimal[] weights;
+    private final long intervalMillis;
+    private final BigDecimal threshold;
+    private long nextRebalanceAt = Long.MIN_VALUE;
+
+    /**
+     * @param symbolIndexes  The traded symbols.
+     * @param weights        Target weight of each symbol, summing to at most 1.
+     * @param intervalMillis Time between rebalances.
+     * @param threshold      Minimum drift, as a fraction of equity, that triggers a trade.
+     */
+    public RebalancingStrategy(int[] symbolIndexes, BigDecimal[] weights, long intervalMillis, BigDecimal threshold) {
+        if (symbolIndexes.length == 0 || symbolIndexes.length != weights.length) {
+            throw new IllegalArgumentException("Rebalancing needs one weight per symbol.");
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal weight : weights) {
+            if (weight == null || weight.signum() < 0) {
+                throw new IllegalArgumentException("Rebalancing weights must not be negative.");
+            }
+            total = total.add(weight);
+        }
+        if (total.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("Rebalancing weights must sum to at most 1.");
+        }
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Rebalancing interval must be positive.");
+        }
+        this.symbolIndexes = symbolIndexes;
+        this.weights = weights;
+        this.intervalMillis = intervalMillis;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void onTick(int symbolIndex, long timestamp, long priceUnits, BacktestAccount account) {
+        if (timestamp < nextRebalanceAt) {
+            return;
+        }
+        for (int index : symbolIndexes) {
+            if (account.getPriceUnits(index) == 0) {
+                return;
+            }
+        }
+        nextRebalanceAt = (timestamp / intervalMillis + 1) * intervalMillis;
+        rebalance(account);
+    }
+
+    private void rebalance(BacktestAccount account) {
+        BigDecimal equity = account.getEquity();
+        BigDecimal minimumTrade = equity.multiply(threshold).max(MINIMUM_TRADE_VALUE);
+        BigDecimal[] drifts = new BigDecimal[symbolIndexes.length];
+        for (int i = 0; i < symbolIndexes.length; i++) {
+            BigDecimal target = equity.multiply(weights[i]).setScale(TradeMath.FIAT_SCALE, RoundingMode.DOWN);
+            drifts[i] = target.subtract(account.getPositionValue(symbolIndexes[i]));
+        }
+        for (int i = 0; i < symbolIndexes.length; i++) {
+            if (drifts[i].signum() < 0 && drifts[i].negate().compareTo(minimumTrade) > 0) {
+                int index = symbolIndexes[i];
+                BigDecimal quantity = TradeMath.quantityForAmount(drifts[i].negate(), account.getPrice(index)).min(account.getQuantity(index));
+                account.sell(index, quantity);
+            }
+        }
+        for (int i = 0; i < symbolIndexes.length; i++) {
+            if (drifts[i].signum() > 0 && drifts[i].compareTo(minimumTrade) > 0) {
+                account.buyForAmount(symbolIndexes[i], drifts[i].min(account.getBalance()));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.RecurringPlanDao;
+import com.cryptosim.trading212.models.RecurringPlan;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.services.contracts.TradingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Executes single runs of recurring plans, each in its own database transaction.
+ * A run first claims its (plan, slot) row, so repeating a slot (after a crash, on catch-up,
+ * or from a second node) is a no-op instead of a second purchase.
+ */
+@Service
+public class RecurringPlanRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringPlanRunner.class);
+
+    private final RecurringPlanDao recurringPlanDao;
+    private final TradingService tradingService;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public RecurringPlanRunner(RecurringPlanDao recurringPlanDao, TradingService tradingService, ShardRouter shardRouter) {
+        this.recurringPlanDao = recurringPlanDao;
+        this.tradingService = tradingService;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Claims the slot, buys the plan's fiat amount and moves the plan to its next slot.
+     * If the purchase fails, the whole run (including the claim) is rolled back.
+     *
+     * @return true if the purchase was executed, false if the slot had already been run.
+     */
+    @Transactional
+    public boolean runSlot(RecurringPlan plan, LocalDateTime scheduledFor, LocalDateTime nextRunAt) {
+        shardRouter.routeToAccount(plan.getAccountId());
+        if (!recurringPlanDao.claimRun(plan.getPlanId(), scheduledFor)) {
+            logger.info("Slot {} of plan {} was already run, skipping.", scheduledFor, plan.getPlanId());
+            return false;
+        }
+        Transaction transaction = tradingService.buyCryptoForAmount(plan.getUserIdentifier(), plan.getAssetSymbol(), plan.getFiatAmount());
+        recurringPlanDao.completeRun(plan.getPlanId(), scheduledFor, transaction.getTransactionId());
+        recurringPlanDao.advanceNextRun(plan.getPlanId(), scheduledFor, nextRunAt);
+        logger.info("Executed slot {} of plan {} with transaction ID: {}", scheduledFor, plan.getPlanId(), transaction.getTransactionId());
+        return true;
+    }
+
+    /**
+     * Records a failed run (e.g. insufficient funds) and moves the plan to its next slot,
+     * so a plan that cannot be funded does not retry the same slot forever.
+     */
+    @Transactional
+    public void recordFailure(RecurringPlan plan, LocalDateTime scheduledFor, LocalDateTime nextRunAt, String message) {
+        shardRouter.routeToAccount(plan.getAccountId());
+        recurringPlanDao.recordFailedRun(plan.getPlanId(), scheduledFor, message);
+        recurringPlanDao.advanceNextRun(plan.getPlanId(), scheduledFor, nextRunAt);
+    }
+}
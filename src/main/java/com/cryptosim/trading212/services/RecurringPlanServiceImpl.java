@@ -0,0 +1,284 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.RecurringPlanDao;
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.RecurringPlan;
+import com.cryptosim.trading212.services.contracts.RecurringPlanService;
+import com.cryptosim.trading212.utils.HierarchicalTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class for recurring (DCA) investment plans.
+ * <p>
+ * Plans are persisted in 'recurring_plans' and kept in memory only as lightweight entries in a
+ * {@link HierarchicalTimingWheel}, which makes scheduling O(1) regardless of how many plans exist.
+ * Once per tick the due entries are drained and split into batches; each batch loads its plans with a
+ * single query and runs them through {@link RecurringPlanRunner} on a fixed-size pool, which bounds
+ * the number of purchases in flight. Entries are never removed from the wheel: a cancelled or
+ * already-advanced plan is recognised as stale when its batch is loaded.
+ */
+@Service
+public class RecurringPlanServiceImpl implements RecurringPlanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringPlanServiceImpl.class);
+
+    private static final long TICK_MILLIS = 1000;
+    // 4 levels of 64 slots with one-second ticks cover roughly 194 days before entries are re-cascaded
+    private static final int WHEEL_BITS_PER_LEVEL = 6;
+    private static final int WHEEL_LEVELS = 4;
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_CONCURRENT_BATCHES = 4;
+    private static final long MIN_INTERVAL_SECONDS = 60;
+    private static final long RETRY_DELAY_SECONDS = 60;
+    private static final int MESSAGE_MAX_LENGTH = 255;
+
+    /**
+     * Wheel entry: the plan and the slot it was scheduled for.
+     */
+    private static final class ScheduledRun {
+        private final int planId;
+        private final LocalDateTime scheduledFor;
+
+        private ScheduledRun(int planId, LocalDateTime scheduledFor) {
+            this.planId = planId;
+            this.scheduledFor = scheduledFor;
+        }
+    }
+
+    private final RecurringPlanDao recurringPlanDao;
+    private final AccountDao accountDao;
+    private final RecurringPlanRunner recurringPlanRunner;
+
+    private final HierarchicalTimingWheel<ScheduledRun> timingWheel;
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService batchExecutor;
+
+    @Autowired
+    public RecurringPlanServiceImpl(RecurringPlanDao recurringPlanDao,
+                                    AccountDao accountDao,
+                                    RecurringPlanRunner recurringPlanRunner) {
+        this.recurringPlanDao = recurringPlanDao;
+        this.accountDao = accountDao;
+        this.recurringPlanRunner = recurringPlanRunner;
+        this.timingWheel = new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_BITS_PER_LEVEL, WHEEL_LEVELS, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recurring-plan-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.batchExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_BATCHES, runnable -> {
+            Thread thread = new Thread(runnable, "recurring-plan-batch-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads every active plan into the wheel. Plans whose slot passed while the application was down
+     * are due immediately; their slot key makes the catch-up run idempotent.
+     */
+    @PostConstruct
+    private void init() {
+        AtomicInteger loaded = new AtomicInteger();
+        recurringPlanDao.streamActivePlans(plan -> {
+            schedule(plan.getPlanId(), plan.getNextRunAt());
+            loaded.incrementAndGet();
+        });
+        logger.info("Scheduled {} active recurring plans", loaded.get());
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void schedule(int planId, LocalDateTime scheduledFor) {
+        long dueMillis = scheduledFor.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (timingWheel) {
+            timingWheel.schedule(new ScheduledRun(planId, scheduledFor), dueMillis);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<ScheduledRun> due = new ArrayList<>();
+            synchronized (timingWheel) {
+                timingWheel.advanceTo(System.currentTimeMillis(), due::add);
+            }
+            for (int from = 0; from < due.size(); from += BATCH_SIZE) {
+                List<ScheduledRun> batch = due.subList(from, Math.min(from + BATCH_SIZE, due.size()));
+                batchExecutor.execute(() -> runBatch(batch));
+            }
+        } catch (Exception e) {
+            logger.error("Recurring plan tick failed", e);
+        }
+    }
+
+    private void runBatch(List<ScheduledRun> batch) {
+        Map<Integer, RecurringPlan> plans = new HashMap<>();
+        try {
+            List<Integer> planIds = new ArrayList<>(batch.size());
+            for (ScheduledRun run : batch) {
+                planIds.add(run.planId);
+            }
+            for (RecurringPlan plan : recurringPlanDao.findByIds(planIds)) {
+                plans.put(plan.getPlanId(), plan);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to load a batch of {} recurring plans, retrying in {}s", batch.size(), RETRY_DELAY_SECONDS, e);
+            for (ScheduledRun run : batch) {
+                schedule(run.planId, LocalDateTime.now().plusSeconds(RETRY_DELAY_SECONDS));
+            }
+            return;
+        }
+
+        for (ScheduledRun run : batch) {
+            RecurringPlan plan = plans.get(run.planId);
+            if (plan == null || !plan.isActive() || !plan.getNextRunAt().equals(run.scheduledFor)) {
+                continue; // Cancelled, or a stale wheel entry for a slot that was already handled
+            }
+            runPlan(plan, run.scheduledFor);
+        }
+    }
+
+    private void runPlan(RecurringPlan plan, LocalDateTime scheduledFor) {
+        LocalDateTime nextRunAt = nextSlotAfterNow(scheduledFor, plan.getIntervalSeconds());
+        try {
+            recurringPlanRunner.runSlot(plan, scheduledFor, nextRunAt);
+        } catch (IllegalArgumentException | NoSuchElementException e) {
+            logger.warn("Run {} of plan {} failed: {}", scheduledFor, plan.getPlanId(), e.getMessage());
+            try {
+                recurringPlanRunner.recordFailure(plan, scheduledFor, nextRunAt, truncateMessage(e.getMessage()));
+            } catch (Exception recordError) {
+                logger.error("Could not record failed run {} of plan {}, retrying in {}s", scheduledFor, plan.getPlanId(), RETRY_DELAY_SECONDS, recordError);
+                scheduleRetry(plan, scheduledFor);
+                return;
+            }
+        } catch (IllegalStateException e) {
+            // Stale price: the slot is retried once the feed has recovered, instead of being recorded as failed
+            logger.warn("Run {} of plan {} postponed, retrying in {}s: {}", scheduledFor, plan.getPlanId(), RETRY_DELAY_SECONDS, e.getMessage());
+            scheduleRetry(plan, scheduledFor);
+            return;
+        } catch (Exception e) {
+            logger.error("Unexpected error running plan {} for slot {}, retrying in {}s", plan.getPlanId(), scheduledFor, RETRY_DELAY_SECONDS, e);
+            scheduleRetry(plan, scheduledFor);
+            return;
+        }
+        schedule(plan.getPlanId(), nextRunAt);
+    }
+
+    // Retries keep the original slot as key, so a retry can never turn into a second purchase
+    private void scheduleRetry(RecurringPlan plan, LocalDateTime scheduledFor) {
+        long dueMillis = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(RETRY_DELAY_SECONDS);
+        synchronized (timingWheel) {
+            timingWheel.schedule(new ScheduledRun(plan.getPlanId(), scheduledFor), dueMillis);
+        }
+    }
+
+    /**
+     * Computes the first slot after now. Missed slots are skipped rather than replayed,
+     * so a long outage results in a single catch-up purchase per plan.
+     */
+    private static LocalDateTime nextSlotAfterNow(LocalDateTime scheduledFor, long intervalSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = scheduledFor.plusSeconds(intervalSeconds);
+        if (!next.isAfter(now)) {
+            long missedIntervals = ChronoUnit.SECONDS.between(scheduledFor, now) / intervalSeconds;
+            next = scheduledFor.plusSeconds((missedIntervals + 1) * intervalSeconds);
+        }
+        return next;
+    }
+
+    private static String truncateMessage(String message) {
+        if (message == null || message.length() <= MESSAGE_MAX_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MESSAGE_MAX_LENGTH);
+    }
+
+    private Account getAccountByUserIdentifier(String userIdentifier) {
+        return accountDao.findByUserIdentifier(userIdentifier)
+                .orElseThrow(() -> {
+                    logger.warn("Account not found for userIdentifier: {}", userIdentifier);
+                    return new NoSuchElementException("Account not found for user: " + userIdentifier);
+                });
+    }
+
+    @Override
+    public RecurringPlan createPlan(String userIdentifier, String assetSymbol, BigDecimal fiatAmount,
+                                    long intervalSeconds, LocalDateTime firstRunAt) {
+        if (fiatAmount == null || fiatAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Plan amount must be positive.");
+        }
+        if (intervalSeconds < MIN_INTERVAL_SECONDS) {
+            throw new IllegalArgumentException("Plan interval must be at least " + MIN_INTERVAL_SECONDS + " seconds.");
+        }
+        Account account = getAccountByUserIdentifier(userIdentifier);
+
+        RecurringPlan plan = new RecurringPlan();
+        plan.setAccountId(account.getAccountId());
+        plan.setUserIdentifier(userIdentifier);
+        plan.setAssetSymbol(assetSymbol);
+        plan.setFiatAmount(fiatAmount);
+        plan.setIntervalSeconds(intervalSeconds);
+        // The slot doubles as the run key, so it is stored at the TIMESTAMP column's precision
+        plan.setNextRunAt((firstRunAt != null ? firstRunAt : LocalDateTime.now()).truncatedTo(ChronoUnit.SECONDS));
+        RecurringPlan createdPlan = recurringPlanDao.createPlan(plan);
+        schedule(createdPlan.getPlanId(), createdPlan.getNextRunAt());
+        logger.info("Created recurring plan ID: {} for account {}: {} of {} every {}s", createdPlan.getPlanId(),
+                account.getAccountId(), fiatAmount, assetSymbol, intervalSeconds);
+        return createdPlan;
+    }
+
+    @Override
+    public RecurringPlan cancelPlan(String userIdentifier, int planId) {
+        Account account = getAccountByUserIdentifier(userIdentifier);
+        RecurringPlan plan = recurringPlanDao.findById(planId)
+                .filter(found -> found.getAccountId() == account.getAccountId())
+                .orElseThrow(() -> new NoSuchElementException("Recurring plan " + planId + " not found for user: " + userIdentifier));
+        if (!recurringPlanDao.deactivate(planId)) {
+            throw new IllegalArgumentException("Recurring plan " + planId + " is not active.");
+        }
+        plan.setActive(false);
+        logger.info("Cancelled recurring plan ID: {} for account {}", planId, account.getAccountId());
+        return plan;
+    }
+
+    @Override
+    public List<RecurringPlan> getPlans(String userIdentifier) {
+        Account account = getAccountByUserIdentifier(userIdentifier);
+        return recurringPlanDao.findByAccountId(account.getAccountId());
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        ticker.shutdownNow();
+        batchExecutor.shutdown();
+        try {
+            if (!batchExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                batchExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            batchExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.PortfolioAssetDao;
+import com.cryptosim.trading212.daos.contracts.PositionLotDao;
+import com.cryptosim.trading212.daos.contracts.SeasonStandingDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Executes one chunk of a season rollover in its own transaction.
+ * Kept as a separate bean so the transactional proxy applies when called from {@link AccountBatchServiceImpl}'s worker thread.
+ */
+@Service
+public class SeasonRolloverRunner {
+
+    private final SeasonStandingDao seasonStandingDao;
+    private final AccountDao accountDao;
+    private final AccountChangeDao accountChangeDao;
+    private final PortfolioAssetDao portfolioAssetDao;
+    private final PositionLotDao positionLotDao;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public SeasonRolloverRunner(SeasonStandingDao seasonStandingDao, AccountDao accountDao, AccountChangeDao accountChangeDao,
+                                PortfolioAssetDao portfolioAssetDao, PositionLotDao positionLotDao, ShardRouter shardRouter) {
+        this.seasonStandingDao = seasonStandingDao;
+        this.accountDao = accountDao;
+        this.accountChangeDao = accountChangeDao;
+        this.portfolioAssetDao = portfolioAssetDao;
+        this.positionLotDao = positionLotDao;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Records the standings of an account ID range of one shard and resets the accounts atomically, the same way
+     * {@link TradingServiceImpl#resetAccount} resets a single account. Accounts that already have standings of the
+     * season, from an earlier run that failed or was interrupted, are skipped.
+     *
+     * @return The number of accounts rolled over.
+     */
+    @Transactional
+    public int rolloverChunk(int shard, String seasonName, int fromAccountId, int toAccountId) {
+        shardRouter.routeTo(shard);
+        int accounts = 0;
+        for (int[] range : seasonStandingDao.findPendingRanges(seasonName, fromAccountId, toAccountId)) {
+            // Locks the account rows first, so no trade of the range commits between the snapshot and the reset
+            accounts += accountChangeDao.recordResets(range[0], range[1]);
+            seasonStandingDao.snapshotStandings(seasonName, range[0], range[1]);
+            accountDao.resetBalances(range[0], range[1]);
+            portfolioAssetDao.deleteAssetsByAccountRange(range[0], range[1]);
+            positionLotDao.deleteByAccountRange(range[0], range[1]);
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,308 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ReplicaRouter;
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.dtos.ReplicaStats;
+import com.cryptosim.trading212.dtos.ShardStats;
+import com.cryptosim.trading212.services.contracts.ShardAdminService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class for shard maintenance: per-shard statistics and rebalancing accounts after the shard count changed.
+ * <p>
+ * An account is moved by copying all of its rows to the target shard in one transaction while its account row is
+ * locked on the source shard, then pointing the directory to the target and deleting the source rows. IDs are
+ * kept as they are, which the per-shard auto-increment offsets make safe. An interrupted move is repeated from
+ * scratch by the next rebalance. Other application nodes cache the directory, so a rebalance belongs in a
+ * maintenance window without trading traffic, followed by a restart of the other nodes.
+ */
+@Service
+public class ShardAdminServiceImpl implements ShardAdminService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardAdminServiceImpl.class);
+
+    private static final int REBALANCE_THREADS = 4;
+    private static final int DIRECTORY_PAGE_SIZE = 1000;
+
+    // Rows of an account in foreign key order; the first column of each pair is the table to insert into
+    private static final String[][] ACCOUNT_TABLES = {
+            {"portfolio_assets", "SELECT * FROM portfolio_assets WHERE account_id = ?"},
+            {"transactions", "SELECT * FROM transactions WHERE account_id = ?"},
+            {"orders", "SELECT * FROM orders WHERE account_id = ?"},
+            {"recurring_plans", "SELECT * FROM recurring_plans WHERE account_id = ?"},
+            {"recurring_plan_runs", "SELECT r.* FROM recurring_plan_runs r JOIN recurring_plans p ON p.plan_id = r.plan_id WHERE p.account_id = ?"},
+            {"account_changes", "SELECT * FROM account_changes WHERE account_id = ?"},
+            {"pnl_daily_symbol", "SELECT * FROM pnl_daily_symbol WHERE account_id = ?"},
+            {"pnl_daily", "SELECT * FROM pnl_daily WHERE account_id = ?"},
+            {"position_lots", "SELECT * FROM position_lots WHERE account_id = ?"},
+            {"lot_matches", "SELECT * FROM lot_matches WHERE account_id = ?"},
+    };
+    // Account rows without a foreign key to the account, as the partitioned 'transactions' table cannot have any
+    private static final String[] UNREFERENCED_TABLES = {"lot_matches", "transactions"};
+    // Tables with generated IDs, and their ID column
+    private static final String[][] GENERATED_IDS = {
+            {"portfolio_assets", "asset_id"},
+            {"transactions", "transaction_id"},
+            {"orders", "order_id"},
+            {"recurring_plans", "plan_id"},
+            {"position_lots", "lot_id"},
+            {"lot_matches", "match_id"},
+    };
+
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final List<TransactionTemplate> shardTransactions = new ArrayList<>();
+    // Chunks are account moves; one thread drives the job and waits for the moves on the others
+    private final BackgroundJobTracker jobs = new BackgroundJobTracker("shard-rebalance", REBALANCE_THREADS);
+
+    @Autowired
+    public ShardAdminServiceImpl(ShardRouter shardRouter, ReplicaRouter replicaRouter) {
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shards.add(new JdbcTemplate(shardRouter.getShardDataSource(shard)));
+            shardTransactions.add(new TransactionTemplate(new DataSourceTransactionManager(shardRouter.getShardDataSource(shard))));
+        }
+    }
+
+    @Override
+    public List<ShardStats> getShardStats() {
+        Map<Integer, Long> directoryAccounts = new HashMap<>();
+        shards.get(ShardRouter.HOME_SHARD).query("SELECT shard_id, COUNT(*) AS accounts FROM account_directory GROUP BY shard_id", rs -> {
+            directoryAccounts.put(rs.getInt("shard_id"), rs.getLong("accounts"));
+        });
+        return shardRouter.fanOut(shard -> {
+            JdbcTemplate jdbcTemplate = shards.get(shard);
+            ShardStats stats = new ShardStats();
+            stats.setShard(shard);
+            stats.setAccounts(count(jdbcTemplate, "SELECT COUNT(*) FROM accounts"));
+            stats.setTransactions(count(jdbcTemplate, "SELECT COUNT(*) FROM transactions"));
+            stats.setOpenOrders(count(jdbcTemplate, "SELECT COUNT(*) FROM orders WHERE status = 'OPEN'"));
+            stats.setDirectoryAccounts(directoryAccounts.getOrDefault(shard, 0L));
+            return stats;
+        });
+    }
+
+    @Override
+    public List<ReplicaStats> getReplicaStats() {
+        return replicaRouter.getReplicaStats();
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public synchronized BackfillProgress startRebalance() {
+        if (jobs.getRunningJobName() != null) {
+            throw new IllegalStateException("A shard rebalance is already running.");
+        }
+        registerLegacyAccounts();
+        alignGeneratedIds();
+        int totalMoves = countMisplacedAccounts();
+
+        jobs.start("shard-rebalance", totalMoves, 0);
+        logger.info("Starting shard rebalance: {} accounts to move across {} shards", totalMoves, shardRouter.getShardCount());
+
+        CompletableFuture.runAsync(this::moveMisplacedAccounts, jobs.getExecutor()).whenComplete((ignored, error) -> {
+            if (error != null) {
+                jobs.setLastError(error.getMessage());
+                logger.error("Shard rebalance aborted", error);
+            }
+            jobs.finish();
+            logger.info("Shard rebalance finished: {} accounts moved, {} failed, {} rows copied",
+                    jobs.getCompletedChunks(), jobs.getFailedChunks(), jobs.getRowsWritten());
+        });
+        return getRebalanceProgress();
+    }
+
+    /**
+     * Adds the accounts created before sharding was enabled, which all live on the home shard, to the directory.
+     */
+    private void registerLegacyAccounts() {
+        int registered = shards.get(ShardRouter.HOME_SHARD).update(
+                "INSERT IGNORE INTO account_directory (account_id, user_identifier, shard_id) " +
+                        "SELECT account_id, user_identifier, ? FROM accounts", ShardRouter.HOME_SHARD);
+        if (registered > 0) {
+            logger.info("Registered {} accounts of the home shard in the shard directory", registered);
+        }
+    }
+
+    /**
+     * Moves the auto-increment counter of every shard past the highest ID on any shard, so IDs generated from now on
+     * can never collide with rows copied from another shard (e.g. rows written before a shard was added).
+     */
+    private void alignGeneratedIds() {
+        for (String[] table : GENERATED_IDS) {
+            String sql = "SELECT COALESCE(MAX(" + table[1] + "), 0) FROM " + table[0];
+            long maxId = 0;
+            for (long shardMax : shardRouter.fanOut(shard -> count(shards.get(shard), sql))) {
+                maxId = Math.max(maxId, shardMax);
+            }
+            for (JdbcTemplate jdbcTemplate : shards) {
+                jdbcTemplate.execute("ALTER TABLE " + table[0] + " AUTO_INCREMENT = " + (maxId + 1));
+            }
+        }
+    }
+
+    private int countMisplacedAccounts() {
+        AtomicInteger misplaced = new AtomicInteger();
+        forEachDirectoryPage(page -> {
+            for (DirectoryEntry entry : page) {
+                if (entry.targetShard != entry.shard) {
+                    misplaced.incrementAndGet();
+                }
+            }
+        });
+        return misplaced.get();
+    }
+
+    private void moveMisplacedAccounts() {
+        forEachDirectoryPage(page -> {
+            List<CompletableFuture<Void>> moves = new ArrayList<>();
+            for (DirectoryEntry entry : page) {
+                if (entry.targetShard != entry.shard) {
+                    moves.add(CompletableFuture.runAsync(() -> runMove(entry), jobs.getExecutor()));
+                }
+            }
+            CompletableFuture.allOf(moves.toArray(new CompletableFuture<?>[0])).join();
+        });
+    }
+
+    private void runMove(DirectoryEntry entry) {
+        try {
+            jobs.chunkCompleted(moveAccount(entry.accountId, entry.userIdentifier, entry.shard, entry.targetShard));
+        } catch (Exception e) {
+            jobs.chunkFailed("Account " + entry.accountId + ": " + e.getMessage());
+            logger.error("Could not move account {} from shard {} to shard {}", entry.accountId, entry.shard, entry.targetShard, e);
+        }
+    }
+
+    private static final class DirectoryEntry {
+        private final int accountId;
+        private final String userIdentifier;
+        private final int shard;
+        private final int targetShard;
+
+        private DirectoryEntry(int accountId, String userIdentifier, int shard, int targetShard) {
+            this.accountId = accountId;
+            this.userIdentifier = userIdentifier;
+            this.shard = shard;
+            this.targetShard = targetShard;
+        }
+    }
+
+    private interface PageConsumer {
+        void accept(List<DirectoryEntry> page);
+    }
+
+    // Keyset pages over the directory, so millions of accounts are never held in memory at once
+    private void forEachDirectoryPage(PageConsumer consumer) {
+        int shardCount = shardRouter.getShardCount();
+        int afterAccountId = 0;
+        while (true) {
+            List<DirectoryEntry> page = shards.get(ShardRouter.HOME_SHARD).query(
+                    "SELECT account_id, user_identifier, shard_id FROM account_directory WHERE account_id > ? ORDER BY account_id LIMIT ?",
+                    (rs, rowNum) -> {
+                        String userIdentifier = rs.getString("user_identifier");
+                        return new DirectoryEntry(rs.getInt("account_id"), userIdentifier, rs.getInt("shard_id"),
+                                ShardRouter.placementOf(userIdentifier, shardCount));
+                    },
+                    afterAccountId, DIRECTORY_PAGE_SIZE);
+            if (page.isEmpty()) {
+                return;
+            }
+            consumer.accept(page);
+            afterAccountId = page.get(page.size() - 1).accountId;
+        }
+    }
+
+    /**
+     * Moves one account with all of its rows.
+     * The source account row stays locked until the move completes, so trades of the account wait for it (and
+     * then fail, as their account row is gone) instead of writing rows that would be left behind.
+     *
+     * @return The number of rows copied.
+     */
+    int moveAccount(int accountId, String userIdentifier, int fromShard, int toShard) {
+        JdbcTemplate source = shards.get(fromShard);
+        JdbcTemplate target = shards.get(toShard);
+        Integer copied = shardTransactions.get(fromShard).execute(sourceStatus -> {
+            List<Map<String, Object>> accountRows = source.queryForList("SELECT * FROM accounts WHERE account_id = ? FOR UPDATE", accountId);
+            if (accountRows.isEmpty()) {
+                // Copied and deleted by an earlier move whose directory update did not happen
+                if (!target.queryForList("SELECT account_id FROM accounts WHERE account_id = ?", Integer.class, accountId).isEmpty()) {
+                    shardRouter.reassignAccount(accountId, userIdentifier, toShard);
+                }
+                return 0;
+            }
+            Integer rows = shardTransactions.get(toShard).execute(targetStatus -> {
+                deleteAccountRows(target, accountId); // Leftovers of an interrupted move
+                int inserted = insertRows(target, "accounts", accountRows);
+                for (String[] table : ACCOUNT_TABLES) {
+                    inserted += insertRows(target, table[0], source.queryForList(table[1], accountId));
+                }
+                return inserted;
+            });
+            shardRouter.reassignAccount(accountId, userIdentifier, toShard);
+            deleteAccountRows(source, accountId);
+            return rows;
+        });
+        logger.info("Moved account {} from shard {} to shard {} ({} rows)", accountId, fromShard, toShard, copied);
+        return copied != null ? copied : 0;
+    }
+
+    private static void deleteAccountRows(JdbcTemplate jdbcTemplate, int accountId) {
+        for (String table : UNREFERENCED_TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE account_id = ?", accountId);
+        }
+        jdbcTemplate.update("DELETE FROM accounts WHERE account_id = ?", accountId); // Cascades to the other account rows
+    }
+
+    private static int insertRows(JdbcTemplate jdbcTemplate, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = row.get(columns.get(i));
+            }
+            args.add(values);
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+        return rows.size();
+    }
+
+    @Override
+    public BackfillProgress getRebalanceProgress() {
+        return jobs.getProgress();
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        jobs.shutdown();
+    }
+}
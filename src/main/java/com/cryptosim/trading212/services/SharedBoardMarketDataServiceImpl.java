@@ -0,0 +1,296 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.FeedStats;
+import com.cryptosim.trading212.dtos.TickListenerStats;
+import com.cryptosim.trading212.dtos.VenueStats;
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Market data source that reads the {@link SharedPriceBoard} published by another instance on the same host,
+ * instead of opening feed connections of its own.
+ * <p>
+ * Enabled with {@code market-data.source=shared-board}. Prices are read straight from the mapped file, so
+ * they are as current as the publishing instance's. A reader thread watches the board's write counter, spinning
+ * briefly before it parks, and publishes a tick for every slot whose price changed, so order triggers and price
+ * streams work as with a direct feed. If the publisher's heartbeat stops (for example because it restarted
+ * and created a new board), the path is mapped again.
+ * <p>
+ * Which symbols are ingested is decided by the publishing instance; subscription changes requested here are
+ * ignored.
+ */
+@Service
+@ConditionalOnProperty(name = "market-data.source", havingValue = "shared-board")
+public class SharedBoardMarketDataServiceImpl implements KrakenDataService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedBoardMarketDataServiceImpl.class);
+    private static final long PUBLISHER_STALE_MILLIS = 5000;
+    private static final long REOPEN_INTERVAL_MILLIS = 5000;
+    private static final int IDLE_SPINS = 1000;
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    private final Path boardPath;
+    private final TickBus tickBus = new TickBus();
+    private final AtomicLong ticksPublished = new AtomicLong();
+    private final AtomicLong reopens = new AtomicLong();
+    private volatile SharedPriceBoard board;
+    private volatile boolean running;
+    private Thread readerThread;
+
+    // Reader thread only
+    private long[] lastSlotVersions = new long[0];
+    private BigDecimal[] lastPrices = new BigDecimal[0];
+    private long lastWriteCount = -1;
+    private long lastOpenAttempt;
+
+    @Autowired
+    public SharedBoardMarketDataServiceImpl(@Value("${market-data.board.path:${java.io.tmpdir}/cryptosim-price-board}") String boardPath) {
+        this.boardPath = Path.of(boardPath);
+    }
+
+    @PostConstruct
+    private void init() {
+        connect();
+    }
+
+    @Override
+    public void connect() {
+        if (running) {
+            return;
+        }
+        running = true;
+        tryOpen(System.currentTimeMillis());
+        readerThread = new Thread(this::readLoop, "price-board-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    private void tryOpen(long now) {
+        lastOpenAttempt = now;
+        try {
+            SharedPriceBoard opened = SharedPriceBoard.open(boardPath);
+            SharedPriceBoard previous = board;
+            if (previous != null && opened.getWriterPid() == previous.getWriterPid() && opened.getHeartbeat() == previous.getHeartbeat()) {
+                opened.close(); // Still the same board; its publisher has stopped
+                return;
+            }
+            board = opened;
+            lastSlotVersions = new long[0]; // Slot versions restart with every board
+            lastWriteCount = -1;
+            if (previous != null) {
+                reopens.incrementAndGet();
+                previous.close();
+            }
+            logger.info("Mapped price board {} of process {} with {} symbols", boardPath, opened.getWriterPid(), opened.getSymbols().size());
+        } catch (IOException e) {
+            logger.warn("Price board {} is not available yet: {}", boardPath, e.getMessage());
+        }
+    }
+
+    private void readLoop() {
+        int idleRounds = 0;
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                SharedPriceBoard current = board;
+                if ((current == null || now - current.getHeartbeat() > PUBLISHER_STALE_MILLIS)
+                        && now - lastOpenAttempt >= REOPEN_INTERVAL_MILLIS) {
+                    tryOpen(now);
+                    continue;
+                }
+                if (current != null && scan(current)) {
+                    idleRounds = 0;
+                } else if (++idleRounds < IDLE_SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (Exception e) {
+                logger.error("Error reading the price board", e);
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Publishes the changed slots; returns false if nothing was written since the last scan
+    private boolean scan(SharedPriceBoard current) {
+        long writeCount = current.getWriteCount();
+        if (writeCount == lastWriteCount && lastSlotVersions.length == current.getSymbols().size()) {
+            return false;
+        }
+        lastWriteCount = writeCount;
+        List<String> symbols = current.getSymbols();
+        if (lastSlotVersions.length != symbols.size()) {
+            lastSlotVersions = new long[symbols.size()];
+            lastPrices = new BigDecimal[symbols.size()];
+        }
+        for (int slot = 0; slot < symbols.size(); slot++) {
+            long version = current.getSlotVersion(slot);
+            if (version == lastSlotVersions[slot] || (version & 1) != 0) {
+                continue; // Unchanged, or being written; the write count brings us back
+            }
+            lastSlotVersions[slot] = version;
+            ConsolidatedQuote quote = current.read(slot);
+            BigDecimal previous = lastPrices[slot];
+            if (quote == null) {
+                if (previous != null) {
+                    lastPrices[slot] = null;
+                    tickBus.publishRemoved(symbols.get(slot));
+                }
+            } else if (previous == null || previous.compareTo(quote.getPrice()) != 0) {
+                lastPrices[slot] = quote.getPrice();
+                ticksPublished.incrementAndGet();
+                tickBus.publish(new PriceTick(symbols.get(slot), quote.getPrice(), previous, System.currentTimeMillis(), System.nanoTime()));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, BigDecimal> getLatestPrices() {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        SharedPriceBoard current = board;
+        if (current != null) {
+            List<String> symbols = current.getSymbols();
+            for (int slot = 0; slot < symbols.size(); slot++) {
+                ConsolidatedQuote quote = current.read(slot);
+                if (quote != null) {
+                    prices.put(symbols.get(slot), quote.getPrice());
+                }
+            }
+        }
+        return prices;
+    }
+
+    @Override
+    public BigDecimal getPriceForSymbol(String assetSymbol) {
+        ConsolidatedQuote quote = getQuote(assetSymbol);
+        return quote != null ? quote.getPrice() : null;
+    }
+
+    @Override
+    public ConsolidatedQuote getQuote(String assetSymbol) {
+        SharedPriceBoard current = board;
+        int slot = current != null ? current.slotOf(assetSymbol) : -1;
+        return slot >= 0 ? current.read(slot) : null;
+    }
+
+    // Confirmation times stop advancing with the publisher's heartbeat, so a stopped publisher ages every price
+    @Override
+    public long getPriceAgeMillis(String assetSymbol) {
+        SharedPriceBoard current = board;
+        int slot = current != null ? current.slotOf(assetSymbol) : -1;
+        ConsolidatedQuote quote = slot >= 0 ? current.read(slot) : null;
+        if (quote == null) {
+            return -1;
+        }
+        long confirmedAt = Math.max(quote.getUpdatedAt(), current.getConfirmedAt(slot));
+        return Math.max(0, System.currentTimeMillis() - confirmedAt);
+    }
+
+    @Override
+    public List<String> getAvailableSymbols() {
+        SharedPriceBoard current = board;
+        return current != null ? current.getSymbols() : List.of();
+    }
+
+    @Override
+    public List<String> getSubscribedSymbols() {
+        return new ArrayList<>(getLatestPrices().keySet());
+    }
+
+    @Override
+    public void subscribe(Collection<String> assetSymbols) {
+        // The publishing instance decides which symbols are ingested
+    }
+
+    @Override
+    public void unsubscribe(Collection<String> assetSymbols) {
+        // The publishing instance decides which symbols are ingested
+    }
+
+    @Override
+    public List<FeedStats> getFeedStats() {
+        SharedPriceBoard current = board;
+        FeedStats stats = new FeedStats();
+        stats.setFeedName("shared-board");
+        stats.setConnected(current != null && System.currentTimeMillis() - current.getHeartbeat() <= PUBLISHER_STALE_MILLIS);
+        stats.setSymbolCount(current != null ? current.getSymbols().size() : 0);
+        stats.setTicksApplied(ticksPublished.get());
+        stats.setReconnects(reopens.get());
+        stats.setLastFrameAgeMillis(current != null && current.getHeartbeat() > 0 ? System.currentTimeMillis() - current.getHeartbeat() : -1);
+        return List.of(stats);
+    }
+
+    @Override
+    public List<VenueStats> getVenueStats() {
+        SharedPriceBoard current = board;
+        long heartbeat = current != null ? current.getHeartbeat() : 0;
+        long now = System.currentTimeMillis();
+        VenueStats stats = new VenueStats();
+        stats.setVenue("shared-board");
+        stats.setConnected(current != null);
+        stats.setStale(heartbeat == 0 || now - heartbeat > PUBLISHER_STALE_MILLIS);
+        stats.setLastMessageAgeMillis(heartbeat == 0 ? -1 : Math.max(0, now - heartbeat));
+        stats.setSymbolsQuoted(getLatestPrices().size());
+        stats.setQuotesReceived(ticksPublished.get());
+        return List.of(stats);
+    }
+
+    @Override
+    public void addTickListener(TickListener listener, String name, Collection<String> assetSymbols, boolean isolated) {
+        tickBus.addListener(listener, name, assetSymbols, isolated);
+    }
+
+    @Override
+    public boolean removeTickListener(TickListener listener) {
+        return tickBus.removeListener(listener);
+    }
+
+    @Override
+    public List<TickListenerStats> getTickListenerStats() {
+        return tickBus.getStats();
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        running = false;
+        tickBus.shutdown();
+        if (readerThread != null) {
+            try {
+                readerThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        SharedPriceBoard current = board;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.warn("Could not close price board {}: {}", boardPath, e.getMessage());
+            }
+        }
+    }
+}
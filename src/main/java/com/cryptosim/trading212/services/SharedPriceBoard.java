@@ -0,0 +1,340 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quote board in a memory-mapped file, written by one process and read by any number of processes on the host.
+ * <p>
+ * The file starts with a header (magic, layout version, slot count, writer heartbeat and a write counter),
+ * followed by the symbol table and one 64-byte slot per symbol, aligned to cache lines. Each slot is guarded
+ * by a seqlock: a writer makes the slot's sequence odd, writes the quote and makes it even again, and a reader
+ * retries whenever the sequence was odd or changed while it copied the slot. Readers therefore never block the
+ * writer or each other and always see a complete quote. Writers acquire the odd sequence with a compare-and-set,
+ * so several threads of the writing process may update the board concurrently.
+ * <p>
+ * Prices are stored as unscaled longs with their scale, rounded to 18 significant digits if necessary.
+ * A writer always builds a new file and moves it over the path, so a mapping held by a reader is never
+ * truncated; readers notice the old board by its heartbeat stopping and map the path again.
+ */
+public class SharedPriceBoard implements AutoCloseable {
+
+    private static final int MAGIC = 0x43535042; // "CSPB"
+    private static final int LAYOUT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SYMBOL_SIZE = 16;
+    private static final int SLOT_SIZE = 64;
+
+    // Header offsets
+    private static final int MAGIC_OFFSET = 0;
+    private static final int LAYOUT_VERSION_OFFSET = 4;
+    private static final int SLOT_COUNT_OFFSET = 8;
+    private static final int HEARTBEAT_OFFSET = 16;
+    private static final int WRITE_COUNT_OFFSET = 24;
+    private static final int WRITER_PID_OFFSET = 32;
+
+    // Slot offsets; the confirmation time is updated on its own, outside the seqlock
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int PRICE_OFFSET = 8;
+    private static final int BID_OFFSET = 16;
+    private static final int ASK_OFFSET = 24;
+    private static final int UPDATED_AT_OFFSET = 32;
+    private static final int QUOTE_SEQUENCE_OFFSET = 40;
+    private static final int PRICE_SCALE_OFFSET = 48;
+    private static final int BID_SCALE_OFFSET = 49;
+    private static final int ASK_SCALE_OFFSET = 50;
+    private static final int FLAGS_OFFSET = 51;
+    private static final int CONFIRMED_AT_OFFSET = 56;
+
+    private static final byte HAS_PRICE = 1;
+    private static final byte HAS_BID = 2;
+    private static final byte HAS_ASK = 4;
+
+    // A reader that keeps finding the slot locked assumes the writer died mid-update
+    private static final int MAX_READ_ATTEMPTS = 100_000;
+    private static final MathContext LONG_PRECISION = new MathContext(18, RoundingMode.HALF_UP);
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final List<String> symbols;
+    private final Map<String, Integer> slots;
+    private final int slotsOffset;
+
+    private SharedPriceBoard(Path path, FileChannel channel, MappedByteBuffer buffer, List<String> symbols) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.symbols = List.copyOf(symbols);
+        Map<String, Integer> slotMap = new HashMap<>();
+        for (int i = 0; i < this.symbols.size(); i++) {
+            slotMap.put(this.symbols.get(i), i);
+        }
+        this.slots = Map.copyOf(slotMap);
+        this.slotsOffset = slotsOffset(this.symbols.size());
+    }
+
+    private static int slotsOffset(int slotCount) {
+        int symbolTableEnd = HEADER_SIZE + slotCount * SYMBOL_SIZE;
+        return (symbolTableEnd + SLOT_SIZE - 1) / SLOT_SIZE * SLOT_SIZE;
+    }
+
+    /**
+     * Creates an empty board for the given symbols and atomically replaces any board at the path.
+     *
+     * @throws IllegalArgumentException if a symbol does not fit the symbol table.
+     * @throws IOException              if the file cannot be written or mapped.
+     */
+    public static SharedPriceBoard create(Path path, List<String> symbols) throws IOException {
+        int size = slotsOffset(symbols.size()) + symbols.size() * SLOT_SIZE;
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path staging = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        FileChannel channel = FileChannel.open(staging, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            for (int i = 0; i < symbols.size(); i++) {
+                byte[] name = symbols.get(i).getBytes(StandardCharsets.UTF_8);
+                if (name.length > SYMBOL_SIZE) {
+                    throw new IllegalArgumentException("Symbol " + symbols.get(i) + " is too long for the price board.");
+                }
+                buffer.put(HEADER_SIZE + i * SYMBOL_SIZE, name);
+            }
+            buffer.putInt(SLOT_COUNT_OFFSET, symbols.size());
+            buffer.putInt(LAYOUT_VERSION_OFFSET, LAYOUT_VERSION);
+            buffer.putLong(WRITER_PID_OFFSET, ProcessHandle.current().pid());
+            buffer.putInt(MAGIC_OFFSET, MAGIC); // Last, so a reader never accepts a half-initialized header
+            buffer.force();
+            Files.move(staging, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new SharedPriceBoard(path, channel, buffer, symbols);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(staging);
+            throw e;
+        }
+    }
+
+    /**
+     * Maps an existing board read-only; the write methods of the returned board fail.
+     *
+     * @throws IOException if the file does not exist, cannot be mapped or is not a board of this layout.
+     */
+    public static SharedPriceBoard open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("File " + path + " is too small to be a price board.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(LAYOUT_VERSION_OFFSET) != LAYOUT_VERSION) {
+                throw new IOException("File " + path + " is not a price board of layout version " + LAYOUT_VERSION + ".");
+            }
+            int slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+            if (slotCount < 0 || size < slotsOffset(slotCount) + (long) slotCount * SLOT_SIZE) {
+                throw new IOException("Price board " + path + " is truncated.");
+            }
+            List<String> symbols = new ArrayList<>(slotCount);
+            byte[] name = new byte[SYMBOL_SIZE];
+            for (int i = 0; i < slotCount; i++) {
+                buffer.get(HEADER_SIZE + i * SYMBOL_SIZE, name);
+                int length = 0;
+                while (length < SYMBOL_SIZE && name[length] != 0) {
+                    length++;
+                }
+                symbols.add(new String(name, 0, length, StandardCharsets.UTF_8));
+            }
+            return new SharedPriceBoard(path, channel, buffer, symbols);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private int slotBase(int slot) {
+        return slotsOffset + slot * SLOT_SIZE;
+    }
+
+    /**
+     * @return The slot of the symbol, or -1 if the board has no slot for it.
+     */
+    public int slotOf(String symbol) {
+        Integer slot = slots.get(symbol);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Publishes a quote into its slot.
+     */
+    public void write(int slot, ConsolidatedQuote quote) {
+        int base = slotBase(slot);
+        long sequence = lock(base);
+        byte flags = 0;
+        flags |= putPrice(base + PRICE_OFFSET, base + PRICE_SCALE_OFFSET, quote.getPrice(), HAS_PRICE);
+        flags |= putPrice(base + BID_OFFSET, base + BID_SCALE_OFFSET, quote.getBestBid(), HAS_BID);
+        flags |= putPrice(base + ASK_OFFSET, base + ASK_SCALE_OFFSET, quote.getBestAsk(), HAS_ASK);
+        buffer.putLong(base + UPDATED_AT_OFFSET, quote.getUpdatedAt());
+        buffer.putLong(base + QUOTE_SEQUENCE_OFFSET, quote.getSequence());
+        buffer.put(base + FLAGS_OFFSET, flags);
+        unlock(base, sequence);
+    }
+
+    /**
+     * Marks a slot as having no price.
+     */
+    public void clear(int slot) {
+        int base = slotBase(slot);
+        long sequence = lock(base);
+        buffer.put(base + FLAGS_OFFSET, (byte) 0);
+        unlock(base, sequence);
+    }
+
+    // Makes the sequence odd; the CAS also keeps the slot's writes from moving ahead of it
+    private long lock(int base) {
+        while (true) {
+            long sequence = (long) LONGS.getVolatile(buffer, base + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0 && LONGS.compareAndSet(buffer, base + SEQUENCE_OFFSET, sequence, sequence + 1)) {
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void unlock(int base, long sequence) {
+        LONGS.setRelease(buffer, base + SEQUENCE_OFFSET, sequence + 2);
+        LONGS.getAndAdd(buffer, WRITE_COUNT_OFFSET, 1L);
+    }
+
+    private byte putPrice(int valueOffset, int scaleOffset, BigDecimal price, byte flag) {
+        if (price == null) {
+            return 0;
+        }
+        BigDecimal stored = price.unscaledValue().bitLength() < 64 ? price : price.round(LONG_PRECISION);
+        if (stored.scale() > Byte.MAX_VALUE || stored.scale() < Byte.MIN_VALUE) {
+            stored = stored.setScale(stored.scale() > 0 ? Byte.MAX_VALUE : 0, RoundingMode.HALF_UP);
+        }
+        buffer.putLong(valueOffset, stored.unscaledValue().longValue());
+        buffer.put(scaleOffset, (byte) stored.scale());
+        return flag;
+    }
+
+    /**
+     * Reads a consistent copy of a slot.
+     *
+     * @return The quote, or null if the slot has no price (or stayed locked, i.e. its writer died mid-update).
+     */
+    public ConsolidatedQuote read(int slot) {
+        int base = slotBase(slot);
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long before = (long) LONGS.getAcquire(buffer, base + SEQUENCE_OFFSET);
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            byte flags = buffer.get(base + FLAGS_OFFSET);
+            long price = buffer.getLong(base + PRICE_OFFSET);
+            long bid = buffer.getLong(base + BID_OFFSET);
+            long ask = buffer.getLong(base + ASK_OFFSET);
+            byte priceScale = buffer.get(base + PRICE_SCALE_OFFSET);
+            byte bidScale = buffer.get(base + BID_SCALE_OFFSET);
+            byte askScale = buffer.get(base + ASK_SCALE_OFFSET);
+            long updatedAt = buffer.getLong(base + UPDATED_AT_OFFSET);
+            long quoteSequence = buffer.getLong(base + QUOTE_SEQUENCE_OFFSET);
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getOpaque(buffer, base + SEQUENCE_OFFSET) != before) {
+                continue;
+            }
+            if ((flags & HAS_PRICE) == 0) {
+                return null;
+            }
+            return new ConsolidatedQuote(symbols.get(slot),
+                    (flags & HAS_BID) != 0 ? BigDecimal.valueOf(bid, bidScale) : null, null,
+                    (flags & HAS_ASK) != 0 ? BigDecimal.valueOf(ask, askScale) : null, null,
+                    BigDecimal.valueOf(price, priceScale), 0, updatedAt, quoteSequence);
+        }
+        return null;
+    }
+
+    /**
+     * @return The seqlock sequence of a slot; it changes with every write, so readers can skip unchanged slots.
+     */
+    public long getSlotVersion(int slot) {
+        return (long) LONGS.getAcquire(buffer, slotBase(slot) + SEQUENCE_OFFSET);
+    }
+
+    /**
+     * Records when the writer's feed last confirmed the price of a slot (see {@code KrakenDataService#getPriceAgeMillis}).
+     */
+    public void confirm(int slot, long confirmedAtMillis) {
+        LONGS.setRelease(buffer, slotBase(slot) + CONFIRMED_AT_OFFSET, confirmedAtMillis);
+    }
+
+    /**
+     * @return When the price of a slot was last confirmed, in epoch milliseconds, or 0 if never.
+     */
+    public long getConfirmedAt(int slot) {
+        return (long) LONGS.getAcquire(buffer, slotBase(slot) + CONFIRMED_AT_OFFSET);
+    }
+
+    /**
+     * Records that the writer is alive.
+     */
+    public void heartbeat(long nowMillis) {
+        LONGS.setRelease(buffer, HEARTBEAT_OFFSET, nowMillis);
+    }
+
+    /**
+     * @return The last writer heartbeat, in epoch milliseconds, or 0 if none.
+     */
+    public long getHeartbeat() {
+        return (long) LONGS.getAcquire(buffer, HEARTBEAT_OFFSET);
+    }
+
+    /**
+     * @return The number of writes to the board so far; unchanged means no slot changed.
+     */
+    public long getWriteCount() {
+        return (long) LONGS.getAcquire(buffer, WRITE_COUNT_OFFSET);
+    }
+
+    public long getWriterPid() {
+        return buffer.getLong(WRITER_PID_OFFSET);
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Closes the file. The mapping itself is released once the buffer is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,118 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes this instance's quotes into a {@link SharedPriceBoard}, so that other instances on the host can
+ * run with {@code market-data.source=shared-board} instead of opening feed connections of their own.
+ * <p>
+ * Enabled with {@code market-data.board.publish=true}. Every accepted tick is written into the board inline,
+ * on the feed thread that produced it (a seqlocked write of one cache line). Once a second the heartbeat of the
+ * board and the confirmation time of every price are refreshed, so readers can tell the age of each price and
+ * notice when this instance stops.
+ */
+@Service
+@ConditionalOnProperty(name = "market-data.board.publish", havingValue = "true")
+public class SharedPriceBoardPublisher implements TickListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedPriceBoardPublisher.class);
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 1000;
+
+    private final KrakenDataService krakenDataService;
+    private final Path boardPath;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private SharedPriceBoard board;
+
+    @Autowired
+    public SharedPriceBoardPublisher(KrakenDataService krakenDataService,
+                                     @Value("${market-data.board.path:${java.io.tmpdir}/cryptosim-price-board}") String boardPath) {
+        this.krakenDataService = krakenDataService;
+        this.boardPath = Path.of(boardPath);
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-board-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    private void init() throws IOException {
+        if (krakenDataService instanceof SharedBoardMarketDataServiceImpl) {
+            throw new IllegalStateException("market-data.board.publish cannot be combined with market-data.source=shared-board.");
+        }
+        List<String> symbols = krakenDataService.getAvailableSymbols();
+        board = SharedPriceBoard.create(boardPath, symbols);
+        for (int slot = 0; slot < symbols.size(); slot++) {
+            ConsolidatedQuote quote = krakenDataService.getQuote(symbols.get(slot));
+            if (quote != null) {
+                board.write(slot, quote);
+            }
+        }
+        heartbeat();
+        krakenDataService.addTickListener(this, "price-board", null, false);
+        heartbeatExecutor.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_INTERVAL_MILLIS, HEARTBEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        logger.info("Publishing {} symbols to the price board at {}", symbols.size(), boardPath);
+    }
+
+    @Override
+    public void onTick(PriceTick tick) {
+        int slot = board.slotOf(tick.getAssetSymbol());
+        ConsolidatedQuote quote = krakenDataService.getQuote(tick.getAssetSymbol());
+        if (slot >= 0 && quote != null) {
+            board.write(slot, quote);
+        }
+    }
+
+    @Override
+    public void onSymbolRemoved(String assetSymbol) {
+        int slot = board.slotOf(assetSymbol);
+        if (slot >= 0) {
+            board.clear(slot);
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            long now = System.currentTimeMillis();
+            List<String> symbols = board.getSymbols();
+            for (int slot = 0; slot < symbols.size(); slot++) {
+                long ageMillis = krakenDataService.getPriceAgeMillis(symbols.get(slot));
+                if (ageMillis >= 0) {
+                    board.confirm(slot, now - ageMillis);
+                }
+            }
+            board.heartbeat(now);
+        } catch (Exception e) {
+            logger.error("Price board heartbeat failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        krakenDataService.removeTickListener(this);
+        heartbeatExecutor.shutdownNow();
+        try {
+            board.close();
+        } catch (IOException e) {
+            logger.warn("Could not close price board {}: {}", boardPath, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.SubscriptionSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reference-counted bookkeeping of the symbols the market data feed should be subscribed to.
+ * <p>
+ * Every {@link SubscriptionSource} holds a count per symbol. A symbol whose total count rises above zero is
+ * queued for subscription; one whose total drops to zero lingers, still subscribed, for a grace period and is
+ * only unsubscribed if nobody references it again in the meantime. The linger acts as hysteresis: a symbol
+ * that is released and re-acquired (a client reloading a page, a position closed and reopened) never causes
+ * an unsubscribe/subscribe pair on the socket. Pending changes are collected with {@link #drain(long)} so the
+ * caller can send them as one batched message per direction.
+ * <p>
+ * This class is thread-safe.
+ */
+public class SubscriptionManager {
+
+    /**
+     * The subscription changes due at the time of a {@link #drain(long)}.
+     */
+    public static final class Changes {
+        private final List<String> subscribe;
+        private final List<String> unsubscribe;
+
+        private Changes(List<String> subscribe, List<String> unsubscribe) {
+            this.subscribe = subscribe;
+            this.unsubscribe = unsubscribe;
+        }
+
+        public List<String> getSubscribe() {
+            return subscribe;
+        }
+
+        public List<String> getUnsubscribe() {
+            return unsubscribe;
+        }
+
+        public boolean isEmpty() {
+            return subscribe.isEmpty() && unsubscribe.isEmpty();
+        }
+    }
+
+    private static final int SOURCE_COUNT = SubscriptionSource.values().length;
+
+    private final long lingerMillis;
+    private final Map<String, int[]> references = new HashMap<>();       // symbol -> count per source
+    private final Set<String> subscribed = new HashSet<>();              // As far as the feed was told
+    private final Set<String> pendingSubscribe = new LinkedHashSet<>();
+    private final Map<String, Long> pendingUnsubscribe = new HashMap<>(); // symbol -> due time
+
+    /**
+     * @param lingerMillis How long an unreferenced symbol stays subscribed before it is dropped.
+     */
+    public SubscriptionManager(long lingerMillis) {
+        this.lingerMillis = lingerMillis;
+    }
+
+    public synchronized void acquire(String symbol, SubscriptionSource source, long nowMillis) {
+        int[] counts = references.computeIfAbsent(symbol, s -> new int[SOURCE_COUNT]);
+        counts[source.ordinal()]++;
+        onTotalChanged(symbol, nowMillis);
+    }
+
+    public synchronized void release(String symbol, SubscriptionSource source, long nowMillis) {
+        int[] counts = references.get(symbol);
+        if (counts == null || counts[source.ordinal()] == 0) {
+            return;
+        }
+        counts[source.ordinal()]--;
+        onTotalChanged(symbol, nowMillis);
+    }
+
+    /**
+     * Replaces all counts of one source, e.g. with the result of a periodic database reconciliation.
+     *
+     * @param source The source whose counts are replaced.
+     * @param counts The new count per symbol; symbols not in the map drop to zero for this source.
+     */
+    public synchronized void setCounts(SubscriptionSource source, Map<String, Integer> counts, long nowMillis) {
+        Set<String> symbols = new HashSet<>(references.keySet());
+        symbols.addAll(counts.keySet());
+        for (String symbol : symbols) {
+            int count = Math.max(0, counts.getOrDefault(symbol, 0));
+            int[] current = references.get(symbol);
+            if (current == null) {
+                if (count == 0) {
+                    continue;
+                }
+                current = new int[SOURCE_COUNT];
+                references.put(symbol, current);
+            }
+            if (current[source.ordinal()] != count) {
+                current[source.ordinal()] = count;
+                onTotalChanged(symbol, nowMillis);
+            }
+        }
+    }
+
+    private void onTotalChanged(String symbol, long nowMillis) {
+        if (total(symbol) > 0) {
+            pendingUnsubscribe.remove(symbol);
+            if (!subscribed.contains(symbol)) {
+                pendingSubscribe.add(symbol);
+            }
+        } else {
+            pendingSubscribe.remove(symbol);
+            if (subscribed.contains(symbol)) {
+                pendingUnsubscribe.putIfAbsent(symbol, nowMillis + lingerMillis);
+            } else {
+                references.remove(symbol);
+            }
+        }
+    }
+
+    /**
+     * Takes the changes that are due: every newly referenced symbol, and every symbol whose linger expired.
+     * The returned changes are considered applied.
+     */
+    public synchronized Changes drain(long nowMillis) {
+        List<String> subscribe = new ArrayList<>(pendingSubscribe);
+        subscribed.addAll(pendingSubscribe);
+        pendingSubscribe.clear();
+
+        List<String> unsubscribe = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = pendingUnsubscribe.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getValue() <= nowMillis) {
+                unsubscribe.add(entry.getKey());
+                subscribed.remove(entry.getKey());
+                references.remove(entry.getKey());
+                iterator.remove();
+            }
+        }
+        return new Changes(subscribe, unsubscribe);
+    }
+
+    public synchronized int total(String symbol) {
+        int[] counts = references.get(symbol);
+        if (counts == null) {
+            return 0;
+        }
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return The symbols the feed has been told to subscribe to, including lingering ones.
+     */
+    public synchronized Set<String> getSubscribed() {
+        return Collections.unmodifiableSet(new HashSet<>(subscribed));
+    }
+}
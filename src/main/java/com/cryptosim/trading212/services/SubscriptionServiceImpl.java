@@ -0,0 +1,151 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.OrderDao;
+import com.cryptosim.trading212.daos.contracts.PortfolioAssetDao;
+import com.cryptosim.trading212.daos.contracts.RecurringPlanDao;
+import com.cryptosim.trading212.models.SubscriptionSource;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.SubscriptionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class that keeps the Kraken feed subscribed to exactly the symbols somebody uses.
+ * <p>
+ * References come from held positions, open orders and active recurring plans (recounted from the database
+ * every {@value #RECONCILE_INTERVAL_MILLIS} ms) and from connected price stream clients (acquired and released
+ * as they connect and disconnect). A few pairs are pinned so cross rates and the price list are never empty.
+ * Changes are drained on a short interval and sent as one batched request per direction; a symbol that loses
+ * its last reference lingers for {@value #UNSUBSCRIBE_LINGER_MILLIS} ms before it is unsubscribed.
+ * <p>
+ * A symbol can only be bought, or get an order or plan, while it has a price, i.e. while it is subscribed.
+ * The linger is longer than the reconcile interval, so a new position is counted before the reference that
+ * made its trade possible can expire.
+ */
+@Service
+public class SubscriptionServiceImpl implements SubscriptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionServiceImpl.class);
+
+    private static final List<String> PINNED_SYMBOLS = List.of("BTC/USD", "ETH/USD", "EUR/USD", "GBP/USD");
+    private static final long DRAIN_INTERVAL_MILLIS = 250;
+    private static final long RECONCILE_INTERVAL_MILLIS = 30_000;
+    private static final long UNSUBSCRIBE_LINGER_MILLIS = 5 * 60_000;
+
+    private final KrakenDataService krakenDataService;
+    private final PortfolioAssetDao portfolioAssetDao;
+    private final OrderDao orderDao;
+    private final RecurringPlanDao recurringPlanDao;
+    private final SubscriptionManager subscriptionManager = new SubscriptionManager(UNSUBSCRIBE_LINGER_MILLIS);
+    private final Set<String> availableSymbols;
+    private final ScheduledExecutorService subscriptionExecutor;
+
+    @Autowired
+    public SubscriptionServiceImpl(KrakenDataService krakenDataService, PortfolioAssetDao portfolioAssetDao,
+                                   OrderDao orderDao, RecurringPlanDao recurringPlanDao) {
+        this.krakenDataService = krakenDataService;
+        this.portfolioAssetDao = portfolioAssetDao;
+        this.orderDao = orderDao;
+        this.recurringPlanDao = recurringPlanDao;
+        this.availableSymbols = Set.copyOf(krakenDataService.getAvailableSymbols());
+        this.subscriptionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "feed-subscriptions");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    private void init() {
+        long now = System.currentTimeMillis();
+        for (String symbol : PINNED_SYMBOLS) {
+            subscriptionManager.acquire(symbol, SubscriptionSource.PINNED, now);
+        }
+        reconcile();
+        applyChanges();
+        subscriptionExecutor.scheduleWithFixedDelay(this::reconcile, RECONCILE_INTERVAL_MILLIS, RECONCILE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        subscriptionExecutor.scheduleWithFixedDelay(this::applyChanges, DRAIN_INTERVAL_MILLIS, DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void acquire(String assetSymbol, SubscriptionSource source) {
+        if (!availableSymbols.contains(assetSymbol)) {
+            throw new IllegalArgumentException("Symbol " + assetSymbol + " is not available.");
+        }
+        subscriptionManager.acquire(assetSymbol, source, System.currentTimeMillis());
+    }
+
+    @Override
+    public void release(String assetSymbol, SubscriptionSource source) {
+        subscriptionManager.release(assetSymbol, source, System.currentTimeMillis());
+    }
+
+    @Override
+    public Set<String> getSubscribedSymbols() {
+        return subscriptionManager.getSubscribed();
+    }
+
+    /**
+     * Replaces the database-backed reference counts with fresh ones. Runs on the subscription thread,
+     * so a slow query delays the next drain instead of piling up.
+     */
+    private void reconcile() {
+        try {
+            long now = System.currentTimeMillis();
+            subscriptionManager.setCounts(SubscriptionSource.POSITION, available(portfolioAssetDao.countHoldersBySymbol()), now);
+            subscriptionManager.setCounts(SubscriptionSource.ORDER, available(orderDao.countOpenBySymbol()), now);
+            subscriptionManager.setCounts(SubscriptionSource.PLAN, available(recurringPlanDao.countActiveBySymbol()), now);
+        } catch (Exception e) {
+            logger.error("Failed to reconcile feed subscriptions with the database", e);
+        }
+    }
+
+    // Rows may still reference a pair that was dropped from the catalogue; it can no longer be subscribed
+    private Map<String, Integer> available(Map<String, Integer> counts) {
+        Map<String, Integer> filtered = new HashMap<>(counts);
+        Set<String> unavailable = new HashSet<>(filtered.keySet());
+        unavailable.removeAll(availableSymbols);
+        if (!unavailable.isEmpty()) {
+            logger.warn("Ignoring references to symbols the feed does not offer: {}", unavailable);
+            filtered.keySet().removeAll(unavailable);
+        }
+        return filtered;
+    }
+
+    private void applyChanges() {
+        try {
+            SubscriptionManager.Changes changes = subscriptionManager.drain(System.currentTimeMillis());
+            if (changes.isEmpty()) {
+                return;
+            }
+            logger.info("Feed subscriptions changing: +{} -{}", changes.getSubscribe(), changes.getUnsubscribe());
+            krakenDataService.subscribe(changes.getSubscribe());
+            krakenDataService.unsubscribe(changes.getUnsubscribe());
+        } catch (Exception e) {
+            logger.error("Failed to apply feed subscription changes", e);
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        subscriptionExecutor.shutdownNow();
+        try {
+            subscriptionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.FeedStats;
+import com.cryptosim.trading212.dtos.TickListenerStats;
+import com.cryptosim.trading212.dtos.VenueStats;
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import com.cryptosim.trading212.utils.TradeMath;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic market data source for stress testing, enabled with {@code market-data.source=synthetic}
+ * in place of the Kraken feed.
+ * <p>
+ * Generates correlated geometric Brownian motion prices (see {@link SyntheticPriceGenerator}) for a
+ * configurable universe of {@code SYNnnnn/USD} symbols at a target tick rate, on one or more generator threads
+ * that each own a fixed partition of the universe. Ticks are published exactly like feed ticks, so every
+ * consumer (valuation, order triggers, cross rates, tick recording) sees the full rate. When the consumers
+ * cannot keep up, the generator falls behind the target instead of buffering; rounds more than a second
+ * behind are dropped from the schedule (not from the random sequence, so prices stay reproducible) and
+ * the achieved rate is logged every {@value #STATS_INTERVAL_SECONDS} s.
+ * <p>
+ * Every symbol is always generated; subscription changes are accepted and ignored.
+ */
+@Service
+@ConditionalOnProperty(name = "market-data.source", havingValue = "synthetic")
+public class SyntheticMarketDataServiceImpl implements KrakenDataService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticMarketDataServiceImpl.class);
+
+    private static final long STATS_INTERVAL_SECONDS = 10;
+    private static final long IDLE_PARK_NANOS = 50_000;
+    private static final double MAX_BACKLOG_SECONDS = 1.0;
+    private static final double ANNUAL_DRIFT = 0.0;
+
+    private final List<String> symbols;
+    private final QuoteStore quoteStore;
+    private final TickBus tickBus = new TickBus();
+    private final SyntheticPriceGenerator[] generators;
+    private final double roundsPerNano;
+    private final long ticksPerSecond;
+    private final long seed;
+    private final LongAdder ticksPublished = new LongAdder();
+    private final LongAdder roundsDropped = new LongAdder();
+    private final ScheduledExecutorService statsExecutor;
+    private final List<Thread> generatorThreads = new ArrayList<>();
+    private volatile boolean running;
+    private long lastStatsTicks;
+
+    @Autowired
+    public SyntheticMarketDataServiceImpl(@Value("${market-data.synthetic.symbols:1000}") int symbolCount,
+                                          @Value("${market-data.synthetic.ticks-per-second:1000000}") long ticksPerSecond,
+                                          @Value("${market-data.synthetic.threads:1}") int threads,
+                                          @Value("${market-data.synthetic.seed:42}") long seed,
+                                          @Value("${market-data.synthetic.volatility:0.8}") double volatility,
+                                          @Value("${market-data.synthetic.correlation:0.5}") double correlation) {
+        if (symbolCount <= 0 || symbolCount > 100_000) {
+            throw new IllegalArgumentException("market-data.synthetic.symbols must be between 1 and 100000.");
+        }
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("market-data.synthetic.ticks-per-second must be positive.");
+        }
+        if (threads <= 0 || threads > symbolCount) {
+            throw new IllegalArgumentException("market-data.synthetic.threads must be between 1 and the number of symbols.");
+        }
+        this.ticksPerSecond = ticksPerSecond;
+        this.seed = seed;
+        List<String> names = new ArrayList<>(symbolCount);
+        for (int i = 0; i < symbolCount; i++) {
+            names.add(String.format("SYN%04d/USD", i));
+        }
+        this.symbols = List.copyOf(names);
+        this.quoteStore = new QuoteStore(symbols);
+
+        // Every round moves each symbol once, so the round rate follows from the tick rate
+        double roundsPerSecond = (double) ticksPerSecond / symbolCount;
+        this.roundsPerNano = roundsPerSecond / 1e9;
+        double[] initialPrices = SyntheticPriceGenerator.initialPrices(symbolCount, seed);
+        this.generators = new SyntheticPriceGenerator[threads];
+        for (int partition = 0; partition < threads; partition++) {
+            int[] owned = new int[(symbolCount - partition + threads - 1) / threads];
+            for (int i = 0; i < owned.length; i++) {
+                owned[i] = partition + i * threads;
+            }
+            generators[partition] = new SyntheticPriceGenerator(owned, initialPrices, ANNUAL_DRIFT, volatility,
+                    correlation, 1 / roundsPerSecond, seed, partition);
+        }
+        this.statsExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "synthetic-market-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    private void init() {
+        connect();
+        statsExecutor.scheduleAtFixedRate(this::logStats, STATS_INTERVAL_SECONDS, STATS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts the generator threads, if they are not running yet.
+     */
+    @Override
+    public synchronized void connect() {
+        if (running) {
+            return;
+        }
+        running = true;
+        logger.info("Starting synthetic market: {} symbols, {} ticks/s target, {} generator threads, seed {}",
+                symbols.size(), ticksPerSecond, generators.length, seed);
+        for (int partition = 0; partition < generators.length; partition++) {
+            SyntheticPriceGenerator generator = generators[partition];
+            Thread thread = new Thread(() -> generate(generator), "synthetic-market-" + (partition + 1));
+            thread.setDaemon(true);
+            generatorThreads.add(thread);
+            thread.start();
+        }
+    }
+
+    // Runs the rounds that are due by the wall clock, parking briefly whenever it is ahead of schedule
+    private void generate(SyntheticPriceGenerator generator) {
+        SyntheticPriceGenerator.PriceSink sink = (symbolIndex, priceUnits) ->
+                publish(symbols.get(symbolIndex), BigDecimal.valueOf(priceUnits, TradeMath.PRICE_SCALE));
+        long maxBacklog = Math.max(1, (long) (MAX_BACKLOG_SECONDS * roundsPerNano * 1e9));
+        long startedAt = System.nanoTime();
+        long scheduled = 0;
+        while (running) {
+            long due = (long) ((System.nanoTime() - startedAt) * roundsPerNano);
+            if (due - scheduled > maxBacklog) {
+                roundsDropped.add(due - scheduled - maxBacklog);
+                scheduled = due - maxBacklog;
+            }
+            if (scheduled >= due) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                generator.nextRound(sink);
+            } catch (Exception e) {
+                logger.error("Synthetic market round failed", e);
+            }
+            ticksPublished.add(generator.getSymbolCount());
+            scheduled++;
+        }
+    }
+
+    private void publish(String symbol, BigDecimal price) {
+        BigDecimal previous = quoteStore.getAndSet(symbol, price);
+        if (previous != null && previous.compareTo(price) == 0) {
+            return;
+        }
+        tickBus.publish(new PriceTick(symbol, price, previous, System.currentTimeMillis(), System.nanoTime()));
+    }
+
+    private void logStats() {
+        long ticks = ticksPublished.sum();
+        long achieved = (ticks - lastStatsTicks) / STATS_INTERVAL_SECONDS;
+        lastStatsTicks = ticks;
+        logger.info("Synthetic market: {} ticks/s achieved of {} targeted, {} ticks total, {} rounds dropped behind schedule",
+                achieved, ticksPerSecond, ticks, roundsDropped.sum());
+    }
+
+    @Override
+    public void addTickListener(TickListener listener, String name, Collection<String> assetSymbols, boolean isolated) {
+        tickBus.addListener(listener, name, assetSymbols, isolated);
+    }
+
+    @Override
+    public boolean removeTickListener(TickListener listener) {
+        return tickBus.removeListener(listener);
+    }
+
+    @Override
+    public List<TickListenerStats> getTickListenerStats() {
+        return tickBus.getStats();
+    }
+
+    // The generator publishes directly, so there is no frame queue; only the applied ticks are reported
+    @Override
+    public List<FeedStats> getFeedStats() {
+        FeedStats stats = new FeedStats();
+        stats.setFeedName("synthetic");
+        stats.setConnected(running);
+        stats.setSymbolCount(symbols.size());
+        stats.setTicksApplied(ticksPublished.sum());
+        return List.of(stats);
+    }
+
+    // The generator is the only venue and is never stale while it runs
+    @Override
+    public List<VenueStats> getVenueStats() {
+        VenueStats stats = new VenueStats();
+        stats.setVenue("synthetic");
+        stats.setConnected(running);
+        stats.setStale(!running);
+        stats.setLastMessageAgeMillis(running ? 0 : -1);
+        stats.setSymbolsQuoted(quoteStore.snapshot().size());
+        stats.setQuotesReceived(ticksPublished.sum());
+        return List.of(stats);
+    }
+
+    @Override
+    public Map<String, BigDecimal> getLatestPrices() {
+        return quoteStore.snapshot();
+    }
+
+    @Override
+    public BigDecimal getPriceForSymbol(String assetSymbol) {
+        return quoteStore.get(assetSymbol);
+    }
+
+    // Generated prices have no spread, so the quote carries the price alone
+    @Override
+    public ConsolidatedQuote getQuote(String assetSymbol) {
+        BigDecimal price = quoteStore.get(assetSymbol);
+        return price != null ? new ConsolidatedQuote(assetSymbol, null, null, null, null, price, 1, System.currentTimeMillis(), 0) : null;
+    }
+
+    // Every generated symbol is repriced continuously while the generator runs
+    @Override
+    public long getPriceAgeMillis(String assetSymbol) {
+        return running && quoteStore.get(assetSymbol) != null ? 0 : -1;
+    }
+
+    @Override
+    public List<String> getAvailableSymbols() {
+        return symbols;
+    }
+
+    @Override
+    public List<String> getSubscribedSymbols() {
+        return symbols;
+    }
+
+    @Override
+    public void subscribe(Collection<String> assetSymbols) {
+        // Every symbol is always generated
+    }
+
+    @Override
+    public void unsubscribe(Collection<String> assetSymbols) {
+        // Every symbol is always generated
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        running = false;
+        statsExecutor.shutdownNow();
+        tickBus.shutdown();
+        for (Thread thread : generatorThreads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        logger.info("Synthetic market stopped after {} ticks", ticksPublished.sum());
+    }
+}
@@ -0,0 +1,103 @@
+package com.cryptosim.trading212.services;
+
+import java.util.SplittableRandom;
+
+/**
+ * Correlated geometric Brownian motion for a partition of a synthetic symbol universe.
+ * <p>
+ * Each round moves every symbol of the partition by one time step. The shock of a symbol mixes a market
+ * factor shared by all symbols with an idiosyncratic one, so any two symbols are correlated by
+ * {@code correlation}. The market factor is drawn from a generator seeded identically in every partition,
+ * so partitions running on different threads still see the same market shock in the same round. The
+ * sequence of prices is fully determined by the seed and the partitioning.
+ * <p>
+ * This class is not thread-safe; every partition is driven by a single thread.
+ */
+public class SyntheticPriceGenerator {
+
+    /**
+     * Receives the generated prices.
+     */
+    @FunctionalInterface
+    public interface PriceSink {
+        /**
+         * @param symbolIndex The index of the symbol in the universe.
+         * @param priceUnits  The new price scaled by 10^8, at least 1.
+         */
+        void onPrice(int symbolIndex, long priceUnits);
+    }
+
+    private static final double SECONDS_PER_YEAR = 365.25 * 24 * 3600;
+    private static final double PRICE_UNITS = 1e8;
+    private static final long MARKET_SEED_SALT = 0x6D61726B6574L;
+    private static final long PARTITION_SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final int[] symbolIndexes;
+    private final double[] logPrices;
+    private final double driftTerm;
+    private final double diffusion;
+    private final double marketWeight;
+    private final double idiosyncraticWeight;
+    private final SplittableRandom marketRandom;
+    private final SplittableRandom idiosyncraticRandom;
+
+    /**
+     * @param symbolIndexes The universe indexes of the symbols this partition moves.
+     * @param initialPrices The starting price of every symbol in the universe.
+     * @param drift         Annualized drift, e.g. 0.
+     * @param volatility    Annualized volatility, e.g. 0.8 for 80%.
+     * @param correlation   Pairwise correlation of the shocks, between 0 and 1.
+     * @param stepSeconds   Simulated time per round.
+     * @param seed          Seed of the universe.
+     * @param partition     Index of this partition, which selects its idiosyncratic random stream.
+     */
+    public SyntheticPriceGenerator(int[] symbolIndexes, double[] initialPrices, double drift, double volatility,
+                                   double correlation, double stepSeconds, long seed, int partition) {
+        if (correlation < 0 || correlation > 1) {
+            throw new IllegalArgumentException("Correlation must be between 0 and 1.");
+        }
+        if (volatility < 0 || stepSeconds <= 0) {
+            throw new IllegalArgumentException("Volatility must not be negative and the step must be positive.");
+        }
+        this.symbolIndexes = symbolIndexes.clone();
+        this.logPrices = new double[symbolIndexes.length];
+        for (int i = 0; i < symbolIndexes.length; i++) {
+            logPrices[i] = Math.log(initialPrices[symbolIndexes[i]]);
+        }
+        double dt = stepSeconds / SECONDS_PER_YEAR;
+        this.driftTerm = (drift - volatility * volatility / 2) * dt;
+        this.diffusion = volatility * Math.sqrt(dt);
+        this.marketWeight = Math.sqrt(correlation);
+        this.idiosyncraticWeight = Math.sqrt(1 - correlation);
+        this.marketRandom = new SplittableRandom(seed ^ MARKET_SEED_SALT);
+        this.idiosyncraticRandom = new SplittableRandom(seed + PARTITION_SEED_STRIDE * (partition + 1));
+    }
+
+    /**
+     * Deterministic starting prices, log-uniformly spread between 0.01 and 10000.
+     */
+    public static double[] initialPrices(int symbolCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] prices = new double[symbolCount];
+        for (int i = 0; i < symbolCount; i++) {
+            prices[i] = Math.pow(10, random.nextDouble(-2, 4));
+        }
+        return prices;
+    }
+
+    /**
+     * Advances every symbol of the partition by one step and hands the new prices to the sink.
+     */
+    public void nextRound(PriceSink sink) {
+        double market = marketRandom.nextGaussian();
+        for (int i = 0; i < logPrices.length; i++) {
+            double shock = marketWeight * market + idiosyncraticWeight * idiosyncraticRandom.nextGaussian();
+            logPrices[i] += driftTerm + diffusion * shock;
+            sink.onPrice(symbolIndexes[i], Math.max(1, Math.round(Math.exp(logPrices[i]) * PRICE_UNITS)));
+        }
+    }
+
+    public int getSymbolCount() {
+        return symbolIndexes.length;
+    }
+}
@@ -0,0 +1,224 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.TickListenerStats;
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans accepted price ticks out to the registered {@link TickListener}s.
+ * <p>
+ * Listeners follow either every symbol or a given set of symbols. Both are kept in copy-on-write arrays
+ * (one for the global listeners, one per symbol), so publishing is a volatile read and a lock-free map
+ * lookup; only registering and removing listeners take a lock. An inline listener runs on the publishing
+ * thread. An isolated listener gets its own single thread with a bounded queue, so a slow listener only
+ * delays (and, once its queue is full, drops) its own ticks. Every listener's deliveries, drops and
+ * publication-to-delivery latency are counted.
+ */
+public class TickBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickBus.class);
+
+    private static final int ISOLATED_QUEUE_CAPACITY = 16_384;
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    /**
+     * A registered listener with its delivery executor (null when inline) and counters.
+     */
+    private static final class Subscriber {
+        private final String name;
+        private final TickListener listener;
+        private final Set<String> symbols; // Null for listeners of every symbol
+        private final ThreadPoolExecutor executor;
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        private Subscriber(String name, TickListener listener, Set<String> symbols, boolean isolated) {
+            this.name = name;
+            this.listener = listener;
+            this.symbols = symbols;
+            this.executor = isolated ? newIsolatedExecutor(name, dropped) : null;
+        }
+
+        private static ThreadPoolExecutor newIsolatedExecutor(String name, LongAdder dropped) {
+            return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(ISOLATED_QUEUE_CAPACITY),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "tick-listener-" + name);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> dropped.increment());
+        }
+    }
+
+    private volatile Subscriber[] globalSubscribers = NO_SUBSCRIBERS;
+    private final Map<String, Subscriber[]> symbolSubscribers = new ConcurrentHashMap<>();
+    private final Map<TickListener, Subscriber> subscribers = new IdentityHashMap<>(); // Guarded by this
+
+    /**
+     * Registers a listener.
+     *
+     * @param listener     The listener.
+     * @param name         Name used in stats and for the isolated thread.
+     * @param assetSymbols The symbols to follow, or null for every symbol.
+     * @param isolated     true to deliver on the listener's own thread instead of the publishing thread.
+     * @throws IllegalArgumentException if the listener is already registered.
+     */
+    public synchronized void addListener(TickListener listener, String name, Collection<String> assetSymbols, boolean isolated) {
+        if (subscribers.containsKey(listener)) {
+            throw new IllegalArgumentException("Tick listener " + name + " is already registered.");
+        }
+        Subscriber subscriber = new Subscriber(name, listener, assetSymbols == null ? null : Set.copyOf(assetSymbols), isolated);
+        subscribers.put(listener, subscriber);
+        if (subscriber.symbols == null) {
+            globalSubscribers = append(globalSubscribers, subscriber);
+        } else {
+            for (String symbol : subscriber.symbols) {
+                symbolSubscribers.put(symbol, append(symbolSubscribers.getOrDefault(symbol, NO_SUBSCRIBERS), subscriber));
+            }
+        }
+    }
+
+    /**
+     * Unregisters a listener; an isolated listener's pending ticks are discarded.
+     *
+     * @return false if the listener was not registered.
+     */
+    public synchronized boolean removeListener(TickListener listener) {
+        Subscriber subscriber = subscribers.remove(listener);
+        if (subscriber == null) {
+            return false;
+        }
+        if (subscriber.symbols == null) {
+            globalSubscribers = without(globalSubscribers, subscriber);
+        } else {
+            for (String symbol : subscriber.symbols) {
+                Subscriber[] remaining = without(symbolSubscribers.getOrDefault(symbol, NO_SUBSCRIBERS), subscriber);
+                if (remaining.length == 0) {
+                    symbolSubscribers.remove(symbol);
+                } else {
+                    symbolSubscribers.put(symbol, remaining);
+                }
+            }
+        }
+        if (subscriber.executor != null) {
+            subscriber.executor.shutdownNow();
+        }
+        return true;
+    }
+
+    private static Subscriber[] append(Subscriber[] current, Subscriber subscriber) {
+        Subscriber[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = subscriber;
+        return updated;
+    }
+
+    private static Subscriber[] without(Subscriber[] current, Subscriber subscriber) {
+        return Arrays.stream(current).filter(s -> s != subscriber).toArray(Subscriber[]::new);
+    }
+
+    /**
+     * Delivers a tick to the global listeners and the listeners of its symbol. Takes no locks.
+     */
+    public void publish(PriceTick tick) {
+        for (Subscriber subscriber : globalSubscribers) {
+            deliver(subscriber, tick);
+        }
+        Subscriber[] forSymbol = symbolSubscribers.get(tick.getAssetSymbol());
+        if (forSymbol != null) {
+            for (Subscriber subscriber : forSymbol) {
+                deliver(subscriber, tick);
+            }
+        }
+    }
+
+    private void deliver(Subscriber subscriber, PriceTick tick) {
+        if (subscriber.executor == null) {
+            invoke(subscriber, tick);
+        } else {
+            subscriber.executor.execute(() -> invoke(subscriber, tick));
+        }
+    }
+
+    private void invoke(Subscriber subscriber, PriceTick tick) {
+        long latency = System.nanoTime() - tick.getPublishedNanos();
+        subscriber.delivered.increment();
+        subscriber.totalLatencyNanos.add(latency);
+        if (latency > subscriber.maxLatencyNanos.get()) {
+            subscriber.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+        try {
+            subscriber.listener.onTick(tick);
+        } catch (Exception e) {
+            logger.error("Tick listener {} failed for symbol {}", subscriber.name, tick.getAssetSymbol(), e);
+        }
+    }
+
+    /**
+     * Tells the global listeners and the listeners of the symbol that its price was dropped.
+     */
+    public void publishRemoved(String assetSymbol) {
+        List<Subscriber> targets = new ArrayList<>(Arrays.asList(globalSubscribers));
+        targets.addAll(Arrays.asList(symbolSubscribers.getOrDefault(assetSymbol, NO_SUBSCRIBERS)));
+        for (Subscriber subscriber : targets) {
+            Runnable notification = () -> {
+                try {
+                    subscriber.listener.onSymbolRemoved(assetSymbol);
+                } catch (Exception e) {
+                    logger.error("Tick listener {} failed on removal of symbol {}", subscriber.name, assetSymbol, e);
+                }
+            };
+            if (subscriber.executor == null) {
+                notification.run();
+            } else {
+                subscriber.executor.execute(notification);
+            }
+        }
+    }
+
+    public synchronized List<TickListenerStats> getStats() {
+        List<TickListenerStats> stats = new ArrayList<>(subscribers.size());
+        for (Subscriber subscriber : subscribers.values()) {
+            TickListenerStats entry = new TickListenerStats();
+            long delivered = subscriber.delivered.sum();
+            entry.setName(subscriber.name);
+            entry.setSymbolCount(subscriber.symbols == null ? 0 : subscriber.symbols.size());
+            entry.setIsolated(subscriber.executor != null);
+            entry.setDelivered(delivered);
+            entry.setDropped(subscriber.dropped.sum());
+            entry.setQueueDepth(subscriber.executor == null ? 0 : subscriber.executor.getQueue().size());
+            entry.setAverageLatencyMicros(delivered == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(subscriber.totalLatencyNanos.sum() / delivered));
+            entry.setMaxLatencyMicros(TimeUnit.NANOSECONDS.toMicros(subscriber.maxLatencyNanos.get()));
+            stats.add(entry);
+        }
+        return stats;
+    }
+
+    /**
+     * Stops the threads of all isolated listeners.
+     */
+    public synchronized void shutdown() {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.executor != null) {
+                subscriber.executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.cryptosim.trading212.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, time-ordered price history of several symbols, stored column-wise in primitive arrays
+ * (timestamp, symbol index, price scaled by 10^8) so millions of ticks can be replayed by many
+ * strategies concurrently without allocation or boxing.
+ */
+public final class TickHistory {
+
+    private final List<String> symbols;
+    private final long[] timestamps;
+    private final int[] symbolIndexes;
+    private final long[] prices;
+    private final int size;
+
+    private TickHistory(List<String> symbols, long[] timestamps, int[] symbolIndexes, long[] prices, int size) {
+        this.symbols = Collections.unmodifiableList(symbols);
+        this.timestamps = timestamps;
+        this.symbolIndexes = symbolIndexes;
+        this.prices = prices;
+        this.size = size;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * @return The index of a symbol, or -1 if it does not occur in the history.
+     */
+    public int indexOf(String symbol) {
+        return symbols.indexOf(symbol);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long timestamp(int tick) {
+        return timestamps[tick];
+    }
+
+    public int symbolIndex(int tick) {
+        return symbolIndexes[tick];
+    }
+
+    public long price(int tick) {
+        return prices[tick];
+    }
+
+    /**
+     * Accumulates ticks in arrival order; the caller is responsible for adding them in time order.
+     */
+    public static final class Builder {
+        private final List<String> symbols = new ArrayList<>();
+        private final Map<String, Integer> symbolIndexes = new HashMap<>();
+        private final int maxTicks;
+        private long[] timestamps = new long[1024];
+        private int[] indexes = new int[1024];
+        private long[] prices = new long[1024];
+        private int size;
+
+        /**
+         * @param maxTicks Upper bound on the number of ticks; exceeding it fails the load instead of exhausting the heap.
+         */
+        public Builder(int maxTicks) {
+            this.maxTicks = maxTicks;
+        }
+
+        public int symbolIndex(String symbol) {
+            return symbolIndexes.computeIfAbsent(symbol, s -> {
+                symbols.add(s);
+                return symbols.size() - 1;
+            });
+        }
+
+        public int symbolCount() {
+            return symbols.size();
+        }
+
+        public void add(long timestamp, int symbolIndex, long price) {
+            if (size == timestamps.length) {
+                if (size >= maxTicks) {
+                    throw new IllegalArgumentException("History exceeds " + maxTicks + " ticks; use a shorter range or a coarser resolution.");
+                }
+                int capacity = (int) Math.min((long) size << 1, maxTicks);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                indexes = Arrays.copyOf(indexes, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+            }
+            timestamps[size] = timestamp;
+            indexes[size] = symbolIndex;
+            prices[size] = price;
+            size++;
+        }
+
+        public TickHistory build() {
+            return new TickHistory(new ArrayList<>(symbols), timestamps, indexes, prices, size);
+        }
+    }
+}
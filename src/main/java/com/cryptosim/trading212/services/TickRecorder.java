@@ -0,0 +1,307 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the live price feed to compact binary files, one per UTC day, and loads them back as a
+ * {@link TickHistory} for backtests.
+ * <p>
+ * A file is a sequence of records: {@code 'S' short id, UTF symbol} defines a symbol ID for the rest of
+ * the file, {@code 'T' short id, long epochMillis, long price*10^8} is a tick. Unchanged prices are
+ * skipped and each symbol is conflated to at most one tick per second (the last price of the second is
+ * written on the next flush), which keeps a year of all symbols in the low gigabytes. Ticks are delivered
+ * on the recorder's own isolated listener thread and written to a buffered stream; a daemon thread flushes
+ * it every second.
+ */
+@Service
+public class TickRecorder implements TickListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickRecorder.class);
+
+    private static final Path TICK_DIRECTORY = Paths.get("data", "ticks");
+    private static final long MIN_RECORD_INTERVAL_MILLIS = 1000;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+    private static final int PRICE_SCALE = 8;
+    private static final byte SYMBOL_RECORD = 'S';
+    private static final byte TICK_RECORD = 'T';
+
+    private final KrakenDataService krakenDataService;
+    private final Path directory;
+    private final ScheduledExecutorService flushExecutor;
+
+    // Guarded by this
+    private final Map<String, long[]> lastWritten = new HashMap<>(); // symbol -> {epochMillis, price}
+    private final Map<String, long[]> pending = new HashMap<>();     // symbol -> {epochMillis, price} not yet written
+    private final Map<String, Integer> fileSymbolIds = new HashMap<>();
+    private DataOutputStream out;
+    private LocalDate currentDay;
+
+    @Autowired
+    public TickRecorder(KrakenDataService krakenDataService) {
+        this(krakenDataService, TICK_DIRECTORY);
+    }
+
+    TickRecorder(KrakenDataService krakenDataService, Path directory) {
+        this.krakenDataService = krakenDataService;
+        this.directory = directory;
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tick-recorder-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    private void init() {
+        logger.info("Recording price ticks to {}", directory.toAbsolutePath());
+        flushExecutor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        krakenDataService.addTickListener(this, "tick-recorder", null, true);
+    }
+
+    @Override
+    public void onTick(PriceTick tick) {
+        record(tick.getAssetSymbol(), tick.getTimestamp(), tick.getPrice());
+    }
+
+    /**
+     * Records one price observation, subject to the per-symbol conflation.
+     */
+    synchronized void record(String assetSymbol, long epochMillis, BigDecimal price) {
+        long priceUnits;
+        try {
+            priceUnits = price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).movePointRight(PRICE_SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            logger.warn("Price {} of {} is out of the recordable range, skipping tick", price, assetSymbol);
+            return;
+        }
+        long[] last = lastWritten.get(assetSymbol);
+        if (last != null && epochMillis - last[0] < MIN_RECORD_INTERVAL_MILLIS) {
+            pending.put(assetSymbol, new long[]{epochMillis, priceUnits});
+            return;
+        }
+        pending.remove(assetSymbol);
+        if (last == null || last[1] != priceUnits) {
+            write(assetSymbol, epochMillis, priceUnits);
+        }
+    }
+
+    private void write(String assetSymbol, long epochMillis, long priceUnits) {
+        try {
+            DataOutputStream stream = streamFor(epochMillis);
+            Integer symbolId = fileSymbolIds.get(assetSymbol);
+            if (symbolId == null) {
+                symbolId = fileSymbolIds.size();
+                fileSymbolIds.put(assetSymbol, symbolId);
+                stream.writeByte(SYMBOL_RECORD);
+                stream.writeShort(symbolId);
+                stream.writeUTF(assetSymbol);
+            }
+            stream.writeByte(TICK_RECORD);
+            stream.writeShort(symbolId);
+            stream.writeLong(epochMillis);
+            stream.writeLong(priceUnits);
+            lastWritten.put(assetSymbol, new long[]{epochMillis, priceUnits});
+        } catch (IOException e) {
+            logger.error("Failed to record tick of {}", assetSymbol, e);
+        }
+    }
+
+    // Rolls over to the file of the tick's UTC day; symbol IDs are scoped to a file
+    private DataOutputStream streamFor(long epochMillis) throws IOException {
+        LocalDate day = Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC).toLocalDate();
+        if (out == null || !day.equals(currentDay)) {
+            closeStream();
+            Files.createDirectories(directory);
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fileFor(day),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), WRITE_BUFFER_BYTES));
+            currentDay = day;
+            fileSymbolIds.clear();
+        }
+        return out;
+    }
+
+    private Path fileFor(LocalDate day) {
+        return directory.resolve("ticks-" + day + ".bin");
+    }
+
+    /**
+     * Writes the conflated ticks that are still pending and flushes the file.
+     */
+    synchronized void flush() {
+        try {
+            Iterator<Map.Entry<String, long[]>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, long[]> entry = iterator.next();
+                long[] last = lastWritten.get(entry.getKey());
+                if (last == null || last[1] != entry.getValue()[1]) {
+                    write(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+                }
+                iterator.remove();
+            }
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to flush tick file", e);
+        }
+    }
+
+    private void closeStream() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    /**
+     * Loads the recorded ticks of an inclusive range of UTC days, conflated to bars of the given size:
+     * each symbol contributes the last price it had in a bar, stamped with the bar's end. Missing days are skipped.
+     *
+     * @param from             First day of the range.
+     * @param to               Last day of the range.
+     * @param resolutionMillis Bar size in milliseconds; must be positive.
+     * @param maxTicks         Upper bound on the number of ticks returned.
+     * @return The time-ordered history.
+     * @throws IllegalArgumentException if the history would exceed maxTicks.
+     * @throws UncheckedIOException if a file cannot be read.
+     */
+    public TickHistory loadHistory(LocalDate from, LocalDate to, long resolutionMillis, int maxTicks) {
+        if (!to.isBefore(LocalDate.now(ZoneOffset.UTC))) {
+            flush();
+        }
+        TickHistory.Builder builder = new TickHistory.Builder(maxTicks);
+        BarConflator conflator = new BarConflator(builder, resolutionMillis);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Path file = fileFor(day);
+            if (Files.exists(file)) {
+                readFile(file, builder, conflator);
+            }
+        }
+        conflator.finish();
+        return builder.build();
+    }
+
+    private void readFile(Path file, TickHistory.Builder builder, BarConflator conflator) {
+        Map<Integer, Integer> symbolIndexes = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), READ_BUFFER_BYTES))) {
+            while (true) {
+                byte recordType;
+                try {
+                    recordType = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (recordType == SYMBOL_RECORD) {
+                    int symbolId = in.readShort();
+                    symbolIndexes.put(symbolId, builder.symbolIndex(in.readUTF()));
+                } else if (recordType == TICK_RECORD) {
+                    Integer symbolIndex = symbolIndexes.get((int) in.readShort());
+                    long epochMillis = in.readLong();
+                    long priceUnits = in.readLong();
+                    if (symbolIndex != null) {
+                        conflator.accept(epochMillis, symbolIndex, priceUnits);
+                    }
+                } else {
+                    logger.warn("Unknown record type {} in {}, skipping the rest of the file", recordType, file);
+                    return;
+                }
+            }
+        } catch (EOFException e) {
+            logger.warn("Tick file {} ends with a truncated record", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read tick file " + file, e);
+        }
+    }
+
+    /**
+     * Keeps the last price per symbol of the current bar and emits all of them, in symbol order,
+     * once a later bar starts. Ticks that arrive slightly out of order are folded into the current bar.
+     */
+    private static final class BarConflator {
+        private final TickHistory.Builder builder;
+        private final long resolutionMillis;
+        private long currentBar = Long.MIN_VALUE;
+        private long[] pendingPrices = new long[32];
+        private boolean[] hasPending = new boolean[32];
+
+        private BarConflator(TickHistory.Builder builder, long resolutionMillis) {
+            this.builder = builder;
+            this.resolutionMillis = resolutionMillis;
+        }
+
+        private void accept(long epochMillis, int symbolIndex, long priceUnits) {
+            long bar = Math.floorDiv(epochMillis, resolutionMillis);
+            if (bar > currentBar) {
+                emit();
+                currentBar = bar;
+            }
+            if (symbolIndex >= pendingPrices.length) {
+                pendingPrices = Arrays.copyOf(pendingPrices, Math.max(symbolIndex + 1, pendingPrices.length << 1));
+                hasPending = Arrays.copyOf(hasPending, pendingPrices.length);
+            }
+            pendingPrices[symbolIndex] = priceUnits;
+            hasPending[symbolIndex] = true;
+        }
+
+        private void emit() {
+            long barEnd = (currentBar + 1) * resolutionMillis - 1;
+            for (int i = 0; i < hasPending.length; i++) {
+                if (hasPending[i]) {
+                    builder.add(barEnd, i, pendingPrices[i]);
+                    hasPending[i] = false;
+                }
+            }
+        }
+
+        private void finish() {
+            emit();
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        flushExecutor.shutdownNow();
+        synchronized (this) {
+            flush();
+            try {
+                closeStream();
+            } catch (IOException e) {
+                logger.error("Failed to close tick file", e);
+            }
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package com.cryptosim.trading212.services;
 
+import com.cryptosim.trading212.daos.ReplicaRouter;
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
 import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.PnlRollupDao;
 import com.cryptosim.trading212.daos.contracts.PortfolioAssetDao;
 import com.cryptosim.trading212.daos.contracts.TransactionDao;
+import com.cryptosim.trading212.dtos.TransactionPage;
 import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.AccountChange;
+import com.cryptosim.trading212.models.AccountChangeType;
+import com.cryptosim.trading212.models.CostBasisMethod;
+import com.cryptosim.trading212.models.LotMatch;
 import com.cryptosim.trading212.models.PortfolioAsset;
 import com.cryptosim.trading212.models.Transaction;
 import com.cryptosim.trading212.models.TransactionType;
+import com.cryptosim.trading212.services.contracts.AccountVersionService;
 import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.LotAccountingService;
 import com.cryptosim.trading212.services.contracts.TradingService;
+import com.cryptosim.trading212.utils.Money;
+import com.cryptosim.trading212.utils.Price;
+import com.cryptosim.trading212.utils.Quantity;
+import com.cryptosim.trading212.utils.QuoteFreshness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +30,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Service class for handling core trading logic, account management,
@@ -35,21 +49,33 @@ public class TradingServiceImpl implements TradingService {
     private final PortfolioAssetDao portfolioAssetDao;
     private final TransactionDao transactionDao;
     private final KrakenDataService krakenDataService;
+    private final AccountVersionService accountVersionService;
+    private final AccountChangeDao accountChangeDao;
+    private final PnlRollupDao pnlRollupDao;
+    private final LotAccountingService lotAccountingService;
+    private final ReplicaRouter replicaRouter;
 
-    private static final int FIAT_SCALE = 2;
-    private static final int CRYPTO_QUANTITY_SCALE = 8;
-    private static final int PRICE_SCALE = 8;
 
 
     @Autowired
     public TradingServiceImpl(AccountDao accountDao,
                               PortfolioAssetDao portfolioAssetDao,
                               TransactionDao transactionDao,
-                              KrakenDataService krakenDataService) {
+                              KrakenDataService krakenDataService,
+                              AccountVersionService accountVersionService,
+                              AccountChangeDao accountChangeDao,
+                              PnlRollupDao pnlRollupDao,
+                              LotAccountingService lotAccountingService,
+                              ReplicaRouter replicaRouter) {
         this.accountDao = accountDao;
         this.portfolioAssetDao = portfolioAssetDao;
         this.transactionDao = transactionDao;
         this.krakenDataService = krakenDataService;
+        this.accountVersionService = accountVersionService;
+        this.accountChangeDao = accountChangeDao;
+        this.pnlRollupDao = pnlRollupDao;
+        this.lotAccountingService = lotAccountingService;
+        this.replicaRouter = replicaRouter;
     }
 
     /**
@@ -67,6 +93,19 @@ public class TradingServiceImpl implements TradingService {
                 });
     }
 
+    /**
+     * Runs a read of the user's account on a read replica, unless the user changed the account so recently that
+     * the replicas may not have the change yet; then it reads from the primary, so users always see their own trades.
+     * Changes made through another node are known from the client's read-your-writes token and only rule out the
+     * replicas that have not applied them yet.
+     */
+    private <T> T readFromReplica(String userIdentifier, Supplier<T> read) {
+        if (accountVersionService.changedWithin(userIdentifier, ReplicaRouter.STICKY_WINDOW_MILLIS)) {
+            return read.get();
+        }
+        return replicaRouter.readFromReplica(read, accountVersionService.getClientChangedAt());
+    }
+
     /**
      * Processes a buy transaction for a given user and asset.
      *
@@ -76,6 +115,7 @@ public class TradingServiceImpl implements TradingService {
      * @return The created Transaction object.
      * @throws IllegalArgumentException if inputs are invalid (e.g., insufficient funds, invalid quantity).
      * @throws NoSuchElementException if asset price is not available or account not found.
+     * @throws IllegalStateException if the price of the asset is older than its freshness limit (the feed has stalled).
      */
     @Transactional
     @Override
@@ -87,44 +127,121 @@ public class TradingServiceImpl implements TradingService {
             throw new IllegalArgumentException("Quantity to buy must be positive.");
         }
 
+        requireRecordableQuantity(cryptoQuantity, "buy");
+
+        Account account = getAccountByUserIdentifier(userIdentifier);
+        BigDecimal currentPrice = getCurrentPrice(assetSymbol);
+        return executeBuy(account, assetSymbol, cryptoQuantity, currentPrice);
+    }
+
+    /**
+     * Processes a buy transaction that spends (at most) a fixed fiat amount, e.g. for recurring plans.
+     * The quantity is derived from the current price and rounded down to the crypto scale.
+     *
+     * @param userIdentifier The identifier of the user making the purchase.
+     * @param assetSymbol    The symbol of the cryptocurrency to buy (e.g., "XBT/USD").
+     * @param fiatAmount     The fiat amount to spend.
+     * @return The created Transaction object.
+     * @throws IllegalArgumentException if the amount is invalid, too small for one unit step, or funds are insufficient.
+     * @throws NoSuchElementException if asset price is not available or account not found.
+     * @throws IllegalStateException if the price of the asset is older than its freshness limit (the feed has stalled).
+     */
+    @Transactional
+    @Override
+    public Transaction buyCryptoForAmount(String userIdentifier, String assetSymbol, BigDecimal fiatAmount) {
+        logger.info("Attempting to buy {} worth of {} for user {}", fiatAmount, assetSymbol, userIdentifier);
+
+        if (fiatAmount == null || fiatAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            logger.error("Invalid fiat amount for buy: {}", fiatAmount);
+            throw new IllegalArgumentException("Amount to spend must be positive.");
+        }
+
         Account account = getAccountByUserIdentifier(userIdentifier);
+        BigDecimal currentPrice = getCurrentPrice(assetSymbol);
+        Quantity cryptoQuantity;
+        try {
+            cryptoQuantity = Quantity.forAmount(fiatAmount, currentPrice);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + fiatAmount + " is too large.");
+        }
+        if (cryptoQuantity.signum() <= 0) {
+            throw new IllegalArgumentException("Amount " + fiatAmount + " is too small to buy any " + assetSymbol + ".");
+        }
+        return executeBuy(account, assetSymbol, cryptoQuantity.toBigDecimal(), currentPrice);
+    }
+
+    // Positions and transactions keep quantities rounded down to the crypto scale, so a quantity must survive that
+    private static void requireRecordableQuantity(BigDecimal cryptoQuantity, String side) {
+        Quantity quantity;
+        try {
+            quantity = Quantity.of(cryptoQuantity);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Quantity to " + side + " is too large.");
+        }
+        if (quantity.signum() <= 0) {
+            throw new IllegalArgumentException("Quantity to " + side + " must be at least " + Quantity.ofUnits(1) + ".");
+        }
+    }
+
+    private BigDecimal getCurrentPrice(String assetSymbol) {
         BigDecimal currentPrice = krakenDataService.getPriceForSymbol(assetSymbol);
 
         if (currentPrice == null) {
             logger.error("Price not available for asset: {}", assetSymbol);
             throw new NoSuchElementException("Price for " + assetSymbol + " is not currently available.");
         }
+        requireFreshPrice(assetSymbol);
+        return currentPrice;
+    }
 
-        BigDecimal cost = cryptoQuantity.multiply(currentPrice).setScale(FIAT_SCALE, RoundingMode.HALF_UP);
+    // A stalled feed keeps serving its last prices, so the age is checked before every fill
+    private void requireFreshPrice(String assetSymbol) {
+        long ageMillis = krakenDataService.getPriceAgeMillis(assetSymbol);
+        if (QuoteFreshness.isStale(assetSymbol, ageMillis)) {
+            logger.warn("Rejecting trade of {}: price is {} ms old (limit {} ms)", assetSymbol, ageMillis, QuoteFreshness.maxAgeMillis(assetSymbol));
+            throw new IllegalStateException("Price for " + assetSymbol + " is stale (" + ageMillis / 1000 + "s old); trading is paused until the price feed recovers.");
+        }
+    }
 
-        if (account.getBalance().compareTo(cost) < 0) {
-            logger.error("Insufficient funds for user {}. Balance: {}, Cost: {}", userIdentifier, account.getBalance(), cost);
+    // Cost and average are computed from the requested quantity and the feed price and rounded once, like the
+    // BigDecimal engine did; only the recorded quantity and price are rounded to their scales
+    private Transaction executeBuy(Account account, String assetSymbol, BigDecimal cryptoQuantity, BigDecimal currentPrice) {
+        Money cost;
+        try {
+            cost = Money.tradeValue(cryptoQuantity, currentPrice);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Quantity to buy is too large.");
+        }
+        Quantity recordedQuantity = Quantity.of(cryptoQuantity);
+        Price recordedPrice = Price.of(currentPrice);
+        Money balance = Money.of(account.getBalance());
+
+        if (balance.compareTo(cost) < 0) {
+            logger.error("Insufficient funds for user {}. Balance: {}, Cost: {}", account.getUserIdentifier(), account.getBalance(), cost);
             throw new IllegalArgumentException("Insufficient funds to complete the purchase. Required: " + cost + ", Available: " + account.getBalance());
         }
 
         // Update account balance
-        BigDecimal newBalance = account.getBalance().subtract(cost);
-        accountDao.updateBalance(account.getAccountId(), newBalance);
+        Money newBalance = balance.minus(cost);
+        accountDao.updateBalance(account.getAccountId(), newBalance.toBigDecimal());
         logger.info("Updated balance for account {}: {}", account.getAccountId(), newBalance);
 
         // Update portfolio
         Optional<PortfolioAsset> existingAssetOpt = portfolioAssetDao.findByAccountIdAndAssetSymbol(account.getAccountId(), assetSymbol);
         if (existingAssetOpt.isPresent()) {
             PortfolioAsset existingAsset = existingAssetOpt.get();
-            BigDecimal totalQuantity = existingAsset.getQuantity().add(cryptoQuantity);
-            BigDecimal oldTotalValue = existingAsset.getQuantity().multiply(existingAsset.getAveragePurchasePrice());
-            BigDecimal newPurchaseValue = cryptoQuantity.multiply(currentPrice);
-            BigDecimal newAveragePrice = oldTotalValue.add(newPurchaseValue)
-                    .divide(totalQuantity, PRICE_SCALE, RoundingMode.HALF_UP);
+            Quantity heldQuantity = Quantity.of(existingAsset.getQuantity());
+            Price newAveragePrice = Price.averageAfterBuy(heldQuantity, Price.of(existingAsset.getAveragePurchasePrice()),
+                    cryptoQuantity, currentPrice);
 
-            portfolioAssetDao.updateAsset(existingAsset.getAssetId(), totalQuantity.setScale(CRYPTO_QUANTITY_SCALE, RoundingMode.DOWN), newAveragePrice);
+            portfolioAssetDao.updateAsset(existingAsset.getAssetId(), heldQuantity.plus(recordedQuantity).toBigDecimal(), newAveragePrice.toBigDecimal());
             logger.info("Updated asset {} for account {}", assetSymbol, account.getAccountId());
         } else {
             PortfolioAsset newAsset = new PortfolioAsset();
             newAsset.setAccountId(account.getAccountId());
             newAsset.setAssetSymbol(assetSymbol);
-            newAsset.setQuantity(cryptoQuantity.setScale(CRYPTO_QUANTITY_SCALE, RoundingMode.DOWN));
-            newAsset.setAveragePurchasePrice(currentPrice.setScale(PRICE_SCALE, RoundingMode.HALF_UP));
+            newAsset.setQuantity(recordedQuantity.toBigDecimal());
+            newAsset.setAveragePurchasePrice(recordedPrice.toBigDecimal());
             portfolioAssetDao.addAsset(newAsset);
             logger.info("Added new asset {} for account {}", assetSymbol, account.getAccountId());
         }
@@ -134,16 +251,27 @@ public class TradingServiceImpl implements TradingService {
         transaction.setAccountId(account.getAccountId());
         transaction.setAssetSymbol(assetSymbol);
         transaction.setTransactionType(TransactionType.BUY);
-        transaction.setQuantity(cryptoQuantity.setScale(CRYPTO_QUANTITY_SCALE, RoundingMode.DOWN));
-        transaction.setPricePerUnit(currentPrice.setScale(PRICE_SCALE, RoundingMode.HALF_UP));
-        transaction.setTotalTransactionValue(cost);
+        transaction.setQuantity(recordedQuantity.toBigDecimal());
+        transaction.setPricePerUnit(recordedPrice.toBigDecimal());
+        transaction.setTotalTransactionValue(cost.toBigDecimal());
         transaction.setTransactionTimestamp(LocalDateTime.now());
         Transaction loggedTransaction = transactionDao.logTransaction(transaction);
         logger.info("Logged BUY transaction ID: {}", loggedTransaction.getTransactionId());
+        lotAccountingService.openLot(loggedTransaction);
+        recordTrade(account.getAccountId(), loggedTransaction);
+        accountVersionService.markChanged(account.getUserIdentifier());
 
         return loggedTransaction;
     }
 
+    // Logs the position and the transaction touched by a trade for delta sync and adds the trade to the P&L rollups
+    private void recordTrade(int accountId, Transaction transaction) {
+        accountChangeDao.recordChanges(accountId, List.of(
+                new AccountChange(AccountChangeType.POSITION, transaction.getAssetSymbol(), null),
+                new AccountChange(AccountChangeType.TRANSACTION, transaction.getAssetSymbol(), transaction.getTransactionId())));
+        pnlRollupDao.applyTrade(transaction);
+    }
+
     /**
      * Processes a sell transaction for a given user and asset.
      *
@@ -153,6 +281,7 @@ public class TradingServiceImpl implements TradingService {
      * @return The created Transaction object.
      * @throws IllegalArgumentException if inputs are invalid (e.g., insufficient assets, invalid quantity).
      * @throws NoSuchElementException if asset is not in portfolio, price is not available, or account not found.
+     * @throws IllegalStateException if the price of the asset is older than its freshness limit (the feed has stalled).
      */
     @Transactional
     @Override
@@ -164,6 +293,8 @@ public class TradingServiceImpl implements TradingService {
             throw new IllegalArgumentException("Quantity to sell must be positive.");
         }
 
+        requireRecordableQuantity(cryptoQuantity, "sell");
+
         Account account = getAccountByUserIdentifier(userIdentifier);
         PortfolioAsset assetToSell = portfolioAssetDao.findByAccountIdAndAssetSymbol(account.getAccountId(), assetSymbol)
                 .orElseThrow(() -> {
@@ -176,28 +307,44 @@ public class TradingServiceImpl implements TradingService {
             throw new IllegalArgumentException("Insufficient quantity of " + assetSymbol + " to sell. Available: " + assetToSell.getQuantity() + ", Requested: " + cryptoQuantity);
         }
 
-        BigDecimal currentPrice = krakenDataService.getPriceForSymbol(assetSymbol);
-        if (currentPrice == null) {
+        BigDecimal feedPrice = krakenDataService.getPriceForSymbol(assetSymbol);
+        if (feedPrice == null) {
             logger.error("Price not available for asset: {}", assetSymbol);
             throw new NoSuchElementException("Price for " + assetSymbol + " is not currently available to complete the sale.");
         }
-
-        BigDecimal proceeds = cryptoQuantity.multiply(currentPrice).setScale(FIAT_SCALE, RoundingMode.HALF_UP);
-        BigDecimal costBasisOfSoldPortion = cryptoQuantity.multiply(assetToSell.getAveragePurchasePrice()).setScale(FIAT_SCALE, RoundingMode.HALF_UP);
-        BigDecimal realizedProfitLoss = proceeds.subtract(costBasisOfSoldPortion);
+        requireFreshPrice(assetSymbol);
+        Quantity heldQuantity = Quantity.of(assetToSell.getQuantity());
+        Quantity quantity = Quantity.of(cryptoQuantity);
+        Price currentPrice = Price.of(feedPrice);
+
+        // Proceeds, P&L and the remainder are computed from the requested quantity and rounded once, like the
+        // BigDecimal engine did; the held quantity bounds the requested one, so none of them overflows
+        Money proceeds = Money.tradeValue(cryptoQuantity, feedPrice);
+        CostBasisMethod costBasisMethod = account.getCostBasisMethod() != null ? account.getCostBasisMethod() : CostBasisMethod.AVERAGE;
+        List<LotMatch> lotMatches = lotAccountingService.matchSale(account.getAccountId(), assetSymbol,
+                quantity.toBigDecimal(), feedPrice, heldQuantity.toBigDecimal(),
+                assetToSell.getAveragePurchasePrice(), costBasisMethod);
+        Money realizedProfitLoss;
+        if (costBasisMethod == CostBasisMethod.AVERAGE) {
+            realizedProfitLoss = proceeds.minus(Money.tradeValue(cryptoQuantity, assetToSell.getAveragePurchasePrice()));
+        } else {
+            realizedProfitLoss = Money.of(lotMatches.stream()
+                    .map(LotMatch::getRealizedProfitLoss)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
 
         // Update account balance
-        BigDecimal newBalance = account.getBalance().add(proceeds);
-        accountDao.updateBalance(account.getAccountId(), newBalance);
+        Money newBalance = Money.of(account.getBalance()).plus(proceeds);
+        accountDao.updateBalance(account.getAccountId(), newBalance.toBigDecimal());
         logger.info("Updated balance for account {}: {}", account.getAccountId(), newBalance);
 
         // Update portfolio
-        BigDecimal remainingQuantity = assetToSell.getQuantity().subtract(cryptoQuantity);
-        if (remainingQuantity.compareTo(BigDecimal.ZERO) <= 0) {
+        Quantity remainingQuantity = heldQuantity.minus(cryptoQuantity);
+        if (remainingQuantity.signum() <= 0) {
             portfolioAssetDao.deleteAsset(assetToSell.getAssetId());
             logger.info("Removed asset {} (ID: {}) from portfolio for account {} as quantity is now zero or less.", assetSymbol, assetToSell.getAssetId(), account.getAccountId());
         } else {
-            portfolioAssetDao.updateAsset(assetToSell.getAssetId(), remainingQuantity.setScale(CRYPTO_QUANTITY_SCALE, RoundingMode.DOWN), assetToSell.getAveragePurchasePrice());
+            portfolioAssetDao.updateAsset(assetToSell.getAssetId(), remainingQuantity.toBigDecimal(), assetToSell.getAveragePurchasePrice());
             logger.info("Updated quantity for asset {} (ID: {}) in portfolio for account {}. New quantity: {}", assetSymbol, assetToSell.getAssetId(), account.getAccountId(), remainingQuantity);
         }
 
@@ -206,13 +353,16 @@ public class TradingServiceImpl implements TradingService {
         transaction.setAccountId(account.getAccountId());
         transaction.setAssetSymbol(assetSymbol);
         transaction.setTransactionType(TransactionType.SELL);
-        transaction.setQuantity(cryptoQuantity.setScale(CRYPTO_QUANTITY_SCALE, RoundingMode.DOWN));
-        transaction.setPricePerUnit(currentPrice.setScale(PRICE_SCALE, RoundingMode.HALF_UP));
-        transaction.setTotalTransactionValue(proceeds);
+        transaction.setQuantity(quantity.toBigDecimal());
+        transaction.setPricePerUnit(currentPrice.toBigDecimal());
+        transaction.setTotalTransactionValue(proceeds.toBigDecimal());
         transaction.setTransactionTimestamp(LocalDateTime.now());
-        transaction.setRealizedProfitLoss(realizedProfitLoss.setScale(FIAT_SCALE, RoundingMode.HALF_UP));
+        transaction.setRealizedProfitLoss(realizedProfitLoss.toBigDecimal());
         Transaction loggedTransaction = transactionDao.logTransaction(transaction);
         logger.info("Logged SELL transaction ID: {}. Realized P/L: {}", loggedTransaction.getTransactionId(), realizedProfitLoss);
+        lotAccountingService.recordMatches(account.getAccountId(), loggedTransaction.getTransactionId(), lotMatches);
+        recordTrade(account.getAccountId(), loggedTransaction);
+        accountVersionService.markChanged(userIdentifier);
 
         return loggedTransaction;
     }
@@ -240,6 +390,9 @@ public class TradingServiceImpl implements TradingService {
         logger.info("Account balance reset to initial value: {} for accountId: {}", initialBalance, account.getAccountId());
         int assetsDeleted = portfolioAssetDao.deleteAllAssetsByAccountId(account.getAccountId());
         logger.info("Deleted {} assets from portfolio for accountId: {}", assetsDeleted, account.getAccountId());
+        lotAccountingService.clearLots(account.getAccountId());
+        accountChangeDao.recordChanges(account.getAccountId(), List.of(new AccountChange(AccountChangeType.PORTFOLIO_RESET, null, null)));
+        accountVersionService.markChanged(userIdentifier);
 
         return accountDao.findById(account.getAccountId())
                 .orElseThrow(() -> new NoSuchElementException("Failed to reload account after reset for ID: " + account.getAccountId()));
@@ -248,7 +401,7 @@ public class TradingServiceImpl implements TradingService {
 
     /**
      * Retrieves the portfolio for a given user.
-     * The portfolio includes current holdings and their market values.
+     * The portfolio includes current holdings and their market values. Served by a read replica where possible.
      *
      * @param userIdentifier The identifier of the user.
      * @return A list of PortfolioAsset objects, potentially enriched with current market value.
@@ -256,14 +409,16 @@ public class TradingServiceImpl implements TradingService {
      */
     @Override
     public List<PortfolioAsset> getPortfolio(String userIdentifier) {
-        Account account = getAccountByUserIdentifier(userIdentifier);
-        List<PortfolioAsset> assets = portfolioAssetDao.findByAccountId(account.getAccountId());
+        List<PortfolioAsset> assets = readFromReplica(userIdentifier, () -> {
+            Account account = getAccountByUserIdentifier(userIdentifier);
+            return portfolioAssetDao.findByAccountId(account.getAccountId());
+        });
         logger.debug("Retrieved {} assets for user {}", assets.size(), userIdentifier);
         return assets;
     }
 
     /**
-     * Retrieves the transaction history for a given user.
+     * Retrieves the transaction history for a given user. Served by a read replica where possible.
      *
      * @param userIdentifier The identifier of the user.
      * @return A list of Transaction objects.
@@ -271,19 +426,54 @@ public class TradingServiceImpl implements TradingService {
      */
     @Override
     public List<Transaction> getTransactionHistory(String userIdentifier) {
-        Account account = getAccountByUserIdentifier(userIdentifier);
-        List<Transaction> transactions = transactionDao.findByAccountId(account.getAccountId());
+        List<Transaction> transactions = readFromReplica(userIdentifier, () -> {
+            Account account = getAccountByUserIdentifier(userIdentifier);
+            return transactionDao.findByAccountId(account.getAccountId());
+        });
         logger.debug("Retrieved {} transactions for user {}", transactions.size(), userIdentifier);
         return transactions;
     }
 
     /**
-     * Retrieves the account details for a given user.
+     * Retrieves one page of the transaction history for a given user. Served by a read replica where possible.
+     * One transaction more than the limit is read to tell whether another page follows.
+     */
+    @Override
+    public TransactionPage getTransactionHistoryPage(String userIdentifier, LocalDateTime beforeTimestamp, Integer beforeId, int limit) {
+        if (limit < 1 || limit > MAX_TRANSACTION_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TRANSACTION_PAGE_SIZE + ".");
+        }
+        if ((beforeTimestamp == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("beforeTimestamp and beforeId must be given together.");
+        }
+        List<Transaction> transactions = readFromReplica(userIdentifier, () -> {
+            Account account = getAccountByUserIdentifier(userIdentifier);
+            return transactionDao.findPageByAccountId(account.getAccountId(), beforeTimestamp, beforeId, limit + 1);
+        });
+
+        TransactionPage page = new TransactionPage();
+        if (transactions.size() > limit) {
+            transactions = transactions.subList(0, limit);
+            Transaction last = transactions.get(limit - 1);
+            page.setNextBeforeTimestamp(last.getTransactionTimestamp());
+            page.setNextBeforeId(last.getTransactionId());
+        }
+        page.setTransactions(transactions);
+        return page;
+    }
+
+    /**
+     * Retrieves the account details for a given user. Served by a read replica where possible.
      * @param userIdentifier The identifier of the user.
      * @return The Account object.
      */
     @Override
     public Account getAccountDetails(String userIdentifier) {
-        return getAccountByUserIdentifier(userIdentifier);
+        return readFromReplica(userIdentifier, () -> getAccountByUserIdentifier(userIdentifier));
+    }
+
+    @Override
+    public <T> T readAccountState(String userIdentifier, Supplier<T> read) {
+        return readFromReplica(userIdentifier, read);
     }
 }
@@ -0,0 +1,196 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.FeedLeaseDao;
+import com.cryptosim.trading212.daos.contracts.TransactionArchiveDao;
+import com.cryptosim.trading212.daos.contracts.TransactionDao;
+import com.cryptosim.trading212.daos.contracts.TransactionPartitionDao;
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.FeedLease;
+import com.cryptosim.trading212.models.TransactionPartition;
+import com.cryptosim.trading212.services.contracts.TransactionArchiveService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class keeping the 'transactions' table small: the table is partitioned by month, and months older than
+ * {@link #HOT_MONTHS} complete months are written to compressed columnar archive files and dropped from the table.
+ * <p>
+ * A partition is archived by streaming it in account order into a file, checking the file holds exactly the rows of
+ * the partition, recording the archive and only then dropping the partition. A run interrupted in between leaves the
+ * rows in both tiers, which readers tolerate, and the next run archives the partition again. Partitions for the next
+ * {@link #MONTHS_AHEAD} months are created ahead of time, so new rows never land in the catch-all partition.
+ * <p>
+ * Runs start shortly after startup and then every {@link #MAINTENANCE_INTERVAL_HOURS} hours. A lease in the
+ * 'feed_leases' table keeps the nodes of a cluster from running at the same time; with several nodes the archive
+ * directory must be shared between them.
+ */
+@Service
+public class TransactionArchiveServiceImpl implements TransactionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiveServiceImpl.class);
+
+    // Complete months kept in the table besides the current one; reads are overwhelmingly for recent weeks
+    static final int HOT_MONTHS = 3;
+    static final int MONTHS_AHEAD = 2;
+    private static final long MAINTENANCE_INTERVAL_HOURS = 6;
+    private static final long FIRST_RUN_DELAY_MINUTES = 1;
+    private static final String LEASE_NAME = "transaction-archive";
+    private static final long LEASE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(15); // Renewed after every partition
+
+    private final ShardRouter shardRouter;
+    private final TransactionDao transactionDao;
+    private final TransactionPartitionDao transactionPartitionDao;
+    private final TransactionArchiveDao transactionArchiveDao;
+    private final FeedLeaseDao feedLeaseDao;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName(); // pid@host
+    private final BackgroundJobTracker jobs = new BackgroundJobTracker("transaction-archive", 1); // Chunks are partitions
+
+    @Autowired
+    public TransactionArchiveServiceImpl(ShardRouter shardRouter, TransactionDao transactionDao,
+                                         TransactionPartitionDao transactionPartitionDao,
+                                         TransactionArchiveDao transactionArchiveDao, FeedLeaseDao feedLeaseDao) {
+        this.shardRouter = shardRouter;
+        this.transactionDao = transactionDao;
+        this.transactionPartitionDao = transactionPartitionDao;
+        this.transactionArchiveDao = transactionArchiveDao;
+        this.feedLeaseDao = feedLeaseDao;
+        jobs.getExecutor().scheduleWithFixedDelay(this::scheduledRun, TimeUnit.MINUTES.toMillis(FIRST_RUN_DELAY_MINUTES),
+                TimeUnit.HOURS.toMillis(MAINTENANCE_INTERVAL_HOURS), TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduledRun() {
+        try {
+            startMaintenance();
+        } catch (IllegalStateException e) {
+            logger.debug("Skipping scheduled transaction archive run: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.error("Could not start the scheduled transaction archive run", e);
+        }
+    }
+
+    @Override
+    public synchronized BackfillProgress startMaintenance() {
+        if (jobs.getRunningJobName() != null) {
+            throw new IllegalStateException("Transaction archiving is already running.");
+        }
+        Optional<FeedLease> acquired = feedLeaseDao.tryAcquire(LEASE_NAME, nodeId, nodeId, LEASE_TTL_MILLIS);
+        if (acquired.isEmpty()) {
+            throw new IllegalStateException("Transaction archiving is running on another node.");
+        }
+        FeedLease lease = acquired.get();
+
+        int toArchive;
+        try {
+            toArchive = shardRouter.fanOut(shard -> partitionsToArchive(transactionPartitionDao.findPartitions()).size())
+                    .stream().mapToInt(Integer::intValue).sum();
+        } catch (RuntimeException e) {
+            feedLeaseDao.release(LEASE_NAME, nodeId, lease.getEpoch());
+            throw e;
+        }
+
+        jobs.start("transaction-archive", toArchive, 0);
+        logger.info("Starting transaction archive run: {} partitions to archive across {} shards", toArchive, shardRouter.getShardCount());
+
+        jobs.getExecutor().execute(() -> {
+            try {
+                shardRouter.forEachShard(shard -> maintainShard(shard, lease));
+            } catch (Exception e) {
+                jobs.setLastError(e.getMessage());
+                logger.error("Transaction archive run aborted", e);
+            } finally {
+                feedLeaseDao.release(LEASE_NAME, nodeId, lease.getEpoch());
+                jobs.finish();
+                logger.info("Transaction archive run finished: {} partitions archived, {} failed, {} rows archived",
+                        jobs.getCompletedChunks(), jobs.getFailedChunks(), jobs.getRowsWritten());
+            }
+        });
+        return getMaintenanceProgress();
+    }
+
+    private static List<TransactionPartition> partitionsToArchive(List<TransactionPartition> partitions) {
+        YearMonth oldestHotMonth = YearMonth.now().minusMonths(HOT_MONTHS);
+        return partitions.stream()
+                .filter(partition -> partition.getMonth() != null && partition.getMonth().isBefore(oldestHotMonth))
+                .toList();
+    }
+
+    private void maintainShard(int shard, FeedLease lease) {
+        List<TransactionPartition> partitions = transactionPartitionDao.findPartitions();
+        if (partitions.isEmpty()) {
+            logger.warn("The transactions table of shard {} is not partitioned; skipping it", shard);
+            return;
+        }
+        addUpcomingPartitions(shard, partitions);
+
+        for (TransactionPartition partition : partitionsToArchive(partitions)) {
+            try {
+                jobs.chunkCompleted(archivePartition(shard, partition));
+            } catch (Exception e) {
+                // Later months stay in the table too, so the archive never has gaps
+                jobs.chunkFailed("Shard " + shard + ", " + partition.getName() + ": " + e.getMessage());
+                logger.error("Could not archive partition {} of shard {}", partition.getName(), shard, e);
+                return;
+            }
+            if (!feedLeaseDao.renew(LEASE_NAME, nodeId, lease.getEpoch(), LEASE_TTL_MILLIS)) {
+                throw new IllegalStateException("Lost the transaction archive lease.");
+            }
+        }
+    }
+
+    private void addUpcomingPartitions(int shard, List<TransactionPartition> partitions) {
+        YearMonth newest = null;
+        for (TransactionPartition partition : partitions) {
+            if (partition.getMonth() != null) {
+                newest = partition.getMonth();
+            }
+        }
+        YearMonth until = YearMonth.now().plusMonths(MONTHS_AHEAD);
+        for (YearMonth month = newest != null ? newest.plusMonths(1) : YearMonth.now(); !month.isAfter(until); month = month.plusMonths(1)) {
+            transactionPartitionDao.addPartition(month);
+            logger.info("Added the transactions partition of {} on shard {}", month, shard);
+        }
+    }
+
+    /**
+     * @return The number of archived rows.
+     */
+    private long archivePartition(int shard, TransactionPartition partition) {
+        String fileName = "transactions-shard" + shard + "-" + partition.getMonth();
+        long expected = transactionPartitionDao.countRows(partition.getName());
+        long written = 0;
+        if (expected > 0) {
+            written = transactionArchiveDao.writeFile(fileName, sink -> transactionDao.streamPartition(partition.getName(), sink));
+        }
+        // The month is long over, so its rows only change through manual intervention; that must not be lost
+        if (written != expected || transactionPartitionDao.countRows(partition.getName()) != expected) {
+            transactionArchiveDao.deleteFile(fileName);
+            throw new IllegalStateException("The partition changed while it was archived.");
+        }
+        LocalDateTime periodEnd = partition.getMonth().plusMonths(1).atDay(1).atStartOfDay();
+        transactionPartitionDao.recordArchive(partition.getName(), periodEnd, expected > 0 ? fileName : null, written);
+        transactionPartitionDao.dropPartition(partition.getName());
+        logger.info("Archived partition {} of shard {} ({} rows)", partition.getName(), shard, written);
+        return written;
+    }
+
+    @Override
+    public BackfillProgress getMaintenanceProgress() {
+        return jobs.getProgress();
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        jobs.shutdown();
+    }
+}
@@ -0,0 +1,127 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionExportFormat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Encodes transactions as CSV lines or NDJSON objects, one line per transaction.
+ * Rows are appended straight to the output, so encoding allocates nothing per row beyond the formatted numbers.
+ */
+final class TransactionExportEncoder {
+
+    private static final String CSV_HEADER = "transaction_id,account_id,asset_symbol,transaction_type,quantity," +
+            "price_per_unit,total_transaction_value,transaction_timestamp,realized_profit_loss\n";
+
+    private TransactionExportEncoder() {
+    }
+
+    static String fileExtension(TransactionExportFormat format) {
+        return format == TransactionExportFormat.CSV ? "csv" : "ndjson";
+    }
+
+    /**
+     * Appends the header line of a format; NDJSON has none.
+     */
+    static void appendHeader(Appendable out, TransactionExportFormat format) throws IOException {
+        if (format == TransactionExportFormat.CSV) {
+            out.append(CSV_HEADER);
+        }
+    }
+
+    static void appendRow(Appendable out, TransactionExportFormat format, Transaction transaction) throws IOException {
+        if (format == TransactionExportFormat.CSV) {
+            appendCsv(out, transaction);
+        } else {
+            appendJson(out, transaction);
+        }
+    }
+
+    private static void appendCsv(Appendable out, Transaction transaction) throws IOException {
+        out.append(Integer.toString(transaction.getTransactionId())).append(',');
+        out.append(Integer.toString(transaction.getAccountId())).append(',');
+        appendCsvText(out, transaction.getAssetSymbol());
+        out.append(',').append(transaction.getTransactionType().name()).append(',');
+        appendDecimal(out, transaction.getQuantity());
+        out.append(',');
+        appendDecimal(out, transaction.getPricePerUnit());
+        out.append(',');
+        appendDecimal(out, transaction.getTotalTransactionValue());
+        out.append(',').append(transaction.getTransactionTimestamp().toString()).append(',');
+        appendDecimal(out, transaction.getRealizedProfitLoss()); // Empty field for buys
+        out.append('\n');
+    }
+
+    private static void appendJson(Appendable out, Transaction transaction) throws IOException {
+        out.append("{\"transactionId\":").append(Integer.toString(transaction.getTransactionId()));
+        out.append(",\"accountId\":").append(Integer.toString(transaction.getAccountId()));
+        out.append(",\"assetSymbol\":");
+        appendJsonText(out, transaction.getAssetSymbol());
+        out.append(",\"transactionType\":\"").append(transaction.getTransactionType().name()).append('"');
+        // Decimals are written as strings so consumers parsing into doubles cannot silently lose precision
+        out.append(",\"quantity\":");
+        appendJsonDecimal(out, transaction.getQuantity());
+        out.append(",\"pricePerUnit\":");
+        appendJsonDecimal(out, transaction.getPricePerUnit());
+        out.append(",\"totalTransactionValue\":");
+        appendJsonDecimal(out, transaction.getTotalTransactionValue());
+        out.append(",\"transactionTimestamp\":\"").append(transaction.getTransactionTimestamp().toString()).append('"');
+        out.append(",\"realizedProfitLoss\":");
+        appendJsonDecimal(out, transaction.getRealizedProfitLoss());
+        out.append("}\n");
+    }
+
+    private static void appendDecimal(Appendable out, BigDecimal value) throws IOException {
+        if (value != null) {
+            out.append(value.toPlainString());
+        }
+    }
+
+    private static void appendJsonDecimal(Appendable out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else {
+            out.append('"').append(value.toPlainString()).append('"');
+        }
+    }
+
+    private static void appendCsvText(Appendable out, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static void appendJsonText(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,442 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.ShardRouter;
+import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.TransactionArchiveDao;
+import com.cryptosim.trading212.daos.contracts.TransactionDao;
+import com.cryptosim.trading212.daos.contracts.TransactionPartitionDao;
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionArchive;
+import com.cryptosim.trading212.models.TransactionExportFormat;
+import com.cryptosim.trading212.models.TransactionPartition;
+import com.cryptosim.trading212.services.contracts.TransactionExportService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service class exporting the transaction history for analytics.
+ * <p>
+ * The work is cut into account ID ranges of {@link #EXPORT_CHUNK_ACCOUNTS} accounts per shard, which run in parallel
+ * on {@link #EXPORT_THREADS} threads. A chunk first reads the archive files of its shard and then the partitions
+ * still in the table, both through the account index and as a stream: rows come from a server-side cursor and go
+ * straight to the encoder, so memory use does not depend on the size of the history. Partitions recorded as
+ * archived are skipped even if they were not dropped yet, so no row is exported twice.
+ * <p>
+ * File exports write one gzip file per chunk into a directory of their own below the export directory. Streamed
+ * exports hand encoded blocks of rows through a small bounded queue to the single gzip stream of the response, so a
+ * slow client slows the readers down instead of letting rows pile up.
+ */
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportServiceImpl.class);
+
+    static final int EXPORT_CHUNK_ACCOUNTS = 10_000;
+    private static final int EXPORT_THREADS = 4;
+    private static final int GZIP_BUFFER_BYTES = 1 << 16;
+    private static final int STREAM_BLOCK_CHARS = 1 << 16; // Rows are handed to the response in blocks of about this size
+    private static final int STREAM_QUEUE_BLOCKS = 16;
+    private static final long STREAM_POLL_MILLIS = 200;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final DateTimeFormatter EXPORT_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ShardRouter shardRouter;
+    private final AccountDao accountDao;
+    private final TransactionDao transactionDao;
+    private final TransactionPartitionDao transactionPartitionDao;
+    private final TransactionArchiveDao transactionArchiveDao;
+    private final Path directory;
+    private final BackgroundJobTracker jobs = new BackgroundJobTracker("transaction-export", EXPORT_THREADS);
+
+    @Autowired
+    public TransactionExportServiceImpl(ShardRouter shardRouter, AccountDao accountDao, TransactionDao transactionDao,
+                                        TransactionPartitionDao transactionPartitionDao,
+                                        TransactionArchiveDao transactionArchiveDao,
+                                        @Value("${persistence.export.dir:exports}") String directory) {
+        this.shardRouter = shardRouter;
+        this.accountDao = accountDao;
+        this.transactionDao = transactionDao;
+        this.transactionPartitionDao = transactionPartitionDao;
+        this.transactionArchiveDao = transactionArchiveDao;
+        this.directory = Paths.get(directory).toAbsolutePath();
+    }
+
+    /**
+     * Where a shard keeps the rows of the exported period.
+     */
+    private static final class ShardLayout {
+        final List<String> partitions; // Null if the table is not partitioned
+        final List<String> archiveFiles;
+
+        ShardLayout(List<String> partitions, List<String> archiveFiles) {
+            this.partitions = partitions;
+            this.archiveFiles = archiveFiles;
+        }
+    }
+
+    /**
+     * An account ID range of one shard.
+     */
+    private static final class ExportChunk {
+        final int shard;
+        final int fromAccountId;
+        final int toAccountId;
+        final ShardLayout layout;
+
+        ExportChunk(int shard, int fromAccountId, int toAccountId, ShardLayout layout) {
+            this.shard = shard;
+            this.fromAccountId = fromAccountId;
+            this.toAccountId = toAccountId;
+            this.layout = layout;
+        }
+
+        @Override
+        public String toString() {
+            return "shard " + shard + ", accounts " + fromAccountId + "-" + toAccountId;
+        }
+    }
+
+    @Override
+    public void validateExport(TransactionExportFormat format, LocalDateTime from, LocalDateTime to) {
+        if (format == null) {
+            throw new IllegalArgumentException("An export format must be given.");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("The start of the period must be before its end.");
+        }
+    }
+
+    @Override
+    public synchronized BackfillProgress startExport(TransactionExportFormat format, LocalDateTime from, LocalDateTime to) {
+        validateExport(format, from, to);
+        String runningExport = jobs.getRunningJobName();
+        if (runningExport != null) {
+            throw new IllegalStateException("Another transaction export (" + runningExport + ") is running.");
+        }
+        String exportId = LocalDateTime.now().format(EXPORT_ID);
+        Path exportDirectory = directory.resolve(exportId);
+        try {
+            Files.createDirectories(exportDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the export directory " + exportDirectory, e);
+        }
+        List<ExportChunk> chunks = planChunks(from);
+
+        jobs.start("transaction-export:" + exportId, chunks.size(), 0);
+        logger.info("Starting transaction export {} ({}, {} to {}) in {} chunks into {}",
+                exportId, format, from, to, chunks.size(), exportDirectory);
+
+        if (chunks.isEmpty()) {
+            finishExport();
+            return getExportProgress();
+        }
+        AtomicInteger remaining = new AtomicInteger(chunks.size());
+        for (ExportChunk chunk : chunks) {
+            jobs.getExecutor().execute(() -> {
+                try {
+                    exportChunkToFile(exportDirectory, chunk, format, from, to);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        finishExport();
+                    }
+                }
+            });
+        }
+        return getExportProgress();
+    }
+
+    private void exportChunkToFile(Path exportDirectory, ExportChunk chunk, TransactionExportFormat format,
+                                   LocalDateTime from, LocalDateTime to) {
+        String fileName = "part-shard" + chunk.shard + "-" + chunk.fromAccountId + "-" + chunk.toAccountId + "."
+                + TransactionExportEncoder.fileExtension(format) + ".gz";
+        Path target = exportDirectory.resolve(fileName);
+        Path temp = exportDirectory.resolve(fileName + TEMP_SUFFIX);
+        try {
+            long rows;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp), GZIP_BUFFER_BYTES), StandardCharsets.UTF_8), GZIP_BUFFER_BYTES)) {
+                TransactionExportEncoder.appendHeader(writer, format);
+                rows = readChunk(chunk, from, to, transaction -> {
+                    try {
+                        TransactionExportEncoder.appendRow(writer, format, transaction);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            if (rows > 0) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            jobs.chunkCompleted(rows);
+        } catch (Exception e) {
+            jobs.chunkFailed(chunk + ": " + e.getMessage());
+            logger.error("Transaction export failed for {}", chunk, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                logger.warn("Could not remove temporary export file {}: {}", temp, e.getMessage());
+            }
+        }
+    }
+
+    private void finishExport() {
+        jobs.finish();
+        BackfillProgress job = jobs.getProgress();
+        logger.info("Transaction export {} finished: {} chunks done, {} failed, {} rows written",
+                job.getJobName(), job.getCompletedChunks(), job.getFailedChunks(), job.getRowsWritten());
+    }
+
+    @Override
+    public BackfillProgress getExportProgress() {
+        return jobs.getProgress();
+    }
+
+    /**
+     * Producers encode rows into private blocks and queue full blocks; the calling thread is the only one writing
+     * to the gzip stream. Any failure, including the client going away, cancels the remaining chunks.
+     */
+    @Override
+    public void exportTo(OutputStream out, TransactionExportFormat format, LocalDateTime from, LocalDateTime to) throws IOException {
+        validateExport(format, from, to);
+        List<ExportChunk> chunks = planChunks(from);
+        BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(STREAM_QUEUE_BLOCKS);
+        AtomicInteger remaining = new AtomicInteger(chunks.size());
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong rows = new AtomicLong();
+        List<Future<?>> tasks = new ArrayList<>(chunks.size());
+        logger.info("Streaming transaction export ({}, {} to {}) in {} chunks", format, from, to, chunks.size());
+
+        for (ExportChunk chunk : chunks) {
+            tasks.add(jobs.getExecutor().submit(() -> {
+                try {
+                    StreamSink sink = new StreamSink(blocks, format, failure);
+                    rows.addAndGet(readChunk(chunk, from, to, sink));
+                    sink.flush();
+                } catch (Exception e) {
+                    if (failure.compareAndSet(null, e) && !(e instanceof CancellationException)) {
+                        logger.error("Transaction export failed for {}", chunk, e);
+                    }
+                } finally {
+                    remaining.decrementAndGet();
+                }
+            }));
+        }
+
+        boolean finished = false;
+        try {
+            GZIPOutputStream gzip = new GZIPOutputStream(new NonClosingOutputStream(out), GZIP_BUFFER_BYTES);
+            StringBuilder header = new StringBuilder();
+            TransactionExportEncoder.appendHeader(header, format);
+            gzip.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            while (true) {
+                byte[] block = blocks.poll(STREAM_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (block != null) {
+                    gzip.write(block);
+                    continue;
+                }
+                Exception error = failure.get();
+                if (error != null) {
+                    throw new IOException("Reading the transactions failed: " + error.getMessage(), error);
+                }
+                // Producers queue their last block before counting down, so an empty queue now means everything was written
+                if (remaining.get() == 0 && blocks.isEmpty()) {
+                    break;
+                }
+            }
+            gzip.finish();
+            gzip.flush();
+            finished = true;
+            logger.info("Streamed {} transactions", rows.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while streaming the transaction export.", e);
+        } finally {
+            if (!finished) {
+                failure.compareAndSet(null, new CancellationException("The export was aborted."));
+                for (Future<?> task : tasks) {
+                    task.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes rows into a block and queues it once it is full, waiting while the queue is full until the export
+     * fails or is aborted.
+     */
+    private static final class StreamSink implements Consumer<Transaction> {
+        private final BlockingQueue<byte[]> blocks;
+        private final TransactionExportFormat format;
+        private final AtomicReference<Exception> failure;
+        private final StringBuilder block = new StringBuilder(STREAM_BLOCK_CHARS + STREAM_BLOCK_CHARS / 4);
+
+        StreamSink(BlockingQueue<byte[]> blocks, TransactionExportFormat format, AtomicReference<Exception> failure) {
+            this.blocks = blocks;
+            this.format = format;
+            this.failure = failure;
+        }
+
+        @Override
+        public void accept(Transaction transaction) {
+            try {
+                TransactionExportEncoder.appendRow(block, format, transaction);
+                if (block.length() >= STREAM_BLOCK_CHARS) {
+                    flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() {
+            if (block.length() == 0) {
+                return;
+            }
+            byte[] bytes = block.toString().getBytes(StandardCharsets.UTF_8);
+            block.setLength(0);
+            try {
+                while (!blocks.offer(bytes, STREAM_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        throw new CancellationException("The export was aborted.");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("The export was aborted.");
+            }
+        }
+    }
+
+    /**
+     * Keeps finishing the gzip stream from closing the response stream, which belongs to the caller.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        NonClosingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Cuts every shard into account ID ranges up to the highest account ID of any shard, since archive files can
+     * still hold the rows of accounts that moved to another shard.
+     */
+    private List<ExportChunk> planChunks(LocalDateTime from) {
+        int maxAccountId = 0;
+        for (int shardMax : shardRouter.fanOut(shard -> accountDao.findMaxAccountId())) {
+            maxAccountId = Math.max(maxAccountId, shardMax);
+        }
+        List<ShardLayout> layouts = shardRouter.fanOut(shard -> shardLayout(from));
+
+        List<ExportChunk> chunks = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            for (int fromAccountId = 1; fromAccountId <= maxAccountId; fromAccountId += EXPORT_CHUNK_ACCOUNTS) {
+                chunks.add(new ExportChunk(shard, fromAccountId, Math.min(fromAccountId + EXPORT_CHUNK_ACCOUNTS - 1, maxAccountId),
+                        layouts.get(shard)));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Reads the table partitions not yet recorded as archived and the archive files of the routed shard.
+     */
+    private ShardLayout shardLayout(LocalDateTime from) {
+        List<TransactionArchive> archives = transactionPartitionDao.findArchives();
+        Set<String> archived = new HashSet<>();
+        List<String> files = new ArrayList<>();
+        for (TransactionArchive archive : archives) {
+            archived.add(archive.getPartitionName());
+            if (archive.getFileName() != null && (from == null || archive.getPeriodEnd().isAfter(from))) {
+                files.add(archive.getFileName());
+            }
+        }
+        List<TransactionPartition> partitions = transactionPartitionDao.findPartitions();
+        if (partitions.isEmpty()) {
+            return new ShardLayout(null, files);
+        }
+        List<String> live = new ArrayList<>();
+        for (TransactionPartition partition : partitions) {
+            if (!archived.contains(partition.getName())) {
+                live.add(partition.getName());
+            }
+        }
+        return new ShardLayout(live, files);
+    }
+
+    /**
+     * @return The number of rows passed to the consumer.
+     */
+    private long readChunk(ExportChunk chunk, LocalDateTime from, LocalDateTime to, Consumer<Transaction> consumer) {
+        long[] rows = {0};
+        Consumer<Transaction> counting = transaction -> {
+            consumer.accept(transaction);
+            rows[0]++;
+        };
+        shardRouter.routeTo(chunk.shard);
+        try {
+            for (String fileName : chunk.layout.archiveFiles) {
+                transactionArchiveDao.streamFile(fileName, chunk.fromAccountId, chunk.toAccountId, from, to, counting);
+            }
+            transactionDao.streamRange(chunk.fromAccountId, chunk.toAccountId, from, to, chunk.layout.partitions, counting);
+        } finally {
+            shardRouter.clearRoute();
+        }
+        return rows[0];
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        jobs.shutdown();
+    }
+}
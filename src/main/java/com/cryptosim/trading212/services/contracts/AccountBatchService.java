@@ -0,0 +1,63 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.SeasonStanding;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Interface for the Account Batch Service.
+ * Defines the contract for operations on many accounts at once: provisioning a group of users and rolling over a
+ * competition season. Only one such job runs at a time.
+ */
+public interface AccountBatchService {
+
+    int MAX_PROVISIONED_USERS = 100_000;
+    int MAX_STANDINGS = 1000;
+
+    /**
+     * Starts creating accounts for the given users in the background. Users that already have an account keep it.
+     *
+     * @param userIdentifiers The users to create accounts for; duplicates are ignored.
+     * @param initialBalance  The initial balance of every new account.
+     * @return The progress of the started job; every batch of accounts counts as one chunk.
+     * @throws IllegalArgumentException if there are no or more than {@link #MAX_PROVISIONED_USERS} users, a user
+     *                                  identifier is blank or too long, or the balance is not positive.
+     * @throws IllegalStateException    if an account batch job is already running.
+     */
+    BackfillProgress startProvisioning(List<String> userIdentifiers, BigDecimal initialBalance);
+
+    /**
+     * Starts closing a competition season in the background: the standings of every account are recorded at the
+     * current prices, then every account is reset to its initial balance without positions.
+     * Accounts are rolled over in chunks, each atomically; trading should be paused for exact standings.
+     * Starting a season that was rolled over before resumes it: the standings are valued at the prices first
+     * recorded and accounts that already have standings are skipped, so failed chunks are retried by starting again.
+     *
+     * @param seasonName The name of the season, e.g. "2026-q3".
+     * @return The progress of the started job; every account ID range of a shard counts as one chunk.
+     * @throws IllegalArgumentException if the season name is invalid.
+     * @throws IllegalStateException    if an account batch job is already running.
+     */
+    BackfillProgress startSeasonRollover(String seasonName);
+
+    /**
+     * Returns the progress of the current or last account batch job.
+     *
+     * @return The progress, or null if no job started since startup.
+     */
+    BackfillProgress getJobProgress();
+
+    /**
+     * Retrieves the best final standings of a season across all shards.
+     *
+     * @param seasonName The name of the season.
+     * @param limit      The maximum number of standings, between 1 and {@link #MAX_STANDINGS}.
+     * @return The standings ordered by total value, best first.
+     * @throws IllegalArgumentException if the limit is out of range.
+     * @throws NoSuchElementException   if the season has no standings.
+     */
+    List<SeasonStanding> getStandings(String seasonName, int limit);
+}
@@ -0,0 +1,24 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.AccountSyncResponse;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Interface for the Account Sync Service.
+ * Defines the contract for incremental (delta) synchronization of an account's portfolio and history.
+ */
+public interface AccountSyncService {
+
+    /**
+     * Returns what changed in the user's account since the given version.
+     * Version 0, or a version the server does not know, yields a full snapshot.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @param sinceVersion   The last version the client has applied.
+     * @return The AccountSyncResponse with the changes and the version to sync from next.
+     * @throws IllegalArgumentException if the version is negative.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    AccountSyncResponse sync(String userIdentifier, long sinceVersion);
+}
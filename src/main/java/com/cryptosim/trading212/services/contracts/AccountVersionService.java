@@ -0,0 +1,71 @@
+package com.cryptosim.trading212.services.contracts;
+
+/**
+ * Interface for the Account Version Service.
+ * Serves the persisted version of each account, which changes whenever the account's balance,
+ * portfolio, settings or transaction history changes, so that unchanged state can be detected
+ * with a single-row lookup instead of the full query. Also tracks when this node last changed each account.
+ */
+public interface AccountVersionService {
+
+    /**
+     * Returns the current version of the given user's account state, on the database the current thread reads from.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @return The current version; 0 if the account has never changed or does not exist.
+     */
+    long getVersion(String userIdentifier);
+
+    /**
+     * Records that the given user's account state changed, for {@link #changedWithin}; the version itself is moved
+     * by the mutation's transaction. When called inside a transaction the change is recorded only after the
+     * transaction commits.
+     *
+     * @param userIdentifier The identifier of the user.
+     */
+    void markChanged(String userIdentifier);
+
+    /**
+     * Records that the account state of every user changed, e.g. after a set-based reset of all accounts.
+     * Counts as a recent change of every user.
+     */
+    void markAllChanged();
+
+    /**
+     * Tells whether the given user's account state changed recently, e.g. to read the user's own
+     * changes from the primary database rather than from a replica that may not have them yet.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @param millis         The length of the period, ending now.
+     * @return true if a change was committed within the period.
+     */
+    boolean changedWithin(String userIdentifier, long millis);
+
+    /**
+     * Sets, for the request on the current thread, the time of the newest change its client made through any node,
+     * as carried by the client's read-your-writes token. Cleared by {@link #clearClientChangedAt()}.
+     *
+     * @param changedAtMillis The time of the change, by the clock of the node that made it; 0 if unknown.
+     */
+    void setClientChangedAt(long changedAtMillis);
+
+    /**
+     * @return The time of the newest change the client of the current thread's request made, through any node or
+     * by this request itself; 0 if unknown.
+     */
+    long getClientChangedAt();
+
+    /**
+     * Forgets the client change time of the current thread, e.g. at the end of a request.
+     */
+    void clearClientChangedAt();
+
+    /**
+     * Builds an entity tag for the given user's account state from its current version. Every node builds the same
+     * tag for the same state. Must be called before the state is read, within the same replica read.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @return A quoted entity tag, e.g. "7".
+     */
+    String getETag(String userIdentifier);
+}
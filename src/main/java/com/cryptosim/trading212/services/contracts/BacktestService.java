@@ -0,0 +1,21 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.BacktestRequest;
+import com.cryptosim.trading212.dtos.BacktestResponse;
+
+/**
+ * Interface for the Backtest Service.
+ * Defines the contract for replaying strategies against recorded price history.
+ */
+public interface BacktestService {
+
+    /**
+     * Replays every strategy of the request over the recorded ticks of the requested range.
+     * Nothing is read from or written to the accounts database.
+     *
+     * @param request The range, resolution and strategies to run.
+     * @return The BacktestResponse with one result per strategy, in request order.
+     * @throws IllegalArgumentException if the request is invalid or the history is too large.
+     */
+    BacktestResponse runBacktest(BacktestRequest request);
+}
@@ -0,0 +1,21 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.services.BacktestAccount;
+
+/**
+ * A trading strategy that can be replayed over recorded ticks.
+ * Each replay gets its own instance, so implementations may keep mutable state without synchronization.
+ */
+@FunctionalInterface
+public interface BacktestStrategy {
+
+    /**
+     * Called for every tick of the replayed history, after the account has been updated with its price.
+     *
+     * @param symbolIndex The index of the ticking symbol in the history.
+     * @param timestamp   The tick time in epoch milliseconds.
+     * @param priceUnits  The price scaled by 10^8.
+     * @param account     The account to trade on.
+     */
+    void onTick(int symbolIndex, long timestamp, long priceUnits, BacktestAccount account);
+}
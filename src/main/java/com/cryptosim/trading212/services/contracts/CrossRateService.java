@@ -0,0 +1,33 @@
+package com.cryptosim.trading212.services.contracts;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Interface for the Cross Rate Service.
+ * Defines the contract for prices of arbitrary base/quote combinations derived from the subscribed pairs.
+ */
+public interface CrossRateService {
+
+    /**
+     * Returns the price of one unit of base in quote, e.g. ETH in BTC.
+     *
+     * @param base  The base currency (e.g., "ETH").
+     * @param quote The quote currency (e.g., "BTC").
+     * @return The rate, or null if either currency is unknown or has no price yet.
+     */
+    BigDecimal getRate(String base, String quote);
+
+    /**
+     * Returns the price for a symbol of the form "BASE/QUOTE", subscribed or derived.
+     *
+     * @param symbol The symbol (e.g., "ETH/BTC").
+     * @return The price, or null if it cannot be derived.
+     */
+    BigDecimal getPriceForSymbol(String symbol);
+
+    /**
+     * @return All currencies that can be used as base or quote.
+     */
+    List<String> getCurrencies();
+}
@@ -0,0 +1,25 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.AccountDashboard;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Interface for the Dashboard Service.
+ * Defines the contract for assembling the data shown on the dashboard page in a single call.
+ */
+public interface DashboardService {
+
+    /**
+     * Builds the dashboard for a user: account details, portfolio valued against a single
+     * price snapshot, and the most recent transactions.
+     *
+     * @param userIdentifier   The identifier of the user.
+     * @param transactionLimit The maximum number of recent transactions to include.
+     * @param valuationCurrency The currency positions and equity are valued in (e.g., "USD", "EUR", "BTC").
+     * @return The assembled AccountDashboard.
+     * @throws IllegalArgumentException if the transaction limit is out of range or the currency is unknown.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    AccountDashboard getDashboard(String userIdentifier, int transactionLimit, String valuationCurrency);
+}
@@ -1,6 +1,13 @@
 package com.cryptosim.trading212.services.contracts;
 
+import com.cryptosim.trading212.dtos.FeedStats;
+import com.cryptosim.trading212.dtos.TickListenerStats;
+import com.cryptosim.trading212.dtos.VenueStats;
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,6 +29,7 @@ public interface KrakenDataService {
 
     /**
      * Retrieves the latest cached price for a specific cryptocurrency symbol.
+     * With several price venues this is the price of the consolidated quote (see {@link #getQuote(String)}).
      *
      * @param assetSymbol The symbol of the asset (e.g., "BTC/USD") for which to retrieve the price.
      * @return The latest price as BigDecimal if the symbol is found and has a cached price;
@@ -29,6 +37,68 @@ public interface KrakenDataService {
      */
     BigDecimal getPriceForSymbol(String assetSymbol);
 
+    /**
+     * Retrieves the best bid and offer of a symbol across all price venues, and the venues quoting them.
+     *
+     * @param assetSymbol The symbol of the asset (e.g., "BTC/USD").
+     * @return The consolidated quote, or null if no venue has quoted the symbol.
+     */
+    ConsolidatedQuote getQuote(String assetSymbol);
+
+    /**
+     * Retrieves how long ago the price of a symbol was last confirmed by the feed, either by a new quote or,
+     * while the subscription is live, by any other message of the venue quoting it (such as a heartbeat).
+     * Grows for every symbol of a feed that has stalled.
+     *
+     * @param assetSymbol The symbol of the asset (e.g., "BTC/USD").
+     * @return The age in milliseconds, or -1 if the symbol has no price.
+     */
+    long getPriceAgeMillis(String assetSymbol);
+
+    /**
+     * Returns every symbol the feed can subscribe to (e.g., "BTC/USD"), whether or not it is subscribed.
+     *
+     * @return An unmodifiable list of symbols.
+     */
+    List<String> getAvailableSymbols();
+
+    /**
+     * Returns the symbols the feed is currently subscribed to, whether or not they have a price yet.
+     *
+     * @return A snapshot of the subscribed symbols.
+     */
+    List<String> getSubscribedSymbols();
+
+    /**
+     * Subscribes to the ticker of the given symbols over the live connection, in batched messages.
+     * Symbols that are unknown or already subscribed are ignored. If the connection is down, the
+     * symbols are subscribed as soon as it opens.
+     *
+     * @param assetSymbols The symbols to subscribe to.
+     */
+    void subscribe(Collection<String> assetSymbols);
+
+    /**
+     * Unsubscribes from the ticker of the given symbols over the live connection and drops their cached prices.
+     *
+     * @param assetSymbols The symbols to unsubscribe from.
+     */
+    void unsubscribe(Collection<String> assetSymbols);
+
+    /**
+     * Returns the ingest counters (queue depth, dropped frames, conflated ticks, ...) of every connection.
+     *
+     * @return One entry per connection of the feed.
+     */
+    List<FeedStats> getFeedStats();
+
+    /**
+     * Returns the connection state, staleness and quote counters of every price venue.
+     *
+     * @return One entry per venue.
+     */
+    List<VenueStats> getVenueStats();
+
     /**
      * Initiates the connection to the WebSocket API if not already connected or if a reconnect is needed.
      * While typically managed by @PostConstruct in the implementation, exposing this allows for
@@ -36,4 +106,31 @@ public interface KrakenDataService {
      */
     void connect();
 
+    /**
+     * Registers a listener that is notified whenever the price of a followed symbol changes.
+     * Ticks that repeat the cached price are not delivered.
+     *
+     * @param listener     The listener to register.
+     * @param name         Name identifying the listener in the listener stats.
+     * @param assetSymbols The symbols to follow, or null for every symbol.
+     * @param isolated     true to deliver on a dedicated thread, so a slow listener cannot stall the feed.
+     * @throws IllegalArgumentException if the listener is already registered.
+     */
+    void addTickListener(TickListener listener, String name, Collection<String> assetSymbols, boolean isolated);
+
+    /**
+     * Unregisters a listener added with {@link #addTickListener(TickListener, String, Collection, boolean)}.
+     *
+     * @param listener The listener to remove.
+     * @return false if the listener was not registered.
+     */
+    boolean removeTickListener(TickListener listener);
+
+    /**
+     * Returns the delivery counters and latencies of every registered tick listener.
+     *
+     * @return One entry per listener.
+     */
+    List<TickListenerStats> getTickListenerStats();
+
 }
@@ -0,0 +1,48 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.LedgerDiscrepancy;
+
+import java.util.List;
+
+/**
+ * Interface for the Ledger Reconciliation Service.
+ * Defines the contract for checking the stored balances and positions of all accounts against the ones rebuilt
+ * from their initial balance and transaction log, and optionally repairing the differences.
+ */
+public interface LedgerReconciliationService {
+
+    int MAX_DISCREPANCIES = 1000;
+
+    /**
+     * Starts reconciling every account in the background. Each finished account ID range is checkpointed, so a run
+     * that failed or was interrupted can be resumed under its run ID and skips the ranges it already finished.
+     * Accounts that trade while they are being checked are skipped and left for the next run.
+     *
+     * @param repair      Whether to set differing balances and position quantities to the rebuilt ones; otherwise
+     *                    the differences are only recorded. Differing average prices are always only recorded.
+     * @param resumeRunId The ID of the run to resume, as reported in its job name; null to start a new run.
+     * @return The progress of the started run; every account ID range of a shard counts as one chunk, and the
+     * discrepancies recorded count as rows.
+     * @throws IllegalArgumentException if the run ID is malformed.
+     * @throws IllegalStateException    if a reconciliation is already running.
+     */
+    BackfillProgress startReconciliation(boolean repair, String resumeRunId);
+
+    /**
+     * Returns the progress of the current or last reconciliation of this node.
+     *
+     * @return The progress, or null if no reconciliation started since startup.
+     */
+    BackfillProgress getReconciliationProgress();
+
+    /**
+     * Retrieves the discrepancies a run found across all shards.
+     *
+     * @param runId The ID of the run.
+     * @param limit The maximum number of discrepancies, between 1 and {@link #MAX_DISCREPANCIES}.
+     * @return The discrepancies ordered by account ID; empty if the run found none.
+     * @throws IllegalArgumentException if the run ID is malformed or the limit is out of range.
+     */
+    List<LedgerDiscrepancy> getDiscrepancies(String runId, int limit);
+}
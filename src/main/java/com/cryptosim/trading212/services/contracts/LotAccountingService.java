@@ -0,0 +1,89 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.models.Account;
+import com.cryptosim.trading212.models.CostBasisMethod;
+import com.cryptosim.trading212.models.LotMatch;
+import com.cryptosim.trading212.models.PositionLot;
+import com.cryptosim.trading212.models.Transaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Interface for the Lot Accounting Service.
+ * Defines the contract for tracking tax lots and matching sells against them.
+ */
+public interface LotAccountingService {
+
+    /**
+     * Opens a lot for a logged BUY transaction.
+     *
+     * @param buyTransaction The logged BUY transaction.
+     */
+    void openLot(Transaction buyTransaction);
+
+    /**
+     * Matches a sell against the open lots of a position and updates or deletes the consumed lots.
+     * The part of the position not covered by lots was bought before lots were tracked, so it counts as the oldest
+     * holding: it is matched first in FIFO order and last in LIFO order. Must run inside the sell's database transaction.
+     *
+     * @param accountId        The ID of the selling account.
+     * @param assetSymbol      The symbol of the position.
+     * @param quantity         The quantity sold.
+     * @param salePrice        The price per unit of the sale.
+     * @param positionQuantity The quantity held before the sale.
+     * @param averagePrice     The position's average purchase price, used for holdings not covered by lots.
+     * @param method           The account's cost-basis method; AVERAGE matches lots in FIFO order.
+     * @return The matches in matching order, not yet persisted.
+     */
+    List<LotMatch> matchSale(int accountId, String assetSymbol, BigDecimal quantity, BigDecimal salePrice,
+                             BigDecimal positionQuantity, BigDecimal averagePrice, CostBasisMethod method);
+
+    /**
+     * Persists the matches of a logged SELL transaction.
+     *
+     * @param accountId         The ID of the account owning the transaction.
+     * @param sellTransactionId The ID of the SELL transaction.
+     * @param matches           The matches returned by {@link #matchSale}.
+     */
+    void recordMatches(int accountId, int sellTransactionId, List<LotMatch> matches);
+
+    /**
+     * Removes all open lots of an account, e.g. on account reset.
+     *
+     * @param accountId The ID of the account.
+     */
+    void clearLots(int accountId);
+
+    /**
+     * Retrieves the open lots of a user, oldest first.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @param assetSymbol    Optional symbol to restrict the result to one position (may be null).
+     * @return A list of PositionLot objects.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    List<PositionLot> getOpenLots(String userIdentifier, String assetSymbol);
+
+    /**
+     * Retrieves the lots a sell was matched against.
+     *
+     * @param userIdentifier    The identifier of the user.
+     * @param sellTransactionId The ID of the SELL transaction.
+     * @return A list of LotMatch objects, empty for sells made before lots were tracked.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    List<LotMatch> getLotMatches(String userIdentifier, int sellTransactionId);
+
+    /**
+     * Changes how realized P&L is computed for the user's future sells.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @param method         The new cost-basis method.
+     * @return The updated Account object.
+     * @throws IllegalArgumentException if the method is missing.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    Account setCostBasisMethod(String userIdentifier, CostBasisMethod method);
+}
@@ -0,0 +1,53 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.models.Order;
+import com.cryptosim.trading212.models.OrderType;
+import com.cryptosim.trading212.models.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Interface for the Order Service.
+ * Defines the contract for placing, cancelling and executing resting limit and stop orders.
+ */
+public interface OrderService {
+
+    /**
+     * Places a resting order that executes through the regular buy/sell logic once the
+     * market price crosses its trigger price.
+     *
+     * @param userIdentifier The identifier of the user placing the order.
+     * @param assetSymbol    The symbol of the cryptocurrency (e.g., "BTC/USD").
+     * @param side           BUY or SELL.
+     * @param orderType      LIMIT or STOP.
+     * @param quantity       The amount of cryptocurrency to trade when triggered.
+     * @param triggerPrice   The price that has to be crossed.
+     * @return The created Order object.
+     * @throws IllegalArgumentException if inputs are invalid (e.g., non-positive quantity or price).
+     * @throws NoSuchElementException if the account is not found.
+     */
+    Order placeOrder(String userIdentifier, String assetSymbol, TransactionType side, OrderType orderType,
+                     BigDecimal quantity, BigDecimal triggerPrice);
+
+    /**
+     * Cancels an open order.
+     *
+     * @param userIdentifier The identifier of the user owning the order.
+     * @param orderId        The ID of the order to cancel.
+     * @return The cancelled Order object.
+     * @throws IllegalArgumentException if the order is no longer open.
+     * @throws NoSuchElementException if the order is not found for this user.
+     */
+    Order cancelOrder(String userIdentifier, int orderId);
+
+    /**
+     * Retrieves all orders for a given user, newest first.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @return A list of Order objects.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    List<Order> getOrders(String userIdentifier);
+}
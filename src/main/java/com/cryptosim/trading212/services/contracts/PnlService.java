@@ -0,0 +1,44 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.PnlGrouping;
+import com.cryptosim.trading212.models.PnlSummary;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Interface for the P&L Service.
+ * Defines the contract for realized P&L, volume and trade-count reports served from daily rollups.
+ */
+public interface PnlService {
+
+    /**
+     * Summarizes a user's trading results over an inclusive date range.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @param from           First day of the range.
+     * @param to             Last day of the range.
+     * @param grouping       How to group the result.
+     * @return A list of PnlSummary objects.
+     * @throws IllegalArgumentException if the range is invalid.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    List<PnlSummary> getSummary(String userIdentifier, LocalDate from, LocalDate to, PnlGrouping grouping);
+
+    /**
+     * Starts rebuilding all rollups from the transaction history in the background.
+     *
+     * @return The progress of the started job.
+     * @throws IllegalStateException if a backfill is already running.
+     */
+    BackfillProgress startBackfill();
+
+    /**
+     * Returns the progress of the current or last backfill.
+     *
+     * @return The progress, or null if no backfill ran since startup.
+     */
+    BackfillProgress getBackfillProgress();
+}
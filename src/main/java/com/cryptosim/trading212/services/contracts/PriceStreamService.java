@@ -0,0 +1,22 @@
+package com.cryptosim.trading212.services.contracts;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+/**
+ * Interface for the Price Stream Service.
+ * Defines the contract for pushing live prices of selected symbols to connected clients.
+ */
+public interface PriceStreamService {
+
+    /**
+     * Opens a server-sent event stream of the given symbols. The feed stays subscribed to the symbols
+     * for as long as the stream is open.
+     *
+     * @param assetSymbols The symbols to stream (e.g., "BTC/USD").
+     * @return The emitter to return from the controller.
+     * @throws IllegalArgumentException if no symbols, too many symbols or an unknown symbol is requested.
+     */
+    SseEmitter openStream(Collection<String> assetSymbols);
+}
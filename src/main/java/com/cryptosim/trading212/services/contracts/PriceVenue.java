@@ -0,0 +1,66 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.FeedStats;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A source of live quotes, such as one exchange's WebSocket API.
+ * <p>
+ * Every venue bean is started by the market data service, which consolidates the quotes of all venues
+ * into a best bid and offer per symbol and forwards subscription changes to each of them.
+ */
+public interface PriceVenue {
+
+    /**
+     * @return A short, unique name for the venue (e.g., "kraken").
+     */
+    String getName();
+
+    /**
+     * @return Every symbol the venue can quote, whether or not it is subscribed.
+     */
+    List<String> getAvailableSymbols();
+
+    /**
+     * Opens the venue's connections and starts delivering quotes to the sink.
+     *
+     * @param sink Receives the quotes and heartbeats of this venue.
+     */
+    void start(VenueQuoteSink sink);
+
+    /**
+     * Subscribes to the given symbols. Symbols the venue does not quote or already subscribed are ignored.
+     *
+     * @param assetSymbols The symbols to subscribe to.
+     */
+    void subscribe(Collection<String> assetSymbols);
+
+    /**
+     * Unsubscribes from the given symbols; no quotes of them are delivered afterwards.
+     *
+     * @param assetSymbols The symbols to unsubscribe from.
+     */
+    void unsubscribe(Collection<String> assetSymbols);
+
+    /**
+     * @return The symbols the venue is currently subscribed to.
+     */
+    List<String> getSubscribedSymbols();
+
+    /**
+     * @return true if at least one of the venue's connections is open.
+     */
+    boolean isConnected();
+
+    /**
+     * @return The ingest counters of every connection of the venue.
+     */
+    List<FeedStats> getFeedStats();
+
+    /**
+     * Unsubscribes and closes every connection of the venue.
+     */
+    void stop();
+}
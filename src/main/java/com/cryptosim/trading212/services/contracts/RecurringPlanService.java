@@ -0,0 +1,50 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.models.RecurringPlan;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Interface for the Recurring Plan Service.
+ * Defines the contract for managing and scheduling recurring (DCA) purchases.
+ */
+public interface RecurringPlanService {
+
+    /**
+     * Creates a plan that buys a fixed fiat amount of an asset at a fixed interval.
+     *
+     * @param userIdentifier  The identifier of the user.
+     * @param assetSymbol     The symbol of the cryptocurrency to buy (e.g., "BTC/USD").
+     * @param fiatAmount      The fiat amount to spend on every run.
+     * @param intervalSeconds The time between two runs, in seconds.
+     * @param firstRunAt      When the first run should happen; null means as soon as possible.
+     * @return The created RecurringPlan object.
+     * @throws IllegalArgumentException if inputs are invalid (e.g., non-positive amount, interval too short).
+     * @throws NoSuchElementException if the account is not found.
+     */
+    RecurringPlan createPlan(String userIdentifier, String assetSymbol, BigDecimal fiatAmount,
+                             long intervalSeconds, LocalDateTime firstRunAt);
+
+    /**
+     * Cancels an active plan.
+     *
+     * @param userIdentifier The identifier of the user owning the plan.
+     * @param planId         The ID of the plan.
+     * @return The cancelled RecurringPlan object.
+     * @throws IllegalArgumentException if the plan is no longer active.
+     * @throws NoSuchElementException if the plan is not found for this user.
+     */
+    RecurringPlan cancelPlan(String userIdentifier, int planId);
+
+    /**
+     * Retrieves all plans of a given user.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @return A list of RecurringPlan objects.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    List<RecurringPlan> getPlans(String userIdentifier);
+}
@@ -0,0 +1,44 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.dtos.ReplicaStats;
+import com.cryptosim.trading212.dtos.ShardStats;
+
+import java.util.List;
+
+/**
+ * Interface for the Shard Admin Service.
+ * Defines the contract for inspecting the database shards and their read replicas, and moving accounts between shards.
+ */
+public interface ShardAdminService {
+
+    /**
+     * Collects the size of every shard, querying all shards in parallel.
+     *
+     * @return One entry per shard, ordered by shard.
+     */
+    List<ShardStats> getShardStats();
+
+    /**
+     * Starts moving every account whose shard differs from its placement for the current shard count,
+     * e.g. after a shard was added. Runs in the background.
+     *
+     * @return The progress of the started job; every moved account counts as one chunk.
+     * @throws IllegalStateException if a rebalance is already running.
+     */
+    BackfillProgress startRebalance();
+
+    /**
+     * Returns the progress of the current or last rebalance.
+     *
+     * @return The progress, or null if no rebalance ran since startup.
+     */
+    BackfillProgress getRebalanceProgress();
+
+    /**
+     * Reports the measured lag and usage of every read replica.
+     *
+     * @return One entry per replica, ordered by shard; empty if no replicas are configured.
+     */
+    List<ReplicaStats> getReplicaStats();
+}
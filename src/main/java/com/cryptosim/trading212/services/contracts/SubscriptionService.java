@@ -0,0 +1,35 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.models.SubscriptionSource;
+
+import java.util.Set;
+
+/**
+ * Interface for the Subscription Service.
+ * Defines the contract for deciding at runtime which symbols the market data feed is subscribed to.
+ */
+public interface SubscriptionService {
+
+    /**
+     * Adds a reference to a symbol. The feed subscribes to the symbol shortly after its first reference.
+     *
+     * @param assetSymbol The symbol (e.g., "BTC/USD").
+     * @param source      The reason for the reference.
+     * @throws IllegalArgumentException if the symbol is not offered by the feed.
+     */
+    void acquire(String assetSymbol, SubscriptionSource source);
+
+    /**
+     * Removes a reference added with {@link #acquire(String, SubscriptionSource)}. The feed unsubscribes
+     * from the symbol once it has been unreferenced for a grace period.
+     *
+     * @param assetSymbol The symbol (e.g., "BTC/USD").
+     * @param source      The reason the reference was added for.
+     */
+    void release(String assetSymbol, SubscriptionSource source);
+
+    /**
+     * @return The symbols the feed is currently subscribed to, including ones in their grace period.
+     */
+    Set<String> getSubscribedSymbols();
+}
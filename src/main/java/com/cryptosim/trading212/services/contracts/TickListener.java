@@ -0,0 +1,29 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.models.PriceTick;
+
+/**
+ * Callback for components that react to price changes from the market data feed.
+ * <p>
+ * Listeners registered inline are invoked on the feed threads, concurrently for symbols carried by
+ * different feed connections, and must return quickly. Isolated listeners are invoked on their own
+ * thread, one tick at a time.
+ */
+@FunctionalInterface
+public interface TickListener {
+
+    /**
+     * Called when the price of a symbol the listener follows has changed.
+     *
+     * @param tick The new price, the previous one and when it was accepted.
+     */
+    void onTick(PriceTick tick);
+
+    /**
+     * Called after a symbol was unsubscribed and its cached price dropped.
+     *
+     * @param assetSymbol The symbol that no longer has a price (e.g., "BTC/USD").
+     */
+    default void onSymbolRemoved(String assetSymbol) {
+    }
+}
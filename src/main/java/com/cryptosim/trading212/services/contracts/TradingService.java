@@ -1,12 +1,15 @@
 package com.cryptosim.trading212.services.contracts;
 
+import com.cryptosim.trading212.dtos.TransactionPage;
 import com.cryptosim.trading212.models.Account;
 import com.cryptosim.trading212.models.PortfolioAsset;
 import com.cryptosim.trading212.models.Transaction;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException; // Keep as it's part of the public contract for exceptions
+import java.util.function.Supplier;
 
 /**
  * Interface for the Trading Service.
@@ -15,6 +18,8 @@ import java.util.NoSuchElementException; // Keep as it's part of the public cont
  */
 public interface TradingService {
 
+    int MAX_TRANSACTION_PAGE_SIZE = 500;
+
     /**
      * Processes a buy transaction for a given user and asset.
      *
@@ -24,9 +29,23 @@ public interface TradingService {
      * @return The created Transaction object.
      * @throws IllegalArgumentException if inputs are invalid (e.g., insufficient funds, invalid quantity).
      * @throws NoSuchElementException if asset price is not available or account not found.
+     * @throws IllegalStateException if the price of the asset is older than its freshness limit (the feed has stalled).
      */
     Transaction buyCrypto(String userIdentifier, String assetSymbol, BigDecimal cryptoQuantity);
 
+    /**
+     * Processes a buy transaction that spends (at most) a fixed fiat amount at the current price.
+     *
+     * @param userIdentifier The identifier of the user making the purchase.
+     * @param assetSymbol    The symbol of the cryptocurrency to buy (e.g., "XBT/USD").
+     * @param fiatAmount     The fiat amount to spend.
+     * @return The created Transaction object.
+     * @throws IllegalArgumentException if inputs are invalid (e.g., insufficient funds, amount too small).
+     * @throws NoSuchElementException if asset price is not available or account not found.
+     * @throws IllegalStateException if the price of the asset is older than its freshness limit (the feed has stalled).
+     */
+    Transaction buyCryptoForAmount(String userIdentifier, String assetSymbol, BigDecimal fiatAmount);
+
     /**
      * Processes a sell transaction for a given user and asset.
      *
@@ -36,6 +55,7 @@ public interface TradingService {
      * @return The created Transaction object.
      * @throws IllegalArgumentException if inputs are invalid (e.g., insufficient assets, invalid quantity).
      * @throws NoSuchElementException if asset is not in portfolio, price is not available, or account not found.
+     * @throws IllegalStateException if the price of the asset is older than its freshness limit (the feed has stalled).
      */
     Transaction sellCrypto(String userIdentifier, String assetSymbol, BigDecimal cryptoQuantity);
 
@@ -68,6 +88,19 @@ public interface TradingService {
      */
     List<Transaction> getTransactionHistory(String userIdentifier);
 
+    /**
+     * Retrieves one page of the transaction history for a given user, newest first, including archived months.
+     *
+     * @param userIdentifier  The identifier of the user.
+     * @param beforeTimestamp The timestamp of the cursor returned with the previous page; null for the first page.
+     * @param beforeId        The transaction ID of the cursor returned with the previous page; null for the first page.
+     * @param limit           The maximum number of transactions on the page, between 1 and {@link #MAX_TRANSACTION_PAGE_SIZE}.
+     * @return The page with the cursor of the next one.
+     * @throws IllegalArgumentException if the limit is out of range or only half of the cursor is given.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    TransactionPage getTransactionHistoryPage(String userIdentifier, LocalDateTime beforeTimestamp, Integer beforeId, int limit);
+
     /**
      * Retrieves the account details for a given user.
      *
@@ -76,4 +109,15 @@ public interface TradingService {
      * @throws NoSuchElementException if the account is not found.
      */
     Account getAccountDetails(String userIdentifier);
+
+    /**
+     * Runs several reads of the user's account state on one database: a read replica that has the user's own
+     * changes, or the primary. The reads of this service made inside join it, so e.g. an entity tag read first
+     * never names a newer version than the state read after it.
+     *
+     * @param userIdentifier The identifier of the user.
+     * @param read           The reads; they may run twice.
+     * @return The result of the reads.
+     */
+    <T> T readAccountState(String userIdentifier, Supplier<T> read);
 }
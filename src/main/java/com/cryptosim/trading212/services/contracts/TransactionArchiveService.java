@@ -0,0 +1,27 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.BackfillProgress;
+
+/**
+ * Interface for the Transaction Archive Service.
+ * Defines the contract for maintaining the monthly partitions of the transaction history: creating upcoming months
+ * and moving old months from the database to the archive.
+ */
+public interface TransactionArchiveService {
+
+    /**
+     * Starts a maintenance run on every shard in the background. Runs also start on a schedule; only one node of a
+     * cluster runs at a time.
+     *
+     * @return The progress of the started run; every partition to archive counts as one chunk.
+     * @throws IllegalStateException if a run is already in progress on this or another node.
+     */
+    BackfillProgress startMaintenance();
+
+    /**
+     * Returns the progress of the current or last maintenance run of this node.
+     *
+     * @return The progress, or null if no run started since startup.
+     */
+    BackfillProgress getMaintenanceProgress();
+}
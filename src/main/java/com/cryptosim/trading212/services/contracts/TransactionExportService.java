@@ -0,0 +1,56 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.dtos.BackfillProgress;
+import com.cryptosim.trading212.models.TransactionExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Interface for the Transaction Export Service.
+ * Defines the contract for exporting the transaction history of all accounts, including the archived months, as
+ * gzip-compressed CSV or NDJSON for analytics.
+ */
+public interface TransactionExportService {
+
+    /**
+     * Starts exporting the transactions of a period into files on local disk in the background, one file per shard
+     * and account ID range.
+     *
+     * @param format The output format.
+     * @param from   The earliest transaction_timestamp, inclusive; null for no lower bound.
+     * @param to     The end of the period, exclusive; null for no upper bound.
+     * @return The progress of the started export; every account ID range of a shard counts as one chunk.
+     * @throws IllegalArgumentException if the format is missing or the period is empty.
+     * @throws IllegalStateException    if a file export is already running.
+     */
+    BackfillProgress startExport(TransactionExportFormat format, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns the progress of the current or last file export of this node.
+     *
+     * @return The progress, or null if no export started since startup.
+     */
+    BackfillProgress getExportProgress();
+
+    /**
+     * Checks the parameters of an export, so callers can reject them before they start writing a response.
+     *
+     * @throws IllegalArgumentException if the format is missing or the period is empty.
+     */
+    void validateExport(TransactionExportFormat format, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Writes the transactions of a period to a stream as a single gzip-compressed document.
+     * Rows are ordered by account ID within each account ID range, but the ranges are interleaved.
+     *
+     * @param out    The stream to write to; it is not closed.
+     * @param format The output format.
+     * @param from   The earliest transaction_timestamp, inclusive; null for no lower bound.
+     * @param to     The end of the period, exclusive; null for no upper bound.
+     * @throws IllegalArgumentException if the format is missing or the period is empty.
+     * @throws IOException              if the stream fails or reading the transactions fails.
+     */
+    void exportTo(OutputStream out, TransactionExportFormat format, LocalDateTime from, LocalDateTime to) throws IOException;
+}
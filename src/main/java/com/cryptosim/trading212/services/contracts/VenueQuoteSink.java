@@ -0,0 +1,31 @@
+package com.cryptosim.trading212.services.contracts;
+
+import com.cryptosim.trading212.models.VenueQuote;
+
+import java.util.Collection;
+
+/**
+ * Receives the quotes of one {@link PriceVenue}.
+ * <p>
+ * Called on the venue's own threads, concurrently for symbols carried by different connections of the
+ * venue but never concurrently for the same symbol; implementations must return quickly.
+ */
+public interface VenueQuoteSink {
+
+    /**
+     * Called with the newest top of book of a subscribed symbol.
+     *
+     * @param assetSymbol The symbol (e.g., "BTC/USD").
+     * @param quote       The venue's bid, ask and last price.
+     */
+    void onQuote(String assetSymbol, VenueQuote quote);
+
+    /**
+     * Called whenever one of the venue's connections shows it is alive without sending a quote (e.g., a heartbeat
+     * message). The last quotes of the symbols on that connection remain valid; other connections of the venue
+     * confirm their own symbols.
+     *
+     * @param assetSymbols The symbols subscribed on the connection.
+     */
+    void onHeartbeat(Collection<String> assetSymbols);
+}
@@ -0,0 +1,137 @@
+package com.cryptosim.trading212.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Arithmetic shared by the fixed-point value types {@link Money}, {@link Quantity} and {@link Price}.
+ * <p>
+ * Products of two values need up to 126 bits before they are rounded back to a scale, so they are formed as 128-bit
+ * numbers with {@link Math#multiplyHigh} and divided with a two-digit long division in base 2^32 (Hacker's Delight,
+ * divlu). Rounding follows {@link BigDecimal}: DOWN truncates towards zero and HALF_UP rounds ties away from zero.
+ * Results that do not fit a long throw an {@link ArithmeticException} instead of wrapping.
+ */
+final class FixedPoint {
+
+    private static final long DIGIT_BASE = 1L << 32;
+    private static final long DIGIT_MASK = DIGIT_BASE - 1;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * @return true if the decimal is a whole number of units of the scale that fits a long, so converting it to the
+     * scale loses nothing.
+     */
+    static boolean isExact(BigDecimal value, int scale) {
+        BigDecimal exact = value.scale() <= scale ? value : value.stripTrailingZeros();
+        return exact.scale() <= scale && exact.precision() - exact.scale() + scale < POWERS_OF_TEN.length;
+    }
+
+    /**
+     * Converts a decimal to units of a scale, rounding like {@link BigDecimal#setScale(int, RoundingMode)}.
+     *
+     * @throws ArithmeticException if the value does not fit the type.
+     */
+    static long toUnits(BigDecimal value, int scale, RoundingMode roundingMode) {
+        return value.setScale(scale, roundingMode).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @return a * b / divisor, rounded; the divisor must be positive.
+     */
+    static long multiplyDivide(long a, long b, long divisor, RoundingMode roundingMode) {
+        boolean negative = (a < 0) != (b < 0);
+        long x = Math.absExact(a);
+        long y = Math.absExact(b);
+        long quotient = divideRounded(Math.multiplyHigh(x, y), x * y, divisor, roundingMode);
+        return negative ? -quotient : quotient;
+    }
+
+    /**
+     * @return (a * b + c * d) / divisor, rounded; all operands must be non-negative and the divisor positive.
+     */
+    static long sumOfProductsDivide(long a, long b, long c, long d, long divisor, RoundingMode roundingMode) {
+        if (a < 0 || b < 0 || c < 0 || d < 0) {
+            throw new IllegalArgumentException("Operands must not be negative.");
+        }
+        long low1 = a * b;
+        long low2 = c * d;
+        long low = low1 + low2;
+        long high = Math.multiplyHigh(a, b) + Math.multiplyHigh(c, d) + (Long.compareUnsigned(low, low1) < 0 ? 1 : 0);
+        return divideRounded(high, low, divisor, roundingMode);
+    }
+
+    /**
+     * Divides the non-negative 128-bit number high:low by a positive divisor.
+     *
+     * @throws ArithmeticException if the quotient does not fit a long.
+     */
+    static long divideRounded(long high, long low, long divisor, RoundingMode roundingMode) {
+        if (divisor <= 0) {
+            throw new ArithmeticException("Divisor must be positive.");
+        }
+        if (high < 0 || Long.compareUnsigned(high, divisor) >= 0) {
+            throw new ArithmeticException("Fixed-point overflow");
+        }
+        long quotient = high == 0 && low >= 0 ? low / divisor : divideUnsigned(high, low, divisor);
+        if (quotient < 0) {
+            throw new ArithmeticException("Fixed-point overflow");
+        }
+        long remainder = low - quotient * divisor; // Exact, as the true remainder is below the divisor
+        switch (roundingMode) {
+            case DOWN:
+                return quotient;
+            case HALF_UP:
+                return remainder >= divisor - remainder ? Math.addExact(quotient, 1) : quotient;
+            default:
+                throw new IllegalArgumentException("Unsupported rounding mode: " + roundingMode);
+        }
+    }
+
+    // Unsigned 128-by-64-bit division; requires high < divisor (unsigned), so the quotient fits 64 bits
+    private static long divideUnsigned(long high, long low, long divisor) {
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << shift;
+        long vHigh = v >>> 32;
+        long vLow = v & DIGIT_MASK;
+        long uHigh = shift == 0 ? high : (high << shift) | (low >>> (64 - shift));
+        long uLow = low << shift;
+        long uLowHigh = uLow >>> 32;
+        long uLowLow = uLow & DIGIT_MASK;
+
+        long q1 = Long.divideUnsigned(uHigh, vHigh);
+        long rest = uHigh - q1 * vHigh;
+        while (Long.compareUnsigned(q1, DIGIT_BASE) >= 0 || Long.compareUnsigned(q1 * vLow, (rest << 32) | uLowHigh) > 0) {
+            q1--;
+            rest += vHigh;
+            if (Long.compareUnsigned(rest, DIGIT_BASE) >= 0) {
+                break;
+            }
+        }
+        long middle = (uHigh << 32) + uLowHigh - q1 * v;
+
+        long q0 = Long.divideUnsigned(middle, vHigh);
+        rest = middle - q0 * vHigh;
+        while (Long.compareUnsigned(q0, DIGIT_BASE) >= 0 || Long.compareUnsigned(q0 * vLow, (rest << 32) | uLowLow) > 0) {
+            q0--;
+            rest += vHigh;
+            if (Long.compareUnsigned(rest, DIGIT_BASE) >= 0) {
+                break;
+            }
+        }
+        return (q1 << 32) | q0;
+    }
+}
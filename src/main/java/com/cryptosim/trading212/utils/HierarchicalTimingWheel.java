@@ -0,0 +1,145 @@
+package com.cryptosim.trading212.utils;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck) for scheduling very large numbers of timers.
+ * <p>
+ * Level 0 has one bucket per tick; each higher level has buckets that are {@code slotsPerLevel}
+ * times coarser. Scheduling is O(1): an entry is dropped into the bucket of the lowest level whose
+ * range covers its delay. Whenever the lower levels complete a rotation, the matching bucket of the
+ * next level is cascaded down, so every entry is moved at most {@code levels} times before it fires.
+ * Entries beyond the horizon are parked in the top level and re-cascaded until they are in range.
+ * <p>
+ * This class is not thread-safe; callers serialize access.
+ *
+ * @param <T> The type of the scheduled items.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long dueTick;
+
+        private Entry(T item, long dueTick) {
+            this.item = item;
+            this.dueTick = dueTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final int bitsPerLevel;
+    private final int levels;
+    private final long slotMask;
+    private final ArrayDeque<Entry<T>>[][] buckets;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis    Duration of one level-0 tick in milliseconds.
+     * @param bitsPerLevel  log2 of the number of buckets per level.
+     * @param levels        Number of levels; the horizon is tickMillis * 2^(bitsPerLevel * levels).
+     * @param startMillis   The current time, in epoch milliseconds.
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int bitsPerLevel, int levels, long startMillis) {
+        if (tickMillis <= 0 || bitsPerLevel <= 0 || levels <= 0 || bitsPerLevel * levels >= 62) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions.");
+        }
+        this.tickMillis = tickMillis;
+        this.bitsPerLevel = bitsPerLevel;
+        this.levels = levels;
+        this.slotMask = (1L << bitsPerLevel) - 1;
+        this.buckets = (ArrayDeque<Entry<T>>[][]) new ArrayDeque<?>[levels][1 << bitsPerLevel];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules an item to fire at the given time. Items that are already due fire on the next tick.
+     *
+     * @param item      The item to schedule.
+     * @param dueMillis The due time, in epoch milliseconds.
+     */
+    public void schedule(T item, long dueMillis) {
+        long dueTick = Math.max(dueMillis / tickMillis, currentTick + 1);
+        place(new Entry<>(item, dueTick));
+        size++;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.dueTick - currentTick;
+        for (int level = 0; level < levels; level++) {
+            if (delta < (1L << (bitsPerLevel * (level + 1))) || level == levels - 1) {
+                long tick = level == levels - 1
+                        ? Math.min(entry.dueTick, currentTick + (1L << (bitsPerLevel * levels)) - 1)
+                        : entry.dueTick;
+                int slot = (int) ((tick >>> (bitsPerLevel * level)) & slotMask);
+                ArrayDeque<Entry<T>> bucket = buckets[level][slot];
+                if (bucket == null) {
+                    bucket = new ArrayDeque<>();
+                    buckets[level][slot] = bucket;
+                }
+                bucket.addLast(entry);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to the given time and hands every item that became due to the consumer,
+     * in due order (items within the same tick keep their scheduling order).
+     *
+     * @param nowMillis The current time, in epoch milliseconds.
+     * @param expired   Receives the due items.
+     * @return The number of items that expired.
+     */
+    public int advanceTo(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        int fired = 0;
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & slotMask);
+            ArrayDeque<Entry<T>> bucket = buckets[0][slot];
+            if (bucket != null && !bucket.isEmpty()) {
+                buckets[0][slot] = null;
+                for (Entry<T> entry : bucket) {
+                    expired.accept(entry.item);
+                }
+                fired += bucket.size();
+                size -= bucket.size();
+            }
+        }
+        return fired;
+    }
+
+    // Moves the buckets of the higher levels whose turn has come one level down
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            if ((currentTick & ((1L << (bitsPerLevel * level)) - 1)) != 0) {
+                return;
+            }
+            int slot = (int) ((currentTick >>> (bitsPerLevel * level)) & slotMask);
+            ArrayDeque<Entry<T>> bucket = buckets[level][slot];
+            if (bucket != null && !bucket.isEmpty()) {
+                buckets[level][slot] = null;
+                for (Entry<T> entry : bucket) {
+                    place(entry);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+}
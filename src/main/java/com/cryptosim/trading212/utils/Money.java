@@ -0,0 +1,93 @@
+package com.cryptosim.trading212.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An immutable fiat amount, held as a long count of cents (10^-{@value #SCALE} units).
+ * Arithmetic is exact or rounded by the rules of {@link TradeMath}, and throws an {@link ArithmeticException}
+ * instead of overflowing.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = TradeMath.FIAT_SCALE;
+    public static final Money ZERO = new Money(0);
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    public static Money ofUnits(long units) {
+        return units == 0 ? ZERO : new Money(units);
+    }
+
+    /**
+     * Converts a decimal, rounding half-up to cents like realized P&L.
+     */
+    public static Money of(BigDecimal value) {
+        return ofUnits(FixedPoint.toUnits(value, SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Values a fill of a quantity at a price as given, before either is rounded to the scale it is recorded at, and
+     * rounds only the result, half-up to cents like {@link TradeMath#tradeValue}. Computed on longs unless an input
+     * has more decimals than its type keeps.
+     */
+    public static Money tradeValue(BigDecimal quantity, BigDecimal price) {
+        if (FixedPoint.isExact(quantity, Quantity.SCALE) && FixedPoint.isExact(price, Price.SCALE)) {
+            return Quantity.of(quantity).times(Price.of(price));
+        }
+        return of(TradeMath.tradeValue(quantity, price));
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Money plus(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /**
+     * @return The largest quantity that the amount buys at a price, rounded down like {@link TradeMath#quantityForAmount}.
+     * @throws ArithmeticException if the price is not positive.
+     */
+    public Quantity quantityAt(Price price) {
+        long scaleUp = FixedPoint.powerOfTen(Quantity.SCALE + Price.SCALE - SCALE);
+        return Quantity.ofUnits(FixedPoint.multiplyDivide(units, scaleUp, price.getUnits(), RoundingMode.DOWN));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money && ((Money) other).units == units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.cryptosim.trading212.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An immutable price per unit of a crypto asset, held as a long count of 10^-{@value #SCALE} fiat units.
+ * Arithmetic is rounded by the rules of {@link TradeMath} and throws an {@link ArithmeticException} instead of
+ * overflowing.
+ */
+public final class Price implements Comparable<Price> {
+
+    public static final int SCALE = TradeMath.PRICE_SCALE;
+    public static final Price ZERO = new Price(0);
+
+    private final long units;
+
+    private Price(long units) {
+        this.units = units;
+    }
+
+    public static Price ofUnits(long units) {
+        return units == 0 ? ZERO : new Price(units);
+    }
+
+    /**
+     * Converts a decimal, rounding half-up to the price scale like {@link TradeMath#scalePrice}.
+     */
+    public static Price of(BigDecimal value) {
+        return ofUnits(FixedPoint.toUnits(value, SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * @return The volume-weighted average purchase price after adding a buy to a held position, rounded half-up
+     * like {@link TradeMath#averagePriceAfterBuy}.
+     * @throws IllegalArgumentException if a quantity or price is negative.
+     */
+    public static Price averageAfterBuy(Quantity held, Price heldAverage, Quantity bought, Price price) {
+        long totalUnits = Math.addExact(held.getUnits(), bought.getUnits());
+        if (totalUnits == 0) {
+            throw new ArithmeticException("Division by a zero total quantity.");
+        }
+        // Both products carry the quantity scale, which dividing by the total quantity removes again
+        return ofUnits(FixedPoint.sumOfProductsDivide(held.getUnits(), heldAverage.units, bought.getUnits(), price.units,
+                totalUnits, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * @return The average purchase price after adding a buy of a quantity at a price, both as given, to a held
+     * position, rounded only at the end like {@link TradeMath#averagePriceAfterBuy}. Computed on longs unless an
+     * input has more decimals than its type keeps.
+     */
+    public static Price averageAfterBuy(Quantity held, Price heldAverage, BigDecimal bought, BigDecimal price) {
+        if (FixedPoint.isExact(bought, Quantity.SCALE) && FixedPoint.isExact(price, SCALE)) {
+            return averageAfterBuy(held, heldAverage, Quantity.of(bought), of(price));
+        }
+        return of(TradeMath.averagePriceAfterBuy(held.toBigDecimal(), heldAverage.toBigDecimal(), bought, price));
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Price other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Price && ((Price) other).units == units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
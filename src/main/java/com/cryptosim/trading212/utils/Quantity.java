@@ -0,0 +1,107 @@
+package com.cryptosim.trading212.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An immutable crypto quantity, held as a long count of 10^-{@value #SCALE} units.
+ * Arithmetic is exact or rounded by the rules of {@link TradeMath}, and throws an {@link ArithmeticException}
+ * instead of overflowing.
+ */
+public final class Quantity implements Comparable<Quantity> {
+
+    public static final int SCALE = TradeMath.CRYPTO_QUANTITY_SCALE;
+    public static final Quantity ZERO = new Quantity(0);
+
+    private final long units;
+
+    private Quantity(long units) {
+        this.units = units;
+    }
+
+    public static Quantity ofUnits(long units) {
+        return units == 0 ? ZERO : new Quantity(units);
+    }
+
+    /**
+     * Converts a decimal, rounding down to the crypto scale like {@link TradeMath#scaleQuantity}.
+     */
+    public static Quantity of(BigDecimal value) {
+        return ofUnits(FixedPoint.toUnits(value, SCALE, RoundingMode.DOWN));
+    }
+
+    /**
+     * @return The largest quantity that a fiat amount buys at a price, both as given, rounded down like
+     * {@link TradeMath#quantityForAmount}. Computed on longs unless an input has more decimals than its type keeps.
+     * @throws ArithmeticException if the price is not positive.
+     */
+    public static Quantity forAmount(BigDecimal fiatAmount, BigDecimal price) {
+        if (FixedPoint.isExact(fiatAmount, Money.SCALE) && FixedPoint.isExact(price, Price.SCALE)) {
+            return Money.of(fiatAmount).quantityAt(Price.of(price));
+        }
+        return of(TradeMath.quantityForAmount(fiatAmount, price));
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Quantity plus(Quantity other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Quantity minus(Quantity other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    /**
+     * @return What is left after taking a quantity as given, rounded down to the crypto scale only afterwards like
+     * {@link TradeMath#scaleQuantity}; a sold fraction below the scale therefore still costs a whole unit.
+     */
+    public Quantity minus(BigDecimal quantity) {
+        if (FixedPoint.isExact(quantity, SCALE)) {
+            return minus(of(quantity));
+        }
+        return of(toBigDecimal().subtract(quantity));
+    }
+
+    public Quantity min(Quantity other) {
+        return units <= other.units ? this : other;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /**
+     * @return The fiat value at a price, rounded half-up to cents like {@link TradeMath#tradeValue}.
+     */
+    public Money times(Price price) {
+        long divisor = FixedPoint.powerOfTen(SCALE + Price.SCALE - Money.SCALE);
+        return Money.ofUnits(FixedPoint.multiplyDivide(units, price.getUnits(), divisor, RoundingMode.HALF_UP));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Quantity && ((Quantity) other).units == units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
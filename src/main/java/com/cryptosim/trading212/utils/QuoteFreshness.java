@@ -0,0 +1,42 @@
+package com.cryptosim.trading212.utils;
+
+import java.util.Map;
+
+/**
+ * Per-symbol limits on how old a price may be before trades at it are refused.
+ * <p>
+ * The age of a price is the time since the feed last confirmed it (see
+ * {@code KrakenDataService#getPriceAgeMillis}), so it only grows when the feed itself stalls, not when
+ * a market is quiet. Pegged and fiat pairs are only used for valuation and conversions and barely move,
+ * so they tolerate a longer outage than the traded pairs.
+ */
+public final class QuoteFreshness {
+
+    public static final long DEFAULT_MAX_AGE_MILLIS = 15_000;
+
+    private static final Map<String, Long> MAX_AGE_MILLIS = Map.of(
+            "USDT/USD", 60_000L,
+            "USDC/USD", 60_000L,
+            "DAI/USD", 60_000L,
+            "EUR/USD", 60_000L,
+            "GBP/USD", 60_000L
+    );
+
+    private QuoteFreshness() {
+    }
+
+    /**
+     * @return The maximum age in milliseconds at which the symbol's price is still tradable.
+     */
+    public static long maxAgeMillis(String assetSymbol) {
+        return MAX_AGE_MILLIS.getOrDefault(assetSymbol, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * @param ageMillis The age of the price, as reported by the market data service.
+     * @return true if the price is older than the symbol's limit.
+     */
+    public static boolean isStale(String assetSymbol, long ageMillis) {
+        return ageMillis > maxAgeMillis(assetSymbol);
+    }
+}
@@ -0,0 +1,87 @@
+package com.cryptosim.trading212.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, preallocated, lock-free queue for exactly one producer thread and one consumer thread.
+ * <p>
+ * The producer only writes the tail and the consumer only writes the head, each published with a release
+ * store, so neither side ever blocks or contends on a lock. The producer caches its last view of the head
+ * and only rereads it when the cached value says the buffer is full; the consumer reads the tail once per
+ * drained batch. A full buffer rejects the element instead of blocking the producer.
+ *
+ * @param <T> The type of the queued elements.
+ */
+public class SpscRingBuffer<T> {
+
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next slot to read, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // Next slot to write, written by the producer
+    private long cachedHead; // Producer's view of head
+
+    /**
+     * @param capacity The number of slots; must be a power of two.
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a positive power of two.");
+        }
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Appends an element. Must only be called from the producer thread.
+     *
+     * @return false if the buffer is full and the element was not added.
+     */
+    public boolean offer(T element) {
+        long currentTail = tail.get();
+        if (currentTail - cachedHead == slots.length) {
+            cachedHead = head.get();
+            if (currentTail - cachedHead == slots.length) {
+                return false;
+            }
+        }
+        slots[(int) (currentTail & mask)] = element;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes up to {@code maxElements} elements in FIFO order and hands them to the consumer.
+     * Must only be called from the consumer thread.
+     *
+     * @return The number of elements drained.
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<T> consumer, int maxElements) {
+        long currentHead = head.get();
+        long available = tail.get() - currentHead;
+        if (available == 0) {
+            return 0;
+        }
+        int drained = (int) Math.min(maxElements, available);
+        for (int i = 0; i < drained; i++) {
+            int slot = (int) ((currentHead + i) & mask);
+            T element = (T) slots[slot];
+            slots[slot] = null;
+            consumer.accept(element);
+        }
+        head.lazySet(currentHead + drained);
+        return drained;
+    }
+
+    /**
+     * @return The number of queued elements; exact only when called from the producer or consumer thread.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
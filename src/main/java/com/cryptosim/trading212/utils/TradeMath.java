@@ -0,0 +1,61 @@
+package com.cryptosim.trading212.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Rounding and valuation rules of a trade, shared by live trading and backtests so both produce
+ * identical balances, positions and realized P&L for the same fills.
+ * <p>
+ * The trade engine computes with the fixed-point {@link Money}, {@link Quantity} and {@link Price} types, which
+ * implement these rules on longs; the decimal versions here remain the reference they are tested against.
+ */
+public final class TradeMath {
+
+    public static final int FIAT_SCALE = 2;
+    public static final int CRYPTO_QUANTITY_SCALE = 8;
+    public static final int PRICE_SCALE = 8;
+
+    private TradeMath() {
+    }
+
+    /**
+     * @return The fiat value of a fill (cost of a buy or proceeds of a sell), rounded half-up to cents.
+     */
+    public static BigDecimal tradeValue(BigDecimal quantity, BigDecimal price) {
+        return quantity.multiply(price).setScale(FIAT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return The largest quantity (rounded down to the crypto scale) that a fiat amount buys at the given price.
+     */
+    public static BigDecimal quantityForAmount(BigDecimal fiatAmount, BigDecimal price) {
+        return fiatAmount.divide(price, CRYPTO_QUANTITY_SCALE, RoundingMode.DOWN);
+    }
+
+    /**
+     * @return The volume-weighted average purchase price after adding a buy to a held position.
+     */
+    public static BigDecimal averagePriceAfterBuy(BigDecimal heldQuantity, BigDecimal heldAveragePrice,
+                                                  BigDecimal boughtQuantity, BigDecimal price) {
+        BigDecimal totalQuantity = heldQuantity.add(boughtQuantity);
+        BigDecimal oldTotalValue = heldQuantity.multiply(heldAveragePrice);
+        BigDecimal newPurchaseValue = boughtQuantity.multiply(price);
+        return oldTotalValue.add(newPurchaseValue).divide(totalQuantity, PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return The realized P&L of a sell against the position's average purchase price.
+     */
+    public static BigDecimal averageCostProfitLoss(BigDecimal quantity, BigDecimal averagePrice, BigDecimal proceeds) {
+        return proceeds.subtract(tradeValue(quantity, averagePrice));
+    }
+
+    public static BigDecimal scaleQuantity(BigDecimal quantity) {
+        return quantity.setScale(CRYPTO_QUANTITY_SCALE, RoundingMode.DOWN);
+    }
+
+    public static BigDecimal scalePrice(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -1,3 +1,20 @@
+DROP TABLE IF EXISTS `ledger_discrepancies`;
+DROP TABLE IF EXISTS `ledger_checkpoints`;
+DROP TABLE IF EXISTS `season_standings`;
+DROP TABLE IF EXISTS `season_prices`;
+DROP TABLE IF EXISTS `id_sequences`;
+DROP TABLE IF EXISTS `transaction_archives`;
+DROP TABLE IF EXISTS `replica_heartbeat`;
+DROP TABLE IF EXISTS `account_directory`;
+DROP TABLE IF EXISTS `feed_leases`;
+DROP TABLE IF EXISTS `lot_matches`;
+DROP TABLE IF EXISTS `position_lots`;
+DROP TABLE IF EXISTS `pnl_daily`;
+DROP TABLE IF EXISTS `pnl_daily_symbol`;
+DROP TABLE IF EXISTS `account_changes`;
+DROP TABLE IF EXISTS `recurring_plan_runs`;
+DROP TABLE IF EXISTS `recurring_plans`;
+DROP TABLE IF EXISTS `orders`;
 DROP TABLE IF EXISTS `transactions`;
 DROP TABLE IF EXISTS `portfolio_assets`;
 DROP TABLE IF EXISTS `accounts`;
@@ -7,6 +24,8 @@ CREATE TABLE `accounts` (
                             `user_identifier` VARCHAR(255) UNIQUE NOT NULL COMMENT 'A unique identifier for the user, "default_user"',
                             `balance` DECIMAL(20, 8) NOT NULL COMMENT 'Current fiat balance',
                             `initial_balance` DECIMAL(20, 8) NOT NULL COMMENT 'Initial fiat balance for reset functionality',
+                            `cost_basis_method` ENUM('AVERAGE', 'FIFO', 'LIFO') NOT NULL DEFAULT 'AVERAGE' COMMENT 'How realized P&L of sells is computed',
+                            `change_version` BIGINT NOT NULL DEFAULT 0 COMMENT 'Version of the latest entry in account_changes',
                             `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                             `updated_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                             INDEX `idx_user_identifier` (`user_identifier`)
@@ -22,22 +41,228 @@ CREATE TABLE `portfolio_assets` (
                                     `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                                     `updated_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                                     FOREIGN KEY (`account_id`) REFERENCES `accounts`(`account_id`) ON DELETE CASCADE,
-                                    UNIQUE KEY `uk_account_asset` (`account_id`, `asset_symbol`) COMMENT 'Ensures one entry per asset type per account'
+                                    UNIQUE KEY `uk_account_asset` (`account_id`, `asset_symbol`) COMMENT 'Ensures one entry per asset type per account',
+                                    INDEX `idx_asset_symbol` (`asset_symbol`) COMMENT 'Holder counts per symbol for feed subscriptions'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Stores crypto assets held by users';
 
 CREATE TABLE `transactions` (
-                                `transaction_id` INT AUTO_INCREMENT PRIMARY KEY,
+                                `transaction_id` INT AUTO_INCREMENT,
                                 `account_id` INT NOT NULL,
                                 `asset_symbol` VARCHAR(30) NOT NULL COMMENT 'Cryptocurrency pair symbol',
                                 `transaction_type` ENUM('BUY', 'SELL') NOT NULL COMMENT 'Type of transaction',
                                 `quantity` DECIMAL(24, 10) NOT NULL COMMENT 'Quantity of crypto transacted',
                                 `price_per_unit` DECIMAL(20, 8) NOT NULL COMMENT 'Price per unit of crypto at the time of transaction (in fiat)',
                                 `total_transaction_value` DECIMAL(38, 10) NOT NULL COMMENT 'Total fiat value of the transaction (quantity * price_per_unit)',
-                                `transaction_timestamp` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                `transaction_timestamp` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
                                 `realized_profit_loss` DECIMAL(20, 8) DEFAULT NULL COMMENT 'Profit or loss realized on this transaction',
-                                FOREIGN KEY (`account_id`) REFERENCES `accounts`(`account_id`) ON DELETE CASCADE,
-                                INDEX `idx_account_timestamp` (`account_id`, `transaction_timestamp` DESC)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Logs all buy and sell transactions';
+                                -- Partitioned tables allow no foreign keys and need the partitioning column in every unique key
+                                PRIMARY KEY (`transaction_id`, `transaction_timestamp`),
+                                INDEX `idx_account_timestamp` (`account_id`, `transaction_timestamp` DESC, `transaction_id` DESC)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Logs all buy and sell transactions'
+-- Monthly partitions pYYYYMM are added ahead of time and archived by the transaction archive service
+PARTITION BY RANGE (UNIX_TIMESTAMP(`transaction_timestamp`)) (
+    PARTITION `p202512` VALUES LESS THAN (UNIX_TIMESTAMP('2026-01-01 00:00:00')),
+    PARTITION `p_future` VALUES LESS THAN MAXVALUE
+);
+
+CREATE TABLE `orders` (
+                          `order_id` INT AUTO_INCREMENT PRIMARY KEY,
+                          `account_id` INT NOT NULL,
+                          `asset_symbol` VARCHAR(30) NOT NULL COMMENT 'Cryptocurrency pair symbol',
+                          `side` ENUM('BUY', 'SELL') NOT NULL COMMENT 'Whether the order buys or sells when triggered',
+                          `order_type` ENUM('LIMIT', 'STOP') NOT NULL COMMENT 'LIMIT triggers on a favourable price, STOP on an adverse one',
+                          `quantity` DECIMAL(24, 10) NOT NULL COMMENT 'Quantity of crypto to trade once triggered',
+                          `trigger_price` DECIMAL(20, 8) NOT NULL COMMENT 'Price (in fiat) that has to be crossed for the order to execute',
+                          `status` ENUM('OPEN', 'TRIGGERED', 'FILLED', 'CANCELLED', 'REJECTED') NOT NULL DEFAULT 'OPEN',
+                          `transaction_id` INT DEFAULT NULL COMMENT 'Transaction created when the order was filled',
+                          `status_reason` VARCHAR(255) DEFAULT NULL COMMENT 'Why the order was rejected, if it was',
+                          `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                          `updated_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                          FOREIGN KEY (`account_id`) REFERENCES `accounts`(`account_id`) ON DELETE CASCADE,
+                          INDEX `idx_status_symbol` (`status`, `asset_symbol`) COMMENT 'Startup rebuild of the resting order book',
+                          INDEX `idx_account_created` (`account_id`, `created_at` DESC)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Resting limit and stop orders';
+
+CREATE TABLE `recurring_plans` (
+                                   `plan_id` INT AUTO_INCREMENT PRIMARY KEY,
+                                   `account_id` INT NOT NULL,
+                                   `asset_symbol` VARCHAR(30) NOT NULL COMMENT 'Cryptocurrency pair symbol to buy',
+                                   `fiat_amount` DECIMAL(20, 8) NOT NULL COMMENT 'Fiat amount spent on every run',
+                                   `interval_seconds` INT NOT NULL COMMENT 'Time between two runs',
+                                   `next_run_at` TIMESTAMP NOT NULL COMMENT 'Scheduled time of the next run; also the idempotency key of that run',
+                                   `active` BOOLEAN NOT NULL DEFAULT TRUE,
+                                   `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                   `updated_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                                   FOREIGN KEY (`account_id`) REFERENCES `accounts`(`account_id`) ON DELETE CASCADE,
+                                   INDEX `idx_active_next_run` (`active`, `next_run_at`),
+                                   INDEX `idx_active_symbol` (`active`, `asset_symbol`) COMMENT 'Active plan counts per symbol for feed subscriptions',
+                                   INDEX `idx_account` (`account_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Recurring (DCA) investment plans';
+
+CREATE TABLE `recurring_plan_runs` (
+                                       `plan_id` INT NOT NULL,
+                                       `scheduled_for` TIMESTAMP NOT NULL COMMENT 'The next_run_at value this run was executed for',
+                                       `status` ENUM('EXECUTED', 'FAILED') NOT NULL,
+                                       `transaction_id` INT DEFAULT NULL COMMENT 'Transaction created by the run, if it executed',
+                                       `message` VARCHAR(255) DEFAULT NULL COMMENT 'Failure reason, if any',
+                                       `executed_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                       PRIMARY KEY (`plan_id`, `scheduled_for`) COMMENT 'At most one run per plan and slot, which makes catch-up idempotent',
+                                       FOREIGN KEY (`plan_id`) REFERENCES `recurring_plans`(`plan_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Executed runs of recurring plans';
+
+CREATE TABLE `account_changes` (
+                                   `account_id` INT NOT NULL,
+                                   `version` BIGINT NOT NULL COMMENT 'accounts.change_version allocated by the mutation that wrote this entry',
+                                   `change_type` ENUM('POSITION', 'TRANSACTION', 'PORTFOLIO_RESET') NOT NULL,
+                                   `asset_symbol` VARCHAR(30) NOT NULL DEFAULT '' COMMENT 'Affected position or asset of the transaction; empty for PORTFOLIO_RESET',
+                                   `transaction_id` INT DEFAULT NULL COMMENT 'Logged transaction, for TRANSACTION entries',
+                                   `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                   PRIMARY KEY (`account_id`, `version`, `change_type`, `asset_symbol`) COMMENT 'Delta sync reads a version range of one account',
+                                   FOREIGN KEY (`account_id`) REFERENCES `accounts`(`account_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Per-account change log for delta sync';
+
+CREATE TABLE `pnl_daily_symbol` (
+                                    `account_id` INT NOT NULL,
+                                    `asset_symbol` VARCHAR(30) NOT NULL,
+                                    `bucket_date` DATE NOT NULL COMMENT 'Day of the trades, in server time',
+                                    `realized_pnl` DECIMAL(38, 10) NOT NULL DEFAULT 0 COMMENT 'Sum of transactions.realized_profit_loss',
+                                    `buy_volume` DECIMAL(38, 10) NOT NULL DEFAULT 0 COMMENT 'Fiat value of BUY transactions',
+                                    `sell_volume` DECIMAL(38, 10) NOT NULL DEFAULT 0 COMMENT 'Fiat value of SELL transactions',
+                                    `buy_count` INT NOT NULL DEFAULT 0,
+                                    `sell_count` INT NOT NULL DEFAULT 0,
+                                    PRIMARY KEY (`account_id`, `bucket_date`, `asset_symbol`) COMMENT 'Range queries per account read consecutive days',
+                                    FOREIGN KEY (`account_id`) REFERENCES `accounts`(`account_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Daily realized P&L and volume per account and symbol';
+
+CREATE TABLE `pnl_daily` (
+                             `account_id` INT NOT NULL,
+                             `bucket_date` DATE NOT NULL COMMENT 'Day of the trades, in server time',
+                             `realized_pnl` DECIMAL(38, 10) NOT NULL DEFAULT 0,
+                             `buy_volume` DECIMAL(38, 10) NOT NULL DEFAULT 0,
+                             `sell_volume` DECIMAL(38, 10) NOT NULL DEFAULT 0,
+                             `buy_count` INT NOT NULL DEFAULT 0,
+                             `sell_count` INT NOT NULL DEFAULT 0,
+                             PRIMARY KEY (`account_id`, `bucket_date`),
+                             FOREIGN KEY (`account_id`) REFERENCES `accounts`(`account_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Daily realized P&L and volume per account';
+
+CREATE TABLE `position_lots` (
+                                 `lot_id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                 `account_id` INT NOT NULL,
+                                 `asset_symbol` VARCHAR(30) NOT NULL,
+                                 `transaction_id` INT DEFAULT NULL COMMENT 'BUY transaction that opened the lot',
+                                 `original_quantity` DECIMAL(24, 10) NOT NULL,
+                                 `remaining_quantity` DECIMAL(24, 10) NOT NULL COMMENT 'Unsold part; fully sold lots are deleted',
+                                 `unit_cost` DECIMAL(20, 8) NOT NULL COMMENT 'Purchase price per unit (in fiat)',
+                                 `acquired_at` TIMESTAMP NOT NULL,
+                                 FOREIGN KEY (`account_id`) REFERENCES `accounts`(`account_id`) ON DELETE CASCADE,
+                                 INDEX `idx_position_lot` (`account_id`, `asset_symbol`, `lot_id`) COMMENT 'Keyset paging from either end for FIFO and LIFO'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Open tax lots per position';
+
+CREATE TABLE `lot_matches` (
+                               `match_id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+                               `account_id` INT NOT NULL,
+                               `sell_transaction_id` INT NOT NULL,
+                               `lot_id` BIGINT DEFAULT NULL COMMENT 'Matched lot; NULL for holdings bought before lots were tracked',
+                               `asset_symbol` VARCHAR(30) NOT NULL,
+                               `quantity` DECIMAL(24, 10) NOT NULL,
+                               `unit_cost` DECIMAL(20, 8) NOT NULL,
+                               `sale_price` DECIMAL(20, 8) NOT NULL,
+                               `realized_profit_loss` DECIMAL(20, 8) NOT NULL,
+                               `acquired_at` TIMESTAMP NULL DEFAULT NULL,
+                               INDEX `idx_account_sell_transaction` (`account_id`, `sell_transaction_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Per-lot realized P&L of sells';
+
+CREATE TABLE `feed_leases` (
+                               `lease_name` VARCHAR(50) NOT NULL PRIMARY KEY,
+                               `holder` VARCHAR(100) NOT NULL COMMENT 'Node ID of the current holder',
+                               `endpoint` VARCHAR(255) NOT NULL COMMENT 'host:port the holder serves the role on',
+                               `epoch` BIGINT NOT NULL COMMENT 'Incremented whenever the lease changes hands',
+                               `expires_at` TIMESTAMP(3) NOT NULL COMMENT 'Database time after which another node may take over'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Leases for cluster-wide singleton roles such as the price feed leader';
 
 INSERT INTO `accounts` (`user_identifier`, `balance`, `initial_balance`)
 VALUES ('default_user', 10000.00000000, 10000.00000000);
+
+-- Shard directory; only used on the home shard (the first of persistence.shards.urls).
+CREATE TABLE `account_directory` (
+                                     `account_id` INT NOT NULL PRIMARY KEY COMMENT 'Unique across all shards; allocated from id_sequences',
+                                     `user_identifier` VARCHAR(255) UNIQUE NOT NULL,
+                                     `shard_id` INT NOT NULL COMMENT 'Shard holding the account and all of its rows',
+                                     `updated_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                                     INDEX `idx_shard` (`shard_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Account ID allocation and account-to-shard placement';
+
+INSERT INTO `account_directory` (`account_id`, `user_identifier`, `shard_id`)
+SELECT `account_id`, `user_identifier`, 0 FROM `accounts`;
+
+-- ID sequences; only used on the home shard. Nodes reserve blocks of IDs by advancing next_id.
+CREATE TABLE `id_sequences` (
+                                `sequence_name` VARCHAR(50) NOT NULL PRIMARY KEY,
+                                `next_id` BIGINT NOT NULL COMMENT 'First ID not reserved yet'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Block-wise ID allocation for IDs that are unique across shards';
+
+INSERT INTO `id_sequences` (`sequence_name`, `next_id`)
+SELECT 'account', COALESCE(MAX(`account_id`), 0) + 1 FROM `account_directory`;
+
+-- Replication lag probe; only written when persistence.shards.replica-urls is set.
+CREATE TABLE `replica_heartbeat` (
+                                     `heartbeat_id` VARCHAR(36) NOT NULL PRIMARY KEY COMMENT 'One row per running node',
+                                     `beat_millis` BIGINT NOT NULL COMMENT 'Clock of the writing node; a replica showing it has applied every earlier commit'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Heartbeats written on the primary to measure replica lag';
+
+-- Transaction partitions moved to the archive files under persistence.archive.dir.
+CREATE TABLE `transaction_archives` (
+                                        `partition_name` VARCHAR(20) NOT NULL PRIMARY KEY,
+                                        `period_end` TIMESTAMP NOT NULL COMMENT 'First instant after the archived rows',
+                                        `file_name` VARCHAR(100) DEFAULT NULL COMMENT 'NULL if the partition was empty',
+                                        `row_count` BIGINT NOT NULL,
+                                        `archived_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Transaction months dropped from the transactions table';
+
+-- Competition seasons: the prices the final standings were valued at, and the standings themselves.
+CREATE TABLE `season_prices` (
+                                 `season_name` VARCHAR(50) NOT NULL,
+                                 `asset_symbol` VARCHAR(30) NOT NULL,
+                                 `price` DECIMAL(20, 8) NOT NULL COMMENT 'Latest price when the season was rolled over',
+                                 PRIMARY KEY (`season_name`, `asset_symbol`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Closing prices of a competition season';
+
+CREATE TABLE `season_standings` (
+                                    `season_name` VARCHAR(50) NOT NULL,
+                                    `account_id` INT NOT NULL,
+                                    `user_identifier` VARCHAR(255) NOT NULL,
+                                    `initial_balance` DECIMAL(20, 8) NOT NULL,
+                                    `balance` DECIMAL(20, 8) NOT NULL COMMENT 'Fiat balance at the end of the season',
+                                    `holdings_value` DECIMAL(38, 10) NOT NULL COMMENT 'Positions valued at season_prices, or at cost without a price',
+                                    `total_value` DECIMAL(38, 10) NOT NULL,
+                                    `recorded_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                    PRIMARY KEY (`season_name`, `account_id`),
+                                    INDEX `idx_season_total` (`season_name`, `total_value` DESC)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Final standings of every account per competition season';
+
+-- Ledger reconciliation: the account ID ranges a run has finished, and the differences it found between the
+-- stored balances and positions and the ones rebuilt from the transaction log.
+CREATE TABLE `ledger_checkpoints` (
+                                      `run_id` VARCHAR(20) NOT NULL,
+                                      `from_account_id` INT NOT NULL,
+                                      `to_account_id` INT NOT NULL,
+                                      `account_count` INT NOT NULL,
+                                      `transaction_count` BIGINT NOT NULL COMMENT 'Transactions replayed, including the archived ones',
+                                      `discrepancy_count` INT NOT NULL,
+                                      `changed_account_count` INT NOT NULL COMMENT 'Accounts that traded while being reconciled and were not checked',
+                                      `completed_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                      PRIMARY KEY (`run_id`, `from_account_id`) COMMENT 'A resumed run skips the ranges it finished'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Finished account ID ranges of ledger reconciliation runs';
+
+CREATE TABLE `ledger_discrepancies` (
+                                        `run_id` VARCHAR(20) NOT NULL,
+                                        `account_id` INT NOT NULL COMMENT 'No foreign key, so the report outlives the account',
+                                        `asset_symbol` VARCHAR(30) NOT NULL DEFAULT '' COMMENT 'Empty for BALANCE',
+                                        `discrepancy_type` ENUM('BALANCE', 'QUANTITY', 'AVERAGE_PRICE') NOT NULL,
+                                        `expected_value` DECIMAL(38, 10) NOT NULL COMMENT 'Rebuilt from the transaction log',
+                                        `actual_value` DECIMAL(38, 10) NOT NULL COMMENT 'Stored in accounts or portfolio_assets',
+                                        `repaired` BOOLEAN NOT NULL DEFAULT FALSE,
+                                        `recorded_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                        PRIMARY KEY (`run_id`, `account_id`, `asset_symbol`, `discrepancy_type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Differences found by ledger reconciliation runs';
@@ -15,7 +15,11 @@ document.addEventListener('DOMContentLoaded', () => {
     const resetAccountBtn = document.getElementById('resetAccountBtn');
     const notificationArea = document.getElementById('notificationArea');
 
-    let availableCryptoForTrading = []; // To store symbols like "XBT/USD" for dropdowns
+    let availableCryptoForTrading = []; // Symbols with a live price, shown in the prices table
+    let selectedSymbolStream = null; // Keeps the backend subscribed to the symbol selected in the buy form
+    const TRANSACTION_LIMIT = 50; // Most recent transactions shown in the history table
+    let lastPositions = []; // Holdings from the last dashboard load, revalued locally on price refreshes
+    let accountETag = null; // Version of the account state the page currently shows
 
     // --- UTILITY FUNCTIONS ---
     function showNotification(message, type = 'info', duration = 4000) {
@@ -81,131 +85,133 @@ document.addEventListener('DOMContentLoaded', () => {
         }
     }
 
-    async function fetchAndDisplayPrices() {
-        try {
-            const prices = await fetchData('/prices');
-            if (!prices) {
-                cryptoPricesTableBody.innerHTML = '<tr><td colspan="3" class="text-center py-4">Could not load prices.</td></tr>';
-                return;
-            }
+    function renderPrices(prices) {
+        if (!prices) {
+            cryptoPricesTableBody.innerHTML = '<tr><td colspan="3" class="text-center py-4">Could not load prices.</td></tr>';
+            return;
+        }
 
-            availableCryptoForTrading = Object.keys(prices); // Store symbols like "XBT/USD"
+        availableCryptoForTrading = Object.keys(prices); // Store symbols like "XBT/USD"
 
-            if (availableCryptoForTrading.length === 0) {
-                cryptoPricesTableBody.innerHTML = '<tr><td colspan="3" class="text-center py-4">No cryptocurrency prices available currently.</td></tr>';
-                updateTradeFormSymbols([]); // Clear dropdowns
-                return;
-            }
+        if (availableCryptoForTrading.length === 0) {
+            cryptoPricesTableBody.innerHTML = '<tr><td colspan="3" class="text-center py-4">No cryptocurrency prices available currently.</td></tr>';
+            return;
+        }
+
+        cryptoPricesTableBody.innerHTML = ''; // Clear existing rows or loader
+        availableCryptoForTrading.forEach(symbol => {
+            const price = prices[symbol];
+            const [base, quote] = symbol.split('/'); // e.g., XBT from XBT/USD
+            const row = `
+                <tr>
+                    <td class="font-medium text-sky-400">${symbol}</td>
+                    <td>${base}</td>
+                    <td class="font-semibold text-emerald-400">${formatCurrency(price, quote)}</td>
+                </tr>
+            `;
+            cryptoPricesTableBody.insertAdjacentHTML('beforeend', row);
+        });
+    }
+
+    function renderAccountDetails(account) {
+        if (account) {
+            accountBalanceDisplay.textContent = formatCurrency(account.balance);
+            if (userIdentifierDisplay) userIdentifierDisplay.textContent = account.userIdentifier;
+        } else {
+            accountBalanceDisplay.textContent = formatCurrency(0); // Default if error
+            if (userIdentifierDisplay) userIdentifierDisplay.textContent = USER_IDENTIFIER;
+        }
+    }
 
-            cryptoPricesTableBody.innerHTML = ''; // Clear existing rows or loader
-            availableCryptoForTrading.forEach(symbol => {
-                const price = prices[symbol];
-                const [base, quote] = symbol.split('/'); // e.g., XBT from XBT/USD
+    function renderPortfolio(positions) {
+        const selectedSellSymbol = sellCryptoSymbolSelect.value;
+        sellCryptoSymbolSelect.innerHTML = '<option value="">Select Crypto</option>'; // Clear and add default
+
+        if (positions && positions.length > 0) {
+            portfolioTableBody.innerHTML = ''; // Clear existing
+            positions.forEach(asset => {
                 const row = `
                     <tr>
-                        <td class="font-medium text-sky-400">${symbol}</td>
-                        <td>${base}</td>
-                        <td class="font-semibold text-emerald-400">${formatCurrency(price, quote)}</td>
+                        <td class="font-medium text-sky-400">${asset.assetSymbol}</td>
+                        <td>${formatCryptoQuantity(asset.quantity)}</td>
+                        <td>${formatCurrency(asset.averagePurchasePrice)}</td>
+                        <td class="font-semibold text-emerald-400">${formatCurrency(asset.currentMarketValue)}</td>
                     </tr>
                 `;
-                cryptoPricesTableBody.insertAdjacentHTML('beforeend', row);
+                portfolioTableBody.insertAdjacentHTML('beforeend', row);
+
+                // Populate sell dropdown
+                const option = document.createElement('option');
+                option.value = asset.assetSymbol;
+                option.textContent = `${asset.assetSymbol} (Qty: ${formatCryptoQuantity(asset.quantity)})`;
+                sellCryptoSymbolSelect.appendChild(option);
             });
-            updateTradeFormSymbols(availableCryptoForTrading);
-        } catch (error) {
-            cryptoPricesTableBody.innerHTML = '<tr><td colspan="3" class="text-center py-4">Failed to load prices. Check console.</td></tr>';
+            sellCryptoSymbolSelect.value = selectedSellSymbol; // Keep the user's selection across refreshes
+        } else {
+            portfolioTableBody.innerHTML = '<tr><td colspan="4" class="text-center py-4">Your portfolio is empty.</td></tr>';
         }
     }
 
-    async function fetchAndDisplayAccountDetails() {
-        try {
-            const account = await fetchData(`/account/${USER_IDENTIFIER}`);
-            if (account) {
-                accountBalanceDisplay.textContent = formatCurrency(account.balance);
-                if (userIdentifierDisplay) userIdentifierDisplay.textContent = account.userIdentifier;
-            } else {
-                accountBalanceDisplay.textContent = formatCurrency(0); // Default if error
-                if (userIdentifierDisplay) userIdentifierDisplay.textContent = USER_IDENTIFIER;
-            }
-        } catch (error) {
-            accountBalanceDisplay.textContent = 'Error';
-        }
-    }
+    function renderTransactions(transactions) {
+        if (transactions && transactions.length > 0) {
+            transactionHistoryTableBody.innerHTML = ''; // Clear existing
+            transactions.forEach(tx => {
+                let profitLossDisplay = 'N/A';
+                let profitLossClass = 'badge-neutral';
+                if (tx.transactionType === 'SELL' && tx.realizedProfitLoss !== null && tx.realizedProfitLoss !== undefined) {
+                    const pnl = Number(tx.realizedProfitLoss);
+                    if (pnl > 0) {
+                        profitLossDisplay = `+${formatCurrency(pnl)}`;
+                        profitLossClass = 'badge-success';
+                    } else if (pnl < 0) {
+                        profitLossDisplay = formatCurrency(pnl);
+                        profitLossClass = 'badge-danger';
+                    } else {
+                        profitLossDisplay = formatCurrency(pnl); // Zero P/L
+                    }
+                }
 
-    async function fetchAndDisplayPortfolio() {
-        try {
-            const portfolio = await fetchData(`/account/${USER_IDENTIFIER}/portfolio`);
-            sellCryptoSymbolSelect.innerHTML = '<option value="">Select Crypto</option>'; // Clear and add default
-
-            if (portfolio && portfolio.length > 0) {
-                portfolioTableBody.innerHTML = ''; // Clear existing
-                portfolio.forEach(asset => {
-                    const row = `
-                        <tr>
-                            <td class="font-medium text-sky-400">${asset.assetSymbol}</td>
-                            <td>${formatCryptoQuantity(asset.quantity)}</td>
-                            <td>${formatCurrency(asset.averagePurchasePrice)}</td>
-                            <td class="font-semibold text-emerald-400">${formatCurrency(asset.currentMarketValue)}</td>
-                        </tr>
-                    `;
-                    portfolioTableBody.insertAdjacentHTML('beforeend', row);
-
-                    // Populate sell dropdown
-                    const option = document.createElement('option');
-                    option.value = asset.assetSymbol;
-                    option.textContent = `${asset.assetSymbol} (Qty: ${formatCryptoQuantity(asset.quantity)})`;
-                    sellCryptoSymbolSelect.appendChild(option);
-                });
-            } else {
-                portfolioTableBody.innerHTML = '<tr><td colspan="4" class="text-center py-4">Your portfolio is empty.</td></tr>';
-            }
-        } catch (error) {
-            portfolioTableBody.innerHTML = '<tr><td colspan="4" class="text-center py-4">Failed to load portfolio.</td></tr>';
+                const row = `
+                    <tr>
+                        <td>${formatDate(tx.transactionTimestamp)}</td>
+                        <td><span class="badge ${tx.transactionType === 'BUY' ? 'badge-success' : 'badge-danger'}">${tx.transactionType}</span></td>
+                        <td class="font-medium text-sky-400">${tx.assetSymbol}</td>
+                        <td>${formatCryptoQuantity(tx.quantity)}</td>
+                        <td>${formatCurrency(tx.pricePerUnit)}</td>
+                        <td>${formatCurrency(tx.totalTransactionValue)}</td>
+                        <td><span class="badge ${profitLossClass}">${profitLossDisplay}</span></td>
+                    </tr>
+                `;
+                transactionHistoryTableBody.insertAdjacentHTML('beforeend', row);
+            });
+        } else {
+            transactionHistoryTableBody.innerHTML = '<tr><td colspan="7" class="text-center py-4">No transactions yet.</td></tr>';
         }
     }
 
-    async function fetchAndDisplayTransactions() {
+    // Loads account, prices, portfolio and recent transactions with a single request.
+    // All values in the response come from the same price snapshot.
+    async function fetchAndDisplayDashboard() {
         try {
-            const transactions = await fetchData(`/account/${USER_IDENTIFIER}/transactions`);
-            if (transactions && transactions.length > 0) {
-                transactionHistoryTableBody.innerHTML = ''; // Clear existing
-                transactions.forEach(tx => {
-                    let profitLossDisplay = 'N/A';
-                    let profitLossClass = 'badge-neutral';
-                    if (tx.transactionType === 'SELL' && tx.realizedProfitLoss !== null && tx.realizedProfitLoss !== undefined) {
-                        const pnl = Number(tx.realizedProfitLoss);
-                        if (pnl > 0) {
-                            profitLossDisplay = `+${formatCurrency(pnl)}`;
-                            profitLossClass = 'badge-success';
-                        } else if (pnl < 0) {
-                            profitLossDisplay = formatCurrency(pnl);
-                            profitLossClass = 'badge-danger';
-                        } else {
-                            profitLossDisplay = formatCurrency(pnl); // Zero P/L
-                        }
-                    }
-
-                    const row = `
-                        <tr>
-                            <td>${formatDate(tx.transactionTimestamp)}</td>
-                            <td><span class="badge ${tx.transactionType === 'BUY' ? 'badge-success' : 'badge-danger'}">${tx.transactionType}</span></td>
-                            <td class="font-medium text-sky-400">${tx.assetSymbol}</td>
-                            <td>${formatCryptoQuantity(tx.quantity)}</td>
-                            <td>${formatCurrency(tx.pricePerUnit)}</td>
-                            <td>${formatCurrency(tx.totalTransactionValue)}</td>
-                            <td><span class="badge ${profitLossClass}">${profitLossDisplay}</span></td>
-                        </tr>
-                    `;
-                    transactionHistoryTableBody.insertAdjacentHTML('beforeend', row);
-                });
-            } else {
-                transactionHistoryTableBody.innerHTML = '<tr><td colspan="7" class="text-center py-4">No transactions yet.</td></tr>';
+            const dashboard = await fetchData(`/account/${USER_IDENTIFIER}/dashboard?transactionLimit=${TRANSACTION_LIMIT}`);
+            if (!dashboard) {
+                return;
             }
+            lastPositions = dashboard.positions || [];
+            renderAccountDetails(dashboard.account);
+            renderPrices(dashboard.prices);
+            renderPortfolio(lastPositions);
+            renderTransactions(dashboard.recentTransactions);
         } catch (error) {
+            accountBalanceDisplay.textContent = 'Error';
+            cryptoPricesTableBody.innerHTML = '<tr><td colspan="3" class="text-center py-4">Failed to load prices. Check console.</td></tr>';
+            portfolioTableBody.innerHTML = '<tr><td colspan="4" class="text-center py-4">Failed to load portfolio.</td></tr>';
             transactionHistoryTableBody.innerHTML = '<tr><td colspan="7" class="text-center py-4">Failed to load transaction history.</td></tr>';
         }
     }
 
     function updateTradeFormSymbols(symbols) {
+        const selectedBuySymbol = buyCryptoSymbolSelect.value;
         buyCryptoSymbolSelect.innerHTML = '<option value="">Select Crypto</option>'; // Clear and add default
         symbols.forEach(symbol => {
             const option = document.createElement('option');
@@ -213,6 +219,52 @@ document.addEventListener('DOMContentLoaded', () => {
             option.textContent = symbol;
             buyCryptoSymbolSelect.appendChild(option.cloneNode(true)); // Use cloneNode for buy, sell list is from portfolio
         });
+        buyCryptoSymbolSelect.value = selectedBuySymbol; // Keep the user's selection across refreshes
+    }
+
+    // The backend only ingests symbols somebody uses; streaming the selected one subscribes it,
+    // so its price is live by the time the order is submitted.
+    function streamSelectedSymbol(symbol) {
+        if (selectedSymbolStream) {
+            selectedSymbolStream.close();
+            selectedSymbolStream = null;
+        }
+        if (!symbol) {
+            return;
+        }
+        selectedSymbolStream = new EventSource(`${API_BASE_URL}/api/prices/stream?symbols=${encodeURIComponent(symbol)}`);
+        selectedSymbolStream.addEventListener('prices', event => {
+            const prices = JSON.parse(event.data);
+            buyCryptoSymbolSelect.title = prices[symbol] ? `Last price: ${prices[symbol]}` : '';
+        });
+    }
+
+    buyCryptoSymbolSelect.addEventListener('change', () => streamSelectedSymbol(buyCryptoSymbolSelect.value));
+
+    // Conditional GET on the account: the server answers 304 from its in-memory version counter
+    // without touching the database, so polling for changes is cheap.
+    async function hasAccountChanged() {
+        const headers = accountETag ? { 'If-None-Match': accountETag } : {};
+        const response = await fetch(`${API_BASE_URL}/api/account/${USER_IDENTIFIER}`, { headers, cache: 'no-store' });
+        if (response.status === 304) {
+            return false;
+        }
+        if (!response.ok) {
+            throw new Error(`HTTP error! Status: ${response.status}`);
+        }
+        accountETag = response.headers.get('ETag');
+        return true;
+    }
+
+    // Values the known holdings at the latest prices, for refreshes where the holdings did not change
+    function revaluePositions(positions, prices) {
+        return positions.map(position => {
+            const price = prices[position.assetSymbol];
+            if (price === null || price === undefined) {
+                return position;
+            }
+            return { ...position, currentPrice: price, currentMarketValue: Number(position.quantity) * Number(price) };
+        });
     }
 
 
@@ -295,49 +347,31 @@ document.addEventListener('DOMContentLoaded', () => {
         if (portfolioTableBody) portfolioTableBody.innerHTML = '<tr><td colspan="4" class="text-center py-4"><div class="loader"></div> Loading portfolio...</td></tr>';
         if (transactionHistoryTableBody) transactionHistoryTableBody.innerHTML = '<tr><td colspan="7" class="text-center py-4"><div class="loader"></div> Loading transactions...</td></tr>';
 
-
-        await fetchAndDisplayAccountDetails(); // Fetch balance first
-        await fetchAndDisplayPrices(); // Prices needed for trade forms and portfolio enrichment
-        await fetchAndDisplayPortfolio(); // Portfolio needed for sell form
-        await fetchAndDisplayTransactions();
+        const symbols = await fetchData('/prices/symbols').catch(() => null);
+        updateTradeFormSymbols(symbols || []);
+        await fetchAndDisplayDashboard();
     }
 
     // Initial data load
     fetchAllData();
 
-    // Periodically refresh prices (e.g., every 10 seconds)
-    // The Kraken WebSocket on the backend should keep prices up-to-date,
-    // so this polling might be for reflecting those latest cached prices.
+    // Periodically refresh (e.g., every 10 seconds)
+    // The Kraken WebSocket on the backend should keep prices up-to-date, so prices are always refetched
+    // (they are served from memory). The account state is only reloaded when its version changed.
     const PRICE_REFRESH_INTERVAL = 10000; // 10 seconds
     setInterval(async () => {
         try {
+            if (await hasAccountChanged()) {
+                await fetchAndDisplayDashboard();
+                return;
+            }
             const prices = await fetchData('/prices');
             if (prices) {
-                availableCryptoForTrading = Object.keys(prices);
-                if (cryptoPricesTableBody.querySelector('.loader')) { // If it's still showing initial loader
-                    fetchAndDisplayPrices(); // Full redraw
-                } else {
-                    // More granular update if needed to avoid full table redraw
-                    availableCryptoForTrading.forEach(symbol => {
-                        const price = prices[symbol];
-                        const [base, quote] = symbol.split('/');
-                        // Find the row and update price cell if it exists
-                        const rows = cryptoPricesTableBody.querySelectorAll('tr');
-                        for (const row of rows) {
-                            const symbolCell = row.cells[0];
-                            if (symbolCell && symbolCell.textContent === symbol) {
-                                row.cells[2].textContent = formatCurrency(price, quote);
-                                break;
-                            }
-                        }
-                    });
-                }
-                updateTradeFormSymbols(availableCryptoForTrading);
-                // Also refresh portfolio for current market values
-                fetchAndDisplayPortfolio();
+                renderPrices(prices);
+                renderPortfolio(revaluePositions(lastPositions, prices));
             }
         } catch (error) {
-            console.warn("Periodic price refresh failed:", error.message);
+            console.warn("Periodic refresh failed:", error.message);
         }
     }, PRICE_REFRESH_INTERVAL);
 
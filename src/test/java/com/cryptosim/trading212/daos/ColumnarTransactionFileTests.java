@@ -0,0 +1,150 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the columnar transaction archive file format.
+ */
+class ColumnarTransactionFileTests {
+
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("transactions", ".ctx");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void readAccount_returnsEveryRowOfTheAccountUnchanged() throws IOException {
+        List<Transaction> written = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        int id = 1;
+        // Enough rows for several row groups, with accounts spanning group boundaries
+        for (int accountId = 1; accountId <= 40; accountId++) {
+            for (int i = 0; i < 500; i++) {
+                boolean sell = i % 3 == 0;
+                Transaction transaction = new Transaction();
+                transaction.setTransactionId(id++);
+                transaction.setAccountId(accountId);
+                transaction.setAssetSymbol(i % 2 == 0 ? "XBT/USD" : "ETH/USD");
+                transaction.setTransactionType(sell ? TransactionType.SELL : TransactionType.BUY);
+                transaction.setQuantity(new BigDecimal("0.0012345678").multiply(BigDecimal.valueOf(i + 1)));
+                transaction.setPricePerUnit(new BigDecimal("43210.12345678"));
+                transaction.setTotalTransactionValue(transaction.getQuantity().multiply(transaction.getPricePerUnit()));
+                transaction.setTransactionTimestamp(start.minusMinutes(i));
+                transaction.setRealizedProfitLoss(sell ? new BigDecimal("-12.34000000") : null);
+                written.add(transaction);
+            }
+        }
+        // A value too large for the compact decimal encoding
+        written.get(written.size() - 1).setTotalTransactionValue(new BigDecimal("123456789012345678901234567.0123456789"));
+
+        try (ColumnarTransactionFile.Writer writer = new ColumnarTransactionFile.Writer(path)) {
+            for (Transaction transaction : written) {
+                writer.append(transaction);
+            }
+            writer.finish();
+        }
+
+        ColumnarTransactionFile.Footer footer = ColumnarTransactionFile.readFooter(path);
+        assertEquals(written.size(), footer.rows);
+        assertTrue(footer.groups.size() > 1);
+        for (int accountId : new int[]{1, 9, 40}) {
+            List<Transaction> expected = written.stream().filter(t -> t.getAccountId() == accountId).toList();
+            List<Transaction> read = ColumnarTransactionFile.readAccount(path, footer, accountId);
+            assertEquals(expected.size(), read.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSameTransaction(expected.get(i), read.get(i));
+            }
+        }
+        assertTrue(ColumnarTransactionFile.readAccount(path, footer, 41).isEmpty());
+    }
+
+    @Test
+    void readRange_streamsOnlyTheAccountsOfTheRange() throws IOException {
+        try (ColumnarTransactionFile.Writer writer = new ColumnarTransactionFile.Writer(path)) {
+            for (int accountId = 1; accountId <= 30; accountId++) {
+                for (int i = 0; i < 1000; i++) {
+                    writer.append(transaction(accountId));
+                }
+            }
+            writer.finish();
+        }
+
+        ColumnarTransactionFile.Footer footer = ColumnarTransactionFile.readFooter(path);
+        List<Integer> accountIds = new ArrayList<>();
+        long rows = ColumnarTransactionFile.readRange(path, footer, 10, 19, transaction -> accountIds.add(transaction.getAccountId()));
+        assertEquals(10_000, rows);
+        assertEquals(10_000, accountIds.size());
+        assertEquals(10, accountIds.get(0).intValue());
+        assertEquals(19, accountIds.get(accountIds.size() - 1).intValue());
+        assertEquals(0, ColumnarTransactionFile.readRange(path, footer, 31, 40, transaction -> fail("Account 31 and later are not in the file")));
+    }
+
+    @Test
+    void append_rejectsRowsOutOfAccountOrder() throws IOException {
+        try (ColumnarTransactionFile.Writer writer = new ColumnarTransactionFile.Writer(path)) {
+            writer.append(transaction(2));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(transaction(1)));
+        }
+    }
+
+    @Test
+    void readFooter_rejectsUnfinishedFile() throws IOException {
+        try (ColumnarTransactionFile.Writer writer = new ColumnarTransactionFile.Writer(path)) {
+            for (int i = 0; i < 10; i++) {
+                writer.append(transaction(1));
+            }
+            writer.finish();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        assertThrows(IOException.class, () -> ColumnarTransactionFile.readFooter(path));
+    }
+
+    private static Transaction transaction(int accountId) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(accountId);
+        transaction.setAccountId(accountId);
+        transaction.setAssetSymbol("XBT/USD");
+        transaction.setTransactionType(TransactionType.BUY);
+        transaction.setQuantity(BigDecimal.ONE);
+        transaction.setPricePerUnit(BigDecimal.TEN);
+        transaction.setTotalTransactionValue(BigDecimal.TEN);
+        transaction.setTransactionTimestamp(LocalDateTime.of(2026, 1, 1, 12, 0));
+        return transaction;
+    }
+
+    private static void assertSameTransaction(Transaction expected, Transaction actual) {
+        assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        assertEquals(expected.getAccountId(), actual.getAccountId());
+        assertEquals(expected.getAssetSymbol(), actual.getAssetSymbol());
+        assertEquals(expected.getTransactionType(), actual.getTransactionType());
+        assertEquals(expected.getQuantity(), actual.getQuantity());
+        assertEquals(expected.getPricePerUnit(), actual.getPricePerUnit());
+        assertEquals(expected.getTotalTransactionValue(), actual.getTotalTransactionValue());
+        assertEquals(expected.getTransactionTimestamp(), actual.getTransactionTimestamp());
+        assertEquals(expected.getRealizedProfitLoss(), actual.getRealizedProfitLoss());
+    }
+}
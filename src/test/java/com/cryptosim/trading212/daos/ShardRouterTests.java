@@ -0,0 +1,186 @@
+package com.cryptosim.trading212.daos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for account-sharded routing, against three embedded H2 databases in MySQL mode.
+ */
+class ShardRouterTests {
+
+    private static final int SHARDS = 3;
+
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private ShardRouter shardRouter;
+    private JdbcTemplate routed;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:shard" + shard + "-" + run + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE accounts (account_id INT PRIMARY KEY, user_identifier VARCHAR(255) NOT NULL UNIQUE)");
+            jdbcTemplate.execute("CREATE TABLE orders (order_id INT AUTO_INCREMENT PRIMARY KEY, account_id INT NOT NULL, asset_symbol VARCHAR(30) NOT NULL)");
+            dataSources.add(dataSource);
+            shards.add(jdbcTemplate);
+        }
+        shards.get(ShardRouter.HOME_SHARD).execute("CREATE TABLE account_directory (account_id INT PRIMARY KEY, " +
+                "user_identifier VARCHAR(255) NOT NULL UNIQUE, shard_id INT NOT NULL)");
+        shards.get(ShardRouter.HOME_SHARD).execute("CREATE TABLE id_sequences (sequence_name VARCHAR(50) PRIMARY KEY, next_id BIGINT NOT NULL)");
+        shards.get(ShardRouter.HOME_SHARD).execute("INSERT INTO id_sequences VALUES ('account', 1)");
+        shardRouter = new ShardRouter(dataSources);
+        routed = new JdbcTemplate(shardRouter.getRoutingDataSource());
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The databases are named per test, so they are left to the JVM
+        shardRouter.close();
+    }
+
+    private int createAccount(String userIdentifier) {
+        int accountId = shardRouter.registerAccount(userIdentifier);
+        routed.update("INSERT INTO accounts (account_id, user_identifier) VALUES (?, ?)", accountId, userIdentifier);
+        return accountId;
+    }
+
+    private static int countOn(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    @Test
+    void placement_isStableAndOnlyMovesUsersToAnAddedShard() {
+        int[] perShard = new int[SHARDS];
+        for (int i = 0; i < 30_000; i++) {
+            String user = "user-" + i;
+            int shard = ShardRouter.placementOf(user, SHARDS);
+            assertEquals(shard, ShardRouter.placementOf(user, SHARDS));
+            perShard[shard]++;
+
+            int grown = ShardRouter.placementOf(user, SHARDS + 1);
+            assertTrue(grown == shard || grown == SHARDS, "A user may only move to the new shard");
+        }
+        for (int count : perShard) {
+            assertTrue(count > 9_000 && count < 11_000, "Uneven spread: " + count);
+        }
+    }
+
+    @Test
+    void registerAccount_writesTheAccountOnItsPlacedShardOnly() {
+        int accountId = createAccount("alice");
+        int shard = ShardRouter.placementOf("alice", SHARDS);
+
+        assertEquals(shard, shardRouter.shardOfUser("alice"));
+        assertEquals(shard, shardRouter.shardOfAccount(accountId));
+        for (int other = 0; other < SHARDS; other++) {
+            assertEquals(other == shard ? 1 : 0, countOn(shards.get(other), "SELECT COUNT(*) FROM accounts"));
+        }
+
+        // Registering again returns the existing entry instead of allocating a second ID
+        assertEquals(accountId, shardRouter.registerAccount("alice"));
+        assertNotEquals(accountId, createAccount("bob"));
+    }
+
+    @Test
+    void registerAccounts_allocatesUniqueIdsAndKeepsExistingEntries() {
+        int aliceId = createAccount("alice");
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            users.add("user-" + i);
+        }
+        users.add("alice");
+
+        Map<String, Integer> accountIds = shardRouter.registerAccounts(users);
+
+        assertEquals(users.size(), accountIds.size());
+        assertEquals(aliceId, (int) accountIds.get("alice"));
+        assertEquals(users.size(), accountIds.values().stream().distinct().count());
+        for (String user : users) {
+            assertEquals(ShardRouter.placementOf(user, SHARDS), shardRouter.shardOfAccount(accountIds.get(user)));
+        }
+        // Single registrations draw from their own block, so they never collide with a bulk range
+        assertFalse(accountIds.containsValue(createAccount("bob")));
+        assertEquals(users.size() + 1, countOn(shards.get(ShardRouter.HOME_SHARD), "SELECT COUNT(*) FROM account_directory"));
+    }
+
+    @Test
+    void routeToAccount_sendsIdOnlyStatementsToTheAccountsShard() {
+        List<Integer> accountIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            accountIds.add(createAccount("user-" + i));
+        }
+        for (int accountId : accountIds) {
+            shardRouter.routeToAccount(accountId);
+            routed.update("INSERT INTO orders (account_id, asset_symbol) VALUES (?, 'BTC/USD')", accountId);
+        }
+        for (int accountId : accountIds) {
+            JdbcTemplate home = shards.get(shardRouter.shardOfAccount(accountId));
+            assertEquals(1, (int) home.queryForObject("SELECT COUNT(*) FROM orders o JOIN accounts a ON a.account_id = o.account_id " +
+                    "WHERE a.account_id = ?", Integer.class, accountId));
+        }
+    }
+
+    @Test
+    void unknownUser_resolvesToTheHomeShard() {
+        assertEquals(ShardRouter.HOME_SHARD, shardRouter.shardOfUser("created-before-sharding"));
+        assertEquals(ShardRouter.HOME_SHARD, shardRouter.shardOfAccount(12345));
+    }
+
+    @Test
+    void fanOut_queriesEveryShardAndMergesCounts() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            for (int i = 0; i <= shard; i++) {
+                shards.get(shard).update("INSERT INTO orders (account_id, asset_symbol) VALUES (?, 'ETH/USD')", i);
+            }
+            shards.get(shard).update("INSERT INTO orders (account_id, asset_symbol) VALUES (?, 'BTC/USD')", shard);
+        }
+
+        List<Map<String, Integer>> perShard = shardRouter.fanOut(shard -> {
+            Map<String, Integer> counts = new HashMap<>();
+            routed.query("SELECT asset_symbol, COUNT(*) AS n FROM orders GROUP BY asset_symbol", rs -> {
+                counts.put(rs.getString("asset_symbol"), rs.getInt("n"));
+            });
+            return counts;
+        });
+
+        assertEquals(SHARDS, perShard.size());
+        assertEquals(3, (int) perShard.get(2).get("ETH/USD"));
+        Map<String, Integer> merged = ShardRouter.mergeCounts(perShard);
+        assertEquals(6, (int) merged.get("ETH/USD"));
+        assertEquals(3, (int) merged.get("BTC/USD"));
+    }
+
+    @Test
+    void transaction_isPinnedToTheFirstShardItUses() {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(shardRouter.getRoutingDataSource()));
+        shardRouter.routeTo(1);
+
+        transaction.executeWithoutResult(status -> {
+            routed.update("INSERT INTO orders (account_id, asset_symbol) VALUES (1, 'BTC/USD')");
+            shardRouter.routeTo(1);
+            assertThrows(IllegalStateException.class, () -> shardRouter.routeTo(2));
+            assertThrows(IllegalStateException.class, () -> shardRouter.fanOut(shard -> shard));
+        });
+
+        // Pinning ends with the transaction
+        shardRouter.routeTo(2);
+        assertEquals(1, countOn(shards.get(1), "SELECT COUNT(*) FROM orders"));
+        assertEquals(0, countOn(shards.get(2), "SELECT COUNT(*) FROM orders"));
+    }
+}
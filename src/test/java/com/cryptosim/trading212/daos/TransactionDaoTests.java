@@ -0,0 +1,174 @@
+package com.cryptosim.trading212.daos;
+
+import com.cryptosim.trading212.daos.contracts.TransactionArchiveDao;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for reading an account's history across the transactions table and the archive, against an embedded
+ * H2 database in MySQL mode and an in-memory archive.
+ */
+class TransactionDaoTests {
+
+    private static final int ACCOUNT_ID = 7;
+    private static final LocalDateTime MAY = LocalDateTime.of(2026, 5, 20, 12, 0);
+    private static final LocalDateTime JUNE = LocalDateTime.of(2026, 6, 10, 9, 30);
+
+    private final InMemoryTransactionArchiveDao archive = new InMemoryTransactionArchiveDao();
+    private ShardRouter shardRouter;
+    private JdbcTemplate table;
+    private TransactionDaoImpl transactionDao;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:transactions-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        table = new JdbcTemplate(dataSource);
+        table.execute("CREATE TABLE transactions (transaction_id INT NOT NULL, account_id INT NOT NULL, " +
+                "asset_symbol VARCHAR(30) NOT NULL, transaction_type VARCHAR(4) NOT NULL, quantity DECIMAL(24, 10) NOT NULL, " +
+                "price_per_unit DECIMAL(20, 8) NOT NULL, total_transaction_value DECIMAL(38, 10) NOT NULL, " +
+                "transaction_timestamp TIMESTAMP NOT NULL, realized_profit_loss DECIMAL(20, 8), " +
+                "PRIMARY KEY (transaction_id, transaction_timestamp))");
+        shardRouter = new ShardRouter(List.of(dataSource));
+        transactionDao = new TransactionDaoImpl(new JdbcTemplate(shardRouter.getRoutingDataSource()), shardRouter, archive);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The database is named per test, so it is left to the JVM
+        shardRouter.close();
+    }
+
+    @Test
+    void findPage_crossesFromTheTableIntoTheArchive() {
+        for (int id = 1; id <= 4; id++) {
+            archive.add(transaction(id, MAY.plusMinutes(id)));
+        }
+        for (int id = 5; id <= 7; id++) {
+            insert(transaction(id, JUNE.plusMinutes(id)));
+        }
+
+        // A full page newer than the archive is served by the table alone
+        assertIds(List.of(7, 6, 5), transactionDao.findPageByAccountId(ACCOUNT_ID, null, null, 3));
+
+        List<Transaction> first = transactionDao.findPageByAccountId(ACCOUNT_ID, null, null, 5);
+        assertIds(List.of(7, 6, 5, 4, 3), first);
+        Transaction last = first.get(first.size() - 1);
+        assertIds(List.of(2, 1), transactionDao.findPageByAccountId(ACCOUNT_ID, last.getTransactionTimestamp(), last.getTransactionId(), 5));
+
+        assertIds(List.of(4, 3, 2), transactionDao.findPageByAccountId(ACCOUNT_ID, JUNE.plusMinutes(5), 5, 3));
+    }
+
+    @Test
+    void findPage_ordersEqualTimestampsAcrossTheTableAndTheArchiveById() {
+        archive.add(transaction(1, MAY));
+        archive.add(transaction(3, JUNE));
+        insert(transaction(2, JUNE));
+        insert(transaction(4, JUNE));
+        insert(transaction(5, JUNE.plusSeconds(1)));
+
+        assertIds(List.of(5, 4, 3, 2, 1), transactionDao.findPageByAccountId(ACCOUNT_ID, null, null, 10));
+        assertIds(List.of(5, 4), transactionDao.findPageByAccountId(ACCOUNT_ID, null, null, 2));
+        // The cursor sits on a table row; the next rows of the same second come from both sources
+        assertIds(List.of(3, 2), transactionDao.findPageByAccountId(ACCOUNT_ID, JUNE, 4, 2));
+        assertIds(List.of(2, 1), transactionDao.findPageByAccountId(ACCOUNT_ID, JUNE, 3, 2));
+        assertIds(List.of(1), transactionDao.findPageByAccountId(ACCOUNT_ID, JUNE, 2, 2));
+    }
+
+    @Test
+    void findPage_returnsRowsOfAPartitionInBothTiersOnce() {
+        // May was archived, but its partition is not dropped yet
+        for (int id = 1; id <= 3; id++) {
+            archive.add(transaction(id, MAY.plusMinutes(id)));
+            insert(transaction(id, MAY.plusMinutes(id)));
+        }
+        insert(transaction(4, JUNE));
+
+        assertIds(List.of(4, 3, 2, 1), transactionDao.findPageByAccountId(ACCOUNT_ID, null, null, 10));
+        assertIds(List.of(4, 3), transactionDao.findPageByAccountId(ACCOUNT_ID, null, null, 2));
+        assertIds(List.of(2, 1), transactionDao.findPageByAccountId(ACCOUNT_ID, MAY.plusMinutes(3), 3, 2));
+        assertIds(List.of(4, 3, 2, 1), transactionDao.findByAccountId(ACCOUNT_ID));
+    }
+
+    private void insert(Transaction transaction) {
+        table.update("INSERT INTO transactions VALUES (?, ?, ?, ?, ?, ?, ?, ?, NULL)", transaction.getTransactionId(),
+                transaction.getAccountId(), transaction.getAssetSymbol(), transaction.getTransactionType().name(),
+                transaction.getQuantity(), transaction.getPricePerUnit(), transaction.getTotalTransactionValue(),
+                Timestamp.valueOf(transaction.getTransactionTimestamp()));
+    }
+
+    private static Transaction transaction(int transactionId, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setAccountId(ACCOUNT_ID);
+        transaction.setAssetSymbol("XBT/USD");
+        transaction.setTransactionType(TransactionType.BUY);
+        transaction.setQuantity(new BigDecimal("0.1"));
+        transaction.setPricePerUnit(new BigDecimal("40000"));
+        transaction.setTotalTransactionValue(new BigDecimal("4000"));
+        transaction.setTransactionTimestamp(timestamp);
+        return transaction;
+    }
+
+    private static void assertIds(List<Integer> expected, List<Transaction> transactions) {
+        assertEquals(expected, transactions.stream().map(Transaction::getTransactionId).toList());
+    }
+
+    /**
+     * The archived rows of the account, in no particular order.
+     */
+    private static class InMemoryTransactionArchiveDao implements TransactionArchiveDao {
+        private final List<Transaction> rows = new ArrayList<>();
+
+        void add(Transaction transaction) {
+            rows.add(transaction);
+        }
+
+        @Override
+        public long writeFile(String fileName, Consumer<Consumer<Transaction>> rows) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean deleteFile(String fileName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Transaction> findByAccountId(int accountId) {
+            List<Transaction> transactions = new ArrayList<>();
+            for (Transaction transaction : rows) {
+                if (transaction.getAccountId() == accountId) {
+                    transactions.add(transaction);
+                }
+            }
+            transactions.sort(TransactionDaoImpl.NEWEST_FIRST);
+            return transactions;
+        }
+
+        @Override
+        public void streamFile(String fileName, int fromAccountId, int toAccountId, LocalDateTime from, LocalDateTime to,
+                               Consumer<Transaction> consumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LocalDateTime findNewestTimestamp() {
+            return rows.stream().map(Transaction::getTransactionTimestamp).max(LocalDateTime::compareTo).orElse(null);
+        }
+    }
+}
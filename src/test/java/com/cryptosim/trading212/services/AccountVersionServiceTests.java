@@ -0,0 +1,134 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
+import com.cryptosim.trading212.models.AccountChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the AccountVersionService outside of a transaction, backed by in-memory account versions.
+ */
+class AccountVersionServiceTests {
+
+    private final InMemoryAccountChangeDao accountChangeDao = new InMemoryAccountChangeDao();
+    private AccountVersionServiceImpl accountVersionService;
+
+    @BeforeEach
+    void setUp() {
+        accountVersionService = new AccountVersionServiceImpl(accountChangeDao);
+    }
+
+    @Test
+    void getVersion_followsThePersistedVersionOfTheAccount() {
+        String initialTag = accountVersionService.getETag("alice");
+        assertEquals(0, accountVersionService.getVersion("alice"));
+
+        accountChangeDao.versions.put("alice", 1L);
+
+        assertEquals(1, accountVersionService.getVersion("alice"));
+        assertEquals(0, accountVersionService.getVersion("bob"));
+        assertNotEquals(initialTag, accountVersionService.getETag("alice"));
+    }
+
+    @Test
+    void changedWithin_tracksTheLastChangeOfEachAccount() {
+        assertFalse(accountVersionService.changedWithin("alice", 60_000));
+
+        accountVersionService.markChanged("alice");
+
+        assertTrue(accountVersionService.changedWithin("alice", 60_000));
+        assertFalse(accountVersionService.changedWithin("alice", 0));
+        assertFalse(accountVersionService.changedWithin("bob", 60_000));
+    }
+
+    @Test
+    void clientChangedAt_keepsTheNewerOfTheClientTokenAndTheRequestsOwnChange() {
+        accountVersionService.setClientChangedAt(Long.MAX_VALUE - 1); // Token of a change made through a node with a clock ahead
+        accountVersionService.markChanged("alice");
+        assertEquals(Long.MAX_VALUE - 1, accountVersionService.getClientChangedAt());
+
+        accountVersionService.clearClientChangedAt();
+        assertEquals(0, accountVersionService.getClientChangedAt());
+        long before = System.currentTimeMillis();
+        accountVersionService.markChanged("alice");
+        assertTrue(accountVersionService.getClientChangedAt() >= before);
+        accountVersionService.clearClientChangedAt();
+    }
+
+    @Test
+    void markAllChanged_countsAsARecentChangeOfEveryUser() {
+        accountVersionService.markAllChanged();
+
+        assertTrue(accountVersionService.changedWithin("bob", 60_000));
+    }
+
+    @Test
+    void getETag_isQuotedAndStableWhileUnchanged() {
+        String tag = accountVersionService.getETag("alice");
+        accountVersionService.markChanged("alice"); // Only the committed version moves the tag
+
+        assertTrue(tag.startsWith("\"") && tag.endsWith("\""));
+        assertEquals(tag, accountVersionService.getETag("alice"));
+        accountVersionService.clearClientChangedAt();
+    }
+
+    @Test
+    void getETag_isTheSameOnEveryNode() {
+        accountChangeDao.versions.put("alice", 7L);
+
+        assertEquals(accountVersionService.getETag("alice"), new AccountVersionServiceImpl(accountChangeDao).getETag("alice"));
+    }
+
+    /**
+     * The change_version column of the accounts, by user.
+     */
+    private static class InMemoryAccountChangeDao implements AccountChangeDao {
+        private final Map<String, Long> versions = new HashMap<>();
+
+        @Override
+        public long getCurrentVersionByUserIdentifier(String userIdentifier) {
+            return versions.getOrDefault(userIdentifier, 0L);
+        }
+
+        @Override
+        public long recordChanges(int accountId, List<AccountChange> changes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int recordResets(int fromAccountId, int toAccountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getCurrentVersion(int accountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<Integer, Long> findCurrentVersions(int fromAccountId, int toAccountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long lockCurrentVersion(int accountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<Integer, Integer> findFirstTransactionsAfterLastReset(int fromAccountId, int toAccountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<AccountChange> findChanges(int accountId, long afterVersion, long upToVersion) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.BacktestResult;
+import com.cryptosim.trading212.models.BacktestStrategyType;
+import com.cryptosim.trading212.utils.TradeMath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for tick recording and the backtesting engine.
+ */
+class BacktestEngineTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 6);
+    private static final long DAY_START = DAY.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    private Path directory;
+    private BacktestEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("ticks");
+        engine = new BacktestEngine(4);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        engine.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void loadHistory_conflatesRecordedTicksToBars() {
+        TickRecorder recorder = new TickRecorder(null, directory);
+        recorder.record("BTC/USD", DAY_START + 1_000, new BigDecimal("100"));
+        recorder.record("ETH/USD", DAY_START + 2_000, new BigDecimal("10"));
+        recorder.record("BTC/USD", DAY_START + 30_000, new BigDecimal("101"));
+        recorder.record("BTC/USD", DAY_START + 61_000, new BigDecimal("102.5"));
+        recorder.cleanup();
+
+        TickHistory history = recorder.loadHistory(DAY, DAY, 60_000, 1000);
+
+        assertEquals(List.of("BTC/USD", "ETH/USD"), history.getSymbols());
+        assertEquals(3, history.size());
+        assertEquals(DAY_START + 59_999, history.timestamp(0));
+        assertEquals(10_100_000_000L, history.price(0)); // Last BTC price of the first minute
+        assertEquals(1, history.symbolIndex(1));
+        assertEquals(DAY_START + 119_999, history.timestamp(2));
+        assertEquals(10_250_000_000L, history.price(2));
+    }
+
+    @Test
+    void backtestAccount_roundsLikeTheTradingService() {
+        BacktestAccount account = new BacktestAccount(1, new BigDecimal("1000.00"));
+        account.updatePrice(0, 3_333_333_333L); // 33.33333333
+
+        assertTrue(account.buyForAmount(0, new BigDecimal("100.00")));
+        BigDecimal quantity = TradeMath.quantityForAmount(new BigDecimal("100.00"), new BigDecimal("33.33333333"));
+        assertEquals(quantity, account.getQuantity(0));
+        assertEquals(new BigDecimal("1000.00").subtract(TradeMath.tradeValue(quantity, new BigDecimal("33.33333333"))), account.getBalance());
+
+        assertFalse(account.sell(0, quantity.add(BigDecimal.ONE)));
+        assertFalse(account.buy(0, new BigDecimal("1000")));
+        assertEquals(2, account.getRejectedTradeCount());
+    }
+
+    @Test
+    void run_replaysStrategiesInParallelAndDeterministically() {
+        TickHistory.Builder builder = new TickHistory.Builder(10_000);
+        int btc = builder.symbolIndex("BTC/USD");
+        long price = 100_00000000L;
+        for (int i = 0; i < 2_000; i++) {
+            price += (i / 100) % 2 == 0 ? 50_000_000L : -50_000_000L; // Alternating 100-bar trends
+            builder.add(DAY_START + i * 60_000L, btc, price);
+        }
+        TickHistory history = builder.build();
+
+        List<BacktestEngine.Run> runs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            runs.add(new BacktestEngine.Run("ma-" + i, BacktestStrategyType.MOVING_AVERAGE_CROSSOVER,
+                    new MovingAverageCrossoverStrategy(btc, 5, 20, BigDecimal.ONE)));
+        }
+        List<BacktestResult> results = engine.run(history, runs, new BigDecimal("10000.00"), 3_600_000L);
+
+        assertEquals(8, results.size());
+        BacktestResult first = results.get(0);
+        assertEquals("ma-0", first.getName());
+        assertTrue(first.getTradeCount() > 10);
+        assertEquals(0, first.getRejectedTradeCount());
+        assertEquals(first.getEquityValues().size(), first.getEquityTimestamps().size());
+        for (BacktestResult result : results) {
+            assertEquals(first.getFinalEquity(), result.getFinalEquity());
+            assertEquals(first.getRealizedProfitLoss(), result.getRealizedProfitLoss());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import com.cryptosim.trading212.models.VenueQuote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ConsolidatedQuoteBook, with two stand-in venues.
+ */
+class ConsolidatedQuoteBookTests {
+
+    private static final long STALE_AFTER = 1000;
+    private static final int VENUE_A = 0;
+    private static final int VENUE_B = 1;
+
+    private final List<ConsolidatedQuote> changes = new ArrayList<>();
+    private ConsolidatedQuoteBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new ConsolidatedQuoteBook(List.of("BTC/USD", "ETH/USD"), List.of("venue-a", "venue-b"), STALE_AFTER,
+                (previous, current) -> changes.add(current));
+    }
+
+    private static VenueQuote quote(String bid, String ask, long receivedAt) {
+        return new VenueQuote(new BigDecimal(bid), new BigDecimal(ask), null, receivedAt);
+    }
+
+    @Test
+    void update_takesBestBidAndBestAskAcrossVenues() {
+        book.update(VENUE_A, "BTC/USD", quote("100", "104", 10));
+        ConsolidatedQuote consolidated = book.update(VENUE_B, "BTC/USD", quote("101", "105", 20));
+
+        assertEquals(new BigDecimal("101"), consolidated.getBestBid());
+        assertEquals("venue-b", consolidated.getBestBidVenue());
+        assertEquals(new BigDecimal("104"), consolidated.getBestAsk());
+        assertEquals("venue-a", consolidated.getBestAskVenue());
+        assertEquals(0, new BigDecimal("102.5").compareTo(book.getPrice("BTC/USD")));
+        assertEquals(2, consolidated.getVenueCount());
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    void update_pricesAtTheNewestLastTradeRatherThanTheMidpoint() {
+        book.update(VENUE_A, "BTC/USD", new VenueQuote(new BigDecimal("100"), new BigDecimal("104"), new BigDecimal("103"), 10));
+        book.update(VENUE_B, "BTC/USD", quote("101", "105", 20)); // Newer, but without a trade
+
+        assertEquals(new BigDecimal("103"), book.getPrice("BTC/USD"));
+    }
+
+    @Test
+    void update_usesLastPriceWithoutBidAndAsk() {
+        book.update(VENUE_A, "ETH/USD", new VenueQuote(null, null, new BigDecimal("3000"), 10));
+        assertEquals(new BigDecimal("3000"), book.getPrice("ETH/USD"));
+        assertNull(book.update(VENUE_A, "DOGE/USD", new VenueQuote(null, null, BigDecimal.ONE, 10)));
+    }
+
+    @Test
+    void refresh_ignoresStaleVenueOnlyWhileAnotherVenueIsFresh() {
+        book.update(VENUE_A, "BTC/USD", quote("100", "102", 1000));
+        book.update(VENUE_B, "BTC/USD", quote("90", "92", 1000));
+        assertTrue(book.refresh(1000)); // Both venues have now been heard from
+        assertEquals(new BigDecimal("100"), book.get("BTC/USD").getBestBid());
+
+        book.heartbeat(VENUE_B, List.of("BTC/USD"), 2500);
+        assertTrue(book.refresh(2500)); // Venue A has been silent for longer than the threshold
+        assertEquals(new BigDecimal("90"), book.get("BTC/USD").getBestBid());
+        assertEquals(1, book.get("BTC/USD").getVenueCount());
+
+        assertTrue(book.refresh(6000)); // Both stale: the stale quotes are still better than no price
+        assertEquals(new BigDecimal("100"), book.get("BTC/USD").getBestBid());
+        assertFalse(book.refresh(7000));
+    }
+
+    @Test
+    void priceAge_followsVenueHeartbeatsAndSequenceIncreases() {
+        ConsolidatedQuote first = book.update(VENUE_A, "BTC/USD", quote("100", "102", 1000));
+        ConsolidatedQuote second = book.update(VENUE_A, "BTC/USD", quote("100", "103", 2000));
+        assertEquals(first.getSequence() + 1, second.getSequence());
+        assertEquals(500, book.getPriceAgeMillis("BTC/USD", 2500));
+
+        book.heartbeat(VENUE_A, List.of("BTC/USD"), 9000); // A quiet symbol on a live connection stays fresh
+        assertEquals(1000, book.getPriceAgeMillis("BTC/USD", 10_000));
+        assertEquals(-1, book.getPriceAgeMillis("ETH/USD", 10_000));
+    }
+
+    @Test
+    void priceAge_agesTheSymbolsOfASilentConnectionWhileAnotherConnectionBeats() {
+        // One venue, two connections: BTC/USD on the first, ETH/USD on the second
+        book.update(VENUE_A, "BTC/USD", quote("100", "102", 1000));
+        book.update(VENUE_A, "ETH/USD", quote("10", "11", 1000));
+        book.update(VENUE_B, "BTC/USD", quote("99", "101", 1000));
+        book.refresh(1000);
+
+        for (long now = 1500; now <= 5000; now += 500) {
+            book.heartbeat(VENUE_A, List.of("ETH/USD"), now); // The first connection has gone silent
+            book.heartbeat(VENUE_B, List.of("BTC/USD"), now);
+        }
+
+        assertEquals(0, book.getPriceAgeMillis("ETH/USD", 5000));
+        assertEquals(0, book.getPriceAgeMillis("BTC/USD", 5000)); // Still confirmed by venue B
+        assertFalse(book.isStale(VENUE_A, 5000));
+        assertTrue(book.refresh(5000));
+        assertEquals(new BigDecimal("99"), book.get("BTC/USD").getBestBid());
+        assertEquals(1, book.get("BTC/USD").getVenueCount());
+
+        book.remove("BTC/USD");
+        book.update(VENUE_A, "BTC/USD", quote("100", "102", 5000));
+        book.heartbeat(VENUE_A, List.of("ETH/USD"), 9000);
+        assertEquals(4000, book.getPriceAgeMillis("BTC/USD", 9000));
+    }
+
+    @Test
+    void remove_clearsEveryVenue() {
+        book.update(VENUE_A, "BTC/USD", quote("100", "102", 10));
+        book.update(VENUE_B, "BTC/USD", quote("99", "101", 10));
+
+        assertNotNull(book.remove("BTC/USD"));
+        assertNull(book.get("BTC/USD"));
+        assertTrue(book.snapshotPrices().isEmpty());
+        assertEquals(0, book.getSymbolsQuoted(VENUE_A));
+    }
+
+    @Test
+    void concurrentVenueUpdates_convergeOnTheLatestQuotes() throws InterruptedException {
+        ConsolidatedQuoteBook concurrentBook = new ConsolidatedQuoteBook(List.of("BTC/USD"), List.of("venue-a", "venue-b"),
+                Long.MAX_VALUE, (previous, current) -> { });
+        Thread[] venues = new Thread[2];
+        for (int venue = 0; venue < venues.length; venue++) {
+            int index = venue;
+            venues[venue] = new Thread(() -> {
+                for (int i = 1; i <= 50_000; i++) {
+                    BigDecimal bid = BigDecimal.valueOf(index * 100_000L + i);
+                    concurrentBook.update(index, "BTC/USD", new VenueQuote(bid, bid.add(BigDecimal.ONE), null, 1));
+                }
+            });
+            venues[venue].start();
+        }
+        for (Thread venue : venues) {
+            venue.join();
+        }
+
+        ConsolidatedQuote consolidated = concurrentBook.get("BTC/USD");
+        assertEquals(BigDecimal.valueOf(150_000), consolidated.getBestBid());
+        assertEquals(BigDecimal.valueOf(50_001), consolidated.getBestAsk());
+    }
+}
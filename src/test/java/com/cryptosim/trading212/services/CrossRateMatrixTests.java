@@ -0,0 +1,63 @@
+package com.cryptosim.trading212.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CrossRateMatrix.
+ */
+class CrossRateMatrixTests {
+
+    private CrossRateMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new CrossRateMatrix(List.of("USD", "BTC", "ETH", "EUR"), "USD");
+    }
+
+    @Test
+    void update_derivesCrossRatesInBothDirections() {
+        matrix.update("BTC", new BigDecimal("60000"));
+        matrix.update("ETH", new BigDecimal("3000"));
+
+        assertEquals(0, new BigDecimal("0.05").compareTo(matrix.getRate("ETH", "BTC")));
+        assertEquals(0, new BigDecimal("20").compareTo(matrix.getRate("BTC", "ETH")));
+        assertEquals(new BigDecimal("60000"), matrix.getRate("BTC", "USD")); // Feed price kept exactly
+        assertEquals(BigDecimal.ONE, matrix.getRate("ETH", "ETH"));
+        assertNull(matrix.getRate("BTC", "EUR")); // EUR has no price yet
+        assertNull(matrix.getRate("BTC", "DOGE"));
+    }
+
+    @Test
+    void update_refreshesOnlyTheTickingCurrency() {
+        matrix.update("BTC", new BigDecimal("60000"));
+        matrix.update("ETH", new BigDecimal("3000"));
+        matrix.update("EUR", new BigDecimal("1.25"));
+
+        matrix.update("BTC", new BigDecimal("50000"));
+
+        assertEquals(0, new BigDecimal("40000").compareTo(matrix.getRate("BTC", "EUR")));
+        assertEquals(0, new BigDecimal("0.06").compareTo(matrix.getRate("ETH", "BTC")));
+        assertEquals(0, new BigDecimal("2400").compareTo(matrix.getRate("ETH", "EUR")));
+        assertEquals(0, new BigDecimal("0.8").compareTo(matrix.getRate("USD", "EUR")));
+        assertFalse(matrix.update("USD", new BigDecimal("2")));
+    }
+
+    @Test
+    void remove_clearsRowAndColumn() {
+        matrix.update("BTC", new BigDecimal("60000"));
+        matrix.update("ETH", new BigDecimal("3000"));
+
+        assertTrue(matrix.remove("ETH"));
+        assertNull(matrix.getRate("ETH", "BTC"));
+        assertNull(matrix.getRate("BTC", "ETH"));
+        assertEquals(BigDecimal.ONE, matrix.getRate("ETH", "ETH"));
+        assertEquals(new BigDecimal("60000"), matrix.getRate("BTC", "USD"));
+        assertFalse(matrix.remove("USD"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.LedgerDiscrepancy;
+import com.cryptosim.trading212.models.LedgerDiscrepancyType;
+import com.cryptosim.trading212.models.PortfolioAsset;
+import com.cryptosim.trading212.models.Transaction;
+import com.cryptosim.trading212.models.TransactionType;
+import com.cryptosim.trading212.utils.Money;
+import com.cryptosim.trading212.utils.Price;
+import com.cryptosim.trading212.utils.Quantity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for rebuilding an account's state from its transaction log.
+ */
+class LedgerReplayTests {
+
+    @Test
+    void apply_rebuildsCashAndPositionsLikeTheTradeEngine() {
+        LedgerReplay replay = new LedgerReplay(7, new BigDecimal("20000"), 0);
+        replay.apply(trade(1, TransactionType.BUY, "XBT/USD", "0.1", "40000"));
+        replay.apply(trade(2, TransactionType.BUY, "XBT/USD", "0.3", "30000"));
+        replay.apply(trade(3, TransactionType.SELL, "XBT/USD", "0.2", "50000"));
+        replay.apply(trade(4, TransactionType.BUY, "ETH/USD", "1", "2000"));
+        replay.apply(trade(5, TransactionType.SELL, "ETH/USD", "1", "2500"));
+
+        assertEquals(Money.of(new BigDecimal("17500")), replay.getCash());
+        assertEquals(1, replay.getPositions().size());
+        LedgerReplay.Position position = replay.getPositions().get("XBT/USD");
+        assertEquals(Quantity.of(new BigDecimal("0.2")), position.getQuantity());
+        assertEquals(Price.of(new BigDecimal("32500")), position.getAveragePrice());
+        assertEquals(5, replay.getReplayed());
+
+        PortfolioAsset stored = asset("XBT/USD", "0.2", "32500");
+        assertTrue(replay.findDiscrepancies(new BigDecimal("17500.00"), List.of(stored)).isEmpty());
+    }
+
+    @Test
+    void apply_skipsTransactionsBeforeTheLastReset() {
+        LedgerReplay replay = new LedgerReplay(7, new BigDecimal("1000"), 3);
+        replay.apply(trade(1, TransactionType.BUY, "XBT/USD", "0.01", "40000"));
+        replay.apply(trade(2, TransactionType.BUY, "ETH/USD", "0.1", "2000"));
+        replay.apply(trade(3, TransactionType.BUY, "ETH/USD", "0.2", "2000"));
+
+        assertEquals(Money.of(new BigDecimal("600")), replay.getCash());
+        assertEquals(1, replay.getPositions().size());
+        assertEquals(1, replay.getReplayed());
+        assertThrows(IllegalStateException.class, () -> replay.apply(trade(3, TransactionType.SELL, "ETH/USD", "0.1", "2000")));
+    }
+
+    @Test
+    void findDiscrepancies_reportsBalanceAndEveryDifferingPosition() {
+        LedgerReplay replay = new LedgerReplay(7, new BigDecimal("1000"), 0);
+        replay.apply(trade(1, TransactionType.BUY, "XBT/USD", "0.01", "40000"));
+        replay.apply(trade(2, TransactionType.BUY, "ETH/USD", "0.1", "2000"));
+
+        List<LedgerDiscrepancy> discrepancies = replay.findDiscrepancies(new BigDecimal("450.00"),
+                List.of(asset("ETH/USD", "0.1", "2100"), asset("SOL/USD", "3", "150")));
+
+        assertEquals(4, discrepancies.size());
+        assertDiscrepancy(discrepancies.get(0), null, LedgerDiscrepancyType.BALANCE, "400.00", "450.00");
+        assertDiscrepancy(discrepancies.get(1), "ETH/USD", LedgerDiscrepancyType.AVERAGE_PRICE, "2000.00000000", "2100.00000000");
+        assertDiscrepancy(discrepancies.get(2), "SOL/USD", LedgerDiscrepancyType.QUANTITY, "0E-8", "3.00000000");
+        assertDiscrepancy(discrepancies.get(3), "XBT/USD", LedgerDiscrepancyType.QUANTITY, "0.01000000", "0E-8");
+    }
+
+    @Test
+    void findDiscrepancies_toleratesWhatTheRoundedLogCannotTell() {
+        LedgerReplay replay = new LedgerReplay(7, new BigDecimal("100000"), 0);
+        replay.apply(trade(1, TransactionType.BUY, "XBT/USD", "0.1", "40000"));
+        replay.apply(trade(2, TransactionType.BUY, "XBT/USD", "0.3", "30000"));
+        replay.apply(trade(3, TransactionType.SELL, "XBT/USD", "0.12345678", "50000"));
+        BigDecimal balance = replay.getCash().toBigDecimal();
+
+        // The engine averaged the unrounded buy and sold 0.123456789, which took one unit more off the position
+        assertTrue(replay.findDiscrepancies(balance, List.of(asset("XBT/USD", "0.27654321", "32500.0025"))).isEmpty());
+
+        List<LedgerDiscrepancy> discrepancies = replay.findDiscrepancies(balance, List.of(asset("XBT/USD", "0.2765432", "32504")));
+        assertEquals(2, discrepancies.size());
+        assertDiscrepancy(discrepancies.get(0), "XBT/USD", LedgerDiscrepancyType.QUANTITY, "0.27654322", "0.27654320");
+        assertDiscrepancy(discrepancies.get(1), "XBT/USD", LedgerDiscrepancyType.AVERAGE_PRICE, "32500.00000000", "32504.00000000");
+        assertEquals(LedgerDiscrepancyType.QUANTITY, replay.findDiscrepancies(balance,
+                List.of(asset("XBT/USD", "0.27654323", "32500"))).get(0).getDiscrepancyType());
+    }
+
+    private static void assertDiscrepancy(LedgerDiscrepancy discrepancy, String assetSymbol, LedgerDiscrepancyType type,
+                                          String expected, String actual) {
+        assertEquals(assetSymbol, discrepancy.getAssetSymbol());
+        assertEquals(type, discrepancy.getDiscrepancyType());
+        assertEquals(new BigDecimal(expected), discrepancy.getExpectedValue());
+        assertEquals(new BigDecimal(actual), discrepancy.getActualValue());
+    }
+
+    private static Transaction trade(int transactionId, TransactionType type, String assetSymbol, String quantity, String price) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setAccountId(7);
+        transaction.setAssetSymbol(assetSymbol);
+        transaction.setTransactionType(type);
+        transaction.setQuantity(new BigDecimal(quantity));
+        transaction.setPricePerUnit(new BigDecimal(price));
+        transaction.setTotalTransactionValue(Quantity.of(new BigDecimal(quantity)).times(Price.of(new BigDecimal(price))).toBigDecimal());
+        return transaction;
+    }
+
+    private static PortfolioAsset asset(String assetSymbol, String quantity, String averagePrice) {
+        PortfolioAsset asset = new PortfolioAsset();
+        asset.setAccountId(7);
+        asset.setAssetSymbol(assetSymbol);
+        asset.setQuantity(new BigDecimal(quantity));
+        asset.setAveragePurchasePrice(new BigDecimal(averagePrice));
+        return asset;
+    }
+}
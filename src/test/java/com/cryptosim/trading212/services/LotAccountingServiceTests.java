@@ -0,0 +1,198 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.daos.contracts.PositionLotDao;
+import com.cryptosim.trading212.models.CostBasisMethod;
+import com.cryptosim.trading212.models.LotMatch;
+import com.cryptosim.trading212.models.PositionLot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for matching sells against tax lots, backed by an in-memory lot table that pages like the real one.
+ */
+class LotAccountingServiceTests {
+
+    private static final int ACCOUNT_ID = 7;
+    private static final String SYMBOL = "XBT/USD";
+
+    private final InMemoryPositionLotDao positionLotDao = new InMemoryPositionLotDao();
+    private final LotAccountingServiceImpl lotAccountingService = new LotAccountingServiceImpl(null, positionLotDao, null, null);
+
+    @Test
+    void matchSaleFifo_pagesPastTheFirstPageOfLots() {
+        for (int i = 1; i <= 150; i++) {
+            positionLotDao.addLot("1", String.valueOf(i));
+        }
+
+        List<LotMatch> matches = lotAccountingService.matchSale(ACCOUNT_ID, SYMBOL, new BigDecimal("130.5"),
+                new BigDecimal("200"), new BigDecimal("150"), new BigDecimal("75.5"), CostBasisMethod.FIFO);
+
+        assertEquals(131, matches.size());
+        for (int i = 0; i < 131; i++) {
+            assertEquals(Long.valueOf(i + 1), matches.get(i).getLotId());
+            assertEquals(0, new BigDecimal(i + 1).compareTo(matches.get(i).getUnitCost()));
+        }
+        assertEquals(0, new BigDecimal("0.5").compareTo(matches.get(130).getQuantity()));
+        assertEquals(20, positionLotDao.lots.size());
+        assertEquals(0, new BigDecimal("0.5").compareTo(positionLotDao.lots.get(131L).getRemainingQuantity()));
+        assertEquals(Long.valueOf(150), positionLotDao.lots.lastKey());
+    }
+
+    @Test
+    void matchSaleLifo_pagesPastTheFirstPageOfLots() {
+        for (int i = 1; i <= 150; i++) {
+            positionLotDao.addLot("1", String.valueOf(i));
+        }
+
+        List<LotMatch> matches = lotAccountingService.matchSale(ACCOUNT_ID, SYMBOL, new BigDecimal("100"),
+                new BigDecimal("200"), new BigDecimal("150"), new BigDecimal("75.5"), CostBasisMethod.LIFO);
+
+        assertEquals(100, matches.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Long.valueOf(150 - i), matches.get(i).getLotId());
+        }
+        assertEquals(50, positionLotDao.lots.size());
+        assertEquals(Long.valueOf(50), positionLotDao.lots.lastKey());
+    }
+
+    @Test
+    void matchSaleFifo_matchesHoldingsBoughtBeforeLotsFirst() {
+        // 2 units were held before lots were tracked, 3 more were bought since
+        positionLotDao.addLot("1", "100");
+        positionLotDao.addLot("2", "110");
+
+        List<LotMatch> matches = lotAccountingService.matchSale(ACCOUNT_ID, SYMBOL, new BigDecimal("3"),
+                new BigDecimal("120"), new BigDecimal("5"), new BigDecimal("96"), CostBasisMethod.FIFO);
+
+        assertEquals(2, matches.size());
+        assertMatch(matches.get(0), null, "2", "96", "48");
+        assertMatch(matches.get(1), 1L, "1", "100", "20");
+        assertEquals(List.of(2L), new ArrayList<>(positionLotDao.lots.keySet()));
+    }
+
+    @Test
+    void matchSaleLifo_matchesHoldingsBoughtBeforeLotsLast() {
+        positionLotDao.addLot("1", "100");
+        positionLotDao.addLot("2", "110");
+
+        List<LotMatch> matches = lotAccountingService.matchSale(ACCOUNT_ID, SYMBOL, new BigDecimal("4"),
+                new BigDecimal("120"), new BigDecimal("5"), new BigDecimal("96"), CostBasisMethod.LIFO);
+
+        assertEquals(3, matches.size());
+        assertMatch(matches.get(0), 2L, "2", "110", "20");
+        assertMatch(matches.get(1), 1L, "1", "100", "20");
+        assertMatch(matches.get(2), null, "1", "96", "24");
+        assertTrue(positionLotDao.lots.isEmpty());
+    }
+
+    @Test
+    void matchSaleFifo_leavesLotsAloneWhileTheLegacyHoldingCoversTheSale() {
+        positionLotDao.addLot("1", "100");
+
+        List<LotMatch> matches = lotAccountingService.matchSale(ACCOUNT_ID, SYMBOL, new BigDecimal("1.5"),
+                new BigDecimal("120"), new BigDecimal("3"), new BigDecimal("90"), CostBasisMethod.AVERAGE);
+
+        assertEquals(1, matches.size());
+        assertMatch(matches.get(0), null, "1.5", "90", "45");
+        assertEquals(0, BigDecimal.ONE.compareTo(positionLotDao.lots.get(1L).getRemainingQuantity()));
+    }
+
+    private static void assertMatch(LotMatch match, Long lotId, String quantity, String unitCost, String profitLoss) {
+        assertEquals(lotId, match.getLotId());
+        assertEquals(0, new BigDecimal(quantity).compareTo(match.getQuantity()));
+        assertEquals(0, new BigDecimal(unitCost).compareTo(match.getUnitCost()));
+        assertEquals(0, new BigDecimal(profitLoss).compareTo(match.getRealizedProfitLoss()));
+    }
+
+    /**
+     * The open lots of a single position, keyed by lot ID.
+     */
+    private static class InMemoryPositionLotDao implements PositionLotDao {
+        private final TreeMap<Long, PositionLot> lots = new TreeMap<>();
+        private long nextLotId = 1;
+
+        void addLot(String quantity, String unitCost) {
+            PositionLot lot = new PositionLot();
+            lot.setLotId(nextLotId++);
+            lot.setAccountId(ACCOUNT_ID);
+            lot.setAssetSymbol(SYMBOL);
+            lot.setOriginalQuantity(new BigDecimal(quantity));
+            lot.setRemainingQuantity(new BigDecimal(quantity));
+            lot.setUnitCost(new BigDecimal(unitCost));
+            lot.setAcquiredAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(lot.getLotId()));
+            lots.put(lot.getLotId(), lot);
+        }
+
+        @Override
+        public PositionLot createLot(PositionLot lot) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PositionLot> findOpenLotsPage(int accountId, String assetSymbol, boolean oldestFirst, long afterLotId, int limit) {
+            Collection<PositionLot> candidates = oldestFirst
+                    ? lots.tailMap(afterLotId, false).values()
+                    : lots.headMap(afterLotId, false).descendingMap().values();
+            return candidates.stream().limit(limit).toList();
+        }
+
+        @Override
+        public BigDecimal sumOpenQuantity(int accountId, String assetSymbol) {
+            return lots.values().stream()
+                    .map(lot -> lot.getRemainingQuantity().setScale(8, RoundingMode.DOWN))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        @Override
+        public List<PositionLot> findOpenLots(int accountId, String assetSymbol) {
+            return lots.values().stream().sorted(Comparator.comparing(PositionLot::getLotId)).toList();
+        }
+
+        @Override
+        public boolean updateRemainingQuantity(long lotId, BigDecimal remainingQuantity) {
+            lots.get(lotId).setRemainingQuantity(remainingQuantity);
+            return true;
+        }
+
+        @Override
+        public int deleteLots(Collection<Long> lotIds) {
+            int deleted = 0;
+            for (Long lotId : lotIds) {
+                deleted += lots.remove(lotId) != null ? 1 : 0;
+            }
+            return deleted;
+        }
+
+        @Override
+        public int deleteByAccountId(int accountId) {
+            int deleted = lots.size();
+            lots.clear();
+            return deleted;
+        }
+
+        @Override
+        public int deleteByAccountRange(int fromAccountId, int toAccountId) {
+            return deleteByAccountId(fromAccountId);
+        }
+
+        @Override
+        public void recordMatches(int accountId, int sellTransactionId, List<LotMatch> matches) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<LotMatch> findMatches(int accountId, int sellTransactionId) {
+            return List.of();
+        }
+    }
+}
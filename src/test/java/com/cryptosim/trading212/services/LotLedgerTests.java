@@ -0,0 +1,91 @@
+package com.cryptosim.trading212.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the LotLedger deque.
+ */
+class LotLedgerTests {
+
+    @Test
+    void consumeFromOldest_closesLotsInAcquisitionOrderAndKeepsPartialLot() {
+        LotLedger ledger = new LotLedger(2);
+        ledger.addLast(1, 100, 10);
+        ledger.addLast(2, 200, 20);
+        ledger.addLast(3, 300, 30);
+        List<long[]> matches = new ArrayList<>();
+
+        long unmatched = ledger.consume(250, true, (lotId, matched, unitCost, remaining) ->
+                matches.add(new long[]{lotId, matched, unitCost, remaining}));
+
+        assertEquals(0, unmatched);
+        assertEquals(2, matches.size());
+        assertArrayEquals(new long[]{1, 100, 10, 0}, matches.get(0));
+        assertArrayEquals(new long[]{2, 150, 20, 50}, matches.get(1));
+        assertEquals(2, ledger.size());
+        assertEquals(350, ledger.totalQuantity());
+    }
+
+    @Test
+    void consumeFromNewest_matchesLifoAcrossPrependedPages() {
+        LotLedger ledger = new LotLedger(2);
+        // Pages arrive newest first and older lots are prepended
+        ledger.addFirst(5, 50, 500);
+        ledger.addFirst(4, 40, 400);
+        ledger.addFirst(3, 30, 300);
+        List<Long> order = new ArrayList<>();
+
+        long unmatched = ledger.consume(100, false, (lotId, matched, unitCost, remaining) -> order.add(lotId));
+
+        assertEquals(List.of(5L, 4L, 3L), order);
+        assertEquals(0, unmatched);
+        assertEquals(1, ledger.size());
+        assertEquals(20, ledger.totalQuantity());
+    }
+
+    @Test
+    void consume_returnsShortfallWhenLotsRunOut() {
+        LotLedger ledger = new LotLedger(4);
+        ledger.addLast(1, 100, 10);
+
+        long unmatched = ledger.consume(130, true, (lotId, matched, unitCost, remaining) -> { });
+
+        assertEquals(30, unmatched);
+        assertEquals(0, ledger.size());
+    }
+
+    @Test
+    void growth_preservesOrderAfterWrapAround() {
+        LotLedger ledger = new LotLedger(4);
+        for (long id = 1; id <= 3; id++) {
+            ledger.addLast(id, 1, 1);
+        }
+        ledger.consume(2, true, (lotId, matched, unitCost, remaining) -> { });
+        for (long id = 4; id <= 10; id++) {
+            ledger.addLast(id, 1, 1);
+        }
+        List<Long> order = new ArrayList<>();
+
+        ledger.consume(Long.MAX_VALUE, true, (lotId, matched, unitCost, remaining) -> order.add(lotId));
+
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), order);
+    }
+
+    @Test
+    void addFirst_rejectedLotLeavesLedgerIntact() {
+        LotLedger ledger = new LotLedger(2);
+        ledger.addFirst(2, 20, 200);
+        ledger.addFirst(1, 10, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> ledger.addFirst(0, 0, 1));
+        List<Long> order = new ArrayList<>();
+        ledger.consume(Long.MAX_VALUE, true, (lotId, matched, unitCost, remaining) -> order.add(lotId));
+
+        assertEquals(List.of(1L, 2L), order);
+    }
+}
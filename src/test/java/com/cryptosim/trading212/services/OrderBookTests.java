@@ -0,0 +1,83 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.OrderType;
+import com.cryptosim.trading212.models.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OrderBook trigger logic.
+ */
+class OrderBookTests {
+
+    private OrderBook orderBook;
+
+    @BeforeEach
+    void setUp() {
+        orderBook = new OrderBook();
+    }
+
+    private static OrderBook.RestingOrder order(int id, TransactionType side, OrderType type, String trigger) {
+        return new OrderBook.RestingOrder(id, 1, new BigDecimal(trigger), OrderBook.triggersOnRise(side, type));
+    }
+
+    @Test
+    void pollTriggered_buyLimit_triggersOnlyWhenPriceFallsToLimit() {
+        orderBook.add(order(1, TransactionType.BUY, OrderType.LIMIT, "50000"));
+        orderBook.add(order(2, TransactionType.BUY, OrderType.LIMIT, "48000"));
+
+        assertTrue(orderBook.pollTriggered(new BigDecimal("50000.01")).isEmpty());
+
+        List<OrderBook.RestingOrder> triggered = orderBook.pollTriggered(new BigDecimal("49000"));
+        assertEquals(1, triggered.size());
+        assertEquals(1, triggered.get(0).getOrderId());
+        assertEquals(1, orderBook.size());
+    }
+
+    @Test
+    void pollTriggered_sellLimitAndBuyStop_triggerOnRise() {
+        orderBook.add(order(1, TransactionType.SELL, OrderType.LIMIT, "55000"));
+        orderBook.add(order(2, TransactionType.BUY, OrderType.STOP, "56000"));
+        orderBook.add(order(3, TransactionType.SELL, OrderType.STOP, "45000"));
+
+        List<OrderBook.RestingOrder> triggered = orderBook.pollTriggered(new BigDecimal("56000"));
+        assertEquals(2, triggered.size());
+        assertEquals(1, triggered.get(0).getOrderId()); // Lowest trigger first
+        assertEquals(2, triggered.get(1).getOrderId());
+        assertEquals(1, orderBook.size());
+    }
+
+    @Test
+    void pollTriggered_sellStop_triggersOnFall() {
+        orderBook.add(order(1, TransactionType.SELL, OrderType.STOP, "45000"));
+
+        assertTrue(orderBook.pollTriggered(new BigDecimal("45000.01")).isEmpty());
+        assertEquals(1, orderBook.pollTriggered(new BigDecimal("44000")).size());
+        assertEquals(0, orderBook.size());
+    }
+
+    @Test
+    void pollTriggered_sameLevel_keepsArrivalOrder() {
+        orderBook.add(order(7, TransactionType.SELL, OrderType.LIMIT, "100"));
+        orderBook.add(order(3, TransactionType.SELL, OrderType.LIMIT, "100.00"));
+
+        List<OrderBook.RestingOrder> triggered = orderBook.pollTriggered(new BigDecimal("100"));
+        assertEquals(2, triggered.size());
+        assertEquals(7, triggered.get(0).getOrderId());
+        assertEquals(3, triggered.get(1).getOrderId());
+    }
+
+    @Test
+    void remove_cancelledOrderIsNeverTriggered() {
+        orderBook.add(order(1, TransactionType.BUY, OrderType.LIMIT, "50000"));
+
+        assertTrue(orderBook.remove(order(1, TransactionType.BUY, OrderType.LIMIT, "50000.00000000")));
+        assertFalse(orderBook.remove(order(1, TransactionType.BUY, OrderType.LIMIT, "50000")));
+        assertTrue(orderBook.pollTriggered(new BigDecimal("1")).isEmpty());
+    }
+}
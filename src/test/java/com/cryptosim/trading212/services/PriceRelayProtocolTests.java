@@ -0,0 +1,86 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the wire format of the price relay.
+ */
+class PriceRelayProtocolTests {
+
+    private static DataInputStream frame(byte[] bytes, byte expectedType) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        assertEquals(expectedType, in.readByte());
+        return in;
+    }
+
+    @Test
+    void hello_roundTrips() throws IOException {
+        PriceRelayProtocol.Hello hello = new PriceRelayProtocol.Hello(7, "node-1", List.of("BTC/USD", "ETH/USD"), List.of("kraken"));
+
+        PriceRelayProtocol.Hello read = PriceRelayProtocol.readHello(frame(PriceRelayProtocol.encodeHello(hello), PriceRelayProtocol.HELLO));
+
+        assertEquals(7, read.getEpoch());
+        assertEquals("node-1", read.getLeaderId());
+        assertEquals(List.of("BTC/USD", "ETH/USD"), read.getSymbols());
+        assertEquals(List.of("kraken"), read.getVenues());
+        assertEquals(1, read.indexOf("ETH/USD"));
+        assertEquals(-1, read.indexOf("SOL/USD"));
+    }
+
+    @Test
+    void quoteBatch_roundTripsQuotesAndClears() throws IOException {
+        List<String> venues = List.of("kraken", "other");
+        ConsolidatedQuote full = new ConsolidatedQuote("BTC/USD", new BigDecimal("65000.1"), "other",
+                new BigDecimal("65000.3"), "kraken", new BigDecimal("65000.2"), 2, 1234, (3L << 40) | 9);
+        ConsolidatedQuote lastOnly = new ConsolidatedQuote("PEPE/USD", null, null, null, null,
+                new BigDecimal("0.00001234"), 1, 5678, 1);
+        byte[] bytes = new PriceRelayProtocol.QuoteBatch(venues).add(0, full).add(2, null).add(1, lastOnly).toFrame();
+
+        DataInputStream in = frame(bytes, PriceRelayProtocol.QUOTES);
+        assertEquals(3, in.readInt());
+
+        assertEquals(0, in.readUnsignedShort());
+        ConsolidatedQuote read = PriceRelayProtocol.readQuote(in, "BTC/USD", venues);
+        assertEquals(new BigDecimal("65000.2"), read.getPrice());
+        assertEquals(new BigDecimal("65000.1"), read.getBestBid());
+        assertEquals("other", read.getBestBidVenue());
+        assertEquals("kraken", read.getBestAskVenue());
+        assertEquals(2, read.getVenueCount());
+        assertEquals(1234, read.getUpdatedAt());
+        assertEquals((3L << 40) | 9, read.getSequence());
+
+        assertEquals(2, in.readUnsignedShort());
+        assertNull(PriceRelayProtocol.readQuote(in, "ETH/USD", venues));
+
+        assertEquals(1, in.readUnsignedShort());
+        read = PriceRelayProtocol.readQuote(in, "PEPE/USD", venues);
+        assertEquals(new BigDecimal("0.00001234"), read.getPrice());
+        assertNull(read.getBestBid());
+        assertNull(read.getBestAsk());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void subscriptionAndHeartbeat_roundTrip() throws IOException {
+        DataInputStream in = frame(PriceRelayProtocol.encodeSubscription(PriceRelayProtocol.UNSUBSCRIBE, List.of(4, 40000)),
+                PriceRelayProtocol.UNSUBSCRIBE);
+        assertEquals(List.of(4, 40000), PriceRelayProtocol.readSubscription(in));
+
+        in = frame(PriceRelayProtocol.encodeHeartbeat(new int[]{3, 5, 99}, new int[]{120, 0, 99}, 2), PriceRelayProtocol.HEARTBEAT);
+        assertEquals(2, in.readInt());
+        assertEquals(3, in.readUnsignedShort());
+        assertEquals(120, in.readInt());
+        assertEquals(5, in.readUnsignedShort());
+        assertEquals(0, in.readInt());
+        assertEquals(-1, in.read());
+    }
+}
@@ -0,0 +1,127 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.ConsolidatedQuote;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SharedPriceBoard; a second mapping of the same file stands in for another JVM.
+ */
+class SharedPriceBoardTests {
+
+    private Path directory;
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("price-board-test");
+        path = directory.resolve("board");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static ConsolidatedQuote quote(String symbol, String bid, String ask, long sequence) {
+        BigDecimal bidPrice = new BigDecimal(bid);
+        BigDecimal askPrice = new BigDecimal(ask);
+        return new ConsolidatedQuote(symbol, bidPrice, "kraken", askPrice, "kraken",
+                bidPrice.add(askPrice).divide(BigDecimal.valueOf(2)), 1, 1000 + sequence, sequence);
+    }
+
+    @Test
+    void readerMapping_seesWritesClearsAndHeartbeat() throws IOException {
+        try (SharedPriceBoard writer = SharedPriceBoard.create(path, List.of("BTC/USD", "PEPE/USD"));
+             SharedPriceBoard reader = SharedPriceBoard.open(path)) {
+            assertEquals(List.of("BTC/USD", "PEPE/USD"), reader.getSymbols());
+            assertNull(reader.read(0));
+
+            writer.write(1, quote("PEPE/USD", "0.00001234", "0.00001236", 7));
+            writer.confirm(1, 5000);
+            writer.heartbeat(6000);
+
+            ConsolidatedQuote read = reader.read(reader.slotOf("PEPE/USD"));
+            assertEquals(new BigDecimal("0.00001235"), read.getPrice());
+            assertEquals(new BigDecimal("0.00001234"), read.getBestBid());
+            assertEquals(7, read.getSequence());
+            assertEquals(1007, read.getUpdatedAt());
+            assertEquals(5000, reader.getConfirmedAt(1));
+            assertEquals(6000, reader.getHeartbeat());
+            assertEquals(1, reader.getWriteCount());
+
+            writer.clear(1);
+            assertNull(reader.read(1));
+            assertEquals(-1, reader.slotOf("ETH/USD"));
+        }
+    }
+
+    @Test
+    void write_roundsPricesThatDoNotFitALong() throws IOException {
+        try (SharedPriceBoard board = SharedPriceBoard.create(path, List.of("BTC/USD"))) {
+            BigDecimal precise = new BigDecimal("65000.123456789012345678901234");
+            board.write(0, new ConsolidatedQuote("BTC/USD", null, null, null, null, precise, 1, 1, 1));
+
+            ConsolidatedQuote read = board.read(0);
+            assertEquals(new BigDecimal("65000.1234567890123"), read.getPrice());
+            assertNull(read.getBestBid());
+        }
+    }
+
+    @Test
+    void reader_neverSeesATornQuoteWhileTheWriterRuns() throws Exception {
+        try (SharedPriceBoard writer = SharedPriceBoard.create(path, List.of("BTC/USD"));
+             SharedPriceBoard reader = SharedPriceBoard.open(path)) {
+            AtomicBoolean done = new AtomicBoolean();
+            Thread writerThread = new Thread(() -> {
+                for (int i = 1; i <= 200_000; i++) {
+                    writer.write(0, quote("BTC/USD", Integer.toString(i), Integer.toString(i + 1), i));
+                }
+                done.set(true);
+            });
+            writerThread.start();
+            int reads = 0;
+            while (!done.get() || reads == 0) {
+                ConsolidatedQuote read = reader.read(0);
+                if (read != null) {
+                    // Every written quote has ask = bid + 1 and bid = its sequence
+                    assertEquals(BigDecimal.ONE, read.getBestAsk().subtract(read.getBestBid()));
+                    assertEquals(read.getSequence(), read.getBestBid().longValueExact());
+                    reads++;
+                }
+            }
+            writerThread.join();
+            assertEquals(200_000, reader.read(0).getSequence());
+        }
+    }
+
+    @Test
+    void create_replacesTheFileSoOldMappingsStayValid() throws IOException {
+        try (SharedPriceBoard first = SharedPriceBoard.create(path, List.of("BTC/USD"));
+             SharedPriceBoard oldReader = SharedPriceBoard.open(path)) {
+            first.write(0, quote("BTC/USD", "100", "102", 1));
+            try (SharedPriceBoard second = SharedPriceBoard.create(path, List.of("BTC/USD", "ETH/USD"));
+                 SharedPriceBoard newReader = SharedPriceBoard.open(path)) {
+                assertEquals(new BigDecimal("101"), oldReader.read(0).getPrice());
+                assertEquals(second.getSymbols(), newReader.getSymbols());
+                assertEquals(2, newReader.getSymbols().size());
+                assertNull(newReader.read(0));
+            }
+        }
+    }
+}
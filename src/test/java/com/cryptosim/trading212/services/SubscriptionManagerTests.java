@@ -0,0 +1,89 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.models.SubscriptionSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SubscriptionManager.
+ */
+class SubscriptionManagerTests {
+
+    private static final long LINGER = 1000;
+
+    private SubscriptionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new SubscriptionManager(LINGER);
+    }
+
+    @Test
+    void drain_batchesNewSymbolsOnce() {
+        manager.acquire("BTC/USD", SubscriptionSource.STREAM, 0);
+        manager.acquire("ETH/USD", SubscriptionSource.POSITION, 0);
+        manager.acquire("BTC/USD", SubscriptionSource.ORDER, 0);
+
+        SubscriptionManager.Changes changes = manager.drain(0);
+        assertEquals(List.of("BTC/USD", "ETH/USD"), changes.getSubscribe());
+        assertTrue(changes.getUnsubscribe().isEmpty());
+        assertTrue(manager.drain(1).isEmpty());
+        assertEquals(2, manager.total("BTC/USD"));
+    }
+
+    @Test
+    void release_unsubscribesOnlyAfterTheLinger() {
+        manager.acquire("BTC/USD", SubscriptionSource.STREAM, 0);
+        manager.drain(0);
+
+        manager.release("BTC/USD", SubscriptionSource.STREAM, 100);
+        assertTrue(manager.drain(100 + LINGER - 1).isEmpty());
+        assertEquals(List.of("BTC/USD"), manager.drain(100 + LINGER).getUnsubscribe());
+        assertTrue(manager.getSubscribed().isEmpty());
+    }
+
+    @Test
+    void reacquireWithinLinger_doesNotFlap() {
+        manager.acquire("BTC/USD", SubscriptionSource.STREAM, 0);
+        manager.drain(0);
+
+        manager.release("BTC/USD", SubscriptionSource.STREAM, 100);
+        manager.acquire("BTC/USD", SubscriptionSource.STREAM, 200);
+
+        assertTrue(manager.drain(100 + LINGER).isEmpty());
+        assertTrue(manager.getSubscribed().contains("BTC/USD"));
+    }
+
+    @Test
+    void acquireAndReleaseBeforeDrain_sendsNothing() {
+        manager.acquire("DOGE/USD", SubscriptionSource.STREAM, 0);
+        manager.release("DOGE/USD", SubscriptionSource.STREAM, 0);
+
+        assertTrue(manager.drain(0).isEmpty());
+        assertTrue(manager.drain(LINGER).isEmpty());
+    }
+
+    @Test
+    void setCounts_replacesOneSourceOnly() {
+        manager.acquire("ETH/USD", SubscriptionSource.STREAM, 0);
+        manager.setCounts(SubscriptionSource.POSITION, Map.of("ETH/USD", 3, "SOL/USD", 1), 0);
+        manager.drain(0);
+
+        manager.setCounts(SubscriptionSource.POSITION, Map.of(), 10);
+        assertEquals(1, manager.total("ETH/USD")); // Still held by the stream
+        assertEquals(List.of("SOL/USD"), manager.drain(10 + LINGER).getUnsubscribe());
+    }
+
+    @Test
+    void release_ignoresUnmatchedReleases() {
+        manager.acquire("BTC/USD", SubscriptionSource.PINNED, 0);
+        manager.release("BTC/USD", SubscriptionSource.STREAM, 0);
+
+        assertEquals(1, manager.total("BTC/USD"));
+    }
+}
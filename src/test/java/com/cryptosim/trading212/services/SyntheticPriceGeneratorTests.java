@@ -0,0 +1,78 @@
+package com.cryptosim.trading212.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SyntheticPriceGenerator.
+ */
+class SyntheticPriceGeneratorTests {
+
+    private static final long SEED = 7;
+    private static final double STEP_SECONDS = 3600;
+
+    private static long[] run(SyntheticPriceGenerator generator, int symbolCount, int rounds) {
+        long[] lastPrices = new long[symbolCount];
+        for (int round = 0; round < rounds; round++) {
+            generator.nextRound((symbolIndex, priceUnits) -> lastPrices[symbolIndex] = priceUnits);
+        }
+        return lastPrices;
+    }
+
+    @Test
+    void sameSeed_generatesSamePrices() {
+        double[] initial = SyntheticPriceGenerator.initialPrices(4, SEED);
+        int[] all = {0, 1, 2, 3};
+
+        long[] first = run(new SyntheticPriceGenerator(all, initial, 0, 0.8, 0.5, STEP_SECONDS, SEED, 0), 4, 500);
+        long[] second = run(new SyntheticPriceGenerator(all, initial, 0, 0.8, 0.5, STEP_SECONDS, SEED, 0), 4, 500);
+        long[] otherSeed = run(new SyntheticPriceGenerator(all, initial, 0, 0.8, 0.5, STEP_SECONDS, SEED + 1, 0), 4, 500);
+
+        assertArrayEquals(first, second);
+        assertNotEquals(first[0], otherSeed[0]);
+        for (long price : first) {
+            assertTrue(price >= 1);
+        }
+    }
+
+    @Test
+    void fullCorrelation_movesPartitionsTogether() {
+        double[] initial = {100, 100};
+        SyntheticPriceGenerator left = new SyntheticPriceGenerator(new int[]{0}, initial, 0, 0.8, 1.0, STEP_SECONDS, SEED, 0);
+        SyntheticPriceGenerator right = new SyntheticPriceGenerator(new int[]{1}, initial, 0, 0.8, 1.0, STEP_SECONDS, SEED, 1);
+
+        long[] prices = new long[2];
+        for (int round = 0; round < 200; round++) {
+            left.nextRound((symbolIndex, priceUnits) -> prices[symbolIndex] = priceUnits);
+            right.nextRound((symbolIndex, priceUnits) -> prices[symbolIndex] = priceUnits);
+            assertEquals(prices[0], prices[1]); // Same market shock in every round, no idiosyncratic part
+        }
+    }
+
+    @Test
+    void correlation_isReflectedInReturns() {
+        double[] initial = {100, 100};
+        SyntheticPriceGenerator generator = new SyntheticPriceGenerator(new int[]{0, 1}, initial, 0, 0.8, 0.5, STEP_SECONDS, SEED, 0);
+        double[] previous = {Math.log(100e8), Math.log(100e8)};
+        double[] current = new double[2];
+        double sumXY = 0, sumXX = 0, sumYY = 0;
+        for (int round = 0; round < 20_000; round++) {
+            generator.nextRound((symbolIndex, priceUnits) -> current[symbolIndex] = Math.log(priceUnits));
+            double x = current[0] - previous[0];
+            double y = current[1] - previous[1];
+            sumXY += x * y;
+            sumXX += x * x;
+            sumYY += y * y;
+            previous[0] = current[0];
+            previous[1] = current[1];
+        }
+        assertEquals(0.5, sumXY / Math.sqrt(sumXX * sumYY), 0.05);
+    }
+
+    @Test
+    void invalidCorrelation_isRejected() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new SyntheticPriceGenerator(new int[]{0}, new double[]{1}, 0, 0.8, 1.5, STEP_SECONDS, SEED, 0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.cryptosim.trading212.services;
+
+import com.cryptosim.trading212.dtos.TickListenerStats;
+import com.cryptosim.trading212.models.PriceTick;
+import com.cryptosim.trading212.services.contracts.TickListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TickBus.
+ */
+class TickBusTests {
+
+    private TickBus tickBus;
+
+    @BeforeEach
+    void setUp() {
+        tickBus = new TickBus();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tickBus.shutdown();
+    }
+
+    private static PriceTick tick(String symbol, String price) {
+        return new PriceTick(symbol, new BigDecimal(price), null, System.currentTimeMillis(), System.nanoTime());
+    }
+
+    @Test
+    void publish_reachesGlobalListenersAndListenersOfTheSymbolOnly() {
+        List<String> global = new ArrayList<>();
+        List<String> btcOnly = new ArrayList<>();
+        tickBus.addListener(tick -> global.add(tick.getAssetSymbol()), "global", null, false);
+        tickBus.addListener(tick -> btcOnly.add(tick.getAssetSymbol()), "btc", List.of("BTC/USD"), false);
+
+        tickBus.publish(tick("BTC/USD", "50000"));
+        tickBus.publish(tick("ETH/USD", "3000"));
+
+        assertEquals(List.of("BTC/USD", "ETH/USD"), global);
+        assertEquals(List.of("BTC/USD"), btcOnly);
+    }
+
+    @Test
+    void removeListener_stopsDeliveryAndRejectsUnknownListeners() {
+        List<String> received = new ArrayList<>();
+        TickListener listener = tick -> received.add(tick.getAssetSymbol());
+        tickBus.addListener(listener, "btc", List.of("BTC/USD"), false);
+        assertThrows(IllegalArgumentException.class, () -> tickBus.addListener(listener, "btc", null, false));
+
+        assertTrue(tickBus.removeListener(listener));
+        tickBus.publish(tick("BTC/USD", "50000"));
+
+        assertTrue(received.isEmpty());
+        assertFalse(tickBus.removeListener(listener));
+        assertTrue(tickBus.getStats().isEmpty());
+    }
+
+    @Test
+    void isolatedListener_dropsTicksOnceItsQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        tickBus.addListener(tick -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "slow", null, true);
+
+        tickBus.publish(tick("BTC/USD", "50000"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 20_000; i++) {
+            tickBus.publish(tick("BTC/USD", "50001"));
+        }
+
+        TickListenerStats stats = tickBus.getStats().get(0);
+        assertTrue(stats.isIsolated());
+        assertEquals(16_384, stats.getQueueDepth());
+        assertEquals(20_000 - 16_384, stats.getDropped());
+        release.countDown();
+    }
+}
@@ -1,13 +1,18 @@
 package com.cryptosim.trading212.services;
 
+import com.cryptosim.trading212.daos.ReplicaRouter;
+import com.cryptosim.trading212.daos.contracts.AccountChangeDao;
 import com.cryptosim.trading212.daos.contracts.AccountDao;
+import com.cryptosim.trading212.daos.contracts.PnlRollupDao;
 import com.cryptosim.trading212.daos.contracts.PortfolioAssetDao;
 import com.cryptosim.trading212.daos.contracts.TransactionDao;
 import com.cryptosim.trading212.models.Account;
 import com.cryptosim.trading212.models.PortfolioAsset;
 import com.cryptosim.trading212.models.Transaction;
 import com.cryptosim.trading212.models.TransactionType;
+import com.cryptosim.trading212.services.contracts.AccountVersionService;
 import com.cryptosim.trading212.services.contracts.KrakenDataService;
+import com.cryptosim.trading212.services.contracts.LotAccountingService;
 import com.cryptosim.trading212.services.contracts.TradingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,10 +28,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -50,6 +57,21 @@ class TradingServiceTest {
     @Mock
     private KrakenDataService krakenDataService;
 
+    @Mock
+    private AccountVersionService accountVersionService;
+
+    @Mock
+    private AccountChangeDao accountChangeDao;
+
+    @Mock
+    private PnlRollupDao pnlRollupDao;
+
+    @Mock
+    private LotAccountingService lotAccountingService;
+
+    @Mock
+    private ReplicaRouter replicaRouter;
+
     @InjectMocks
     private TradingServiceImpl tradingService;
 
@@ -70,6 +92,8 @@ class TradingServiceTest {
         testAccount.setInitialBalance(new BigDecimal("10000.00"));
         testAccount.setCreatedAt(LocalDateTime.now());
         testAccount.setUpdatedAt(LocalDateTime.now());
+        // Without replicas a replica read runs in place
+        lenient().when(replicaRouter.readFromReplica(any(), anyLong())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
     }
 
     //buyCrypto tests
@@ -166,6 +190,20 @@ class TradingServiceTest {
         assertTrue(exception.getMessage().contains("Price for " + ASSET_SYMBOL_BTC + " is not currently available."));
     }
 
+    @Test
+    void buyCrypto_stalePrice() {
+        BigDecimal quantityToBuy = new BigDecimal("0.1");
+        when(accountDao.findByUserIdentifier(USER_IDENTIFIER)).thenReturn(Optional.of(testAccount));
+        when(krakenDataService.getPriceForSymbol(ASSET_SYMBOL_BTC)).thenReturn(new BigDecimal("50000"));
+        when(krakenDataService.getPriceAgeMillis(ASSET_SYMBOL_BTC)).thenReturn(120_000L); // Feed stalled two minutes ago
+
+        Exception exception = assertThrows(IllegalStateException.class, () -> {
+            tradingService.buyCrypto(USER_IDENTIFIER, ASSET_SYMBOL_BTC, quantityToBuy);
+        });
+        assertTrue(exception.getMessage().contains("is stale"));
+        verify(transactionDao, never()).logTransaction(any(Transaction.class));
+    }
+
     @Test
     void buyCrypto_invalidQuantity_zero() {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -0,0 +1,123 @@
+package com.cryptosim.trading212.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property tests checking that the fixed-point Money, Quantity and Price types produce exactly the results of the
+ * BigDecimal rules in TradeMath, over random values from dust to whale sizes.
+ */
+class FixedPointTests {
+
+    private static final int SAMPLES = 100_000;
+
+    private final Random random = new Random(20260401L);
+
+    @Test
+    void trading_matchesTradeMath() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Quantity held = Quantity.ofUnits(randomUnits(12));
+            Quantity bought = Quantity.ofUnits(randomUnits(12));
+            Price average = Price.ofUnits(randomUnits(15));
+            Price price = Price.ofUnits(randomUnits(15));
+            Money amount = Money.ofUnits(randomUnits(13));
+
+            assertMatches(() -> TradeMath.tradeValue(bought.toBigDecimal(), price.toBigDecimal()),
+                    () -> bought.times(price).toBigDecimal());
+            assertMatches(() -> TradeMath.quantityForAmount(amount.toBigDecimal(), price.toBigDecimal()),
+                    () -> amount.quantityAt(price).toBigDecimal());
+            assertMatches(() -> TradeMath.averagePriceAfterBuy(held.toBigDecimal(), average.toBigDecimal(), bought.toBigDecimal(), price.toBigDecimal()),
+                    () -> Price.averageAfterBuy(held, average, bought, price).toBigDecimal());
+            assertMatches(() -> TradeMath.averageCostProfitLoss(held.toBigDecimal(), average.toBigDecimal(), TradeMath.tradeValue(held.toBigDecimal(), price.toBigDecimal())),
+                    () -> held.times(price).minus(held.times(average)).toBigDecimal());
+        }
+    }
+
+    @Test
+    void decimalInputs_roundOnlyTheResultLikeTradeMath() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Quantity held = Quantity.ofUnits(randomUnits(12));
+            Price average = Price.ofUnits(randomUnits(15));
+            BigDecimal quantity = randomDecimal(12);
+            BigDecimal amount = randomDecimal(13);
+            // Half the time a mid price between two quotes, which has one decimal more than the price scale
+            BigDecimal price = random.nextBoolean() ? randomDecimal(15)
+                    : BigDecimal.valueOf(randomUnits(15) + randomUnits(15), Price.SCALE).divide(BigDecimal.valueOf(2));
+            BigDecimal sold = held.toBigDecimal().multiply(BigDecimal.valueOf(random.nextInt(1001), 3));
+
+            assertMatches(() -> TradeMath.tradeValue(quantity, price),
+                    () -> Money.tradeValue(quantity, price).toBigDecimal());
+            assertMatches(() -> TradeMath.quantityForAmount(amount, price),
+                    () -> Quantity.forAmount(amount, price).toBigDecimal());
+            assertMatches(() -> TradeMath.averagePriceAfterBuy(held.toBigDecimal(), average.toBigDecimal(), quantity, price),
+                    () -> Price.averageAfterBuy(held, average, quantity, price).toBigDecimal());
+            assertMatches(() -> TradeMath.scaleQuantity(held.toBigDecimal().subtract(sold)),
+                    () -> held.minus(sold).toBigDecimal());
+        }
+    }
+
+    @Test
+    void of_roundsLikeTradeMath() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal value = BigDecimal.valueOf(random.nextLong() >> (30 + random.nextInt(34)), random.nextInt(14));
+            assertEquals(TradeMath.scaleQuantity(value), Quantity.of(value).toBigDecimal());
+            assertEquals(TradeMath.scalePrice(value), Price.of(value).toBigDecimal());
+            assertEquals(value.setScale(TradeMath.FIAT_SCALE, RoundingMode.HALF_UP), Money.of(value).toBigDecimal());
+        }
+    }
+
+    @Test
+    void divideRounded_matchesBigIntegerDivision() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long divisor = randomUnits(18);
+            long high = (random.nextLong() >>> 1) % divisor;
+            long low = random.nextLong();
+            BigInteger dividend = BigInteger.valueOf(high).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(low)));
+            BigInteger[] expected = dividend.divideAndRemainder(BigInteger.valueOf(divisor));
+            if (expected[0].bitLength() >= Long.SIZE) {
+                assertThrows(ArithmeticException.class, () -> FixedPoint.divideRounded(high, low, divisor, RoundingMode.DOWN));
+                continue;
+            }
+            assertEquals(expected[0].longValueExact(), FixedPoint.divideRounded(high, low, divisor, RoundingMode.DOWN));
+            long halfUp = expected[1].shiftLeft(1).compareTo(BigInteger.valueOf(divisor)) >= 0 ? 1 : 0;
+            assertEquals(expected[0].longValueExact() + halfUp, FixedPoint.divideRounded(high, low, divisor, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Test
+    void arithmetic_throwsInsteadOfOverflowing() {
+        assertThrows(ArithmeticException.class, () -> Money.ofUnits(Long.MAX_VALUE).plus(Money.ofUnits(1)));
+        assertThrows(ArithmeticException.class, () -> Quantity.ofUnits(Long.MIN_VALUE).minus(Quantity.ofUnits(1)));
+        assertThrows(ArithmeticException.class, () -> Quantity.ofUnits(Long.MAX_VALUE).times(Price.ofUnits(Long.MAX_VALUE)));
+        assertThrows(ArithmeticException.class, () -> Money.ofUnits(Long.MAX_VALUE).quantityAt(Price.ofUnits(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofUnits(100).quantityAt(Price.ZERO));
+        assertThrows(ArithmeticException.class, () -> Quantity.of(new BigDecimal("1e12")));
+    }
+
+    // Positive units with a random number of digits, so small and large magnitudes are equally likely
+    private long randomUnits(int maxDigits) {
+        long bound = FixedPoint.powerOfTen(1 + random.nextInt(maxDigits));
+        return 1 + (random.nextLong() >>> 1) % bound;
+    }
+
+    // Positive decimals with up to 12 decimals, so they are as often finer than the scales as they fit them
+    private BigDecimal randomDecimal(int maxDigits) {
+        return BigDecimal.valueOf(randomUnits(maxDigits), random.nextInt(13));
+    }
+
+    private static void assertMatches(Supplier<BigDecimal> expected, Supplier<BigDecimal> actual) {
+        BigDecimal value = expected.get();
+        if (value.unscaledValue().bitLength() >= Long.SIZE) {
+            assertThrows(ArithmeticException.class, actual::get);
+        } else {
+            assertEquals(value, actual.get());
+        }
+    }
+}
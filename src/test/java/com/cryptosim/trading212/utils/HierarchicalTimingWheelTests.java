@@ -0,0 +1,72 @@
+package com.cryptosim.trading212.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HierarchicalTimingWheel scheduling logic.
+ */
+class HierarchicalTimingWheelTests {
+
+    private static final long START = 1_000_000L;
+
+    // 4 slots per level, 3 levels: horizon of 64 ticks
+    private HierarchicalTimingWheel<String> wheel;
+    private List<String> fired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HierarchicalTimingWheel<>(1000, 2, 3, START);
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    void advanceTo_firesItemsOnlyOnceDue() {
+        wheel.schedule("a", START + 3_000);
+        wheel.schedule("b", START + 5_000);
+
+        assertEquals(0, wheel.advanceTo(START + 2_999, fired::add));
+        assertEquals(1, wheel.advanceTo(START + 3_000, fired::add));
+        assertEquals(List.of("a"), fired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advanceTo_cascadesHigherLevelsInDueOrder() {
+        wheel.schedule("late", START + 40_000);
+        wheel.schedule("middle", START + 17_000);
+        wheel.schedule("early", START + 2_000);
+
+        wheel.advanceTo(START + 39_000, fired::add);
+        assertEquals(List.of("early", "middle"), fired);
+
+        wheel.advanceTo(START + 40_000, fired::add);
+        assertEquals(List.of("early", "middle", "late"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_pastDueItem_firesOnNextTick() {
+        wheel.advanceTo(START + 10_000, fired::add);
+        wheel.schedule("overdue", START);
+
+        wheel.advanceTo(START + 11_000, fired::add);
+        assertEquals(List.of("overdue"), fired);
+    }
+
+    @Test
+    void schedule_beyondHorizon_firesAtItsDueTime() {
+        wheel.schedule("far", START + 200_000);
+
+        wheel.advanceTo(START + 199_000, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(START + 200_000, fired::add);
+        assertEquals(List.of("far"), fired);
+    }
+}